@@ -0,0 +1,68 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.batch.alarm;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.Map;
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class AlarmCheckConfiguration {
+
+    @Bean
+    public AlarmCheckProperties alarmCheckProperties() {
+        return new AlarmCheckProperties();
+    }
+
+    @Bean
+    public AlarmCheckLatencyRecorder alarmCheckLatencyRecorder() {
+        return new AlarmCheckLatencyRecorder();
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor alarmCheckTaskExecutor(AlarmCheckProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getWorkerThreadSize());
+        executor.setMaxPoolSize(properties.getWorkerThreadSize());
+        executor.setQueueCapacity(properties.getWorkerQueueSize());
+        executor.setThreadNamePrefix("Pinpoint-AlarmCheck-Worker-");
+        executor.setDaemon(true);
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+    @Bean
+    public AlarmCheckExecutor alarmCheckExecutor(@Qualifier("alarmCheckTaskExecutor") ThreadPoolTaskExecutor alarmCheckTaskExecutor,
+                                                 AlarmCheckProperties properties,
+                                                 AlarmCheckLatencyRecorder alarmCheckLatencyRecorder) {
+        Map<String, Integer> maxConcurrency = Map.of(
+                AlarmCheckExecutor.DATASOURCE_HBASE, properties.getHbaseMaxConcurrency(),
+                AlarmCheckExecutor.DATASOURCE_PINOT, properties.getPinotMaxConcurrency()
+        );
+        Map<String, Double> startsPerSecond = Map.of(
+                AlarmCheckExecutor.DATASOURCE_HBASE, properties.getHbaseStartsPerSecond(),
+                AlarmCheckExecutor.DATASOURCE_PINOT, properties.getPinotStartsPerSecond()
+        );
+        return new AlarmCheckExecutor(alarmCheckTaskExecutor, maxConcurrency, startsPerSecond, alarmCheckLatencyRecorder);
+    }
+}
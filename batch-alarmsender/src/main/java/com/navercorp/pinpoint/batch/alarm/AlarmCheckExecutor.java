@@ -0,0 +1,135 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.batch.alarm;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs alarm check tasks concurrently.
+ * <p>
+ * Each task is expected to collect the data of one {@code DataCollector} and evaluate every checker sharing it.
+ * The number of tasks running against the same datasource is bounded, and the start rate of the tasks
+ * can be limited per datasource so that the applications of a job do not hit the datasource at the same moment.
+ * The rate limit is shared by all applications of the job, so the starts are spread over the job run
+ * instead of delaying every application.
+ */
+public class AlarmCheckExecutor {
+
+    public static final String DATASOURCE_HBASE = "hbase";
+    public static final String DATASOURCE_PINOT = "pinot";
+
+    private final Logger logger = LogManager.getLogger(this.getClass());
+
+    private final Executor executor;
+    private final Map<String, Semaphore> dataSourceLimits;
+    private final Map<String, AlarmCheckRateLimiter> dataSourceRateLimits;
+    private final AlarmCheckLatencyRecorder latencyRecorder;
+
+    /**
+     * @param dataSourceStartsPerSecond maximum task starts per second of each datasource, 0 or less is unlimited
+     */
+    public AlarmCheckExecutor(Executor executor, Map<String, Integer> dataSourceMaxConcurrency,
+                              Map<String, Double> dataSourceStartsPerSecond, AlarmCheckLatencyRecorder latencyRecorder) {
+        this.executor = Objects.requireNonNull(executor, "executor");
+        Objects.requireNonNull(dataSourceMaxConcurrency, "dataSourceMaxConcurrency");
+        Objects.requireNonNull(dataSourceStartsPerSecond, "dataSourceStartsPerSecond");
+        this.latencyRecorder = Objects.requireNonNull(latencyRecorder, "latencyRecorder");
+
+        this.dataSourceLimits = new HashMap<>();
+        for (Map.Entry<String, Integer> entry : dataSourceMaxConcurrency.entrySet()) {
+            if (entry.getValue() <= 0) {
+                throw new IllegalArgumentException("maxConcurrency must be greater than 0. dataSource:" + entry.getKey());
+            }
+            this.dataSourceLimits.put(entry.getKey(), new Semaphore(entry.getValue()));
+        }
+        this.dataSourceRateLimits = new HashMap<>();
+        for (Map.Entry<String, Double> entry : dataSourceStartsPerSecond.entrySet()) {
+            if (entry.getValue() > 0) {
+                this.dataSourceRateLimits.put(entry.getKey(), new AlarmCheckRateLimiter(entry.getValue()));
+            }
+        }
+    }
+
+    /**
+     * Runs the tasks and waits for all of them.
+     * The first failure is rethrown after every task has finished.
+     */
+    public void execute(String dataSource, List<? extends Runnable> tasks) {
+        Objects.requireNonNull(dataSource, "dataSource");
+        Objects.requireNonNull(tasks, "tasks");
+        if (tasks.isEmpty()) {
+            return;
+        }
+
+        final Semaphore limit = dataSourceLimits.get(dataSource);
+        final AlarmCheckRateLimiter rateLimit = dataSourceRateLimits.get(dataSource);
+        final List<CompletableFuture<Void>> futures = new ArrayList<>(tasks.size());
+        for (Runnable task : tasks) {
+            futures.add(CompletableFuture.runAsync(() -> run(dataSource, rateLimit, limit, task), executor));
+        }
+
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw e;
+        }
+    }
+
+    private void run(String dataSource, AlarmCheckRateLimiter rateLimit, Semaphore limit, Runnable task) {
+        try {
+            if (rateLimit != null) {
+                rateLimit.acquire();
+            }
+            if (limit != null) {
+                limit.acquire();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for " + dataSource, e);
+        }
+        final long startTime = System.nanoTime();
+        try {
+            task.run();
+        } finally {
+            if (limit != null) {
+                limit.release();
+            }
+            final long elapsed = System.nanoTime() - startTime;
+            latencyRecorder.record(dataSource, TimeUnit.NANOSECONDS.toMillis(elapsed));
+            if (logger.isDebugEnabled()) {
+                logger.debug("alarm check {} {}ms", dataSource, TimeUnit.NANOSECONDS.toMillis(elapsed));
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.batch.alarm;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Collects the latency of alarm checks per datasource.
+ * <p>
+ * A job run keeps up to {@code maxSamples} latencies (reservoir sampling beyond that),
+ * and {@link #snapshotAndReset(String)} reports the percentiles at the end of the run.
+ */
+public class AlarmCheckLatencyRecorder {
+
+    private static final int DEFAULT_MAX_SAMPLES = 8192;
+
+    private final int maxSamples;
+    private final ConcurrentMap<String, Reservoir> reservoirs = new ConcurrentHashMap<>();
+
+    public AlarmCheckLatencyRecorder() {
+        this(DEFAULT_MAX_SAMPLES);
+    }
+
+    public AlarmCheckLatencyRecorder(int maxSamples) {
+        if (maxSamples <= 0) {
+            throw new IllegalArgumentException("maxSamples must be greater than 0");
+        }
+        this.maxSamples = maxSamples;
+    }
+
+    public void record(String dataSource, long latencyMillis) {
+        Objects.requireNonNull(dataSource, "dataSource");
+        final Reservoir reservoir = reservoirs.computeIfAbsent(dataSource, key -> new Reservoir(maxSamples));
+        reservoir.add(latencyMillis);
+    }
+
+    public Snapshot snapshotAndReset(String dataSource) {
+        Objects.requireNonNull(dataSource, "dataSource");
+        final Reservoir reservoir = reservoirs.remove(dataSource);
+        if (reservoir == null) {
+            return Snapshot.EMPTY;
+        }
+        return reservoir.snapshot();
+    }
+
+    private static class Reservoir {
+        private final long[] values;
+        private int size;
+        private long count;
+
+        private Reservoir(int maxSamples) {
+            this.values = new long[maxSamples];
+        }
+
+        synchronized void add(long value) {
+            count++;
+            if (size < values.length) {
+                values[size++] = value;
+                return;
+            }
+            final long index = ThreadLocalRandom.current().nextLong(count);
+            if (index < values.length) {
+                values[(int) index] = value;
+            }
+        }
+
+        synchronized Snapshot snapshot() {
+            final long[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            return new Snapshot(count, sorted);
+        }
+    }
+
+    public static class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(0, new long[0]);
+
+        private final long count;
+        private final long[] sorted;
+
+        Snapshot(long count, long[] sorted) {
+            this.count = count;
+            this.sorted = sorted;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getPercentile(double percentile) {
+            if (percentile < 0 || percentile > 100) {
+                throw new IllegalArgumentException("percentile out of range " + percentile);
+            }
+            if (sorted.length == 0) {
+                return 0;
+            }
+            final int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+            return sorted[Math.max(0, rank - 1)];
+        }
+
+        public long getMax() {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            return sorted[sorted.length - 1];
+        }
+
+        @Override
+        public String toString() {
+            return "Snapshot{" +
+                    "count=" + count +
+                    ", p50=" + getPercentile(50) +
+                    ", p90=" + getPercentile(90) +
+                    ", p99=" + getPercentile(99) +
+                    ", max=" + getMax() +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.batch.alarm;
+
+import org.springframework.beans.factory.annotation.Value;
+
+/**
+ * Settings of the concurrent alarm checker engine shared by the alarm jobs.
+ */
+public class AlarmCheckProperties {
+
+    @Value("${alarm.check.worker.threadSize:8}")
+    private int workerThreadSize;
+
+    @Value("${alarm.check.worker.queueSize:1024}")
+    private int workerQueueSize;
+
+    // maximum number of data collections running at the same time against each datasource
+    @Value("${alarm.check.datasource.hbase.maxConcurrency:4}")
+    private int hbaseMaxConcurrency;
+
+    @Value("${alarm.check.datasource.pinot.maxConcurrency:2}")
+    private int pinotMaxConcurrency;
+
+    // maximum number of data collections started per second against each datasource, 0 is unlimited
+    @Value("${alarm.check.datasource.hbase.startsPerSecond:0}")
+    private double hbaseStartsPerSecond;
+
+    @Value("${alarm.check.datasource.pinot.startsPerSecond:0}")
+    private double pinotStartsPerSecond;
+
+    public int getWorkerThreadSize() {
+        return workerThreadSize;
+    }
+
+    public int getWorkerQueueSize() {
+        return workerQueueSize;
+    }
+
+    public int getHbaseMaxConcurrency() {
+        return hbaseMaxConcurrency;
+    }
+
+    public int getPinotMaxConcurrency() {
+        return pinotMaxConcurrency;
+    }
+
+    public double getHbaseStartsPerSecond() {
+        return hbaseStartsPerSecond;
+    }
+
+    public double getPinotStartsPerSecond() {
+        return pinotStartsPerSecond;
+    }
+
+    @Override
+    public String toString() {
+        return "AlarmCheckProperties{" +
+                "workerThreadSize=" + workerThreadSize +
+                ", workerQueueSize=" + workerQueueSize +
+                ", hbaseMaxConcurrency=" + hbaseMaxConcurrency +
+                ", pinotMaxConcurrency=" + pinotMaxConcurrency +
+                ", hbaseStartsPerSecond=" + hbaseStartsPerSecond +
+                ", pinotStartsPerSecond=" + pinotStartsPerSecond +
+                '}';
+    }
+}
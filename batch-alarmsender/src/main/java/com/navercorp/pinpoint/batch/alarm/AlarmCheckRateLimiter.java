@@ -0,0 +1,60 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.batch.alarm;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket bounding how many alarm check tasks start per second against one datasource.
+ * Up to one second worth of starts is allowed at once, the following starts are spread evenly.
+ */
+class AlarmCheckRateLimiter {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+
+    // theoretical start time of the next task
+    private long nextStartNanos = Long.MIN_VALUE;
+
+    AlarmCheckRateLimiter(double startsPerSecond) {
+        if (startsPerSecond <= 0) {
+            throw new IllegalArgumentException("startsPerSecond must be greater than 0");
+        }
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / startsPerSecond);
+        final long burst = Math.max(1, (long) Math.ceil(startsPerSecond));
+        this.burstNanos = (burst - 1) * intervalNanos;
+    }
+
+    void acquire() throws InterruptedException {
+        final long waitNanos = reserve(System.nanoTime());
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * @return nanoseconds to wait before starting
+     */
+    synchronized long reserve(long nowNanos) {
+        if (nextStartNanos == Long.MIN_VALUE || nextStartNanos - nowNanos < 0) {
+            nextStartNanos = nowNanos;
+        }
+        final long waitNanos = Math.max(0, nextStartNanos - nowNanos - burstNanos);
+        nextStartNanos += intervalNanos;
+        return waitNanos;
+    }
+}
@@ -16,6 +16,7 @@
 
 package com.navercorp.pinpoint.batch;
 
+import com.navercorp.pinpoint.batch.alarm.AlarmCheckConfiguration;
 import com.navercorp.pinpoint.batch.alarm.AlarmSenderConfiguration;
 import com.navercorp.pinpoint.common.server.config.RestTemplateConfiguration;
 import com.navercorp.pinpoint.common.server.config.TypeLoaderConfiguration;
@@ -55,7 +56,8 @@ import org.springframework.context.annotation.ImportResource;
         RestTemplateConfiguration.class,
         UserModule.class,
         UriStatAlarmConfiguration.class,
-        AlarmSenderConfiguration.class
+        AlarmSenderConfiguration.class,
+        AlarmCheckConfiguration.class
 })
 public class BatchApp {
 
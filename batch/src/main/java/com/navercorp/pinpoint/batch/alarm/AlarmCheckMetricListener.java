@@ -0,0 +1,63 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.batch.alarm;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.util.Objects;
+
+/**
+ * Reports the alarm check latency percentiles of a job run.
+ * The values are logged and kept in the job {@link ExecutionContext}.
+ */
+public class AlarmCheckMetricListener implements JobExecutionListener {
+
+    private final Logger logger = LogManager.getLogger(this.getClass());
+
+    private final AlarmCheckLatencyRecorder latencyRecorder;
+    private final String dataSource;
+
+    public AlarmCheckMetricListener(AlarmCheckLatencyRecorder latencyRecorder, String dataSource) {
+        this.latencyRecorder = Objects.requireNonNull(latencyRecorder, "latencyRecorder");
+        this.dataSource = Objects.requireNonNull(dataSource, "dataSource");
+    }
+
+    @Override
+    public void beforeJob(JobExecution jobExecution) {
+        // drop the samples left by an aborted run
+        latencyRecorder.snapshotAndReset(dataSource);
+    }
+
+    @Override
+    public void afterJob(JobExecution jobExecution) {
+        AlarmCheckLatencyRecorder.Snapshot snapshot = latencyRecorder.snapshotAndReset(dataSource);
+
+        ExecutionContext context = jobExecution.getExecutionContext();
+        context.putLong("alarmCheck.count", snapshot.getCount());
+        context.putLong("alarmCheck.latency.p50", snapshot.getPercentile(50));
+        context.putLong("alarmCheck.latency.p90", snapshot.getPercentile(90));
+        context.putLong("alarmCheck.latency.p99", snapshot.getPercentile(99));
+        context.putLong("alarmCheck.latency.max", snapshot.getMax());
+
+        logger.info("{} alarm check latency(ms) {}", jobExecution.getJobInstance().getJobName(), snapshot);
+    }
+}
@@ -35,7 +35,6 @@ import javax.annotation.Nullable;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
 /**
  * @author minwoo.jung
@@ -52,16 +51,20 @@ public class AlarmProcessor implements ItemProcessor<Application, AppAlarmChecke
 
     private final AgentInfoService agentInfoService;
 
+    private final AlarmCheckExecutor alarmCheckExecutor;
+
     public AlarmProcessor(
             DataCollectorFactory dataCollectorFactory,
             AlarmService alarmService,
             ApplicationIndexDao applicationIndexDao,
-            AgentInfoService agentInfoService
+            AgentInfoService agentInfoService,
+            AlarmCheckExecutor alarmCheckExecutor
     ) {
         this.dataCollectorFactory = Objects.requireNonNull(dataCollectorFactory, "dataCollectorFactory");
         this.alarmService = Objects.requireNonNull(alarmService, "alarmService");
         this.applicationIndexDao = Objects.requireNonNull(applicationIndexDao, "applicationIndexDao");
         this.agentInfoService = Objects.requireNonNull(agentInfoService, "agentInfoService");
+        this.alarmCheckExecutor = Objects.requireNonNull(alarmCheckExecutor, "alarmCheckExecutor");
     }
 
     public AppAlarmChecker process(@Nonnull Application application) {
@@ -71,7 +74,7 @@ public class AlarmProcessor implements ItemProcessor<Application, AppAlarmChecke
         }
 
         AppAlarmChecker appChecker = new AppAlarmChecker(checkers);
-        appChecker.check();
+        appChecker.check(alarmCheckExecutor);
 
         return appChecker;
     }
@@ -111,10 +114,8 @@ public class AlarmProcessor implements ItemProcessor<Application, AppAlarmChecke
     }
 
     private List<String> fetchActiveAgents(String applicationId, Range activeRange) {
-        return applicationIndexDao.selectAgentIds(applicationId)
-                .stream()
-                .filter(id -> agentInfoService.isActiveAgent(id, activeRange))
-                .collect(Collectors.toUnmodifiableList());
+        List<String> agentIds = applicationIndexDao.selectAgentIds(applicationId);
+        return List.copyOf(agentInfoService.getActiveAgentIds(agentIds, activeRange));
     }
 
     private static class RuleTransformer implements Function<Rule, AlarmChecker<?>> {
@@ -80,6 +80,10 @@ public abstract class AlarmChecker<T> implements AlarmCheckerInterface {
         return unit;
     }
 
+    public DataCollector getDataCollector() {
+        return dataCollector;
+    }
+
     protected abstract boolean decideResult(T value);
 
     public void check() {
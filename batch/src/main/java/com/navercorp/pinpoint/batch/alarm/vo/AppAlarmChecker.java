@@ -15,9 +15,14 @@
  */
 package com.navercorp.pinpoint.batch.alarm.vo;
 
+import com.navercorp.pinpoint.batch.alarm.AlarmCheckExecutor;
 import com.navercorp.pinpoint.batch.alarm.checker.AlarmChecker;
+import com.navercorp.pinpoint.batch.alarm.collector.DataCollector;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author youngjin.kim2
@@ -35,6 +40,28 @@ public class AppAlarmChecker {
         }
     }
 
+    /**
+     * Checkers sharing a {@link DataCollector} are evaluated in one task after a single collection,
+     * and the tasks of different collectors run concurrently.
+     */
+    public void check(AlarmCheckExecutor executor) {
+        final Map<DataCollector, List<AlarmChecker<?>>> collectorGroups = new LinkedHashMap<>();
+        for (AlarmChecker<?> child : this.children) {
+            collectorGroups.computeIfAbsent(child.getDataCollector(), k -> new ArrayList<>()).add(child);
+        }
+
+        final List<Runnable> tasks = new ArrayList<>(collectorGroups.size());
+        for (List<AlarmChecker<?>> checkers : collectorGroups.values()) {
+            // the first checker collects the data, the others reuse the collected result
+            tasks.add(() -> {
+                for (AlarmChecker<?> checker : checkers) {
+                    checker.check();
+                }
+            });
+        }
+        executor.execute(AlarmCheckExecutor.DATASOURCE_HBASE, tasks);
+    }
+
     public List<AlarmChecker<?>> getChildren() {
         return children;
     }
@@ -24,6 +24,7 @@ import org.apache.logging.log4j.Logger;
 import org.springframework.batch.item.ItemProcessor;
 
 import javax.annotation.Nonnull;
+import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 
@@ -52,17 +53,12 @@ public class AgentCountProcessor implements ItemProcessor<String, Integer> {
 
     @Override
     public Integer process(@Nonnull String applicationName) {
-        long localCount = applicationIndexDao.selectAgentIds(applicationName)
-                .stream()
-                .filter(this::isActive)
-                .count();
-        logger.info("Application {} has {} agents", applicationName, localCount);
-        return Math.toIntExact(localCount);
-    }
-
-    private boolean isActive(String agentId) {
         long now = System.currentTimeMillis();
         Range range = Range.between(now - duration, now);
-        return agentInfoService.isActiveAgent(agentId, range);
+
+        List<String> agentIds = applicationIndexDao.selectAgentIds(applicationName);
+        int localCount = agentInfoService.getActiveAgentIds(agentIds, range).size();
+        logger.info("Application {} has {} agents", applicationName, localCount);
+        return localCount;
     }
 }
@@ -0,0 +1,118 @@
+package com.navercorp.pinpoint.batch.alarm;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AlarmCheckExecutorTest {
+
+    private final ExecutorService executorService = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void execute_dataSourceLimit() {
+        AlarmCheckLatencyRecorder recorder = new AlarmCheckLatencyRecorder();
+        AlarmCheckExecutor executor = new AlarmCheckExecutor(executorService, Map.of(AlarmCheckExecutor.DATASOURCE_HBASE, 2), Map.of(), recorder);
+
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<Runnable> tasks = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            tasks.add(() -> {
+                int current = running.incrementAndGet();
+                maxRunning.accumulateAndGet(current, Math::max);
+                sleep(20);
+                running.decrementAndGet();
+            });
+        }
+
+        executor.execute(AlarmCheckExecutor.DATASOURCE_HBASE, tasks);
+
+        Assertions.assertEquals(0, running.get());
+        Assertions.assertTrue(maxRunning.get() <= 2, "maxRunning " + maxRunning.get());
+        Assertions.assertEquals(10, recorder.snapshotAndReset(AlarmCheckExecutor.DATASOURCE_HBASE).getCount());
+    }
+
+    @Test
+    public void execute_startRate() {
+        AlarmCheckExecutor executor = new AlarmCheckExecutor(executorService, Map.of(),
+                Map.of(AlarmCheckExecutor.DATASOURCE_PINOT, 100.0), new AlarmCheckLatencyRecorder());
+
+        AtomicInteger count = new AtomicInteger();
+        List<Runnable> tasks = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            tasks.add(count::incrementAndGet);
+        }
+        executor.execute(AlarmCheckExecutor.DATASOURCE_PINOT, tasks);
+
+        Assertions.assertEquals(5, count.get());
+    }
+
+    @Test
+    public void execute_failure() {
+        AlarmCheckExecutor executor = new AlarmCheckExecutor(executorService, Map.of(), Map.of(), new AlarmCheckLatencyRecorder());
+
+        AtomicInteger count = new AtomicInteger();
+        List<Runnable> tasks = List.of(
+                count::incrementAndGet,
+                () -> {
+                    throw new IllegalStateException("collect fail");
+                },
+                count::incrementAndGet
+        );
+
+        Assertions.assertThrows(IllegalStateException.class, () -> executor.execute(AlarmCheckExecutor.DATASOURCE_HBASE, tasks));
+        Assertions.assertEquals(2, count.get());
+    }
+
+    @Test
+    public void rateLimiter_burstThenSpread() {
+        AlarmCheckRateLimiter rateLimiter = new AlarmCheckRateLimiter(10);
+        long now = 1_000_000_000L;
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertEquals(0, rateLimiter.reserve(now));
+        }
+        Assertions.assertEquals(TimeUnit.MILLISECONDS.toNanos(100), rateLimiter.reserve(now));
+        Assertions.assertEquals(TimeUnit.MILLISECONDS.toNanos(200), rateLimiter.reserve(now));
+
+        // refilled after an idle second
+        now += TimeUnit.SECONDS.toNanos(2);
+        Assertions.assertEquals(0, rateLimiter.reserve(now));
+    }
+
+    @Test
+    public void latencySnapshot() {
+        AlarmCheckLatencyRecorder recorder = new AlarmCheckLatencyRecorder(1000);
+        for (int i = 1; i <= 100; i++) {
+            recorder.record(AlarmCheckExecutor.DATASOURCE_HBASE, i);
+        }
+
+        AlarmCheckLatencyRecorder.Snapshot snapshot = recorder.snapshotAndReset(AlarmCheckExecutor.DATASOURCE_HBASE);
+        Assertions.assertEquals(100, snapshot.getCount());
+        Assertions.assertEquals(50, snapshot.getPercentile(50));
+        Assertions.assertEquals(99, snapshot.getPercentile(99));
+        Assertions.assertEquals(100, snapshot.getMax());
+
+        Assertions.assertEquals(0, recorder.snapshotAndReset(AlarmCheckExecutor.DATASOURCE_HBASE).getCount());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -24,8 +24,7 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
-import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.Mockito.times;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -48,6 +47,8 @@ public class AlarmProcessorTest {
     @Mock
     private AgentStatDataCollector agentStatDataCollector;
 
+    private final AlarmCheckExecutor alarmCheckExecutor = new AlarmCheckExecutor(Runnable::run, Map.of(), Map.of(), new AlarmCheckLatencyRecorder());
+
     private static final String SERVICE_NAME = "local_tomcat";
 
     private static final List<String> agentIds = List.of("agent0", "agent1", "agent2");
@@ -58,7 +59,7 @@ public class AlarmProcessorTest {
 
         when(alarmService.selectRuleByApplicationId(SERVICE_NAME)).thenReturn(List.of());
 
-        AlarmProcessor proc = new AlarmProcessor(dataCollectorFactory, alarmService, applicationIndexDao, agentInfoService);
+        AlarmProcessor proc = new AlarmProcessor(dataCollectorFactory, alarmService, applicationIndexDao, agentInfoService, alarmCheckExecutor);
         AppAlarmChecker checker = proc.process(app);
 
         assertNull(checker, "should be skipped");
@@ -74,21 +75,18 @@ public class AlarmProcessorTest {
 
         when(alarmService.selectRuleByApplicationId(SERVICE_NAME)).thenReturn(List.of(rule1, rule2));
         when(applicationIndexDao.selectAgentIds(SERVICE_NAME)).thenReturn(agentIds);
-        when(agentInfoService.isActiveAgent(anyString(), any())).then(invocation -> {
-           String agentId = invocation.getArgument(0, String.class);
-           return !agentId.equals("agent0");
-        });
+        when(agentInfoService.getActiveAgentIds(eq(agentIds), any())).thenReturn(agentIds.subList(1, 3));
         when(dataCollectorFactory.createDataCollector(any(), any(), any(), anyLong())).thenReturn(agentStatDataCollector);
         when(agentStatDataCollector.getHeapUsageRate()).thenReturn(heapUsageRate);
 
         // Executions
-        AlarmProcessor processor = new AlarmProcessor(dataCollectorFactory, alarmService, applicationIndexDao, agentInfoService);
+        AlarmProcessor processor = new AlarmProcessor(dataCollectorFactory, alarmService, applicationIndexDao, agentInfoService, alarmCheckExecutor);
         AppAlarmChecker appChecker = processor.process(application);
 
         // Validations
         verify(alarmService).selectRuleByApplicationId(SERVICE_NAME);
         verify(applicationIndexDao).selectAgentIds(SERVICE_NAME);
-        verify(agentInfoService, times(3)).isActiveAgent(anyString(), any());
+        verify(agentInfoService).getActiveAgentIds(eq(agentIds), any());
         verify(dataCollectorFactory).createDataCollector(any(), any(), any(), anyLong());
 
         assertNotNull(appChecker, "processed object is null");
@@ -1,10 +1,13 @@
 package com.navercorp.pinpoint.collector;
 
 
+import com.navercorp.pinpoint.collector.alarm.StreamingAlarmModule;
 import com.navercorp.pinpoint.collector.config.ClusterModule;
 import com.navercorp.pinpoint.collector.config.CollectorProperties;
 import com.navercorp.pinpoint.collector.config.FlinkContextModule;
 import com.navercorp.pinpoint.collector.config.MetricConfiguration;
+import com.navercorp.pinpoint.collector.dao.hbase.stat.AgentStatRollupModule;
+import com.navercorp.pinpoint.collector.dao.local.CollectorLocalStorageModule;
 import com.navercorp.pinpoint.collector.grpc.ssl.GrpcSslModule;
 import com.navercorp.pinpoint.common.server.CommonsServerConfiguration;
 import com.navercorp.pinpoint.common.server.config.TypeLoaderConfiguration;
@@ -28,12 +31,16 @@ import org.springframework.context.annotation.ImportResource;
 
         FlinkContextModule.class,
         CollectorHbaseModule.class,
+        CollectorLocalStorageModule.class,
+        AgentStatRollupModule.class,
 
         ClusterModule.class,
 
         MetricConfiguration.class,
 
-        GrpcSslModule.class
+        GrpcSslModule.class,
+
+        StreamingAlarmModule.class
 })
 @ComponentScan(basePackages = {
         "com.navercorp.pinpoint.collector.handler",
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.pinpoint.collector.alarm;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+public class LoggingStreamingAlarmListener implements StreamingAlarmListener {
+    private final Logger logger = LogManager.getLogger(this.getClass());
+
+    @Override
+    public void onResult(StreamingAlarmRule rule, boolean detected, long detectedValue) {
+        final StreamingCheckerType checkerType = rule.getCheckerType();
+        if (detected) {
+            logger.warn("[{}] {} is {}{} (Threshold : {}{})", rule.getApplicationId(), checkerType.getCheckerName(),
+                    detectedValue, checkerType.getUnit(), rule.getThreshold(), checkerType.getUnit());
+        } else {
+            logger.info("[{}] {} recovered. value is {}{}", rule.getApplicationId(), checkerType.getCheckerName(),
+                    detectedValue, checkerType.getUnit());
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.pinpoint.collector.alarm;
+
+import com.navercorp.pinpoint.common.trace.SlotType;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sliding window of response counts, kept as a ring of fixed time slots.
+ * Slots that fall out of the window are reused by the next time slot.
+ */
+public class ResponseStatWindow {
+
+    private final long slotMillis;
+    private final Slot[] slots;
+
+    public ResponseStatWindow(int slotCount, long slotMillis) {
+        if (slotCount <= 0) {
+            throw new IllegalArgumentException("slotCount must be greater than 0");
+        }
+        if (slotMillis <= 0) {
+            throw new IllegalArgumentException("slotMillis must be greater than 0");
+        }
+        this.slotMillis = slotMillis;
+        this.slots = new Slot[slotCount];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = new Slot();
+        }
+    }
+
+    public void add(long timestamp, SlotType slotType) {
+        final long slotTime = timestamp / slotMillis;
+        final Slot slot = slots[(int) (slotTime % slots.length)];
+        slot.add(slotTime, slotType);
+    }
+
+    public ResponseStat snapshot(long timestamp) {
+        final long lastSlotTime = timestamp / slotMillis;
+        final long firstSlotTime = lastSlotTime - slots.length + 1;
+
+        long totalCount = 0;
+        long slowCount = 0;
+        long errorCount = 0;
+        for (Slot slot : slots) {
+            final long slotTime = slot.slotTime;
+            if (slotTime < firstSlotTime || slotTime > lastSlotTime) {
+                continue;
+            }
+            totalCount += slot.totalCount.sum();
+            slowCount += slot.slowCount.sum();
+            errorCount += slot.errorCount.sum();
+        }
+        return new ResponseStat(totalCount, slowCount, errorCount);
+    }
+
+    private static class Slot {
+        private volatile long slotTime = -1;
+
+        private final LongAdder totalCount = new LongAdder();
+        private final LongAdder slowCount = new LongAdder();
+        private final LongAdder errorCount = new LongAdder();
+
+        void add(long slotTime, SlotType slotType) {
+            if (this.slotTime != slotTime) {
+                rotate(slotTime);
+                if (this.slotTime != slotTime) {
+                    // expired slot
+                    return;
+                }
+            }
+            totalCount.increment();
+            switch (slotType) {
+                case SLOW:
+                case VERY_SLOW:
+                    slowCount.increment();
+                    break;
+                case ERROR:
+                case FAST_ERROR:
+                case NORMAL_ERROR:
+                case SLOW_ERROR:
+                case VERY_SLOW_ERROR:
+                    errorCount.increment();
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private synchronized void rotate(long slotTime) {
+            if (this.slotTime >= slotTime) {
+                // already rotated, or a late response of an expired slot
+                return;
+            }
+            totalCount.reset();
+            slowCount.reset();
+            errorCount.reset();
+            this.slotTime = slotTime;
+        }
+    }
+
+    public static class ResponseStat {
+        private final long totalCount;
+        private final long slowCount;
+        private final long errorCount;
+
+        public ResponseStat(long totalCount, long slowCount, long errorCount) {
+            this.totalCount = totalCount;
+            this.slowCount = slowCount;
+            this.errorCount = errorCount;
+        }
+
+        public long getTotalCount() {
+            return totalCount;
+        }
+
+        public long getSlowCount() {
+            return slowCount;
+        }
+
+        public long getErrorCount() {
+            return errorCount;
+        }
+
+        public long getSlowRate() {
+            return calculatePercent(slowCount);
+        }
+
+        public long getErrorRate() {
+            return calculatePercent(errorCount);
+        }
+
+        private long calculatePercent(long value) {
+            if (totalCount == 0 || value == 0) {
+                return 0;
+            }
+            return (value * 100L) / totalCount;
+        }
+
+        @Override
+        public String toString() {
+            return "ResponseStat{" +
+                    "totalCount=" + totalCount +
+                    ", slowCount=" + slowCount +
+                    ", errorCount=" + errorCount +
+                    '}';
+        }
+    }
+}
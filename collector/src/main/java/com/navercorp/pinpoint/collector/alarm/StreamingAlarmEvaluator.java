@@ -0,0 +1,165 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.pinpoint.collector.alarm;
+
+import com.navercorp.pinpoint.common.profiler.concurrent.PinpointThreadFactory;
+import com.navercorp.pinpoint.common.server.bo.SpanBo;
+import com.navercorp.pinpoint.common.server.event.SpanInsertionEvent;
+import com.navercorp.pinpoint.common.trace.HistogramSchema;
+import com.navercorp.pinpoint.common.trace.HistogramSlot;
+import com.navercorp.pinpoint.common.trace.ServiceType;
+import com.navercorp.pinpoint.loader.service.ServiceTypeRegistryService;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.context.event.EventListener;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps a {@link ResponseStatWindow} per application that has rules, updated from inserted spans,
+ * and evaluates the rules periodically.
+ * Listeners are only notified when the detection state of a rule changes.
+ */
+public class StreamingAlarmEvaluator {
+    private final Logger logger = LogManager.getLogger(this.getClass());
+
+    private static final long SLOT_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final StreamingAlarmRuleProvider ruleProvider;
+    private final StreamingAlarmListener listener;
+    private final ServiceTypeRegistryService registry;
+    private final StreamingAlarmProperties properties;
+    private final LongSupplier clock;
+
+    private final Map<String, ResponseStatWindow> windowMap = new ConcurrentHashMap<>();
+    private final Map<StreamingAlarmRule, Boolean> detectedMap = new HashMap<>();
+
+    private ScheduledExecutorService scheduler;
+
+    public StreamingAlarmEvaluator(StreamingAlarmRuleProvider ruleProvider,
+                                   StreamingAlarmListener listener,
+                                   ServiceTypeRegistryService registry,
+                                   StreamingAlarmProperties properties) {
+        this(ruleProvider, listener, registry, properties, System::currentTimeMillis);
+    }
+
+    StreamingAlarmEvaluator(StreamingAlarmRuleProvider ruleProvider,
+                            StreamingAlarmListener listener,
+                            ServiceTypeRegistryService registry,
+                            StreamingAlarmProperties properties,
+                            LongSupplier clock) {
+        this.ruleProvider = Objects.requireNonNull(ruleProvider, "ruleProvider");
+        this.listener = Objects.requireNonNull(listener, "listener");
+        this.registry = Objects.requireNonNull(registry, "registry");
+        this.properties = Objects.requireNonNull(properties, "properties");
+        this.clock = Objects.requireNonNull(clock, "clock");
+        refreshWindows();
+    }
+
+    @PostConstruct
+    public void start() {
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(PinpointThreadFactory.createThreadFactory("StreamingAlarmEvaluator", true));
+        final long interval = properties.getEvaluationIntervalMillis();
+        this.scheduler.scheduleWithFixedDelay(this::evaluateSafely, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    @EventListener
+    public void onSpanInsertion(SpanInsertionEvent event) {
+        final SpanBo spanBo = event.getSpanBo();
+        final ResponseStatWindow window = windowMap.get(spanBo.getApplicationId());
+        if (window == null) {
+            // no rule for this application
+            return;
+        }
+        final ServiceType serviceType = registry.findServiceType(spanBo.getApplicationServiceType());
+        final HistogramSchema schema = serviceType.getHistogramSchema();
+        final HistogramSlot slot = schema.findHistogramSlot(spanBo.getElapsed(), spanBo.getErrCode() != 0);
+
+        // same time slot as the response time statistics read by the batch alarm
+        final long timestamp = getAcceptedTime(spanBo);
+        if (timestamp < windowStartTime(clock.getAsLong())) {
+            // late span, its time slot is already out of the window
+            return;
+        }
+        window.add(timestamp, slot.getSlotType());
+    }
+
+    private long getAcceptedTime(SpanBo spanBo) {
+        final long collectorAcceptTime = spanBo.getCollectorAcceptTime();
+        if (collectorAcceptTime > 0) {
+            return collectorAcceptTime;
+        }
+        return clock.getAsLong();
+    }
+
+    private long windowStartTime(long now) {
+        final long firstSlotTime = now / SLOT_MILLIS - properties.getWindowMinutes() + 1;
+        return firstSlotTime * SLOT_MILLIS;
+    }
+
+    private void refreshWindows() {
+        for (StreamingAlarmRule rule : ruleProvider.getRules()) {
+            windowMap.computeIfAbsent(rule.getApplicationId(),
+                    applicationId -> new ResponseStatWindow(properties.getWindowMinutes(), SLOT_MILLIS));
+        }
+    }
+
+    private void evaluateSafely() {
+        try {
+            evaluate();
+        } catch (Throwable th) {
+            logger.warn("streaming alarm evaluation failed", th);
+        }
+    }
+
+    void evaluate() {
+        refreshWindows();
+
+        final long now = clock.getAsLong();
+        final List<StreamingAlarmRule> rules = ruleProvider.getRules();
+        for (StreamingAlarmRule rule : rules) {
+            final ResponseStatWindow window = windowMap.get(rule.getApplicationId());
+            final ResponseStatWindow.ResponseStat stat = window.snapshot(now);
+            final long value = rule.getCheckerType().getDetectedValue(stat);
+            final boolean detected = rule.decideResult(value);
+
+            final Boolean previous = detectedMap.put(rule, detected);
+            if (previous == null && !detected) {
+                continue;
+            }
+            if (previous == null || previous != detected) {
+                listener.onResult(rule, detected, value);
+            }
+        }
+    }
+}
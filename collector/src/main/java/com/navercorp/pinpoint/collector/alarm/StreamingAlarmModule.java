@@ -0,0 +1,64 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.alarm;
+
+import com.navercorp.pinpoint.loader.service.ServiceTypeRegistryService;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Evaluates response alarm rules from the spans received by this collector,
+ * instead of re-reading the statistics tables every minute.
+ */
+@Configuration
+@ConditionalOnProperty(value = "pinpoint.modules.collector.alarm.streaming.enabled", havingValue = "true")
+public class StreamingAlarmModule {
+    private final Logger logger = LogManager.getLogger(this.getClass());
+
+    public StreamingAlarmModule() {
+        logger.info("Install {}", StreamingAlarmModule.class.getSimpleName());
+    }
+
+    @Bean
+    public StreamingAlarmProperties streamingAlarmProperties() {
+        return new StreamingAlarmProperties();
+    }
+
+    @Bean
+    public StreamingAlarmRuleProvider streamingAlarmRuleProvider(StreamingAlarmProperties properties) {
+        List<StreamingAlarmRule> rules = StreamingAlarmRule.parseRules(properties.getRules());
+        return new StaticStreamingAlarmRuleProvider(rules);
+    }
+
+    @Bean
+    public StreamingAlarmListener streamingAlarmListener() {
+        return new LoggingStreamingAlarmListener();
+    }
+
+    @Bean
+    public StreamingAlarmEvaluator streamingAlarmEvaluator(StreamingAlarmRuleProvider ruleProvider,
+                                                           StreamingAlarmListener listener,
+                                                           ServiceTypeRegistryService registry,
+                                                           StreamingAlarmProperties properties) {
+        return new StreamingAlarmEvaluator(ruleProvider, listener, registry, properties);
+    }
+}
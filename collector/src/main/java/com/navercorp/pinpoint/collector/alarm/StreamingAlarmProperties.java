@@ -0,0 +1,67 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.pinpoint.collector.alarm;
+
+import com.navercorp.pinpoint.common.server.config.AnnotationVisitor;
+import com.navercorp.pinpoint.common.server.config.LoggingEvent;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+
+import javax.annotation.PostConstruct;
+
+public class StreamingAlarmProperties {
+    private final Logger logger = LogManager.getLogger(StreamingAlarmProperties.class);
+
+    // same length as the batch alarm range
+    @Value("${collector.alarm.streaming.window.minutes:5}")
+    private int windowMinutes;
+
+    @Value("${collector.alarm.streaming.evaluation.intervalMillis:10000}")
+    private long evaluationIntervalMillis;
+
+    // applicationName:CHECKER_TYPE:threshold, comma separated
+    @Value("${collector.alarm.streaming.rules:}")
+    private String rules;
+
+    public int getWindowMinutes() {
+        return windowMinutes;
+    }
+
+    public long getEvaluationIntervalMillis() {
+        return evaluationIntervalMillis;
+    }
+
+    public String getRules() {
+        return rules;
+    }
+
+    @PostConstruct
+    public void log() {
+        logger.info("{}", this);
+        AnnotationVisitor<Value> visitor = new AnnotationVisitor<>(Value.class);
+        visitor.visit(this, new LoggingEvent(logger));
+    }
+
+    @Override
+    public String toString() {
+        return "StreamingAlarmProperties{" +
+                "windowMinutes=" + windowMinutes +
+                ", evaluationIntervalMillis=" + evaluationIntervalMillis +
+                ", rules='" + rules + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.pinpoint.collector.alarm;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+public class StreamingAlarmRule {
+    private final String applicationId;
+    private final StreamingCheckerType checkerType;
+    private final long threshold;
+
+    public StreamingAlarmRule(String applicationId, StreamingCheckerType checkerType, long threshold) {
+        this.applicationId = Objects.requireNonNull(applicationId, "applicationId");
+        this.checkerType = Objects.requireNonNull(checkerType, "checkerType");
+        this.threshold = threshold;
+    }
+
+    /**
+     * @param rules applicationName:CHECKER_TYPE:threshold, comma separated
+     */
+    public static List<StreamingAlarmRule> parseRules(String rules) {
+        if (StringUtils.isBlank(rules)) {
+            return Collections.emptyList();
+        }
+        final List<StreamingAlarmRule> result = new ArrayList<>();
+        for (String rule : StringUtils.split(rules, ',')) {
+            final String[] tokens = StringUtils.split(rule.trim(), ':');
+            if (tokens.length != 3) {
+                throw new IllegalArgumentException("invalid rule:" + rule);
+            }
+            final StreamingCheckerType checkerType = StreamingCheckerType.valueOf(tokens[1].trim());
+            final long threshold = Long.parseLong(tokens[2].trim());
+            result.add(new StreamingAlarmRule(tokens[0].trim(), checkerType, threshold));
+        }
+        return result;
+    }
+
+    public String getApplicationId() {
+        return applicationId;
+    }
+
+    public StreamingCheckerType getCheckerType() {
+        return checkerType;
+    }
+
+    public long getThreshold() {
+        return threshold;
+    }
+
+    public boolean decideResult(long value) {
+        return value >= threshold;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        StreamingAlarmRule that = (StreamingAlarmRule) o;
+
+        if (threshold != that.threshold) return false;
+        if (!applicationId.equals(that.applicationId)) return false;
+        return checkerType == that.checkerType;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = applicationId.hashCode();
+        result = 31 * result + checkerType.hashCode();
+        result = 31 * result + (int) (threshold ^ (threshold >>> 32));
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "StreamingAlarmRule{" +
+                "applicationId='" + applicationId + '\'' +
+                ", checkerType=" + checkerType +
+                ", threshold=" + threshold +
+                '}';
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.pinpoint.collector.alarm;
+
+import java.util.function.ToLongFunction;
+
+/**
+ * Response checkers that can be evaluated from {@link ResponseStatWindow}.
+ * Names and units follow the CheckerCategory of the batch alarm.
+ */
+public enum StreamingCheckerType {
+    SLOW_COUNT("SLOW COUNT", " ", ResponseStatWindow.ResponseStat::getSlowCount),
+    SLOW_RATE("SLOW RATE", "%", ResponseStatWindow.ResponseStat::getSlowRate),
+    ERROR_COUNT("ERROR COUNT", " ", ResponseStatWindow.ResponseStat::getErrorCount),
+    ERROR_RATE("ERROR RATE", "%", ResponseStatWindow.ResponseStat::getErrorRate),
+    TOTAL_COUNT("TOTAL COUNT", " ", ResponseStatWindow.ResponseStat::getTotalCount);
+
+    private final String checkerName;
+    private final String unit;
+    private final ToLongFunction<ResponseStatWindow.ResponseStat> valueFunction;
+
+    StreamingCheckerType(String checkerName, String unit, ToLongFunction<ResponseStatWindow.ResponseStat> valueFunction) {
+        this.checkerName = checkerName;
+        this.unit = unit;
+        this.valueFunction = valueFunction;
+    }
+
+    public String getCheckerName() {
+        return checkerName;
+    }
+
+    public String getUnit() {
+        return unit;
+    }
+
+    public long getDetectedValue(ResponseStatWindow.ResponseStat stat) {
+        return valueFunction.applyAsLong(stat);
+    }
+}
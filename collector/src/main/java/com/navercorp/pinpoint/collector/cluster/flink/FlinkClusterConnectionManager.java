@@ -16,6 +16,8 @@
 package com.navercorp.pinpoint.collector.cluster.flink;
 
 import com.navercorp.pinpoint.collector.cluster.connection.ClusterConnectionManager;
+import com.navercorp.pinpoint.collector.config.FlinkProperties;
+import com.navercorp.pinpoint.collector.sender.FlinkBatchTcpDataSender;
 import com.navercorp.pinpoint.collector.sender.FlinkRequestFactory;
 import com.navercorp.pinpoint.collector.sender.FlinkTcpDataSender;
 import com.navercorp.pinpoint.collector.util.Address;
@@ -40,13 +42,16 @@ public class FlinkClusterConnectionManager implements ClusterConnectionManager {
     private final TcpDataSenderRepository tcpDataSenderRepository;
     private final SerializerFactory<HeaderTBaseSerializer> flinkHeaderTBaseSerializerFactory;
     private final FlinkRequestFactory flinkRequestFactory;
+    private final FlinkProperties flinkProperties;
 
     public FlinkClusterConnectionManager(TcpDataSenderRepository tcpDataSenderRepository,
                                          SerializerFactory<HeaderTBaseSerializer> flinkHeaderTBaseSerializerFactory,
-                                         FlinkRequestFactory flinkRequestFactory) {
+                                         FlinkRequestFactory flinkRequestFactory,
+                                         FlinkProperties flinkProperties) {
         this.tcpDataSenderRepository = Objects.requireNonNull(tcpDataSenderRepository, "tcpDataSenderRepository");
         this.flinkHeaderTBaseSerializerFactory = Objects.requireNonNull(flinkHeaderTBaseSerializerFactory, "flinkHeaderTBaseSerializerFactory");
         this.flinkRequestFactory = Objects.requireNonNull(flinkRequestFactory, "flinkRequestFactory");
+        this.flinkProperties = Objects.requireNonNull(flinkProperties, "flinkProperties");
         this.pinpointClientFactory = newPointClientFactory();
     }
 
@@ -116,7 +121,7 @@ public class FlinkClusterConnectionManager implements ClusterConnectionManager {
             final String host = address.getHost();
             final int port = address.getPort();
             HeaderTBaseSerializer serializer = flinkHeaderTBaseSerializerFactory.createSerializer();
-            TcpDataSender<TBase<?, ?>> tcpDataSender = new FlinkTcpDataSender("flink", host, port, pinpointClientFactory, serializer, flinkRequestFactory);
+            TcpDataSender<TBase<?, ?>> tcpDataSender = newTcpDataSender(host, port, serializer);
             return new SenderContext(tcpDataSender);
         } catch (Exception e) {
             logger.error("not create tcpDataSender for {}.", address, e);
@@ -124,4 +129,12 @@ public class FlinkClusterConnectionManager implements ClusterConnectionManager {
 
         return null;
     }
+
+    private TcpDataSender<TBase<?, ?>> newTcpDataSender(String host, int port, HeaderTBaseSerializer serializer) {
+        if (flinkProperties.isBatchEnable()) {
+            return new FlinkBatchTcpDataSender("flink", host, port, pinpointClientFactory, serializer, flinkRequestFactory,
+                    flinkProperties.getBatchSize(), flinkProperties.isBatchCompress());
+        }
+        return new FlinkTcpDataSender("flink", host, port, pinpointClientFactory, serializer, flinkRequestFactory);
+    }
 }
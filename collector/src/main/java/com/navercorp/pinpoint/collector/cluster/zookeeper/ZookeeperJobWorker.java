@@ -21,20 +21,21 @@ import com.navercorp.pinpoint.common.profiler.concurrent.PinpointThreadFactory;
 import com.navercorp.pinpoint.common.server.cluster.zookeeper.CreateNodeMessage;
 import com.navercorp.pinpoint.common.server.cluster.zookeeper.ZookeeperClient;
 import com.navercorp.pinpoint.common.server.cluster.zookeeper.util.CommonStateContext;
+import com.navercorp.pinpoint.common.util.Assert;
 import com.navercorp.pinpoint.common.util.BytesUtils;
 import com.navercorp.pinpoint.rpc.util.ClassUtils;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager;
-import org.springframework.util.CollectionUtils;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
-import java.util.StringJoiner;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.LinkedBlockingDeque;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
@@ -46,9 +47,11 @@ public class ZookeeperJobWorker<K> implements Runnable, ClusterJobWorker<K> {
 
     private static final String PROFILER_SEPARATOR = "\r\n";
 
-    private final Logger logger = LogManager.getLogger(this.getClass());
+    private static final long DEFAULT_COALESCE_INTERVAL_MILLIS = 500;
+    private static final long POLL_TIMEOUT_MILLIS = 3000;
+    private static final long RETRY_INTERVAL_MILLIS = 500;
 
-    private static final byte[] EMPTY_DATA_BYTES = BytesUtils.toBytes("");
+    private final Logger logger = LogManager.getLogger(this.getClass());
 
     private final Object lock = new Object();
 
@@ -58,8 +61,19 @@ public class ZookeeperJobWorker<K> implements Runnable, ClusterJobWorker<K> {
     private final LinkedBlockingDeque<ZookeeperJob<K>> jobDeque = new LinkedBlockingDeque<>();
     private Thread workerThread;
 
+    private final long coalesceIntervalMillis;
+    // sorted znode contents, only touched by the worker thread
+    private final Set<String> registeredKeys = new TreeSet<>();
+    private boolean dirty = false;
+
     public ZookeeperJobWorker(ZookeeperClient zookeeperClient, String connectedAgentZNodePath) {
+        this(zookeeperClient, connectedAgentZNodePath, DEFAULT_COALESCE_INTERVAL_MILLIS);
+    }
+
+    public ZookeeperJobWorker(ZookeeperClient zookeeperClient, String connectedAgentZNodePath, long coalesceIntervalMillis) {
         this.zookeeperClient = zookeeperClient;
+        Assert.isTrue(coalesceIntervalMillis >= 0, "coalesceIntervalMillis must be `>= 0`");
+        this.coalesceIntervalMillis = coalesceIntervalMillis;
 
         this.workerState = new CommonStateContext();
 
@@ -186,31 +200,20 @@ public class ZookeeperJobWorker<K> implements Runnable, ClusterJobWorker<K> {
     public void run() {
         logger.info("run() started.");
 
-        ZookeeperJob<K> latestHeadJob = null;
-
         // Things to consider
         // spinLock possible when events are not deleted
         // may lead to PinpointServer leak when events are left unresolved
         while (workerState.isStarted()) {
             try {
-                List<ZookeeperJob<K>> zookeeperJobList = poll();
-                if (CollectionUtils.isEmpty(zookeeperJobList)) {
-                    continue;
+                final long timeout = dirty ? RETRY_INTERVAL_MILLIS : POLL_TIMEOUT_MILLIS;
+                ZookeeperJob<K> job = jobDeque.poll(timeout, TimeUnit.MILLISECONDS);
+                if (job != null) {
+                    // coalesce a burst of jobs, e.g. agents reconnecting after a restart, into one write
+                    Thread.sleep(coalesceIntervalMillis);
+                    apply(drain(job));
                 }
-
-                ZookeeperJob<K> headJob = CollectionUtils.firstElement(zookeeperJobList);
-                if (latestHeadJob != null && latestHeadJob == headJob) {
-                    // for defence spinLock (zookeeper problem, etc..)
-                    Thread.sleep(500);
-                }
-                latestHeadJob = headJob;
-
-                boolean completed = handle(zookeeperJobList);
-                if (!completed) {
-                    // rollback
-                    for (int i = zookeeperJobList.size() - 1; i >= 0; i--) {
-                        jobDeque.addFirst(zookeeperJobList.get(i));
-                    }
+                if (dirty) {
+                    dirty = !flush();
                 }
             } catch (InterruptedException e) {
                 logger.info("{} thread interrupted", workerThread.getName());
@@ -221,174 +224,57 @@ public class ZookeeperJobWorker<K> implements Runnable, ClusterJobWorker<K> {
         logger.info("run() completed.");
     }
 
-    private List<ZookeeperJob<K>> poll() throws InterruptedException {
-        ZookeeperJob<K> defaultJob = jobDeque.poll(3000, TimeUnit.MILLISECONDS);
-        if (defaultJob == null) {
-            return Collections.emptyList();
-        }
-
-        List<ZookeeperJob<K>> result = new ArrayList<>();
-        result.add(defaultJob);
-
-        while (true) {
-            ZookeeperJob<K> zookeeperJob = jobDeque.poll();
-            if (zookeeperJob == null) {
-                break;
-            }
-            if (zookeeperJob.getType() != defaultJob.getType()) {
-                jobDeque.addFirst(zookeeperJob);
-                break;
-            }
-            result.add(zookeeperJob);
+    private List<ZookeeperJob<K>> drain(ZookeeperJob<K> firstJob) {
+        final List<ZookeeperJob<K>> jobList = new ArrayList<>();
+        jobList.add(firstJob);
+        synchronized (lock) {
+            jobDeque.drainTo(jobList);
         }
-
-        return result;
+        return jobList;
     }
 
-    private boolean handle(List<ZookeeperJob<K>> jobList) {
-        if (CollectionUtils.isEmpty(jobList)) {
-            logger.warn("zookeeperJobList may not be empty");
-            return false;
+    private void apply(List<ZookeeperJob<K>> jobList) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("apply zookeeperJobList:{}", jobList);
         }
 
-        ZookeeperJob<K> defaultJob = CollectionUtils.firstElement(jobList);
-        if(defaultJob != null) {
-            ZookeeperJob.Type type = defaultJob.getType();
-            switch (type) {
+        for (ZookeeperJob<K> job : jobList) {
+            switch (job.getType()) {
                 case ADD:
-                    return handleUpdate(jobList);
+                    dirty |= registeredKeys.add(toZookeeperKey(job));
+                    break;
                 case REMOVE:
-                    return handleDelete(jobList);
+                    dirty |= registeredKeys.remove(toZookeeperKey(job));
+                    break;
                 case CLEAR:
-                    return handleClear(jobList);
+                    registeredKeys.clear();
+                    dirty = true;
+                    break;
             }
         }
-
-        return false;
     }
 
-    private boolean handleUpdate(List<ZookeeperJob<K>> job) {
-        if (logger.isDebugEnabled()) {
-            logger.debug("handleUpdate zookeeperJobList:{}", job);
-        }
-
-        final List<String> addContentCandidateList = getZookeeperKeyList(job);
-
-        try {
-            zookeeperClient.createPath(collectorUniqPath);
-
-            String currentData = getClusterData(collectorUniqPath);
-            final String newData = addIfAbsentContents(currentData, addContentCandidateList);
-
-            CreateNodeMessage createNodeMessage = new CreateNodeMessage(collectorUniqPath, BytesUtils.toBytes(newData), true);
-            zookeeperClient.createOrSetNode(createNodeMessage);
-            return true;
-        } catch (Exception e) {
-            logger.warn("handleUpdate failed. caused:{}, jobSize:{}", e.getMessage(), job.size(), e);
-        }
-        return false;
+    private String toZookeeperKey(ZookeeperJob<K> job) {
+        return job.getKey().toString().trim();
     }
 
-    private boolean handleDelete(List<ZookeeperJob<K>> zookeeperJobList) {
-        if (logger.isDebugEnabled()) {
-            logger.debug("handleDelete zookeeperJobList:{}", zookeeperJobList);
-        }
-
-        final List<String> removeContentCandidateList = getZookeeperKeyList(zookeeperJobList);
-
+    private boolean flush() {
+        final String data = StringUtils.join(registeredKeys, PROFILER_SEPARATOR);
         try {
             zookeeperClient.createPath(collectorUniqPath);
 
-            final String currentData = getClusterData(collectorUniqPath);
-            final String newData = removeIfExistContents(currentData, removeContentCandidateList);
-
-            CreateNodeMessage createNodeMessage = new CreateNodeMessage(collectorUniqPath, BytesUtils.toBytes(newData), true);
-            zookeeperClient.createOrSetNode(createNodeMessage);
-            return true;
-        } catch (Exception e) {
-            logger.warn("handleDelete failed. caused:{}, jobSize:{}", e.getMessage(), zookeeperJobList.size(), e);
-        }
-        return false;
-    }
-
-    private List<String> getZookeeperKeyList(List<ZookeeperJob<K>> jobList) {
-        if (jobList == null) {
-            return Collections.emptyList();
-        }
-
-        final List<String> keyList = new ArrayList<>(jobList.size());
-        for (ZookeeperJob<K> zookeeperJob : jobList) {
-            keyList.add(zookeeperJob.getKey().toString());
-        }
-        return keyList;
-    }
-
-    private boolean handleClear(List<ZookeeperJob<K>> jobList) {
-        if (logger.isDebugEnabled()) {
-            logger.debug("handleClear zookeeperJobList:{}", jobList);
-        }
-
-        try {
-            CreateNodeMessage createNodeMessage = new CreateNodeMessage(collectorUniqPath, EMPTY_DATA_BYTES, true);
+            CreateNodeMessage createNodeMessage = new CreateNodeMessage(collectorUniqPath, BytesUtils.toBytes(data), true);
             zookeeperClient.createOrSetNode(createNodeMessage);
+            if (logger.isDebugEnabled()) {
+                logger.debug("flush() completed. size:{}", registeredKeys.size());
+            }
             return true;
         } catch (Exception e) {
-            logger.warn("handleClear failed. caused:{}, jobSize:{}", e.getMessage(), jobList.size(), e);
-        }
-        return false;
-    }
-
-    private String addIfAbsentContents(String clusterDataString, List<String> addContentCandidateList) {
-        final List<String> clusterDataList = tokenize(clusterDataString);
-
-        final List<String> addContentList = getChangeList(clusterDataList, addContentCandidateList);
-
-        if (addContentList.isEmpty()) {
-            return clusterDataString;
-        }
-
-        return join(clusterDataString, addContentList);
-    }
-
-    private String join(String originalContent, List<String> addContentList) {
-        StringJoiner buffer = new StringJoiner(PROFILER_SEPARATOR);
-        buffer.add(originalContent);
-        for (String content : addContentList) {
-            buffer.add(content);
-        }
-        return buffer.toString();
-    }
-
-    private boolean isExist(List<String> contentList, String value) {
-        for (String eachContent : contentList) {
-            if (StringUtils.equals(eachContent.trim(), value.trim())) {
-                return true;
-            }
+            logger.warn("flush failed. caused:{}, size:{}", e.getMessage(), registeredKeys.size(), e);
         }
-
         return false;
     }
 
-    private String removeIfExistContents(String clusterDataString, List<String> removeClusterDataList) {
-
-        final List<String> clusterDataList = tokenize(clusterDataString);
-
-        final List<String> remainCluster = getChangeList(removeClusterDataList, clusterDataList);
-
-        return StringUtils.join(remainCluster, PROFILER_SEPARATOR);
-    }
-
-    private List<String> getChangeList(List<String> originalList, List<String> changeList) {
-        final List<String> result = new ArrayList<>(changeList.size());
-        for (String eachContent : changeList) {
-            final boolean exist = isExist(originalList, eachContent);
-            if (!exist) {
-                result.add(eachContent);
-            }
-        }
-        return result;
-    }
-
     private List<String> tokenize(String str) {
         if (StringUtils.isEmpty(str)) {
             return Collections.emptyList();
@@ -44,11 +44,25 @@ public class CollectorProperties {
     private boolean metricJmxEnable;
     @Value("${collector.metric.jmx.domain:pinpoint.collector.metrics}")
     private String metricJmxDomainName;
+    @Value("${collector.metric.ingest.enable:true}")
+    private boolean metricIngestEnable;
+    @Value("${collector.metric.ingest.sample-rate:16}")
+    private int metricIngestSampleRate;
 
     @Value("${collector.stat.uri:false}")
     private boolean uriStatEnable;
     @Value("${collector.statistics.agent-state.enable:false}")
     private boolean statisticsAgentStateEnable;
+    @Value("${collector.span.direct-encoding.enable:false}")
+    private boolean spanDirectEncodingEnable;
+    @Value("${collector.span-chunk.reassembly.enable:false}")
+    private boolean spanChunkReassemblyEnable;
+    @Value("${collector.span-chunk.reassembly.max-delay:1000}")
+    private long spanChunkReassemblyMaxDelayMillis = 1000;
+    @Value("${collector.span-chunk.reassembly.max-events:500}")
+    private int spanChunkReassemblyMaxEvents = 500;
+    @Value("${collector.span-chunk.reassembly.max-pending-events:200000}")
+    private int spanChunkReassemblyMaxPendingEvents = 200000;
 
     public int getAgentEventWorkerThreadSize() {
         return this.agentEventWorkerThreadSize;
@@ -91,6 +105,22 @@ public class CollectorProperties {
         this.metricJmxDomainName = metricJmxDomainName;
     }
 
+    public boolean isMetricIngestEnable() {
+        return metricIngestEnable;
+    }
+
+    public void setMetricIngestEnable(boolean metricIngestEnable) {
+        this.metricIngestEnable = metricIngestEnable;
+    }
+
+    public int getMetricIngestSampleRate() {
+        return metricIngestSampleRate;
+    }
+
+    public void setMetricIngestSampleRate(int metricIngestSampleRate) {
+        this.metricIngestSampleRate = metricIngestSampleRate;
+    }
+
     public boolean isUriStatEnable() {
         return uriStatEnable;
     }
@@ -107,6 +137,46 @@ public class CollectorProperties {
         return statisticsAgentStateEnable;
     }
 
+    public boolean isSpanDirectEncodingEnable() {
+        return spanDirectEncodingEnable;
+    }
+
+    public void setSpanDirectEncodingEnable(boolean spanDirectEncodingEnable) {
+        this.spanDirectEncodingEnable = spanDirectEncodingEnable;
+    }
+
+    public boolean isSpanChunkReassemblyEnable() {
+        return spanChunkReassemblyEnable;
+    }
+
+    public void setSpanChunkReassemblyEnable(boolean spanChunkReassemblyEnable) {
+        this.spanChunkReassemblyEnable = spanChunkReassemblyEnable;
+    }
+
+    public long getSpanChunkReassemblyMaxDelayMillis() {
+        return spanChunkReassemblyMaxDelayMillis;
+    }
+
+    public void setSpanChunkReassemblyMaxDelayMillis(long spanChunkReassemblyMaxDelayMillis) {
+        this.spanChunkReassemblyMaxDelayMillis = spanChunkReassemblyMaxDelayMillis;
+    }
+
+    public int getSpanChunkReassemblyMaxEvents() {
+        return spanChunkReassemblyMaxEvents;
+    }
+
+    public void setSpanChunkReassemblyMaxEvents(int spanChunkReassemblyMaxEvents) {
+        this.spanChunkReassemblyMaxEvents = spanChunkReassemblyMaxEvents;
+    }
+
+    public int getSpanChunkReassemblyMaxPendingEvents() {
+        return spanChunkReassemblyMaxPendingEvents;
+    }
+
+    public void setSpanChunkReassemblyMaxPendingEvents(int spanChunkReassemblyMaxPendingEvents) {
+        this.spanChunkReassemblyMaxPendingEvents = spanChunkReassemblyMaxPendingEvents;
+    }
+
     @PostConstruct
     public void log() {
         logger.info("{}", this);
@@ -122,8 +192,15 @@ public class CollectorProperties {
         sb.append(", l4IpList=").append(Arrays.toString(l4IpList));
         sb.append(", metricJmxEnable=").append(metricJmxEnable);
         sb.append(", metricJmxDomainName='").append(metricJmxDomainName).append('\'');
+        sb.append(", metricIngestEnable=").append(metricIngestEnable);
+        sb.append(", metricIngestSampleRate=").append(metricIngestSampleRate);
         sb.append(", uriStatEnable=").append(uriStatEnable);
         sb.append(", statisticsAgentStateEnable=").append(statisticsAgentStateEnable);
+        sb.append(", spanDirectEncodingEnable=").append(spanDirectEncodingEnable);
+        sb.append(", spanChunkReassemblyEnable=").append(spanChunkReassemblyEnable);
+        sb.append(", spanChunkReassemblyMaxDelayMillis=").append(spanChunkReassemblyMaxDelayMillis);
+        sb.append(", spanChunkReassemblyMaxEvents=").append(spanChunkReassemblyMaxEvents);
+        sb.append(", spanChunkReassemblyMaxPendingEvents=").append(spanChunkReassemblyMaxPendingEvents);
         sb.append('}');
         return sb.toString();
     }
@@ -19,6 +19,7 @@ import com.navercorp.pinpoint.common.server.cluster.zookeeper.ZookeeperClusterPr
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.BeanNameAware;
+import org.springframework.beans.factory.annotation.Value;
 
 import javax.annotation.PostConstruct;
 import java.util.Objects;
@@ -33,6 +34,15 @@ public class FlinkProperties implements BeanNameAware {
     private String name;
     private final ZookeeperClusterProperties clusterProperties;
 
+    @Value("${flink.cluster.tcp.batch.enable:false}")
+    private boolean batchEnable;
+
+    @Value("${flink.cluster.tcp.batch.size:100}")
+    private int batchSize;
+
+    @Value("${flink.cluster.tcp.batch.compress:true}")
+    private boolean batchCompress;
+
     public FlinkProperties(ZookeeperClusterProperties clusterProperties) {
         this.clusterProperties = Objects.requireNonNull(clusterProperties, "clusterProperties");
     }
@@ -53,6 +63,18 @@ public class FlinkProperties implements BeanNameAware {
         return clusterProperties.getSessionTimeout();
     }
 
+    public boolean isBatchEnable() {
+        return batchEnable;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public boolean isBatchCompress() {
+        return batchCompress;
+    }
+
     @Override
     public void setBeanName(String name) {
         this.name = name;
@@ -71,6 +93,9 @@ public class FlinkProperties implements BeanNameAware {
                 ", flinkClusterZookeeperAddress='" + getFlinkClusterZookeeperAddress() + '\'' +
                 ", flinkZNodePath='" + getFlinkZNodePath() + '\'' +
                 ", flinkClusterSessionTimeout=" + getFlinkClusterSessionTimeout() +
+                ", batchEnable=" + batchEnable +
+                ", batchSize=" + batchSize +
+                ", batchCompress=" + batchCompress +
                 '}';
     }
 
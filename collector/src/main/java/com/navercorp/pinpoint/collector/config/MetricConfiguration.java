@@ -4,6 +4,7 @@ import com.codahale.metrics.MetricRegistry;
 import com.navercorp.pinpoint.collector.monitor.BulkOperationMetrics;
 import com.navercorp.pinpoint.collector.monitor.CollectorMetric;
 import com.navercorp.pinpoint.collector.monitor.HBaseAsyncOperationMetrics;
+import com.navercorp.pinpoint.collector.monitor.IngestMetrics;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.context.annotation.Bean;
@@ -33,4 +34,11 @@ public class MetricConfiguration {
         return new CollectorMetric(collectorProperties, metricRegistry, hBaseAsyncOperationMetrics, cachedStatisticsDaoMetrics);
     }
 
+    @Bean
+    public IngestMetrics ingestMetrics(CollectorProperties collectorProperties, MetricRegistry metricRegistry) {
+        IngestMetrics ingestMetrics = new IngestMetrics(metricRegistry, collectorProperties.isMetricIngestEnable(), collectorProperties.getMetricIngestSampleRate());
+        logger.info("{}", ingestMetrics);
+        return ingestMetrics;
+    }
+
 }
@@ -17,13 +17,42 @@ public class ScatterProperties {
         v2 // enable saltkey for fuzzyfilter
     }
 
+    public enum IndexFormat {
+        row,
+        block // many dots per cell, see ScatterBlockCodec
+    }
+
     @Value("${collector.scatter.serverside-scan:v1}")
     private String serverSideScan;
 
+    @Value("${collector.scatter.index-format:row}")
+    private String indexFormat;
+
+    @Value("${collector.scatter.block.max-size:512}")
+    private int blockMaxSize = 512;
+
+    @Value("${collector.scatter.block.flush-interval:1000}")
+    private long blockFlushIntervalMillis = 1000;
+
     public ServerSideScan getServerSideScan() {
         return ServerSideScan.valueOf(serverSideScan);
     }
 
+    public IndexFormat getIndexFormat() {
+        if (indexFormat == null) {
+            return IndexFormat.row;
+        }
+        return IndexFormat.valueOf(indexFormat);
+    }
+
+    public int getBlockMaxSize() {
+        return blockMaxSize;
+    }
+
+    public long getBlockFlushIntervalMillis() {
+        return blockFlushIntervalMillis;
+    }
+
     @PostConstruct
     public void log() {
         logger.info("{}", this);
@@ -35,6 +64,9 @@ public class ScatterProperties {
     public String toString() {
         return "ScatterConfiguration{" +
                 "serverSideScan='" + serverSideScan + '\'' +
+                ", indexFormat='" + indexFormat + '\'' +
+                ", blockMaxSize=" + blockMaxSize +
+                ", blockFlushIntervalMillis=" + blockFlushIntervalMillis +
                 '}';
     }
 }
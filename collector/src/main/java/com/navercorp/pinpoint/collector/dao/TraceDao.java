@@ -2,6 +2,7 @@ package com.navercorp.pinpoint.collector.dao;
 
 import com.navercorp.pinpoint.common.server.bo.SpanBo;
 import com.navercorp.pinpoint.common.server.bo.SpanChunkBo;
+import com.navercorp.pinpoint.common.server.bo.grpc.GrpcSpan;
 
 /**
  * @author Woonduk Kang(emeroad)
@@ -9,5 +10,7 @@ import com.navercorp.pinpoint.common.server.bo.SpanChunkBo;
 public interface TraceDao {
     boolean insert(SpanBo span);
 
+    boolean insert(GrpcSpan grpcSpan);
+
     void insertSpanChunk(SpanChunkBo spanChunk);
 }
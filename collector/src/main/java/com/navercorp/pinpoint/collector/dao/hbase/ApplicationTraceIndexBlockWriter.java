@@ -0,0 +1,237 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.dao.hbase;
+
+import com.navercorp.pinpoint.collector.config.ScatterProperties;
+import com.navercorp.pinpoint.common.hbase.HbaseColumnFamily;
+import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
+import com.navercorp.pinpoint.common.hbase.TableNameProvider;
+import com.navercorp.pinpoint.common.profiler.concurrent.PinpointThreadFactory;
+import com.navercorp.pinpoint.common.server.bo.SpanBo;
+import com.navercorp.pinpoint.common.server.scatter.ScatterBlock;
+import com.navercorp.pinpoint.common.server.scatter.ScatterBlockCodec;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Collects the ApplicationTraceIndex dots of a row key and second into a {@link ScatterBlock}.
+ * <p>
+ * A block is written when it reaches {@link ScatterProperties#getBlockMaxSize()},
+ * or by the flush task once its second is over.
+ * Every written block gets its own qualifier (writer id + sequence), so collectors never overwrite each other.
+ */
+@Component
+public class ApplicationTraceIndexBlockWriter {
+    private final Logger logger = LogManager.getLogger(this.getClass());
+
+    private static final HbaseColumnFamily.ApplicationTraceIndexTrace INDEX = HbaseColumnFamily.APPLICATION_TRACE_INDEX_TRACE;
+
+    private final HbaseOperations2 hbaseTemplate;
+    private final TableNameProvider tableNameProvider;
+    private final ApplicationTraceIndexPutFactory putFactory;
+    private final ScatterProperties scatterProperties;
+    private final LongSupplier clock;
+
+    private final long writerId = ThreadLocalRandom.current().nextLong();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final Map<RowKey, PendingBlock> pendingBlocks = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService scheduler;
+
+    @Autowired
+    public ApplicationTraceIndexBlockWriter(HbaseOperations2 hbaseTemplate,
+                                           TableNameProvider tableNameProvider,
+                                           ApplicationTraceIndexPutFactory putFactory,
+                                           ScatterProperties scatterProperties) {
+        this(hbaseTemplate, tableNameProvider, putFactory, scatterProperties, System::currentTimeMillis);
+    }
+
+    ApplicationTraceIndexBlockWriter(HbaseOperations2 hbaseTemplate,
+                                     TableNameProvider tableNameProvider,
+                                     ApplicationTraceIndexPutFactory putFactory,
+                                     ScatterProperties scatterProperties,
+                                     LongSupplier clock) {
+        this.hbaseTemplate = Objects.requireNonNull(hbaseTemplate, "hbaseTemplate");
+        this.tableNameProvider = Objects.requireNonNull(tableNameProvider, "tableNameProvider");
+        this.putFactory = Objects.requireNonNull(putFactory, "putFactory");
+        this.scatterProperties = Objects.requireNonNull(scatterProperties, "scatterProperties");
+        this.clock = Objects.requireNonNull(clock, "clock");
+    }
+
+    public boolean isEnabled() {
+        return scatterProperties.getIndexFormat() == ScatterProperties.IndexFormat.block;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!isEnabled()) {
+            return;
+        }
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(PinpointThreadFactory.createThreadFactory("ApplicationTraceIndexBlockWriter", true));
+        final long interval = scatterProperties.getBlockFlushIntervalMillis();
+        this.scheduler.scheduleWithFixedDelay(this::flushSafely, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(3000, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush(Long.MAX_VALUE);
+    }
+
+    public void write(SpanBo span, long acceptedTime) {
+        Objects.requireNonNull(span, "span");
+
+        final byte[] rowKey = putFactory.newBlockRowKey(span, acceptedTime);
+        final RowKey key = new RowKey(rowKey);
+        final long blockTime = ScatterBlockCodec.getBlockTime(acceptedTime);
+
+        ScatterBlock full = null;
+        while (true) {
+            final PendingBlock pending = pendingBlocks.computeIfAbsent(key, k -> new PendingBlock(rowKey, blockTime));
+            synchronized (pending) {
+                if (pending.removed) {
+                    // flushed and removed concurrently
+                    continue;
+                }
+                pending.block.add(span, acceptedTime);
+                if (pending.block.size() >= scatterProperties.getBlockMaxSize()) {
+                    full = pending.block;
+                    pending.block = new ScatterBlock();
+                }
+            }
+            break;
+        }
+        if (full != null) {
+            put(rowKey, full);
+        }
+    }
+
+    private void flushSafely() {
+        try {
+            flush(clock.getAsLong());
+        } catch (Throwable th) {
+            logger.warn("ApplicationTraceIndex block flush failed", th);
+        }
+    }
+
+    /**
+     * Writes and removes the blocks whose second ended before {@code now}.
+     */
+    void flush(long now) {
+        final List<PendingBlock> closed = new ArrayList<>();
+        final Iterator<PendingBlock> iterator = pendingBlocks.values().iterator();
+        while (iterator.hasNext()) {
+            final PendingBlock pending = iterator.next();
+            if (pending.blockTime + ScatterBlockCodec.BLOCK_TIME_SPAN_MILLIS > now) {
+                continue;
+            }
+            iterator.remove();
+            closed.add(pending);
+        }
+
+        int blocks = 0;
+        for (PendingBlock pending : closed) {
+            final ScatterBlock block;
+            synchronized (pending) {
+                pending.removed = true;
+                block = pending.block;
+            }
+            if (!block.isEmpty()) {
+                put(pending.rowKey, block);
+                blocks++;
+            }
+        }
+        if (blocks > 0 && logger.isDebugEnabled()) {
+            logger.debug("flush ApplicationTraceIndex blocks:{} pending:{}", blocks, pendingBlocks.size());
+        }
+    }
+
+    private void put(byte[] rowKey, ScatterBlock block) {
+        final byte[] qualifier = ScatterBlockCodec.encodeQualifier(writerId, sequence.incrementAndGet());
+        final Put put = putFactory.newBlockPut(rowKey, qualifier, block);
+
+        final TableName applicationTraceIndexTableName = tableNameProvider.getTableName(INDEX.getTable());
+        hbaseTemplate.asyncPut(applicationTraceIndexTableName, put);
+    }
+
+    int getPendingSize() {
+        return pendingBlocks.size();
+    }
+
+    private static class PendingBlock {
+        private final byte[] rowKey;
+        private final long blockTime;
+        private ScatterBlock block = new ScatterBlock();
+        private boolean removed;
+
+        private PendingBlock(byte[] rowKey, long blockTime) {
+            this.rowKey = rowKey;
+            this.blockTime = blockTime;
+        }
+    }
+
+    private static final class RowKey {
+        private final byte[] key;
+        private final int hashCode;
+
+        private RowKey(byte[] key) {
+            this.key = key;
+            this.hashCode = Arrays.hashCode(key);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            return Arrays.equals(key, ((RowKey) o).key);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -16,6 +16,7 @@
 
 package com.navercorp.pinpoint.collector.dao.hbase;
 
+import com.navercorp.pinpoint.collector.config.CollectorProperties;
 import com.navercorp.pinpoint.collector.dao.TraceDao;
 import com.navercorp.pinpoint.collector.util.CollectorUtils;
 import com.navercorp.pinpoint.common.hbase.SimpleBatchWriter;
@@ -24,7 +25,8 @@ import com.navercorp.pinpoint.common.hbase.TableNameProvider;
 import com.navercorp.pinpoint.common.profiler.util.TransactionId;
 import com.navercorp.pinpoint.common.server.bo.SpanBo;
 import com.navercorp.pinpoint.common.server.bo.SpanChunkBo;
-import com.navercorp.pinpoint.common.server.bo.SpanEventBo;
+import com.navercorp.pinpoint.common.server.bo.grpc.GrpcSpan;
+import com.navercorp.pinpoint.common.server.bo.grpc.GrpcSpanSerializer;
 import com.navercorp.pinpoint.common.server.bo.serializer.RowKeyEncoder;
 import com.navercorp.pinpoint.common.server.bo.serializer.trace.v2.SpanChunkSerializerV2;
 import com.navercorp.pinpoint.common.server.bo.serializer.trace.v2.SpanSerializerV2;
@@ -33,10 +35,12 @@ import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.client.Put;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import java.util.Objects;
 
 /**
@@ -56,18 +60,60 @@ public class HbaseTraceDaoV2 implements TraceDao {
 
     private final SpanChunkSerializerV2 spanChunkSerializer;
 
+    private final GrpcSpanSerializer grpcSpanSerializer;
+
     private final RowKeyEncoder<TransactionId> rowKeyEncoder;
 
+    private final SpanChunkReassembler spanChunkReassembler;
+
+    public HbaseTraceDaoV2(SimpleBatchWriter writer,
+                           TableNameProvider tableNameProvider,
+                           @Qualifier("traceRowKeyEncoderV2") RowKeyEncoder<TransactionId> rowKeyEncoder,
+                           SpanSerializerV2 spanSerializer,
+                           SpanChunkSerializerV2 spanChunkSerializer,
+                           GrpcSpanSerializer grpcSpanSerializer) {
+        this(writer, tableNameProvider, rowKeyEncoder, spanSerializer, spanChunkSerializer, grpcSpanSerializer, null);
+    }
+
+    @Autowired
     public HbaseTraceDaoV2(SimpleBatchWriter writer,
                            TableNameProvider tableNameProvider,
                            @Qualifier("traceRowKeyEncoderV2") RowKeyEncoder<TransactionId> rowKeyEncoder,
                            SpanSerializerV2 spanSerializer,
-                           SpanChunkSerializerV2 spanChunkSerializer) {
+                           SpanChunkSerializerV2 spanChunkSerializer,
+                           GrpcSpanSerializer grpcSpanSerializer,
+                           CollectorProperties collectorProperties) {
         this.writer = Objects.requireNonNull(writer, "writer");
         this.tableNameProvider = Objects.requireNonNull(tableNameProvider, "tableNameProvider");
         this.rowKeyEncoder = Objects.requireNonNull(rowKeyEncoder, "rowKeyEncoder");
         this.spanSerializer = Objects.requireNonNull(spanSerializer, "spanSerializer");
         this.spanChunkSerializer = Objects.requireNonNull(spanChunkSerializer, "spanChunkSerializer");
+        this.grpcSpanSerializer = Objects.requireNonNull(grpcSpanSerializer, "grpcSpanSerializer");
+        this.spanChunkReassembler = newSpanChunkReassembler(collectorProperties);
+    }
+
+    private SpanChunkReassembler newSpanChunkReassembler(CollectorProperties collectorProperties) {
+        if (collectorProperties == null || !collectorProperties.isSpanChunkReassemblyEnable()) {
+            return null;
+        }
+        return new SpanChunkReassembler(collectorProperties.getSpanChunkReassemblyMaxDelayMillis(),
+                collectorProperties.getSpanChunkReassemblyMaxEvents(),
+                collectorProperties.getSpanChunkReassemblyMaxPendingEvents(),
+                this::writeSpanChunk);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (spanChunkReassembler != null) {
+            spanChunkReassembler.start();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (spanChunkReassembler != null) {
+            spanChunkReassembler.stop();
+        }
     }
 
     @Override
@@ -94,21 +140,52 @@ public class HbaseTraceDaoV2 implements TraceDao {
         return writer.write(traceTableName, put);
     }
 
+    @Override
+    public boolean insert(final GrpcSpan grpcSpan) {
+        Objects.requireNonNull(grpcSpan, "grpcSpan");
+        final SpanBo spanBo = grpcSpan.getSpanBo();
+        if (logger.isDebugEnabled()) {
+            logger.debug("insert trace: {}", spanBo);
+        }
+
+        // Assert agentId
+        CollectorUtils.checkAgentId(spanBo.getAgentId());
+        // Assert applicationName
+        CollectorUtils.checkApplicationName(spanBo.getApplicationId());
+
+        long acceptedTime = spanBo.getCollectorAcceptTime();
+
+        TransactionId transactionId = spanBo.getTransactionId();
+        final byte[] rowKey = this.rowKeyEncoder.encodeRowKey(transactionId);
+        final Put put = new Put(rowKey, acceptedTime);
+
+        this.grpcSpanSerializer.serialize(grpcSpan, put, null);
+
+        TableName traceTableName = tableNameProvider.getTableName(descriptor.getTable());
+        return writer.write(traceTableName, put);
+    }
+
     @Override
     public void insertSpanChunk(SpanChunkBo spanChunkBo) {
         Objects.requireNonNull(spanChunkBo, "spanChunkBo");
 
+        if (CollectionUtils.isEmpty(spanChunkBo.getSpanEventBoList())) {
+            return;
+        }
+        if (spanChunkReassembler != null) {
+            spanChunkReassembler.add(spanChunkBo);
+            return;
+        }
+        writeSpanChunk(spanChunkBo);
+    }
+
+    private void writeSpanChunk(SpanChunkBo spanChunkBo) {
         TransactionId transactionId = spanChunkBo.getTransactionId();
         final byte[] rowKey = this.rowKeyEncoder.encodeRowKey(transactionId);
 
         final long acceptedTime = spanChunkBo.getCollectorAcceptTime();
         final Put put = new Put(rowKey, acceptedTime);
 
-        final List<SpanEventBo> spanEventBoList = spanChunkBo.getSpanEventBoList();
-        if (CollectionUtils.isEmpty(spanEventBoList)) {
-            return;
-        }
-
         this.spanChunkSerializer.serialize(spanChunkBo, put, null);
 
         if (!put.isEmpty()) {
@@ -0,0 +1,267 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.dao.hbase;
+
+import com.navercorp.pinpoint.common.profiler.concurrent.PinpointThreadFactory;
+import com.navercorp.pinpoint.common.profiler.util.TransactionId;
+import com.navercorp.pinpoint.common.server.bo.LocalAsyncIdBo;
+import com.navercorp.pinpoint.common.server.bo.SpanChunkBo;
+import com.navercorp.pinpoint.common.server.bo.SpanEventBo;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Merges the {@link SpanChunkBo}s of the same span into one trace cell.
+ * <p>
+ * A merged chunk is written when it reaches {@code maxEvents}, or by the flush task {@code maxDelayMillis} after its first chunk arrived.
+ * Once {@code maxPendingEvents} span events are buffered, new chunks are written as they are.
+ */
+public class SpanChunkReassembler {
+    private final Logger logger = LogManager.getLogger(this.getClass());
+
+    private static final Comparator<SpanEventBo> SEQUENCE_ORDER = Comparator.comparingInt(SpanEventBo::getSequence);
+
+    private final long maxDelayMillis;
+    private final int maxEvents;
+    private final int maxPendingEvents;
+    private final Consumer<SpanChunkBo> writer;
+    private final LongSupplier clock;
+
+    private final Map<ChunkKey, PendingChunk> pendingChunks = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingEvents = new AtomicInteger();
+
+    private ScheduledExecutorService scheduler;
+
+    public SpanChunkReassembler(long maxDelayMillis, int maxEvents, int maxPendingEvents, Consumer<SpanChunkBo> writer) {
+        this(maxDelayMillis, maxEvents, maxPendingEvents, writer, System::currentTimeMillis);
+    }
+
+    SpanChunkReassembler(long maxDelayMillis, int maxEvents, int maxPendingEvents, Consumer<SpanChunkBo> writer, LongSupplier clock) {
+        if (maxDelayMillis <= 0) {
+            throw new IllegalArgumentException("maxDelayMillis must be positive");
+        }
+        this.maxDelayMillis = maxDelayMillis;
+        this.maxEvents = maxEvents;
+        this.maxPendingEvents = maxPendingEvents;
+        this.writer = Objects.requireNonNull(writer, "writer");
+        this.clock = Objects.requireNonNull(clock, "clock");
+    }
+
+    public void start() {
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(PinpointThreadFactory.createThreadFactory("SpanChunkReassembler", true));
+        final long interval = Math.max(maxDelayMillis / 2, 10);
+        this.scheduler.scheduleWithFixedDelay(this::flushSafely, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(3000, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush(Long.MAX_VALUE);
+    }
+
+    public void add(SpanChunkBo spanChunkBo) {
+        Objects.requireNonNull(spanChunkBo, "spanChunkBo");
+
+        final int eventSize = spanChunkBo.getSpanEventBoList().size();
+        if (eventSize >= maxEvents || pendingEvents.get() + eventSize > maxPendingEvents) {
+            writer.accept(spanChunkBo);
+            return;
+        }
+
+        final ChunkKey key = new ChunkKey(spanChunkBo);
+        final PendingChunk[] full = new PendingChunk[1];
+        pendingChunks.compute(key, (k, pending) -> {
+            if (pending == null) {
+                return new PendingChunk(spanChunkBo, clock.getAsLong());
+            }
+            pending.merge(spanChunkBo);
+            if (pending.eventSize() >= maxEvents) {
+                full[0] = pending;
+                return null;
+            }
+            return pending;
+        });
+        pendingEvents.addAndGet(eventSize);
+
+        if (full[0] != null) {
+            write(full[0]);
+        }
+    }
+
+    private void flushSafely() {
+        try {
+            flush(clock.getAsLong());
+        } catch (Throwable th) {
+            logger.warn("SpanChunk flush failed", th);
+        }
+    }
+
+    /**
+     * Writes the merged chunks whose first chunk arrived {@code maxDelayMillis} before {@code now}.
+     */
+    void flush(long now) {
+        int chunks = 0;
+        for (Map.Entry<ChunkKey, PendingChunk> entry : pendingChunks.entrySet()) {
+            if (entry.getValue().firstArrivalTime + maxDelayMillis > now) {
+                continue;
+            }
+            final PendingChunk pending = pendingChunks.remove(entry.getKey());
+            if (pending != null) {
+                write(pending);
+                chunks++;
+            }
+        }
+        if (chunks > 0 && logger.isDebugEnabled()) {
+            logger.debug("flush SpanChunk:{} pending:{}", chunks, pendingChunks.size());
+        }
+    }
+
+    private void write(PendingChunk pending) {
+        pendingEvents.addAndGet(-pending.eventSize());
+        final SpanChunkBo spanChunkBo = pending.build();
+        try {
+            writer.accept(spanChunkBo);
+        } catch (Throwable th) {
+            logger.warn("SpanChunk write failed. transactionId:{}", spanChunkBo.getTransactionId(), th);
+        }
+    }
+
+    int getPendingSize() {
+        return pendingChunks.size();
+    }
+
+    int getPendingEvents() {
+        return pendingEvents.get();
+    }
+
+    private static class PendingChunk {
+        private final SpanChunkBo first;
+        private final long firstArrivalTime;
+        private List<SpanEventBo> mergedEvents;
+
+        private PendingChunk(SpanChunkBo first, long firstArrivalTime) {
+            this.first = first;
+            this.firstArrivalTime = firstArrivalTime;
+        }
+
+        private void merge(SpanChunkBo spanChunkBo) {
+            if (mergedEvents == null) {
+                mergedEvents = new ArrayList<>(first.getSpanEventBoList());
+            }
+            mergedEvents.addAll(spanChunkBo.getSpanEventBoList());
+        }
+
+        private int eventSize() {
+            if (mergedEvents == null) {
+                return first.getSpanEventBoList().size();
+            }
+            return mergedEvents.size();
+        }
+
+        private SpanChunkBo build() {
+            if (mergedEvents == null) {
+                return first;
+            }
+            final SpanChunkBo merged = new SpanChunkBo();
+            merged.setVersion(first.getVersion());
+            merged.setAgentId(first.getAgentId());
+            merged.setAgentName(first.getAgentName());
+            merged.setApplicationId(first.getApplicationId());
+            merged.setAgentStartTime(first.getAgentStartTime());
+            merged.setTransactionId(first.getTransactionId());
+            merged.setSpanId(first.getSpanId());
+            merged.setEndPoint(first.getEndPoint());
+            merged.setServiceType(first.getServiceType());
+            if (first.hasApplicationServiceType()) {
+                merged.setApplicationServiceType(first.getApplicationServiceType());
+            }
+            merged.setCollectorAcceptTime(first.getCollectorAcceptTime());
+            merged.setLocalAsyncId(first.getLocalAsyncId());
+            merged.setKeyTime(first.getKeyTime());
+
+            mergedEvents.sort(SEQUENCE_ORDER);
+            merged.addSpanEventBoList(mergedEvents);
+            return merged;
+        }
+    }
+
+    private static final class ChunkKey {
+        private final TransactionId transactionId;
+        private final String agentId;
+        private final String applicationId;
+        private final long agentStartTime;
+        private final long spanId;
+        private final LocalAsyncIdBo localAsyncId;
+        private final long keyTime;
+        private final int version;
+
+        private ChunkKey(SpanChunkBo spanChunkBo) {
+            this.transactionId = spanChunkBo.getTransactionId();
+            this.agentId = spanChunkBo.getAgentId();
+            this.applicationId = spanChunkBo.getApplicationId();
+            this.agentStartTime = spanChunkBo.getAgentStartTime();
+            this.spanId = spanChunkBo.getSpanId();
+            this.localAsyncId = spanChunkBo.getLocalAsyncId();
+            this.keyTime = spanChunkBo.getKeyTime();
+            this.version = spanChunkBo.getVersion();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            ChunkKey that = (ChunkKey) o;
+            return agentStartTime == that.agentStartTime
+                    && spanId == that.spanId
+                    && keyTime == that.keyTime
+                    && version == that.version
+                    && Objects.equals(transactionId, that.transactionId)
+                    && Objects.equals(agentId, that.agentId)
+                    && Objects.equals(applicationId, that.applicationId)
+                    && Objects.equals(localAsyncId, that.localAsyncId);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = Objects.hashCode(transactionId);
+            result = 31 * result + Long.hashCode(spanId);
+            result = 31 * result + Objects.hashCode(localAsyncId);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.collector.dao.hbase.stat;
+
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatHbaseOperationFactory;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatSerializer;
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatDataPoint;
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatType;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.AgentStatAccumulator;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.AgentStatAggregate;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.AgentStatResolution;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Accumulates the data points of an agent stat type into timeslots of each rollup resolution.
+ * A timeslot is written once, when it is closed : the end of the timeslot plus the lateness has passed.
+ * Data points arriving for a closed timeslot are dropped, so that a written timeslot is never overwritten by a partial one.
+ */
+public class AgentStatRollup<T extends AgentStatDataPoint> {
+    private final Logger logger = LogManager.getLogger(this.getClass());
+
+    private final AgentStatType agentStatType;
+    private final Supplier<AgentStatAccumulator<T>> accumulatorFactory;
+    private final AgentStatSerializer<T> serializer;
+    private final List<AgentStatResolution> resolutions;
+    private final long latenessMillis;
+    private final LongSupplier clock;
+
+    private final ConcurrentMap<TimeslotKey, Timeslot<T>> timeslots = new ConcurrentHashMap<>();
+
+    public AgentStatRollup(AgentStatType agentStatType,
+                           Supplier<AgentStatAccumulator<T>> accumulatorFactory,
+                           AgentStatSerializer<T> serializer,
+                           List<AgentStatResolution> resolutions,
+                           long latenessMillis,
+                           LongSupplier clock) {
+        this.agentStatType = Objects.requireNonNull(agentStatType, "agentStatType");
+        this.accumulatorFactory = Objects.requireNonNull(accumulatorFactory, "accumulatorFactory");
+        this.serializer = Objects.requireNonNull(serializer, "serializer");
+        this.resolutions = Objects.requireNonNull(resolutions, "resolutions");
+        if (resolutions.contains(AgentStatResolution.RAW)) {
+            throw new IllegalArgumentException("RAW is not a rollup resolution");
+        }
+        this.latenessMillis = latenessMillis;
+        this.clock = Objects.requireNonNull(clock, "clock");
+    }
+
+    public AgentStatType getAgentStatType() {
+        return agentStatType;
+    }
+
+    public void add(String agentId, List<T> dataPoints) {
+        for (T dataPoint : dataPoints) {
+            for (AgentStatResolution resolution : resolutions) {
+                final TimeslotKey key = new TimeslotKey(agentId, resolution, resolution.getTimeslot(dataPoint.getTimestamp()));
+                final Timeslot<T> timeslot = timeslots.compute(key, (k, current) -> {
+                    // checked in compute() so that a timeslot removed by flush() is never created again
+                    if (current == null && isClosed(k, clock.getAsLong())) {
+                        return null;
+                    }
+                    if (current == null) {
+                        current = new Timeslot<>();
+                    }
+                    current.add(dataPoint, accumulatorFactory);
+                    return current;
+                });
+                if (timeslot == null && logger.isDebugEnabled()) {
+                    logger.debug("drop late data point. agentId:{} type:{} resolution:{} timestamp:{}", agentId, agentStatType, resolution, dataPoint.getTimestamp());
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes the timeslots closed at the given time and creates their puts.
+     */
+    public List<Put> flush(long now, AgentStatHbaseOperationFactory operations) {
+        final List<Put> puts = new ArrayList<>();
+        final Iterator<Map.Entry<TimeslotKey, Timeslot<T>>> iterator = timeslots.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<TimeslotKey, Timeslot<T>> entry = iterator.next();
+            final TimeslotKey key = entry.getKey();
+            if (!isClosed(key, now)) {
+                continue;
+            }
+            if (!timeslots.remove(key, entry.getValue())) {
+                continue;
+            }
+            final List<T> dataPoints = entry.getValue().aggregate(key);
+            puts.addAll(operations.createPuts(key.agentId, agentStatType, key.resolution, dataPoints, serializer));
+        }
+        return puts;
+    }
+
+    int size() {
+        return timeslots.size();
+    }
+
+    private boolean isClosed(TimeslotKey key, long now) {
+        return key.timeslot + key.resolution.getMillis() + latenessMillis <= now;
+    }
+
+    private static class Timeslot<T extends AgentStatDataPoint> {
+        // agent start timestamp -> accumulator, a restarted agent keeps its own aggregates
+        private final Map<Long, AgentStatAccumulator<T>> accumulators = new TreeMap<>();
+
+        private void add(T dataPoint, Supplier<AgentStatAccumulator<T>> accumulatorFactory) {
+            accumulators.computeIfAbsent(dataPoint.getStartTimestamp(), k -> accumulatorFactory.get()).add(dataPoint);
+        }
+
+        /**
+         * @return {@link AgentStatAggregate#SIZE} data points per agent start timestamp, in the order of {@link AgentStatAggregate}
+         */
+        private List<T> aggregate(TimeslotKey key) {
+            final List<T> dataPoints = new ArrayList<>(accumulators.size() * AgentStatAggregate.SIZE);
+            for (Map.Entry<Long, AgentStatAccumulator<T>> entry : accumulators.entrySet()) {
+                final AgentStatAccumulator<T> accumulator = entry.getValue();
+                for (AgentStatAggregate aggregate : AgentStatAggregate.values()) {
+                    final T dataPoint = accumulator.aggregate(aggregate);
+                    dataPoint.setAgentId(key.agentId);
+                    dataPoint.setStartTimestamp(entry.getKey());
+                    dataPoint.setTimestamp(key.timeslot);
+                    dataPoints.add(dataPoint);
+                }
+            }
+            return dataPoints;
+        }
+    }
+
+    private static class TimeslotKey {
+        private final String agentId;
+        private final AgentStatResolution resolution;
+        private final long timeslot;
+
+        private TimeslotKey(String agentId, AgentStatResolution resolution, long timeslot) {
+            this.agentId = Objects.requireNonNull(agentId, "agentId");
+            this.resolution = Objects.requireNonNull(resolution, "resolution");
+            this.timeslot = timeslot;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            TimeslotKey that = (TimeslotKey) o;
+
+            if (timeslot != that.timeslot) return false;
+            if (resolution != that.resolution) return false;
+            return agentId.equals(that.agentId);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = agentId.hashCode();
+            result = 31 * result + resolution.hashCode();
+            result = 31 * result + Long.hashCode(timeslot);
+            return result;
+        }
+    }
+}
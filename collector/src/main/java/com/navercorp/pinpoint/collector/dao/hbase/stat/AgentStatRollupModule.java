@@ -0,0 +1,54 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.collector.dao.hbase.stat;
+
+import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
+import com.navercorp.pinpoint.common.hbase.TableNameProvider;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatHbaseOperationFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Writes 1m/10m/1h rollups of the gauge agent stats next to the raw data points,
+ * so that the web does not have to decode every raw data point of a long range.
+ */
+@Configuration
+@ConditionalOnProperty(value = "pinpoint.modules.collector.stat.rollup.enabled", havingValue = "true")
+public class AgentStatRollupModule {
+    private final Logger logger = LogManager.getLogger(this.getClass());
+
+    public AgentStatRollupModule() {
+        logger.info("Install {}", AgentStatRollupModule.class.getSimpleName());
+    }
+
+    @Bean
+    public AgentStatRollupProperties agentStatRollupProperties() {
+        return new AgentStatRollupProperties();
+    }
+
+    @Bean
+    public AgentStatRollupWriter agentStatRollupWriter(HbaseOperations2 hbaseTemplate,
+                                                       TableNameProvider tableNameProvider,
+                                                       AgentStatHbaseOperationFactory operations,
+                                                       AgentStatRollupProperties properties) {
+        return new AgentStatRollupWriter(hbaseTemplate, tableNameProvider, operations, properties);
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.collector.dao.hbase.stat;
+
+import com.navercorp.pinpoint.common.server.config.AnnotationVisitor;
+import com.navercorp.pinpoint.common.server.config.LoggingEvent;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+
+import javax.annotation.PostConstruct;
+
+public class AgentStatRollupProperties {
+    private final Logger logger = LogManager.getLogger(AgentStatRollupProperties.class);
+
+    @Value("${collector.stat.rollup.flush.intervalMillis:10000}")
+    private long flushIntervalMillis;
+
+    // agents send their stats in batches every 30 seconds by default
+    @Value("${collector.stat.rollup.latenessMillis:60000}")
+    private long latenessMillis;
+
+    public long getFlushIntervalMillis() {
+        return flushIntervalMillis;
+    }
+
+    public long getLatenessMillis() {
+        return latenessMillis;
+    }
+
+    @PostConstruct
+    public void log() {
+        logger.info("{}", this);
+        AnnotationVisitor<Value> visitor = new AnnotationVisitor<>(Value.class);
+        visitor.visit(this, new LoggingEvent(logger));
+    }
+
+    @Override
+    public String toString() {
+        return "AgentStatRollupProperties{" +
+                "flushIntervalMillis=" + flushIntervalMillis +
+                ", latenessMillis=" + latenessMillis +
+                '}';
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.collector.dao.hbase.stat;
+
+import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
+import com.navercorp.pinpoint.common.hbase.HbaseTable;
+import com.navercorp.pinpoint.common.hbase.TableNameProvider;
+import com.navercorp.pinpoint.common.profiler.concurrent.PinpointThreadFactory;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatHbaseOperationFactory;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatSerializer;
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatDataPoint;
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatType;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.AgentStatAccumulator;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.AgentStatResolution;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Periodically writes the closed rollup timeslots to the AgentStatV2 table.
+ */
+public class AgentStatRollupWriter {
+    private final Logger logger = LogManager.getLogger(this.getClass());
+
+    private static final List<AgentStatResolution> RESOLUTIONS = List.of(
+            AgentStatResolution.ONE_MINUTE,
+            AgentStatResolution.TEN_MINUTES,
+            AgentStatResolution.ONE_HOUR
+    );
+
+    private final HbaseOperations2 hbaseTemplate;
+    private final TableNameProvider tableNameProvider;
+    private final AgentStatHbaseOperationFactory operations;
+    private final AgentStatRollupProperties properties;
+    private final LongSupplier clock;
+
+    private final List<AgentStatRollup<?>> rollups = new CopyOnWriteArrayList<>();
+
+    private ScheduledExecutorService scheduler;
+
+    public AgentStatRollupWriter(HbaseOperations2 hbaseTemplate,
+                                 TableNameProvider tableNameProvider,
+                                 AgentStatHbaseOperationFactory operations,
+                                 AgentStatRollupProperties properties) {
+        this(hbaseTemplate, tableNameProvider, operations, properties, System::currentTimeMillis);
+    }
+
+    AgentStatRollupWriter(HbaseOperations2 hbaseTemplate,
+                          TableNameProvider tableNameProvider,
+                          AgentStatHbaseOperationFactory operations,
+                          AgentStatRollupProperties properties,
+                          LongSupplier clock) {
+        this.hbaseTemplate = Objects.requireNonNull(hbaseTemplate, "hbaseTemplate");
+        this.tableNameProvider = Objects.requireNonNull(tableNameProvider, "tableNameProvider");
+        this.operations = Objects.requireNonNull(operations, "operations");
+        this.properties = Objects.requireNonNull(properties, "properties");
+        this.clock = Objects.requireNonNull(clock, "clock");
+    }
+
+    public <T extends AgentStatDataPoint> AgentStatRollup<T> newRollup(AgentStatType agentStatType,
+                                                                      Supplier<AgentStatAccumulator<T>> accumulatorFactory,
+                                                                      AgentStatSerializer<T> serializer) {
+        AgentStatRollup<T> rollup = new AgentStatRollup<>(agentStatType, accumulatorFactory, serializer,
+                RESOLUTIONS, properties.getLatenessMillis(), clock);
+        rollups.add(rollup);
+        return rollup;
+    }
+
+    @PostConstruct
+    public void start() {
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(PinpointThreadFactory.createThreadFactory("AgentStatRollupWriter", true));
+        final long interval = properties.getFlushIntervalMillis();
+        this.scheduler.scheduleWithFixedDelay(this::flushSafely, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+        // write the open timeslots as they are, they would be lost otherwise
+        flush(Long.MAX_VALUE);
+    }
+
+    private void flushSafely() {
+        try {
+            flush(clock.getAsLong());
+        } catch (Throwable th) {
+            logger.warn("agent stat rollup flush failed", th);
+        }
+    }
+
+    void flush(long now) {
+        final TableName tableName = tableNameProvider.getTableName(HbaseTable.AGENT_STAT_VER2);
+        for (AgentStatRollup<?> rollup : rollups) {
+            final List<Put> puts = rollup.flush(now, operations);
+            if (puts.isEmpty()) {
+                continue;
+            }
+            if (logger.isDebugEnabled()) {
+                logger.debug("flush {} rollup puts:{}", rollup.getAgentStatType(), puts.size());
+            }
+            hbaseTemplate.asyncPut(tableName, puts);
+        }
+    }
+}
@@ -21,12 +21,20 @@ import com.navercorp.pinpoint.common.server.bo.stat.LoadedClassBo;
 import com.navercorp.pinpoint.common.server.bo.stat.ResponseTimeBo;
 import com.navercorp.pinpoint.common.server.bo.stat.TotalThreadCountBo;
 import com.navercorp.pinpoint.common.server.bo.stat.TransactionBo;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.AgentStatAccumulator;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.CpuLoadAccumulator;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.DirectBufferAccumulator;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.FileDescriptorAccumulator;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.LoadedClassAccumulator;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.TotalThreadCountAccumulator;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.util.List;
 import java.util.Objects;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 @Configuration
 public class HBaseDaoConfiguration {
@@ -35,11 +43,15 @@ public class HBaseDaoConfiguration {
     private final HbaseTable hbaseTable = HbaseTable.AGENT_STAT_VER2;
     private final TableNameProvider tableNameProvider;
     private final AgentStatHbaseOperationFactory operations;
+    // null if the rollup module is disabled
+    private final AgentStatRollupWriter rollupWriter;
 
-    public HBaseDaoConfiguration(HbaseOperations2 hbaseTemplate, TableNameProvider tableNameProvider, AgentStatHbaseOperationFactory operations) {
+    public HBaseDaoConfiguration(HbaseOperations2 hbaseTemplate, TableNameProvider tableNameProvider, AgentStatHbaseOperationFactory operations,
+                                 ObjectProvider<AgentStatRollupWriter> rollupWriter) {
         this.hbaseTemplate = Objects.requireNonNull(hbaseTemplate, "hbaseTemplate");
         this.tableNameProvider = Objects.requireNonNull(tableNameProvider, "tableNameProvider");
         this.operations = Objects.requireNonNull(operations, "operations");
+        this.rollupWriter = rollupWriter.getIfAvailable();
     }
 
     private <T extends AgentStatDataPoint> AgentStatDao<T> newAgentStatDao(AgentStatType agentStatType, Function<AgentStatBo, List<T>> dataPointFunction, AgentStatSerializer<T> serializer) {
@@ -47,6 +59,16 @@ public class HBaseDaoConfiguration {
                 hbaseTemplate, tableNameProvider, operations, serializer);
     }
 
+    private <T extends AgentStatDataPoint> AgentStatDao<T> newRollupAgentStatDao(AgentStatType agentStatType, Function<AgentStatBo, List<T>> dataPointFunction, AgentStatSerializer<T> serializer,
+                                                                                 Supplier<AgentStatAccumulator<T>> accumulatorFactory) {
+        AgentStatDao<T> agentStatDao = newAgentStatDao(agentStatType, dataPointFunction, serializer);
+        if (rollupWriter == null) {
+            return agentStatDao;
+        }
+        AgentStatRollup<T> rollup = rollupWriter.newRollup(agentStatType, accumulatorFactory, serializer);
+        return new RollupAgentStatDao<>(agentStatDao, dataPointFunction, rollup);
+    }
+
     @Bean
     public AgentStatDao<ActiveTraceBo> getActiveTraceDao(AgentStatSerializer<ActiveTraceBo> serializer) {
         return newAgentStatDao(AgentStatType.ACTIVE_TRACE, AgentStatBo::getActiveTraceBos, serializer);
@@ -54,7 +76,7 @@ public class HBaseDaoConfiguration {
 
     @Bean
     public AgentStatDao<CpuLoadBo> getCpuLoadDao(AgentStatSerializer<CpuLoadBo> serializer) {
-        return newAgentStatDao(AgentStatType.CPU_LOAD, AgentStatBo::getCpuLoadBos, serializer);
+        return newRollupAgentStatDao(AgentStatType.CPU_LOAD, AgentStatBo::getCpuLoadBos, serializer, CpuLoadAccumulator::new);
     }
 
     @Bean
@@ -69,12 +91,12 @@ public class HBaseDaoConfiguration {
 
     @Bean
     public AgentStatDao<DirectBufferBo> getDirectBufferDao(AgentStatSerializer<DirectBufferBo> serializer) {
-        return newAgentStatDao(AgentStatType.DIRECT_BUFFER, AgentStatBo::getDirectBufferBos, serializer);
+        return newRollupAgentStatDao(AgentStatType.DIRECT_BUFFER, AgentStatBo::getDirectBufferBos, serializer, DirectBufferAccumulator::new);
     }
 
     @Bean
     public AgentStatDao<FileDescriptorBo> getFileDescriptorDao(AgentStatSerializer<FileDescriptorBo> serializer) {
-        return newAgentStatDao(AgentStatType.FILE_DESCRIPTOR, AgentStatBo::getFileDescriptorBos, serializer);
+        return newRollupAgentStatDao(AgentStatType.FILE_DESCRIPTOR, AgentStatBo::getFileDescriptorBos, serializer, FileDescriptorAccumulator::new);
     }
 
     @Bean
@@ -89,7 +111,7 @@ public class HBaseDaoConfiguration {
 
     @Bean
     public AgentStatDao<LoadedClassBo> getLoadedClassDao(AgentStatSerializer<LoadedClassBo> serializer) {
-        return newAgentStatDao(AgentStatType.LOADED_CLASS, AgentStatBo::getLoadedClassBos, serializer);
+        return newRollupAgentStatDao(AgentStatType.LOADED_CLASS, AgentStatBo::getLoadedClassBos, serializer, LoadedClassAccumulator::new);
     }
 
     @Bean
@@ -99,7 +121,7 @@ public class HBaseDaoConfiguration {
 
     @Bean
     public AgentStatDao<TotalThreadCountBo> getTotalThreadCountDao(AgentStatSerializer<TotalThreadCountBo> serializer) {
-        return newAgentStatDao(AgentStatType.TOTAL_THREAD, AgentStatBo::getTotalThreadCountBos, serializer);
+        return newRollupAgentStatDao(AgentStatType.TOTAL_THREAD, AgentStatBo::getTotalThreadCountBos, serializer, TotalThreadCountAccumulator::new);
     }
 
     @Bean
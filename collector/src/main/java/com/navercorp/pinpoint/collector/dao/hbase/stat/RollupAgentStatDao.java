@@ -0,0 +1,62 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.collector.dao.hbase.stat;
+
+import com.navercorp.pinpoint.collector.dao.AgentStatDao;
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatBo;
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatDataPoint;
+import org.apache.commons.collections4.CollectionUtils;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Stores the raw data points through the delegate and accumulates them into the rollup timeslots.
+ */
+public class RollupAgentStatDao<T extends AgentStatDataPoint> implements AgentStatDao<T> {
+
+    private final AgentStatDao<T> delegate;
+    private final Function<AgentStatBo, List<T>> dataPointFunction;
+    private final AgentStatRollup<T> rollup;
+
+    public RollupAgentStatDao(AgentStatDao<T> delegate,
+                              Function<AgentStatBo, List<T>> dataPointFunction,
+                              AgentStatRollup<T> rollup) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        this.dataPointFunction = Objects.requireNonNull(dataPointFunction, "dataPointFunction");
+        this.rollup = Objects.requireNonNull(rollup, "rollup");
+    }
+
+    @Override
+    public void insert(String agentId, List<T> dataPoints) {
+        delegate.insert(agentId, dataPoints);
+        if (CollectionUtils.isEmpty(dataPoints)) {
+            return;
+        }
+        rollup.add(agentId, dataPoints);
+    }
+
+    @Override
+    public void dispatch(AgentStatBo agentStatBo) {
+        Objects.requireNonNull(agentStatBo, "agentStatBo");
+
+        List<T> dataPoints = this.dataPointFunction.apply(agentStatBo);
+        insert(agentStatBo.getAgentId(), dataPoints);
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.collector.dao.local;
+
+import com.navercorp.pinpoint.collector.dao.ApplicationTraceIndexDao;
+import com.navercorp.pinpoint.collector.dao.TraceDao;
+import com.navercorp.pinpoint.collector.dao.hbase.ApplicationTraceIndexPutFactory;
+import com.navercorp.pinpoint.common.profiler.util.TransactionId;
+import com.navercorp.pinpoint.common.server.bo.grpc.GrpcSpanSerializer;
+import com.navercorp.pinpoint.common.server.bo.serializer.RowKeyEncoder;
+import com.navercorp.pinpoint.common.server.bo.serializer.trace.v2.SpanChunkSerializerV2;
+import com.navercorp.pinpoint.common.server.bo.serializer.trace.v2.SpanSerializerV2;
+import com.navercorp.pinpoint.common.server.dao.local.SegmentStore;
+import com.navercorp.pinpoint.common.server.dao.local.SegmentStoreProperties;
+import com.navercorp.pinpoint.common.server.util.AcceptedTimeService;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * Stores traces and the application trace index in local segment files instead of HBase,
+ * for single-node and test deployments.
+ */
+@Configuration
+@ConditionalOnProperty(value = "pinpoint.modules.collector.storage.local.enabled", havingValue = "true")
+public class CollectorLocalStorageModule {
+
+    public static final String STORE = "collector.storage.local";
+
+    private final Logger logger = LogManager.getLogger(this.getClass());
+
+    public CollectorLocalStorageModule() {
+        logger.info("Install {}", CollectorLocalStorageModule.class.getSimpleName());
+    }
+
+    @Bean(STORE)
+    @ConfigurationProperties(STORE)
+    public SegmentStoreProperties.Builder newSegmentStoreBuilder() {
+        return SegmentStoreProperties.newBuilder();
+    }
+
+    @Bean
+    public SegmentStoreProperties localSegmentStoreProperties(@Qualifier(STORE) SegmentStoreProperties.Builder builder) {
+        SegmentStoreProperties properties = builder.build();
+        logger.info("{}", properties);
+        return properties;
+    }
+
+    @Bean
+    public SegmentStore localTraceStore(SegmentStoreProperties localSegmentStoreProperties) {
+        return new SegmentStore("trace", localSegmentStoreProperties);
+    }
+
+    @Bean
+    public SegmentStore localApplicationTraceIndexStore(SegmentStoreProperties localSegmentStoreProperties) {
+        return new SegmentStore("applicationTraceIndex", localSegmentStoreProperties);
+    }
+
+    @Bean
+    @Primary
+    public TraceDao localTraceDao(@Qualifier("localTraceStore") SegmentStore store,
+                                  @Qualifier("traceRowKeyEncoderV2") RowKeyEncoder<TransactionId> rowKeyEncoder,
+                                  SpanSerializerV2 spanSerializer,
+                                  SpanChunkSerializerV2 spanChunkSerializer,
+                                  GrpcSpanSerializer grpcSpanSerializer) {
+        return new LocalTraceDao(store, rowKeyEncoder, spanSerializer, spanChunkSerializer, grpcSpanSerializer);
+    }
+
+    @Bean
+    @Primary
+    public ApplicationTraceIndexDao localApplicationTraceIndexDao(@Qualifier("localApplicationTraceIndexStore") SegmentStore store,
+                                                                  AcceptedTimeService acceptedTimeService,
+                                                                  ApplicationTraceIndexPutFactory putFactory) {
+        return new LocalApplicationTraceIndexDao(store, acceptedTimeService, putFactory);
+    }
+}
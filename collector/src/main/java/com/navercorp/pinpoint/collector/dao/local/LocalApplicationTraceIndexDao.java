@@ -0,0 +1,73 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.collector.dao.local;
+
+import com.navercorp.pinpoint.collector.dao.ApplicationTraceIndexDao;
+import com.navercorp.pinpoint.collector.dao.hbase.ApplicationTraceIndexPutFactory;
+import com.navercorp.pinpoint.collector.util.CollectorUtils;
+import com.navercorp.pinpoint.common.server.bo.SpanBo;
+import com.navercorp.pinpoint.common.server.dao.local.CellRecordCodec;
+import com.navercorp.pinpoint.common.server.dao.local.SegmentStore;
+import com.navercorp.pinpoint.common.server.util.AcceptedTimeService;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Objects;
+
+/**
+ * Keeps the ApplicationTraceIndex rows in a local {@link SegmentStore}, keyed by application name
+ * and partitioned by accepted time.
+ */
+public class LocalApplicationTraceIndexDao implements ApplicationTraceIndexDao {
+
+    private final Logger logger = LogManager.getLogger(this.getClass());
+
+    private final SegmentStore store;
+
+    private final AcceptedTimeService acceptedTimeService;
+
+    private final ApplicationTraceIndexPutFactory putFactory;
+
+    public LocalApplicationTraceIndexDao(SegmentStore store,
+                                         AcceptedTimeService acceptedTimeService,
+                                         ApplicationTraceIndexPutFactory putFactory) {
+        this.store = Objects.requireNonNull(store, "store");
+        this.acceptedTimeService = Objects.requireNonNull(acceptedTimeService, "acceptedTimeService");
+        this.putFactory = Objects.requireNonNull(putFactory, "putFactory");
+    }
+
+    @Override
+    public void insert(SpanBo span) {
+        Objects.requireNonNull(span, "span");
+        if (logger.isDebugEnabled()) {
+            logger.debug("insert ApplicationTraceIndex: {}", span);
+        }
+
+        // Assert agentId
+        CollectorUtils.checkAgentId(span.getAgentId());
+        // Assert applicationName
+        CollectorUtils.checkApplicationName(span.getApplicationId());
+
+        final long acceptedTime = acceptedTimeService.getAcceptedTime();
+        final Put put = putFactory.newPut(span, acceptedTime);
+
+        store.append(Bytes.toBytes(span.getApplicationId()), acceptedTime, CellRecordCodec.encode(put));
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.collector.dao.local;
+
+import com.navercorp.pinpoint.collector.dao.TraceDao;
+import com.navercorp.pinpoint.collector.util.CollectorUtils;
+import com.navercorp.pinpoint.common.profiler.util.TransactionId;
+import com.navercorp.pinpoint.common.server.bo.SpanBo;
+import com.navercorp.pinpoint.common.server.bo.SpanChunkBo;
+import com.navercorp.pinpoint.common.server.bo.grpc.GrpcSpan;
+import com.navercorp.pinpoint.common.server.bo.grpc.GrpcSpanSerializer;
+import com.navercorp.pinpoint.common.server.bo.serializer.RowKeyEncoder;
+import com.navercorp.pinpoint.common.server.bo.serializer.trace.v2.SpanChunkSerializerV2;
+import com.navercorp.pinpoint.common.server.bo.serializer.trace.v2.SpanSerializerV2;
+import com.navercorp.pinpoint.common.server.dao.local.CellRecordCodec;
+import com.navercorp.pinpoint.common.server.dao.local.SegmentStore;
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Objects;
+
+/**
+ * Writes the trace rows of {@link com.navercorp.pinpoint.collector.dao.hbase.HbaseTraceDaoV2} into a local {@link SegmentStore}.
+ */
+public class LocalTraceDao implements TraceDao {
+
+    private final Logger logger = LogManager.getLogger(this.getClass());
+
+    private final SegmentStore store;
+
+    private final SpanSerializerV2 spanSerializer;
+
+    private final SpanChunkSerializerV2 spanChunkSerializer;
+
+    private final GrpcSpanSerializer grpcSpanSerializer;
+
+    private final RowKeyEncoder<TransactionId> rowKeyEncoder;
+
+    public LocalTraceDao(SegmentStore store,
+                         RowKeyEncoder<TransactionId> rowKeyEncoder,
+                         SpanSerializerV2 spanSerializer,
+                         SpanChunkSerializerV2 spanChunkSerializer,
+                         GrpcSpanSerializer grpcSpanSerializer) {
+        this.store = Objects.requireNonNull(store, "store");
+        this.rowKeyEncoder = Objects.requireNonNull(rowKeyEncoder, "rowKeyEncoder");
+        this.spanSerializer = Objects.requireNonNull(spanSerializer, "spanSerializer");
+        this.spanChunkSerializer = Objects.requireNonNull(spanChunkSerializer, "spanChunkSerializer");
+        this.grpcSpanSerializer = Objects.requireNonNull(grpcSpanSerializer, "grpcSpanSerializer");
+    }
+
+    @Override
+    public boolean insert(SpanBo spanBo) {
+        Objects.requireNonNull(spanBo, "spanBo");
+        if (logger.isDebugEnabled()) {
+            logger.debug("insert trace: {}", spanBo);
+        }
+        checkSpan(spanBo);
+
+        final Put put = newPut(spanBo.getTransactionId(), spanBo.getCollectorAcceptTime());
+        this.spanSerializer.serialize(spanBo, put, null);
+        return write(put);
+    }
+
+    @Override
+    public boolean insert(GrpcSpan grpcSpan) {
+        Objects.requireNonNull(grpcSpan, "grpcSpan");
+        final SpanBo spanBo = grpcSpan.getSpanBo();
+        if (logger.isDebugEnabled()) {
+            logger.debug("insert trace: {}", spanBo);
+        }
+        checkSpan(spanBo);
+
+        final Put put = newPut(spanBo.getTransactionId(), spanBo.getCollectorAcceptTime());
+        this.grpcSpanSerializer.serialize(grpcSpan, put, null);
+        return write(put);
+    }
+
+    @Override
+    public void insertSpanChunk(SpanChunkBo spanChunkBo) {
+        Objects.requireNonNull(spanChunkBo, "spanChunkBo");
+        if (CollectionUtils.isEmpty(spanChunkBo.getSpanEventBoList())) {
+            return;
+        }
+
+        final Put put = newPut(spanChunkBo.getTransactionId(), spanChunkBo.getCollectorAcceptTime());
+        this.spanChunkSerializer.serialize(spanChunkBo, put, null);
+        if (!put.isEmpty()) {
+            write(put);
+        }
+    }
+
+    private void checkSpan(SpanBo spanBo) {
+        // Assert agentId
+        CollectorUtils.checkAgentId(spanBo.getAgentId());
+        // Assert applicationName
+        CollectorUtils.checkApplicationName(spanBo.getApplicationId());
+    }
+
+    private Put newPut(TransactionId transactionId, long acceptedTime) {
+        final byte[] rowKey = this.rowKeyEncoder.encodeRowKey(transactionId);
+        return new Put(rowKey, acceptedTime);
+    }
+
+    private boolean write(Put put) {
+        return store.append(put.getRow(), put.getTimestamp(), CellRecordCodec.encode(put));
+    }
+}
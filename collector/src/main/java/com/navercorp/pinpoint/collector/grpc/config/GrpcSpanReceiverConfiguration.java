@@ -18,6 +18,7 @@ package com.navercorp.pinpoint.collector.grpc.config;
 
 import com.navercorp.pinpoint.collector.config.ExecutorProperties;
 import com.navercorp.pinpoint.collector.receiver.BindAddress;
+import com.navercorp.pinpoint.collector.receiver.pipeline.IngestPipelineProperties;
 import com.navercorp.pinpoint.grpc.server.ServerOption;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
@@ -41,6 +42,8 @@ public class GrpcSpanReceiverConfiguration {
 
     public static final String STREAM = "collector.receiver.grpc.span.stream";
 
+    public static final String PIPELINE = "collector.receiver.grpc.span.pipeline";
+
     public static final String SERVER_OPTION = "collector.receiver.grpc.span";
 
     public GrpcSpanReceiverConfiguration() {
@@ -78,6 +81,17 @@ public class GrpcSpanReceiverConfiguration {
         return GrpcStreamProperties.newBuilder();
     }
 
+    @Bean(PIPELINE)
+    @ConfigurationProperties(PIPELINE)
+    public IngestPipelineProperties.Builder newPipelineBuilder() {
+        return IngestPipelineProperties.newBuilder();
+    }
+
+    @Bean
+    public IngestPipelineProperties grpcSpanPipelineProperties() {
+        return newPipelineBuilder().build();
+    }
+
     @Bean(SERVER_OPTION)
     @ConfigurationProperties(SERVER_OPTION)
     public GrpcPropertiesServerOptionBuilder newServerOption() {
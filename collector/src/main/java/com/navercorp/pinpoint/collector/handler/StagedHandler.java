@@ -0,0 +1,40 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.collector.handler;
+
+import com.navercorp.pinpoint.io.request.ServerRequest;
+
+/**
+ * {@link SimpleHandler} split into the decode, store and statistics steps of the staged ingest pipeline.
+ * {@link #handleSimple(ServerRequest)} runs all steps in the calling thread.
+ */
+public interface StagedHandler<REQ, T> extends SimpleHandler<REQ> {
+
+    /**
+     * @return bound data, {@code null} if there is nothing to store
+     */
+    T decode(ServerRequest<REQ> serverRequest);
+
+    /**
+     * Writes the data with every trace service. A failing service does not stop the others.
+     * @return whether the data was written successfully, one flag per trace service
+     */
+    boolean[] store(T data);
+
+    void updateStatistics(T data, boolean[] stored);
+}
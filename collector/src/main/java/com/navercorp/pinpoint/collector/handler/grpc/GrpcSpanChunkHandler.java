@@ -2,7 +2,8 @@
 package com.navercorp.pinpoint.collector.handler.grpc;
 
 import com.google.protobuf.GeneratedMessageV3;
-import com.navercorp.pinpoint.collector.handler.SimpleHandler;
+import com.navercorp.pinpoint.collector.handler.StagedHandler;
+import com.navercorp.pinpoint.collector.monitor.IngestMetrics;
 import com.navercorp.pinpoint.collector.service.TraceService;
 import com.navercorp.pinpoint.common.server.bo.SpanChunkBo;
 import com.navercorp.pinpoint.common.server.bo.grpc.BindAttribute;
@@ -29,7 +30,7 @@ import java.util.Objects;
  * @author emeroad
  */
 @Service
-public class GrpcSpanChunkHandler implements SimpleHandler<GeneratedMessageV3> {
+public class GrpcSpanChunkHandler implements StagedHandler<GeneratedMessageV3, SpanChunkBo> {
 
     private final Logger logger = LogManager.getLogger(getClass());
     private final boolean isDebug = logger.isDebugEnabled();
@@ -40,40 +41,78 @@ public class GrpcSpanChunkHandler implements SimpleHandler<GeneratedMessageV3> {
 
     private final AcceptedTimeService acceptedTimeService;
 
-    public GrpcSpanChunkHandler(TraceService[] traceServices, GrpcSpanFactory spanFactory, AcceptedTimeService acceptedTimeService) {
+    private final IngestMetrics.StageTimer decodeTimer;
+
+    public GrpcSpanChunkHandler(TraceService[] traceServices, GrpcSpanFactory spanFactory, AcceptedTimeService acceptedTimeService,
+                                IngestMetrics ingestMetrics) {
         this.traceServices = Objects.requireNonNull(traceServices, "traceServices");
         this.spanFactory = Objects.requireNonNull(spanFactory, "spanFactory");
         this.acceptedTimeService = Objects.requireNonNull(acceptedTimeService, "acceptedTimeService");
+        this.decodeTimer = ingestMetrics.stageTimer(IngestMetrics.SPAN_CHUNK, IngestMetrics.DECODE);
 
         logger.info("TraceServices {}", Arrays.toString(traceServices));
     }
 
     @Override
     public void handleSimple(ServerRequest<GeneratedMessageV3> serverRequest) {
+        final SpanChunkBo spanChunkBo = decode(serverRequest);
+        for (TraceService traceService : traceServices) {
+            try {
+                traceService.insertSpanChunk(spanChunkBo);
+            } catch (Exception e) {
+                logger.warn("Failed to handle spanChunk={}", MessageFormatUtils.debugLog(serverRequest.getData()), e);
+            }
+        }
+    }
+
+    @Override
+    public SpanChunkBo decode(ServerRequest<GeneratedMessageV3> serverRequest) {
         final GeneratedMessageV3 data = serverRequest.getData();
         if (data instanceof PSpanChunk) {
-            handleSpanChunk((PSpanChunk) data);
+            return decodeSpanChunk((PSpanChunk) data);
         } else {
             logger.warn("Invalid request type. serverRequest={}", serverRequest);
             throw Status.INTERNAL.withDescription("Bad Request(invalid request type)").asRuntimeException();
         }
     }
 
-
-    private void handleSpanChunk(PSpanChunk spanChunk) {
+    private SpanChunkBo decodeSpanChunk(PSpanChunk spanChunk) {
         if (isDebug) {
             logger.debug("Handle PSpanChunk={}", createSimpleSpanChunkLog(spanChunk));
         }
 
-
         final Header header = ServerContext.getAgentInfo();
         final BindAttribute attribute = BindAttribute.of(header, acceptedTimeService.getAcceptedTime());
-        final SpanChunkBo spanChunkBo = spanFactory.buildSpanChunkBo(spanChunk, attribute);
+        final long start = decodeTimer.start();
+        try {
+            return spanFactory.buildSpanChunkBo(spanChunk, attribute);
+        } finally {
+            decodeTimer.stop(start);
+        }
+    }
+
+    @Override
+    public boolean[] store(SpanChunkBo spanChunkBo) {
+        final boolean[] stored = new boolean[traceServices.length];
+        for (int i = 0; i < traceServices.length; i++) {
+            try {
+                traceServices[i].insertSpanChunkTrace(spanChunkBo);
+                // TODO should be able to tell whether the span chunk is successfully inserted
+                stored[i] = true;
+            } catch (Exception e) {
+                logger.warn("Failed to store spanChunk={}", spanChunkBo, e);
+            }
+        }
+        return stored;
+    }
+
+    @Override
+    public void updateStatistics(SpanChunkBo spanChunkBo, boolean[] stored) {
         for (TraceService traceService : traceServices) {
             try {
-                traceService.insertSpanChunk(spanChunkBo);
+                traceService.insertSpanChunkStat(spanChunkBo);
             } catch (Exception e) {
-                logger.warn("Failed to handle spanChunk={}", MessageFormatUtils.debugLog(spanChunk), e);
+                logger.warn("Failed to update spanChunk statistics={}", spanChunkBo, e);
             }
         }
     }
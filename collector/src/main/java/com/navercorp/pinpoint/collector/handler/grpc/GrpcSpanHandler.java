@@ -17,10 +17,13 @@
 package com.navercorp.pinpoint.collector.handler.grpc;
 
 import com.google.protobuf.GeneratedMessageV3;
-import com.navercorp.pinpoint.collector.handler.SimpleHandler;
+import com.navercorp.pinpoint.collector.config.CollectorProperties;
+import com.navercorp.pinpoint.collector.handler.StagedHandler;
+import com.navercorp.pinpoint.collector.monitor.IngestMetrics;
 import com.navercorp.pinpoint.collector.service.TraceService;
 import com.navercorp.pinpoint.common.server.bo.SpanBo;
 import com.navercorp.pinpoint.common.server.bo.grpc.BindAttribute;
+import com.navercorp.pinpoint.common.server.bo.grpc.GrpcSpan;
 import com.navercorp.pinpoint.common.server.bo.grpc.GrpcSpanFactory;
 import com.navercorp.pinpoint.common.server.util.AcceptedTimeService;
 import com.navercorp.pinpoint.common.util.CollectionUtils;
@@ -45,7 +48,7 @@ import java.util.Objects;
  * @author netspider
  */
 @Service
-public class GrpcSpanHandler implements SimpleHandler<GeneratedMessageV3> {
+public class GrpcSpanHandler implements StagedHandler<GeneratedMessageV3, Object> {
 
     private final Logger logger = LogManager.getLogger(getClass());
     private final boolean isDebug = logger.isDebugEnabled();
@@ -56,42 +59,107 @@ public class GrpcSpanHandler implements SimpleHandler<GeneratedMessageV3> {
 
     private final AcceptedTimeService acceptedTimeService;
 
-    public GrpcSpanHandler(TraceService[] traceServices, GrpcSpanFactory spanFactory, AcceptedTimeService acceptedTimeService) {
+    private final boolean directEncoding;
+
+    private final IngestMetrics.StageTimer decodeTimer;
+
+    public GrpcSpanHandler(TraceService[] traceServices, GrpcSpanFactory spanFactory, AcceptedTimeService acceptedTimeService,
+                           CollectorProperties collectorProperties, IngestMetrics ingestMetrics) {
         this.traceServices = Objects.requireNonNull(traceServices, "traceServices");
         this.spanFactory = Objects.requireNonNull(spanFactory, "spanFactory");
         this.acceptedTimeService = Objects.requireNonNull(acceptedTimeService, "acceptedTimeService");
+        this.directEncoding = collectorProperties.isSpanDirectEncodingEnable();
+        this.decodeTimer = ingestMetrics.stageTimer(IngestMetrics.SPAN, IngestMetrics.DECODE);
 
         logger.info("TraceServices {}", Arrays.toString(traceServices));
+        logger.info("directEncoding {}", directEncoding);
     }
 
     @Override
     public void handleSimple(ServerRequest<GeneratedMessageV3> serverRequest) {
+        final Object span = decode(serverRequest);
+        for (TraceService traceService : traceServices) {
+            try {
+                final boolean success = insertSpanTrace(traceService, span);
+                insertSpanIndexAndStat(traceService, span, success);
+            } catch (Throwable e) {
+                logger.warn("Failed to handle span={}", MessageFormatUtils.debugLog(serverRequest.getData()), e);
+            }
+        }
+    }
+
+    /**
+     * @return {@link GrpcSpan} if direct encoding is enabled, otherwise {@link SpanBo}
+     */
+    @Override
+    public Object decode(ServerRequest<GeneratedMessageV3> serverRequest) {
         final GeneratedMessageV3 data = serverRequest.getData();
         if (data instanceof PSpan) {
-            handleSpan((PSpan) data);
+            return decodeSpan((PSpan) data);
         } else {
             logger.warn("Invalid request type. serverRequest={}", serverRequest);
             throw Status.INTERNAL.withDescription("Bad Request(invalid request type)").asRuntimeException();
         }
     }
 
-    private void handleSpan(PSpan span) {
+    private Object decodeSpan(PSpan span) {
         if (isDebug) {
             logger.debug("Handle PSpan={}", createSimpleSpanLog(span));
         }
 
         final Header header = ServerContext.getAgentInfo();
         final BindAttribute attribute = BindAttribute.of(header, acceptedTimeService.getAcceptedTime());
-        final SpanBo spanBo = spanFactory.buildSpanBo(span, attribute);
-        for (TraceService traceService : traceServices) {
+        final long start = decodeTimer.start();
+        try {
+            if (directEncoding) {
+                return spanFactory.buildGrpcSpan(span, attribute);
+            }
+            return spanFactory.buildSpanBo(span, attribute);
+        } finally {
+            decodeTimer.stop(start);
+        }
+    }
+
+    @Override
+    public boolean[] store(Object span) {
+        final boolean[] stored = new boolean[traceServices.length];
+        for (int i = 0; i < traceServices.length; i++) {
+            try {
+                stored[i] = insertSpanTrace(traceServices[i], span);
+            } catch (Throwable e) {
+                logger.warn("Failed to store span={}", span, e);
+            }
+        }
+        return stored;
+    }
+
+    @Override
+    public void updateStatistics(Object span, boolean[] stored) {
+        for (int i = 0; i < traceServices.length; i++) {
             try {
-                traceService.insertSpan(spanBo);
+                insertSpanIndexAndStat(traceServices[i], span, stored[i]);
             } catch (Throwable e) {
-                logger.warn("Failed to handle span={}", MessageFormatUtils.debugLog(span), e);
+                logger.warn("Failed to update span statistics={}", span, e);
             }
         }
     }
 
+    private boolean insertSpanTrace(TraceService traceService, Object span) {
+        if (span instanceof GrpcSpan) {
+            return traceService.insertSpanTrace((GrpcSpan) span);
+        }
+        return traceService.insertSpanTrace((SpanBo) span);
+    }
+
+    private void insertSpanIndexAndStat(TraceService traceService, Object span, boolean success) {
+        if (span instanceof GrpcSpan) {
+            // span events of GrpcSpan have no annotation, statistics only use the other fields
+            traceService.insertSpanIndexAndStat(((GrpcSpan) span).getSpanBo(), success);
+            return;
+        }
+        traceService.insertSpanIndexAndStat((SpanBo) span, success);
+    }
+
     private String createSimpleSpanLog(PSpan span) {
         if (!isDebug) {
             return "";
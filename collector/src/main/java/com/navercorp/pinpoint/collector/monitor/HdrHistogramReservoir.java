@@ -0,0 +1,181 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.monitor;
+
+import com.codahale.metrics.Clock;
+import com.codahale.metrics.Reservoir;
+import com.codahale.metrics.Snapshot;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
+import org.HdrHistogram.Recorder;
+
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Reservoir} backed by an HdrHistogram {@link Recorder}.
+ * <p>
+ * {@link #update(long)} is a wait-free record into the active histogram, there is no sampling and no lock on the recording threads.
+ * A snapshot covers the values of the current window and the previous one, so it always holds at least one full window.
+ */
+public class HdrHistogramReservoir implements Reservoir {
+
+    private static final int SIGNIFICANT_VALUE_DIGITS = 2;
+
+    private final long highestTrackableValue;
+    private final long windowNanos;
+    private final Clock clock;
+
+    private final Recorder recorder;
+
+    private Histogram intervalHistogram;
+    private Histogram currentWindow;
+    private Histogram previousWindow;
+    private long windowStart;
+
+    public HdrHistogramReservoir(long highestTrackableValue, long window, TimeUnit windowUnit) {
+        this(highestTrackableValue, window, windowUnit, Clock.defaultClock());
+    }
+
+    HdrHistogramReservoir(long highestTrackableValue, long window, TimeUnit windowUnit, Clock clock) {
+        if (highestTrackableValue < 2) {
+            throw new IllegalArgumentException("highestTrackableValue must be >= 2");
+        }
+        if (window <= 0) {
+            throw new IllegalArgumentException("window must be > 0");
+        }
+        this.highestTrackableValue = highestTrackableValue;
+        this.windowNanos = windowUnit.toNanos(window);
+        this.clock = Objects.requireNonNull(clock, "clock");
+
+        this.recorder = new Recorder(highestTrackableValue, SIGNIFICANT_VALUE_DIGITS);
+        this.intervalHistogram = recorder.getIntervalHistogram();
+        this.currentWindow = new Histogram(highestTrackableValue, SIGNIFICANT_VALUE_DIGITS);
+        this.previousWindow = new Histogram(highestTrackableValue, SIGNIFICANT_VALUE_DIGITS);
+        this.windowStart = clock.getTick();
+    }
+
+    @Override
+    public int size() {
+        return getSnapshot().size();
+    }
+
+    @Override
+    public void update(long value) {
+        if (value < 0) {
+            return;
+        }
+        recorder.recordValue(Math.min(value, highestTrackableValue));
+    }
+
+    @Override
+    public synchronized Snapshot getSnapshot() {
+        this.intervalHistogram = recorder.getIntervalHistogram(intervalHistogram);
+
+        final long now = clock.getTick();
+        if (now - windowStart >= windowNanos) {
+            final Histogram expired = previousWindow;
+            expired.reset();
+            this.previousWindow = currentWindow;
+            this.currentWindow = expired;
+            this.windowStart = now;
+        }
+        currentWindow.add(intervalHistogram);
+
+        final Histogram histogram = previousWindow.copy();
+        histogram.add(currentWindow);
+        return new HdrSnapshot(histogram);
+    }
+
+    static class HdrSnapshot extends Snapshot {
+        private final Histogram histogram;
+
+        HdrSnapshot(Histogram histogram) {
+            this.histogram = Objects.requireNonNull(histogram, "histogram");
+        }
+
+        @Override
+        public double getValue(double quantile) {
+            if (quantile < 0.0 || quantile > 1.0 || Double.isNaN(quantile)) {
+                throw new IllegalArgumentException(quantile + " is not in [0..1]");
+            }
+            return histogram.getValueAtPercentile(quantile * 100.0);
+        }
+
+        /**
+         * @return one value per recorded bucket, the histogram does not keep the individual values
+         */
+        @Override
+        public long[] getValues() {
+            final long[] values = new long[size()];
+            int i = 0;
+            for (HistogramIterationValue value : histogram.recordedValues()) {
+                if (i == values.length) {
+                    break;
+                }
+                values[i++] = value.getValueIteratedTo();
+            }
+            return values;
+        }
+
+        @Override
+        public int size() {
+            int size = 0;
+            for (HistogramIterationValue ignored : histogram.recordedValues()) {
+                size++;
+            }
+            return size;
+        }
+
+        @Override
+        public long getMax() {
+            return histogram.getMaxValue();
+        }
+
+        @Override
+        public double getMean() {
+            return histogram.getTotalCount() == 0 ? 0 : histogram.getMean();
+        }
+
+        @Override
+        public long getMin() {
+            return histogram.getTotalCount() == 0 ? 0 : histogram.getMinValue();
+        }
+
+        @Override
+        public double getStdDev() {
+            return histogram.getTotalCount() == 0 ? 0 : histogram.getStdDeviation();
+        }
+
+        long getCount() {
+            return histogram.getTotalCount();
+        }
+
+        @Override
+        public void dump(OutputStream output) {
+            try (PrintWriter out = new PrintWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8))) {
+                for (HistogramIterationValue value : histogram.recordedValues()) {
+                    out.printf("%d %d%n", value.getValueIteratedTo(), value.getCountAtValueIteratedTo());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.monitor;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.navercorp.pinpoint.thrift.io.DefaultTBaseLocator;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of every stage of the collector ingest path, per message type.
+ * <p>
+ * Stage timers are named {@code collector.ingest.<messageType>.<stage>} and keep their durations in a {@link HdrHistogramReservoir}.
+ * Only 1 of every {@code sampleRate} calls is timed, so the timer count is a sample,
+ * the received messages are counted by the {@code collector.ingest.<messageType>.rate} meter.
+ */
+public class IngestMetrics {
+
+    public static final String PREFIX = "collector.ingest";
+
+    public static final String SPAN = "span";
+    public static final String SPAN_CHUNK = "spanChunk";
+
+    public static final String RECEIVE = "receive";
+    public static final String DECODE = "decode";
+    public static final String TRACE_PUT = "trace-put";
+    public static final String TRACE_INDEX = "trace-index";
+    public static final String STATISTICS = "statistics";
+    public static final String HOST_MAP = "host-map";
+    public static final String PUBLISH = "publish";
+
+    private static final long NOT_SAMPLED = Long.MIN_VALUE;
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final long WINDOW_MINUTES = 1;
+
+    private static final IngestMetrics DISABLED = new IngestMetrics(null, false, 1);
+
+    private final MetricRegistry registry;
+    private final boolean enable;
+    private final int sampleRate;
+
+    private final ConcurrentMap<Short, MessageMetrics> messageMetricsMap = new ConcurrentHashMap<>();
+
+    public IngestMetrics(MetricRegistry registry, boolean enable, int sampleRate) {
+        if (sampleRate < 1) {
+            throw new IllegalArgumentException("sampleRate must be >= 1");
+        }
+        this.registry = enable ? Objects.requireNonNull(registry, "registry") : null;
+        this.enable = enable;
+        this.sampleRate = sampleRate;
+    }
+
+    public static IngestMetrics disabled() {
+        return DISABLED;
+    }
+
+    public boolean isEnable() {
+        return enable;
+    }
+
+    public StageTimer stageTimer(String messageType, String stage) {
+        Objects.requireNonNull(messageType, "messageType");
+        Objects.requireNonNull(stage, "stage");
+        if (!enable) {
+            return StageTimer.DISABLED;
+        }
+        final String name = MetricRegistry.name(PREFIX, messageType, stage);
+        final Timer timer = registry.timer(name, () -> new Timer(new HdrHistogramReservoir(HIGHEST_TRACKABLE_NANOS, WINDOW_MINUTES, TimeUnit.MINUTES)));
+        return new StageTimer(timer, sampleRate);
+    }
+
+    /**
+     * @param type header type of the message, see {@link DefaultTBaseLocator}
+     */
+    public MessageMetrics messageMetrics(short type) {
+        if (!enable) {
+            return MessageMetrics.DISABLED;
+        }
+        final MessageMetrics messageMetrics = messageMetricsMap.get(type);
+        if (messageMetrics != null) {
+            return messageMetrics;
+        }
+        return messageMetricsMap.computeIfAbsent(type, this::newMessageMetrics);
+    }
+
+    private MessageMetrics newMessageMetrics(short type) {
+        final String messageType = messageTypeName(type);
+        final Meter rate = registry.meter(MetricRegistry.name(PREFIX, messageType, "rate"));
+        return new MessageMetrics(rate, stageTimer(messageType, RECEIVE));
+    }
+
+    static String messageTypeName(short type) {
+        switch (type) {
+            case DefaultTBaseLocator.SPAN:
+                return SPAN;
+            case DefaultTBaseLocator.SPANCHUNK:
+                return SPAN_CHUNK;
+            case DefaultTBaseLocator.AGENT_INFO:
+                return "agentInfo";
+            case DefaultTBaseLocator.AGENT_STAT:
+                return "agentStat";
+            case DefaultTBaseLocator.AGENT_STAT_BATCH:
+                return "agentStatBatch";
+            case DefaultTBaseLocator.AGENT_URI_STAT:
+                return "agentUriStat";
+            case DefaultTBaseLocator.SQLMETADATA:
+                return "sqlMetaData";
+            case DefaultTBaseLocator.APIMETADATA:
+                return "apiMetaData";
+            case DefaultTBaseLocator.STRINGMETADATA:
+                return "stringMetaData";
+            default:
+                return "type-" + type;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "IngestMetrics{" +
+                "enable=" + enable +
+                ", sampleRate=" + sampleRate +
+                '}';
+    }
+
+    /**
+     * Times the calls of one stage.
+     * <pre>
+     * final long start = timer.start();
+     * ...
+     * timer.stop(start);
+     * </pre>
+     */
+    public static class StageTimer {
+        private static final StageTimer DISABLED = new StageTimer(null, 1);
+
+        private final Timer timer;
+        private final int sampleRate;
+
+        private StageTimer(Timer timer, int sampleRate) {
+            this.timer = timer;
+            this.sampleRate = sampleRate;
+        }
+
+        public long start() {
+            if (timer == null) {
+                return NOT_SAMPLED;
+            }
+            if (sampleRate != 1 && ThreadLocalRandom.current().nextInt(sampleRate) != 0) {
+                return NOT_SAMPLED;
+            }
+            return System.nanoTime();
+        }
+
+        public void stop(long start) {
+            if (start == NOT_SAMPLED) {
+                return;
+            }
+            timer.update(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public static class MessageMetrics {
+        private static final MessageMetrics DISABLED = new MessageMetrics(null, StageTimer.DISABLED);
+
+        private final Meter rate;
+        private final StageTimer receive;
+
+        private MessageMetrics(Meter rate, StageTimer receive) {
+            this.rate = rate;
+            this.receive = Objects.requireNonNull(receive, "receive");
+        }
+
+        /**
+         * Counts the message and starts the receive timer.
+         */
+        public long receive() {
+            if (rate != null) {
+                rate.mark();
+            }
+            return receive.start();
+        }
+
+        public void received(long start) {
+            receive.stop(start);
+        }
+    }
+}
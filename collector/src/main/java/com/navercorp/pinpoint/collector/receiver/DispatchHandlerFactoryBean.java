@@ -17,6 +17,7 @@
 package com.navercorp.pinpoint.collector.receiver;
 
 import com.navercorp.pinpoint.collector.manage.HandlerManager;
+import com.navercorp.pinpoint.collector.monitor.IngestMetrics;
 import com.navercorp.pinpoint.collector.receiver.thrift.DelegateDispatchHandler;
 import com.navercorp.pinpoint.common.server.util.AcceptedTimeService;
 import org.springframework.beans.factory.FactoryBean;
@@ -35,6 +36,8 @@ public class DispatchHandlerFactoryBean<REQ, RES> implements FactoryBean<Dispatc
 
     private HandlerManager handlerManager;
 
+    private IngestMetrics ingestMetrics;
+
     public DispatchHandlerFactoryBean() {
 
     }
@@ -44,6 +47,11 @@ public class DispatchHandlerFactoryBean<REQ, RES> implements FactoryBean<Dispatc
         this.acceptedTimeService = Objects.requireNonNull(acceptedTimeService, "acceptedTimeService");
     }
 
+    @Autowired
+    public void setIngestMetrics(IngestMetrics ingestMetrics) {
+        this.ingestMetrics = Objects.requireNonNull(ingestMetrics, "ingestMetrics");
+    }
+
     public void setDispatchHandler(DispatchHandler<REQ, RES> dispatchHandler) {
         this.dispatchHandler = Objects.requireNonNull(dispatchHandler, "dispatchHandler");
     }
@@ -54,7 +62,7 @@ public class DispatchHandlerFactoryBean<REQ, RES> implements FactoryBean<Dispatc
 
     @Override
     public DispatchHandler<REQ, RES> getObject() throws Exception {
-        return new DelegateDispatchHandler<>(acceptedTimeService, dispatchHandler, handlerManager);
+        return new DelegateDispatchHandler<>(acceptedTimeService, dispatchHandler, handlerManager, ingestMetrics);
     }
 
     @Override
@@ -72,5 +80,6 @@ public class DispatchHandlerFactoryBean<REQ, RES> implements FactoryBean<Dispatc
         Objects.requireNonNull(acceptedTimeService, "acceptedTimeService");
         Objects.requireNonNull(dispatchHandler, "dispatchHandler");
         Objects.requireNonNull(handlerManager, "handlerManager");
+        Objects.requireNonNull(ingestMetrics, "ingestMetrics");
     }
 }
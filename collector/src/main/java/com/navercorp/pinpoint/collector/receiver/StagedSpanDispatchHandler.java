@@ -0,0 +1,211 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.collector.receiver;
+
+import com.codahale.metrics.MetricRegistry;
+import com.google.protobuf.GeneratedMessageV3;
+import com.navercorp.pinpoint.collector.handler.StagedHandler;
+import com.navercorp.pinpoint.collector.receiver.pipeline.IngestPipeline;
+import com.navercorp.pinpoint.collector.receiver.pipeline.IngestPipelineProperties;
+import com.navercorp.pinpoint.collector.receiver.pipeline.IngestStage;
+import com.navercorp.pinpoint.common.server.util.AcceptedTimeService;
+import com.navercorp.pinpoint.grpc.server.ServerContext;
+import com.navercorp.pinpoint.grpc.server.flowcontrol.StreamBackpressure;
+import com.navercorp.pinpoint.io.header.Header;
+import com.navercorp.pinpoint.io.request.ServerRequest;
+import com.navercorp.pinpoint.io.request.ServerResponse;
+import com.navercorp.pinpoint.thrift.io.DefaultTBaseLocator;
+import io.grpc.Context;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Dispatches spans and span chunks through the staged ingest pipeline (decode, store, statistics).
+ * <p>
+ * Requests are partitioned by agentId, so the spans of an agent are stored in the order they were received.
+ * A full pipeline rejects the request with {@link RejectedExecutionException} instead of blocking the caller.
+ * If the pipeline is disabled, requests are handled in the calling thread like {@link SpanDispatchHandler}.
+ */
+public class StagedSpanDispatchHandler implements DispatchHandler<GeneratedMessageV3, GeneratedMessageV3>, StreamBackpressure, AutoCloseable {
+
+    private static final String PIPELINE_NAME = "grpcSpanPipeline";
+
+    private final Logger logger = LogManager.getLogger(this.getClass());
+
+    private final StagedHandler<GeneratedMessageV3, ?> spanDataHandler;
+    private final StagedHandler<GeneratedMessageV3, ?> spanChunkHandler;
+    private final IngestPipelineProperties properties;
+    private final MetricRegistry registry;
+
+    private AcceptedTimeService acceptedTimeService;
+
+    private IngestPipeline<SpanTask<?>> pipeline;
+
+    public StagedSpanDispatchHandler(StagedHandler<GeneratedMessageV3, ?> spanDataHandler,
+                                     StagedHandler<GeneratedMessageV3, ?> spanChunkHandler,
+                                     IngestPipelineProperties properties,
+                                     MetricRegistry registry) {
+        this.spanDataHandler = Objects.requireNonNull(spanDataHandler, "spanDataHandler");
+        this.spanChunkHandler = Objects.requireNonNull(spanChunkHandler, "spanChunkHandler");
+        this.properties = Objects.requireNonNull(properties, "properties");
+        this.registry = Objects.requireNonNull(registry, "registry");
+    }
+
+    @Autowired
+    public void setAcceptedTimeService(AcceptedTimeService acceptedTimeService) {
+        this.acceptedTimeService = Objects.requireNonNull(acceptedTimeService, "acceptedTimeService");
+    }
+
+    @PostConstruct
+    public void afterPropertiesSet() {
+        Objects.requireNonNull(acceptedTimeService, "acceptedTimeService");
+
+        logger.info("{}", properties);
+        if (!properties.isEnable()) {
+            return;
+        }
+        final List<IngestStage<SpanTask<?>>> stages = List.of(
+                IngestStage.of("decode", SpanTask::decode),
+                IngestStage.of("store", SpanTask::store),
+                IngestStage.of("statistics", SpanTask::updateStatistics)
+        );
+        this.pipeline = new IngestPipeline<>(PIPELINE_NAME, stages, properties, registry);
+        this.pipeline.start();
+    }
+
+    private StagedHandler<GeneratedMessageV3, ?> getStagedHandler(Header header) {
+        final short type = header.getType();
+        switch (type) {
+            case DefaultTBaseLocator.SPAN:
+                return spanDataHandler;
+            case DefaultTBaseLocator.SPANCHUNK:
+                return spanChunkHandler;
+        }
+        throw new UnsupportedOperationException("unsupported header:" + header);
+    }
+
+    @Override
+    public void dispatchSendMessage(ServerRequest<GeneratedMessageV3> serverRequest) {
+        final StagedHandler<GeneratedMessageV3, ?> handler = getStagedHandler(serverRequest.getHeader());
+        final IngestPipeline<SpanTask<?>> pipeline = this.pipeline;
+        if (pipeline == null) {
+            handler.handleSimple(serverRequest);
+            return;
+        }
+
+        final com.navercorp.pinpoint.grpc.Header agentInfo = ServerContext.getAgentInfo();
+        final String agentId = agentInfo != null ? agentInfo.getAgentId() : null;
+        final SpanTask<?> task = new SpanTask<>(handler, serverRequest, Context.current(), acceptedTimeService.getAcceptedTime());
+        if (!pipeline.submit(agentId, task)) {
+            throw new RejectedExecutionException("span pipeline is full. agentId:" + agentId);
+        }
+    }
+
+    @Override
+    public void dispatchRequestMessage(ServerRequest<GeneratedMessageV3> serverRequest, ServerResponse<GeneratedMessageV3> serverResponse) {
+
+    }
+
+    @Override
+    public boolean isBackpressured(String agentId) {
+        final IngestPipeline<SpanTask<?>> pipeline = this.pipeline;
+        if (pipeline == null) {
+            return false;
+        }
+        return pipeline.isBackpressured(agentId);
+    }
+
+    @Override
+    public void close() {
+        final IngestPipeline<SpanTask<?>> pipeline = this.pipeline;
+        if (pipeline != null) {
+            pipeline.close();
+        }
+    }
+
+    /**
+     * Every stage runs with the gRPC context and the accepted time of the request,
+     * both are thread bound in the handlers and the daos.
+     */
+    private class SpanTask<T> {
+        private final StagedHandler<GeneratedMessageV3, T> handler;
+        private final ServerRequest<GeneratedMessageV3> serverRequest;
+        private final Context context;
+        private final long acceptedTime;
+
+        private T data;
+        private boolean[] stored;
+
+        @SuppressWarnings("unchecked")
+        private SpanTask(StagedHandler<GeneratedMessageV3, ?> handler, ServerRequest<GeneratedMessageV3> serverRequest,
+                         Context context, long acceptedTime) {
+            this.handler = (StagedHandler<GeneratedMessageV3, T>) handler;
+            this.serverRequest = serverRequest;
+            this.context = context;
+            this.acceptedTime = acceptedTime;
+        }
+
+        private boolean decode() {
+            final Context previous = attach();
+            try {
+                this.data = handler.decode(serverRequest);
+                return data != null;
+            } finally {
+                context.detach(previous);
+            }
+        }
+
+        private boolean store() {
+            final Context previous = attach();
+            try {
+                this.stored = handler.store(data);
+                return true;
+            } finally {
+                context.detach(previous);
+            }
+        }
+
+        private boolean updateStatistics() {
+            final Context previous = attach();
+            try {
+                handler.updateStatistics(data, stored);
+                return true;
+            } finally {
+                context.detach(previous);
+            }
+        }
+
+        private Context attach() {
+            acceptedTimeService.accept(acceptedTime);
+            return context.attach();
+        }
+
+        @Override
+        public String toString() {
+            return "SpanTask{" +
+                    "serverRequest=" + serverRequest +
+                    '}';
+        }
+    }
+}
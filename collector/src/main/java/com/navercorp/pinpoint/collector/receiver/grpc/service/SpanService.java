@@ -43,6 +43,7 @@ import org.apache.logging.log4j.Logger;
 
 import java.util.HashMap;
 import java.util.Objects;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * @author jaehong.kim
@@ -115,6 +116,9 @@ public class SpanService extends SpanGrpc.SpanImplBase {
         try {
             ServerRequest<GeneratedMessageV3> request = (ServerRequest<GeneratedMessageV3>) serverRequestFactory.newServerRequest(message);
             this.dispatchHandler.dispatchSendMessage(request);
+        } catch (RejectedExecutionException e) {
+            // ingest pipeline is full, handled by the stream flow control
+            throw e;
         } catch (Exception e) {
             logger.warn("Failed to request. message={}", message, e);
             if (e instanceof StatusException || e instanceof StatusRuntimeException) {
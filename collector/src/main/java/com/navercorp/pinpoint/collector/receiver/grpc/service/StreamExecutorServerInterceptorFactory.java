@@ -21,6 +21,7 @@ import com.navercorp.pinpoint.common.util.Assert;
 import com.navercorp.pinpoint.grpc.server.flowcontrol.IdleTimeoutFactory;
 import com.navercorp.pinpoint.grpc.server.flowcontrol.RejectedExecutionListenerFactory;
 import com.navercorp.pinpoint.grpc.server.flowcontrol.ScheduledExecutor;
+import com.navercorp.pinpoint.grpc.server.flowcontrol.StreamBackpressure;
 import com.navercorp.pinpoint.grpc.server.flowcontrol.StreamExecutorServerInterceptor;
 import io.grpc.ServerInterceptor;
 import org.springframework.beans.factory.BeanNameAware;
@@ -44,6 +45,7 @@ public class StreamExecutorServerInterceptorFactory implements FactoryBean<Serve
     private final int recoveryMessagesCount;
     private final long idleTimeout;
     private final long throttledLoggerRatio;
+    private StreamBackpressure backpressure = StreamBackpressure.NONE;
 
     public StreamExecutorServerInterceptorFactory(Executor executor,
                                                   ScheduledExecutorService scheduledExecutorService,
@@ -73,7 +75,7 @@ public class StreamExecutorServerInterceptorFactory implements FactoryBean<Serve
         RejectedExecutionListenerFactory listenerFactory = new RejectedExecutionListenerFactory(this.beanName, recoveryMessagesCount, idleTimeoutFactory);
 
         return new StreamExecutorServerInterceptor(this.beanName, this.executor, initRequestCount,
-                scheduledExecutor, listenerFactory, throttledLoggerRatio);
+                scheduledExecutor, listenerFactory, throttledLoggerRatio, backpressure);
     }
 
     @Override
@@ -86,6 +88,10 @@ public class StreamExecutorServerInterceptorFactory implements FactoryBean<Serve
         return false;
     }
 
+    public void setBackpressure(StreamBackpressure backpressure) {
+        this.backpressure = Objects.requireNonNull(backpressure, "backpressure");
+    }
+
     @Override
     public void setBeanName(String name) {
         this.beanName = name;
@@ -0,0 +1,277 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.collector.receiver.pipeline;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.navercorp.pinpoint.common.profiler.concurrent.PinpointThreadFactory;
+import com.navercorp.pinpoint.common.util.Assert;
+import com.navercorp.pinpoint.grpc.server.flowcontrol.StreamBackpressure;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Staged ingest pipeline.
+ * <p>
+ * Every stage owns one worker thread and one bounded queue per partition.
+ * A task keeps its partition through all stages, so tasks of the same partition key
+ * are processed in submission order.
+ * {@link #submit(String, Object)} never blocks, and {@link #isBackpressured(String)} reports
+ * a partition whose queues are filling up so that the sender can be throttled.
+ */
+public class IngestPipeline<T> implements StreamBackpressure, AutoCloseable {
+
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+    private static final long CLOSE_TIMEOUT_MILLIS = 3000;
+
+    private final Logger logger = LogManager.getLogger(this.getClass());
+
+    private final String name;
+    private final int backpressureThreshold;
+
+    private final List<StageMetrics> stageMetrics;
+    // [stage][partition]
+    private final Worker<T>[][] workers;
+
+    private final Meter accepted;
+    private final Meter rejected;
+    private final Meter backpressured;
+
+    private volatile boolean closed = false;
+
+    @SuppressWarnings("unchecked")
+    public IngestPipeline(String name, List<IngestStage<T>> stages, IngestPipelineProperties properties, MetricRegistry registry) {
+        this.name = Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(stages, "stages");
+        Objects.requireNonNull(properties, "properties");
+        Objects.requireNonNull(registry, "registry");
+        Assert.isTrue(!stages.isEmpty(), "stages must not be empty");
+        Assert.isTrue(properties.getPartitionSize() > 0, "partitionSize must be positive");
+        Assert.isTrue(properties.getQueueSize() > 0, "queueSize must be positive");
+        Assert.isTrue(properties.getBackpressureThreshold() <= properties.getQueueSize(), "backpressureThreshold must not be greater than queueSize");
+        this.backpressureThreshold = properties.getBackpressureThreshold();
+
+        this.accepted = registry.meter(MetricRegistry.name(name, "receive", "accepted"));
+        this.rejected = registry.meter(MetricRegistry.name(name, "receive", "rejected"));
+        this.backpressured = registry.meter(MetricRegistry.name(name, "receive", "backpressured"));
+
+        final int partitionSize = properties.getPartitionSize();
+        this.stageMetrics = new ArrayList<>(stages.size());
+        this.workers = new Worker[stages.size()][partitionSize];
+        for (int stageIndex = stages.size() - 1; stageIndex >= 0; stageIndex--) {
+            final IngestStage<T> stage = stages.get(stageIndex);
+            final StageMetrics metrics = new StageMetrics(registry, name, stage.getName());
+            final ThreadFactory threadFactory = PinpointThreadFactory.createThreadFactory(name + "-" + stage.getName(), true);
+            for (int partition = 0; partition < partitionSize; partition++) {
+                final Worker<T> next = stageIndex + 1 < stages.size() ? workers[stageIndex + 1][partition] : null;
+                final Worker<T> worker = new Worker<>(logger, name, stage, new LinkedBlockingQueue<>(properties.getQueueSize()), next, metrics);
+                worker.thread = threadFactory.newThread(worker);
+                workers[stageIndex][partition] = worker;
+            }
+            final Worker<T>[] stageWorkers = workers[stageIndex];
+            registry.register(MetricRegistry.name(name, stage.getName(), "queue"), (Gauge<Integer>) () -> queueSize(stageWorkers));
+            this.stageMetrics.add(0, metrics);
+        }
+    }
+
+    private static int queueSize(Worker<?>[] workers) {
+        int size = 0;
+        for (Worker<?> worker : workers) {
+            size += worker.queue.size();
+        }
+        return size;
+    }
+
+    public void start() {
+        logger.info("{} start. stages={} partitions={}", name, workers.length, workers[0].length);
+        for (Worker<T>[] stageWorkers : workers) {
+            for (Worker<T> worker : stageWorkers) {
+                worker.thread.start();
+            }
+        }
+    }
+
+    /**
+     * @return {@code false} if the first stage queue of the partition is full
+     */
+    public boolean submit(String partitionKey, T task) {
+        Objects.requireNonNull(task, "task");
+        if (closed) {
+            rejected.mark();
+            return false;
+        }
+        final Worker<T> first = workers[0][partition(partitionKey)];
+        if (first.queue.offer(task)) {
+            accepted.mark();
+            return true;
+        }
+        rejected.mark();
+        return false;
+    }
+
+    @Override
+    public boolean isBackpressured(String partitionKey) {
+        final int partition = partition(partitionKey);
+        for (Worker<T>[] stageWorkers : workers) {
+            if (stageWorkers[partition].queue.size() >= backpressureThreshold) {
+                backpressured.mark();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int partition(String partitionKey) {
+        if (partitionKey == null) {
+            return 0;
+        }
+        return Math.floorMod(partitionKey.hashCode(), workers[0].length);
+    }
+
+    StageMetrics getStageMetrics(int stageIndex) {
+        return stageMetrics.get(stageIndex);
+    }
+
+    /**
+     * Stops accepting tasks and drains the stages in order.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        logger.info("{} close", name);
+        for (Worker<T>[] stageWorkers : workers) {
+            for (Worker<T> worker : stageWorkers) {
+                worker.finish = true;
+            }
+            for (Worker<T> worker : stageWorkers) {
+                try {
+                    worker.thread.join(CLOSE_TIMEOUT_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (worker.thread.isAlive()) {
+                    logger.warn("{} worker did not finish. thread={} remaining={}", name, worker.thread.getName(), worker.queue.size());
+                    worker.thread.interrupt();
+                }
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "IngestPipeline{" +
+                "name='" + name + '\'' +
+                ", stages=" + workers.length +
+                ", partitions=" + workers[0].length +
+                ", backpressureThreshold=" + backpressureThreshold +
+                '}';
+    }
+
+    static class StageMetrics {
+        private final Timer latency;
+        private final Meter dropped;
+        private final Meter failed;
+
+        StageMetrics(MetricRegistry registry, String name, String stage) {
+            this.latency = registry.timer(MetricRegistry.name(name, stage, "latency"));
+            this.dropped = registry.meter(MetricRegistry.name(name, stage, "dropped"));
+            this.failed = registry.meter(MetricRegistry.name(name, stage, "failed"));
+        }
+
+        long getProcessedCount() {
+            return latency.getCount();
+        }
+
+        long getDroppedCount() {
+            return dropped.getCount();
+        }
+
+        long getFailedCount() {
+            return failed.getCount();
+        }
+    }
+
+    private static class Worker<E> implements Runnable {
+        private final Logger logger;
+        private final String name;
+        private final IngestStage<E> stage;
+        private final BlockingQueue<E> queue;
+        private final Worker<E> next;
+        private final StageMetrics metrics;
+
+        private Thread thread;
+        private volatile boolean finish = false;
+
+        private Worker(Logger logger, String name, IngestStage<E> stage, BlockingQueue<E> queue, Worker<E> next, StageMetrics metrics) {
+            this.logger = logger;
+            this.name = name;
+            this.stage = stage;
+            this.queue = queue;
+            this.next = next;
+            this.metrics = metrics;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!(finish && queue.isEmpty())) {
+                    final E task = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                    if (task == null) {
+                        continue;
+                    }
+                    if (process(task) && next != null) {
+                        // blocks this stage only, the receiver is throttled by isBackpressured()
+                        next.queue.put(task);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private boolean process(E task) {
+            final Timer.Context time = metrics.latency.time();
+            try {
+                if (stage.process(task)) {
+                    return true;
+                }
+                metrics.dropped.mark();
+                return false;
+            } catch (Throwable th) {
+                metrics.failed.mark();
+                logger.warn("{} {} stage failed. task={}", name, stage.getName(), task, th);
+                return false;
+            } finally {
+                time.stop();
+            }
+        }
+    }
+}
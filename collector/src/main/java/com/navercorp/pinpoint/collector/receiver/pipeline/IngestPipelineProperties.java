@@ -0,0 +1,105 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.collector.receiver.pipeline;
+
+public class IngestPipelineProperties {
+    private final boolean enable;
+    private final int partitionSize;
+    private final int queueSize;
+    private final int backpressureThreshold;
+
+    IngestPipelineProperties(boolean enable, int partitionSize, int queueSize, int backpressureThreshold) {
+        this.enable = enable;
+        this.partitionSize = partitionSize;
+        this.queueSize = queueSize;
+        this.backpressureThreshold = backpressureThreshold;
+    }
+
+    public boolean isEnable() {
+        return enable;
+    }
+
+    public int getPartitionSize() {
+        return partitionSize;
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    public int getBackpressureThreshold() {
+        return backpressureThreshold;
+    }
+
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private boolean enable = false;
+        private int partitionSize = 4;
+        private int queueSize = 1024;
+        private int backpressureThreshold = 768;
+
+        public boolean isEnable() {
+            return enable;
+        }
+
+        public void setEnable(boolean enable) {
+            this.enable = enable;
+        }
+
+        public int getPartitionSize() {
+            return partitionSize;
+        }
+
+        public void setPartitionSize(int partitionSize) {
+            this.partitionSize = partitionSize;
+        }
+
+        public int getQueueSize() {
+            return queueSize;
+        }
+
+        public void setQueueSize(int queueSize) {
+            this.queueSize = queueSize;
+        }
+
+        public int getBackpressureThreshold() {
+            return backpressureThreshold;
+        }
+
+        public void setBackpressureThreshold(int backpressureThreshold) {
+            this.backpressureThreshold = backpressureThreshold;
+        }
+
+        public IngestPipelineProperties build() {
+            return new IngestPipelineProperties(this.enable, this.partitionSize, this.queueSize, this.backpressureThreshold);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "IngestPipelineProperties{" +
+                "enable=" + enable +
+                ", partitionSize=" + partitionSize +
+                ", queueSize=" + queueSize +
+                ", backpressureThreshold=" + backpressureThreshold +
+                '}';
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.collector.receiver.pipeline;
+
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * A stage of {@link IngestPipeline}.
+ * Tasks of the same partition are processed by a single thread in submission order.
+ */
+public interface IngestStage<T> {
+
+    String getName();
+
+    /**
+     * @return {@code false} to drop the task from the following stages
+     */
+    boolean process(T task);
+
+    static <T> IngestStage<T> of(String name, Predicate<T> processor) {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(processor, "processor");
+        return new IngestStage<T>() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public boolean process(T task) {
+                return processor.test(task);
+            }
+
+            @Override
+            public String toString() {
+                return name;
+            }
+        };
+    }
+}
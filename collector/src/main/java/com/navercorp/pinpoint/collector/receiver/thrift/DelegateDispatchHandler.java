@@ -17,8 +17,10 @@
 package com.navercorp.pinpoint.collector.receiver.thrift;
 
 import com.navercorp.pinpoint.collector.manage.HandlerManager;
+import com.navercorp.pinpoint.collector.monitor.IngestMetrics;
 import com.navercorp.pinpoint.collector.receiver.DispatchHandler;
 import com.navercorp.pinpoint.common.server.util.AcceptedTimeService;
+import com.navercorp.pinpoint.io.header.Header;
 import com.navercorp.pinpoint.io.request.ServerRequest;
 import com.navercorp.pinpoint.io.request.ServerResponse;
 import org.apache.logging.log4j.LogManager;
@@ -37,10 +39,14 @@ public class DelegateDispatchHandler<REQ, RES> implements DispatchHandler<REQ, R
 
     private final HandlerManager handlerManager;
 
-    public DelegateDispatchHandler(AcceptedTimeService acceptedTimeService, DispatchHandler<REQ, RES> delegate, HandlerManager handlerManager) {
+    private final IngestMetrics ingestMetrics;
+
+    public DelegateDispatchHandler(AcceptedTimeService acceptedTimeService, DispatchHandler<REQ, RES> delegate, HandlerManager handlerManager,
+                                   IngestMetrics ingestMetrics) {
         this.acceptedTimeService = Objects.requireNonNull(acceptedTimeService, "acceptedTimeService");
         this.delegate = Objects.requireNonNull(delegate, "delegate");
         this.handlerManager = Objects.requireNonNull(handlerManager, "handlerManager");
+        this.ingestMetrics = Objects.requireNonNull(ingestMetrics, "ingestMetrics");
     }
 
 
@@ -53,7 +59,13 @@ public class DelegateDispatchHandler<REQ, RES> implements DispatchHandler<REQ, R
             return;
         }
 
-        this.delegate.dispatchSendMessage(serverRequest);
+        final IngestMetrics.MessageMetrics messageMetrics = messageMetrics(serverRequest);
+        final long start = messageMetrics.receive();
+        try {
+            this.delegate.dispatchSendMessage(serverRequest);
+        } finally {
+            messageMetrics.received(start);
+        }
     }
 
 
@@ -67,8 +79,21 @@ public class DelegateDispatchHandler<REQ, RES> implements DispatchHandler<REQ, R
             return;
         }
 
-        delegate.dispatchRequestMessage(serverRequest, serverResponse);
+        final IngestMetrics.MessageMetrics messageMetrics = messageMetrics(serverRequest);
+        final long start = messageMetrics.receive();
+        try {
+            delegate.dispatchRequestMessage(serverRequest, serverResponse);
+        } finally {
+            messageMetrics.received(start);
+        }
+    }
 
+    private IngestMetrics.MessageMetrics messageMetrics(ServerRequest<REQ> serverRequest) {
+        final Header header = serverRequest.getHeader();
+        if (header == null) {
+            return IngestMetrics.disabled().messageMetrics((short) 0);
+        }
+        return ingestMetrics.messageMetrics(header.getType());
     }
 
 
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.sender;
+
+import com.navercorp.pinpoint.rpc.client.PinpointClientFactory;
+import com.navercorp.pinpoint.thrift.io.FlinkBatchFrameEncoder;
+import com.navercorp.pinpoint.thrift.io.TBaseSerializer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Packs the serialized messages into {@link com.navercorp.pinpoint.thrift.io.FlinkBatchFrame}s.
+ * <p>
+ * The first message of a batch enqueues a flush marker behind the messages already waiting,
+ * so a batch grows while the queue is backed up and is sent right away when it is not.
+ * Messages are only touched on the executor thread.
+ */
+public class FlinkBatchTcpDataSender extends FlinkTcpDataSender {
+
+    private static final Object FLUSH = new Object();
+
+    private final Logger logger = LogManager.getLogger(this.getClass());
+
+    private final int maxBatchSize;
+    private final FlinkBatchFrameEncoder encoder;
+
+    public FlinkBatchTcpDataSender(String name, String host, int port, PinpointClientFactory clientFactory, TBaseSerializer serializer,
+                                   FlinkRequestFactory flinkRequestFactory, int maxBatchSize, boolean compress) {
+        super(name, host, port, clientFactory, serializer, flinkRequestFactory);
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("maxBatchSize must be positive");
+        }
+        this.maxBatchSize = maxBatchSize;
+        this.encoder = new FlinkBatchFrameEncoder(compress);
+    }
+
+    @Override
+    protected void sendPacket(Object request) {
+        if (request == FLUSH) {
+            flush();
+            return;
+        }
+        super.sendPacket(request);
+    }
+
+    @Override
+    protected void doSend(byte[] message) {
+        final boolean flushScheduled = !encoder.isEmpty() || executor.execute(FLUSH);
+        encoder.append(message);
+        if (!flushScheduled || encoder.size() >= maxBatchSize) {
+            flush();
+        }
+    }
+
+    private void flush() {
+        if (encoder.isEmpty()) {
+            return;
+        }
+        final byte[] frame;
+        try {
+            frame = encoder.encode();
+        } catch (Exception e) {
+            logger.warn("batch encode fail. Caused:{}", e.getMessage(), e);
+            encoder.reset();
+            return;
+        }
+        super.doSend(frame);
+    }
+
+    @Override
+    public void stop() {
+        super.stop();
+        encoder.close();
+    }
+}
@@ -19,10 +19,12 @@ package com.navercorp.pinpoint.collector.service;
 import com.navercorp.pinpoint.collector.dao.ApplicationTraceIndexDao;
 import com.navercorp.pinpoint.collector.dao.HostApplicationMapDao;
 import com.navercorp.pinpoint.collector.dao.TraceDao;
+import com.navercorp.pinpoint.collector.monitor.IngestMetrics;
 import com.navercorp.pinpoint.common.profiler.logging.ThrottledLogger;
 import com.navercorp.pinpoint.common.server.bo.SpanBo;
 import com.navercorp.pinpoint.common.server.bo.SpanChunkBo;
 import com.navercorp.pinpoint.common.server.bo.SpanEventBo;
+import com.navercorp.pinpoint.common.server.bo.grpc.GrpcSpan;
 import com.navercorp.pinpoint.common.trace.ServiceType;
 import com.navercorp.pinpoint.common.trace.ServiceTypeCategory;
 import com.navercorp.pinpoint.loader.service.ServiceTypeRegistryService;
@@ -55,32 +57,78 @@ public class HbaseTraceService implements TraceService {
 
     private final SpanEventPublisherService publisher;
 
+    private final IngestMetrics.StageTimer spanTracePutTimer;
+    private final IngestMetrics.StageTimer spanTraceIndexTimer;
+    private final IngestMetrics.StageTimer spanHostMapTimer;
+    private final IngestMetrics.StageTimer spanStatisticsTimer;
+    private final IngestMetrics.StageTimer spanPublishTimer;
+
+    private final IngestMetrics.StageTimer spanChunkTracePutTimer;
+    private final IngestMetrics.StageTimer spanChunkStatisticsTimer;
+    private final IngestMetrics.StageTimer spanChunkPublishTimer;
+
     public HbaseTraceService(TraceDao traceDao,
                              ApplicationTraceIndexDao applicationTraceIndexDao,
                              HostApplicationMapDao hostApplicationMapDao,
                              StatisticsService statisticsService,
                              ServiceTypeRegistryService registry,
-                             SpanEventPublisherService spanEventPublisherService) {
+                             SpanEventPublisherService spanEventPublisherService,
+                             IngestMetrics ingestMetrics) {
         this.traceDao = Objects.requireNonNull(traceDao, "traceDao");
         this.applicationTraceIndexDao = Objects.requireNonNull(applicationTraceIndexDao, "applicationTraceIndexDao");
         this.hostApplicationMapDao = Objects.requireNonNull(hostApplicationMapDao, "hostApplicationMapDao");
         this.statisticsService = Objects.requireNonNull(statisticsService, "statisticsService");
         this.registry = Objects.requireNonNull(registry, "registry");
         this.publisher = Objects.requireNonNull(spanEventPublisherService, "spanEventPublisherService");
+
+        Objects.requireNonNull(ingestMetrics, "ingestMetrics");
+        this.spanTracePutTimer = ingestMetrics.stageTimer(IngestMetrics.SPAN, IngestMetrics.TRACE_PUT);
+        this.spanTraceIndexTimer = ingestMetrics.stageTimer(IngestMetrics.SPAN, IngestMetrics.TRACE_INDEX);
+        this.spanHostMapTimer = ingestMetrics.stageTimer(IngestMetrics.SPAN, IngestMetrics.HOST_MAP);
+        this.spanStatisticsTimer = ingestMetrics.stageTimer(IngestMetrics.SPAN, IngestMetrics.STATISTICS);
+        this.spanPublishTimer = ingestMetrics.stageTimer(IngestMetrics.SPAN, IngestMetrics.PUBLISH);
+        this.spanChunkTracePutTimer = ingestMetrics.stageTimer(IngestMetrics.SPAN_CHUNK, IngestMetrics.TRACE_PUT);
+        this.spanChunkStatisticsTimer = ingestMetrics.stageTimer(IngestMetrics.SPAN_CHUNK, IngestMetrics.STATISTICS);
+        this.spanChunkPublishTimer = ingestMetrics.stageTimer(IngestMetrics.SPAN_CHUNK, IngestMetrics.PUBLISH);
     }
 
     @Override
     public void insertSpanChunk(@Valid final SpanChunkBo spanChunkBo) {
-        traceDao.insertSpanChunk(spanChunkBo);
+        insertSpanChunkTrace(spanChunkBo);
+        insertSpanChunkStat(spanChunkBo);
+    }
+
+    @Override
+    public void insertSpanChunkTrace(@Valid final SpanChunkBo spanChunkBo) {
+        final long start = spanChunkTracePutTimer.start();
+        try {
+            traceDao.insertSpanChunk(spanChunkBo);
+        } finally {
+            spanChunkTracePutTimer.stop(start);
+        }
+    }
+
+    @Override
+    public void insertSpanChunkStat(final SpanChunkBo spanChunkBo) {
         final ServiceType applicationServiceType = getApplicationServiceType(spanChunkBo);
         final List<SpanEventBo> spanEventList = spanChunkBo.getSpanEventBoList();
         if (spanEventList != null) {
-            // TODO need to batch update later.
-            insertSpanEventList(spanEventList, applicationServiceType, spanChunkBo.getApplicationId(), spanChunkBo.getAgentId(), spanChunkBo.getEndPoint());
+            final long start = spanChunkStatisticsTimer.start();
+            try {
+                // TODO need to batch update later.
+                insertSpanEventList(spanEventList, applicationServiceType, spanChunkBo.getApplicationId(), spanChunkBo.getAgentId(), spanChunkBo.getEndPoint());
+            } finally {
+                spanChunkStatisticsTimer.stop(start);
+            }
         }
 
-        // TODO should be able to tell whether the span chunk is successfully inserted
-        publisher.publishSpanChunkInsertion(spanChunkBo, true);
+        final long start = spanChunkPublishTimer.start();
+        try {
+            // TODO should be able to tell whether the span chunk is successfully inserted
+            publisher.publishSpanChunkInsertion(spanChunkBo, true);
+        } finally {
+            spanChunkPublishTimer.stop(start);
+        }
     }
 
     private ServiceType getApplicationServiceType(SpanChunkBo spanChunk) {
@@ -90,13 +138,67 @@ public class HbaseTraceService implements TraceService {
 
     @Override
     public void insertSpan(@Valid final SpanBo spanBo) {
-        boolean success = traceDao.insert(spanBo);
-        applicationTraceIndexDao.insert(spanBo);
-        insertAcceptorHost(spanBo);
-        insertSpanStat(spanBo);
-        insertSpanEventStat(spanBo);
+        boolean success = insertSpanTrace(spanBo);
+        insertSpanIndexAndStat(spanBo, success);
+    }
+
+    @Override
+    public void insertSpan(@Valid final GrpcSpan grpcSpan) {
+        boolean success = insertSpanTrace(grpcSpan);
+        // span events of GrpcSpan have no annotation, statistics only use the other fields
+        insertSpanIndexAndStat(grpcSpan.getSpanBo(), success);
+    }
 
-        publisher.publishSpanInsertion(spanBo, success);
+    @Override
+    public boolean insertSpanTrace(@Valid final SpanBo spanBo) {
+        final long start = spanTracePutTimer.start();
+        try {
+            return traceDao.insert(spanBo);
+        } finally {
+            spanTracePutTimer.stop(start);
+        }
+    }
+
+    @Override
+    public boolean insertSpanTrace(@Valid final GrpcSpan grpcSpan) {
+        final long start = spanTracePutTimer.start();
+        try {
+            return traceDao.insert(grpcSpan);
+        } finally {
+            spanTracePutTimer.stop(start);
+        }
+    }
+
+    @Override
+    public void insertSpanIndexAndStat(final SpanBo spanBo, boolean success) {
+        long start = spanTraceIndexTimer.start();
+        try {
+            applicationTraceIndexDao.insert(spanBo);
+        } finally {
+            spanTraceIndexTimer.stop(start);
+        }
+
+        start = spanHostMapTimer.start();
+        try {
+            insertAcceptorHost(spanBo);
+        } finally {
+            spanHostMapTimer.stop(start);
+        }
+
+        start = spanStatisticsTimer.start();
+        try {
+            insertSpanStat(spanBo);
+            insertSpanEventStat(spanBo);
+        } finally {
+            spanStatisticsTimer.stop(start);
+        }
+
+        start = spanPublishTimer.start();
+        try {
+            publisher.publishSpanInsertion(spanBo, success);
+        } finally {
+            spanPublishTimer.stop(start);
+        }
     }
 
     private void insertAcceptorHost(SpanEventBo spanEvent, String applicationId, ServiceType serviceType) {
@@ -2,6 +2,7 @@ package com.navercorp.pinpoint.collector.service;
 
 import com.navercorp.pinpoint.common.server.bo.SpanBo;
 import com.navercorp.pinpoint.common.server.bo.SpanChunkBo;
+import com.navercorp.pinpoint.common.server.bo.grpc.GrpcSpan;
 
 import javax.validation.Valid;
 
@@ -9,4 +10,18 @@ public interface TraceService {
     void insertSpanChunk(@Valid SpanChunkBo spanChunkBo);
 
     void insertSpan(@Valid SpanBo spanBo);
+
+    void insertSpan(@Valid GrpcSpan grpcSpan);
+
+    // staged insert : trace first, then index and statistics
+
+    void insertSpanChunkTrace(@Valid SpanChunkBo spanChunkBo);
+
+    void insertSpanChunkStat(SpanChunkBo spanChunkBo);
+
+    boolean insertSpanTrace(@Valid SpanBo spanBo);
+
+    boolean insertSpanTrace(@Valid GrpcSpan grpcSpan);
+
+    void insertSpanIndexAndStat(SpanBo spanBo, boolean success);
 }
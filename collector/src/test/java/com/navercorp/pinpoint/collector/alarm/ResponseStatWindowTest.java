@@ -0,0 +1,60 @@
+package com.navercorp.pinpoint.collector.alarm;
+
+import com.navercorp.pinpoint.common.trace.SlotType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ResponseStatWindowTest {
+
+    private static final long SLOT = 1000;
+
+    @Test
+    public void snapshot() {
+        ResponseStatWindow window = new ResponseStatWindow(3, SLOT);
+        window.add(0, SlotType.FAST);
+        window.add(100, SlotType.SLOW);
+        window.add(1100, SlotType.VERY_SLOW);
+        window.add(2100, SlotType.ERROR);
+
+        ResponseStatWindow.ResponseStat stat = window.snapshot(2500);
+        Assertions.assertEquals(4, stat.getTotalCount());
+        Assertions.assertEquals(2, stat.getSlowCount());
+        Assertions.assertEquals(1, stat.getErrorCount());
+        Assertions.assertEquals(50, stat.getSlowRate());
+        Assertions.assertEquals(25, stat.getErrorRate());
+    }
+
+    @Test
+    public void snapshot_slide() {
+        ResponseStatWindow window = new ResponseStatWindow(3, SLOT);
+        window.add(0, SlotType.SLOW);
+        window.add(1100, SlotType.FAST);
+
+        Assertions.assertEquals(2, window.snapshot(2000).getTotalCount());
+        Assertions.assertEquals(1, window.snapshot(3000).getTotalCount());
+        Assertions.assertEquals(0, window.snapshot(3000).getSlowCount());
+        Assertions.assertEquals(0, window.snapshot(5000).getTotalCount());
+    }
+
+    @Test
+    public void add_reuseSlot() {
+        ResponseStatWindow window = new ResponseStatWindow(3, SLOT);
+        window.add(0, SlotType.ERROR);
+        window.add(3000, SlotType.FAST);
+
+        ResponseStatWindow.ResponseStat stat = window.snapshot(3000);
+        Assertions.assertEquals(1, stat.getTotalCount());
+        Assertions.assertEquals(0, stat.getErrorCount());
+    }
+
+    @Test
+    public void add_expiredSlot() {
+        ResponseStatWindow window = new ResponseStatWindow(3, SLOT);
+        window.add(3000, SlotType.FAST);
+        window.add(0, SlotType.ERROR);
+
+        ResponseStatWindow.ResponseStat stat = window.snapshot(3000);
+        Assertions.assertEquals(1, stat.getTotalCount());
+        Assertions.assertEquals(0, stat.getErrorCount());
+    }
+}
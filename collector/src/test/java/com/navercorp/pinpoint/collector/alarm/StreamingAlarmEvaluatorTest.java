@@ -0,0 +1,71 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.alarm;
+
+import com.navercorp.pinpoint.common.server.bo.SpanBo;
+import com.navercorp.pinpoint.common.server.event.SpanInsertionEvent;
+import com.navercorp.pinpoint.common.trace.ServiceType;
+import com.navercorp.pinpoint.loader.service.ServiceTypeRegistryService;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.anyShort;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class StreamingAlarmEvaluatorTest {
+
+    private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+
+    @Test
+    public void windowByAcceptedTime() {
+        StreamingAlarmRule rule = new StreamingAlarmRule("appA", StreamingCheckerType.TOTAL_COUNT, 1);
+        StreamingAlarmListener listener = mock(StreamingAlarmListener.class);
+        ServiceTypeRegistryService registry = mock(ServiceTypeRegistryService.class);
+        when(registry.findServiceType(anyShort())).thenReturn(ServiceType.STAND_ALONE);
+        StreamingAlarmProperties properties = mock(StreamingAlarmProperties.class);
+        when(properties.getWindowMinutes()).thenReturn(5);
+
+        AtomicLong clock = new AtomicLong(100 * MINUTE);
+        StreamingAlarmEvaluator evaluator = new StreamingAlarmEvaluator(() -> List.of(rule), listener, registry, properties, clock::get);
+
+        // received 10 minutes ago, out of the window
+        evaluator.onSpanInsertion(new SpanInsertionEvent(newSpan(90 * MINUTE), true));
+        // received 2 minutes ago, inserted now
+        evaluator.onSpanInsertion(new SpanInsertionEvent(newSpan(98 * MINUTE), true));
+        evaluator.evaluate();
+        verify(listener).onResult(rule, true, 1);
+
+        // the window has moved past the span
+        clock.set(103 * MINUTE);
+        evaluator.evaluate();
+        verify(listener).onResult(rule, false, 0);
+    }
+
+    private SpanBo newSpan(long collectorAcceptTime) {
+        SpanBo spanBo = new SpanBo();
+        spanBo.setApplicationId("appA");
+        spanBo.setApplicationServiceType(ServiceType.STAND_ALONE.getCode());
+        spanBo.setElapsed(10);
+        spanBo.setCollectorAcceptTime(collectorAcceptTime);
+        return spanBo;
+    }
+}
@@ -0,0 +1,30 @@
+package com.navercorp.pinpoint.collector.alarm;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class StreamingAlarmRuleTest {
+
+    @Test
+    public void parseRules() {
+        List<StreamingAlarmRule> rules = StreamingAlarmRule.parseRules("appA:SLOW_RATE:10, appB:ERROR_COUNT:100");
+
+        Assertions.assertEquals(2, rules.size());
+        Assertions.assertEquals(new StreamingAlarmRule("appA", StreamingCheckerType.SLOW_RATE, 10), rules.get(0));
+        Assertions.assertEquals(new StreamingAlarmRule("appB", StreamingCheckerType.ERROR_COUNT, 100), rules.get(1));
+    }
+
+    @Test
+    public void parseRules_empty() {
+        Assertions.assertTrue(StreamingAlarmRule.parseRules("").isEmpty());
+        Assertions.assertTrue(StreamingAlarmRule.parseRules(null).isEmpty());
+    }
+
+    @Test
+    public void parseRules_invalid() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> StreamingAlarmRule.parseRules("appA:SLOW_RATE"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> StreamingAlarmRule.parseRules("appA:UNKNOWN:10"));
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.collector.cluster.zookeeper;
+
+import com.navercorp.pinpoint.common.server.cluster.ClusterKey;
+import com.navercorp.pinpoint.common.server.cluster.zookeeper.CreateNodeMessage;
+import com.navercorp.pinpoint.common.server.cluster.zookeeper.exception.PinpointZookeeperException;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ZookeeperJobWorkerTest {
+
+    private static final String PATH = "/pinpoint-cluster/collector/test";
+
+    @Test
+    public void coalesce() throws Exception {
+        CountingZookeeperClient client = new CountingZookeeperClient(false);
+        client.connect();
+
+        ZookeeperJobWorker<ClusterKey> worker = new ZookeeperJobWorker<>(client, PATH, 200);
+        worker.start();
+        try {
+            for (int i = 0; i < 1000; i++) {
+                worker.addPinpointServer(new ClusterKey("app", "agent" + i, i));
+            }
+            for (int i = 0; i < 1000; i += 2) {
+                worker.removePinpointServer(new ClusterKey("app", "agent" + i, i));
+            }
+
+            Awaitility.await()
+                    .atMost(Duration.ofSeconds(5))
+                    .untilAsserted(() -> assertThat(worker.getClusterList()).hasSize(500));
+            assertThat(client.writeCount.get()).isLessThan(5);
+            assertThat(worker.getClusterList()).isSorted();
+        } finally {
+            worker.stop();
+        }
+    }
+
+    @Test
+    public void clear() throws Exception {
+        CountingZookeeperClient client = new CountingZookeeperClient(false);
+        client.connect();
+
+        ZookeeperJobWorker<ClusterKey> worker = new ZookeeperJobWorker<>(client, PATH, 0);
+        worker.start();
+        try {
+            worker.addPinpointServer(new ClusterKey("app", "agent1", 1));
+            Awaitility.await()
+                    .atMost(Duration.ofSeconds(5))
+                    .untilAsserted(() -> assertThat(worker.getClusterList()).hasSize(1));
+
+            worker.clear();
+            worker.addPinpointServer(new ClusterKey("app", "agent2", 2));
+            Awaitility.await()
+                    .atMost(Duration.ofSeconds(5))
+                    .untilAsserted(() -> assertThat(worker.getClusterList()).containsExactly(new ClusterKey("app", "agent2", 2).toString()));
+        } finally {
+            worker.stop();
+        }
+    }
+
+    @Test
+    public void retry() throws Exception {
+        // every other write fails
+        CountingZookeeperClient client = new CountingZookeeperClient(true);
+        client.connect();
+
+        ZookeeperJobWorker<ClusterKey> worker = new ZookeeperJobWorker<>(client, PATH, 0);
+        worker.start();
+        try {
+            worker.addPinpointServer(new ClusterKey("app", "agent1", 1));
+            Awaitility.await()
+                    .atMost(Duration.ofSeconds(5))
+                    .untilAsserted(() -> assertThat(worker.getClusterList()).hasSize(1));
+        } finally {
+            worker.stop();
+        }
+    }
+
+    private static class CountingZookeeperClient extends InMemoryZookeeperClient {
+        private final AtomicInteger writeCount = new AtomicInteger();
+
+        CountingZookeeperClient(boolean throwException) {
+            super(throwException);
+        }
+
+        @Override
+        public synchronized void createOrSetNode(CreateNodeMessage createNodeMessage) throws PinpointZookeeperException {
+            super.createOrSetNode(createNodeMessage);
+            writeCount.incrementAndGet();
+        }
+    }
+}
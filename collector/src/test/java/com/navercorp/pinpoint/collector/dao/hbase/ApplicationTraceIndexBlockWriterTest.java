@@ -0,0 +1,133 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.dao.hbase;
+
+import com.navercorp.pinpoint.collector.config.ScatterProperties;
+import com.navercorp.pinpoint.common.hbase.HbaseColumnFamily;
+import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
+import com.navercorp.pinpoint.common.hbase.TableNameProvider;
+import com.navercorp.pinpoint.common.hbase.config.DistributorConfiguration;
+import com.navercorp.pinpoint.common.profiler.util.TransactionId;
+import com.navercorp.pinpoint.common.server.bo.SpanBo;
+import com.navercorp.pinpoint.common.server.scatter.ScatterBlock;
+import com.navercorp.pinpoint.common.server.scatter.ScatterBlockCodec;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.client.Put;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ApplicationTraceIndexBlockWriterTest {
+
+    private static final long BLOCK_TIME = 1_700_000_000_000L;
+
+    private static final HbaseColumnFamily.ApplicationTraceIndexTrace INDEX = HbaseColumnFamily.APPLICATION_TRACE_INDEX_TRACE;
+    private static final HbaseColumnFamily.ApplicationTraceIndexTrace META = HbaseColumnFamily.APPLICATION_TRACE_INDEX_META;
+
+    private HbaseOperations2 hbaseTemplate;
+    private ApplicationTraceIndexBlockWriter writer;
+
+    @BeforeEach
+    public void setUp() {
+        hbaseTemplate = mock(HbaseOperations2.class);
+        ScatterProperties scatterProperties = mock(ScatterProperties.class);
+        when(scatterProperties.getServerSideScan()).thenReturn(ScatterProperties.ServerSideScan.v1);
+        when(scatterProperties.getIndexFormat()).thenReturn(ScatterProperties.IndexFormat.block);
+        when(scatterProperties.getBlockMaxSize()).thenReturn(3);
+
+        ApplicationTraceIndexPutFactory putFactory = new ApplicationTraceIndexPutFactory(
+                new DistributorConfiguration().applicationTraceIndexDistributor(), scatterProperties);
+        writer = new ApplicationTraceIndexBlockWriter(hbaseTemplate, mock(TableNameProvider.class), putFactory, scatterProperties, () -> 0);
+    }
+
+    @Test
+    public void writeFullBlock() {
+        for (int i = 0; i < 3; i++) {
+            writer.write(newSpan(i), BLOCK_TIME + i);
+        }
+
+        ArgumentCaptor<Put> captor = ArgumentCaptor.forClass(Put.class);
+        verify(hbaseTemplate).asyncPut(any(), captor.capture());
+        Put put = captor.getValue();
+
+        Cell index = put.get(INDEX.getName(), qualifier(put)).get(0);
+        assertThat(index.getTimestamp()).isEqualTo(BLOCK_TIME + 2);
+        ScatterBlock block = ScatterBlockCodec.decodeIndex(index.getValueArray(), index.getValueOffset(), index.getValueLength());
+        assertThat(block.size()).isEqualTo(3);
+        assertThat(block.getTransactionId(2)).isEqualTo(new TransactionId("agent", 1, 2));
+
+        assertThat(put.get(META.getName(), qualifier(put))).hasSize(1);
+    }
+
+    @Test
+    public void flushClosedBlock() {
+        writer.write(newSpan(0), BLOCK_TIME);
+        writer.write(newSpan(1), BLOCK_TIME + 999);
+        writer.write(newSpan(2), BLOCK_TIME + 1000);
+
+        writer.flush(BLOCK_TIME + 999);
+        verify(hbaseTemplate, never()).asyncPut(any(), any(Put.class));
+        assertThat(writer.getPendingSize()).isEqualTo(2);
+
+        writer.flush(BLOCK_TIME + 1000);
+        verify(hbaseTemplate, times(1)).asyncPut(any(), any(Put.class));
+        assertThat(writer.getPendingSize()).isEqualTo(1);
+
+        writer.flush(Long.MAX_VALUE);
+        verify(hbaseTemplate, times(2)).asyncPut(any(), any(Put.class));
+        assertThat(writer.getPendingSize()).isZero();
+    }
+
+    @Test
+    public void uniqueQualifier() {
+        for (int i = 0; i < 6; i++) {
+            writer.write(newSpan(i), BLOCK_TIME);
+        }
+
+        ArgumentCaptor<Put> captor = ArgumentCaptor.forClass(Put.class);
+        verify(hbaseTemplate, times(2)).asyncPut(any(), captor.capture());
+        List<Put> puts = captor.getAllValues();
+        assertThat(puts.get(0).getRow()).isEqualTo(puts.get(1).getRow());
+        assertThat(qualifier(puts.get(0))).isNotEqualTo(qualifier(puts.get(1)));
+        assertThat(ScatterBlockCodec.isBlockQualifier(qualifier(puts.get(0)))).isTrue();
+    }
+
+    private byte[] qualifier(Put put) {
+        Cell cell = put.getFamilyCellMap().get(INDEX.getName()).get(0);
+        return CellUtil.cloneQualifier(cell);
+    }
+
+    private SpanBo newSpan(int sequence) {
+        SpanBo span = new SpanBo();
+        span.setApplicationId("application");
+        span.setAgentId("agent");
+        span.setTransactionId(new TransactionId("agent", 1, sequence));
+        span.setElapsed(sequence * 10);
+        return span;
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.dao.hbase;
+
+import com.navercorp.pinpoint.common.profiler.util.TransactionId;
+import com.navercorp.pinpoint.common.server.bo.LocalAsyncIdBo;
+import com.navercorp.pinpoint.common.server.bo.SpanChunkBo;
+import com.navercorp.pinpoint.common.server.bo.SpanEventBo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SpanChunkReassemblerTest {
+
+    private static final long MAX_DELAY = 1000;
+
+    private final List<SpanChunkBo> written = new ArrayList<>();
+    private final AtomicLong clock = new AtomicLong(1000);
+
+    private SpanChunkReassembler reassembler;
+
+    @BeforeEach
+    public void setUp() {
+        reassembler = new SpanChunkReassembler(MAX_DELAY, 50, 100, written::add, clock::get);
+    }
+
+    @Test
+    public void mergeSameSpan() {
+        reassembler.add(newSpanChunk(10, null, 20, 20));
+        reassembler.add(newSpanChunk(10, null, 0, 20));
+        reassembler.add(newSpanChunk(11, null, 0, 20));
+
+        assertThat(written).isEmpty();
+        assertThat(reassembler.getPendingSize()).isEqualTo(2);
+
+        clock.addAndGet(MAX_DELAY);
+        reassembler.flush(clock.get());
+
+        assertThat(written).hasSize(2);
+        SpanChunkBo merged = findBySpanId(10);
+        assertThat(merged.getSpanEventBoList()).hasSize(40);
+        assertThat(merged.getSpanEventBoList()).isSortedAccordingTo((e1, e2) -> Short.compare(e1.getSequence(), e2.getSequence()));
+        assertThat(merged.getCollectorAcceptTime()).isEqualTo(1000);
+        assertThat(reassembler.getPendingSize()).isZero();
+        assertThat(reassembler.getPendingEvents()).isZero();
+    }
+
+    @Test
+    public void asyncChunkIsNotMergedWithSyncChunk() {
+        reassembler.add(newSpanChunk(10, null, 0, 10));
+        reassembler.add(newSpanChunk(10, new LocalAsyncIdBo(1, 0), 0, 10));
+
+        assertThat(reassembler.getPendingSize()).isEqualTo(2);
+    }
+
+    @Test
+    public void writeWhenMaxEvents() {
+        reassembler.add(newSpanChunk(10, null, 0, 20));
+        reassembler.add(newSpanChunk(10, null, 20, 20));
+        assertThat(written).isEmpty();
+
+        reassembler.add(newSpanChunk(10, null, 40, 20));
+
+        assertThat(written).hasSize(1);
+        assertThat(written.get(0).getSpanEventBoList()).hasSize(60);
+        assertThat(reassembler.getPendingSize()).isZero();
+        assertThat(reassembler.getPendingEvents()).isZero();
+    }
+
+    @Test
+    public void bypassWhenMaxPendingEvents() {
+        for (int spanId = 0; spanId < 5; spanId++) {
+            reassembler.add(newSpanChunk(spanId, null, 0, 20));
+        }
+        assertThat(written).isEmpty();
+
+        SpanChunkBo overflow = newSpanChunk(5, null, 0, 20);
+        reassembler.add(overflow);
+
+        assertThat(written).containsExactly(overflow);
+        assertThat(reassembler.getPendingEvents()).isEqualTo(100);
+    }
+
+    @Test
+    public void keepUntilMaxDelay() {
+        reassembler.add(newSpanChunk(10, null, 0, 20));
+
+        reassembler.flush(clock.get() + MAX_DELAY - 1);
+        assertThat(written).isEmpty();
+
+        reassembler.flush(clock.get() + MAX_DELAY);
+        assertThat(written).hasSize(1);
+    }
+
+    private SpanChunkBo findBySpanId(long spanId) {
+        return written.stream()
+                .filter(spanChunkBo -> spanChunkBo.getSpanId() == spanId)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private SpanChunkBo newSpanChunk(long spanId, LocalAsyncIdBo localAsyncId, int firstSequence, int size) {
+        SpanChunkBo spanChunkBo = new SpanChunkBo();
+        spanChunkBo.setAgentId("agent");
+        spanChunkBo.setApplicationId("application");
+        spanChunkBo.setAgentStartTime(1);
+        spanChunkBo.setTransactionId(new TransactionId("agent", 1, 2));
+        spanChunkBo.setSpanId(spanId);
+        spanChunkBo.setLocalAsyncId(localAsyncId);
+        spanChunkBo.setKeyTime(900);
+        spanChunkBo.setCollectorAcceptTime(clock.get());
+
+        List<SpanEventBo> spanEvents = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            SpanEventBo spanEvent = new SpanEventBo();
+            spanEvent.setSequence((short) (firstSequence + i));
+            spanEvents.add(spanEvent);
+        }
+        spanChunkBo.addSpanEventBoList(spanEvents);
+        return spanChunkBo;
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.collector.dao.hbase.stat;
+
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.buffer.OffsetFixedBuffer;
+import com.navercorp.pinpoint.common.hbase.HbaseColumnFamily;
+import com.navercorp.pinpoint.common.hbase.distributor.RangeOneByteSimpleHash;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatDataPointCodec;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatDecoder;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatEncoder;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.v2.CpuLoadCodecV2;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatDecodingContext;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatHbaseOperationFactory;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatRowKeyDecoder;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatRowKeyEncoder;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatSerializer;
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatType;
+import com.navercorp.pinpoint.common.server.bo.stat.CpuLoadBo;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.AgentStatAggregate;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.AgentStatResolution;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.CpuLoadAccumulator;
+import com.sematext.hbase.wd.RowKeyDistributorByHashPrefix;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.client.Put;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class AgentStatRollupTest {
+
+    private static final String AGENT_ID = "agentId";
+    private static final long START_TIMESTAMP = 1000;
+    private static final long LATENESS = TimeUnit.SECONDS.toMillis(30);
+    private static final long BASE = TimeUnit.DAYS.toMillis(1);
+
+    private final CpuLoadCodecV2 codec = new CpuLoadCodecV2(new AgentStatDataPointCodec());
+    private final AgentStatDecoder<CpuLoadBo> decoder = new AgentStatDecoder<>(List.of(codec));
+    private final AgentStatHbaseOperationFactory operations = new AgentStatHbaseOperationFactory(
+            new AgentStatRowKeyEncoder(), new AgentStatRowKeyDecoder(),
+            new RowKeyDistributorByHashPrefix(new RangeOneByteSimpleHash(32, 40, 256)));
+
+    private final AtomicLong clock = new AtomicLong(BASE);
+    private AgentStatRollup<CpuLoadBo> rollup;
+
+    @BeforeEach
+    public void setUp() {
+        List<AgentStatResolution> resolutions = List.of(AgentStatResolution.ONE_MINUTE, AgentStatResolution.ONE_HOUR);
+        rollup = new AgentStatRollup<>(AgentStatType.CPU_LOAD, CpuLoadAccumulator::new,
+                new AgentStatSerializer<>(new AgentStatEncoder<>(codec)), resolutions, LATENESS, clock::get);
+    }
+
+    @Test
+    public void flush_closedTimeslot() {
+        rollup.add(AGENT_ID, List.of(newCpuLoad(BASE, 0.1), newCpuLoad(BASE + 5000, 0.3), newCpuLoad(BASE + 10000, 0.2)));
+
+        Assertions.assertTrue(rollup.flush(BASE + TimeUnit.MINUTES.toMillis(1), operations).isEmpty());
+
+        List<Put> puts = rollup.flush(BASE + TimeUnit.MINUTES.toMillis(1) + LATENESS, operations);
+        Assertions.assertEquals(1, puts.size());
+        Put put = puts.get(0);
+        Assertions.assertEquals(AgentStatType.CPU_LOAD, operations.getAgentStatType(put.getRow()));
+
+        List<CpuLoadBo> aggregates = decode(put);
+        Assertions.assertEquals(AgentStatAggregate.SIZE, aggregates.size());
+        Assertions.assertEquals(0.2, aggregates.get(AgentStatAggregate.AVG.ordinal()).getJvmCpuLoad(), 0.0001);
+        Assertions.assertEquals(0.1, aggregates.get(AgentStatAggregate.MIN.ordinal()).getJvmCpuLoad(), 0.0001);
+        Assertions.assertEquals(0.3, aggregates.get(AgentStatAggregate.MAX.ordinal()).getJvmCpuLoad(), 0.0001);
+        Assertions.assertEquals(0.6, aggregates.get(AgentStatAggregate.SUM.ordinal()).getJvmCpuLoad(), 0.0001);
+        for (CpuLoadBo aggregate : aggregates) {
+            Assertions.assertEquals(BASE, aggregate.getTimestamp());
+            Assertions.assertEquals(START_TIMESTAMP, aggregate.getStartTimestamp());
+            Assertions.assertEquals(AGENT_ID, aggregate.getAgentId());
+        }
+        // the one hour timeslot is still open
+        Assertions.assertEquals(1, rollup.size());
+    }
+
+    @Test
+    public void add_dropLateDataPoint() {
+        rollup.add(AGENT_ID, List.of(newCpuLoad(BASE, 0.1)));
+        clock.set(BASE + TimeUnit.MINUTES.toMillis(1) + LATENESS);
+        Assertions.assertEquals(1, rollup.flush(clock.get(), operations).size());
+
+        rollup.add(AGENT_ID, List.of(newCpuLoad(BASE + 5000, 0.5)));
+
+        List<Put> puts = rollup.flush(Long.MAX_VALUE, operations);
+        Assertions.assertEquals(1, puts.size(), "only the one hour timeslot");
+        List<CpuLoadBo> aggregates = decode(puts.get(0));
+        Assertions.assertEquals(0.5, aggregates.get(AgentStatAggregate.MAX.ordinal()).getJvmCpuLoad(), 0.0001);
+    }
+
+    @Test
+    public void add_restartedAgent() {
+        CpuLoadBo restarted = newCpuLoad(BASE + 5000, 0.5);
+        restarted.setStartTimestamp(START_TIMESTAMP + 1);
+        rollup.add(AGENT_ID, List.of(newCpuLoad(BASE, 0.1), restarted));
+
+        List<Put> puts = rollup.flush(BASE + TimeUnit.MINUTES.toMillis(1) + LATENESS, operations);
+        Assertions.assertEquals(1, puts.size());
+        List<CpuLoadBo> aggregates = decode(puts.get(0));
+        Assertions.assertEquals(AgentStatAggregate.SIZE * 2, aggregates.size());
+        Assertions.assertEquals(START_TIMESTAMP, aggregates.get(0).getStartTimestamp());
+        Assertions.assertEquals(START_TIMESTAMP + 1, aggregates.get(AgentStatAggregate.SIZE).getStartTimestamp());
+    }
+
+    private List<CpuLoadBo> decode(Put put) {
+        List<CpuLoadBo> result = new ArrayList<>();
+        for (Cell cell : put.getFamilyCellMap().get(HbaseColumnFamily.AGENT_STAT_STATISTICS.getName())) {
+            Buffer qualifierBuffer = new OffsetFixedBuffer(cell.getQualifierArray(), cell.getQualifierOffset(), cell.getQualifierLength());
+            Buffer valueBuffer = new OffsetFixedBuffer(cell.getValueArray(), cell.getValueOffset(), cell.getValueLength());
+
+            AgentStatDecodingContext decodingContext = new AgentStatDecodingContext();
+            decodingContext.setAgentId(operations.getAgentId(put.getRow()));
+            decodingContext.setBaseTimestamp(operations.getBaseTimestamp(put.getRow()));
+            decodingContext.setTimestampDelta(decoder.decodeQualifier(qualifierBuffer));
+            result.addAll(decoder.decodeValue(valueBuffer, decodingContext));
+        }
+        return result;
+    }
+
+    private CpuLoadBo newCpuLoad(long timestamp, double jvmCpuLoad) {
+        CpuLoadBo cpuLoadBo = new CpuLoadBo();
+        cpuLoadBo.setAgentId(AGENT_ID);
+        cpuLoadBo.setStartTimestamp(START_TIMESTAMP);
+        cpuLoadBo.setTimestamp(timestamp);
+        cpuLoadBo.setJvmCpuLoad(jvmCpuLoad);
+        cpuLoadBo.setSystemCpuLoad(0.5);
+        return cpuLoadBo;
+    }
+}
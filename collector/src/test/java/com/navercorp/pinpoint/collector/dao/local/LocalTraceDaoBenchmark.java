@@ -0,0 +1,240 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.collector.dao.local;
+
+import com.navercorp.pinpoint.collector.dao.hbase.HbaseTraceDaoV2;
+import com.navercorp.pinpoint.common.hbase.HbaseTableNameProvider;
+import com.navercorp.pinpoint.common.hbase.SimpleBatchWriter;
+import com.navercorp.pinpoint.common.hbase.distributor.RangeOneByteSimpleHash;
+import com.navercorp.pinpoint.common.profiler.util.TransactionId;
+import com.navercorp.pinpoint.common.server.bo.SpanBo;
+import com.navercorp.pinpoint.common.server.bo.SpanEventBo;
+import com.navercorp.pinpoint.common.server.bo.grpc.GrpcSpanEncoder;
+import com.navercorp.pinpoint.common.server.bo.grpc.GrpcSpanSerializer;
+import com.navercorp.pinpoint.common.server.bo.serializer.RowKeyEncoder;
+import com.navercorp.pinpoint.common.server.bo.serializer.trace.v2.SpanChunkSerializerV2;
+import com.navercorp.pinpoint.common.server.bo.serializer.trace.v2.SpanEncoderV0;
+import com.navercorp.pinpoint.common.server.bo.serializer.trace.v2.SpanSerializerV2;
+import com.navercorp.pinpoint.common.server.bo.serializer.trace.v2.TraceRowKeyEncoderV2;
+import com.navercorp.pinpoint.common.server.dao.local.CellRecordCodec;
+import com.navercorp.pinpoint.common.server.dao.local.SegmentStore;
+import com.navercorp.pinpoint.common.server.dao.local.SegmentStoreProperties;
+import com.sematext.hbase.wd.RowKeyDistributorByHashPrefix;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellComparator;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Compares the trace write and read throughput of {@link LocalTraceDao} with {@link HbaseTraceDaoV2}.
+ * <p>
+ * HBase is replaced by an in-memory stand-in that keeps the cells sorted by row like a memstore,
+ * so the numbers compare serialization plus storage without network and WAL cost.
+ * Run against a real HBase for end-to-end numbers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class LocalTraceDaoBenchmark {
+
+    @Param({"0", "20", "200"})
+    private int spanEventCount;
+
+    private final RowKeyEncoder<TransactionId> rowKeyEncoder = new TraceRowKeyEncoderV2(
+            new RowKeyDistributorByHashPrefix(new RangeOneByteSimpleHash(32, 40, 256)));
+
+    private final SpanEncoderV0 spanEncoder = new SpanEncoderV0();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private Path directory;
+    private SegmentStore store;
+    private LocalTraceDao localTraceDao;
+
+    private MemStoreWriter memStore;
+    private HbaseTraceDaoV2 hbaseTraceDao;
+
+    private final List<TransactionId> readTransactionIds = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        this.directory = Files.createTempDirectory("local-trace-benchmark");
+        SegmentStoreProperties.Builder builder = SegmentStoreProperties.newBuilder();
+        builder.setDirectory(directory.toString());
+        this.store = new SegmentStore("trace", builder.build());
+
+        SpanSerializerV2 spanSerializer = new SpanSerializerV2(spanEncoder);
+        SpanChunkSerializerV2 spanChunkSerializer = new SpanChunkSerializerV2(spanEncoder);
+        GrpcSpanSerializer grpcSpanSerializer = new GrpcSpanSerializer(new GrpcSpanEncoder(spanEncoder));
+
+        this.localTraceDao = new LocalTraceDao(store, rowKeyEncoder, spanSerializer, spanChunkSerializer, grpcSpanSerializer);
+
+        this.memStore = new MemStoreWriter();
+        this.hbaseTraceDao = new HbaseTraceDaoV2(memStore, new HbaseTableNameProvider("default"), rowKeyEncoder,
+                spanSerializer, spanChunkSerializer, grpcSpanSerializer);
+
+        for (int i = 0; i < 1000; i++) {
+            SpanBo spanBo = newSpanBo();
+            localTraceDao.insert(spanBo);
+            hbaseTraceDao.insert(spanBo);
+            readTransactionIds.add(spanBo.getTransactionId());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        store.close();
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private SpanBo newSpanBo() {
+        final long now = System.currentTimeMillis();
+        final TransactionId transactionId = new TransactionId("agentId", now - 10000, sequence.incrementAndGet());
+
+        SpanBo spanBo = new SpanBo();
+        spanBo.setTransactionId(transactionId);
+        spanBo.setVersion(1);
+        spanBo.setAgentId("agentId");
+        spanBo.setApplicationId("applicationName");
+        spanBo.setAgentStartTime(transactionId.getAgentStartTime());
+        spanBo.setSpanId(transactionId.getTransactionSequence());
+        spanBo.setParentSpanId(-1);
+        spanBo.setCollectorAcceptTime(now);
+        spanBo.setStartTime(now - 100);
+        spanBo.setElapsed(100);
+        spanBo.setServiceType((short) 1010);
+        spanBo.setApplicationServiceType((short) 1000);
+        spanBo.setRpc("/api/v1/orders");
+        spanBo.setEndPoint("localhost:8080");
+        spanBo.setRemoteAddr("127.0.0.1");
+        for (int i = 0; i < spanEventCount; i++) {
+            SpanEventBo event = new SpanEventBo();
+            event.setSequence((short) i);
+            event.setDepth(i % 4 + 1);
+            event.setStartElapsed(1);
+            event.setEndElapsed(2);
+            event.setServiceType((short) (i % 2 == 0 ? 5000 : 2101));
+            event.setApiId(i);
+            event.setDestinationId("orderdb");
+            event.setEndPoint("db.local:3306");
+            spanBo.addSpanEvent(event);
+        }
+        return spanBo;
+    }
+
+    private TransactionId nextReadTransactionId() {
+        final int index = (int) (sequence.incrementAndGet() % readTransactionIds.size());
+        return readTransactionIds.get(index);
+    }
+
+    @Benchmark
+    public boolean hbaseInsert() {
+        return hbaseTraceDao.insert(newSpanBo());
+    }
+
+    @Benchmark
+    public boolean localInsert() {
+        return localTraceDao.insert(newSpanBo());
+    }
+
+    @Benchmark
+    public Result hbaseGet() {
+        return memStore.get(rowKeyEncoder.encodeRowKey(nextReadTransactionId()));
+    }
+
+    @Benchmark
+    public Result localGet() {
+        return CellRecordCodec.toResult(store.get(rowKeyEncoder.encodeRowKey(nextReadTransactionId())));
+    }
+
+    /**
+     * Keeps the cells sorted by row, the way the region server memstore does.
+     */
+    private static class MemStoreWriter implements SimpleBatchWriter {
+        private final ConcurrentSkipListMap<byte[], List<Cell>> rows = new ConcurrentSkipListMap<>(Bytes.BYTES_COMPARATOR);
+
+        @Override
+        public boolean write(TableName tableName, Put mutation) {
+            final List<Cell> cells = rows.computeIfAbsent(mutation.getRow(), row -> new ArrayList<>());
+            synchronized (cells) {
+                for (List<Cell> familyCells : mutation.getFamilyCellMap().values()) {
+                    cells.addAll(familyCells);
+                }
+            }
+            return true;
+        }
+
+        Result get(byte[] row) {
+            final List<Cell> cells = rows.get(row);
+            if (cells == null) {
+                return Result.EMPTY_RESULT;
+            }
+            final List<Cell> copy;
+            synchronized (cells) {
+                copy = new ArrayList<>(cells);
+            }
+            copy.sort(CellComparator.getInstance());
+            return Result.create(copy);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(LocalTraceDaoBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.handler.grpc;
+
+import com.navercorp.pinpoint.collector.config.CollectorProperties;
+import com.navercorp.pinpoint.collector.monitor.IngestMetrics;
+import com.navercorp.pinpoint.collector.service.TraceService;
+import com.navercorp.pinpoint.common.server.bo.SpanBo;
+import com.navercorp.pinpoint.common.server.bo.grpc.GrpcSpanFactory;
+import com.navercorp.pinpoint.common.server.util.AcceptedTimeService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class GrpcSpanHandlerTest {
+
+    @Test
+    public void store_failingServiceDoesNotSkipOthers() {
+        TraceService failService = mock(TraceService.class);
+        TraceService service = mock(TraceService.class);
+        when(failService.insertSpanTrace(any(SpanBo.class))).thenThrow(new IllegalStateException("test"));
+        when(service.insertSpanTrace(any(SpanBo.class))).thenReturn(true);
+
+        GrpcSpanHandler handler = newHandler(failService, service);
+        SpanBo spanBo = new SpanBo();
+
+        boolean[] stored = handler.store(spanBo);
+        Assertions.assertArrayEquals(new boolean[]{false, true}, stored);
+        verify(service).insertSpanTrace(spanBo);
+
+        handler.updateStatistics(spanBo, stored);
+        verify(failService).insertSpanIndexAndStat(spanBo, false);
+        verify(service).insertSpanIndexAndStat(spanBo, true);
+    }
+
+    private GrpcSpanHandler newHandler(TraceService... traceServices) {
+        return new GrpcSpanHandler(traceServices, mock(GrpcSpanFactory.class), mock(AcceptedTimeService.class),
+                mock(CollectorProperties.class), IngestMetrics.disabled());
+    }
+}
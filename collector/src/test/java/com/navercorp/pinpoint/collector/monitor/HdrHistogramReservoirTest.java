@@ -0,0 +1,109 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.monitor;
+
+import com.codahale.metrics.Clock;
+import com.codahale.metrics.Snapshot;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class HdrHistogramReservoirTest {
+
+    private static class ManualClock extends Clock {
+        private long tick;
+
+        @Override
+        public long getTick() {
+            return tick;
+        }
+
+        void advance(long duration, TimeUnit unit) {
+            tick += unit.toNanos(duration);
+        }
+    }
+
+    @Test
+    public void snapshot() {
+        HdrHistogramReservoir reservoir = new HdrHistogramReservoir(100_000, 1, TimeUnit.MINUTES, new ManualClock());
+        for (int i = 1; i <= 1000; i++) {
+            reservoir.update(i);
+        }
+
+        Snapshot snapshot = reservoir.getSnapshot();
+        assertThat(snapshot.getMin()).isEqualTo(1);
+        assertThat(snapshot.getMax()).isCloseTo(1000, within(10L));
+        assertThat(snapshot.getMean()).isCloseTo(500.5, within(5.0));
+        assertThat(snapshot.getMedian()).isCloseTo(500, within(5.0));
+        assertThat(snapshot.get99thPercentile()).isCloseTo(990, within(10.0));
+        assertThat(((HdrHistogramReservoir.HdrSnapshot) snapshot).getCount()).isEqualTo(1000);
+    }
+
+    @Test
+    public void snapshot_keepsValuesBetweenSnapshots() {
+        HdrHistogramReservoir reservoir = new HdrHistogramReservoir(100_000, 1, TimeUnit.MINUTES, new ManualClock());
+        reservoir.update(10);
+        reservoir.getSnapshot();
+        reservoir.update(20);
+
+        Snapshot snapshot = reservoir.getSnapshot();
+        assertThat(snapshot.getMin()).isEqualTo(10);
+        assertThat(snapshot.getMax()).isEqualTo(20);
+    }
+
+    @Test
+    public void snapshot_window() {
+        ManualClock clock = new ManualClock();
+        HdrHistogramReservoir reservoir = new HdrHistogramReservoir(100_000, 1, TimeUnit.MINUTES, clock);
+        reservoir.update(10);
+        reservoir.getSnapshot();
+
+        clock.advance(1, TimeUnit.MINUTES);
+        reservoir.update(20);
+        // previous window is still included
+        assertThat(reservoir.getSnapshot().getMin()).isEqualTo(10);
+
+        clock.advance(1, TimeUnit.MINUTES);
+        reservoir.update(30);
+        Snapshot snapshot = reservoir.getSnapshot();
+        assertThat(snapshot.getMin()).isEqualTo(20);
+        assertThat(snapshot.getMax()).isEqualTo(30);
+    }
+
+    @Test
+    public void update_clampsOutOfRange() {
+        HdrHistogramReservoir reservoir = new HdrHistogramReservoir(1000, 1, TimeUnit.MINUTES, new ManualClock());
+        reservoir.update(-1);
+        reservoir.update(1_000_000);
+
+        Snapshot snapshot = reservoir.getSnapshot();
+        assertThat(snapshot.size()).isEqualTo(1);
+        assertThat(snapshot.getMax()).isCloseTo(1000, within(10L));
+    }
+
+    @Test
+    public void emptySnapshot() {
+        Snapshot snapshot = new HdrHistogramReservoir(1000, 1, TimeUnit.MINUTES).getSnapshot();
+        assertThat(snapshot.size()).isZero();
+        assertThat(snapshot.getValues()).isEmpty();
+        assertThat(snapshot.getMin()).isZero();
+        assertThat(snapshot.getMean()).isZero();
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.monitor;
+
+import com.codahale.metrics.MetricRegistry;
+import com.navercorp.pinpoint.thrift.io.DefaultTBaseLocator;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class IngestMetricsTest {
+
+    @Test
+    public void stageTimer() {
+        MetricRegistry registry = new MetricRegistry();
+        IngestMetrics ingestMetrics = new IngestMetrics(registry, true, 1);
+
+        IngestMetrics.StageTimer timer = ingestMetrics.stageTimer(IngestMetrics.SPAN, IngestMetrics.TRACE_PUT);
+        timer.stop(timer.start());
+        timer.stop(timer.start());
+
+        assertThat(registry.timer("collector.ingest.span.trace-put").getCount()).isEqualTo(2);
+        assertThat(ingestMetrics.stageTimer(IngestMetrics.SPAN, IngestMetrics.TRACE_PUT)).isNotSameAs(timer);
+        assertThat(registry.getTimers()).hasSize(1);
+    }
+
+    @Test
+    public void stageTimer_sampled() {
+        MetricRegistry registry = new MetricRegistry();
+        IngestMetrics ingestMetrics = new IngestMetrics(registry, true, 8);
+
+        IngestMetrics.StageTimer timer = ingestMetrics.stageTimer(IngestMetrics.SPAN, IngestMetrics.DECODE);
+        for (int i = 0; i < 8000; i++) {
+            timer.stop(timer.start());
+        }
+
+        assertThat(registry.timer("collector.ingest.span.decode").getCount()).isBetween(500L, 1500L);
+    }
+
+    @Test
+    public void messageMetrics() {
+        MetricRegistry registry = new MetricRegistry();
+        IngestMetrics ingestMetrics = new IngestMetrics(registry, true, 1000);
+
+        IngestMetrics.MessageMetrics messageMetrics = ingestMetrics.messageMetrics(DefaultTBaseLocator.SPANCHUNK);
+        for (int i = 0; i < 10; i++) {
+            messageMetrics.received(messageMetrics.receive());
+        }
+
+        assertThat(ingestMetrics.messageMetrics(DefaultTBaseLocator.SPANCHUNK)).isSameAs(messageMetrics);
+        // rates are not sampled
+        assertThat(registry.meter("collector.ingest.spanChunk.rate").getCount()).isEqualTo(10);
+        assertThat(registry.getTimers()).containsKey("collector.ingest.spanChunk.receive");
+    }
+
+    @Test
+    public void disabled() {
+        MetricRegistry registry = new MetricRegistry();
+        IngestMetrics ingestMetrics = new IngestMetrics(registry, false, 1);
+
+        IngestMetrics.StageTimer timer = ingestMetrics.stageTimer(IngestMetrics.SPAN, IngestMetrics.PUBLISH);
+        timer.stop(timer.start());
+        IngestMetrics.MessageMetrics messageMetrics = ingestMetrics.messageMetrics(DefaultTBaseLocator.SPAN);
+        messageMetrics.received(messageMetrics.receive());
+
+        assertThat(registry.getMetrics()).isEmpty();
+    }
+
+    @Test
+    public void invalidSampleRate() {
+        assertThrows(IllegalArgumentException.class, () -> new IngestMetrics(new MetricRegistry(), true, 0));
+    }
+
+    @Test
+    public void messageTypeName() {
+        assertThat(IngestMetrics.messageTypeName(DefaultTBaseLocator.SPAN)).isEqualTo(IngestMetrics.SPAN);
+        assertThat(IngestMetrics.messageTypeName((short) 9999)).isEqualTo("type-9999");
+    }
+}
@@ -0,0 +1,145 @@
+package com.navercorp.pinpoint.collector.receiver.pipeline;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class IngestPipelineTest {
+
+    private IngestPipeline<Task> pipeline;
+
+    @AfterEach
+    public void tearDown() {
+        if (pipeline != null) {
+            pipeline.close();
+        }
+    }
+
+    private IngestPipelineProperties properties(int partitionSize, int queueSize, int backpressureThreshold) {
+        IngestPipelineProperties.Builder builder = IngestPipelineProperties.newBuilder();
+        builder.setEnable(true);
+        builder.setPartitionSize(partitionSize);
+        builder.setQueueSize(queueSize);
+        builder.setBackpressureThreshold(backpressureThreshold);
+        return builder.build();
+    }
+
+    @Test
+    public void order_perPartitionKey() {
+        Map<String, List<Integer>> stored = new ConcurrentHashMap<>();
+        List<IngestStage<Task>> stages = List.of(
+                IngestStage.of("decode", task -> true),
+                IngestStage.of("store", task -> {
+                    stored.computeIfAbsent(task.key, k -> Collections.synchronizedList(new ArrayList<>())).add(task.sequence);
+                    return true;
+                })
+        );
+        pipeline = new IngestPipeline<>("test", stages, properties(3, 1024, 1024), new MetricRegistry());
+        pipeline.start();
+
+        for (int i = 0; i < 100; i++) {
+            for (String key : List.of("agent-a", "agent-b", "agent-c", "agent-d")) {
+                Assertions.assertTrue(pipeline.submit(key, new Task(key, i)));
+            }
+        }
+        pipeline.close();
+
+        Assertions.assertEquals(4, stored.size());
+        for (List<Integer> sequences : stored.values()) {
+            Assertions.assertEquals(100, sequences.size());
+            for (int i = 0; i < sequences.size(); i++) {
+                Assertions.assertEquals(i, sequences.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void rejectAndBackpressure() throws InterruptedException {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<IngestStage<Task>> stages = List.of(
+                IngestStage.of("store", task -> {
+                    blocked.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return true;
+                })
+        );
+        pipeline = new IngestPipeline<>("test", stages, properties(1, 4, 3), new MetricRegistry());
+        pipeline.start();
+
+        Assertions.assertTrue(pipeline.submit("agent", new Task("agent", 0)));
+        Assertions.assertTrue(blocked.await(3, TimeUnit.SECONDS));
+        Assertions.assertFalse(pipeline.isBackpressured("agent"));
+
+        for (int i = 1; i <= 4; i++) {
+            Assertions.assertTrue(pipeline.submit("agent", new Task("agent", i)));
+        }
+        Assertions.assertTrue(pipeline.isBackpressured("agent"));
+        Assertions.assertFalse(pipeline.submit("agent", new Task("agent", 5)));
+
+        release.countDown();
+        pipeline.close();
+        Assertions.assertEquals(5, pipeline.getStageMetrics(0).getProcessedCount());
+        Assertions.assertFalse(pipeline.submit("agent", new Task("agent", 6)));
+    }
+
+    @Test
+    public void dropAndFail_skipNextStage() {
+        List<Integer> stored = Collections.synchronizedList(new ArrayList<>());
+        List<IngestStage<Task>> stages = List.of(
+                IngestStage.of("decode", task -> {
+                    if (task.sequence == 1) {
+                        throw new IllegalStateException("decode error");
+                    }
+                    return task.sequence != 2;
+                }),
+                IngestStage.of("store", task -> stored.add(task.sequence))
+        );
+        pipeline = new IngestPipeline<>("test", stages, properties(1, 16, 16), new MetricRegistry());
+        pipeline.start();
+
+        for (int i = 0; i < 4; i++) {
+            pipeline.submit("agent", new Task("agent", i));
+        }
+        pipeline.close();
+
+        Assertions.assertEquals(List.of(0, 3), stored);
+        Assertions.assertEquals(1, pipeline.getStageMetrics(0).getDroppedCount());
+        Assertions.assertEquals(1, pipeline.getStageMetrics(0).getFailedCount());
+    }
+
+    @Test
+    public void partition() {
+        pipeline = new IngestPipeline<>("test", List.of(IngestStage.of("store", task -> true)), properties(4, 16, 16), new MetricRegistry());
+
+        Assertions.assertEquals(pipeline.partition("agent"), pipeline.partition("agent"));
+        Assertions.assertEquals(0, pipeline.partition(null));
+        for (int i = 0; i < 100; i++) {
+            int partition = pipeline.partition("agent-" + i);
+            Assertions.assertTrue(partition >= 0 && partition < 4);
+        }
+    }
+
+    private static class Task {
+        private final String key;
+        private final int sequence;
+
+        private Task(String key, int sequence) {
+            this.key = key;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.sender;
+
+import com.navercorp.pinpoint.io.header.v2.HeaderV2;
+import com.navercorp.pinpoint.io.request.Message;
+import com.navercorp.pinpoint.thrift.dto.flink.TFAgentStat;
+import com.navercorp.pinpoint.thrift.dto.flink.TFAgentStatBatch;
+import com.navercorp.pinpoint.thrift.dto.flink.TFCpuLoad;
+import com.navercorp.pinpoint.thrift.dto.flink.TFJvmGc;
+import com.navercorp.pinpoint.thrift.dto.flink.TFJvmGcType;
+import com.navercorp.pinpoint.thrift.dto.flink.TFTransaction;
+import com.navercorp.pinpoint.thrift.io.FlinkBatchFrameDecoder;
+import com.navercorp.pinpoint.thrift.io.FlinkBatchFrameEncoder;
+import com.navercorp.pinpoint.thrift.io.FlinkHeaderTBaseDeserializerFactory;
+import com.navercorp.pinpoint.thrift.io.FlinkTBaseLocator;
+import com.navercorp.pinpoint.thrift.io.HeaderTBaseDeserializer;
+import com.navercorp.pinpoint.thrift.io.HeaderTBaseSerializer;
+import com.navercorp.pinpoint.thrift.io.HeaderTBaseSerializerFactory;
+import org.apache.thrift.TBase;
+import org.apache.thrift.TException;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the collector and flink side cost of sending agent stats one message per packet
+ * with packing them into batch frames.
+ * <p>
+ * Every invocation handles {@code batchSize} agent stats, so the scores compare directly.
+ * The {@code bytes} counter is the payload written to the socket per invocation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FlinkBatchFrameBenchmark {
+
+    @Param({"10", "100"})
+    private int batchSize;
+
+    private final FlinkTBaseLocator locator = new FlinkTBaseLocator(HeaderV2.VERSION);
+
+    private HeaderTBaseSerializer serializer;
+    private HeaderTBaseDeserializer deserializer;
+    private FlinkBatchFrameEncoder encoder;
+    private FlinkBatchFrameEncoder compressEncoder;
+    private FlinkBatchFrameDecoder decoder;
+
+    private final List<TFAgentStatBatch> agentStats = new ArrayList<>();
+    private final List<byte[]> singleMessages = new ArrayList<>();
+    private byte[] frame;
+    private byte[] compressedFrame;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Payload {
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws TException {
+        this.serializer = new HeaderTBaseSerializerFactory(locator.getTypeLocator()).createSerializer();
+        this.deserializer = new FlinkHeaderTBaseDeserializerFactory(locator.getTypeLocator()).createDeserializer();
+        this.encoder = new FlinkBatchFrameEncoder(false);
+        this.compressEncoder = new FlinkBatchFrameEncoder(true);
+        this.decoder = new FlinkBatchFrameDecoder(new FlinkHeaderTBaseDeserializerFactory(locator.getTypeLocator()).createDeserializer());
+
+        for (int i = 0; i < batchSize; i++) {
+            TFAgentStatBatch agentStatBatch = newAgentStatBatch(i);
+            agentStats.add(agentStatBatch);
+            singleMessages.add(serializer.serialize(agentStatBatch));
+        }
+        this.frame = encode(encoder, new Payload());
+        this.compressedFrame = encode(compressEncoder, new Payload());
+    }
+
+    private TFAgentStatBatch newAgentStatBatch(int index) {
+        final String agentId = "agent-" + index;
+        final long now = System.currentTimeMillis();
+        List<TFAgentStat> stats = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            TFAgentStat agentStat = new TFAgentStat();
+            agentStat.setAgentId(agentId);
+            agentStat.setStartTimestamp(now - 3600000);
+            agentStat.setTimestamp(now + i * 5000L);
+            agentStat.setCollectInterval(5000);
+
+            TFJvmGc gc = new TFJvmGc(TFJvmGcType.G1, 512 * 1024 * 1024L + i, 2048 * 1024 * 1024L,
+                    128 * 1024 * 1024L, 256 * 1024 * 1024L, 10 + i, 200 + i);
+            agentStat.setGc(gc);
+            TFCpuLoad cpuLoad = new TFCpuLoad();
+            cpuLoad.setJvmCpuLoad(0.1 * i);
+            cpuLoad.setSystemCpuLoad(0.2 * i);
+            agentStat.setCpuLoad(cpuLoad);
+            TFTransaction transaction = new TFTransaction();
+            transaction.setSampledNewCount(100 + i);
+            transaction.setSampledContinuationCount(50 + i);
+            agentStat.setTransaction(transaction);
+            stats.add(agentStat);
+        }
+        return new TFAgentStatBatch(agentId, now - 3600000, stats);
+    }
+
+    private byte[] encode(FlinkBatchFrameEncoder encoder, Payload payload) throws TException {
+        for (TFAgentStatBatch agentStat : agentStats) {
+            encoder.append(serializer.serialize(agentStat));
+        }
+        byte[] encoded = encoder.encode();
+        payload.bytes += encoded.length;
+        return encoded;
+    }
+
+    @Benchmark
+    public int singleSerialize(Payload payload) throws TException {
+        int length = 0;
+        for (TFAgentStatBatch agentStat : agentStats) {
+            length += serializer.serialize(agentStat).length;
+        }
+        payload.bytes += length;
+        return length;
+    }
+
+    @Benchmark
+    public byte[] batchSerialize(Payload payload) throws TException {
+        return encode(encoder, payload);
+    }
+
+    @Benchmark
+    public byte[] batchSerializeCompress(Payload payload) throws TException {
+        return encode(compressEncoder, payload);
+    }
+
+    @Benchmark
+    public int singleDeserialize() throws TException {
+        int count = 0;
+        for (byte[] message : singleMessages) {
+            Message<TBase<?, ?>> deserialized = deserializer.deserialize(message);
+            if (deserialized.getData() != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public List<Message<TBase<?, ?>>> batchDeserialize() throws TException {
+        return decoder.decode(frame);
+    }
+
+    @Benchmark
+    public List<Message<TBase<?, ?>>> batchDeserializeCompress() throws TException {
+        return decoder.decode(compressedFrame);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(FlinkBatchFrameBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build();
+        new Runner(options).run();
+    }
+}
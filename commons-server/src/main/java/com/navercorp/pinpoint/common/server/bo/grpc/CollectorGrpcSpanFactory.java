@@ -19,14 +19,17 @@ package com.navercorp.pinpoint.common.server.bo.grpc;
 import com.navercorp.pinpoint.common.server.bo.SpanBo;
 import com.navercorp.pinpoint.common.server.bo.SpanChunkBo;
 import com.navercorp.pinpoint.common.server.bo.SpanEventBo;
+import com.navercorp.pinpoint.common.server.bo.SpanEventComparator;
 import com.navercorp.pinpoint.common.server.bo.filter.SpanEventFilter;
 import com.navercorp.pinpoint.grpc.trace.PSpan;
 import com.navercorp.pinpoint.grpc.trace.PSpanChunk;
 import com.navercorp.pinpoint.grpc.trace.PSpanEvent;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.stream.IntStream;
 
 /**
  * @author Woonduk Kang(emeroad)
@@ -51,6 +54,46 @@ public class CollectorGrpcSpanFactory implements GrpcSpanFactory {
         return spanBo;
     }
 
+    @Override
+    public GrpcSpan buildGrpcSpan(PSpan pSpan, BindAttribute attribute) {
+        final SpanBo spanBo = this.grpcBinder.bindSpanBo(pSpan, attribute);
+        final List<SpanEventBo> spanEventBos = this.grpcBinder.bindSpanEventBoListWithoutAnnotation(pSpan.getSpanEventList());
+
+        final int[] order = sortedIndex(spanEventBos);
+        final int[] accepted = new int[order.length];
+        int acceptedCount = 0;
+        for (int index : order) {
+            final SpanEventBo spanEventBo = spanEventBos.get(index);
+            if (spanEventFilter == null || spanEventFilter.filter(spanEventBo) == SpanEventFilter.ACCEPT) {
+                spanBo.addSpanEvent(spanEventBo);
+                accepted[acceptedCount++] = index;
+            }
+        }
+        return new GrpcSpan(spanBo, pSpan, Arrays.copyOf(accepted, acceptedCount));
+    }
+
+    // same order as GrpcSpanBinder.bindSpanEventBoList
+    private int[] sortedIndex(List<SpanEventBo> spanEventBoList) {
+        final int size = spanEventBoList.size();
+        if (isSorted(spanEventBoList)) {
+            return IntStream.range(0, size).toArray();
+        }
+        return IntStream.range(0, size)
+                .boxed()
+                .sorted((i1, i2) -> SpanEventComparator.INSTANCE.compare(spanEventBoList.get(i1), spanEventBoList.get(i2)))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private boolean isSorted(List<SpanEventBo> spanEventBoList) {
+        for (int i = 1; i < spanEventBoList.size(); i++) {
+            if (SpanEventComparator.INSTANCE.compare(spanEventBoList.get(i - 1), spanEventBoList.get(i)) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     public SpanChunkBo buildSpanChunkBo(PSpanChunk pSpanChunk, BindAttribute attribute) {
         final SpanChunkBo spanChunkBo = this.grpcBinder.bindSpanChunkBo(pSpanChunk, attribute);
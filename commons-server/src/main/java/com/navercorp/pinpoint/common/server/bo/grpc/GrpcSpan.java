@@ -0,0 +1,71 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.server.bo.grpc;
+
+import com.navercorp.pinpoint.common.server.bo.SpanBo;
+import com.navercorp.pinpoint.grpc.trace.PSpan;
+import com.navercorp.pinpoint.grpc.trace.PSpanEvent;
+
+import javax.validation.Valid;
+import java.util.Objects;
+
+/**
+ * {@link SpanBo} without span event annotations, kept together with the {@link PSpan} it was bound from.
+ * <p>
+ * The {@code SpanBo} carries the fields used by statistics and the trace index,
+ * while the trace column is encoded from the {@code PSpan}.
+ * {@link #getSpanEventIndex(int)} maps each span event of the {@code SpanBo} to its {@link PSpanEvent}.
+ */
+public class GrpcSpan {
+
+    @Valid
+    private final SpanBo spanBo;
+    private final PSpan pSpan;
+    private final int[] spanEventIndex;
+
+    public GrpcSpan(SpanBo spanBo, PSpan pSpan, int[] spanEventIndex) {
+        this.spanBo = Objects.requireNonNull(spanBo, "spanBo");
+        this.pSpan = Objects.requireNonNull(pSpan, "pSpan");
+        this.spanEventIndex = Objects.requireNonNull(spanEventIndex, "spanEventIndex");
+        if (spanBo.getSpanEventBoList().size() != spanEventIndex.length) {
+            throw new IllegalArgumentException("spanEventIndex size mismatch");
+        }
+    }
+
+    public SpanBo getSpanBo() {
+        return spanBo;
+    }
+
+    public PSpan getPSpan() {
+        return pSpan;
+    }
+
+    public PSpanEvent getPSpanEvent(int spanEventBoIndex) {
+        return pSpan.getSpanEvent(getSpanEventIndex(spanEventBoIndex));
+    }
+
+    public int getSpanEventIndex(int spanEventBoIndex) {
+        return spanEventIndex[spanEventBoIndex];
+    }
+
+    @Override
+    public String toString() {
+        return "GrpcSpan{" +
+                "spanBo=" + spanBo +
+                '}';
+    }
+}
@@ -162,6 +162,13 @@ public class GrpcSpanBinder {
 
 
     private void bind(SpanEventBo spanEvent, PSpanEvent pSpanEvent, SpanEventBo prevSpanEvent) {
+        bindWithoutAnnotation(spanEvent, pSpanEvent, prevSpanEvent);
+
+        List<AnnotationBo> annotationList = buildAnnotationList(pSpanEvent.getAnnotationList());
+        spanEvent.setAnnotationBoList(annotationList);
+    }
+
+    private void bindWithoutAnnotation(SpanEventBo spanEvent, PSpanEvent pSpanEvent, SpanEventBo prevSpanEvent) {
 
         spanEvent.setSequence((short) pSpanEvent.getSequence());
 
@@ -216,9 +223,6 @@ public class GrpcSpanBinder {
         final int asyncEvent = pSpanEvent.getAsyncEvent();
         spanEvent.setNextAsyncId(asyncEvent);
 
-        List<AnnotationBo> annotationList = buildAnnotationList(pSpanEvent.getAnnotationList());
-        spanEvent.setAnnotationBoList(annotationList);
-
         if (pSpanEvent.hasExceptionInfo()) {
             final PIntStringValue exceptionInfo = pSpanEvent.getExceptionInfo();
             spanEvent.setExceptionInfo(exceptionInfo.getIntValue(), getExceptionMessage(exceptionInfo));
@@ -293,6 +297,25 @@ public class GrpcSpanBinder {
         return spanEventBoList;
     }
 
+    /**
+     * Binds the span events in the received order, without sorting and without annotations.
+     * Used when the annotations are encoded straight from the {@link PSpanEvent}.
+     */
+    public List<SpanEventBo> bindSpanEventBoListWithoutAnnotation(List<PSpanEvent> spanEventList) {
+        if (CollectionUtils.isEmpty(spanEventList)) {
+            return Collections.emptyList();
+        }
+        List<SpanEventBo> spanEventBoList = new ArrayList<>(spanEventList.size());
+        SpanEventBo prevSpanEvent = null;
+        for (PSpanEvent pSpanEvent : spanEventList) {
+            final SpanEventBo spanEventBo = new SpanEventBo();
+            bindWithoutAnnotation(spanEventBo, pSpanEvent, prevSpanEvent);
+            spanEventBoList.add(spanEventBo);
+            prevSpanEvent = spanEventBo;
+        }
+        return spanEventBoList;
+    }
+
     private List<AnnotationBo> buildAnnotationList(List<PAnnotation> pAnnotationList) {
         if (CollectionUtils.isEmpty(pAnnotationList)) {
             return Collections.emptyList();
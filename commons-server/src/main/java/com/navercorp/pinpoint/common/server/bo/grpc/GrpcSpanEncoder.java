@@ -0,0 +1,131 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.server.bo.grpc;
+
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.server.bo.AnnotationFactory;
+import com.navercorp.pinpoint.common.server.bo.SpanBo;
+import com.navercorp.pinpoint.common.server.bo.SpanEventBo;
+import com.navercorp.pinpoint.common.server.bo.serializer.trace.v2.SpanEncoderV0;
+import com.navercorp.pinpoint.common.server.bo.serializer.trace.v2.SpanEncodingContext;
+import com.navercorp.pinpoint.common.server.bo.serializer.trace.v2.SpanEventDictionary;
+import com.navercorp.pinpoint.grpc.trace.PAnnotation;
+import com.navercorp.pinpoint.grpc.trace.PSpanEvent;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Writes the trace column of a {@link GrpcSpan} with {@link SpanEncoderV0}.
+ * <p>
+ * The span event annotations are written straight from the {@link PAnnotation} messages,
+ * so no {@code AnnotationBo} is created for span events.
+ */
+public class GrpcSpanEncoder {
+
+    // span fields written before the span event list
+    private static final int SPAN_HEADER_RESERVED_SIZE = 64;
+
+    private static final GrpcAnnotationHandler annotationHandler = new GrpcAnnotationHandler();
+    private static final AnnotationFactory<PAnnotation> annotationFactory = new AnnotationFactory<>(annotationHandler);
+
+    private final SpanEncoderV0 spanEncoder;
+
+    public GrpcSpanEncoder(SpanEncoderV0 spanEncoder) {
+        this.spanEncoder = Objects.requireNonNull(spanEncoder, "spanEncoder");
+    }
+
+    public void writeSpanQualifier(Buffer buffer, GrpcSpan grpcSpan) {
+        spanEncoder.writeSpanQualifier(buffer, grpcSpan.getSpanBo());
+    }
+
+    /**
+     * The encoded column is not larger than the protobuf message in most cases.
+     */
+    public int predictSpanColumnValueSize(GrpcSpan grpcSpan) {
+        return grpcSpan.getPSpan().getSerializedSize() + SPAN_HEADER_RESERVED_SIZE;
+    }
+
+    public void writeSpanColumnValue(Buffer buffer, GrpcSpan grpcSpan) {
+        final SpanBo spanBo = grpcSpan.getSpanBo();
+        final SpanEncodingContext<SpanBo> encodingContext = new SpanEncodingContext<>(spanBo);
+        spanEncoder.writeSpanColumnHeader(buffer, spanBo, encodingContext);
+
+        final SpanEncoderV0.SpanEventAnnotationWriter annotationWriter = new PAnnotationWriter(grpcSpan);
+        spanEncoder.writeSpanEventColumn(buffer, spanBo.getSpanEventBoList(), annotationWriter, grpcSpan.getPSpan().getSerializedSize());
+    }
+
+    private static class PAnnotationWriter implements SpanEncoderV0.SpanEventAnnotationWriter {
+        private final GrpcSpan grpcSpan;
+
+        private PAnnotationWriter(GrpcSpan grpcSpan) {
+            this.grpcSpan = grpcSpan;
+        }
+
+        @Override
+        public boolean hasAnnotation(int index, SpanEventBo spanEventBo) {
+            return grpcSpan.getPSpanEvent(index).getAnnotationCount() > 0;
+        }
+
+        @Override
+        public void writeAnnotationList(Buffer buffer, int index, SpanEventBo spanEventBo, SpanEventDictionary dictionary) {
+            final PSpanEvent pSpanEvent = grpcSpan.getPSpanEvent(index);
+            GrpcSpanEncoder.writeAnnotationList(buffer, pSpanEvent.getAnnotationList(), dictionary);
+        }
+    }
+
+    private static void writeAnnotationList(Buffer buffer, List<PAnnotation> annotationList, SpanEventDictionary dictionary) {
+        final int[] order = sortedIndex(annotationList);
+
+        buffer.putVInt(order.length);
+
+        int prevKey = 0;
+        for (int i = 0; i < order.length; i++) {
+            final PAnnotation annotation = annotationList.get(order[i]);
+            final int key = annotation.getKey();
+            if (i == 0) {
+                buffer.putSVInt(key);
+            } else {
+                buffer.putSVInt(key - prevKey);
+            }
+            final Object value = annotationFactory.buildAnnotationValue(annotationHandler.getValue(annotation));
+            SpanEncoderV0.writeAnnotationValue(buffer, value, dictionary);
+            prevKey = key;
+        }
+    }
+
+    // same order as GrpcSpanBinder : stable sort by key
+    private static int[] sortedIndex(List<PAnnotation> annotationList) {
+        final int size = annotationList.size();
+        final int[] index = new int[size];
+        for (int i = 0; i < size; i++) {
+            index[i] = i;
+        }
+        // insertion sort, annotation lists are short and usually sorted
+        for (int i = 1; i < size; i++) {
+            final int current = index[i];
+            final int currentKey = annotationList.get(current).getKey();
+            int j = i - 1;
+            while (j >= 0 && annotationList.get(index[j]).getKey() > currentKey) {
+                index[j + 1] = index[j];
+                j--;
+            }
+            index[j + 1] = current;
+        }
+        return index;
+    }
+}
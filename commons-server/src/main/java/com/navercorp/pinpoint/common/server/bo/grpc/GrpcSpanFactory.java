@@ -27,5 +27,7 @@ import com.navercorp.pinpoint.grpc.trace.PSpanChunk;
 public interface GrpcSpanFactory {
     SpanBo buildSpanBo(PSpan pSpan, BindAttribute attribute);
 
+    GrpcSpan buildGrpcSpan(PSpan pSpan, BindAttribute attribute);
+
     SpanChunkBo buildSpanChunkBo(PSpanChunk pSpanChunk, BindAttribute attribute);
 }
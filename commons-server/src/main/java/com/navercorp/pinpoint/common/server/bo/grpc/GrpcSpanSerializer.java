@@ -0,0 +1,83 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.server.bo.grpc;
+
+import com.navercorp.pinpoint.common.buffer.AutomaticBuffer;
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.hbase.HbaseColumnFamily;
+import com.navercorp.pinpoint.common.server.bo.serializer.HbaseSerializer;
+import com.navercorp.pinpoint.common.server.bo.serializer.SerializationContext;
+import org.apache.hadoop.hbase.client.Put;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * Serializes a {@link GrpcSpan} into the trace column.
+ * <p>
+ * {@link Put#addColumn(byte[], ByteBuffer, long, ByteBuffer)} copies the qualifier and the value into its own cell,
+ * so the encoding buffers are reused per thread and sized from the protobuf message up front.
+ */
+public class GrpcSpanSerializer implements HbaseSerializer<GrpcSpan, Put> {
+
+    private static final int QUALIFIER_BUFFER_SIZE = 128;
+    private static final int VALUE_BUFFER_SIZE = 1024 * 4;
+    // large buffers are not kept by the thread
+    private static final int MAX_RETAINED_BUFFER_SIZE = 1024 * 1024;
+
+    private final GrpcSpanEncoder spanEncoder;
+
+    private final ThreadLocal<Buffer> qualifierBuffer = ThreadLocal.withInitial(() -> new AutomaticBuffer(QUALIFIER_BUFFER_SIZE));
+    private final ThreadLocal<Buffer> valueBuffer = ThreadLocal.withInitial(() -> new AutomaticBuffer(VALUE_BUFFER_SIZE));
+
+    public GrpcSpanSerializer(GrpcSpanEncoder spanEncoder) {
+        this.spanEncoder = Objects.requireNonNull(spanEncoder, "spanEncoder");
+    }
+
+    @Override
+    public void serialize(GrpcSpan grpcSpan, Put put, SerializationContext context) {
+        Objects.requireNonNull(grpcSpan, "grpcSpan");
+
+        final Buffer qualifier = getBuffer(qualifierBuffer, QUALIFIER_BUFFER_SIZE);
+        spanEncoder.writeSpanQualifier(qualifier, grpcSpan);
+
+        final Buffer columnValue = getBuffer(valueBuffer, spanEncoder.predictSpanColumnValueSize(grpcSpan));
+        spanEncoder.writeSpanColumnValue(columnValue, grpcSpan);
+
+        long acceptedTime = put.getTimeStamp();
+        put.addColumn(HbaseColumnFamily.TRACE_V2_SPAN.getName(), qualifier.wrapByteBuffer(), acceptedTime, columnValue.wrapByteBuffer());
+
+        release(qualifierBuffer, qualifier);
+        release(valueBuffer, columnValue);
+    }
+
+    private Buffer getBuffer(ThreadLocal<Buffer> threadLocal, int expectedSize) {
+        Buffer buffer = threadLocal.get();
+        if (buffer.getInternalBuffer().length < expectedSize) {
+            buffer = new AutomaticBuffer(expectedSize);
+            threadLocal.set(buffer);
+        }
+        buffer.setOffset(0);
+        return buffer;
+    }
+
+    private void release(ThreadLocal<Buffer> threadLocal, Buffer buffer) {
+        if (buffer.getInternalBuffer().length > MAX_RETAINED_BUFFER_SIZE) {
+            threadLocal.remove();
+        }
+    }
+}
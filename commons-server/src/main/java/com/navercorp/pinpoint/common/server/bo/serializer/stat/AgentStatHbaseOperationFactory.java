@@ -16,12 +16,14 @@
 
 package com.navercorp.pinpoint.common.server.bo.serializer.stat;
 
-import com.navercorp.pinpoint.common.hbase.HbaseColumnFamily;
 import com.navercorp.pinpoint.common.server.bo.serializer.HbaseSerializer;
 import com.navercorp.pinpoint.common.server.bo.stat.AgentStatDataPoint;
 import com.navercorp.pinpoint.common.server.bo.stat.AgentStatType;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.AgentStatResolution;
 import com.sematext.hbase.wd.AbstractRowKeyDistributor;
+import com.navercorp.pinpoint.common.hbase.HbaseColumnFamily;
 import org.apache.commons.collections4.CollectionUtils;
+import org.apache.hadoop.hbase.client.Get;
 import org.apache.hadoop.hbase.client.Put;
 import org.apache.hadoop.hbase.client.Scan;
 
@@ -53,6 +55,11 @@ public class AgentStatHbaseOperationFactory {
     }
 
     public <T extends AgentStatDataPoint> List<Put> createPuts(String agentId, AgentStatType agentStatType, List<T> agentStatDataPoints, HbaseSerializer<List<T>, Put> agentStatSerializer) {
+        return createPuts(agentId, agentStatType, AgentStatResolution.RAW, agentStatDataPoints, agentStatSerializer);
+    }
+
+    public <T extends AgentStatDataPoint> List<Put> createPuts(String agentId, AgentStatType agentStatType, AgentStatResolution resolution,
+                                                               List<T> agentStatDataPoints, HbaseSerializer<List<T>, Put> agentStatSerializer) {
         if (CollectionUtils.isEmpty(agentStatDataPoints)) {
             return Collections.emptyList();
         }
@@ -62,7 +69,7 @@ public class AgentStatHbaseOperationFactory {
             long baseTimestamp = timeslot.getKey();
             List<T> slottedAgentStatDataPoints = timeslot.getValue();
 
-            final AgentStatRowKeyComponent rowKeyComponent = new AgentStatRowKeyComponent(agentId, agentStatType, baseTimestamp);
+            final AgentStatRowKeyComponent rowKeyComponent = new AgentStatRowKeyComponent(agentId, agentStatType, resolution, baseTimestamp);
             byte[] rowKey = this.rowKeyEncoder.encodeRowKey(rowKeyComponent);
             byte[] distributedRowKey = this.rowKeyDistributor.getDistributedKey(rowKey);
 
@@ -74,8 +81,12 @@ public class AgentStatHbaseOperationFactory {
     }
 
     public Scan createScan(String agentId, AgentStatType agentStatType, long startTimestamp, long endTimestamp) {
-        final AgentStatRowKeyComponent startRowKeyComponent = new AgentStatRowKeyComponent(agentId, agentStatType, AgentStatUtils.getBaseTimestamp(endTimestamp));
-        final AgentStatRowKeyComponent endRowKeyComponent = new AgentStatRowKeyComponent(agentId, agentStatType, AgentStatUtils.getBaseTimestamp(startTimestamp) - HbaseColumnFamily.AGENT_STAT_STATISTICS.TIMESPAN_MS);
+        return createScan(agentId, agentStatType, AgentStatResolution.RAW, startTimestamp, endTimestamp);
+    }
+
+    public Scan createScan(String agentId, AgentStatType agentStatType, AgentStatResolution resolution, long startTimestamp, long endTimestamp) {
+        final AgentStatRowKeyComponent startRowKeyComponent = new AgentStatRowKeyComponent(agentId, agentStatType, resolution, AgentStatUtils.getBaseTimestamp(endTimestamp));
+        final AgentStatRowKeyComponent endRowKeyComponent = new AgentStatRowKeyComponent(agentId, agentStatType, resolution, AgentStatUtils.getBaseTimestamp(startTimestamp) - HbaseColumnFamily.AGENT_STAT_STATISTICS.TIMESPAN_MS);
         byte[] startRowKey = this.rowKeyEncoder.encodeRowKey(startRowKeyComponent);
         byte[] endRowKey = this.rowKeyEncoder.encodeRowKey(endRowKeyComponent);
         Scan scan = new Scan();
@@ -84,6 +95,33 @@ public class AgentStatHbaseOperationFactory {
         return scan;
     }
 
+    /**
+     * Creates a {@link Get} for every timeslot row of the agent between startTimestamp and endTimestamp.
+     * Rows are addressed directly, so the distributed buckets do not have to be scanned.
+     */
+    public List<Get> createGets(String agentId, AgentStatType agentStatType, long startTimestamp, long endTimestamp) {
+        final long fromBaseTimestamp = AgentStatUtils.getBaseTimestamp(startTimestamp);
+        final long toBaseTimestamp = AgentStatUtils.getBaseTimestamp(endTimestamp);
+
+        List<Get> gets = new ArrayList<>();
+        for (long baseTimestamp = toBaseTimestamp; baseTimestamp >= fromBaseTimestamp; baseTimestamp -= HbaseColumnFamily.AGENT_STAT_STATISTICS.TIMESPAN_MS) {
+            final AgentStatRowKeyComponent rowKeyComponent = new AgentStatRowKeyComponent(agentId, agentStatType, baseTimestamp);
+            byte[] rowKey = this.rowKeyEncoder.encodeRowKey(rowKeyComponent);
+            byte[] distributedRowKey = this.rowKeyDistributor.getDistributedKey(rowKey);
+            gets.add(new Get(distributedRowKey));
+        }
+        return gets;
+    }
+
+    public static int getTimeslotCount(long startTimestamp, long endTimestamp) {
+        final long fromBaseTimestamp = AgentStatUtils.getBaseTimestamp(startTimestamp);
+        final long toBaseTimestamp = AgentStatUtils.getBaseTimestamp(endTimestamp);
+        if (toBaseTimestamp < fromBaseTimestamp) {
+            return 0;
+        }
+        return Math.toIntExact((toBaseTimestamp - fromBaseTimestamp) / HbaseColumnFamily.AGENT_STAT_STATISTICS.TIMESPAN_MS + 1);
+    }
+
     public AbstractRowKeyDistributor getRowKeyDistributor() {
         return this.rowKeyDistributor;
     }
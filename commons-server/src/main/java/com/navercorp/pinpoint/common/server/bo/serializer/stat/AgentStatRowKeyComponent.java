@@ -17,6 +17,9 @@
 package com.navercorp.pinpoint.common.server.bo.serializer.stat;
 
 import com.navercorp.pinpoint.common.server.bo.stat.AgentStatType;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.AgentStatResolution;
+
+import java.util.Objects;
 
 /**
  * @author HyunGil Jeong
@@ -25,11 +28,17 @@ public class AgentStatRowKeyComponent {
 
     private final String agentId;
     private final AgentStatType agentStatType;
+    private final AgentStatResolution resolution;
     private final long baseTimestamp;
 
     public AgentStatRowKeyComponent(String agentId, AgentStatType agentStatType, long baseTimestamp) {
+        this(agentId, agentStatType, AgentStatResolution.RAW, baseTimestamp);
+    }
+
+    public AgentStatRowKeyComponent(String agentId, AgentStatType agentStatType, AgentStatResolution resolution, long baseTimestamp) {
         this.agentId = agentId;
         this.agentStatType = agentStatType;
+        this.resolution = Objects.requireNonNull(resolution, "resolution");
         this.baseTimestamp = baseTimestamp;
     }
 
@@ -41,6 +50,10 @@ public class AgentStatRowKeyComponent {
         return this.agentStatType;
     }
 
+    public AgentStatResolution getResolution() {
+        return this.resolution;
+    }
+
     public long getBaseTimestamp() {
         return this.baseTimestamp;
     }
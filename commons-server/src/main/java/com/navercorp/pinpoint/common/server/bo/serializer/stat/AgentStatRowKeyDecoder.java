@@ -18,6 +18,7 @@ package com.navercorp.pinpoint.common.server.bo.serializer.stat;
 
 import com.navercorp.pinpoint.common.server.bo.serializer.RowKeyDecoder;
 import com.navercorp.pinpoint.common.server.bo.stat.AgentStatType;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.AgentStatResolution;
 import com.navercorp.pinpoint.common.util.BytesUtils;
 import com.navercorp.pinpoint.common.util.TimeUtils;
 
@@ -32,9 +33,11 @@ public class AgentStatRowKeyDecoder implements RowKeyDecoder<AgentStatRowKeyComp
     @Override
     public AgentStatRowKeyComponent decodeRowKey(byte[] rowkey) {
         final String agentId = BytesUtils.safeTrim(BytesUtils.toString(rowkey, 0, AGENT_ID_MAX_LEN));
-        final AgentStatType agentStatType = AgentStatType.fromTypeCode(rowkey[AGENT_ID_MAX_LEN]);
+        final byte typeCode = rowkey[AGENT_ID_MAX_LEN];
+        final AgentStatType agentStatType = AgentStatResolution.decodeAgentStatType(typeCode);
+        final AgentStatResolution resolution = AgentStatResolution.decodeResolution(typeCode);
         final long reversedBaseTimestamp = BytesUtils.bytesToLong(rowkey, AGENT_ID_MAX_LEN + TYPE_CODE_BYTE_LENGTH);
         final long baseTimestamp = TimeUtils.recoveryTimeMillis(reversedBaseTimestamp);
-        return new AgentStatRowKeyComponent(agentId, agentStatType, baseTimestamp);
+        return new AgentStatRowKeyComponent(agentId, agentStatType, resolution, baseTimestamp);
     }
 }
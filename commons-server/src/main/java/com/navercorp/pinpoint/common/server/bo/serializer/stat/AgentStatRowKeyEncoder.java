@@ -34,7 +34,7 @@ public class AgentStatRowKeyEncoder implements RowKeyEncoder<AgentStatRowKeyComp
         Objects.requireNonNull(component, "component");
 
         byte[] bAgentId = BytesUtils.toBytes(component.getAgentId());
-        byte[] bStatType = new byte[]{component.getAgentStatType().getRawTypeCode()};
+        byte[] bStatType = new byte[]{component.getResolution().encodeTypeCode(component.getAgentStatType())};
         byte[] rowKey = new byte[AGENT_ID_MAX_LEN + bStatType.length + BytesUtils.LONG_BYTE_LENGTH];
 
         BytesUtils.writeBytes(rowKey, 0, bAgentId);
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.server.bo.serializer.trace.v2;
+
+import com.navercorp.pinpoint.common.buffer.AutomaticBuffer;
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.buffer.FixedBuffer;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Format of the trace column value.
+ * <p>
+ * The first byte of the column value holds the span version ({@code SpanVersion}) in the low 4 bits
+ * and the column format in the high 4 bits. Cells written before the column format existed are {@link #FORMAT_V0}.
+ * <pre>
+ * FORMAT_V0         : span events follow the span header, strings and annotation values are written inline
+ * FORMAT_DICTIONARY : span header, flags(1), [rawLength(vint) deflated(prefixedBytes)] or [dictionary, span events]
+ *                     span event strings and annotation values are references into the {@link SpanEventDictionary}
+ * </pre>
+ */
+public final class SpanColumnFormat {
+
+    public static final int FORMAT_V0 = 0;
+    public static final int FORMAT_DICTIONARY = 1;
+
+    public static final byte FLAG_NONE = 0;
+    public static final byte FLAG_DEFLATE = 1;
+
+    private static final int SPAN_VERSION_MASK = 0x0F;
+    private static final int FORMAT_SHIFT = 4;
+
+    private SpanColumnFormat() {
+    }
+
+    public static byte versionByte(int format, byte spanVersion) {
+        if ((spanVersion & ~SPAN_VERSION_MASK) != 0) {
+            throw new IllegalArgumentException("unsupported span version:" + spanVersion);
+        }
+        return (byte) ((format << FORMAT_SHIFT) | spanVersion);
+    }
+
+    public static int getFormat(byte versionByte) {
+        return (versionByte & 0xFF) >>> FORMAT_SHIFT;
+    }
+
+    public static byte getSpanVersion(byte versionByte) {
+        return (byte) (versionByte & SPAN_VERSION_MASK);
+    }
+
+    /**
+     * Writes the dictionary and the span events encoded with it, deflated when larger than {@code compressThreshold}.
+     */
+    public static void writeDictionaryBody(Buffer buffer, SpanEventDictionary dictionary, Buffer spanEvents, int compressThreshold) {
+        final int eventsLength = spanEvents.getOffset();
+        if (compressThreshold > 0 && eventsLength >= compressThreshold) {
+            final Buffer body = new AutomaticBuffer(eventsLength + 64);
+            dictionary.write(body);
+            body.putBytes(spanEvents.getBuffer());
+
+            final byte[] raw = body.getBuffer();
+            final byte[] deflated = deflate(raw);
+            if (deflated.length < raw.length) {
+                buffer.putByte(FLAG_DEFLATE);
+                buffer.putVInt(raw.length);
+                buffer.putPrefixedBytes(deflated);
+                return;
+            }
+        }
+        buffer.putByte(FLAG_NONE);
+        dictionary.write(buffer);
+        buffer.putBytes(spanEvents.getBuffer());
+    }
+
+    /**
+     * Reads the flags and the dictionary written by {@link #writeDictionaryBody(Buffer, SpanEventDictionary, Buffer, int)}.
+     */
+    public static DictionaryBody readDictionaryBody(Buffer buffer) {
+        final byte flags = buffer.readByte();
+        Buffer body = buffer;
+        if ((flags & FLAG_DEFLATE) != 0) {
+            final int rawLength = buffer.readVInt();
+            final byte[] deflated = buffer.readPrefixedBytes();
+            body = new FixedBuffer(inflate(deflated, rawLength));
+        }
+        final SpanEventDictionary dictionary = SpanEventDictionary.read(body);
+        return new DictionaryBody(dictionary, body);
+    }
+
+    public static final class DictionaryBody {
+        private final SpanEventDictionary dictionary;
+        private final Buffer spanEvents;
+
+        private DictionaryBody(SpanEventDictionary dictionary, Buffer spanEvents) {
+            this.dictionary = dictionary;
+            this.spanEvents = spanEvents;
+        }
+
+        public SpanEventDictionary getDictionary() {
+            return dictionary;
+        }
+
+        /**
+         * @return buffer positioned at the span event list
+         */
+        public Buffer getSpanEvents() {
+            return spanEvents;
+        }
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            final ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 4);
+            final byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                final int length = deflater.deflate(chunk);
+                out.write(chunk, 0, length);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] deflated, int rawLength) {
+        if (rawLength < 0) {
+            throw new IllegalStateException("invalid raw length:" + rawLength);
+        }
+        final Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(deflated);
+            final byte[] raw = new byte[rawLength];
+            int offset = 0;
+            while (offset < rawLength) {
+                final int length = inflater.inflate(raw, offset, rawLength - offset);
+                if (length == 0 && (inflater.finished() || inflater.needsInput())) {
+                    break;
+                }
+                offset += length;
+            }
+            if (offset != rawLength) {
+                throw new IllegalStateException("corrupted span events. expected:" + rawLength + " actual:" + offset);
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("corrupted span events", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -38,6 +38,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 /**
+ * Reads every {@link SpanColumnFormat} of the trace column.
+ *
  * @author Woonduk Kang(emeroad)
  */
 public class SpanDecoderV0 implements SpanDecoder {
@@ -99,7 +101,8 @@ public class SpanDecoderV0 implements SpanDecoder {
     }
 
     private void readSpanChunkValue(Buffer buffer, SpanChunkBo spanChunk, SpanDecodingContext decodingContext) {
-        final byte version = buffer.readByte();
+        final byte versionByte = buffer.readByte();
+        final byte version = SpanColumnFormat.getSpanVersion(versionByte);
 
         spanChunk.setVersion(version);
         if (version == SpanVersion.TRACE_V2) {
@@ -107,15 +110,18 @@ public class SpanDecoderV0 implements SpanDecoder {
             spanChunk.setKeyTime(keyTime);
         }
 
-        List<SpanEventBo> spanEventBoList = readSpanEvent(buffer, decodingContext, SEQUENCE_SPAN_EVENT_FILTER);
+        if (!decodingContext.getProjection().isSpanEvent()) {
+            return;
+        }
+        List<SpanEventBo> spanEventBoList = readSpanEventColumn(buffer, SpanColumnFormat.getFormat(versionByte), decodingContext);
         spanChunk.addSpanEventBoList(spanEventBoList);
     }
 
     public void readSpanValue(Buffer buffer, SpanBo span, SpanDecodingContext decodingContext) {
 
-        final byte version = buffer.readByte();
+        final byte versionByte = buffer.readByte();
 
-        span.setVersion(version);
+        span.setVersion(SpanColumnFormat.getSpanVersion(versionByte));
 
         final SpanBitField bitFiled = new SpanBitField(buffer.readByte());
 
@@ -171,15 +177,31 @@ public class SpanDecoderV0 implements SpanDecoder {
 
 
         if (bitFiled.isSetAnnotation()) {
-            List<AnnotationBo> annotationBoList = readAnnotationList(buffer, decodingContext);
+            List<AnnotationBo> annotationBoList = readAnnotationList(buffer, decodingContext, null);
             span.setAnnotationBoList(annotationBoList);
         }
 
-        List<SpanEventBo> spanEventBoList = readSpanEvent(buffer, decodingContext, SEQUENCE_SPAN_EVENT_FILTER);
+        // span events are the last field of the span column
+        if (!decodingContext.getProjection().isSpanEvent()) {
+            return;
+        }
+        List<SpanEventBo> spanEventBoList = readSpanEventColumn(buffer, SpanColumnFormat.getFormat(versionByte), decodingContext);
         span.addSpanEventBoList(spanEventBoList);
     }
 
-    private List<SpanEventBo> readSpanEvent(Buffer buffer, SpanDecodingContext decodingContext, SpanEventFilter spanEventFilter) {
+    private List<SpanEventBo> readSpanEventColumn(Buffer buffer, int format, SpanDecodingContext decodingContext) {
+        switch (format) {
+            case SpanColumnFormat.FORMAT_V0:
+                return readSpanEvent(buffer, decodingContext, SEQUENCE_SPAN_EVENT_FILTER, null);
+            case SpanColumnFormat.FORMAT_DICTIONARY:
+                final SpanColumnFormat.DictionaryBody body = SpanColumnFormat.readDictionaryBody(buffer);
+                return readSpanEvent(body.getSpanEvents(), decodingContext, SEQUENCE_SPAN_EVENT_FILTER, body.getDictionary());
+            default:
+                throw new IllegalStateException("unsupported span column format:" + format);
+        }
+    }
+
+    private List<SpanEventBo> readSpanEvent(Buffer buffer, SpanDecodingContext decodingContext, SpanEventFilter spanEventFilter, SpanEventDictionary dictionary) {
         final int spanEventSize = buffer.readVInt();
         if (spanEventSize <= 0) {
             return new ArrayList<>();
@@ -189,9 +211,9 @@ public class SpanDecoderV0 implements SpanDecoder {
         for (int i = 0; i < spanEventSize; i++) {
             SpanEventBo spanEvent;
             if (i == 0) {
-                spanEvent = readFirstSpanEvent(buffer, decodingContext);
+                spanEvent = readFirstSpanEvent(buffer, decodingContext, dictionary);
             } else {
-                spanEvent = readNextSpanEvent(buffer, prev, decodingContext);
+                spanEvent = readNextSpanEvent(buffer, prev, decodingContext, dictionary);
             }
             prev = spanEvent;
             boolean accept = spanEventFilter.filter(spanEvent);
@@ -203,7 +225,7 @@ public class SpanDecoderV0 implements SpanDecoder {
         return spanEventBoList;
     }
 
-    private SpanEventBo readNextSpanEvent(final Buffer buffer, final SpanEventBo prev, SpanDecodingContext decodingContext) {
+    private SpanEventBo readNextSpanEvent(final Buffer buffer, final SpanEventBo prev, SpanDecodingContext decodingContext, SpanEventDictionary dictionary) {
         final SpanEventBo spanEventBo = new SpanEventBo();
 
         final SpanEventBitField bitField = new SpanEventBitField(buffer.readShort());
@@ -261,14 +283,14 @@ public class SpanDecoderV0 implements SpanDecoder {
         spanEventBo.setApiId(buffer.readSVInt());
 
         if (bitField.isSetRpc()) {
-            spanEventBo.setRpc(buffer.readPrefixedString());
+            spanEventBo.setRpc(readString(buffer, dictionary));
         }
 
         if (bitField.isSetEndPoint()) {
-            spanEventBo.setEndPoint(buffer.readPrefixedString());
+            spanEventBo.setEndPoint(readString(buffer, dictionary));
         }
         if (bitField.isSetDestinationId()) {
-            spanEventBo.setDestinationId(buffer.readPrefixedString());
+            spanEventBo.setDestinationId(readString(buffer, dictionary));
         }
 
         if (bitField.isSetNextSpanId()) {
@@ -278,12 +300,12 @@ public class SpanDecoderV0 implements SpanDecoder {
 
         if (bitField.isSetHasException()) {
             int exceptionId = buffer.readSVInt();
-            String exceptionMessage = buffer.readPrefixedString();
+            String exceptionMessage = readString(buffer, dictionary);
             spanEventBo.setExceptionInfo(exceptionId, exceptionMessage);
         }
 
         if (bitField.isSetAnnotation()) {
-            List<AnnotationBo> annotationBoList = readAnnotationList(buffer, decodingContext);
+            List<AnnotationBo> annotationBoList = readAnnotationList(buffer, decodingContext, dictionary);
             spanEventBo.setAnnotationBoList(annotationBoList);
         }
 
@@ -299,7 +321,7 @@ public class SpanDecoderV0 implements SpanDecoder {
         return spanEventBo;
     }
 
-    private SpanEventBo readFirstSpanEvent(Buffer buffer, SpanDecodingContext decodingContext) {
+    private SpanEventBo readFirstSpanEvent(Buffer buffer, SpanDecodingContext decodingContext, SpanEventDictionary dictionary) {
         final SpanEventBitField bitField = new SpanEventBitField(buffer.readByte());
 
         final SpanEventBo firstSpanEvent = new SpanEventBo();
@@ -311,14 +333,14 @@ public class SpanDecoderV0 implements SpanDecoder {
         firstSpanEvent.setServiceType(buffer.readShort());
 
         if (bitField.isSetRpc()) {
-            firstSpanEvent.setRpc(buffer.readPrefixedString());
+            firstSpanEvent.setRpc(readString(buffer, dictionary));
         }
 
         if (bitField.isSetEndPoint()) {
-            firstSpanEvent.setEndPoint(buffer.readPrefixedString());
+            firstSpanEvent.setEndPoint(readString(buffer, dictionary));
         }
         if (bitField.isSetDestinationId()) {
-            firstSpanEvent.setDestinationId(buffer.readPrefixedString());
+            firstSpanEvent.setDestinationId(readString(buffer, dictionary));
         }
 
         firstSpanEvent.setApiId(buffer.readSVInt());
@@ -329,12 +351,12 @@ public class SpanDecoderV0 implements SpanDecoder {
 
         if (bitField.isSetHasException()) {
             int exceptionId = buffer.readSVInt();
-            String exceptionMessage = buffer.readPrefixedString();
+            String exceptionMessage = readString(buffer, dictionary);
             firstSpanEvent.setExceptionInfo(exceptionId, exceptionMessage);
         }
 
         if (bitField.isSetAnnotation()) {
-            List<AnnotationBo> annotationBoList = readAnnotationList(buffer, decodingContext);
+            List<AnnotationBo> annotationBoList = readAnnotationList(buffer, decodingContext, dictionary);
             firstSpanEvent.setAnnotationBoList(annotationBoList);
         }
 
@@ -349,8 +371,12 @@ public class SpanDecoderV0 implements SpanDecoder {
         return firstSpanEvent;
     }
 
-    private List<AnnotationBo> readAnnotationList(Buffer buffer, SpanDecodingContext decodingContext) {
+    private List<AnnotationBo> readAnnotationList(Buffer buffer, SpanDecodingContext decodingContext, SpanEventDictionary dictionary) {
         int annotationListSize = buffer.readVInt();
+        if (!decodingContext.getProjection().isAnnotation()) {
+            skipAnnotationList(buffer, annotationListSize, dictionary);
+            return new ArrayList<>();
+        }
         List<AnnotationBo> annotationBoList = new ArrayList<>(annotationListSize);
 
 //        AnnotationBo prev = decodingContext.getPrevFirstAnnotationBo();
@@ -358,11 +384,11 @@ public class SpanDecoderV0 implements SpanDecoder {
         for (int i = 0; i < annotationListSize; i++) {
             AnnotationBo current;
             if (i == 0) {
-                current = readFirstAnnotationBo(buffer);
+                current = readFirstAnnotationBo(buffer, dictionary);
                 // save first annotation for delta bitfield
 //                decodingContext.setPrevFirstAnnotationBo(current);
             } else {
-                current = readDeltaAnnotationBo(buffer, prev);
+                current = readDeltaAnnotationBo(buffer, prev, dictionary);
             }
 
             prev = current;
@@ -371,22 +397,38 @@ public class SpanDecoderV0 implements SpanDecoder {
         return annotationBoList;
     }
 
-    private AnnotationBo readFirstAnnotationBo(Buffer buffer) {
+    private void skipAnnotationList(Buffer buffer, int annotationListSize, SpanEventDictionary dictionary) {
+        for (int i = 0; i < annotationListSize; i++) {
+            // key, valueType
+            buffer.readSVInt();
+            buffer.readByte();
+            if (dictionary == null) {
+                final int size = buffer.readSVInt();
+                if (size > 0) {
+                    buffer.setOffset(buffer.getOffset() + size);
+                }
+            } else {
+                buffer.readVInt();
+            }
+        }
+    }
+
+    private AnnotationBo readFirstAnnotationBo(Buffer buffer, SpanEventDictionary dictionary) {
         final int key = buffer.readSVInt();
         byte valueType = buffer.readByte();
-        byte[] valueBytes = buffer.readPrefixedBytes();
+        byte[] valueBytes = readBytes(buffer, dictionary);
         Object value = transcoder.decode(valueType, valueBytes);
 
         AnnotationBo current = AnnotationBo.of(key, value);
         return current;
     }
 
-    private AnnotationBo readDeltaAnnotationBo(Buffer buffer, AnnotationBo prev) {
+    private AnnotationBo readDeltaAnnotationBo(Buffer buffer, AnnotationBo prev, SpanEventDictionary dictionary) {
         final int prevKey = prev.getKey();
         int key = buffer.readSVInt() + prevKey;
 
         byte valueType = buffer.readByte();
-        byte[] valueBytes = buffer.readPrefixedBytes();
+        byte[] valueBytes = readBytes(buffer, dictionary);
         Object value = transcoder.decode(valueType, valueBytes);
 
         AnnotationBo annotation = AnnotationBo.of(key, value);
@@ -394,6 +436,20 @@ public class SpanDecoderV0 implements SpanDecoder {
     }
 
 
+    private static String readString(Buffer buffer, SpanEventDictionary dictionary) {
+        if (dictionary == null) {
+            return buffer.readPrefixedString();
+        }
+        return dictionary.getString(buffer.readVInt());
+    }
+
+    private static byte[] readBytes(Buffer buffer, SpanEventDictionary dictionary) {
+        if (dictionary == null) {
+            return buffer.readPrefixedBytes();
+        }
+        return dictionary.getBytes(buffer.readVInt());
+    }
+
     private void readQualifier(BasicSpan basicSpan, Buffer buffer) {
         String applicationId = buffer.readPrefixedString();
         basicSpan.setApplicationId(applicationId);
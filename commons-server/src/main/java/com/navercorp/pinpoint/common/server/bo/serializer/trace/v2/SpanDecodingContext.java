@@ -18,6 +18,8 @@ package com.navercorp.pinpoint.common.server.bo.serializer.trace.v2;
 
 import com.navercorp.pinpoint.common.profiler.util.TransactionId;
 
+import java.util.Objects;
+
 /**
  * @author Woonduk Kang(emeroad)
  */
@@ -26,6 +28,7 @@ public class SpanDecodingContext {
 //    private AnnotationBo prevAnnotationBo;
     private long collectorAcceptedTime;
     private TransactionId transactionId;
+    private SpanProjection projection = SpanProjection.ALL;
 
 //    public AnnotationBo getPrevFirstAnnotationBo() {
 //        return prevAnnotationBo;
@@ -52,6 +55,14 @@ public class SpanDecodingContext {
         return transactionId;
     }
 
+    public void setProjection(SpanProjection projection) {
+        this.projection = Objects.requireNonNull(projection, "projection");
+    }
+
+    public SpanProjection getProjection() {
+        return projection;
+    }
+
 
     public void next() {
     }
@@ -20,6 +20,7 @@ import org.springframework.stereotype.Component;
 
 import java.nio.ByteBuffer;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * @author Woonduk Kang(emeroad)
@@ -29,13 +30,46 @@ public class SpanEncoderV0 implements SpanEncoder {
     private final Logger logger = LogManager.getLogger(this.getClass());
     private static final AnnotationTranscoder transcoder = new AnnotationTranscoder();
 
+    public static final int DEFAULT_COMPRESS_THRESHOLD = 64 * 1024;
+
+    private final boolean spanEventDictionary;
+    private final int compressThreshold;
+
+    public SpanEncoderV0() {
+        this(false, DEFAULT_COMPRESS_THRESHOLD);
+    }
+
+    /**
+     * @param spanEventDictionary write the span events in {@link SpanColumnFormat#FORMAT_DICTIONARY}
+     * @param compressThreshold   deflate dictionary encoded span events larger than this, 0 or less disables compression
+     */
+    public SpanEncoderV0(boolean spanEventDictionary, int compressThreshold) {
+        this.spanEventDictionary = spanEventDictionary;
+        this.compressThreshold = compressThreshold;
+    }
+
+    public boolean isSpanEventDictionary() {
+        return spanEventDictionary;
+    }
+
+    private int getColumnFormat() {
+        return spanEventDictionary ? SpanColumnFormat.FORMAT_DICTIONARY : SpanColumnFormat.FORMAT_V0;
+    }
+
     @Override
     public ByteBuffer encodeSpanQualifier(SpanEncodingContext<SpanBo> encodingContext) {
         final SpanBo spanBo = encodingContext.getValue();
+
+        final Buffer buffer = new AutomaticBuffer(128);
+        writeSpanQualifier(buffer, spanBo);
+        return buffer.wrapByteBuffer();
+    }
+
+    public void writeSpanQualifier(Buffer buffer, SpanBo spanBo) {
         final List<SpanEventBo> spanEventBoList = spanBo.getSpanEventBoList();
         final SpanEventBo firstEvent = getFirstSpanEvent(spanEventBoList);
 
-        return encodeQualifier(TYPE_SPAN, spanBo, firstEvent, null);
+        writeQualifier(buffer, TYPE_SPAN, spanBo, firstEvent, null);
     }
 
     @Override
@@ -46,11 +80,12 @@ public class SpanEncoderV0 implements SpanEncoder {
         final SpanEventBo firstEvent = getFirstSpanEvent(spanEventBoList);
 
         LocalAsyncIdBo localAsyncId = spanChunkBo.getLocalAsyncId();
-        return encodeQualifier(TYPE_SPAN_CHUNK, spanChunkBo, firstEvent, localAsyncId);
+        final Buffer buffer = new AutomaticBuffer(128);
+        writeQualifier(buffer, TYPE_SPAN_CHUNK, spanChunkBo, firstEvent, localAsyncId);
+        return buffer.wrapByteBuffer();
     }
 
-    private ByteBuffer encodeQualifier(byte type, BasicSpan basicSpan, SpanEventBo firstEvent, LocalAsyncIdBo localAsyncId) {
-        final Buffer buffer = new AutomaticBuffer(128);
+    private void writeQualifier(Buffer buffer, byte type, BasicSpan basicSpan, SpanEventBo firstEvent, LocalAsyncIdBo localAsyncId) {
         buffer.putByte(type);
         buffer.putPrefixedString(basicSpan.getApplicationId());
         buffer.putPrefixedString(basicSpan.getAgentId());
@@ -74,8 +109,6 @@ public class SpanEncoderV0 implements SpanEncoder {
 //            byte cfBitField = SpanEventQualifierBitField.setAsync((byte) 0, false);
 //            buffer.putByte(cfBitField);
         }
-
-        return buffer.wrapByteBuffer();
     }
 
 
@@ -95,30 +128,77 @@ public class SpanEncoderV0 implements SpanEncoder {
         final Buffer buffer = new AutomaticBuffer(256);
 
         final byte version = (byte) spanChunkBo.getVersion();
-        buffer.putByte(version);
+        buffer.putByte(SpanColumnFormat.versionByte(getColumnFormat(), version));
         if (version == SpanVersion.TRACE_V2) {
             long keyTime = spanChunkBo.getKeyTime();
             buffer.putVLong(keyTime);
         }
 
         final List<SpanEventBo> spanEventBoList = spanChunkBo.getSpanEventBoList();
-        writeSpanEventList(buffer, spanEventBoList, encodingContext);
+        writeSpanEventColumn(buffer, spanEventBoList, encodingContext);
 
         return buffer.wrapByteBuffer();
     }
 
-    private void writeSpanEventList(Buffer buffer, List<SpanEventBo> spanEventBoList, SpanEncodingContext<?> encodingContext) {
+    /**
+     * Source of the annotation list of each span event.
+     * Every other span event field is written from the {@link SpanEventBo}.
+     */
+    public interface SpanEventAnnotationWriter {
+
+        /**
+         * @param index position of the span event in the list
+         */
+        boolean hasAnnotation(int index, SpanEventBo spanEventBo);
+
+        void writeAnnotationList(Buffer buffer, int index, SpanEventBo spanEventBo, SpanEventDictionary dictionary);
+    }
+
+    private final SpanEventAnnotationWriter annotationBoWriter = new SpanEventAnnotationWriter() {
+        @Override
+        public boolean hasAnnotation(int index, SpanEventBo spanEventBo) {
+            return CollectionUtils.isNotEmpty(spanEventBo.getAnnotationBoList());
+        }
+
+        @Override
+        public void writeAnnotationList(Buffer buffer, int index, SpanEventBo spanEventBo, SpanEventDictionary dictionary) {
+            SpanEncoderV0.this.writeAnnotationList(buffer, spanEventBo.getAnnotationBoList(), null, dictionary);
+        }
+    };
+
+    private void writeSpanEventColumn(Buffer buffer, List<SpanEventBo> spanEventBoList, SpanEncodingContext<?> encodingContext) {
+        writeSpanEventColumn(buffer, spanEventBoList, annotationBoWriter, 256);
+    }
+
+    /**
+     * Writes the span event list in the column format of this encoder.
+     * @param bufferSize initial size of the span event buffer of the dictionary format
+     */
+    public void writeSpanEventColumn(Buffer buffer, List<SpanEventBo> spanEventBoList, SpanEventAnnotationWriter annotationWriter, int bufferSize) {
+        Objects.requireNonNull(annotationWriter, "annotationWriter");
+        if (!spanEventDictionary) {
+            writeSpanEventList(buffer, spanEventBoList, annotationWriter, null);
+            return;
+        }
+        final SpanEventDictionary dictionary = new SpanEventDictionary();
+        final Buffer spanEvents = new AutomaticBuffer(bufferSize);
+        writeSpanEventList(spanEvents, spanEventBoList, annotationWriter, dictionary);
+        SpanColumnFormat.writeDictionaryBody(buffer, dictionary, spanEvents, compressThreshold);
+    }
+
+    private void writeSpanEventList(Buffer buffer, List<SpanEventBo> spanEventBoList, SpanEventAnnotationWriter annotationWriter, SpanEventDictionary dictionary) {
         if (CollectionUtils.isEmpty(spanEventBoList)) {
             buffer.putVInt(0);
         } else {
             buffer.putVInt(spanEventBoList.size());
 
             SpanEventBo prevSpanEvent = null;
-            for (SpanEventBo spanEventBo : spanEventBoList) {
+            for (int i = 0; i < spanEventBoList.size(); i++) {
+                final SpanEventBo spanEventBo = spanEventBoList.get(i);
                 if (prevSpanEvent == null) {
-                    writeFirstSpanEvent(buffer, spanEventBo, encodingContext);
+                    writeFirstSpanEvent(buffer, spanEventBo, i, annotationWriter, dictionary);
                 } else {
-                    writeNextSpanEvent(buffer, spanEventBo, prevSpanEvent, encodingContext);
+                    writeNextSpanEvent(buffer, spanEventBo, prevSpanEvent, i, annotationWriter, dictionary);
                 }
                 prevSpanEvent = spanEventBo;
             }
@@ -129,12 +209,24 @@ public class SpanEncoderV0 implements SpanEncoder {
     public ByteBuffer encodeSpanColumnValue(SpanEncodingContext<SpanBo> encodingContext) {
         final SpanBo span = encodingContext.getValue();
 
-        final SpanBitField bitField = SpanBitField.build(span);
-
         final Buffer buffer = new AutomaticBuffer(256);
 
+        writeSpanColumnHeader(buffer, span, encodingContext);
+
+        final List<SpanEventBo> spanEventBoList = span.getSpanEventBoList();
+        writeSpanEventColumn(buffer, spanEventBoList, encodingContext);
+
+        return buffer.wrapByteBuffer();
+    }
+
+    /**
+     * Writes the span fields of the column value, everything before the span event list.
+     */
+    public void writeSpanColumnHeader(Buffer buffer, SpanBo span, SpanEncodingContext<?> encodingContext) {
+        final SpanBitField bitField = SpanBitField.build(span);
+
         final byte version = span.getRawVersion();
-        buffer.putByte(version);
+        buffer.putByte(SpanColumnFormat.versionByte(getColumnFormat(), version));
 
         // bit field
         buffer.putByte(bitField.getBitField());
@@ -197,18 +289,17 @@ public class SpanEncoderV0 implements SpanEncoder {
 
         if (bitField.isSetAnnotation()) {
             List<AnnotationBo> annotationBoList = span.getAnnotationBoList();
-            writeAnnotationList(buffer, annotationBoList, encodingContext);
+            writeAnnotationList(buffer, annotationBoList, encodingContext, null);
         }
-
-        final List<SpanEventBo> spanEventBoList = span.getSpanEventBoList();
-        writeSpanEventList(buffer, spanEventBoList, encodingContext);
-
-        return buffer.wrapByteBuffer();
     }
 
     public void writeFirstSpanEvent(Buffer buffer, SpanEventBo spanEventBo, SpanEncodingContext<?> encodingContext) {
+        writeFirstSpanEvent(buffer, spanEventBo, 0, annotationBoWriter, null);
+    }
+
+    private void writeFirstSpanEvent(Buffer buffer, SpanEventBo spanEventBo, int index, SpanEventAnnotationWriter annotationWriter, SpanEventDictionary dictionary) {
 
-        final SpanEventBitField bitField = SpanEventBitField.buildFirst(spanEventBo);
+        final SpanEventBitField bitField = SpanEventBitField.buildFirst(spanEventBo, annotationWriter.hasAnnotation(index, spanEventBo));
 
         final byte firstSpanBitField1 = (byte) bitField.getBitField();
         buffer.putByte(firstSpanBitField1);
@@ -222,14 +313,14 @@ public class SpanEncoderV0 implements SpanEncoder {
 
 
         if (bitField.isSetRpc()) {
-            buffer.putPrefixedString(spanEventBo.getRpc());
+            writeString(buffer, spanEventBo.getRpc(), dictionary);
         }
 
         if (bitField.isSetEndPoint()) {
-            buffer.putPrefixedString(spanEventBo.getEndPoint());
+            writeString(buffer, spanEventBo.getEndPoint(), dictionary);
         }
         if (bitField.isSetDestinationId()) {
-            buffer.putPrefixedString(spanEventBo.getDestinationId());
+            writeString(buffer, spanEventBo.getDestinationId(), dictionary);
         }
 
         buffer.putSVInt(spanEventBo.getApiId());
@@ -240,12 +331,11 @@ public class SpanEncoderV0 implements SpanEncoder {
 
         if (bitField.isSetHasException()) {
             buffer.putSVInt(spanEventBo.getExceptionId());
-            buffer.putPrefixedString(spanEventBo.getExceptionMessage());
+            writeString(buffer, spanEventBo.getExceptionMessage(), dictionary);
         }
 
         if (bitField.isSetAnnotation()) {
-            final List<AnnotationBo> annotationBoList = spanEventBo.getAnnotationBoList();
-            writeAnnotationList(buffer, annotationBoList, encodingContext);
+            annotationWriter.writeAnnotationList(buffer, index, spanEventBo, dictionary);
         }
 
         if (bitField.isSetNextAsyncId()) {
@@ -259,8 +349,13 @@ public class SpanEncoderV0 implements SpanEncoder {
     }
 
     public void writeNextSpanEvent(Buffer buffer, SpanEventBo spanEventBo, SpanEventBo prevSpanEvent, SpanEncodingContext<?> encodingContext) {
+        writeNextSpanEvent(buffer, spanEventBo, prevSpanEvent, 0, annotationBoWriter, null);
+    }
+
+    private void writeNextSpanEvent(Buffer buffer, SpanEventBo spanEventBo, SpanEventBo prevSpanEvent, int index,
+                                    SpanEventAnnotationWriter annotationWriter, SpanEventDictionary dictionary) {
 
-        final SpanEventBitField bitField = SpanEventBitField.build(spanEventBo, prevSpanEvent);
+        final SpanEventBitField bitField = SpanEventBitField.build(spanEventBo, prevSpanEvent, annotationWriter.hasAnnotation(index, spanEventBo));
 
         buffer.putShort(bitField.getBitField());
 
@@ -315,14 +410,14 @@ public class SpanEncoderV0 implements SpanEncoder {
         buffer.putSVInt(spanEventBo.getApiId());
 
         if (bitField.isSetRpc()) {
-            buffer.putPrefixedString(spanEventBo.getRpc());
+            writeString(buffer, spanEventBo.getRpc(), dictionary);
         }
 
         if (bitField.isSetEndPoint()) {
-            buffer.putPrefixedString(spanEventBo.getEndPoint());
+            writeString(buffer, spanEventBo.getEndPoint(), dictionary);
         }
         if (bitField.isSetDestinationId()) {
-            buffer.putPrefixedString(spanEventBo.getDestinationId());
+            writeString(buffer, spanEventBo.getDestinationId(), dictionary);
         }
 
         if (bitField.isSetNextSpanId()) {
@@ -331,12 +426,11 @@ public class SpanEncoderV0 implements SpanEncoder {
 
         if (bitField.isSetHasException()) {
             buffer.putSVInt(spanEventBo.getExceptionId());
-            buffer.putPrefixedString(spanEventBo.getExceptionMessage());
+            writeString(buffer, spanEventBo.getExceptionMessage(), dictionary);
         }
 
         if (bitField.isSetAnnotation()) {
-            List<AnnotationBo> annotationBoList = spanEventBo.getAnnotationBoList();
-            writeAnnotationList(buffer, annotationBoList, encodingContext);
+            annotationWriter.writeAnnotationList(buffer, index, spanEventBo, dictionary);
         }
 
         if (bitField.isSetNextAsyncId()) {
@@ -349,7 +443,7 @@ public class SpanEncoderV0 implements SpanEncoder {
         }
     }
 
-    private void writeAnnotationList(Buffer buffer, List<AnnotationBo> annotationBoList, SpanEncodingContext<?> encodingContext) {
+    private void writeAnnotationList(Buffer buffer, List<AnnotationBo> annotationBoList, SpanEncodingContext<?> encodingContext, SpanEventDictionary dictionary) {
         if (CollectionUtils.isEmpty(annotationBoList)) {
             return;
         }
@@ -366,25 +460,20 @@ public class SpanEncoderV0 implements SpanEncoder {
                 // first annotation
                 buffer.putSVInt(current.getKey());
 
-                Object value = current.getValue();
-                byte valueTypeCode = transcoder.getTypeCode(value);
-                byte[] valueBytes = transcoder.encode(value, valueTypeCode);
-
-                buffer.putByte(valueTypeCode);
-                buffer.putPrefixedBytes(valueBytes);
+                writeAnnotationValue(buffer, current.getValue(), dictionary);
 //                else {
 //                    writeDeltaAnnotationBo(buffer, prev, current);
 //                }
                 // save first annotation
 //                encodingCtx.setPrevFirstAnnotationBo(current);
             } else {
-                writeDeltaAnnotationBo(buffer, prev, current);
+                writeDeltaAnnotationBo(buffer, prev, current, dictionary);
             }
             prev = current;
         }
     }
 
-    private void writeDeltaAnnotationBo(Buffer buffer, AnnotationBo prev, AnnotationBo current) {
+    private void writeDeltaAnnotationBo(Buffer buffer, AnnotationBo prev, AnnotationBo current, SpanEventDictionary dictionary) {
         // prev : -30 cur: -20  = -20 - - 30 = 10
         // prev :  20 cur: 100  =  100 - 20 = 80
         // prev :  -40 cur: 1000  =  1000 + 40 = 10040
@@ -392,12 +481,31 @@ public class SpanEncoderV0 implements SpanEncoder {
         final int currentKey = current.getKey();
         buffer.putSVInt(currentKey - prevKey);
 
-        Object value = current.getValue();
+        writeAnnotationValue(buffer, current.getValue(), dictionary);
+    }
+
+    public static void writeAnnotationValue(Buffer buffer, Object value) {
+        writeAnnotationValue(buffer, value, null);
+    }
+
+    public static void writeAnnotationValue(Buffer buffer, Object value, SpanEventDictionary dictionary) {
         byte valueTypeCode = transcoder.getTypeCode(value);
         byte[] valueBytes = transcoder.encode(value, valueTypeCode);
 
         buffer.putByte(valueTypeCode);
-        buffer.putPrefixedBytes(valueBytes);
+        if (dictionary == null) {
+            buffer.putPrefixedBytes(valueBytes);
+        } else {
+            buffer.putVInt(dictionary.addBytes(valueBytes));
+        }
+    }
+
+    public static void writeString(Buffer buffer, String value, SpanEventDictionary dictionary) {
+        if (dictionary == null) {
+            buffer.putPrefixedString(value);
+        } else {
+            buffer.putVInt(dictionary.addString(value));
+        }
     }
 
 
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.server.bo.serializer.trace.v2;
+
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.util.BytesUtils;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Strings and annotation values of the span events in one trace cell.
+ * <p>
+ * Every distinct value is written once, span events refer to it by a varint reference.
+ * Reference 0 is null, the first entry is 1.
+ *
+ * @see SpanColumnFormat#FORMAT_DICTIONARY
+ */
+public class SpanEventDictionary {
+
+    public static final int NULL_REFERENCE = 0;
+
+    // encoding
+    private final Map<ByteBuffer, Integer> references;
+    private final List<byte[]> entries;
+
+    // decoding
+    private final byte[][] readEntries;
+    private final String[] strings;
+
+    public SpanEventDictionary() {
+        this.references = new HashMap<>();
+        this.entries = new ArrayList<>();
+        this.readEntries = null;
+        this.strings = null;
+    }
+
+    private SpanEventDictionary(byte[][] readEntries) {
+        this.references = null;
+        this.entries = null;
+        this.readEntries = readEntries;
+        this.strings = new String[readEntries.length];
+    }
+
+    public int addString(String value) {
+        if (value == null) {
+            return NULL_REFERENCE;
+        }
+        return addBytes(BytesUtils.toBytes(value));
+    }
+
+    public int addBytes(byte[] value) {
+        if (value == null) {
+            return NULL_REFERENCE;
+        }
+        final ByteBuffer key = ByteBuffer.wrap(value);
+        final Integer reference = references.get(key);
+        if (reference != null) {
+            return reference;
+        }
+        entries.add(value);
+        final int newReference = entries.size();
+        references.put(key, newReference);
+        return newReference;
+    }
+
+    public int size() {
+        if (entries != null) {
+            return entries.size();
+        }
+        return readEntries.length;
+    }
+
+    public void write(Buffer buffer) {
+        buffer.putVInt(entries.size());
+        for (byte[] entry : entries) {
+            buffer.putPrefixedBytes(entry);
+        }
+    }
+
+    public static SpanEventDictionary read(Buffer buffer) {
+        final int size = buffer.readVInt();
+        if (size < 0 || size > buffer.remaining()) {
+            throw new IllegalStateException("invalid dictionary size:" + size);
+        }
+        final byte[][] entries = new byte[size][];
+        for (int i = 0; i < size; i++) {
+            entries[i] = buffer.readPrefixedBytes();
+        }
+        return new SpanEventDictionary(entries);
+    }
+
+    public String getString(int reference) {
+        if (reference == NULL_REFERENCE) {
+            return null;
+        }
+        final int index = checkReference(reference);
+        String value = strings[index];
+        if (value == null) {
+            // the same String instance is shared by every span event that refers to it
+            value = BytesUtils.toString(readEntries[index]);
+            strings[index] = value;
+        }
+        return value;
+    }
+
+    public byte[] getBytes(int reference) {
+        if (reference == NULL_REFERENCE) {
+            return null;
+        }
+        return readEntries[checkReference(reference)];
+    }
+
+    private int checkReference(int reference) {
+        final int index = reference - 1;
+        if (index < 0 || index >= readEntries.length) {
+            throw new IllegalStateException("invalid dictionary reference:" + reference + " size:" + readEntries.length);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.server.bo.serializer.trace.v2;
+
+/**
+ * Fields of the trace column read by {@link SpanDecoderV0}.
+ * <p>
+ * Skipped span events are not added, skipped annotations leave the annotation list empty.
+ */
+public enum SpanProjection {
+    /**
+     * span, span events and annotations
+     */
+    ALL(true, true),
+    /**
+     * span and span events, for the server map
+     */
+    NO_ANNOTATION(true, false),
+    /**
+     * span header only, for the transaction list
+     */
+    SPAN_ONLY(false, false);
+
+    private final boolean spanEvent;
+    private final boolean annotation;
+
+    SpanProjection(boolean spanEvent, boolean annotation) {
+        this.spanEvent = spanEvent;
+        this.annotation = annotation;
+    }
+
+    public boolean isSpanEvent() {
+        return spanEvent;
+    }
+
+    public boolean isAnnotation() {
+        return annotation;
+    }
+}
@@ -54,6 +54,16 @@ public class SpanEventBitField {
     public static SpanEventBitField buildFirst(SpanEventBo spanEventBo) {
         Objects.requireNonNull(spanEventBo, "spanEventBo");
 
+        final List<AnnotationBo> annotationBoList = spanEventBo.getAnnotationBoList();
+        return buildFirst(spanEventBo, CollectionUtils.isNotEmpty(annotationBoList));
+    }
+
+    /**
+     * @param hasAnnotation whether annotations are written, for callers that encode them from another source
+     */
+    public static SpanEventBitField buildFirst(SpanEventBo spanEventBo, boolean hasAnnotation) {
+        Objects.requireNonNull(spanEventBo, "spanEventBo");
+
         final SpanEventBitField bitField = new SpanEventBitField();
 
         if (spanEventBo.getRpc() != null) {
@@ -75,8 +85,7 @@ public class SpanEventBitField {
             bitField.setHasException(true);
         }
 
-        final List<AnnotationBo> annotationBoList = spanEventBo.getAnnotationBoList();
-        if (CollectionUtils.isNotEmpty(annotationBoList)) {
+        if (hasAnnotation) {
             bitField.setAnnotation(true);
         }
 
@@ -95,9 +104,16 @@ public class SpanEventBitField {
 
     public static SpanEventBitField build(SpanEventBo spanEventBo, SpanEventBo prevSpanEventBo) {
         Objects.requireNonNull(spanEventBo, "spanEventBo");
+
+        final List<AnnotationBo> annotationBoList = spanEventBo.getAnnotationBoList();
+        return build(spanEventBo, prevSpanEventBo, CollectionUtils.isNotEmpty(annotationBoList));
+    }
+
+    public static SpanEventBitField build(SpanEventBo spanEventBo, SpanEventBo prevSpanEventBo, boolean hasAnnotation) {
+        Objects.requireNonNull(spanEventBo, "spanEventBo");
         Objects.requireNonNull(prevSpanEventBo, "prevSpanEventBo");
 
-        final SpanEventBitField bitField = buildFirst(spanEventBo);
+        final SpanEventBitField bitField = buildFirst(spanEventBo, hasAnnotation);
 
         if (spanEventBo.getStartElapsed() == prevSpanEventBo.getStartElapsed()) {
             bitField.setStartElapsedEncodingStrategy(StartElapsedTimeEncodingStrategy.PREV_EQUALS);
@@ -9,6 +9,7 @@ import com.navercorp.pinpoint.common.server.bo.serializer.trace.v2.TraceRowKeyDe
 import com.navercorp.pinpoint.common.server.bo.serializer.trace.v2.TraceRowKeyEncoderV2;
 import com.sematext.hbase.wd.AbstractRowKeyDistributor;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -30,8 +31,9 @@ public class SpanSerializeConfiguration {
     }
 
     @Bean
-    public SpanEncoderV0 spanEncoderV0() {
-        return new SpanEncoderV0();
+    public SpanEncoderV0 spanEncoderV0(@Value("${collector.trace.span-event.dictionary.enable:false}") boolean spanEventDictionary,
+                                       @Value("${collector.trace.span-event.compress-threshold:65536}") int compressThreshold) {
+        return new SpanEncoderV0(spanEventDictionary, compressThreshold);
     }
 
 
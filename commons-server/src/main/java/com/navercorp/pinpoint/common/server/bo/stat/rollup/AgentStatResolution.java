@@ -0,0 +1,95 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.common.server.bo.stat.rollup;
+
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatType;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolution of the agent stat rows.
+ * Rolled up rows share the AgentStatV2 table with the raw rows, the resolution is kept in the upper bits of the stat type byte of the row key.
+ */
+public enum AgentStatResolution {
+    RAW(0, 0),
+    ONE_MINUTE(1, TimeUnit.MINUTES.toMillis(1)),
+    TEN_MINUTES(2, TimeUnit.MINUTES.toMillis(10)),
+    ONE_HOUR(3, TimeUnit.HOURS.toMillis(1));
+
+    private static final int TYPE_CODE_BITS = 6;
+    private static final int TYPE_CODE_MASK = (1 << TYPE_CODE_BITS) - 1;
+
+    private static final AgentStatResolution[] RESOLUTIONS = values();
+
+    private final int code;
+    private final long millis;
+
+    AgentStatResolution(int code, long millis) {
+        this.code = code;
+        this.millis = millis;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public long getMillis() {
+        return millis;
+    }
+
+    public long getTimeslot(long timestamp) {
+        if (this == RAW) {
+            return timestamp;
+        }
+        return timestamp - (timestamp % millis);
+    }
+
+    public byte encodeTypeCode(AgentStatType agentStatType) {
+        final int typeCode = agentStatType.getTypeCode();
+        if (typeCode > TYPE_CODE_MASK) {
+            throw new IllegalArgumentException("type code out of range (0~" + TYPE_CODE_MASK + ") " + agentStatType);
+        }
+        return (byte) (typeCode | (code << TYPE_CODE_BITS));
+    }
+
+    public static AgentStatType decodeAgentStatType(byte typeCode) {
+        return AgentStatType.fromTypeCode((byte) (typeCode & TYPE_CODE_MASK));
+    }
+
+    public static AgentStatResolution decodeResolution(byte typeCode) {
+        final int code = (typeCode & 0xFF) >>> TYPE_CODE_BITS;
+        for (AgentStatResolution resolution : RESOLUTIONS) {
+            if (resolution.code == code) {
+                return resolution;
+            }
+        }
+        throw new IllegalArgumentException("unknown resolution code:" + code);
+    }
+
+    /**
+     * @return the coarsest resolution that still yields at least one point per sampling window
+     */
+    public static AgentStatResolution getCoarsest(long windowSizeMillis) {
+        for (int i = RESOLUTIONS.length - 1; i > 0; i--) {
+            if (RESOLUTIONS[i].millis <= windowSizeMillis) {
+                return RESOLUTIONS[i];
+            }
+        }
+        return RAW;
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.common.server.bo.stat.rollup;
+
+import com.navercorp.pinpoint.common.server.bo.stat.CpuLoadBo;
+
+public class CpuLoadAccumulator implements AgentStatAccumulator<CpuLoadBo> {
+
+    private final DoubleFieldAccumulator jvmCpuLoad = new DoubleFieldAccumulator(CpuLoadBo.UNCOLLECTED_VALUE);
+    private final DoubleFieldAccumulator systemCpuLoad = new DoubleFieldAccumulator(CpuLoadBo.UNCOLLECTED_VALUE);
+
+    @Override
+    public void add(CpuLoadBo dataPoint) {
+        jvmCpuLoad.add(dataPoint.getJvmCpuLoad());
+        systemCpuLoad.add(dataPoint.getSystemCpuLoad());
+    }
+
+    @Override
+    public CpuLoadBo aggregate(AgentStatAggregate aggregate) {
+        CpuLoadBo dataPoint = new CpuLoadBo();
+        dataPoint.setJvmCpuLoad(jvmCpuLoad.aggregate(aggregate));
+        dataPoint.setSystemCpuLoad(systemCpuLoad.aggregate(aggregate));
+        return dataPoint;
+    }
+}
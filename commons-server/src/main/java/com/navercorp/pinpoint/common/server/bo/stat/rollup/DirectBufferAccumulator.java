@@ -0,0 +1,46 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.common.server.bo.stat.rollup;
+
+import com.navercorp.pinpoint.common.server.bo.stat.DirectBufferBo;
+
+public class DirectBufferAccumulator implements AgentStatAccumulator<DirectBufferBo> {
+
+    private final LongFieldAccumulator directCount = new LongFieldAccumulator(DirectBufferBo.UNCOLLECTED_VALUE);
+    private final LongFieldAccumulator directMemoryUsed = new LongFieldAccumulator(DirectBufferBo.UNCOLLECTED_VALUE);
+    private final LongFieldAccumulator mappedCount = new LongFieldAccumulator(DirectBufferBo.UNCOLLECTED_VALUE);
+    private final LongFieldAccumulator mappedMemoryUsed = new LongFieldAccumulator(DirectBufferBo.UNCOLLECTED_VALUE);
+
+    @Override
+    public void add(DirectBufferBo dataPoint) {
+        directCount.add(dataPoint.getDirectCount());
+        directMemoryUsed.add(dataPoint.getDirectMemoryUsed());
+        mappedCount.add(dataPoint.getMappedCount());
+        mappedMemoryUsed.add(dataPoint.getMappedMemoryUsed());
+    }
+
+    @Override
+    public DirectBufferBo aggregate(AgentStatAggregate aggregate) {
+        DirectBufferBo dataPoint = new DirectBufferBo();
+        dataPoint.setDirectCount(directCount.aggregate(aggregate));
+        dataPoint.setDirectMemoryUsed(directMemoryUsed.aggregate(aggregate));
+        dataPoint.setMappedCount(mappedCount.aggregate(aggregate));
+        dataPoint.setMappedMemoryUsed(mappedMemoryUsed.aggregate(aggregate));
+        return dataPoint;
+    }
+}
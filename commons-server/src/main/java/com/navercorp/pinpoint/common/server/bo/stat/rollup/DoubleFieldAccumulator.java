@@ -0,0 +1,63 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.common.server.bo.stat.rollup;
+
+/**
+ * Uncollected values are skipped, a field without any collected value aggregates to the uncollected value.
+ */
+public class DoubleFieldAccumulator {
+
+    private final double uncollectedValue;
+
+    private double min = Double.MAX_VALUE;
+    private double max = -Double.MAX_VALUE;
+    private double sum;
+    private int count;
+
+    public DoubleFieldAccumulator(double uncollectedValue) {
+        this.uncollectedValue = uncollectedValue;
+    }
+
+    public void add(double value) {
+        if (value == uncollectedValue) {
+            return;
+        }
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        sum += value;
+        count++;
+    }
+
+    public double aggregate(AgentStatAggregate aggregate) {
+        if (count == 0) {
+            return uncollectedValue;
+        }
+        switch (aggregate) {
+            case AVG:
+                return sum / count;
+            case MIN:
+                return min;
+            case MAX:
+                return max;
+            case SUM:
+                return sum;
+            default:
+                throw new IllegalArgumentException("unknown aggregate:" + aggregate);
+        }
+    }
+}
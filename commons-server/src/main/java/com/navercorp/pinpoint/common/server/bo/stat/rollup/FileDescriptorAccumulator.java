@@ -0,0 +1,37 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.common.server.bo.stat.rollup;
+
+import com.navercorp.pinpoint.common.server.bo.stat.FileDescriptorBo;
+
+public class FileDescriptorAccumulator implements AgentStatAccumulator<FileDescriptorBo> {
+
+    private final LongFieldAccumulator openFileDescriptorCount = new LongFieldAccumulator(FileDescriptorBo.UNCOLLECTED_VALUE);
+
+    @Override
+    public void add(FileDescriptorBo dataPoint) {
+        openFileDescriptorCount.add(dataPoint.getOpenFileDescriptorCount());
+    }
+
+    @Override
+    public FileDescriptorBo aggregate(AgentStatAggregate aggregate) {
+        FileDescriptorBo dataPoint = new FileDescriptorBo();
+        dataPoint.setOpenFileDescriptorCount(openFileDescriptorCount.aggregate(aggregate));
+        return dataPoint;
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.common.server.bo.stat.rollup;
+
+import com.navercorp.pinpoint.common.server.bo.stat.LoadedClassBo;
+
+public class LoadedClassAccumulator implements AgentStatAccumulator<LoadedClassBo> {
+
+    private final LongFieldAccumulator loadedClassCount = new LongFieldAccumulator(LoadedClassBo.UNCOLLECTED_VALUE);
+    private final LongFieldAccumulator unloadedClassCount = new LongFieldAccumulator(LoadedClassBo.UNCOLLECTED_VALUE);
+
+    @Override
+    public void add(LoadedClassBo dataPoint) {
+        loadedClassCount.add(dataPoint.getLoadedClassCount());
+        unloadedClassCount.add(dataPoint.getUnloadedClassCount());
+    }
+
+    @Override
+    public LoadedClassBo aggregate(AgentStatAggregate aggregate) {
+        LoadedClassBo dataPoint = new LoadedClassBo();
+        dataPoint.setLoadedClassCount(loadedClassCount.aggregate(aggregate));
+        dataPoint.setUnloadedClassCount(unloadedClassCount.aggregate(aggregate));
+        return dataPoint;
+    }
+}
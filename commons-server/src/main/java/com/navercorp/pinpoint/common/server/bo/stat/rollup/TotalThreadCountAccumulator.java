@@ -0,0 +1,37 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.common.server.bo.stat.rollup;
+
+import com.navercorp.pinpoint.common.server.bo.stat.TotalThreadCountBo;
+
+public class TotalThreadCountAccumulator implements AgentStatAccumulator<TotalThreadCountBo> {
+
+    private final LongFieldAccumulator totalThreadCount = new LongFieldAccumulator(TotalThreadCountBo.UNCOLLECTED_VALUE);
+
+    @Override
+    public void add(TotalThreadCountBo dataPoint) {
+        totalThreadCount.add(dataPoint.getTotalThreadCount());
+    }
+
+    @Override
+    public TotalThreadCountBo aggregate(AgentStatAggregate aggregate) {
+        TotalThreadCountBo dataPoint = new TotalThreadCountBo();
+        dataPoint.setTotalThreadCount(totalThreadCount.aggregate(aggregate));
+        return dataPoint;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.common.server.dao.local;
+
+import com.navercorp.pinpoint.common.buffer.AutomaticBuffer;
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.buffer.FixedBuffer;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellComparator;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Stores the cells of a {@link Put} as one {@link SegmentStore} record,
+ * so the local DAOs share the HBase serializers and row mappers.
+ */
+public final class CellRecordCodec {
+
+    private CellRecordCodec() {
+    }
+
+    public static byte[] encode(Put put) {
+        Objects.requireNonNull(put, "put");
+
+        final Buffer buffer = new AutomaticBuffer(256);
+        buffer.putPrefixedBytes(put.getRow());
+        buffer.putVInt(put.size());
+        for (List<Cell> cells : put.getFamilyCellMap().values()) {
+            for (Cell cell : cells) {
+                buffer.putPrefixedBytes(CellUtil.cloneFamily(cell));
+                buffer.putPrefixedBytes(CellUtil.cloneQualifier(cell));
+                buffer.putLong(cell.getTimestamp());
+                buffer.putPrefixedBytes(CellUtil.cloneValue(cell));
+            }
+        }
+        return buffer.copyBuffer();
+    }
+
+    public static List<Cell> decode(byte[] value) {
+        Objects.requireNonNull(value, "value");
+
+        final Buffer buffer = new FixedBuffer(value);
+        final byte[] row = buffer.readPrefixedBytes();
+        final int size = buffer.readVInt();
+        final List<Cell> cells = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            final byte[] family = buffer.readPrefixedBytes();
+            final byte[] qualifier = buffer.readPrefixedBytes();
+            final long timestamp = buffer.readLong();
+            final byte[] cellValue = buffer.readPrefixedBytes();
+            cells.add(new KeyValue(row, family, qualifier, timestamp, cellValue));
+        }
+        return cells;
+    }
+
+    /**
+     * @return cells of the records in HBase order
+     */
+    public static Result toResult(List<SegmentRecord> records) {
+        Objects.requireNonNull(records, "records");
+
+        final List<Cell> cells = new ArrayList<>();
+        for (SegmentRecord record : records) {
+            cells.addAll(decode(record.getValue()));
+        }
+        cells.sort(CellComparator.getInstance());
+        return Result.create(cells);
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.common.server.dao.local;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * Append-only, memory-mapped segment file.
+ * <pre>
+ * record : [int bodyLength][long timestamp][int keyLength][key][value]
+ * </pre>
+ * The body is written before its length, so a zero length marks the end of the segment
+ * for readers in this process and in other processes mapping the same file.
+ */
+class SegmentFile {
+
+    static final int RECORD_HEADER_SIZE = 4;
+    static final int BODY_HEADER_SIZE = 8 + 4;
+
+    private final Path path;
+    private final long sequence;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+
+    // next record offset; guarded by the owning partition
+    private int position;
+
+    private SegmentFile(Path path, long sequence, MappedByteBuffer buffer) {
+        this.path = Objects.requireNonNull(path, "path");
+        this.sequence = sequence;
+        this.buffer = Objects.requireNonNull(buffer, "buffer");
+        this.capacity = buffer.capacity();
+    }
+
+    static SegmentFile create(Path path, long sequence, int capacity) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            return new SegmentFile(path, sequence, buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("segment create failed. path:" + path, e);
+        }
+    }
+
+    static SegmentFile open(Path path, long sequence, boolean readOnly) {
+        final StandardOpenOption[] options = readOnly ?
+                new StandardOpenOption[]{StandardOpenOption.READ} :
+                new StandardOpenOption[]{StandardOpenOption.READ, StandardOpenOption.WRITE};
+        try (FileChannel channel = FileChannel.open(path, options)) {
+            final FileChannel.MapMode mapMode = readOnly ? FileChannel.MapMode.READ_ONLY : FileChannel.MapMode.READ_WRITE;
+            MappedByteBuffer buffer = channel.map(mapMode, 0, channel.size());
+            return new SegmentFile(path, sequence, buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("segment open failed. path:" + path, e);
+        }
+    }
+
+    static int recordSize(byte[] key, byte[] value) {
+        return RECORD_HEADER_SIZE + BODY_HEADER_SIZE + key.length + value.length;
+    }
+
+    /**
+     * @return offset of the record, or -1 if the segment has no room left
+     */
+    int append(byte[] key, long timestamp, byte[] value) {
+        final int offset = this.position;
+        final int recordSize = recordSize(key, value);
+        if (offset + recordSize > capacity) {
+            return -1;
+        }
+        final ByteBuffer view = buffer.duplicate();
+        view.position(offset + RECORD_HEADER_SIZE);
+        view.putLong(timestamp);
+        view.putInt(key.length);
+        view.put(key);
+        view.put(value);
+        // publish
+        buffer.putInt(offset, recordSize - RECORD_HEADER_SIZE);
+        this.position = offset + recordSize;
+        return offset;
+    }
+
+    /**
+     * Reads the records written after the last scan.
+     */
+    void scan(RecordVisitor visitor) {
+        int offset = this.position;
+        while (offset + RECORD_HEADER_SIZE + BODY_HEADER_SIZE <= capacity) {
+            final int bodyLength = buffer.getInt(offset);
+            if (bodyLength <= 0) {
+                break;
+            }
+            final long timestamp = buffer.getLong(offset + RECORD_HEADER_SIZE);
+            final int keyLength = buffer.getInt(offset + RECORD_HEADER_SIZE + 8);
+            final byte[] key = copy(offset + RECORD_HEADER_SIZE + BODY_HEADER_SIZE, keyLength);
+            visitor.visit(key, timestamp, offset);
+            offset += RECORD_HEADER_SIZE + bodyLength;
+        }
+        this.position = offset;
+    }
+
+    SegmentRecord read(int offset) {
+        final int bodyLength = buffer.getInt(offset);
+        final long timestamp = buffer.getLong(offset + RECORD_HEADER_SIZE);
+        final int keyLength = buffer.getInt(offset + RECORD_HEADER_SIZE + 8);
+        final int keyOffset = offset + RECORD_HEADER_SIZE + BODY_HEADER_SIZE;
+
+        final byte[] key = copy(keyOffset, keyLength);
+        final byte[] value = copy(keyOffset + keyLength, bodyLength - BODY_HEADER_SIZE - keyLength);
+        return new SegmentRecord(key, timestamp, value);
+    }
+
+    private byte[] copy(int offset, int length) {
+        final byte[] bytes = new byte[length];
+        final ByteBuffer view = buffer.duplicate();
+        view.position(offset);
+        view.get(bytes);
+        return bytes;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    void delete() {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("segment delete failed. path:" + path, e);
+        }
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+
+    int getPosition() {
+        return position;
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    interface RecordVisitor {
+        void visit(byte[] key, long timestamp, int offset);
+    }
+
+    @Override
+    public String toString() {
+        return "SegmentFile{" +
+                "path=" + path +
+                ", position=" + position +
+                ", capacity=" + capacity +
+                '}';
+    }
+}
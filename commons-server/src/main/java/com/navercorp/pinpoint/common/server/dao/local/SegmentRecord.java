@@ -0,0 +1,53 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.common.server.dao.local;
+
+import java.util.Objects;
+
+public class SegmentRecord {
+    private final byte[] key;
+    private final long timestamp;
+    private final byte[] value;
+
+    public SegmentRecord(byte[] key, long timestamp, byte[] value) {
+        this.key = Objects.requireNonNull(key, "key");
+        this.timestamp = timestamp;
+        this.value = Objects.requireNonNull(value, "value");
+    }
+
+    public byte[] getKey() {
+        return key;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public byte[] getValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return "SegmentRecord{" +
+                "keyLength=" + key.length +
+                ", timestamp=" + timestamp +
+                ", valueLength=" + value.length +
+                '}';
+    }
+}
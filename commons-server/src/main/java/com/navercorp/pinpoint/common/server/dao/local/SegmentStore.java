@@ -0,0 +1,480 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.common.server.dao.local;
+
+import com.navercorp.pinpoint.common.profiler.concurrent.PinpointThreadFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append-only local store made of memory-mapped segment files, partitioned by record timestamp.
+ * <pre>
+ * {directory}/{name}/{partitionStartTime}/{sequence}.segment
+ * </pre>
+ * Each partition keeps an in-memory index from record key to record offsets, rebuilt from the segments on open.
+ * Retention drops whole partitions, so no segment is ever rewritten.
+ * <p>
+ * A read-only store follows the segments written by another process and picks up new records
+ * on the first read after the refresh interval.
+ * Retention runs on its own timer, and also when the writer opens a new partition.
+ */
+public class SegmentStore implements AutoCloseable {
+
+    private static final String SEGMENT_SUFFIX = ".segment";
+
+    private static final Comparator<Pointer> FORWARD = Comparator.comparingLong(Pointer::getTimestamp);
+    private static final Comparator<Pointer> BACKWARD = FORWARD.reversed();
+
+    private final Logger logger = LogManager.getLogger(this.getClass());
+
+    private final String name;
+    private final Path directory;
+    private final long partitionMillis;
+    private final int segmentSize;
+    private final long retentionMillis;
+    private final boolean readOnly;
+    private final long refreshIntervalMillis;
+
+    private final ConcurrentSkipListMap<Long, Partition> partitions = new ConcurrentSkipListMap<>();
+    private final ScheduledExecutorService compactScheduler;
+
+    private volatile long lastRefreshTime;
+    private volatile boolean closed = false;
+
+    public SegmentStore(String name, SegmentStoreProperties properties) {
+        this.name = Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(properties, "properties");
+        this.directory = Paths.get(properties.getDirectory(), name);
+        this.partitionMillis = properties.getPartitionMillis();
+        this.segmentSize = properties.getSegmentSize();
+        this.retentionMillis = properties.getRetentionMillis();
+        this.readOnly = properties.isReadOnly();
+        this.refreshIntervalMillis = properties.getRefreshIntervalMillis();
+
+        if (!readOnly) {
+            try {
+                Files.createDirectories(directory);
+            } catch (IOException e) {
+                throw new UncheckedIOException("store directory create failed. directory:" + directory, e);
+            }
+        }
+        loadPartitions();
+        this.lastRefreshTime = System.currentTimeMillis();
+        this.compactScheduler = newCompactScheduler(properties.getCompactIntervalMillis());
+        logger.info("SegmentStore {} opened. directory:{} partitions:{} readOnly:{}", name, directory, partitions.size(), readOnly);
+    }
+
+    private ScheduledExecutorService newCompactScheduler(long compactIntervalMillis) {
+        if (compactIntervalMillis == 0) {
+            return null;
+        }
+        final ScheduledExecutorService scheduler =
+                Executors.newSingleThreadScheduledExecutor(PinpointThreadFactory.createThreadFactory("SegmentStore-" + name, true));
+        scheduler.scheduleWithFixedDelay(this::compactSafely, compactIntervalMillis, compactIntervalMillis, TimeUnit.MILLISECONDS);
+        return scheduler;
+    }
+
+    private void compactSafely() {
+        try {
+            compact(System.currentTimeMillis());
+        } catch (Throwable th) {
+            logger.warn("SegmentStore {} compact failed", name, th);
+        }
+    }
+
+    /**
+     * @return false if the timestamp is already out of the retention period
+     */
+    public boolean append(byte[] key, long timestamp, byte[] value) {
+        Objects.requireNonNull(key, "key");
+        Objects.requireNonNull(value, "value");
+        checkOpen();
+        if (readOnly) {
+            throw new IllegalStateException("read-only store:" + name);
+        }
+
+        final long startTime = partitionStartTime(timestamp);
+        Partition partition = partitions.get(startTime);
+        if (partition == null) {
+            final long now = System.currentTimeMillis();
+            if (isExpired(startTime, now)) {
+                return false;
+            }
+            compact(now);
+            partition = partitions.computeIfAbsent(startTime, this::newPartition);
+        }
+        partition.append(key, timestamp, value);
+        return true;
+    }
+
+    /**
+     * @return all records of the key in timestamp partition order, append order within a partition
+     */
+    public List<SegmentRecord> get(byte[] key) {
+        Objects.requireNonNull(key, "key");
+        checkOpen();
+        refresh();
+
+        final ByteBuffer indexKey = ByteBuffer.wrap(key);
+        final List<SegmentRecord> records = new ArrayList<>();
+        for (Partition partition : partitions.values()) {
+            final Queue<Pointer> pointers = partition.getPointers(indexKey);
+            if (pointers == null) {
+                continue;
+            }
+            for (Pointer pointer : pointers) {
+                records.add(pointer.read());
+            }
+        }
+        return records;
+    }
+
+    /**
+     * @return records of the key with {@code from <= timestamp <= to}, ordered by timestamp
+     */
+    public List<SegmentRecord> scan(byte[] key, long from, long to, int limit, boolean backward) {
+        Objects.requireNonNull(key, "key");
+        if (limit < 0) {
+            throw new IllegalArgumentException("negative limit:" + limit);
+        }
+        checkOpen();
+        refresh();
+
+        NavigableMap<Long, Partition> range = partitions.subMap(partitionStartTime(from), true, partitionStartTime(to), true);
+        if (backward) {
+            range = range.descendingMap();
+        }
+
+        final ByteBuffer indexKey = ByteBuffer.wrap(key);
+        final List<SegmentRecord> records = new ArrayList<>();
+        for (Partition partition : range.values()) {
+            final Queue<Pointer> pointers = partition.getPointers(indexKey);
+            if (pointers == null) {
+                continue;
+            }
+            // partitions do not overlap, so ordering inside the partition is enough
+            final List<Pointer> matched = new ArrayList<>();
+            for (Pointer pointer : pointers) {
+                if (pointer.getTimestamp() >= from && pointer.getTimestamp() <= to) {
+                    matched.add(pointer);
+                }
+            }
+            matched.sort(backward ? BACKWARD : FORWARD);
+            for (Pointer pointer : matched) {
+                if (records.size() >= limit) {
+                    return records;
+                }
+                records.add(pointer.read());
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Drops the partitions that ended before the retention period.
+     * @return number of dropped partitions
+     */
+    public synchronized int compact(long now) {
+        int dropped = 0;
+        final Iterator<Map.Entry<Long, Partition>> iterator = partitions.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<Long, Partition> entry = iterator.next();
+            if (!isExpired(entry.getKey(), now)) {
+                break;
+            }
+            iterator.remove();
+            if (!readOnly) {
+                entry.getValue().delete();
+            }
+            dropped++;
+        }
+        if (dropped > 0) {
+            logger.info("SegmentStore {} dropped {} partitions", name, dropped);
+        }
+        return dropped;
+    }
+
+    private boolean isExpired(long partitionStartTime, long now) {
+        return partitionStartTime + partitionMillis <= now - retentionMillis;
+    }
+
+    int getPartitionCount() {
+        return partitions.size();
+    }
+
+    long partitionStartTime(long timestamp) {
+        return timestamp - Math.floorMod(timestamp, partitionMillis);
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("closed store:" + name);
+        }
+    }
+
+    private Partition newPartition(long startTime) {
+        final Path partitionDirectory = directory.resolve(Long.toString(startTime));
+        try {
+            Files.createDirectories(partitionDirectory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("partition directory create failed. directory:" + partitionDirectory, e);
+        }
+        return new Partition(startTime, partitionDirectory);
+    }
+
+    private void loadPartitions() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        final long now = System.currentTimeMillis();
+        final List<Long> found = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path path : stream) {
+                final Long startTime = parseLong(path.getFileName().toString());
+                if (startTime == null || !Files.isDirectory(path)) {
+                    continue;
+                }
+                if (readOnly && isExpired(startTime, now)) {
+                    // dropped by compact, left for the writer to delete
+                    continue;
+                }
+                found.add(startTime);
+                partitions.computeIfAbsent(startTime, key -> new Partition(key, path)).load();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("partition list failed. directory:" + directory, e);
+        }
+        if (readOnly) {
+            // deleted by the writer
+            partitions.keySet().retainAll(found);
+        }
+    }
+
+    private void refresh() {
+        if (!readOnly || !isRefreshTime()) {
+            return;
+        }
+        synchronized (this) {
+            if (!isRefreshTime()) {
+                return;
+            }
+            loadPartitions();
+            this.lastRefreshTime = System.currentTimeMillis();
+        }
+    }
+
+    private boolean isRefreshTime() {
+        return System.currentTimeMillis() - lastRefreshTime >= refreshIntervalMillis;
+    }
+
+    private static Long parseLong(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        this.closed = true;
+        if (compactScheduler != null) {
+            compactScheduler.shutdown();
+            try {
+                compactScheduler.awaitTermination(3000, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (!readOnly) {
+            for (Partition partition : partitions.values()) {
+                partition.force();
+            }
+        }
+        partitions.clear();
+        logger.info("SegmentStore {} closed", name);
+    }
+
+    private class Partition {
+        private final long startTime;
+        private final Path directory;
+
+        private final List<SegmentFile> segments = new CopyOnWriteArrayList<>();
+        private final ConcurrentMap<ByteBuffer, Queue<Pointer>> index = new ConcurrentHashMap<>();
+
+        // guarded by this
+        private SegmentFile active;
+        private long nextSequence = 0;
+
+        Partition(long startTime, Path directory) {
+            this.startTime = startTime;
+            this.directory = Objects.requireNonNull(directory, "directory");
+        }
+
+        synchronized void append(byte[] key, long timestamp, byte[] value) {
+            int offset = active == null ? -1 : active.append(key, timestamp, value);
+            if (offset < 0) {
+                final int capacity = Math.max(segmentSize, SegmentFile.recordSize(key, value));
+                final Path path = directory.resolve(segmentName(nextSequence));
+                this.active = SegmentFile.create(path, nextSequence++, capacity);
+                segments.add(active);
+                offset = active.append(key, timestamp, value);
+            }
+            addIndex(key, new Pointer(active, offset, timestamp));
+        }
+
+        Queue<Pointer> getPointers(ByteBuffer key) {
+            return index.get(key);
+        }
+
+        private void addIndex(byte[] key, Pointer pointer) {
+            index.computeIfAbsent(ByteBuffer.wrap(key), k -> new ConcurrentLinkedQueue<>()).add(pointer);
+        }
+
+        /**
+         * Opens the segments not seen yet and indexes the records appended since the last load.
+         */
+        synchronized void load() {
+            final List<Path> paths = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+                for (Path path : stream) {
+                    paths.add(path);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("segment list failed. directory:" + directory, e);
+            }
+            paths.sort(Comparator.naturalOrder());
+
+            for (Path path : paths) {
+                final Long sequence = parseLong(stripSuffix(path.getFileName().toString()));
+                if (sequence == null || sequence < nextSequence) {
+                    continue;
+                }
+                if (isEmptyFile(path)) {
+                    // not mapped by the writer yet
+                    break;
+                }
+                segments.add(SegmentFile.open(path, sequence, true));
+                this.nextSequence = sequence + 1;
+            }
+            for (SegmentFile segment : segments) {
+                segment.scan((key, timestamp, offset) -> addIndex(key, new Pointer(segment, offset, timestamp)));
+            }
+        }
+
+        synchronized void force() {
+            if (active != null) {
+                active.force();
+            }
+        }
+
+        synchronized void delete() {
+            for (SegmentFile segment : segments) {
+                segment.delete();
+            }
+            try {
+                Files.deleteIfExists(directory);
+            } catch (IOException e) {
+                logger.warn("partition directory delete failed. directory:{}", directory, e);
+            }
+        }
+
+        private boolean isEmptyFile(Path path) {
+            try {
+                return Files.size(path) == 0;
+            } catch (IOException e) {
+                return true;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "Partition{" +
+                    "startTime=" + startTime +
+                    ", segments=" + segments.size() +
+                    '}';
+        }
+    }
+
+    private static String segmentName(long sequence) {
+        return String.format("%012d%s", sequence, SEGMENT_SUFFIX);
+    }
+
+    private static String stripSuffix(String fileName) {
+        if (fileName.endsWith(SEGMENT_SUFFIX)) {
+            return fileName.substring(0, fileName.length() - SEGMENT_SUFFIX.length());
+        }
+        return fileName;
+    }
+
+    private static class Pointer {
+        private final SegmentFile segment;
+        private final int offset;
+        private final long timestamp;
+
+        Pointer(SegmentFile segment, int offset, long timestamp) {
+            this.segment = segment;
+            this.offset = offset;
+            this.timestamp = timestamp;
+        }
+
+        long getTimestamp() {
+            return timestamp;
+        }
+
+        SegmentRecord read() {
+            return segment.read(offset);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "SegmentStore{" +
+                "name='" + name + '\'' +
+                ", directory=" + directory +
+                ", partitions=" + partitions.size() +
+                '}';
+    }
+}
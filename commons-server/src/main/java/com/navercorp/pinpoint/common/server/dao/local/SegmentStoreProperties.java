@@ -0,0 +1,175 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.common.server.dao.local;
+
+import java.util.concurrent.TimeUnit;
+
+public class SegmentStoreProperties {
+    private final String directory;
+    private final long partitionMillis;
+    private final int segmentSize;
+    private final long retentionMillis;
+    private final boolean readOnly;
+    private final long refreshIntervalMillis;
+    private final long compactIntervalMillis;
+
+    SegmentStoreProperties(String directory, long partitionMillis, int segmentSize, long retentionMillis, boolean readOnly,
+                           long refreshIntervalMillis, long compactIntervalMillis) {
+        this.directory = directory;
+        this.partitionMillis = partitionMillis;
+        this.segmentSize = segmentSize;
+        this.retentionMillis = retentionMillis;
+        this.readOnly = readOnly;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+        this.compactIntervalMillis = compactIntervalMillis;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public long getPartitionMillis() {
+        return partitionMillis;
+    }
+
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    public long getRetentionMillis() {
+        return retentionMillis;
+    }
+
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * Minimum interval between two directory reloads of a read-only store.
+     */
+    public long getRefreshIntervalMillis() {
+        return refreshIntervalMillis;
+    }
+
+    /**
+     * Interval of the retention check, 0 disables it.
+     */
+    public long getCompactIntervalMillis() {
+        return compactIntervalMillis;
+    }
+
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private String directory = "./pinpoint-local-store";
+        private long partitionMillis = TimeUnit.HOURS.toMillis(1);
+        private int segmentSize = 64 * 1024 * 1024;
+        private long retentionMillis = TimeUnit.DAYS.toMillis(2);
+        private boolean readOnly = false;
+        private long refreshIntervalMillis = 1000;
+        private long compactIntervalMillis = TimeUnit.MINUTES.toMillis(1);
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public long getPartitionMillis() {
+            return partitionMillis;
+        }
+
+        public void setPartitionMillis(long partitionMillis) {
+            this.partitionMillis = partitionMillis;
+        }
+
+        public int getSegmentSize() {
+            return segmentSize;
+        }
+
+        public void setSegmentSize(int segmentSize) {
+            this.segmentSize = segmentSize;
+        }
+
+        public long getRetentionMillis() {
+            return retentionMillis;
+        }
+
+        public void setRetentionMillis(long retentionMillis) {
+            this.retentionMillis = retentionMillis;
+        }
+
+        public boolean isReadOnly() {
+            return readOnly;
+        }
+
+        public void setReadOnly(boolean readOnly) {
+            this.readOnly = readOnly;
+        }
+
+        public long getRefreshIntervalMillis() {
+            return refreshIntervalMillis;
+        }
+
+        public void setRefreshIntervalMillis(long refreshIntervalMillis) {
+            this.refreshIntervalMillis = refreshIntervalMillis;
+        }
+
+        public long getCompactIntervalMillis() {
+            return compactIntervalMillis;
+        }
+
+        public void setCompactIntervalMillis(long compactIntervalMillis) {
+            this.compactIntervalMillis = compactIntervalMillis;
+        }
+
+        public SegmentStoreProperties build() {
+            if (partitionMillis <= 0) {
+                throw new IllegalArgumentException("partitionMillis must be positive. partitionMillis:" + partitionMillis);
+            }
+            if (segmentSize <= 0) {
+                throw new IllegalArgumentException("segmentSize must be positive. segmentSize:" + segmentSize);
+            }
+            if (refreshIntervalMillis < 0) {
+                throw new IllegalArgumentException("negative refreshIntervalMillis:" + refreshIntervalMillis);
+            }
+            if (compactIntervalMillis < 0) {
+                throw new IllegalArgumentException("negative compactIntervalMillis:" + compactIntervalMillis);
+            }
+            return new SegmentStoreProperties(this.directory, this.partitionMillis, this.segmentSize, this.retentionMillis, this.readOnly,
+                    this.refreshIntervalMillis, this.compactIntervalMillis);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "SegmentStoreProperties{" +
+                "directory='" + directory + '\'' +
+                ", partitionMillis=" + partitionMillis +
+                ", segmentSize=" + segmentSize +
+                ", retentionMillis=" + retentionMillis +
+                ", readOnly=" + readOnly +
+                ", refreshIntervalMillis=" + refreshIntervalMillis +
+                ", compactIntervalMillis=" + compactIntervalMillis +
+                '}';
+    }
+}
@@ -0,0 +1,338 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.server.scatter;
+
+import com.navercorp.pinpoint.common.profiler.util.TransactionId;
+import com.navercorp.pinpoint.common.server.bo.SpanBo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Scatter dots of one application trace index row, stored by column.
+ * <p>
+ * Strings are kept once per block in a dictionary, a dot holds the index of its strings.
+ * The meta data columns (span id, start time, rpc, remote address, end point, agent name) are optional on read.
+ *
+ * @see ScatterBlockCodec
+ */
+public class ScatterBlock {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int size;
+
+    private long[] acceptedTimes;
+    private int[] elapsed;
+    private int[] errorCodes;
+    private int[] agentIds;
+    private int[] transactionAgentIds;
+    private long[] transactionAgentStartTimes;
+    private long[] transactionSequences;
+    private final Dictionary dictionary;
+
+    private boolean hasMetaData;
+    private long[] spanIds;
+    private long[] startTimes;
+    private int[] rpcs;
+    private int[] remoteAddrs;
+    private int[] endPoints;
+    private int[] agentNames;
+    private final Dictionary metaDictionary;
+
+    public ScatterBlock() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    ScatterBlock(int capacity) {
+        this.dictionary = new Dictionary();
+        this.metaDictionary = new Dictionary();
+        allocateIndex(capacity);
+        allocateMetaData(capacity);
+        this.hasMetaData = true;
+    }
+
+    ScatterBlock(int size, String[] dictionary) {
+        this.size = size;
+        this.dictionary = new Dictionary(dictionary);
+        this.metaDictionary = new Dictionary();
+        allocateIndex(size);
+    }
+
+    private void allocateIndex(int capacity) {
+        this.acceptedTimes = new long[capacity];
+        this.elapsed = new int[capacity];
+        this.errorCodes = new int[capacity];
+        this.agentIds = new int[capacity];
+        this.transactionAgentIds = new int[capacity];
+        this.transactionAgentStartTimes = new long[capacity];
+        this.transactionSequences = new long[capacity];
+    }
+
+    private void allocateMetaData(int capacity) {
+        this.spanIds = new long[capacity];
+        this.startTimes = new long[capacity];
+        this.rpcs = new int[capacity];
+        this.remoteAddrs = new int[capacity];
+        this.endPoints = new int[capacity];
+        this.agentNames = new int[capacity];
+    }
+
+    void setMetaData(String[] metaDictionary) {
+        this.metaDictionary.set(metaDictionary);
+        allocateMetaData(size);
+        this.hasMetaData = true;
+    }
+
+    public void add(SpanBo span, long acceptedTime) {
+        Objects.requireNonNull(span, "span");
+        if (dictionary.indexes == null) {
+            throw new IllegalStateException("decoded block is read only");
+        }
+        ensureCapacity(size + 1);
+
+        final int index = size++;
+        acceptedTimes[index] = acceptedTime;
+        elapsed[index] = span.getElapsed();
+        errorCodes[index] = span.getErrCode();
+        agentIds[index] = dictionary.add(span.getAgentId());
+
+        final TransactionId transactionId = span.getTransactionId();
+        final String transactionAgentId = transactionId.getAgentId();
+        transactionAgentIds[index] = dictionary.add(transactionAgentId != null ? transactionAgentId : span.getAgentId());
+        transactionAgentStartTimes[index] = transactionId.getAgentStartTime();
+        transactionSequences[index] = transactionId.getTransactionSequence();
+
+        spanIds[index] = span.getSpanId();
+        startTimes[index] = span.getStartTime();
+        rpcs[index] = metaDictionary.add(span.getRpc());
+        remoteAddrs[index] = metaDictionary.add(span.getRemoteAddr());
+        endPoints[index] = metaDictionary.add(span.getEndPoint());
+        agentNames[index] = metaDictionary.add(span.getAgentName());
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= acceptedTimes.length) {
+            return;
+        }
+        final int newCapacity = Math.max(acceptedTimes.length << 1, capacity);
+        acceptedTimes = Arrays.copyOf(acceptedTimes, newCapacity);
+        elapsed = Arrays.copyOf(elapsed, newCapacity);
+        errorCodes = Arrays.copyOf(errorCodes, newCapacity);
+        agentIds = Arrays.copyOf(agentIds, newCapacity);
+        transactionAgentIds = Arrays.copyOf(transactionAgentIds, newCapacity);
+        transactionAgentStartTimes = Arrays.copyOf(transactionAgentStartTimes, newCapacity);
+        transactionSequences = Arrays.copyOf(transactionSequences, newCapacity);
+
+        spanIds = Arrays.copyOf(spanIds, newCapacity);
+        startTimes = Arrays.copyOf(startTimes, newCapacity);
+        rpcs = Arrays.copyOf(rpcs, newCapacity);
+        remoteAddrs = Arrays.copyOf(remoteAddrs, newCapacity);
+        endPoints = Arrays.copyOf(endPoints, newCapacity);
+        agentNames = Arrays.copyOf(agentNames, newCapacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean hasMetaData() {
+        return hasMetaData;
+    }
+
+    public long getMaxAcceptedTime() {
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            max = Math.max(max, acceptedTimes[i]);
+        }
+        return max;
+    }
+
+    public long getAcceptedTime(int index) {
+        return acceptedTimes[checkIndex(index)];
+    }
+
+    public int getElapsed(int index) {
+        return elapsed[checkIndex(index)];
+    }
+
+    public int getErrorCode(int index) {
+        return errorCodes[checkIndex(index)];
+    }
+
+    public String getAgentId(int index) {
+        return dictionary.get(agentIds[checkIndex(index)]);
+    }
+
+    public TransactionId getTransactionId(int index) {
+        checkIndex(index);
+        return new TransactionId(dictionary.get(transactionAgentIds[index]), transactionAgentStartTimes[index], transactionSequences[index]);
+    }
+
+    public long getSpanId(int index) {
+        return spanIds[checkMetaData(index)];
+    }
+
+    public long getStartTime(int index) {
+        return startTimes[checkMetaData(index)];
+    }
+
+    public String getRpc(int index) {
+        return metaDictionary.get(rpcs[checkMetaData(index)]);
+    }
+
+    public String getRemoteAddr(int index) {
+        return metaDictionary.get(remoteAddrs[checkMetaData(index)]);
+    }
+
+    public String getEndPoint(int index) {
+        return metaDictionary.get(endPoints[checkMetaData(index)]);
+    }
+
+    public String getAgentName(int index) {
+        return metaDictionary.get(agentNames[checkMetaData(index)]);
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index:" + index + " size:" + size);
+        }
+        return index;
+    }
+
+    private int checkMetaData(int index) {
+        if (!hasMetaData) {
+            throw new IllegalStateException("meta data is not read");
+        }
+        return checkIndex(index);
+    }
+
+    // raw columns for ScatterBlockCodec
+
+    long[] acceptedTimes() {
+        return acceptedTimes;
+    }
+
+    int[] elapsed() {
+        return elapsed;
+    }
+
+    int[] errorCodes() {
+        return errorCodes;
+    }
+
+    int[] agentIds() {
+        return agentIds;
+    }
+
+    int[] transactionAgentIds() {
+        return transactionAgentIds;
+    }
+
+    long[] transactionAgentStartTimes() {
+        return transactionAgentStartTimes;
+    }
+
+    long[] transactionSequences() {
+        return transactionSequences;
+    }
+
+    List<String> dictionary() {
+        return dictionary.values;
+    }
+
+    long[] spanIds() {
+        return spanIds;
+    }
+
+    long[] startTimes() {
+        return startTimes;
+    }
+
+    int[] rpcs() {
+        return rpcs;
+    }
+
+    int[] remoteAddrs() {
+        return remoteAddrs;
+    }
+
+    int[] endPoints() {
+        return endPoints;
+    }
+
+    int[] agentNames() {
+        return agentNames;
+    }
+
+    List<String> metaDictionary() {
+        return metaDictionary.values;
+    }
+
+    private static class Dictionary {
+        private final List<String> values;
+        // only used to build the block
+        private final Map<String, Integer> indexes;
+
+        private Dictionary() {
+            this.values = new ArrayList<>();
+            this.indexes = new HashMap<>();
+        }
+
+        private Dictionary(String[] values) {
+            this.values = new ArrayList<>(Arrays.asList(values));
+            this.indexes = null;
+        }
+
+        private void set(String[] values) {
+            this.values.clear();
+            this.values.addAll(Arrays.asList(values));
+        }
+
+        private int add(String value) {
+            final Integer index = indexes.get(value);
+            if (index != null) {
+                return index;
+            }
+            final int newIndex = values.size();
+            values.add(value);
+            indexes.put(value, newIndex);
+            return newIndex;
+        }
+
+        private String get(int index) {
+            return values.get(index);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ScatterBlock{" +
+                "size=" + size +
+                ", dictionary=" + dictionary.values.size() +
+                ", hasMetaData=" + hasMetaData +
+                '}';
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.server.scatter;
+
+import com.navercorp.pinpoint.common.buffer.AutomaticBuffer;
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.buffer.OffsetFixedBuffer;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Cell format of {@link ScatterBlock}.
+ * <pre>
+ * qualifier : BLOCK_MARKER(1) writerId(8) sequence(vlong)
+ * index     : version(1) size(vint) dictionary acceptedTime(svlong delta) elapsed(vint) errorCode(svint)
+ *             agentId(vint) transactionAgentId(vint) transactionAgentStartTime(svlong delta) transactionSequence(svlong delta)
+ * meta      : version(1) size(vint) dictionary spanId(long) startTime(svlong delta)
+ *             rpc(vint) remoteAddr(vint) endPoint(vint) agentName(vint)
+ * dictionary: count(vint) prefixedString...
+ * </pre>
+ * Each column is written for every dot before the next column starts, so similar values sit next to each other.
+ * A row key written in the block format covers {@link #BLOCK_TIME_SPAN_MILLIS} of accepted time,
+ * starting at {@link #getBlockTime(long)}.
+ */
+public final class ScatterBlockCodec {
+
+    public static final byte VERSION = 1;
+
+    /**
+     * The first byte of a row format qualifier is the length prefix of the agentId (zigzag varint of at most 24 bytes),
+     * so it never collides with this marker.
+     */
+    public static final byte BLOCK_MARKER = (byte) 0xFF;
+
+    public static final long BLOCK_TIME_SPAN_MILLIS = 1000;
+
+    private ScatterBlockCodec() {
+    }
+
+    public static long getBlockTime(long acceptedTime) {
+        return acceptedTime - (acceptedTime % BLOCK_TIME_SPAN_MILLIS);
+    }
+
+    public static byte[] encodeQualifier(long writerId, long sequence) {
+        final Buffer buffer = new AutomaticBuffer(16);
+        buffer.putByte(BLOCK_MARKER);
+        buffer.putLong(writerId);
+        buffer.putVLong(sequence);
+        return buffer.getBuffer();
+    }
+
+    public static boolean isBlockQualifier(byte[] qualifier) {
+        Objects.requireNonNull(qualifier, "qualifier");
+        return isBlockQualifier(qualifier, 0, qualifier.length);
+    }
+
+    public static boolean isBlockQualifier(byte[] array, int offset, int length) {
+        return length > 0 && array[offset] == BLOCK_MARKER;
+    }
+
+    public static byte[] encodeIndex(ScatterBlock block) {
+        Objects.requireNonNull(block, "block");
+        final int size = block.size();
+        final Buffer buffer = new AutomaticBuffer(size * 12 + 64);
+        buffer.putByte(VERSION);
+        buffer.putVInt(size);
+        writeDictionary(buffer, block.dictionary());
+
+        writeDelta(buffer, block.acceptedTimes(), size);
+        final int[] elapsed = block.elapsed();
+        for (int i = 0; i < size; i++) {
+            buffer.putVInt(elapsed[i]);
+        }
+        final int[] errorCodes = block.errorCodes();
+        for (int i = 0; i < size; i++) {
+            buffer.putSVInt(errorCodes[i]);
+        }
+        writeIndexes(buffer, block.agentIds(), size);
+        writeIndexes(buffer, block.transactionAgentIds(), size);
+        writeDelta(buffer, block.transactionAgentStartTimes(), size);
+        writeDelta(buffer, block.transactionSequences(), size);
+        return buffer.getBuffer();
+    }
+
+    public static byte[] encodeMetaData(ScatterBlock block) {
+        Objects.requireNonNull(block, "block");
+        if (!block.hasMetaData()) {
+            throw new IllegalStateException("block has no meta data");
+        }
+        final int size = block.size();
+        final Buffer buffer = new AutomaticBuffer(size * 16 + 64);
+        buffer.putByte(VERSION);
+        buffer.putVInt(size);
+        writeDictionary(buffer, block.metaDictionary());
+
+        final long[] spanIds = block.spanIds();
+        for (int i = 0; i < size; i++) {
+            buffer.putLong(spanIds[i]);
+        }
+        writeDelta(buffer, block.startTimes(), size);
+        writeIndexes(buffer, block.rpcs(), size);
+        writeIndexes(buffer, block.remoteAddrs(), size);
+        writeIndexes(buffer, block.endPoints(), size);
+        writeIndexes(buffer, block.agentNames(), size);
+        return buffer.getBuffer();
+    }
+
+    public static ScatterBlock decodeIndex(byte[] array, int offset, int length) {
+        final Buffer buffer = new OffsetFixedBuffer(array, offset, length);
+        checkVersion(buffer.readByte());
+        final int size = buffer.readVInt();
+        final String[] dictionary = readDictionary(buffer);
+
+        final ScatterBlock block = new ScatterBlock(size, dictionary);
+        readDelta(buffer, block.acceptedTimes(), size);
+        final int[] elapsed = block.elapsed();
+        for (int i = 0; i < size; i++) {
+            elapsed[i] = buffer.readVInt();
+        }
+        final int[] errorCodes = block.errorCodes();
+        for (int i = 0; i < size; i++) {
+            errorCodes[i] = buffer.readSVInt();
+        }
+        readIndexes(buffer, block.agentIds(), size, dictionary.length);
+        readIndexes(buffer, block.transactionAgentIds(), size, dictionary.length);
+        readDelta(buffer, block.transactionAgentStartTimes(), size);
+        readDelta(buffer, block.transactionSequences(), size);
+        return block;
+    }
+
+    /**
+     * Reads the meta data cell into a block decoded by {@link #decodeIndex(byte[], int, int)}
+     */
+    public static void decodeMetaData(ScatterBlock block, byte[] array, int offset, int length) {
+        Objects.requireNonNull(block, "block");
+        final Buffer buffer = new OffsetFixedBuffer(array, offset, length);
+        checkVersion(buffer.readByte());
+        final int size = buffer.readVInt();
+        if (size != block.size()) {
+            throw new IllegalArgumentException("size mismatch. index:" + block.size() + " meta:" + size);
+        }
+        final String[] dictionary = readDictionary(buffer);
+        block.setMetaData(dictionary);
+
+        final long[] spanIds = block.spanIds();
+        for (int i = 0; i < size; i++) {
+            spanIds[i] = buffer.readLong();
+        }
+        readDelta(buffer, block.startTimes(), size);
+        readIndexes(buffer, block.rpcs(), size, dictionary.length);
+        readIndexes(buffer, block.remoteAddrs(), size, dictionary.length);
+        readIndexes(buffer, block.endPoints(), size, dictionary.length);
+        readIndexes(buffer, block.agentNames(), size, dictionary.length);
+    }
+
+    private static void checkVersion(byte version) {
+        if (version != VERSION) {
+            throw new IllegalArgumentException("unsupported scatter block version:" + version);
+        }
+    }
+
+    private static void writeDictionary(Buffer buffer, List<String> dictionary) {
+        buffer.putVInt(dictionary.size());
+        for (String value : dictionary) {
+            buffer.putPrefixedString(value);
+        }
+    }
+
+    private static String[] readDictionary(Buffer buffer) {
+        final int count = buffer.readVInt();
+        if (count < 0) {
+            throw new IllegalArgumentException("invalid dictionary size:" + count);
+        }
+        final String[] dictionary = new String[count];
+        for (int i = 0; i < count; i++) {
+            dictionary[i] = buffer.readPrefixedString();
+        }
+        return dictionary;
+    }
+
+    private static void writeDelta(Buffer buffer, long[] values, int size) {
+        long prev = 0;
+        for (int i = 0; i < size; i++) {
+            buffer.putSVLong(values[i] - prev);
+            prev = values[i];
+        }
+    }
+
+    private static void readDelta(Buffer buffer, long[] values, int size) {
+        long prev = 0;
+        for (int i = 0; i < size; i++) {
+            prev += buffer.readSVLong();
+            values[i] = prev;
+        }
+    }
+
+    private static void writeIndexes(Buffer buffer, int[] indexes, int size) {
+        for (int i = 0; i < size; i++) {
+            buffer.putVInt(indexes[i]);
+        }
+    }
+
+    private static void readIndexes(Buffer buffer, int[] indexes, int size, int dictionarySize) {
+        for (int i = 0; i < size; i++) {
+            final int index = buffer.readVInt();
+            if (index < 0 || index >= dictionarySize) {
+                throw new IllegalArgumentException("invalid dictionary index:" + index);
+            }
+            indexes[i] = index;
+        }
+    }
+}
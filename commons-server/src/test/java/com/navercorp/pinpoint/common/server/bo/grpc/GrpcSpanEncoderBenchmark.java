@@ -0,0 +1,151 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.server.bo.grpc;
+
+import com.google.protobuf.StringValue;
+import com.navercorp.pinpoint.common.server.bo.SpanBo;
+import com.navercorp.pinpoint.common.server.bo.filter.SequenceSpanEventFilter;
+import com.navercorp.pinpoint.common.server.bo.serializer.trace.v2.SpanEncoderV0;
+import com.navercorp.pinpoint.common.server.bo.serializer.trace.v2.SpanSerializerV2;
+import com.navercorp.pinpoint.grpc.trace.PAcceptEvent;
+import com.navercorp.pinpoint.grpc.trace.PAnnotation;
+import com.navercorp.pinpoint.grpc.trace.PAnnotationValue;
+import com.navercorp.pinpoint.grpc.trace.PIntStringStringValue;
+import com.navercorp.pinpoint.grpc.trace.PMessageEvent;
+import com.navercorp.pinpoint.grpc.trace.PNextEvent;
+import com.navercorp.pinpoint.grpc.trace.PSpan;
+import com.navercorp.pinpoint.grpc.trace.PSpanEvent;
+import com.navercorp.pinpoint.grpc.trace.PTransactionId;
+import com.navercorp.pinpoint.io.SpanVersion;
+import org.apache.hadoop.hbase.client.Put;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the trace column encoding through {@link SpanBo} with the direct {@link GrpcSpan} encoding.
+ * <p>
+ * Run with {@code -prof gc} to compare the allocation rate.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GrpcSpanEncoderBenchmark {
+
+    @Param({"0", "20", "200"})
+    private int spanEventCount;
+
+    private final BindAttribute attribute = new BindAttribute("agentId", "applicationName", 88, System.currentTimeMillis());
+
+    private final GrpcSpanFactory factory = new CollectorGrpcSpanFactory(new GrpcSpanBinder(), new SequenceSpanEventFilter());
+
+    private final SpanEncoderV0 spanEncoder = new SpanEncoderV0();
+    private final SpanSerializerV2 spanSerializer = new SpanSerializerV2(spanEncoder);
+    private final GrpcSpanSerializer grpcSpanSerializer = new GrpcSpanSerializer(new GrpcSpanEncoder(spanEncoder));
+
+    private final byte[] rowKey = new byte[]{1, 2, 3, 4};
+
+    private PSpan pSpan;
+
+    @Setup
+    public void setup() {
+        PSpan.Builder builder = PSpan.newBuilder();
+        builder.setVersion(SpanVersion.TRACE_V2);
+        builder.setTransactionId(PTransactionId.newBuilder().setAgentStartTime(88).setSequence(1));
+        builder.setSpanId(10);
+        builder.setParentSpanId(-1);
+        builder.setStartTime(attribute.getAcceptedTime() - 100);
+        builder.setElapsed(100);
+        builder.setServiceType(1010);
+        builder.setApplicationServiceType(1000);
+        builder.setAcceptEvent(PAcceptEvent.newBuilder()
+                .setRpc("/api/v1/orders")
+                .setEndPoint("localhost:8080")
+                .setRemoteAddr("127.0.0.1"));
+
+        for (int i = 0; i < spanEventCount; i++) {
+            PSpanEvent.Builder event = PSpanEvent.newBuilder();
+            event.setSequence(i);
+            event.setDepth(i % 4 + 1);
+            event.setStartElapsed(1);
+            event.setEndElapsed(2);
+            event.setServiceType(i % 2 == 0 ? 5000 : 2101);
+            event.setApiId(i);
+            if (i % 2 != 0) {
+                PMessageEvent messageEvent = PMessageEvent.newBuilder()
+                        .setDestinationId("orderdb")
+                        .setEndPoint("db.local:3306")
+                        .build();
+                event.setNextEvent(PNextEvent.newBuilder().setMessageEvent(messageEvent));
+
+                PIntStringStringValue sql = PIntStringStringValue.newBuilder()
+                        .setIntValue(i)
+                        .setStringValue1(StringValue.of("1, 'order', 2023-01-01"))
+                        .build();
+                event.addAnnotation(newAnnotation(20, PAnnotationValue.newBuilder().setIntStringStringValue(sql).build()));
+            }
+            event.addAnnotation(newAnnotation(-1, PAnnotationValue.newBuilder().setStringValue("argument-" + i).build()));
+            builder.addSpanEvent(event);
+        }
+        this.pSpan = builder.build();
+    }
+
+    private PAnnotation newAnnotation(int key, PAnnotationValue value) {
+        return PAnnotation.newBuilder().setKey(key).setValue(value).build();
+    }
+
+    @Benchmark
+    public Put spanBo() {
+        final SpanBo spanBo = factory.buildSpanBo(pSpan, attribute);
+        final Put put = new Put(rowKey, attribute.getAcceptedTime());
+        spanSerializer.serialize(spanBo, put, null);
+        return put;
+    }
+
+    @Benchmark
+    public Put grpcSpan() {
+        final GrpcSpan grpcSpan = factory.buildGrpcSpan(pSpan, attribute);
+        final Put put = new Put(rowKey, attribute.getAcceptedTime());
+        grpcSpanSerializer.serialize(grpcSpan, put, null);
+        return put;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(GrpcSpanEncoderBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.server.bo.grpc;
+
+import com.google.protobuf.StringValue;
+import com.navercorp.pinpoint.common.buffer.AutomaticBuffer;
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.server.bo.SpanBo;
+import com.navercorp.pinpoint.common.server.bo.filter.SequenceSpanEventFilter;
+import com.navercorp.pinpoint.common.server.bo.serializer.trace.v2.SpanEncoderV0;
+import com.navercorp.pinpoint.common.server.bo.serializer.trace.v2.SpanEncodingContext;
+import com.navercorp.pinpoint.grpc.trace.PAcceptEvent;
+import com.navercorp.pinpoint.grpc.trace.PAnnotation;
+import com.navercorp.pinpoint.grpc.trace.PAnnotationValue;
+import com.navercorp.pinpoint.grpc.trace.PIntStringStringValue;
+import com.navercorp.pinpoint.grpc.trace.PIntStringValue;
+import com.navercorp.pinpoint.grpc.trace.PMessageEvent;
+import com.navercorp.pinpoint.grpc.trace.PNextEvent;
+import com.navercorp.pinpoint.grpc.trace.PParentInfo;
+import com.navercorp.pinpoint.grpc.trace.PSpan;
+import com.navercorp.pinpoint.grpc.trace.PSpanEvent;
+import com.navercorp.pinpoint.grpc.trace.PTransactionId;
+import com.navercorp.pinpoint.io.SpanVersion;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+public class GrpcSpanEncoderTest {
+
+    private static final int MAX_SEQUENCE = 10;
+
+    private final GrpcSpanFactory factory = new CollectorGrpcSpanFactory(new GrpcSpanBinder(), new SequenceSpanEventFilter(MAX_SEQUENCE));
+
+    private final SpanEncoderV0 spanEncoder = new SpanEncoderV0();
+    private final GrpcSpanEncoder grpcSpanEncoder = new GrpcSpanEncoder(spanEncoder);
+
+    private final BindAttribute attribute = new BindAttribute("agentId", "applicationName", 88, System.currentTimeMillis());
+
+    @Test
+    public void encode_simpleSpan() {
+        PSpan pSpan = newSpan().build();
+
+        assertSameEncoding(pSpan);
+    }
+
+    @Test
+    public void encode_spanEvent() {
+        PSpan.Builder builder = newSpan();
+        builder.addSpanEvent(newEvent(0, 1, 10).setApiId(100).setAsyncEvent(3));
+        builder.addSpanEvent(newEvent(1, 2, 5)
+                .setNextEvent(newNextEvent(20, "destination", "endPoint"))
+                .addAnnotation(newAnnotation(12, PAnnotationValue.newBuilder().setStringValue("value").build())));
+        builder.addSpanEvent(newEvent(2, 0, 0)
+                .setExceptionInfo(PIntStringValue.newBuilder().setIntValue(7).setStringValue(StringValue.of("error")))
+                .addAnnotation(newAnnotation(-1, PAnnotationValue.newBuilder().setLongValue(5).build())));
+        builder.addSpanEvent(newEvent(4, 3, 1).setServiceType(2100));
+
+        assertSameEncoding(builder.build());
+    }
+
+    @Test
+    public void encode_unsortedSpanEvent() {
+        PSpan.Builder builder = newSpan();
+        builder.addSpanEvent(newEvent(3, 2, 3));
+        builder.addSpanEvent(newEvent(1, 1, 1)
+                .addAnnotation(newAnnotation(40, PAnnotationValue.newBuilder().setIntValue(1).build())));
+        builder.addSpanEvent(newEvent(2, 0, 2));
+
+        assertSameEncoding(builder.build());
+    }
+
+    @Test
+    public void encode_unsortedAnnotation() {
+        PSpan.Builder builder = newSpan();
+        PIntStringStringValue sql = PIntStringStringValue.newBuilder()
+                .setIntValue(1)
+                .setStringValue1(StringValue.of("bind"))
+                .build();
+        builder.addSpanEvent(newEvent(0, 1, 1)
+                .addAnnotation(newAnnotation(30, PAnnotationValue.newBuilder().setIntStringStringValue(sql).build()))
+                .addAnnotation(newAnnotation(10, PAnnotationValue.newBuilder().setBoolValue(true).build()))
+                .addAnnotation(newAnnotation(10, PAnnotationValue.newBuilder().setStringValue("same key").build())));
+
+        assertSameEncoding(builder.build());
+    }
+
+    @Test
+    public void encode_filteredSpanEvent() {
+        PSpan.Builder builder = newSpan();
+        builder.addSpanEvent(newEvent(1, 1, 1));
+        builder.addSpanEvent(newEvent(MAX_SEQUENCE + 1, 2, 1));
+        builder.addSpanEvent(newEvent(2, 0, 1));
+
+        PSpan pSpan = builder.build();
+        GrpcSpan grpcSpan = factory.buildGrpcSpan(pSpan, attribute);
+        Assertions.assertEquals(2, grpcSpan.getSpanBo().getSpanEventBoList().size());
+        Assertions.assertEquals(2, grpcSpan.getSpanEventIndex(1));
+
+        assertSameEncoding(pSpan);
+    }
+
+    @Test
+    public void encode_spanEventDictionary() {
+        PSpan.Builder builder = newSpan();
+        for (int i = 0; i < 5; i++) {
+            builder.addSpanEvent(newEvent(i, 1, 1)
+                    .setNextEvent(newNextEvent(20, "destination", "endPoint"))
+                    .addAnnotation(newAnnotation(12, PAnnotationValue.newBuilder().setStringValue("select 1").build())));
+        }
+        SpanEncoderV0 dictionaryEncoder = new SpanEncoderV0(true, 64);
+
+        assertSameEncoding(builder.build(), dictionaryEncoder, new GrpcSpanEncoder(dictionaryEncoder));
+    }
+
+    private void assertSameEncoding(PSpan pSpan) {
+        assertSameEncoding(pSpan, spanEncoder, grpcSpanEncoder);
+    }
+
+    private void assertSameEncoding(PSpan pSpan, SpanEncoderV0 spanEncoder, GrpcSpanEncoder grpcSpanEncoder) {
+        SpanBo spanBo = factory.buildSpanBo(pSpan, attribute);
+        SpanEncodingContext<SpanBo> encodingContext = new SpanEncodingContext<>(spanBo);
+        byte[] expectedQualifier = toBytes(spanEncoder.encodeSpanQualifier(encodingContext));
+        byte[] expectedValue = toBytes(spanEncoder.encodeSpanColumnValue(encodingContext));
+
+        GrpcSpan grpcSpan = factory.buildGrpcSpan(pSpan, attribute);
+        Buffer qualifier = new AutomaticBuffer(16);
+        grpcSpanEncoder.writeSpanQualifier(qualifier, grpcSpan);
+        Buffer value = new AutomaticBuffer(16);
+        grpcSpanEncoder.writeSpanColumnValue(value, grpcSpan);
+
+        Assertions.assertArrayEquals(expectedQualifier, toBytes(qualifier.wrapByteBuffer()));
+        Assertions.assertArrayEquals(expectedValue, toBytes(value.wrapByteBuffer()));
+    }
+
+    private byte[] toBytes(ByteBuffer byteBuffer) {
+        byte[] bytes = new byte[byteBuffer.remaining()];
+        byteBuffer.get(bytes);
+        return bytes;
+    }
+
+    private PSpan.Builder newSpan() {
+        PSpan.Builder builder = PSpan.newBuilder();
+        builder.setVersion(SpanVersion.TRACE_V2);
+        builder.setTransactionId(PTransactionId.newBuilder().setAgentStartTime(88).setSequence(1));
+        builder.setSpanId(10);
+        builder.setParentSpanId(-1);
+        builder.setStartTime(attribute.getAcceptedTime() - 100);
+        builder.setElapsed(50);
+        builder.setServiceType(1010);
+        builder.setApplicationServiceType(1000);
+        builder.setAcceptEvent(PAcceptEvent.newBuilder()
+                .setRpc("/rpc")
+                .setEndPoint("localhost:8080")
+                .setRemoteAddr("127.0.0.1")
+                .setParentInfo(PParentInfo.newBuilder().setAcceptorHost("localhost")));
+        builder.addAnnotation(newAnnotation(2, PAnnotationValue.newBuilder().setStringValue("span").build()));
+        return builder;
+    }
+
+    private PSpanEvent.Builder newEvent(int sequence, int depth, int startElapsed) {
+        PSpanEvent.Builder event = PSpanEvent.newBuilder();
+        event.setSequence(sequence);
+        event.setDepth(depth);
+        event.setStartElapsed(startElapsed);
+        event.setEndElapsed(3);
+        event.setServiceType(5000);
+        return event;
+    }
+
+    private PNextEvent newNextEvent(long nextSpanId, String destinationId, String endPoint) {
+        PMessageEvent messageEvent = PMessageEvent.newBuilder()
+                .setNextSpanId(nextSpanId)
+                .setDestinationId(destinationId)
+                .setEndPoint(endPoint)
+                .build();
+        return PNextEvent.newBuilder().setMessageEvent(messageEvent).build();
+    }
+
+    private PAnnotation newAnnotation(int key, PAnnotationValue value) {
+        return PAnnotation.newBuilder().setKey(key).setValue(value).build();
+    }
+}
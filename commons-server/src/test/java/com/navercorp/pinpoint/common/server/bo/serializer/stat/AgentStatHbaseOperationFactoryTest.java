@@ -19,7 +19,10 @@ package com.navercorp.pinpoint.common.server.bo.serializer.stat;
 import com.navercorp.pinpoint.common.server.bo.serializer.HbaseSerializer;
 import com.navercorp.pinpoint.common.server.bo.stat.AgentStatDataPoint;
 import com.navercorp.pinpoint.common.server.bo.stat.AgentStatType;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.AgentStatResolution;
+import org.apache.hadoop.hbase.client.Get;
 import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Scan;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -173,6 +176,49 @@ public class AgentStatHbaseOperationFactoryTest {
         }
     }
 
+    @Test
+    public void createGets_should_address_rows_of_createPuts() {
+        // Given
+        final int numDataPoints = 6;
+        final long initialTimestamp = AGENT_STAT_STATISTICS.TIMESPAN_MS - TEST_COLLECTION_INTERVAL;
+        final long lastTimestamp = initialTimestamp + TEST_COLLECTION_INTERVAL * (numDataPoints - 1);
+        final List<AgentStatDataPoint> testDataPoints = createTestDataPoints(initialTimestamp, TEST_COLLECTION_INTERVAL, numDataPoints);
+        List<Put> puts = this.agentStatHbaseOperationFactory.createPuts(TEST_AGENT_ID, TEST_AGENT_STAT_TYPE, testDataPoints, this.mockSerializer);
+        // When
+        List<Get> gets = this.agentStatHbaseOperationFactory.createGets(TEST_AGENT_ID, TEST_AGENT_STAT_TYPE, initialTimestamp, lastTimestamp);
+        // Then
+        assertThat(gets).hasSize(2);
+        assertEquals(2, AgentStatHbaseOperationFactory.getTimeslotCount(initialTimestamp, lastTimestamp));
+        // gets are ordered from the latest timeslot
+        assertThat(gets.get(0).getRow()).isEqualTo(puts.get(1).getRow());
+        assertThat(gets.get(1).getRow()).isEqualTo(puts.get(0).getRow());
+    }
+
+    @Test
+    public void createGets_should_return_empty_list_for_reversed_range() {
+        List<Get> gets = this.agentStatHbaseOperationFactory.createGets(TEST_AGENT_ID, TEST_AGENT_STAT_TYPE, AGENT_STAT_STATISTICS.TIMESPAN_MS * 2, 0);
+        assertThat(gets).isEmpty();
+        assertEquals(0, AgentStatHbaseOperationFactory.getTimeslotCount(AGENT_STAT_STATISTICS.TIMESPAN_MS * 2, 0));
+    }
+
+    @Test
+    public void createPuts_should_keep_rollup_rows_apart_from_raw_rows() {
+        // Given
+        final long timestamp = AGENT_STAT_STATISTICS.TIMESPAN_MS;
+        final List<AgentStatDataPoint> testDataPoints = createTestDataPoints(timestamp, TEST_COLLECTION_INTERVAL, 1);
+        // When
+        Put rawPut = this.agentStatHbaseOperationFactory.createPuts(TEST_AGENT_ID, TEST_AGENT_STAT_TYPE, testDataPoints, this.mockSerializer).get(0);
+        Put rollupPut = this.agentStatHbaseOperationFactory.createPuts(TEST_AGENT_ID, TEST_AGENT_STAT_TYPE, AgentStatResolution.ONE_HOUR, testDataPoints, this.mockSerializer).get(0);
+        Scan rollupScan = this.agentStatHbaseOperationFactory.createScan(TEST_AGENT_ID, TEST_AGENT_STAT_TYPE, AgentStatResolution.ONE_HOUR, timestamp, timestamp);
+        // Then
+        assertThat(rollupPut.getRow()).isNotEqualTo(rawPut.getRow());
+        assertPut(rollupPut, AgentStatUtils.getBaseTimestamp(timestamp));
+
+        byte[] originalRowKey = this.agentStatHbaseOperationFactory.getRowKeyDistributor().getOriginalKey(rollupPut.getRow());
+        assertThat(originalRowKey).isEqualTo(rollupScan.getStartRow());
+        assertEquals(AgentStatResolution.ONE_HOUR, new AgentStatRowKeyDecoder().decodeRowKey(originalRowKey).getResolution());
+    }
+
     private List<AgentStatDataPoint> createTestDataPoints(long initialTimestamp, long interval, int count) {
         List<AgentStatDataPoint> dataPoints = new ArrayList<>(count);
         long timestamp = initialTimestamp;
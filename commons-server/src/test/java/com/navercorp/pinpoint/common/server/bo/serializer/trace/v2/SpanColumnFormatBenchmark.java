@@ -0,0 +1,188 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.server.bo.serializer.trace.v2;
+
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.buffer.FixedBuffer;
+import com.navercorp.pinpoint.common.profiler.util.TransactionId;
+import com.navercorp.pinpoint.common.server.bo.AnnotationBo;
+import com.navercorp.pinpoint.common.server.bo.BasicSpan;
+import com.navercorp.pinpoint.common.server.bo.SpanBo;
+import com.navercorp.pinpoint.common.server.bo.SpanEventBo;
+import com.navercorp.pinpoint.io.SpanVersion;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the decode time of each {@link SpanColumnFormat} and {@link SpanProjection}.
+ * <p>
+ * The {@code bytes}, {@code spans} and {@code spanEvents} counters are the trace column bytes, spans and span events
+ * decoded per iteration, so {@code bytes / spans} is the encoded size per span and {@code bytes / spanEvents} per span event.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpanColumnFormatBenchmark {
+
+    private static final long ACCEPTED_TIME = 1_700_000_000_000L;
+
+    @Param({"v0", "dictionary", "deflate"})
+    private String format;
+
+    @Param({"20", "2000"})
+    private int spanEventCount;
+
+    @Param({"ALL", "NO_ANNOTATION", "SPAN_ONLY"})
+    private SpanProjection projection;
+
+    private final SpanDecoder spanDecoder = new SpanDecoderV0();
+
+    private TransactionId transactionId;
+    private byte[] qualifier;
+    private byte[] columnValue;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Payload {
+        public long bytes;
+        public long spans;
+        public long spanEvents;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+            spans = 0;
+            spanEvents = 0;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        final SpanEncoder spanEncoder = newSpanEncoder(format);
+        final SpanBo spanBo = newSpan(spanEventCount);
+        this.transactionId = spanBo.getTransactionId();
+
+        final SpanEncodingContext<SpanBo> encodingContext = new SpanEncodingContext<>(spanBo);
+        this.qualifier = toBytes(spanEncoder.encodeSpanQualifier(encodingContext));
+        this.columnValue = toBytes(spanEncoder.encodeSpanColumnValue(encodingContext));
+    }
+
+    private static SpanEncoder newSpanEncoder(String format) {
+        switch (format) {
+            case "v0":
+                return new SpanEncoderV0();
+            case "dictionary":
+                return new SpanEncoderV0(true, 0);
+            case "deflate":
+                return new SpanEncoderV0(true, 1);
+            default:
+                throw new IllegalArgumentException("Unknown format:" + format);
+        }
+    }
+
+    @Benchmark
+    public BasicSpan decode(Payload payload) {
+        final SpanDecodingContext decodingContext = new SpanDecodingContext();
+        decodingContext.setTransactionId(transactionId);
+        decodingContext.setCollectorAcceptedTime(ACCEPTED_TIME);
+        decodingContext.setProjection(projection);
+
+        final Buffer qualifierBuffer = new FixedBuffer(qualifier);
+        final Buffer columnBuffer = new FixedBuffer(columnValue);
+        final BasicSpan span = (BasicSpan) spanDecoder.decode(qualifierBuffer, columnBuffer, decodingContext);
+
+        payload.bytes += columnValue.length;
+        payload.spans++;
+        payload.spanEvents += spanEventCount;
+        return span;
+    }
+
+    private static SpanBo newSpan(int spanEventCount) {
+        SpanBo span = new SpanBo();
+        span.setVersion(SpanVersion.TRACE_V2);
+        span.setApplicationId("batch-application");
+        span.setAgentId("batch-agent");
+        span.setAgentStartTime(88);
+        span.setSpanId(10);
+        span.setParentSpanId(-1);
+        span.setTransactionId(new TransactionId("batch-agent", 88, 1));
+        span.setCollectorAcceptTime(ACCEPTED_TIME);
+        span.setStartTime(ACCEPTED_TIME - 100);
+        span.setElapsed(100);
+        span.setRpc("/job/settlement");
+        span.setServiceType((short) 1010);
+        span.setApplicationServiceType((short) 1010);
+
+        List<SpanEventBo> spanEvents = new ArrayList<>(spanEventCount);
+        for (int i = 0; i < spanEventCount; i++) {
+            SpanEventBo spanEvent = new SpanEventBo();
+            spanEvent.setSequence((short) i);
+            spanEvent.setDepth(i % 4 + 1);
+            spanEvent.setStartElapsed(1);
+            spanEvent.setEndElapsed(2);
+            spanEvent.setServiceType((short) 2101);
+            spanEvent.setApiId(i % 8);
+            spanEvent.setEndPoint("db.local:3306");
+            spanEvent.setDestinationId("orderdb");
+
+            List<AnnotationBo> annotations = new ArrayList<>(2);
+            annotations.add(AnnotationBo.of(20, "SELECT * FROM order_item WHERE order_id = ?"));
+            annotations.add(AnnotationBo.of(-1, "argument-" + (i % 16)));
+            spanEvent.setAnnotationBoList(annotations);
+            spanEvents.add(spanEvent);
+        }
+        span.addSpanEventBoList(spanEvents);
+        return span;
+    }
+
+    private static byte[] toBytes(ByteBuffer byteBuffer) {
+        byte[] bytes = new byte[byteBuffer.remaining()];
+        byteBuffer.get(bytes);
+        return bytes;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SpanColumnFormatBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.server.bo.serializer.trace.v2;
+
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.buffer.FixedBuffer;
+import com.navercorp.pinpoint.common.profiler.util.TransactionId;
+import com.navercorp.pinpoint.common.server.bo.AnnotationBo;
+import com.navercorp.pinpoint.common.server.bo.SpanBo;
+import com.navercorp.pinpoint.common.server.bo.SpanChunkBo;
+import com.navercorp.pinpoint.common.server.bo.SpanEventBo;
+import com.navercorp.pinpoint.io.SpanVersion;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+public class SpanEventDictionaryFormatTest {
+
+    private static final long ACCEPTED_TIME = 1_700_000_000_000L;
+
+    private final SpanEncoder legacyEncoder = new SpanEncoderV0();
+    private final SpanEncoder dictionaryEncoder = new SpanEncoderV0(true, 0);
+    private final SpanEncoder compressEncoder = new SpanEncoderV0(true, 1024);
+    private final SpanDecoder decoder = new SpanDecoderV0();
+
+    @Test
+    public void span() {
+        SpanBo span = newSpan(200);
+
+        SpanBo decoded = encodeAndDecode(dictionaryEncoder, span);
+
+        Assertions.assertEquals(SpanVersion.TRACE_V2, decoded.getVersion());
+        assertSpanEvents(span.getSpanEventBoList(), decoded.getSpanEventBoList());
+        // strings are shared by the decoded span events
+        Assertions.assertSame(decoded.getSpanEventBoList().get(0).getDestinationId(), decoded.getSpanEventBoList().get(2).getDestinationId());
+    }
+
+    @Test
+    public void compressedSpan() {
+        SpanBo span = newSpan(500);
+
+        ByteBuffer compressed = compressEncoder.encodeSpanColumnValue(new SpanEncodingContext<>(span));
+        ByteBuffer dictionary = dictionaryEncoder.encodeSpanColumnValue(new SpanEncodingContext<>(span));
+        Assertions.assertTrue(compressed.remaining() < dictionary.remaining());
+
+        SpanBo decoded = encodeAndDecode(compressEncoder, span);
+        assertSpanEvents(span.getSpanEventBoList(), decoded.getSpanEventBoList());
+    }
+
+    @Test
+    public void smallerThanLegacyFormat() {
+        SpanBo span = newSpan(200);
+
+        ByteBuffer legacy = legacyEncoder.encodeSpanColumnValue(new SpanEncodingContext<>(span));
+        ByteBuffer dictionary = dictionaryEncoder.encodeSpanColumnValue(new SpanEncodingContext<>(span));
+        Assertions.assertTrue(dictionary.remaining() * 2 < legacy.remaining(),
+                "legacy:" + legacy.remaining() + " dictionary:" + dictionary.remaining());
+    }
+
+    @Test
+    public void legacyFormat() {
+        SpanBo span = newSpan(10);
+
+        ByteBuffer legacy = legacyEncoder.encodeSpanColumnValue(new SpanEncodingContext<>(span));
+        Assertions.assertEquals(SpanColumnFormat.FORMAT_V0, SpanColumnFormat.getFormat(legacy.get(legacy.position())));
+
+        SpanBo decoded = encodeAndDecode(legacyEncoder, span);
+        assertSpanEvents(span.getSpanEventBoList(), decoded.getSpanEventBoList());
+    }
+
+    @Test
+    public void spanChunk() {
+        SpanChunkBo spanChunk = new SpanChunkBo();
+        spanChunk.setVersion(SpanVersion.TRACE_V2);
+        spanChunk.setKeyTime(ACCEPTED_TIME - 10);
+        spanChunk.setApplicationId("application");
+        spanChunk.setAgentId("agent");
+        spanChunk.setAgentStartTime(1);
+        spanChunk.setSpanId(10);
+        spanChunk.setTransactionId(new TransactionId("agent", 1, 2));
+        spanChunk.setCollectorAcceptTime(ACCEPTED_TIME);
+        spanChunk.addSpanEventBoList(newSpanEvents(100));
+
+        SpanEncodingContext<SpanChunkBo> encodingContext = new SpanEncodingContext<>(spanChunk);
+        Buffer qualifier = wrap(compressEncoder.encodeSpanChunkQualifier(encodingContext));
+        Buffer column = wrap(compressEncoder.encodeSpanChunkColumnValue(encodingContext));
+
+        SpanChunkBo decoded = (SpanChunkBo) decoder.decode(qualifier, column, newDecodingContext(spanChunk.getTransactionId()));
+
+        Assertions.assertEquals(SpanVersion.TRACE_V2, decoded.getVersion());
+        Assertions.assertEquals(spanChunk.getKeyTime(), decoded.getKeyTime());
+        assertSpanEvents(spanChunk.getSpanEventBoList(), decoded.getSpanEventBoList());
+    }
+
+    @Test
+    public void versionByte() {
+        byte versionByte = SpanColumnFormat.versionByte(SpanColumnFormat.FORMAT_DICTIONARY, SpanVersion.TRACE_V2);
+
+        Assertions.assertEquals(SpanColumnFormat.FORMAT_DICTIONARY, SpanColumnFormat.getFormat(versionByte));
+        Assertions.assertEquals(SpanVersion.TRACE_V2, SpanColumnFormat.getSpanVersion(versionByte));
+        Assertions.assertEquals(SpanColumnFormat.FORMAT_V0, SpanColumnFormat.getFormat(SpanVersion.TRACE_V2));
+    }
+
+    private SpanBo encodeAndDecode(SpanEncoder encoder, SpanBo span) {
+        SpanEncodingContext<SpanBo> encodingContext = new SpanEncodingContext<>(span);
+        Buffer qualifier = wrap(encoder.encodeSpanQualifier(encodingContext));
+        Buffer column = wrap(encoder.encodeSpanColumnValue(encodingContext));
+
+        return (SpanBo) decoder.decode(qualifier, column, newDecodingContext(span.getTransactionId()));
+    }
+
+    private SpanDecodingContext newDecodingContext(TransactionId transactionId) {
+        SpanDecodingContext decodingContext = new SpanDecodingContext();
+        decodingContext.setTransactionId(transactionId);
+        decodingContext.setCollectorAcceptedTime(ACCEPTED_TIME);
+        return decodingContext;
+    }
+
+    private void assertSpanEvents(List<SpanEventBo> expected, List<SpanEventBo> actual) {
+        Assertions.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            SpanEventBo expectedEvent = expected.get(i);
+            SpanEventBo actualEvent = actual.get(i);
+            Assertions.assertEquals(expectedEvent.getSequence(), actualEvent.getSequence());
+            Assertions.assertEquals(expectedEvent.getRpc(), actualEvent.getRpc());
+            Assertions.assertEquals(expectedEvent.getEndPoint(), actualEvent.getEndPoint());
+            Assertions.assertEquals(expectedEvent.getDestinationId(), actualEvent.getDestinationId());
+            Assertions.assertEquals(expectedEvent.getExceptionMessage(), actualEvent.getExceptionMessage());
+            Assertions.assertEquals(expectedEvent.getAnnotationBoList().size(), actualEvent.getAnnotationBoList().size());
+            for (int j = 0; j < expectedEvent.getAnnotationBoList().size(); j++) {
+                AnnotationBo expectedAnnotation = expectedEvent.getAnnotationBoList().get(j);
+                AnnotationBo actualAnnotation = actualEvent.getAnnotationBoList().get(j);
+                Assertions.assertEquals(expectedAnnotation.getKey(), actualAnnotation.getKey());
+                Assertions.assertEquals(expectedAnnotation.getValue(), actualAnnotation.getValue());
+            }
+        }
+    }
+
+    private SpanBo newSpan(int spanEventSize) {
+        SpanBo span = new SpanBo();
+        span.setVersion(SpanVersion.TRACE_V2);
+        span.setApplicationId("application");
+        span.setAgentId("agent");
+        span.setAgentStartTime(1);
+        span.setSpanId(10);
+        span.setParentSpanId(-1);
+        span.setTransactionId(new TransactionId("agent", 1, 2));
+        span.setCollectorAcceptTime(ACCEPTED_TIME);
+        span.setStartTime(ACCEPTED_TIME - 100);
+        span.setElapsed(100);
+        span.setRpc("/batch");
+        span.setServiceType((short) 1010);
+        span.setApplicationServiceType((short) 1010);
+        span.addSpanEventBoList(newSpanEvents(spanEventSize));
+        return span;
+    }
+
+    // N+1 query pattern : the same queries to the same database
+    private List<SpanEventBo> newSpanEvents(int size) {
+        List<SpanEventBo> spanEvents = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            SpanEventBo spanEvent = new SpanEventBo();
+            spanEvent.setSequence((short) i);
+            spanEvent.setDepth(2);
+            spanEvent.setStartElapsed(i);
+            spanEvent.setEndElapsed(1);
+            spanEvent.setServiceType((short) 2101);
+            spanEvent.setApiId(10);
+            spanEvent.setEndPoint("mysql.example.com:3306");
+            spanEvent.setDestinationId("orders");
+            if (i % 10 == 9) {
+                spanEvent.setExceptionInfo(3, "Deadlock found when trying to get lock");
+            }
+            List<AnnotationBo> annotations = new ArrayList<>();
+            annotations.add(AnnotationBo.of(20, "SELECT * FROM order_item WHERE order_id = ?"));
+            annotations.add(AnnotationBo.of(21, String.valueOf(i % 4)));
+            spanEvent.setAnnotationBoList(annotations);
+            spanEvents.add(spanEvent);
+        }
+        return spanEvents;
+    }
+
+    private Buffer wrap(ByteBuffer byteBuffer) {
+        byte[] bytes = new byte[byteBuffer.remaining()];
+        byteBuffer.get(bytes);
+        return new FixedBuffer(bytes);
+    }
+}
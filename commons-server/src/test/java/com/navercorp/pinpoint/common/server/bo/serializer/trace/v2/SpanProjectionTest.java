@@ -0,0 +1,190 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.server.bo.serializer.trace.v2;
+
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.buffer.FixedBuffer;
+import com.navercorp.pinpoint.common.profiler.util.TransactionId;
+import com.navercorp.pinpoint.common.server.bo.AnnotationBo;
+import com.navercorp.pinpoint.common.server.bo.SpanBo;
+import com.navercorp.pinpoint.common.server.bo.SpanChunkBo;
+import com.navercorp.pinpoint.common.server.bo.SpanEventBo;
+import com.navercorp.pinpoint.io.SpanVersion;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SpanProjectionTest {
+
+    private static final long ACCEPTED_TIME = 1_700_000_000_000L;
+
+    private final SpanDecoder decoder = new SpanDecoderV0();
+
+    @Test
+    public void all() {
+        verifyAll(false);
+        verifyAll(true);
+    }
+
+    private void verifyAll(boolean spanEventDictionary) {
+        SpanBo decoded = decodeSpan(spanEventDictionary, SpanProjection.ALL);
+
+        assertThat(decoded.getAnnotationBoList()).hasSize(1);
+        assertThat(decoded.getSpanEventBoList()).hasSize(3);
+        assertThat(decoded.getSpanEventBoList().get(2).getAnnotationBoList()).hasSize(2);
+    }
+
+    @Test
+    public void noAnnotation() {
+        verifyNoAnnotation(false);
+        verifyNoAnnotation(true);
+    }
+
+    private void verifyNoAnnotation(boolean spanEventDictionary) {
+        SpanBo decoded = decodeSpan(spanEventDictionary, SpanProjection.NO_ANNOTATION);
+
+        assertThat(decoded.getRpc()).isEqualTo("/orders");
+        assertThat(decoded.getAnnotationBoList()).isEmpty();
+        assertThat(decoded.getSpanEventBoList()).hasSize(3);
+
+        // fields after the skipped annotations
+        SpanEventBo last = decoded.getSpanEventBoList().get(2);
+        assertThat(last.getAnnotationBoList()).isEmpty();
+        assertThat(last.getSequence()).isEqualTo((short) 2);
+        assertThat(last.getDestinationId()).isEqualTo("orderdb");
+        assertThat(last.getNextAsyncId()).isEqualTo(7);
+    }
+
+    @Test
+    public void spanOnly() {
+        verifySpanOnly(false);
+        verifySpanOnly(true);
+    }
+
+    private void verifySpanOnly(boolean spanEventDictionary) {
+        SpanBo decoded = decodeSpan(spanEventDictionary, SpanProjection.SPAN_ONLY);
+
+        assertThat(decoded.getRpc()).isEqualTo("/orders");
+        assertThat(decoded.getElapsed()).isEqualTo(100);
+        assertThat(decoded.getAcceptorHost()).isEqualTo("acceptor");
+        assertThat(decoded.getAnnotationBoList()).isEmpty();
+        assertThat(decoded.getSpanEventBoList()).isEmpty();
+    }
+
+    @Test
+    public void spanChunk_spanOnly() {
+        SpanChunkBo spanChunk = new SpanChunkBo();
+        spanChunk.setVersion(SpanVersion.TRACE_V2);
+        spanChunk.setKeyTime(ACCEPTED_TIME - 100);
+        spanChunk.setApplicationId("application");
+        spanChunk.setAgentId("agent");
+        spanChunk.setAgentStartTime(1);
+        spanChunk.setSpanId(10);
+        spanChunk.setTransactionId(newTransactionId());
+        spanChunk.setCollectorAcceptTime(ACCEPTED_TIME);
+        spanChunk.addSpanEventBoList(newSpanEvents());
+
+        SpanEncoder encoder = new SpanEncoderV0();
+        SpanEncodingContext<SpanChunkBo> encodingContext = new SpanEncodingContext<>(spanChunk);
+        Buffer qualifier = wrap(encoder.encodeSpanChunkQualifier(encodingContext));
+        Buffer column = wrap(encoder.encodeSpanChunkColumnValue(encodingContext));
+
+        SpanChunkBo decoded = (SpanChunkBo) decoder.decode(qualifier, column, newDecodingContext(SpanProjection.SPAN_ONLY));
+
+        assertThat(decoded.getSpanId()).isEqualTo(10);
+        assertThat(decoded.getKeyTime()).isEqualTo(ACCEPTED_TIME - 100);
+        assertThat(decoded.getSpanEventBoList()).isEmpty();
+    }
+
+    private SpanBo decodeSpan(boolean spanEventDictionary, SpanProjection projection) {
+        SpanEncoder encoder = new SpanEncoderV0(spanEventDictionary, 0);
+        SpanEncodingContext<SpanBo> encodingContext = new SpanEncodingContext<>(newSpan());
+        Buffer qualifier = wrap(encoder.encodeSpanQualifier(encodingContext));
+        Buffer column = wrap(encoder.encodeSpanColumnValue(encodingContext));
+
+        return (SpanBo) decoder.decode(qualifier, column, newDecodingContext(projection));
+    }
+
+    private SpanDecodingContext newDecodingContext(SpanProjection projection) {
+        SpanDecodingContext decodingContext = new SpanDecodingContext();
+        decodingContext.setTransactionId(newTransactionId());
+        decodingContext.setCollectorAcceptedTime(ACCEPTED_TIME);
+        decodingContext.setProjection(projection);
+        return decodingContext;
+    }
+
+    private TransactionId newTransactionId() {
+        return new TransactionId("agent", 1, 2);
+    }
+
+    private SpanBo newSpan() {
+        SpanBo span = new SpanBo();
+        span.setVersion(SpanVersion.TRACE_V2);
+        span.setApplicationId("application");
+        span.setAgentId("agent");
+        span.setAgentStartTime(1);
+        span.setSpanId(10);
+        span.setParentSpanId(-1);
+        span.setTransactionId(newTransactionId());
+        span.setCollectorAcceptTime(ACCEPTED_TIME);
+        span.setStartTime(ACCEPTED_TIME - 100);
+        span.setElapsed(100);
+        span.setRpc("/orders");
+        span.setServiceType((short) 1010);
+        span.setApplicationServiceType((short) 1010);
+        span.setAcceptorHost("acceptor");
+
+        List<AnnotationBo> annotations = new ArrayList<>();
+        annotations.add(AnnotationBo.of(12, "http.url"));
+        span.setAnnotationBoList(annotations);
+
+        span.addSpanEventBoList(newSpanEvents());
+        return span;
+    }
+
+    private List<SpanEventBo> newSpanEvents() {
+        List<SpanEventBo> spanEvents = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            SpanEventBo spanEvent = new SpanEventBo();
+            spanEvent.setSequence((short) i);
+            spanEvent.setDepth(1);
+            spanEvent.setStartElapsed(i);
+            spanEvent.setEndElapsed(1);
+            spanEvent.setServiceType((short) 2101);
+            spanEvent.setApiId(10);
+            spanEvent.setDestinationId("orderdb");
+            spanEvent.setNextAsyncId(7);
+
+            List<AnnotationBo> annotations = new ArrayList<>();
+            annotations.add(AnnotationBo.of(20, "SELECT * FROM orders WHERE id = ?"));
+            annotations.add(AnnotationBo.of(21, i));
+            spanEvent.setAnnotationBoList(annotations);
+            spanEvents.add(spanEvent);
+        }
+        return spanEvents;
+    }
+
+    private Buffer wrap(ByteBuffer byteBuffer) {
+        byte[] bytes = new byte[byteBuffer.remaining()];
+        byteBuffer.get(bytes);
+        return new FixedBuffer(bytes);
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.common.server.bo.stat.rollup;
+
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class AgentStatResolutionTest {
+
+    @Test
+    public void typeCode() {
+        for (AgentStatType agentStatType : AgentStatType.values()) {
+            for (AgentStatResolution resolution : AgentStatResolution.values()) {
+                byte typeCode = resolution.encodeTypeCode(agentStatType);
+                Assertions.assertEquals(agentStatType, AgentStatResolution.decodeAgentStatType(typeCode));
+                Assertions.assertEquals(resolution, AgentStatResolution.decodeResolution(typeCode));
+            }
+        }
+    }
+
+    @Test
+    public void typeCode_raw_compatible() {
+        for (AgentStatType agentStatType : AgentStatType.values()) {
+            Assertions.assertEquals(agentStatType.getRawTypeCode(), AgentStatResolution.RAW.encodeTypeCode(agentStatType));
+        }
+    }
+
+    @Test
+    public void getTimeslot() {
+        final long timestamp = TimeUnit.HOURS.toMillis(5) + TimeUnit.MINUTES.toMillis(23) + 1234;
+
+        Assertions.assertEquals(timestamp, AgentStatResolution.RAW.getTimeslot(timestamp));
+        Assertions.assertEquals(TimeUnit.HOURS.toMillis(5) + TimeUnit.MINUTES.toMillis(23), AgentStatResolution.ONE_MINUTE.getTimeslot(timestamp));
+        Assertions.assertEquals(TimeUnit.HOURS.toMillis(5) + TimeUnit.MINUTES.toMillis(20), AgentStatResolution.TEN_MINUTES.getTimeslot(timestamp));
+        Assertions.assertEquals(TimeUnit.HOURS.toMillis(5), AgentStatResolution.ONE_HOUR.getTimeslot(timestamp));
+    }
+
+    @Test
+    public void getCoarsest() {
+        Assertions.assertEquals(AgentStatResolution.RAW, AgentStatResolution.getCoarsest(TimeUnit.SECONDS.toMillis(5)));
+        Assertions.assertEquals(AgentStatResolution.ONE_MINUTE, AgentStatResolution.getCoarsest(TimeUnit.MINUTES.toMillis(1)));
+        Assertions.assertEquals(AgentStatResolution.ONE_MINUTE, AgentStatResolution.getCoarsest(TimeUnit.MINUTES.toMillis(9)));
+        Assertions.assertEquals(AgentStatResolution.TEN_MINUTES, AgentStatResolution.getCoarsest(TimeUnit.MINUTES.toMillis(30)));
+        Assertions.assertEquals(AgentStatResolution.ONE_HOUR, AgentStatResolution.getCoarsest(TimeUnit.HOURS.toMillis(3)));
+    }
+}
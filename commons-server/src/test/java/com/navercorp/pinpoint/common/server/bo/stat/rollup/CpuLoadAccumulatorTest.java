@@ -0,0 +1,56 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.server.bo.stat.rollup;
+
+import com.navercorp.pinpoint.common.server.bo.stat.CpuLoadBo;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class CpuLoadAccumulatorTest {
+
+    @Test
+    public void aggregate() {
+        CpuLoadAccumulator accumulator = new CpuLoadAccumulator();
+        accumulator.add(newCpuLoad(0.1, 0.5));
+        accumulator.add(newCpuLoad(0.3, CpuLoadBo.UNCOLLECTED_VALUE));
+        accumulator.add(newCpuLoad(0.2, 0.7));
+
+        Assertions.assertEquals(0.2, accumulator.aggregate(AgentStatAggregate.AVG).getJvmCpuLoad(), 0.0001);
+        Assertions.assertEquals(0.1, accumulator.aggregate(AgentStatAggregate.MIN).getJvmCpuLoad(), 0.0001);
+        Assertions.assertEquals(0.3, accumulator.aggregate(AgentStatAggregate.MAX).getJvmCpuLoad(), 0.0001);
+        Assertions.assertEquals(0.6, accumulator.aggregate(AgentStatAggregate.SUM).getJvmCpuLoad(), 0.0001);
+        // uncollected values are skipped
+        Assertions.assertEquals(0.6, accumulator.aggregate(AgentStatAggregate.AVG).getSystemCpuLoad(), 0.0001);
+        Assertions.assertEquals(0.5, accumulator.aggregate(AgentStatAggregate.MIN).getSystemCpuLoad(), 0.0001);
+    }
+
+    @Test
+    public void accumulator_uncollected() {
+        LongFieldAccumulator accumulator = new LongFieldAccumulator(-1);
+        accumulator.add(-1);
+        for (AgentStatAggregate aggregate : AgentStatAggregate.values()) {
+            Assertions.assertEquals(-1, accumulator.aggregate(aggregate));
+        }
+    }
+
+    private CpuLoadBo newCpuLoad(double jvmCpuLoad, double systemCpuLoad) {
+        CpuLoadBo cpuLoadBo = new CpuLoadBo();
+        cpuLoadBo.setJvmCpuLoad(jvmCpuLoad);
+        cpuLoadBo.setSystemCpuLoad(systemCpuLoad);
+        return cpuLoadBo;
+    }
+}
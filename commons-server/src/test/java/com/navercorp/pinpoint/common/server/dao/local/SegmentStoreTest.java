@@ -0,0 +1,197 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.common.server.dao.local;
+
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class SegmentStoreTest {
+
+    private static final long PARTITION_MILLIS = TimeUnit.HOURS.toMillis(1);
+    private static final byte[] KEY = bytes("key");
+
+    @TempDir
+    Path directory;
+
+    private SegmentStoreProperties.Builder newProperties() {
+        SegmentStoreProperties.Builder builder = SegmentStoreProperties.newBuilder();
+        builder.setDirectory(directory.toString());
+        builder.setPartitionMillis(PARTITION_MILLIS);
+        builder.setSegmentSize(1024);
+        builder.setRetentionMillis(TimeUnit.DAYS.toMillis(1));
+        return builder;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> values(List<SegmentRecord> records) {
+        return records.stream()
+                .map(record -> new String(record.getValue(), StandardCharsets.UTF_8))
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void get() {
+        long now = System.currentTimeMillis();
+        try (SegmentStore store = new SegmentStore("trace", newProperties().build())) {
+            store.append(KEY, now - PARTITION_MILLIS, bytes("v1"));
+            store.append(bytes("other"), now, bytes("other"));
+            store.append(KEY, now, bytes("v2"));
+
+            Assertions.assertEquals(List.of("v1", "v2"), values(store.get(KEY)));
+            Assertions.assertTrue(store.get(bytes("unknown")).isEmpty());
+            Assertions.assertEquals(2, store.getPartitionCount());
+        }
+    }
+
+    @Test
+    public void scan() {
+        long base = System.currentTimeMillis() - PARTITION_MILLIS * 3;
+        try (SegmentStore store = new SegmentStore("index", newProperties().build())) {
+            for (int i = 0; i < 6; i++) {
+                store.append(KEY, base + (PARTITION_MILLIS / 2) * i, bytes("v" + i));
+            }
+            long from = base + (PARTITION_MILLIS / 2);
+            long to = base + (PARTITION_MILLIS / 2) * 4;
+
+            Assertions.assertEquals(List.of("v1", "v2", "v3", "v4"), values(store.scan(KEY, from, to, 10, false)));
+            Assertions.assertEquals(List.of("v4", "v3", "v2"), values(store.scan(KEY, from, to, 3, true)));
+            Assertions.assertTrue(store.scan(KEY, from, to, 0, true).isEmpty());
+        }
+    }
+
+    @Test
+    public void rollSegment() {
+        long now = System.currentTimeMillis();
+        byte[] large = new byte[600];
+        try (SegmentStore store = new SegmentStore("trace", newProperties().build())) {
+            store.append(KEY, now, large);
+            store.append(KEY, now, large);
+            // larger than the segment size
+            store.append(KEY, now, new byte[2048]);
+
+            List<SegmentRecord> records = store.get(KEY);
+            Assertions.assertEquals(3, records.size());
+            Assertions.assertEquals(2048, records.get(2).getValue().length);
+        }
+    }
+
+    @Test
+    public void reopen() {
+        long now = System.currentTimeMillis();
+        try (SegmentStore store = new SegmentStore("trace", newProperties().build())) {
+            store.append(KEY, now, bytes("v1"));
+        }
+        try (SegmentStore store = new SegmentStore("trace", newProperties().build())) {
+            store.append(KEY, now, bytes("v2"));
+            Assertions.assertEquals(List.of("v1", "v2"), values(store.get(KEY)));
+        }
+    }
+
+    @Test
+    public void readOnly_followWriter() {
+        long now = System.currentTimeMillis();
+        SegmentStoreProperties.Builder readOnlyProperties = newProperties();
+        readOnlyProperties.setReadOnly(true);
+        readOnlyProperties.setRefreshIntervalMillis(0);
+
+        try (SegmentStore writer = new SegmentStore("trace", newProperties().build());
+             SegmentStore reader = new SegmentStore("trace", readOnlyProperties.build())) {
+            Assertions.assertTrue(reader.get(KEY).isEmpty());
+
+            writer.append(KEY, now, bytes("v1"));
+            Assertions.assertEquals(List.of("v1"), values(reader.get(KEY)));
+
+            writer.append(KEY, now, bytes("v2"));
+            Assertions.assertEquals(List.of("v1", "v2"), values(reader.get(KEY)));
+
+            Assertions.assertThrows(IllegalStateException.class, () -> reader.append(KEY, now, bytes("v3")));
+        }
+    }
+
+    @Test
+    public void readOnly_refreshInterval() {
+        long now = System.currentTimeMillis();
+        SegmentStoreProperties.Builder readOnlyProperties = newProperties();
+        readOnlyProperties.setReadOnly(true);
+        readOnlyProperties.setRefreshIntervalMillis(TimeUnit.HOURS.toMillis(1));
+
+        try (SegmentStore writer = new SegmentStore("trace", newProperties().build())) {
+            writer.append(KEY, now, bytes("v1"));
+            try (SegmentStore reader = new SegmentStore("trace", readOnlyProperties.build())) {
+                Assertions.assertEquals(List.of("v1"), values(reader.get(KEY)));
+
+                writer.append(KEY, now, bytes("v2"));
+                // not reloaded before the refresh interval
+                Assertions.assertEquals(List.of("v1"), values(reader.get(KEY)));
+            }
+        }
+    }
+
+    @Test
+    public void compact() throws Exception {
+        long now = System.currentTimeMillis();
+        long expired = now - TimeUnit.DAYS.toMillis(1) - PARTITION_MILLIS * 2;
+        try (SegmentStore store = new SegmentStore("trace", newProperties().build())) {
+            Assertions.assertFalse(store.append(KEY, expired, bytes("expired")));
+
+            store.append(KEY, now, bytes("v1"));
+            Assertions.assertEquals(0, store.compact(now));
+
+            Assertions.assertEquals(1, store.compact(now + TimeUnit.DAYS.toMillis(2)));
+            Assertions.assertTrue(store.get(KEY).isEmpty());
+            try (Stream<Path> partitions = Files.list(directory.resolve("trace"))) {
+                Assertions.assertEquals(0, partitions.count());
+            }
+        }
+    }
+
+    @Test
+    public void cellRecordCodec() {
+        byte[] row = bytes("row");
+        Put put = new Put(row);
+        put.addColumn(bytes("S"), bytes("q2"), 20, bytes("value2"));
+        put.addColumn(bytes("S"), bytes("q1"), 10, bytes("value1"));
+
+        byte[] encoded = CellRecordCodec.encode(put);
+        Result result = CellRecordCodec.toResult(List.of(new SegmentRecord(row, 10, encoded)));
+
+        Assertions.assertArrayEquals(row, result.getRow());
+        Cell[] cells = result.rawCells();
+        Assertions.assertEquals(2, cells.length);
+        Assertions.assertEquals("q1", Bytes.toString(CellUtil.cloneQualifier(cells[0])));
+        Assertions.assertEquals(10, cells[0].getTimestamp());
+        Assertions.assertEquals("value2", Bytes.toString(CellUtil.cloneValue(cells[1])));
+    }
+}
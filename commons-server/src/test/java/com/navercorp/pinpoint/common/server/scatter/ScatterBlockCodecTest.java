@@ -0,0 +1,123 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.server.scatter;
+
+import com.navercorp.pinpoint.common.profiler.util.TransactionId;
+import com.navercorp.pinpoint.common.server.bo.SpanBo;
+import com.navercorp.pinpoint.common.server.util.SpanUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ScatterBlockCodecTest {
+
+    private static final long ACCEPTED_TIME = 1_700_000_000_123L;
+
+    @Test
+    public void indexRoundTrip() {
+        ScatterBlock block = newBlock(100);
+
+        byte[] bytes = ScatterBlockCodec.encodeIndex(block);
+        ScatterBlock decoded = ScatterBlockCodec.decodeIndex(bytes, 0, bytes.length);
+
+        Assertions.assertEquals(block.size(), decoded.size());
+        Assertions.assertFalse(decoded.hasMetaData());
+        for (int i = 0; i < block.size(); i++) {
+            Assertions.assertEquals(block.getAcceptedTime(i), decoded.getAcceptedTime(i));
+            Assertions.assertEquals(block.getElapsed(i), decoded.getElapsed(i));
+            Assertions.assertEquals(block.getErrorCode(i), decoded.getErrorCode(i));
+            Assertions.assertEquals(block.getAgentId(i), decoded.getAgentId(i));
+            Assertions.assertEquals(block.getTransactionId(i), decoded.getTransactionId(i));
+        }
+        Assertions.assertEquals(block.getMaxAcceptedTime(), decoded.getMaxAcceptedTime());
+    }
+
+    @Test
+    public void metaDataRoundTrip() {
+        ScatterBlock block = newBlock(50);
+
+        byte[] index = ScatterBlockCodec.encodeIndex(block);
+        byte[] meta = ScatterBlockCodec.encodeMetaData(block);
+        ScatterBlock decoded = ScatterBlockCodec.decodeIndex(index, 0, index.length);
+        ScatterBlockCodec.decodeMetaData(decoded, meta, 0, meta.length);
+
+        Assertions.assertTrue(decoded.hasMetaData());
+        for (int i = 0; i < block.size(); i++) {
+            Assertions.assertEquals(block.getSpanId(i), decoded.getSpanId(i));
+            Assertions.assertEquals(block.getStartTime(i), decoded.getStartTime(i));
+            Assertions.assertEquals(block.getRpc(i), decoded.getRpc(i));
+            Assertions.assertEquals(block.getRemoteAddr(i), decoded.getRemoteAddr(i));
+            Assertions.assertEquals(block.getEndPoint(i), decoded.getEndPoint(i));
+            Assertions.assertEquals(block.getAgentName(i), decoded.getAgentName(i));
+        }
+    }
+
+    @Test
+    public void smallerThanRowFormat() {
+        ScatterBlock block = newBlock(100);
+
+        int rowFormat = 0;
+        for (int i = 0; i < 100; i++) {
+            SpanBo span = newSpan(i);
+            rowFormat += SpanUtils.getVarTransactionId(span).length + span.getAgentId().length() + 4;
+        }
+        Assertions.assertTrue(ScatterBlockCodec.encodeIndex(block).length < rowFormat);
+    }
+
+    @Test
+    public void qualifier() {
+        byte[] qualifier = ScatterBlockCodec.encodeQualifier(Long.MAX_VALUE, 1);
+        Assertions.assertTrue(ScatterBlockCodec.isBlockQualifier(qualifier));
+
+        byte[] rowQualifier = SpanUtils.getVarTransactionId(newSpan(1));
+        Assertions.assertFalse(ScatterBlockCodec.isBlockQualifier(rowQualifier));
+    }
+
+    @Test
+    public void unsupportedVersion() {
+        byte[] bytes = ScatterBlockCodec.encodeIndex(newBlock(1));
+        bytes[0] = 0;
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ScatterBlockCodec.decodeIndex(bytes, 0, bytes.length));
+    }
+
+    @Test
+    public void blockTime() {
+        Assertions.assertEquals(1_700_000_000_000L, ScatterBlockCodec.getBlockTime(ACCEPTED_TIME));
+    }
+
+    private ScatterBlock newBlock(int size) {
+        ScatterBlock block = new ScatterBlock();
+        for (int i = 0; i < size; i++) {
+            block.add(newSpan(i), ACCEPTED_TIME + i * 7);
+        }
+        return block;
+    }
+
+    private SpanBo newSpan(int i) {
+        SpanBo span = new SpanBo();
+        span.setAgentId("agent-" + (i % 3));
+        span.setAgentName(i % 2 == 0 ? null : "name");
+        span.setTransactionId(new TransactionId("agent-" + (i % 3), 1_690_000_000_000L, 1000 + i));
+        span.setElapsed(i * 13);
+        span.setErrCode(i % 5 == 0 ? 1 : 0);
+        span.setSpanId(i * 0x1234567890L);
+        span.setStartTime(ACCEPTED_TIME - i);
+        span.setRpc("/api/" + (i % 4));
+        span.setRemoteAddr("10.0.0." + (i % 2));
+        span.setEndPoint("localhost:8080");
+        return span;
+    }
+}
@@ -247,4 +247,6 @@ public interface AnnotationKey {
     AnnotationKey PROXY_HTTP_HEADER = AnnotationKeyFactory.of(300, "PROXY_HTTP_HEADER", VIEW_IN_RECORD_SET);
     AnnotationKey REDIS_IO = AnnotationKeyFactory.of(310, "redis.io");
     AnnotationKey MEMORY_USAGE = AnnotationKeyFactory.of(330, "memory.usage", VIEW_IN_RECORD_SET);
+    // collapsed stack samples of a slow trace. one "frame;frame;...;frame count" line per distinct stack, root frame first
+    AnnotationKey STACK_SAMPLE = AnnotationKeyFactory.of(350, "stack.sample");
 }
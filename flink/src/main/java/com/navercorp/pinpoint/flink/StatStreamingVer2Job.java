@@ -17,13 +17,18 @@ package com.navercorp.pinpoint.flink;
 
 import com.navercorp.pinpoint.common.server.bo.stat.join.JoinApplicationStatBo;
 import com.navercorp.pinpoint.common.server.bo.stat.join.JoinStatBo;
+import com.navercorp.pinpoint.flink.function.ApplicationStatAggregateFunction;
 import com.navercorp.pinpoint.flink.function.ApplicationStatBoWindow;
+import com.navercorp.pinpoint.flink.function.ApplicationStatProcessWindow;
 import org.apache.flink.api.common.eventtime.WatermarkStrategy;
 import org.apache.flink.api.java.tuple.Tuple3;
 import org.apache.flink.api.java.utils.ParameterTool;
+import org.apache.flink.streaming.api.datastream.SingleOutputStreamOperator;
+import org.apache.flink.streaming.api.datastream.WindowedStream;
 import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment;
 import org.apache.flink.streaming.api.windowing.assigners.TumblingEventTimeWindows;
 import org.apache.flink.streaming.api.windowing.time.Time;
+import org.apache.flink.streaming.api.windowing.windows.TimeWindow;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -50,7 +55,10 @@ public class StatStreamingVer2Job implements Serializable {
         final FlowParameters flowParams = new FlowParameters(paramTool);
         final StreamExecutionEnvironment env = bootstrap.createStreamExecutionEnvironment();
         env.getConfig().setGlobalJobParameters(paramTool);
-        env
+        if (flowParams.isObjectReuse()) {
+            env.getConfig().enableObjectReuse();
+        }
+        final WindowedStream<Tuple3<String, JoinStatBo, Long>, String, TimeWindow> windowedStream = env
                 .addSource(bootstrap.getTcpSourceFunction()).name("TcpSourceFunction")
                 .flatMap(bootstrap.getTbaseFlatMapper()).name("TBaseFlatMapper")
                 .filter(el -> el.f1 instanceof JoinApplicationStatBo).name("OnlyJoinApplicationStatBo")
@@ -60,8 +68,16 @@ public class StatStreamingVer2Job implements Serializable {
                         .withTimestampAssigner((el, t) -> el.f2))
                 .keyBy(el -> el.f0)
                 .window(TumblingEventTimeWindows.of(flowParams.getWindowSize()))
-                .allowedLateness(flowParams.getAllowedLateness())
-                .apply(new ApplicationStatBoWindow()).name("ApplicationStatBoWindow")
+                .allowedLateness(flowParams.getAllowedLateness());
+        final SingleOutputStreamOperator<Tuple3<String, JoinStatBo, Long>> joinedStream;
+        if (flowParams.isIncrementalAggregation()) {
+            joinedStream = windowedStream
+                    .aggregate(new ApplicationStatAggregateFunction(), new ApplicationStatProcessWindow()).name("ApplicationStatAggregateWindow");
+        } else {
+            joinedStream = windowedStream
+                    .apply(new ApplicationStatBoWindow()).name("ApplicationStatBoWindow");
+        }
+        joinedStream
                 .addSink(bootstrap.getStatisticsDao()).name("StatisticsDao");
         env.execute(JOB_NAME);
     }
@@ -78,17 +94,23 @@ public class StatStreamingVer2Job implements Serializable {
         private static final String PARAM_IDLENESS = PARAM_PREFIX + "idlenessMillis";
         private static final String PARAM_WINDOW_SIZE = PARAM_PREFIX + "windowSizeMillis";
         private static final String PARAM_ALLOWED_LATENESS = PARAM_PREFIX + "allowedLatenessMillis";
+        private static final String PARAM_OBJECT_REUSE = PARAM_PREFIX + "objectReuse";
+        private static final String PARAM_INCREMENTAL_AGGREGATION = PARAM_PREFIX + "incrementalAggregation";
 
         private final int outOfOrdernessMillis;
         private final int idlenessMillis;
         private final int windowSizeMillis;
         private final int allowedLatenessMillis;
+        private final boolean objectReuse;
+        private final boolean incrementalAggregation;
 
         FlowParameters(ParameterTool params) {
             this.outOfOrdernessMillis = params.getInt(PARAM_OUT_OF_ORDERNESS, DEFAULT_OUT_OF_ORDERNESS_MILLIS);
             this.idlenessMillis = params.getInt(PARAM_IDLENESS, DEFAULT_IDLENESS_MILLIS);
             this.windowSizeMillis = params.getInt(PARAM_WINDOW_SIZE, DEFAULT_WINDOW_SIZE_MILLIS);
             this.allowedLatenessMillis = params.getInt(PARAM_ALLOWED_LATENESS, DEFAULT_ALLOWED_LATENESS_MILLIS);
+            this.objectReuse = params.getBoolean(PARAM_OBJECT_REUSE, false);
+            this.incrementalAggregation = params.getBoolean(PARAM_INCREMENTAL_AGGREGATION, false);
         }
 
         Duration getOutOfOrderness() {
@@ -107,6 +129,16 @@ public class StatStreamingVer2Job implements Serializable {
             return Time.milliseconds(allowedLatenessMillis);
         }
 
+        // records leave the source and TBaseFlatMapper as fresh objects, so chained operators can skip the defensive copy
+        boolean isObjectReuse() {
+            return objectReuse;
+        }
+
+        // keeps one accumulator per application in the window state instead of buffering every stat until the window fires
+        boolean isIncrementalAggregation() {
+            return incrementalAggregation;
+        }
+
     }
 
 }
@@ -0,0 +1,483 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.flink.function;
+
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinActiveTraceBo;
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinApplicationStatBo;
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinCpuLoadBo;
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinDataSourceBo;
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinDataSourceListBo;
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinDirectBufferBo;
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinDoubleFieldBo;
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinFileDescriptorBo;
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinIntFieldBo;
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinLoadedClassBo;
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinLongFieldBo;
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinMemoryBo;
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinResponseTimeBo;
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinTotalThreadCountBo;
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinTransactionBo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Running join of the {@link JoinApplicationStatBo}s of one application.
+ * <p>
+ * {@link #build()} gives the same result as {@link JoinApplicationStatBo#joinApplicationStatBoByTimeSlice(List)}
+ * without keeping the joined elements. Every join field of every time slice is one row that holds
+ * the sum and count for the average, and the first seen minimum and maximum with their agent ids.
+ * Double averages may differ in the last bits, since the sum is not compensated.
+ * <p>
+ * The state is primitive and String arrays in public fields only, so flink serializes it with its POJO serializer rather than Kryo.
+ */
+public class ApplicationStatAccumulator {
+
+    static final byte CPU_LOAD = 0;
+    static final byte MEMORY = 1;
+    static final byte TRANSACTION = 2;
+    static final byte ACTIVE_TRACE = 3;
+    static final byte RESPONSE_TIME = 4;
+    static final byte DATA_SOURCE = 5;
+    static final byte FILE_DESCRIPTOR = 6;
+    static final byte DIRECT_BUFFER = 7;
+    static final byte TOTAL_THREAD_COUNT = 8;
+    static final byte LOADED_CLASS = 9;
+
+    // data source list slice without a value, keeps the id of the first list
+    private static final byte HEADER = -1;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    public String applicationId;
+    public long timestamp = Long.MAX_VALUE;
+    public int size;
+
+    // row key
+    public byte[] types = new byte[INITIAL_CAPACITY];
+    public byte[] fields = new byte[INITIAL_CAPACITY];
+    public long[] slices = new long[INITIAL_CAPACITY];
+    public String[] urls = new String[INITIAL_CAPACITY];
+    public short[] serviceTypeCodes = new short[INITIAL_CAPACITY];
+
+    // taken from the first stat of the slice
+    public String[] ids = new String[INITIAL_CAPACITY];
+    public long[] attributes = new long[INITIAL_CAPACITY];
+
+    // double fields keep raw long bits
+    public int[] counts = new int[INITIAL_CAPACITY];
+    public long[] sums = new long[INITIAL_CAPACITY];
+    public long[] mins = new long[INITIAL_CAPACITY];
+    public String[] minAgentIds = new String[INITIAL_CAPACITY];
+    public long[] maxs = new long[INITIAL_CAPACITY];
+    public String[] maxAgentIds = new String[INITIAL_CAPACITY];
+
+    // row of each row key, not serialized and rebuilt from the row key arrays
+    private transient Map<RowKey, Integer> rowIndex;
+
+    public ApplicationStatAccumulator() {
+    }
+
+    public void add(JoinApplicationStatBo statBo) {
+        Objects.requireNonNull(statBo, "statBo");
+        if (applicationId == null) {
+            applicationId = statBo.getId();
+        }
+
+        for (JoinCpuLoadBo bo : statBo.getJoinCpuLoadBoList()) {
+            final long slice = slice(bo.getTimestamp());
+            foldDouble(row(CPU_LOAD, 0, slice, bo.getId()), bo.getJvmCpuLoadJoinValue());
+            foldDouble(row(CPU_LOAD, 1, slice, bo.getId()), bo.getSystemCpuLoadJoinValue());
+        }
+        for (JoinMemoryBo bo : statBo.getJoinMemoryBoList()) {
+            final long slice = slice(bo.getTimestamp());
+            foldLong(row(MEMORY, 0, slice, bo.getId()), bo.getHeapUsedJoinValue());
+            foldLong(row(MEMORY, 1, slice, bo.getId()), bo.getNonHeapUsedJoinValue());
+        }
+        for (JoinTransactionBo bo : statBo.getJoinTransactionBoList()) {
+            final int row = row(TRANSACTION, 0, slice(bo.getTimestamp()), null, (short) 0, bo.getId(), bo.getCollectInterval());
+            foldLong(row, bo.getTotalCountJoinValue());
+        }
+        for (JoinActiveTraceBo bo : statBo.getJoinActiveTraceBoList()) {
+            final long attribute = ((long) bo.getHistogramSchemaType() << 16) | (bo.getVersion() & 0xffff);
+            final int row = row(ACTIVE_TRACE, 0, slice(bo.getTimestamp()), null, (short) 0, bo.getId(), attribute);
+            foldInt(row, bo.getTotalCountJoinValue());
+        }
+        for (JoinResponseTimeBo bo : statBo.getJoinResponseTimeBoList()) {
+            foldLong(row(RESPONSE_TIME, 0, slice(bo.getTimestamp()), bo.getId()), bo.getResponseTimeJoinValue());
+        }
+        for (JoinDataSourceListBo bo : statBo.getJoinDataSourceListBoList()) {
+            final long slice = slice(bo.getTimestamp());
+            row(DATA_SOURCE, HEADER, slice, bo.getId());
+            for (JoinDataSourceBo dataSourceBo : bo.getJoinDataSourceBoList()) {
+                final int row = row(DATA_SOURCE, 0, slice, dataSourceBo.getUrl(), dataSourceBo.getServiceTypeCode(), null, 0);
+                foldInt(row, dataSourceBo.getActiveConnectionSizeJoinValue());
+            }
+        }
+        for (JoinFileDescriptorBo bo : statBo.getJoinFileDescriptorBoList()) {
+            foldLong(row(FILE_DESCRIPTOR, 0, slice(bo.getTimestamp()), bo.getId()), bo.getOpenFdCountJoinValue());
+        }
+        for (JoinDirectBufferBo bo : statBo.getJoinDirectBufferBoList()) {
+            final long slice = slice(bo.getTimestamp());
+            foldLong(row(DIRECT_BUFFER, 0, slice, bo.getId()), bo.getDirectCountJoinValue());
+            foldLong(row(DIRECT_BUFFER, 1, slice, bo.getId()), bo.getDirectMemoryUsedJoinValue());
+            foldLong(row(DIRECT_BUFFER, 2, slice, bo.getId()), bo.getMappedCountJoinValue());
+            foldLong(row(DIRECT_BUFFER, 3, slice, bo.getId()), bo.getMappedMemoryUsedJoinValue());
+        }
+        for (JoinTotalThreadCountBo bo : statBo.getJoinTotalThreadCountBoList()) {
+            foldLong(row(TOTAL_THREAD_COUNT, 0, slice(bo.getTimestamp()), bo.getId()), bo.getTotalThreadCountJoinValue());
+        }
+        for (JoinLoadedClassBo bo : statBo.getJoinLoadedClassBoList()) {
+            final long slice = slice(bo.getTimestamp());
+            foldLong(row(LOADED_CLASS, 0, slice, bo.getId()), bo.getLoadedClassJoinValue());
+            foldLong(row(LOADED_CLASS, 1, slice, bo.getId()), bo.getUnloadedClassJoinValue());
+        }
+    }
+
+    private long slice(long statTimestamp) {
+        this.timestamp = Math.min(this.timestamp, statTimestamp);
+        return JoinApplicationStatBo.shiftTimestamp(statTimestamp);
+    }
+
+    private int row(byte type, int field, long slice, String id) {
+        return row(type, field, slice, null, (short) 0, id, 0);
+    }
+
+    private int row(byte type, int field, long slice, String url, short serviceTypeCode, String id, long attribute) {
+        final int index = indexOf(type, field, slice, url, serviceTypeCode);
+        if (index != -1) {
+            return index;
+        }
+        ensureCapacity(size + 1);
+        final int row = size++;
+        rowIndex.put(new RowKey(type, field, slice, url, serviceTypeCode), row);
+        types[row] = type;
+        fields[row] = (byte) field;
+        slices[row] = slice;
+        urls[row] = url;
+        serviceTypeCodes[row] = serviceTypeCode;
+        ids[row] = id;
+        attributes[row] = attribute;
+        return row;
+    }
+
+    private int indexOf(byte type, int field, long slice, String url, short serviceTypeCode) {
+        final Integer row = rowIndex().get(new RowKey(type, field, slice, url, serviceTypeCode));
+        if (row == null) {
+            return -1;
+        }
+        return row;
+    }
+
+    private Map<RowKey, Integer> rowIndex() {
+        // null or stale after deserialization
+        if (rowIndex == null || rowIndex.size() != size) {
+            final Map<RowKey, Integer> index = new HashMap<>(Math.max(INITIAL_CAPACITY, size * 2));
+            for (int i = 0; i < size; i++) {
+                index.put(new RowKey(types[i], fields[i], slices[i], urls[i], serviceTypeCodes[i]), i);
+            }
+            rowIndex = index;
+        }
+        return rowIndex;
+    }
+
+    private static final class RowKey {
+        private final byte type;
+        private final byte field;
+        private final long slice;
+        private final String url;
+        private final short serviceTypeCode;
+
+        private RowKey(byte type, int field, long slice, String url, short serviceTypeCode) {
+            this.type = type;
+            this.field = (byte) field;
+            this.slice = slice;
+            this.url = url;
+            this.serviceTypeCode = serviceTypeCode;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final RowKey rowKey = (RowKey) o;
+            return type == rowKey.type && field == rowKey.field && slice == rowKey.slice
+                    && serviceTypeCode == rowKey.serviceTypeCode && Objects.equals(url, rowKey.url);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = type;
+            result = 31 * result + field;
+            result = 31 * result + Long.hashCode(slice);
+            result = 31 * result + (url != null ? url.hashCode() : 0);
+            result = 31 * result + serviceTypeCode;
+            return result;
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= types.length) {
+            return;
+        }
+        final int newCapacity = Math.max(types.length << 1, capacity);
+        types = Arrays.copyOf(types, newCapacity);
+        fields = Arrays.copyOf(fields, newCapacity);
+        slices = Arrays.copyOf(slices, newCapacity);
+        urls = Arrays.copyOf(urls, newCapacity);
+        serviceTypeCodes = Arrays.copyOf(serviceTypeCodes, newCapacity);
+        ids = Arrays.copyOf(ids, newCapacity);
+        attributes = Arrays.copyOf(attributes, newCapacity);
+        counts = Arrays.copyOf(counts, newCapacity);
+        sums = Arrays.copyOf(sums, newCapacity);
+        mins = Arrays.copyOf(mins, newCapacity);
+        minAgentIds = Arrays.copyOf(minAgentIds, newCapacity);
+        maxs = Arrays.copyOf(maxs, newCapacity);
+        maxAgentIds = Arrays.copyOf(maxAgentIds, newCapacity);
+    }
+
+    private void foldLong(int row, JoinLongFieldBo fieldBo) {
+        fold(row, fieldBo.getAvg(), fieldBo.getMin(), fieldBo.getMinAgentId(), fieldBo.getMax(), fieldBo.getMaxAgentId());
+    }
+
+    private void foldInt(int row, JoinIntFieldBo fieldBo) {
+        fold(row, fieldBo.getAvg(), fieldBo.getMin(), fieldBo.getMinAgentId(), fieldBo.getMax(), fieldBo.getMaxAgentId());
+    }
+
+    private void fold(int row, long avg, long min, String minAgentId, long max, String maxAgentId) {
+        if (counts[row]++ == 0) {
+            sums[row] = avg;
+            setMin(row, min, minAgentId);
+            setMax(row, max, maxAgentId);
+            return;
+        }
+        sums[row] += avg;
+        if (min < mins[row]) {
+            setMin(row, min, minAgentId);
+        }
+        if (max > maxs[row]) {
+            setMax(row, max, maxAgentId);
+        }
+    }
+
+    private void foldDouble(int row, JoinDoubleFieldBo fieldBo) {
+        final double avg = fieldBo.getAvg();
+        final double min = fieldBo.getMin();
+        final double max = fieldBo.getMax();
+        if (counts[row]++ == 0) {
+            sums[row] = Double.doubleToRawLongBits(avg);
+            setMin(row, Double.doubleToRawLongBits(min), fieldBo.getMinAgentId());
+            setMax(row, Double.doubleToRawLongBits(max), fieldBo.getMaxAgentId());
+            return;
+        }
+        sums[row] = Double.doubleToRawLongBits(Double.longBitsToDouble(sums[row]) + avg);
+        if (Double.compare(min, Double.longBitsToDouble(mins[row])) < 0) {
+            setMin(row, Double.doubleToRawLongBits(min), fieldBo.getMinAgentId());
+        }
+        if (Double.compare(max, Double.longBitsToDouble(maxs[row])) > 0) {
+            setMax(row, Double.doubleToRawLongBits(max), fieldBo.getMaxAgentId());
+        }
+    }
+
+    private void setMin(int row, long min, String agentId) {
+        mins[row] = min;
+        minAgentIds[row] = agentId;
+    }
+
+    private void setMax(int row, long max, String agentId) {
+        maxs[row] = max;
+        maxAgentIds[row] = agentId;
+    }
+
+    /**
+     * Folds the rows of {@code other} into this accumulator, {@code other} is left unchanged.
+     * The first values of this accumulator are kept, as if {@code other} had received the later stats.
+     */
+    public void merge(ApplicationStatAccumulator other) {
+        Objects.requireNonNull(other, "other");
+        if (applicationId == null) {
+            applicationId = other.applicationId;
+        }
+        timestamp = Math.min(timestamp, other.timestamp);
+        for (int i = 0; i < other.size; i++) {
+            final int row = row(other.types[i], other.fields[i], other.slices[i], other.urls[i], other.serviceTypeCodes[i],
+                    other.ids[i], other.attributes[i]);
+            if (other.counts[i] == 0) {
+                continue;
+            }
+            if (counts[row] == 0) {
+                counts[row] = other.counts[i];
+                sums[row] = other.sums[i];
+                setMin(row, other.mins[i], other.minAgentIds[i]);
+                setMax(row, other.maxs[i], other.maxAgentIds[i]);
+                continue;
+            }
+            counts[row] += other.counts[i];
+            if (other.types[i] == CPU_LOAD) {
+                sums[row] = Double.doubleToRawLongBits(Double.longBitsToDouble(sums[row]) + Double.longBitsToDouble(other.sums[i]));
+                if (Double.compare(Double.longBitsToDouble(other.mins[i]), Double.longBitsToDouble(mins[row])) < 0) {
+                    setMin(row, other.mins[i], other.minAgentIds[i]);
+                }
+                if (Double.compare(Double.longBitsToDouble(other.maxs[i]), Double.longBitsToDouble(maxs[row])) > 0) {
+                    setMax(row, other.maxs[i], other.maxAgentIds[i]);
+                }
+            } else {
+                sums[row] += other.sums[i];
+                if (other.mins[i] < mins[row]) {
+                    setMin(row, other.mins[i], other.minAgentIds[i]);
+                }
+                if (other.maxs[i] > maxs[row]) {
+                    setMax(row, other.maxs[i], other.maxAgentIds[i]);
+                }
+            }
+        }
+    }
+
+    public JoinApplicationStatBo build() {
+        if (applicationId == null) {
+            return JoinApplicationStatBo.EMPTY_JOIN_APPLICATION_STAT_BO;
+        }
+        final JoinApplicationStatBo.Builder builder = JoinApplicationStatBo.newBuilder(applicationId, timestamp);
+        for (int row = 0; row < size; row++) {
+            if (fields[row] == 0 && types[row] != DATA_SOURCE) {
+                addStat(builder, row);
+            } else if (fields[row] == HEADER) {
+                builder.addDataSourceList(newDataSourceList(row));
+            }
+        }
+        return builder.build();
+    }
+
+    private void addStat(JoinApplicationStatBo.Builder builder, int row) {
+        switch (types[row]) {
+            case CPU_LOAD:
+                builder.addCpuLoad(new JoinCpuLoadBo(ids[row], doubleField(row), doubleField(fieldRow(row, 1)), slices[row]));
+                return;
+            case MEMORY:
+                final JoinMemoryBo memoryBo = new JoinMemoryBo();
+                setStat(memoryBo::setId, memoryBo::setTimestamp, row);
+                memoryBo.setHeapUsedJoinValue(longField(row));
+                memoryBo.setNonHeapUsedJoinValue(longField(fieldRow(row, 1)));
+                builder.addMemory(memoryBo);
+                return;
+            case TRANSACTION:
+                final JoinTransactionBo transactionBo = new JoinTransactionBo();
+                setStat(transactionBo::setId, transactionBo::setTimestamp, row);
+                transactionBo.setCollectInterval(attributes[row]);
+                transactionBo.setTotalCountJoinValue(longField(row));
+                builder.addTransaction(transactionBo);
+                return;
+            case ACTIVE_TRACE:
+                final JoinActiveTraceBo activeTraceBo = new JoinActiveTraceBo();
+                setStat(activeTraceBo::setId, activeTraceBo::setTimestamp, row);
+                activeTraceBo.setHistogramSchemaType((int) (attributes[row] >> 16));
+                activeTraceBo.setVersion((short) attributes[row]);
+                activeTraceBo.setTotalCountJoinValue(intField(row));
+                builder.addActiveTrace(activeTraceBo);
+                return;
+            case RESPONSE_TIME:
+                final JoinResponseTimeBo responseTimeBo = new JoinResponseTimeBo();
+                setStat(responseTimeBo::setId, responseTimeBo::setTimestamp, row);
+                responseTimeBo.setResponseTimeJoinValue(longField(row));
+                builder.addResponseTime(responseTimeBo);
+                return;
+            case FILE_DESCRIPTOR:
+                final JoinFileDescriptorBo fileDescriptorBo = new JoinFileDescriptorBo();
+                setStat(fileDescriptorBo::setId, fileDescriptorBo::setTimestamp, row);
+                fileDescriptorBo.setOpenFdCountJoinValue(longField(row));
+                builder.addFileDescriptor(fileDescriptorBo);
+                return;
+            case DIRECT_BUFFER:
+                final JoinDirectBufferBo directBufferBo = new JoinDirectBufferBo();
+                setStat(directBufferBo::setId, directBufferBo::setTimestamp, row);
+                directBufferBo.setDirectCountJoinValue(longField(row));
+                directBufferBo.setDirectMemoryUsedJoinValue(longField(fieldRow(row, 1)));
+                directBufferBo.setMappedCountJoinValue(longField(fieldRow(row, 2)));
+                directBufferBo.setMappedMemoryUsedJoinValue(longField(fieldRow(row, 3)));
+                builder.addDirectBuffer(directBufferBo);
+                return;
+            case TOTAL_THREAD_COUNT:
+                final JoinTotalThreadCountBo totalThreadCountBo = new JoinTotalThreadCountBo();
+                setStat(totalThreadCountBo::setId, totalThreadCountBo::setTimestamp, row);
+                totalThreadCountBo.setTotalThreadCountJoinValue(longField(row));
+                builder.addTotalThreadCount(totalThreadCountBo);
+                return;
+            case LOADED_CLASS:
+                final JoinLoadedClassBo loadedClassBo = new JoinLoadedClassBo();
+                setStat(loadedClassBo::setId, loadedClassBo::setTimestamp, row);
+                loadedClassBo.setLoadedClassJoinValue(longField(row));
+                loadedClassBo.setUnloadedClassJoinValue(longField(fieldRow(row, 1)));
+                builder.addLoadedClass(loadedClassBo);
+                return;
+            default:
+                throw new IllegalStateException("unknown stat type:" + types[row]);
+        }
+    }
+
+    private void setStat(Consumer<String> idSetter, LongConsumer timestampSetter, int row) {
+        idSetter.accept(ids[row]);
+        timestampSetter.accept(slices[row]);
+    }
+
+    private JoinDataSourceListBo newDataSourceList(int header) {
+        final List<JoinDataSourceBo> dataSourceBoList = new ArrayList<>();
+        for (int row = 0; row < size; row++) {
+            if (types[row] == DATA_SOURCE && fields[row] == 0 && slices[row] == slices[header]) {
+                final JoinDataSourceBo dataSourceBo = new JoinDataSourceBo();
+                dataSourceBo.setServiceTypeCode(serviceTypeCodes[row]);
+                dataSourceBo.setUrl(urls[row]);
+                dataSourceBo.setActiveConnectionSizeJoinValue(intField(row));
+                dataSourceBoList.add(dataSourceBo);
+            }
+        }
+        return new JoinDataSourceListBo(ids[header], dataSourceBoList, slices[header]);
+    }
+
+    private int fieldRow(int row, int field) {
+        final int index = indexOf(types[row], field, slices[row], urls[row], serviceTypeCodes[row]);
+        if (index == -1) {
+            throw new IllegalStateException("missing field:" + field + " type:" + types[row]);
+        }
+        return index;
+    }
+
+    private JoinLongFieldBo longField(int row) {
+        final long avg = (long) ((double) sums[row] / counts[row]);
+        return new JoinLongFieldBo(avg, mins[row], minAgentIds[row], maxs[row], maxAgentIds[row]);
+    }
+
+    private JoinIntFieldBo intField(int row) {
+        final int avg = (int) ((double) sums[row] / counts[row]);
+        return new JoinIntFieldBo(avg, (int) mins[row], minAgentIds[row], (int) maxs[row], maxAgentIds[row]);
+    }
+
+    private JoinDoubleFieldBo doubleField(int row) {
+        final double avg = Double.longBitsToDouble(sums[row]) / counts[row];
+        return new JoinDoubleFieldBo(avg, Double.longBitsToDouble(mins[row]), minAgentIds[row],
+                Double.longBitsToDouble(maxs[row]), maxAgentIds[row]);
+    }
+}
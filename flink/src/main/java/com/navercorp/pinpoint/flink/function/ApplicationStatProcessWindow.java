@@ -0,0 +1,69 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.flink.function;
+
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinApplicationStatBo;
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinStatBo;
+import com.navercorp.pinpoint.flink.Bootstrap;
+import org.apache.flink.api.common.ExecutionConfig.GlobalJobParameters;
+import org.apache.flink.api.java.tuple.Tuple3;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.streaming.api.functions.windowing.ProcessWindowFunction;
+import org.apache.flink.streaming.api.windowing.windows.TimeWindow;
+import org.apache.flink.util.Collector;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Collections;
+
+/**
+ * Emits the result of {@link ApplicationStatAggregateFunction}, the incremental counterpart of {@link ApplicationStatBoWindow}.
+ * The interceptor does not see the raw values of the window, they are already folded into the result.
+ */
+public class ApplicationStatProcessWindow extends ProcessWindowFunction<JoinApplicationStatBo, Tuple3<String, JoinStatBo, Long>, String, TimeWindow> {
+
+    private final static Logger logger = LogManager.getLogger(ApplicationStatProcessWindow.class);
+
+    private transient ApplicationStatBoWindowInterceptor applicationStatBoWindowInterceptor;
+
+    @Override
+    public void open(Configuration parameters) throws Exception {
+        GlobalJobParameters globalJobParameters = getRuntimeContext().getExecutionConfig().getGlobalJobParameters();
+        applicationStatBoWindowInterceptor = Bootstrap.getInstance(globalJobParameters.toMap()).getApplicationStatBoWindowInterceptor();
+    }
+
+    @Override
+    public void process(String groupingKey, Context context, Iterable<JoinApplicationStatBo> elements, Collector<Tuple3<String, JoinStatBo, Long>> out) throws Exception {
+        applicationStatBoWindowInterceptor.before(Collections.emptyList());
+        try {
+            for (JoinApplicationStatBo joinApplicationStatBo : elements) {
+                ApplicationStatBoWindow.logJoinDelay(joinApplicationStatBo);
+
+                if (joinApplicationStatBo == JoinApplicationStatBo.EMPTY_JOIN_APPLICATION_STAT_BO) {
+                    continue;
+                }
+
+                Tuple3<String, JoinStatBo, Long> resultTuple = applicationStatBoWindowInterceptor.middle(new Tuple3<>(groupingKey, joinApplicationStatBo, joinApplicationStatBo.getTimestamp()));
+                out.collect(resultTuple);
+            }
+        } catch (Exception e) {
+            logger.error("window function error", e);
+        } finally {
+            applicationStatBoWindowInterceptor.after();
+        }
+    }
+}
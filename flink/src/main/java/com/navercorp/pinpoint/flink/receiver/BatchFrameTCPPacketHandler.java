@@ -0,0 +1,87 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.flink.receiver;
+
+import com.navercorp.pinpoint.collector.receiver.DispatchHandler;
+import com.navercorp.pinpoint.collector.receiver.thrift.tcp.TCPPacketHandler;
+import com.navercorp.pinpoint.io.request.DefaultServerRequest;
+import com.navercorp.pinpoint.io.request.Message;
+import com.navercorp.pinpoint.rpc.PinpointSocket;
+import com.navercorp.pinpoint.rpc.packet.RequestPacket;
+import com.navercorp.pinpoint.rpc.packet.SendPacket;
+import com.navercorp.pinpoint.thrift.io.FlinkBatchFrame;
+import com.navercorp.pinpoint.thrift.io.FlinkBatchFrameDecoder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.thrift.TBase;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Unpacks {@link FlinkBatchFrame}s and dispatches every message in them.
+ * Anything else is handed to the delegate, so collectors sending single messages keep working.
+ */
+public class BatchFrameTCPPacketHandler implements TCPPacketHandler {
+
+    private final Logger logger = LogManager.getLogger(this.getClass());
+
+    private final DispatchHandler<TBase<?, ?>, TBase<?, ?>> dispatchHandler;
+    private final TCPPacketHandler delegate;
+    private final ThreadLocal<FlinkBatchFrameDecoder> decoder;
+
+    public BatchFrameTCPPacketHandler(DispatchHandler<TBase<?, ?>, TBase<?, ?>> dispatchHandler, TCPPacketHandler delegate,
+                                      ThreadLocal<FlinkBatchFrameDecoder> decoder) {
+        this.dispatchHandler = Objects.requireNonNull(dispatchHandler, "dispatchHandler");
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        this.decoder = Objects.requireNonNull(decoder, "decoder");
+    }
+
+    @Override
+    public void handleSend(SendPacket packet, PinpointSocket pinpointSocket) {
+        final byte[] payload = packet.getPayload();
+        if (!FlinkBatchFrame.isBatchFrame(payload)) {
+            delegate.handleSend(packet, pinpointSocket);
+            return;
+        }
+
+        final InetSocketAddress remoteAddress = (InetSocketAddress) pinpointSocket.getRemoteAddress();
+        final List<Message<TBase<?, ?>>> messages;
+        try {
+            messages = decoder.get().decode(payload);
+        } catch (Exception e) {
+            logger.warn("batch frame decode fail. remote:{} cause:{}", remoteAddress, e.getMessage(), e);
+            return;
+        }
+
+        final String remoteHost = remoteAddress.getAddress().getHostAddress();
+        final int remotePort = remoteAddress.getPort();
+        for (Message<TBase<?, ?>> message : messages) {
+            try {
+                dispatchHandler.dispatchSendMessage(new DefaultServerRequest<>(message, remoteHost, remotePort));
+            } catch (Exception e) {
+                logger.warn("Unexpected error. remote:{} cause:{}", remoteAddress, e.getMessage(), e);
+            }
+        }
+    }
+
+    @Override
+    public void handleRequest(RequestPacket packet, PinpointSocket pinpointSocket) {
+        delegate.handleRequest(packet, pinpointSocket);
+    }
+}
@@ -21,6 +21,7 @@ import com.navercorp.pinpoint.collector.receiver.thrift.tcp.DefaultTCPPacketHand
 import com.navercorp.pinpoint.collector.receiver.thrift.tcp.TCPPacketHandler;
 import com.navercorp.pinpoint.collector.receiver.thrift.tcp.TCPPacketHandlerFactory;
 import com.navercorp.pinpoint.thrift.io.DeserializerFactory;
+import com.navercorp.pinpoint.thrift.io.FlinkBatchFrameDecoder;
 import com.navercorp.pinpoint.thrift.io.HeaderTBaseDeserializer;
 import com.navercorp.pinpoint.thrift.io.HeaderTBaseDeserializerFactory;
 import com.navercorp.pinpoint.thrift.io.HeaderTBaseSerializer;
@@ -39,6 +40,7 @@ public class FlinkPacketHandlerFactory implements TCPPacketHandlerFactory<TBase<
 
     private final SerializerFactory<HeaderTBaseSerializer> cachedSerializer;
     private final DeserializerFactory<HeaderTBaseDeserializer> cachedDeserializer;
+    private final ThreadLocal<FlinkBatchFrameDecoder> batchFrameDecoder;
 
     public FlinkPacketHandlerFactory(HeaderTBaseSerializerFactory flinkHeaderTBaseSerializerFactory, HeaderTBaseDeserializerFactory flinkHeaderTBaseDeserializerFactory) {
         Objects.requireNonNull(flinkHeaderTBaseSerializerFactory, "flinkHeaderTBaseSerializerFactory");
@@ -47,11 +49,13 @@ public class FlinkPacketHandlerFactory implements TCPPacketHandlerFactory<TBase<
         this.cachedSerializer = new ThreadLocalHeaderTBaseSerializerFactory<>(flinkHeaderTBaseSerializerFactory);
 
         this.cachedDeserializer = new ThreadLocalHeaderTBaseDeserializerFactory<>(flinkHeaderTBaseDeserializerFactory);
+        this.batchFrameDecoder = ThreadLocal.withInitial(() -> new FlinkBatchFrameDecoder(flinkHeaderTBaseDeserializerFactory.createDeserializer()));
     }
 
     @Override
     public TCPPacketHandler build(DispatchHandler<TBase<?, ?>, TBase<?, ?>> dispatchHandler) {
         Objects.requireNonNull(dispatchHandler, "dispatchHandler");
-        return new DefaultTCPPacketHandler(dispatchHandler, cachedSerializer, cachedDeserializer);
+        TCPPacketHandler packetHandler = new DefaultTCPPacketHandler(dispatchHandler, cachedSerializer, cachedDeserializer);
+        return new BatchFrameTCPPacketHandler(dispatchHandler, packetHandler, batchFrameDecoder);
     }
 }
\ No newline at end of file
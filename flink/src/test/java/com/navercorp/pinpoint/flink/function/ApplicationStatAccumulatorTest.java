@@ -0,0 +1,154 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.flink.function;
+
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinActiveTraceBo;
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinApplicationStatBo;
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinCpuLoadBo;
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinDataSourceBo;
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinDataSourceListBo;
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinDirectBufferBo;
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinDoubleFieldBo;
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinFileDescriptorBo;
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinIntFieldBo;
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinLoadedClassBo;
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinLongFieldBo;
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinMemoryBo;
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinResponseTimeBo;
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinTotalThreadCountBo;
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinTransactionBo;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ApplicationStatAccumulatorTest {
+
+    private static final String APPLICATION_ID = "test_app";
+    private static final long TIMESTAMP = 1487149800000L;
+
+    @Test
+    public void build_sameAsJoinByTimeSlice() {
+        List<JoinApplicationStatBo> statBoList = newStatBoList();
+
+        ApplicationStatAccumulator accumulator = new ApplicationStatAccumulator();
+        for (JoinApplicationStatBo statBo : statBoList) {
+            accumulator.add(statBo);
+        }
+
+        assertJoinResult(JoinApplicationStatBo.joinApplicationStatBoByTimeSlice(statBoList), accumulator.build());
+    }
+
+    @Test
+    public void merge_sameAsJoinByTimeSlice() {
+        List<JoinApplicationStatBo> statBoList = newStatBoList();
+
+        ApplicationStatAccumulator accumulator = new ApplicationStatAccumulator();
+        ApplicationStatAccumulator other = new ApplicationStatAccumulator();
+        // the first value wins on ties, so the merged accumulator holds the later half
+        for (int i = 0; i < statBoList.size(); i++) {
+            if (i < statBoList.size() / 2) {
+                accumulator.add(statBoList.get(i));
+            } else {
+                other.add(statBoList.get(i));
+            }
+        }
+        accumulator.merge(other);
+
+        assertJoinResult(JoinApplicationStatBo.joinApplicationStatBoByTimeSlice(statBoList), accumulator.build());
+    }
+
+    @Test
+    public void build_empty() {
+        assertThat(new ApplicationStatAccumulator().build()).isSameAs(JoinApplicationStatBo.EMPTY_JOIN_APPLICATION_STAT_BO);
+    }
+
+    @Test
+    public void add_emptyDataSourceList() {
+        JoinApplicationStatBo.Builder builder = JoinApplicationStatBo.newBuilder(APPLICATION_ID, TIMESTAMP);
+        builder.addDataSourceList(new JoinDataSourceListBo("agent0", new ArrayList<>(), TIMESTAMP + 1000));
+        List<JoinApplicationStatBo> statBoList = List.of(builder.build());
+
+        ApplicationStatAccumulator accumulator = new ApplicationStatAccumulator();
+        accumulator.add(statBoList.get(0));
+
+        JoinApplicationStatBo result = accumulator.build();
+        assertThat(result.getJoinDataSourceListBoList())
+                .isEqualTo(JoinApplicationStatBo.joinApplicationStatBoByTimeSlice(statBoList).getJoinDataSourceListBoList());
+        assertThat(result.getJoinDataSourceListBoList().get(0).getJoinDataSourceBoList()).isEmpty();
+    }
+
+    private void assertJoinResult(JoinApplicationStatBo expected, JoinApplicationStatBo actual) {
+        assertThat(actual.getId()).isEqualTo(expected.getId());
+        assertThat(actual.getTimestamp()).isEqualTo(expected.getTimestamp());
+        assertThat(actual.getJoinCpuLoadBoList()).containsExactlyInAnyOrderElementsOf(expected.getJoinCpuLoadBoList());
+        assertThat(actual.getJoinMemoryBoList()).containsExactlyInAnyOrderElementsOf(expected.getJoinMemoryBoList());
+        assertThat(actual.getJoinTransactionBoList()).containsExactlyInAnyOrderElementsOf(expected.getJoinTransactionBoList());
+        assertThat(actual.getJoinActiveTraceBoList()).containsExactlyInAnyOrderElementsOf(expected.getJoinActiveTraceBoList());
+        assertThat(actual.getJoinResponseTimeBoList()).containsExactlyInAnyOrderElementsOf(expected.getJoinResponseTimeBoList());
+        assertThat(actual.getJoinDataSourceListBoList()).containsExactlyInAnyOrderElementsOf(expected.getJoinDataSourceListBoList());
+        assertThat(actual.getJoinFileDescriptorBoList()).containsExactlyInAnyOrderElementsOf(expected.getJoinFileDescriptorBoList());
+        assertThat(actual.getJoinDirectBufferBoList()).containsExactlyInAnyOrderElementsOf(expected.getJoinDirectBufferBoList());
+        assertThat(actual.getJoinTotalThreadCountBoList()).containsExactlyInAnyOrderElementsOf(expected.getJoinTotalThreadCountBoList());
+        assertThat(actual.getJoinLoadedClassBoList()).containsExactlyInAnyOrderElementsOf(expected.getJoinLoadedClassBoList());
+        assertThat(actual.getJoinTransactionBoList().get(0).getCollectInterval()).isEqualTo(5000);
+        assertThat(actual.getJoinActiveTraceBoList().get(0).getVersion()).isEqualTo((short) 1);
+    }
+
+    private List<JoinApplicationStatBo> newStatBoList() {
+        List<JoinApplicationStatBo> statBoList = new ArrayList<>();
+        for (int agent = 0; agent < 5; agent++) {
+            for (int slice = 0; slice < 3; slice++) {
+                // same value for several agents so that the first minimum and maximum must be kept
+                statBoList.add(newStatBo("agent" + agent, TIMESTAMP + slice * 5000L + agent * 1000L, (agent % 3) + slice));
+            }
+        }
+        return statBoList;
+    }
+
+    private JoinApplicationStatBo newStatBo(String agentId, long timestamp, int value) {
+        JoinApplicationStatBo.Builder builder = JoinApplicationStatBo.newBuilder(APPLICATION_ID, timestamp);
+        builder.addCpuLoad(new JoinCpuLoadBo(agentId, doubleField(agentId, value * 0.25), doubleField(agentId, value * 0.5), timestamp));
+        builder.addMemory(new JoinMemoryBo(agentId, timestamp, longField(agentId, value * 1000L), longField(agentId, value * 10L)));
+        builder.addTransaction(new JoinTransactionBo(agentId, 5000, longField(agentId, value), timestamp));
+        builder.addActiveTrace(new JoinActiveTraceBo(agentId, 2, (short) 1, intField(agentId, value * 3), timestamp));
+        builder.addResponseTime(new JoinResponseTimeBo(agentId, timestamp, longField(agentId, value * 7L)));
+        List<JoinDataSourceBo> dataSourceBoList = new ArrayList<>();
+        dataSourceBoList.add(new JoinDataSourceBo((short) 6050, "jdbc:mysql://localhost/db", intField(agentId, value)));
+        builder.addDataSourceList(new JoinDataSourceListBo(agentId, dataSourceBoList, timestamp));
+        builder.addFileDescriptor(new JoinFileDescriptorBo(agentId, longField(agentId, value * 11L), timestamp));
+        builder.addDirectBuffer(new JoinDirectBufferBo(agentId, longField(agentId, value), longField(agentId, value * 2L),
+                longField(agentId, value * 3L), longField(agentId, value * 4L), timestamp));
+        builder.addTotalThreadCount(new JoinTotalThreadCountBo(agentId, timestamp, longField(agentId, value * 5L)));
+        builder.addLoadedClass(new JoinLoadedClassBo(agentId, longField(agentId, value * 13L), longField(agentId, value), timestamp));
+        return builder.build();
+    }
+
+    private JoinDoubleFieldBo doubleField(String agentId, double value) {
+        return new JoinDoubleFieldBo(value, value - 0.125, agentId + "_min", value + 0.125, agentId + "_max");
+    }
+
+    private JoinLongFieldBo longField(String agentId, long value) {
+        return new JoinLongFieldBo(value, value - 1, agentId + "_min", value + 1, agentId + "_max");
+    }
+
+    private JoinIntFieldBo intField(String agentId, int value) {
+        return new JoinIntFieldBo(value, value - 1, agentId + "_min", value + 1, agentId + "_max");
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.flink.function;
+
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinApplicationStatBo;
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinCpuLoadBo;
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinDoubleFieldBo;
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinLongFieldBo;
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinMemoryBo;
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinStatBo;
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.java.tuple.Tuple3;
+import org.apache.flink.api.java.typeutils.PojoTypeInfo;
+import org.apache.flink.core.memory.DataInputDeserializer;
+import org.apache.flink.core.memory.DataOutputSerializer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ApplicationStatAggregateFunctionTest {
+
+    private static final String APPLICATION_ID = "test_app";
+    private static final long TIMESTAMP = 1487149800000L;
+
+    @Test
+    public void accumulatorIsPojo() {
+        TypeInformation<ApplicationStatAccumulator> typeInfo = TypeInformation.of(ApplicationStatAccumulator.class);
+        assertThat(typeInfo).isInstanceOf(PojoTypeInfo.class);
+    }
+
+    @Test
+    public void accumulatorState() throws IOException {
+        ApplicationStatAggregateFunction function = new ApplicationStatAggregateFunction();
+        ApplicationStatAccumulator accumulator = function.createAccumulator();
+        int statCount = 0;
+        for (int agent = 0; agent < 100; agent++) {
+            for (int slice = 0; slice < 2; slice++) {
+                accumulator = function.add(newValue("agent" + agent, TIMESTAMP + slice * 5000L, agent), accumulator);
+                statCount++;
+            }
+        }
+
+        TypeSerializer<ApplicationStatAccumulator> serializer = TypeInformation.of(ApplicationStatAccumulator.class)
+                .createSerializer(new ExecutionConfig());
+        DataOutputSerializer output = new DataOutputSerializer(1024);
+        serializer.serialize(accumulator, output);
+
+        // 2 slices of cpu and memory, 8 rows regardless of the number of received stats
+        assertThat(accumulator.size).isEqualTo(8);
+        assertThat(output.length()).isLessThan(statCount * 64);
+
+        ApplicationStatAccumulator restored = serializer.deserialize(new DataInputDeserializer(output.getSharedBuffer(), 0, output.length()));
+        JoinApplicationStatBo expected = function.getResult(accumulator);
+        JoinApplicationStatBo actual = function.getResult(restored);
+        assertThat(actual.getTimestamp()).isEqualTo(expected.getTimestamp());
+        assertThat(actual.getJoinCpuLoadBoList()).containsExactlyInAnyOrderElementsOf(expected.getJoinCpuLoadBoList());
+        assertThat(actual.getJoinMemoryBoList()).containsExactlyInAnyOrderElementsOf(expected.getJoinMemoryBoList());
+    }
+
+    private Tuple3<String, JoinStatBo, Long> newValue(String agentId, long timestamp, long value) {
+        JoinApplicationStatBo.Builder builder = JoinApplicationStatBo.newBuilder(APPLICATION_ID, timestamp);
+        JoinDoubleFieldBo cpuLoad = new JoinDoubleFieldBo(0.5, 0.25, agentId, 0.75, agentId);
+        builder.addCpuLoad(new JoinCpuLoadBo(agentId, cpuLoad, cpuLoad, timestamp));
+        JoinLongFieldBo used = new JoinLongFieldBo(value, value, agentId, value, agentId);
+        builder.addMemory(new JoinMemoryBo(agentId, timestamp, used, used));
+        JoinApplicationStatBo statBo = builder.build();
+        return new Tuple3<>(APPLICATION_ID, statBo, timestamp);
+    }
+}
@@ -10,11 +10,17 @@ public class DefaultServerCallWrapper<ReqT, RespT> implements ServerCallWrapper
     private final ServerCall<ReqT, RespT> serverCall;
     private final String agentId;
     private final String applicationName;
+    private final StreamBackpressure backpressure;
 
     public DefaultServerCallWrapper(ServerCall<ReqT, RespT> serverCall, String applicationName, String agentId) {
+        this(serverCall, applicationName, agentId, StreamBackpressure.NONE);
+    }
+
+    public DefaultServerCallWrapper(ServerCall<ReqT, RespT> serverCall, String applicationName, String agentId, StreamBackpressure backpressure) {
         this.serverCall = Objects.requireNonNull(serverCall, "serverCall");
         this.applicationName = Objects.requireNonNull(applicationName, "applicationName");
         this.agentId = Objects.requireNonNull(agentId, "agentId");
+        this.backpressure = Objects.requireNonNull(backpressure, "backpressure");
     }
 
     @Override
@@ -22,6 +28,11 @@ public class DefaultServerCallWrapper<ReqT, RespT> implements ServerCallWrapper
         this.serverCall.request(numMessages);
     }
 
+    @Override
+    public boolean isBackpressured() {
+        return backpressure.isBackpressured(agentId);
+    }
+
     @Override
     public String getAgentId() {
         return agentId;
@@ -57,6 +57,10 @@ public class FlowControlRejectExecutionListener implements RejectedExecutionList
     private void reject() {
         final long currentRejectCount = this.rejectedExecutionCounter.get();
         if (currentRejectCount > 0) {
+            if (serverCall.isBackpressured()) {
+                // keep withholding until the consumer drains
+                return;
+            }
             final long recovery = Math.min(currentRejectCount, recoveryMessagesCount);
             this.rejectedExecutionCounter.addAndGet(-recovery);
             serverCall.request((int) recovery);
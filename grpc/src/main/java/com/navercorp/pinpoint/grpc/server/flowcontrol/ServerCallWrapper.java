@@ -10,5 +10,7 @@ public interface ServerCallWrapper {
 
     void request(int numMessages);
 
+    boolean isBackpressured();
+
     void cancel(Status status, Metadata trailers);
 }
@@ -0,0 +1,31 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.grpc.server.flowcontrol;
+
+/**
+ * Tells whether the consumer of an agent stream is saturated.
+ * <p>
+ * While saturated, request credits of the stream are withheld and released
+ * by the {@link RejectedExecutionListener} schedule once the consumer has drained.
+ */
+public interface StreamBackpressure {
+
+    StreamBackpressure NONE = agentId -> false;
+
+    boolean isBackpressured(String agentId);
+}
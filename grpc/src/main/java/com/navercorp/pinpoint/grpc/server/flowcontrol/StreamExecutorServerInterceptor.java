@@ -20,6 +20,7 @@ import com.navercorp.pinpoint.common.profiler.logging.ThrottledLogger;
 import com.navercorp.pinpoint.common.util.Assert;
 import com.navercorp.pinpoint.grpc.Header;
 import io.grpc.Context;
+import io.grpc.ForwardingServerCall;
 import io.grpc.ForwardingServerCallListener;
 import io.grpc.Metadata;
 import io.grpc.ServerCall;
@@ -42,9 +43,16 @@ public class StreamExecutorServerInterceptor implements ServerInterceptor {
     private final Executor executor;
     private final int initNumMessages;
     private final StreamExecutorRejectedExecutionRequestScheduler scheduler;
+    private final StreamBackpressure backpressure;
 
     public StreamExecutorServerInterceptor(String name, final Executor executor, final int initNumMessages,
                                            final ScheduledExecutor scheduledExecutor, RejectedExecutionListenerFactory listenerFactory, final long throttledLoggerRatio) {
+        this(name, executor, initNumMessages, scheduledExecutor, listenerFactory, throttledLoggerRatio, StreamBackpressure.NONE);
+    }
+
+    public StreamExecutorServerInterceptor(String name, final Executor executor, final int initNumMessages,
+                                           final ScheduledExecutor scheduledExecutor, RejectedExecutionListenerFactory listenerFactory, final long throttledLoggerRatio,
+                                           final StreamBackpressure backpressure) {
         this.name = Objects.requireNonNull(name, "name");
 
         Objects.requireNonNull(executor, "executor");
@@ -58,6 +66,7 @@ public class StreamExecutorServerInterceptor implements ServerInterceptor {
 
         this.scheduler = new StreamExecutorRejectedExecutionRequestScheduler(scheduledExecutor, listenerFactory);
         throttledLogger = ThrottledLogger.getLogger(logger, throttledLoggerRatio);
+        this.backpressure = Objects.requireNonNull(backpressure, "backpressure");
     }
 
     @Override
@@ -70,7 +79,8 @@ public class StreamExecutorServerInterceptor implements ServerInterceptor {
                     this.name, call.getMethodDescriptor().getFullMethodName(), headers, initNumMessages, scheduler, scheduleListener);
         }
 
-        final ServerCall.Listener<ReqT> listener = next.startCall(call, headers);
+        final ServerCall<ReqT, RespT> backpressureCall = newBackpressureServerCall(call, serverCall, scheduleListener);
+        final ServerCall.Listener<ReqT> listener = next.startCall(backpressureCall, headers);
         // Init MessageDeframer.pendingDeliveries
         call.request(initNumMessages);
 
@@ -82,7 +92,13 @@ public class StreamExecutorServerInterceptor implements ServerInterceptor {
                         @Override
                         public void run() {
                             scheduleListener.onMessage();
-                            delegate().onMessage(message);
+                            try {
+                                delegate().onMessage(message);
+                            } catch (RejectedExecutionException ree) {
+                                // rejected by the consumer
+                                scheduleListener.onRejectedExecution();
+                                throttledLogger.info("Failed to request. Rejected by consumer, count={}", scheduleListener.getRejectedExecutionCount());
+                            }
                         }
                     });
 //                    scheduleListener.onMessage();
@@ -110,6 +126,26 @@ public class StreamExecutorServerInterceptor implements ServerInterceptor {
     private <ReqT, RespT> ServerCallWrapper newServerCallWrapper(ServerCall<ReqT, RespT> call, Metadata headers) {
         final String agentId = headers.get(Header.AGENT_ID_KEY);
         final String applicationName = headers.get(Header.APPLICATION_NAME_KEY);
-        return new DefaultServerCallWrapper<>(call, applicationName, agentId);
+        return new DefaultServerCallWrapper<>(call, applicationName, agentId, backpressure);
+    }
+
+    private <ReqT, RespT> ServerCall<ReqT, RespT> newBackpressureServerCall(ServerCall<ReqT, RespT> call, final ServerCallWrapper serverCall,
+                                                                            final StreamExecutorRejectedExecutionRequestScheduler.Listener scheduleListener) {
+        if (backpressure == StreamBackpressure.NONE) {
+            return call;
+        }
+        return new ForwardingServerCall.SimpleForwardingServerCall<ReqT, RespT>(call) {
+            @Override
+            public void request(int numMessages) {
+                if (serverCall.isBackpressured()) {
+                    // withhold the credit, released by the scheduler after the consumer drains
+                    for (int i = 0; i < numMessages; i++) {
+                        scheduleListener.onRejectedExecution();
+                    }
+                    return;
+                }
+                super.request(numMessages);
+            }
+        };
     }
 }
\ No newline at end of file
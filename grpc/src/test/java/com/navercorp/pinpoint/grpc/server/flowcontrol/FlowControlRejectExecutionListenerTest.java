@@ -0,0 +1,53 @@
+package com.navercorp.pinpoint.grpc.server.flowcontrol;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class FlowControlRejectExecutionListenerTest {
+
+    @Test
+    public void onSchedule_recovery() {
+        ServerCallWrapper serverCall = mock(ServerCallWrapper.class);
+        RejectedExecutionListener listener = newListener(serverCall);
+
+        for (int i = 0; i < 15; i++) {
+            listener.onRejectedExecution();
+        }
+        listener.onSchedule();
+        verify(serverCall).request(10);
+        Assertions.assertEquals(5, listener.getRejectedExecutionCount());
+    }
+
+    @Test
+    public void onSchedule_backpressured() {
+        ServerCallWrapper serverCall = mock(ServerCallWrapper.class);
+        when(serverCall.isBackpressured()).thenReturn(true);
+        RejectedExecutionListener listener = newListener(serverCall);
+
+        listener.onRejectedExecution();
+        listener.onSchedule();
+        verify(serverCall, never()).request(anyInt());
+        Assertions.assertEquals(1, listener.getRejectedExecutionCount());
+
+        when(serverCall.isBackpressured()).thenReturn(false);
+        listener.onSchedule();
+        verify(serverCall).request(1);
+        Assertions.assertEquals(0, listener.getRejectedExecutionCount());
+    }
+
+    private RejectedExecutionListener newListener(ServerCallWrapper serverCall) {
+        IdleTimeoutFactory idleTimeoutFactory = new IdleTimeoutFactory(TimeUnit.SECONDS.toMillis(600));
+        RejectedExecutionListener listener = new RejectedExecutionListenerFactory("test", 10, idleTimeoutFactory).newListener(serverCall);
+        listener.setFuture(new FutureTask<>(() -> null));
+        return listener;
+    }
+}
@@ -116,6 +116,10 @@ public abstract class PinotAlarmChecker<T extends Number> implements PinotAlarmC
         return rules.get(index).getNotes();
     }
 
+    public PinotDataCollector<T> getDataCollector() {
+        return dataCollector;
+    }
+
     public AlarmCondition getAlarmCondition() {
         return alarmCondition;
     }
@@ -144,8 +148,16 @@ public abstract class PinotAlarmChecker<T extends Number> implements PinotAlarmC
     }
 
     public boolean[] check(long timeSlotEndTime) {
+        return evaluate(collect(timeSlotEndTime));
+    }
+
+    public T collect(long timeSlotEndTime) {
         Range range = Range.newUncheckedRange(timeSlotEndTime - SLOT_INTERVAL_FIVE_MIN, timeSlotEndTime);
-        collectedValue = dataCollector.collect(serviceName, applicationName, target, range);
+        return dataCollector.collect(serviceName, applicationName, target, range);
+    }
+
+    public boolean[] evaluate(T collectedValue) {
+        this.collectedValue = collectedValue;
 
         for (int i = 0; i < rules.size(); i++) {
             PinotAlarmRule rule = rules.get(i);
@@ -1,6 +1,13 @@
 package com.navercorp.pinpoint.batch.alarm.checker;
 
+import com.navercorp.pinpoint.batch.alarm.AlarmCheckExecutor;
+import com.navercorp.pinpoint.batch.alarm.collector.PinotDataCollector;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 public class PinotAlarmCheckers {
     private final List<PinotAlarmChecker> children;
@@ -15,8 +22,68 @@ public class PinotAlarmCheckers {
         }
     }
 
+    /**
+     * Checkers querying the same collector and target share a single query,
+     * and the queries run concurrently within the pinot datasource limit.
+     */
+    public void check(long now, AlarmCheckExecutor executor) {
+        Map<CollectKey, List<PinotAlarmChecker>> collectGroups = new LinkedHashMap<>();
+        for (PinotAlarmChecker<?> child : this.children) {
+            collectGroups.computeIfAbsent(new CollectKey(child), k -> new ArrayList<>()).add(child);
+        }
+
+        List<Runnable> tasks = new ArrayList<>(collectGroups.size());
+        for (List<PinotAlarmChecker> checkers : collectGroups.values()) {
+            tasks.add(() -> collectAndEvaluate(now, checkers));
+        }
+        executor.execute(AlarmCheckExecutor.DATASOURCE_PINOT, tasks);
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private void collectAndEvaluate(long now, List<PinotAlarmChecker> checkers) {
+        Number collectedValue = checkers.get(0).collect(now);
+        for (PinotAlarmChecker checker : checkers) {
+            checker.evaluate(collectedValue);
+        }
+    }
+
     public List<PinotAlarmChecker> getChildren() {
         return children;
     }
 
+    private static class CollectKey {
+        private final PinotDataCollector<?> dataCollector;
+        private final String serviceName;
+        private final String applicationName;
+        private final String target;
+
+        CollectKey(PinotAlarmChecker<?> checker) {
+            this.dataCollector = checker.getDataCollector();
+            this.serviceName = checker.getServiceName();
+            this.applicationName = checker.getApplicationName();
+            this.target = checker.getTarget();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            CollectKey that = (CollectKey) o;
+
+            if (dataCollector != that.dataCollector) return false;
+            if (!Objects.equals(serviceName, that.serviceName)) return false;
+            if (!Objects.equals(applicationName, that.applicationName)) return false;
+            return Objects.equals(target, that.target);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = System.identityHashCode(dataCollector);
+            result = 31 * result + Objects.hashCode(serviceName);
+            result = 31 * result + Objects.hashCode(applicationName);
+            result = 31 * result + Objects.hashCode(target);
+            return result;
+        }
+    }
 }
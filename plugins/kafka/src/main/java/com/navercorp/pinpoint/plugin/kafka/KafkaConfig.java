@@ -34,6 +34,11 @@ public class KafkaConfig {
     static final String CONSUMER_ENABLE = "profiler.kafka.consumer.enable";
     static final String CONSUMER_ENTRY_POINT = "profiler.kafka.consumer.entryPoint";
 
+    // whether the batch(ConsumerRecords) entry points record size, lag and sampled records of the batch
+    static final String CONSUMER_BATCH_ENABLE = "profiler.kafka.consumer.batch.enable";
+    static final String CONSUMER_BATCH_RECORD_SAMPLING_RATE = "profiler.kafka.consumer.batch.record.sampling.rate";
+    static final String CONSUMER_BATCH_RECORD_MAX = "profiler.kafka.consumer.batch.record.max";
+
     static final String SPRING_CONSUMER_ENABLE = "profiler.springkafka.consumer.enable";
 
     private final boolean enable;
@@ -44,6 +49,9 @@ public class KafkaConfig {
     private final boolean headerEnable;
     private final boolean headerRecorded;
     private final String kafkaEntryPoint;
+    private final boolean consumerBatchEnable;
+    private final int consumerBatchRecordSamplingRate;
+    private final int consumerBatchRecordMax;
 
     public KafkaConfig(ProfilerConfig config) {
         this.enable = config.readBoolean(ENABLE, true);
@@ -54,6 +62,9 @@ public class KafkaConfig {
         this.headerEnable = config.readBoolean(HEADER_ENABLE, true);
         this.headerRecorded = config.readBoolean(HEADER_RECORD, true);
         this.kafkaEntryPoint = config.readString(CONSUMER_ENTRY_POINT, "");
+        this.consumerBatchEnable = config.readBoolean(CONSUMER_BATCH_ENABLE, false);
+        this.consumerBatchRecordSamplingRate = config.readInt(CONSUMER_BATCH_RECORD_SAMPLING_RATE, 100);
+        this.consumerBatchRecordMax = config.readInt(CONSUMER_BATCH_RECORD_MAX, 10);
     }
 
     public boolean isEnable() {
@@ -88,6 +99,18 @@ public class KafkaConfig {
         return kafkaEntryPoint;
     }
 
+    public boolean isConsumerBatchEnable() {
+        return consumerBatchEnable;
+    }
+
+    public int getConsumerBatchRecordSamplingRate() {
+        return consumerBatchRecordSamplingRate;
+    }
+
+    public int getConsumerBatchRecordMax() {
+        return consumerBatchRecordMax;
+    }
+
     @Override
     public String toString() {
         return "KafkaConfig{" +
@@ -99,6 +122,9 @@ public class KafkaConfig {
                 ", headerEnable=" + headerEnable +
                 ", headerRecorded=" + headerRecorded +
                 ", kafkaEntryPoint='" + kafkaEntryPoint + '\'' +
+                ", consumerBatchEnable=" + consumerBatchEnable +
+                ", consumerBatchRecordSamplingRate=" + consumerBatchRecordSamplingRate +
+                ", consumerBatchRecordMax=" + consumerBatchRecordMax +
                 '}';
     }
 }
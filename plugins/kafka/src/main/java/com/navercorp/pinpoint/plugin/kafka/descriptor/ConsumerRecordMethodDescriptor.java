@@ -0,0 +1,80 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.plugin.kafka.descriptor;
+
+import com.navercorp.pinpoint.bootstrap.context.MethodDescriptor;
+import com.navercorp.pinpoint.common.trace.MethodType;
+import com.navercorp.pinpoint.common.util.LineNumber;
+
+public class ConsumerRecordMethodDescriptor implements MethodDescriptor {
+    private int apiId = 0;
+
+    @Override
+    public String getMethodName() {
+        return "";
+    }
+
+    @Override
+    public String getClassName() {
+        return "";
+    }
+
+    @Override
+    public String[] getParameterTypes() {
+        return null;
+    }
+
+    @Override
+    public String[] getParameterVariableName() {
+        return null;
+    }
+
+    @Override
+    public String getParameterDescriptor() {
+        return "()";
+    }
+
+    @Override
+    public int getLineNumber() {
+        return LineNumber.NO_LINE_NUMBER;
+    }
+
+    @Override
+    public String getFullName() {
+        return ConsumerRecordMethodDescriptor.class.getName();
+    }
+
+    @Override
+    public void setApiId(int apiId) {
+        this.apiId = apiId;
+    }
+
+    @Override
+    public int getApiId() {
+        return apiId;
+    }
+
+    @Override
+    public String getApiDescriptor() {
+        return "Kafka Consumer Record";
+    }
+
+    @Override
+    public int getType() {
+        return MethodType.DEFAULT;
+    }
+}
@@ -38,13 +38,14 @@ public class AddRecordsToTasksInterceptor extends SpanRecursiveAroundInterceptor
 
     private final AtomicReference<TraceFactoryProvider.TraceFactory> traceFactoryReference = new AtomicReference<>();
     private final TraceFactoryProvider traceFactoryProvider;
-
+    private final ConsumerBatchRecorder batchRecorder;
 
 
     public AddRecordsToTasksInterceptor(TraceContext traceContext, MethodDescriptor methodDescriptor) {
         super(traceContext, methodDescriptor, SCOPE_NAME);
         traceContext.cacheApi(METHOD_DESCRIPTOR);
         this.traceFactoryProvider = new TraceFactoryProvider();
+        this.batchRecorder = ConsumerBatchRecorder.create(traceContext);
 
     }
 
@@ -75,7 +76,11 @@ public class AddRecordsToTasksInterceptor extends SpanRecursiveAroundInterceptor
             traceFactoryReference.compareAndSet(null, traceFactory);
         }
 
-        return traceFactory.createTrace(traceContext, consumerRecordsDesc);
+        final Trace trace = traceFactory.createTrace(traceContext, consumerRecordsDesc);
+        if (trace != null) {
+            batchRecorder.record(trace, records);
+        }
+        return trace;
     }
 
 
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.plugin.kafka.interceptor;
+
+import com.navercorp.pinpoint.bootstrap.context.Header;
+import com.navercorp.pinpoint.bootstrap.context.SpanEventRecorder;
+import com.navercorp.pinpoint.bootstrap.context.SpanRecorder;
+import com.navercorp.pinpoint.bootstrap.context.Trace;
+import com.navercorp.pinpoint.bootstrap.context.TraceContext;
+import com.navercorp.pinpoint.common.util.BytesUtils;
+import com.navercorp.pinpoint.plugin.kafka.KafkaClientUtils;
+import com.navercorp.pinpoint.plugin.kafka.KafkaConfig;
+import com.navercorp.pinpoint.plugin.kafka.KafkaConstants;
+import com.navercorp.pinpoint.plugin.kafka.descriptor.ConsumerRecordMethodDescriptor;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Records a whole poll(batch) on the span of its single trace:
+ * the serialized size, the age of the oldest record per partition and every n-th record as a span event.
+ */
+public class ConsumerBatchRecorder {
+
+    static final ConsumerRecordMethodDescriptor RECORD_METHOD_DESCRIPTOR = new ConsumerRecordMethodDescriptor();
+
+    static final int MAX_LAG_PARTITIONS = 32;
+
+    private final boolean enable;
+    private final int recordSamplingRate;
+    private final int recordMax;
+
+    public static ConsumerBatchRecorder create(TraceContext traceContext) {
+        final KafkaConfig config = new KafkaConfig(traceContext.getProfilerConfig());
+        if (config.isConsumerBatchEnable()) {
+            traceContext.cacheApi(RECORD_METHOD_DESCRIPTOR);
+        }
+        return new ConsumerBatchRecorder(config.isConsumerBatchEnable(), config.getConsumerBatchRecordSamplingRate(), config.getConsumerBatchRecordMax());
+    }
+
+    ConsumerBatchRecorder(boolean enable, int recordSamplingRate, int recordMax) {
+        this.enable = enable;
+        this.recordSamplingRate = Math.max(recordSamplingRate, 1);
+        this.recordMax = Math.max(recordMax, 0);
+    }
+
+    public boolean isEnable() {
+        return enable;
+    }
+
+    public void record(Trace trace, Iterable<?> records) {
+        if (!enable || records == null || !trace.canSampled()) {
+            return;
+        }
+        record(trace, records, System.currentTimeMillis());
+    }
+
+    void record(Trace trace, Iterable<?> records, long currentTimeMillis) {
+        long bytes = 0;
+        final Map<String, Long> oldestTimestamps = new LinkedHashMap<>();
+        int index = 0;
+        int recordEventCount = 0;
+        for (Object object : records) {
+            if (!(object instanceof ConsumerRecord)) {
+                continue;
+            }
+            final ConsumerRecord<?, ?> record = (ConsumerRecord<?, ?>) object;
+            bytes += Math.max(record.serializedKeySize(), 0) + Math.max(record.serializedValueSize(), 0);
+            addTimestamp(oldestTimestamps, record);
+
+            if (index % recordSamplingRate == 0 && recordEventCount < recordMax) {
+                recordEvent(trace, record);
+                recordEventCount++;
+            }
+            index++;
+        }
+
+        final SpanRecorder recorder = trace.getSpanRecorder();
+        recorder.recordAttribute(KafkaConstants.KAFKA_BATCH_BYTES_ANNOTATION_KEY, bytes);
+        if (!oldestTimestamps.isEmpty()) {
+            recorder.recordAttribute(KafkaConstants.KAFKA_BATCH_LAG_ANNOTATION_KEY, toLagString(oldestTimestamps, currentTimeMillis));
+        }
+    }
+
+    private void addTimestamp(Map<String, Long> oldestTimestamps, ConsumerRecord<?, ?> record) {
+        final long timestamp = record.timestamp();
+        if (timestamp < 0) {
+            // ConsumerRecord.NO_TIMESTAMP
+            return;
+        }
+        final String partition = record.topic() + '-' + record.partition();
+        final Long oldest = oldestTimestamps.get(partition);
+        if (oldest == null) {
+            if (oldestTimestamps.size() < MAX_LAG_PARTITIONS) {
+                oldestTimestamps.put(partition, timestamp);
+            }
+        } else if (timestamp < oldest) {
+            oldestTimestamps.put(partition, timestamp);
+        }
+    }
+
+    // topic-0=120ms, topic-1=3ms
+    static String toLagString(Map<String, Long> oldestTimestamps, long currentTimeMillis) {
+        final StringBuilder lag = new StringBuilder(oldestTimestamps.size() * 16);
+        for (Map.Entry<String, Long> entry : oldestTimestamps.entrySet()) {
+            if (lag.length() > 0) {
+                lag.append(", ");
+            }
+            lag.append(entry.getKey()).append('=');
+            lag.append(Math.max(currentTimeMillis - entry.getValue(), 0)).append("ms");
+        }
+        return lag.toString();
+    }
+
+    private void recordEvent(Trace trace, ConsumerRecord<?, ?> record) {
+        final SpanEventRecorder recorder = trace.traceBlockBegin();
+        try {
+            recorder.recordServiceType(KafkaConstants.KAFKA_CLIENT_INTERNAL);
+            recorder.recordApi(RECORD_METHOD_DESCRIPTOR);
+            recorder.recordAttribute(KafkaConstants.KAFKA_TOPIC_ANNOTATION_KEY, record.topic());
+            recorder.recordAttribute(KafkaConstants.KAFKA_PARTITION_ANNOTATION_KEY, record.partition());
+            recorder.recordAttribute(KafkaConstants.KAFKA_OFFSET_ANNOTATION_KEY, record.offset());
+
+            // the transaction that produced the record, a batch has no single parent to continue
+            final String transactionId = getTransactionId(record);
+            if (transactionId != null) {
+                recorder.recordAttribute(KafkaConstants.KAFKA_RECORD_TRANSACTION_ANNOTATION_KEY, transactionId);
+            }
+        } finally {
+            trace.traceBlockEnd();
+        }
+    }
+
+    private String getTransactionId(ConsumerRecord<?, ?> record) {
+        if (!KafkaClientUtils.supportHeaders(record)) {
+            return null;
+        }
+        final org.apache.kafka.common.header.Headers headers = record.headers();
+        if (headers == null) {
+            return null;
+        }
+        final org.apache.kafka.common.header.Header header = headers.lastHeader(Header.HTTP_TRACE_ID.toString());
+        if (header == null) {
+            return null;
+        }
+        return BytesUtils.toString(header.value());
+    }
+}
@@ -38,6 +38,8 @@ public class ConsumerMultiRecordEntryPointInterceptor extends ConsumerRecordEntr
 
     private final AtomicReference<TraceFactoryProvider.TraceFactory> tracyFactoryReference = new AtomicReference<>();
 
+    private final ConsumerBatchRecorder batchRecorder;
+
     /**
      * Instantiates a new Consumer multi record entry point interceptor.
      *
@@ -46,24 +48,24 @@ public class ConsumerMultiRecordEntryPointInterceptor extends ConsumerRecordEntr
      */
     public ConsumerMultiRecordEntryPointInterceptor(TraceContext traceContext, MethodDescriptor methodDescriptor, int parameterIndex) {
         super(traceContext, methodDescriptor, parameterIndex);
+        this.batchRecorder = ConsumerBatchRecorder.create(traceContext);
     }
 
     @Override
     protected Trace createTrace(Object target, Object[] args) {
-        ConsumerRecordsDesc consumerRecordsDesc = getConsumerRecordsDesc(args);
+        Iterable<?> records = ArrayArgumentUtils.getArgument(args, parameterIndex, Iterable.class);
+        ConsumerRecordsDesc consumerRecordsDesc = ConsumerRecordsDesc.create(records);
         if (consumerRecordsDesc == null) {
             return null;
         }
 
         Trace newTrace = createTrace(consumerRecordsDesc);
+        if (newTrace != null) {
+            batchRecorder.record(newTrace, records);
+        }
         return newTrace;
     }
 
-    private ConsumerRecordsDesc getConsumerRecordsDesc(Object[] args) {
-        Iterable<?> iter = ArrayArgumentUtils.getArgument(args, parameterIndex, Iterable.class);
-        return ConsumerRecordsDesc.create(iter);
-    }
-
     private Trace createTrace(ConsumerRecordsDesc consumerRecordsDesc) {
         TraceFactoryProvider.TraceFactory createTrace = tracyFactoryReference.get();
         if (createTrace == null) {
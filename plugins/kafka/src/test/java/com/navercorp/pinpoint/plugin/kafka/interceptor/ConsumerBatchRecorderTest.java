@@ -0,0 +1,114 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.plugin.kafka.interceptor;
+
+import com.navercorp.pinpoint.bootstrap.context.Header;
+import com.navercorp.pinpoint.bootstrap.context.SpanEventRecorder;
+import com.navercorp.pinpoint.bootstrap.context.SpanRecorder;
+import com.navercorp.pinpoint.bootstrap.context.Trace;
+import com.navercorp.pinpoint.common.util.BytesUtils;
+import com.navercorp.pinpoint.plugin.kafka.KafkaConstants;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class ConsumerBatchRecorderTest {
+
+    @Mock
+    private Trace trace;
+
+    @Mock
+    private SpanRecorder spanRecorder;
+
+    @Mock
+    private SpanEventRecorder spanEventRecorder;
+
+    private ConsumerRecord<String, String> newRecord(int partition, long offset, long timestamp) {
+        RecordHeaders headers = new RecordHeaders();
+        headers.add(Header.HTTP_TRACE_ID.toString(), BytesUtils.toBytes("producer^1^" + offset));
+        return new ConsumerRecord<>("topic", partition, offset, timestamp, TimestampType.CREATE_TIME,
+                3, 5, "key", "value", headers, Optional.empty());
+    }
+
+    @Test
+    public void record() {
+        List<ConsumerRecord<String, String>> records = new ArrayList<>();
+        records.add(newRecord(0, 10, 1000));
+        records.add(newRecord(0, 11, 900));
+        records.add(newRecord(1, 20, 1500));
+
+        doReturn(spanRecorder).when(trace).getSpanRecorder();
+        doReturn(spanEventRecorder).when(trace).traceBlockBegin();
+
+        ConsumerBatchRecorder recorder = new ConsumerBatchRecorder(true, 2, 10);
+        recorder.record(trace, records, 2000);
+
+        verify(spanRecorder).recordAttribute(KafkaConstants.KAFKA_BATCH_BYTES_ANNOTATION_KEY, 24L);
+        verify(spanRecorder).recordAttribute(KafkaConstants.KAFKA_BATCH_LAG_ANNOTATION_KEY, "topic-0=1100ms, topic-1=500ms");
+
+        // record index 0 and 2
+        verify(trace, times(2)).traceBlockBegin();
+        verify(trace, times(2)).traceBlockEnd();
+        verify(spanEventRecorder).recordAttribute(KafkaConstants.KAFKA_OFFSET_ANNOTATION_KEY, 10L);
+        verify(spanEventRecorder).recordAttribute(KafkaConstants.KAFKA_OFFSET_ANNOTATION_KEY, 20L);
+        verify(spanEventRecorder).recordAttribute(KafkaConstants.KAFKA_RECORD_TRANSACTION_ANNOTATION_KEY, "producer^1^20");
+    }
+
+    @Test
+    public void record_recordMax() {
+        List<ConsumerRecord<String, String>> records = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            records.add(newRecord(0, i, 1000));
+        }
+
+        doReturn(spanRecorder).when(trace).getSpanRecorder();
+        doReturn(spanEventRecorder).when(trace).traceBlockBegin();
+
+        ConsumerBatchRecorder recorder = new ConsumerBatchRecorder(true, 1, 3);
+        recorder.record(trace, records, 1000);
+
+        verify(trace, times(3)).traceBlockBegin();
+        verify(spanRecorder).recordAttribute(KafkaConstants.KAFKA_BATCH_LAG_ANNOTATION_KEY, "topic-0=0ms");
+    }
+
+    @Test
+    public void record_disable() {
+        List<ConsumerRecord<String, String>> records = new ArrayList<>();
+        records.add(newRecord(0, 10, 1000));
+
+        ConsumerBatchRecorder recorder = new ConsumerBatchRecorder(false, 1, 10);
+        recorder.record(trace, records);
+
+        verify(trace, never()).traceBlockBegin();
+        verify(trace, never()).getSpanRecorder();
+    }
+}
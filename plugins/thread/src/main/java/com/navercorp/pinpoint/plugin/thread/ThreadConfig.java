@@ -11,12 +11,14 @@ public class ThreadConfig {
     public static final String RUNNABLE = "java.lang.Runnable";
     public static final String CALLABLE = "java.util.concurrent.Callable";
     public static final String SUPPLIER = "java.util.function.Supplier";
+    public static final String VIRTUAL_THREAD = "java.lang.VirtualThread";
 
     private final boolean enable;
     private final String threadMatchPackage;
     private final boolean runnable;
     private final boolean callable;
     private final boolean supplier;
+    private final boolean virtualThread;
 
     public ThreadConfig(ProfilerConfig config) {
         this.enable = config.readBoolean("profiler.thread.enable", true);
@@ -26,6 +28,7 @@ public class ThreadConfig {
         this.runnable = supportType(types, "Runnable");
         this.callable = supportType(types, "Callable");
         this.supplier = supportType(types, "Supplier");
+        this.virtualThread = config.readBoolean("profiler.thread.virtual.enable", false);
     }
 
     private boolean supportType(List<String> types, String supportType) {
@@ -57,6 +60,10 @@ public class ThreadConfig {
         return supplier;
     }
 
+    public boolean isVirtualThreadSupport() {
+        return virtualThread;
+    }
+
     @Override
     public String toString() {
         return "ThreadConfig{" +
@@ -65,6 +72,7 @@ public class ThreadConfig {
                 ", runnable=" + runnable +
                 ", callable=" + callable +
                 ", supplier=" + supplier +
+                ", virtualThread=" + virtualThread +
                 '}';
     }
 }
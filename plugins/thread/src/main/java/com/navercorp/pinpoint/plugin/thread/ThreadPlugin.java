@@ -42,6 +42,11 @@ public class ThreadPlugin implements ProfilerPlugin, MatchableTransformTemplateA
         }
 
         logger.info("init {},config:{}", this.getClass().getSimpleName(), threadConfig);
+        if (threadConfig.isVirtualThreadSupport()) {
+            // JDK 19+, Thread.ofVirtual() and Executors.newVirtualThreadPerTaskExecutor() both create java.lang.VirtualThread
+            transformTemplate.transform(ThreadConfig.VIRTUAL_THREAD, VirtualThreadTransformCallback.class);
+        }
+
         final String threadMatchPackages = threadConfig.getThreadMatchPackage();
         if (StringUtils.isEmpty(threadMatchPackages)) {
             logger.info("thread plugin package is empty, skip it");
@@ -124,6 +129,27 @@ public class ThreadPlugin implements ProfilerPlugin, MatchableTransformTemplateA
         }
     }
 
+    public static class VirtualThreadTransformCallback implements TransformCallback {
+        @Override
+        public byte[] doInTransform(Instrumentor instrumentor, ClassLoader classLoader, String className, Class<?> classBeingRedefined, ProtectionDomain protectionDomain, byte[] classfileBuffer) throws InstrumentException {
+            final InstrumentClass target = instrumentor.getInstrumentClass(classLoader, className, protectionDomain, classfileBuffer);
+            // VirtualThread(Executor scheduler, String name, int characteristics, Runnable task)
+            final InstrumentMethod constructor = target.getConstructor("java.util.concurrent.Executor", "java.lang.String", "int", "java.lang.Runnable");
+            if (constructor == null) {
+                return null;
+            }
+            constructor.addScopedInterceptor(ThreadConstructorInterceptor.class, ThreadConstants.SCOPE_NAME);
+            target.addField(AsyncContextAccessor.class);
+
+            // runs once per virtual thread, the trace stays bound to the virtual thread across carrier thread remounts
+            final InstrumentMethod runMethod = target.getDeclaredMethod("run", "java.lang.Runnable");
+            if (runMethod != null) {
+                runMethod.addInterceptor(ThreadCallInterceptor.class);
+            }
+            return target.toBytecode();
+        }
+    }
+
     @Override
     public void setTransformTemplate(MatchableTransformTemplate transformTemplate) {
         this.transformTemplate = transformTemplate;
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.context;
+
+import com.google.inject.Inject;
+import com.navercorp.pinpoint.profiler.util.NamedThreadLocal;
+
+/**
+ * {@link Binder} that only keeps a thread local entry while a value is bound.
+ * <p>
+ * {@link ThreadLocalBinder} creates a reference for every thread that reads the binder,
+ * which costs a reference and a thread local map entry per virtual thread on JDK 19+.
+ * Reading from an unbound thread returns a shared reference here,
+ * the thread's own reference is created by {@link Reference#set(Object)} and dropped by {@link Reference#clear()}.
+ */
+public class LazyThreadLocalBinder<T> implements Binder<T> {
+
+    private final ThreadLocal<Reference<T>> threadLocal = new NamedThreadLocal<>("LazyThreadLocalBinder");
+
+    private final Reference<T> unboundReference = new UnboundReference();
+
+    @Inject
+    public LazyThreadLocalBinder() {
+    }
+
+    @Override
+    public Reference<T> get() {
+        final Reference<T> reference = threadLocal.get();
+        if (reference == null) {
+            return unboundReference;
+        }
+        return reference;
+    }
+
+    @Override
+    public void remove() {
+        this.threadLocal.remove();
+    }
+
+    private class UnboundReference implements Reference<T> {
+        @Override
+        public T get() {
+            return null;
+        }
+
+        @Override
+        public void set(T value) {
+            if (value == null) {
+                return;
+            }
+            final Reference<T> reference = new BoundReference();
+            reference.set(value);
+            threadLocal.set(reference);
+        }
+
+        @Override
+        public T clear() {
+            return null;
+        }
+    }
+
+    private class BoundReference extends DefaultReference<T> {
+        @Override
+        public T clear() {
+            final T value = super.clear();
+            threadLocal.remove();
+            return value;
+        }
+    }
+}
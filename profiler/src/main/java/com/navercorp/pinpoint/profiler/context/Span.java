@@ -21,6 +21,7 @@ import com.navercorp.pinpoint.common.util.IntStringValue;
 import com.navercorp.pinpoint.profiler.context.annotation.Annotations;
 import com.navercorp.pinpoint.profiler.context.id.Shared;
 import com.navercorp.pinpoint.profiler.context.id.TraceRoot;
+import com.navercorp.pinpoint.profiler.monitor.stack.StackSamples;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -191,6 +192,11 @@ public class Span extends DefaultFrameAttachment implements SpanType {
             Annotation<Integer> annotation = Annotations.of(AnnotationKey.HTTP_STATUS_CODE.getCode(), shared.getStatusCode());
             this.addAnnotation(annotation);
         }
+        final StackSamples stackSamples = shared.getStackSamples();
+        if (stackSamples != null) {
+            Annotation<String> annotation = Annotations.of(AnnotationKey.STACK_SAMPLE.getCode(), stackSamples.toCollapsedString());
+            this.addAnnotation(annotation);
+        }
     }
 
     public void clear() {
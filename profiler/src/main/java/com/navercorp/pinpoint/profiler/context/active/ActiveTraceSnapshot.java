@@ -16,6 +16,8 @@
 
 package com.navercorp.pinpoint.profiler.context.active;
 
+import com.navercorp.pinpoint.profiler.context.id.Shared;
+
 /**
  * @author Woonduk Kang(emeroad)
  */
@@ -31,4 +33,6 @@ public interface ActiveTraceSnapshot {
     String getTransactionId();
 
     String getEntryPoint();
+
+    Shared getShared();
 }
@@ -17,6 +17,7 @@
 package com.navercorp.pinpoint.profiler.context.active;
 
 import com.navercorp.pinpoint.profiler.context.id.LocalTraceRoot;
+import com.navercorp.pinpoint.profiler.context.id.Shared;
 import com.navercorp.pinpoint.profiler.context.id.TraceRoot;
 
 import java.util.Objects;
@@ -75,6 +76,11 @@ public class DefaultActiveTraceSnapshot implements ActiveTraceSnapshot {
         return null;
     }
 
+    @Override
+    public Shared getShared() {
+        return traceRoot.getShared();
+    }
+
     private boolean isRemote() {
         return traceRoot instanceof TraceRoot;
     }
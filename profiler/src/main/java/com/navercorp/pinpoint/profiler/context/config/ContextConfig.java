@@ -36,6 +36,16 @@ public interface ContextConfig {
 
     int getIoBufferingBufferSize();
 
+    String getIoBufferingPolicy();
+
+    int getIoBufferingAdaptiveMaxEvents();
+
+    long getIoBufferingAdaptiveMaxBytes();
+
+    long getIoBufferingAdaptiveMaxAge();
+
+    long getIoBufferingAdaptiveTotalMaxBytes();
+
     String getProfilerJvmVendorName();
 
     String getProfilerOSName();
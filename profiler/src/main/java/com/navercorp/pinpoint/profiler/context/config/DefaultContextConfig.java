@@ -48,6 +48,17 @@ public class DefaultContextConfig implements ContextConfig {
     // it may be a problem to be here.  need to modify(delete or move or .. )  this configuration.
     @Value("${profiler.io.buffering.buffersize}")
     private int ioBufferingBufferSize = 20;
+    // count : flush every buffersize span events, adaptive : flush by size, age and agent-wide buffered bytes
+    @Value("${profiler.io.buffering.policy}")
+    private String ioBufferingPolicy = "count";
+    @Value("${profiler.io.buffering.adaptive.maxevents}")
+    private int ioBufferingAdaptiveMaxEvents = 500;
+    @Value("${profiler.io.buffering.adaptive.maxbytes}")
+    private long ioBufferingAdaptiveMaxBytes = 16 * 1024;
+    @Value("${profiler.io.buffering.adaptive.maxage}")
+    private long ioBufferingAdaptiveMaxAge = 3000;
+    @Value("${profiler.io.buffering.adaptive.totalmaxbytes}")
+    private long ioBufferingAdaptiveTotalMaxBytes = 32 * 1024 * 1024;
 
     @Value("profiler.jvm.vendor.name")
     private String profileJvmVendorName;
@@ -111,6 +122,31 @@ public class DefaultContextConfig implements ContextConfig {
         return ioBufferingBufferSize;
     }
 
+    @Override
+    public String getIoBufferingPolicy() {
+        return ioBufferingPolicy;
+    }
+
+    @Override
+    public int getIoBufferingAdaptiveMaxEvents() {
+        return ioBufferingAdaptiveMaxEvents;
+    }
+
+    @Override
+    public long getIoBufferingAdaptiveMaxBytes() {
+        return ioBufferingAdaptiveMaxBytes;
+    }
+
+    @Override
+    public long getIoBufferingAdaptiveMaxAge() {
+        return ioBufferingAdaptiveMaxAge;
+    }
+
+    @Override
+    public long getIoBufferingAdaptiveTotalMaxBytes() {
+        return ioBufferingAdaptiveTotalMaxBytes;
+    }
+
     @Override
     public String getProfilerJvmVendorName() {
         return profileJvmVendorName;
@@ -143,6 +179,11 @@ public class DefaultContextConfig implements ContextConfig {
                 ", samplingContinueThroughput=" + samplingContinueThroughput +
                 ", ioBufferingEnable=" + ioBufferingEnable +
                 ", ioBufferingBufferSize=" + ioBufferingBufferSize +
+                ", ioBufferingPolicy='" + ioBufferingPolicy + '\'' +
+                ", ioBufferingAdaptiveMaxEvents=" + ioBufferingAdaptiveMaxEvents +
+                ", ioBufferingAdaptiveMaxBytes=" + ioBufferingAdaptiveMaxBytes +
+                ", ioBufferingAdaptiveMaxAge=" + ioBufferingAdaptiveMaxAge +
+                ", ioBufferingAdaptiveTotalMaxBytes=" + ioBufferingAdaptiveTotalMaxBytes +
                 ", profileJvmVendorName='" + profileJvmVendorName + '\'' +
                 ", profileOsName='" + profileOsName + '\'' +
                 ", DEFAULT_AGENT_INFO_SEND_RETRY_INTERVAL=" + DEFAULT_AGENT_INFO_SEND_RETRY_INTERVAL +
@@ -16,6 +16,7 @@
 
 package com.navercorp.pinpoint.profiler.context.id;
 
+import com.navercorp.pinpoint.profiler.monitor.stack.StackSamples;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -52,6 +53,8 @@ public class DefaultShared implements Shared {
 
     private volatile String uriTemplate = null;
 
+    private volatile StackSamples stackSamples;
+
     @Override
     public void maskErrorCode(int errorCode) {
 //        synchronized (this) {
@@ -156,4 +159,14 @@ public class DefaultShared implements Shared {
     public String getUriTemplate() {
         return uriTemplate;
     }
+
+    @Override
+    public void setStackSamples(StackSamples stackSamples) {
+        this.stackSamples = stackSamples;
+    }
+
+    @Override
+    public StackSamples getStackSamples() {
+        return stackSamples;
+    }
 }
\ No newline at end of file
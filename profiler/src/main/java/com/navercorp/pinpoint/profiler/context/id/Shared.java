@@ -16,6 +16,8 @@
 
 package com.navercorp.pinpoint.profiler.context.id;
 
+import com.navercorp.pinpoint.profiler.monitor.stack.StackSamples;
+
 /**
  * @author Woonduk Kang(emeroad)
  */
@@ -52,4 +54,8 @@ public interface Shared {
     boolean setUriTemplate(String uriTemplate, boolean force);
 
     String getUriTemplate();
+
+    void setStackSamples(StackSamples stackSamples);
+
+    StackSamples getStackSamples();
 }
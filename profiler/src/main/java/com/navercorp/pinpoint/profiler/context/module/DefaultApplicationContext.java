@@ -46,6 +46,8 @@ import com.navercorp.pinpoint.profiler.instrument.lambda.LambdaTransformBootload
 import com.navercorp.pinpoint.profiler.interceptor.registry.InterceptorRegistryBinder;
 import com.navercorp.pinpoint.profiler.monitor.AgentStatMonitor;
 import com.navercorp.pinpoint.profiler.monitor.DeadlockMonitor;
+import com.navercorp.pinpoint.profiler.context.storage.SpanBufferSweeper;
+import com.navercorp.pinpoint.profiler.monitor.stack.StackSamplingMonitor;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -64,6 +66,8 @@ public class DefaultApplicationContext implements ApplicationContext {
     private final ProfilerConfig profilerConfig;
 
     private final DeadlockMonitor deadlockMonitor;
+    private final StackSamplingMonitor stackSamplingMonitor;
+    private final SpanBufferSweeper spanBufferSweeper;
     private final AgentInfoSender agentInfoSender;
     private final AgentStatMonitor agentStatMonitor;
 
@@ -129,6 +133,8 @@ public class DefaultApplicationContext implements ApplicationContext {
         this.serverMetaDataRegistryService = injector.getInstance(ServerMetaDataRegistryService.class);
 
         this.deadlockMonitor = injector.getInstance(DeadlockMonitor.class);
+        this.stackSamplingMonitor = injector.getInstance(StackSamplingMonitor.class);
+        this.spanBufferSweeper = injector.getInstance(SpanBufferSweeper.class);
         this.agentInfoSender = injector.getInstance(AgentInfoSender.class);
         this.agentStatMonitor = injector.getInstance(AgentStatMonitor.class);
     }
@@ -222,6 +228,8 @@ public class DefaultApplicationContext implements ApplicationContext {
         this.interceptorRegistryBinder.bind();
 
         this.deadlockMonitor.start();
+        this.stackSamplingMonitor.start();
+        this.spanBufferSweeper.start();
         this.agentInfoSender.start();
         this.agentStatMonitor.start();
     }
@@ -231,6 +239,8 @@ public class DefaultApplicationContext implements ApplicationContext {
         this.agentInfoSender.stop();
         this.agentStatMonitor.stop();
         this.deadlockMonitor.stop();
+        this.stackSamplingMonitor.stop();
+        this.spanBufferSweeper.stop();
 
         // Need to process stop
         if (rpcModuleLifeCycle != null) {
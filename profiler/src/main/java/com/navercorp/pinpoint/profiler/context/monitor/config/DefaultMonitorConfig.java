@@ -32,6 +32,19 @@ public class DefaultMonitorConfig implements MonitorConfig {
     private boolean uriStatEnable = false;
     @Value("${profiler.uri.stat.completed.data.limit.size}")
     private int completedUriStatDataLimitSize = 1000;
+    @Value("${profiler.uri.stat.concurrent.enable}")
+    private boolean uriStatConcurrentEnable = false;
+
+    @Value("${profiler.stack.sampling.enable}")
+    private boolean stackSamplingEnable = false;
+    @Value("${profiler.stack.sampling.threshold}")
+    private long stackSamplingThreshold = 1000;
+    @Value("${profiler.stack.sampling.interval}")
+    private long stackSamplingInterval = 100;
+    @Value("${profiler.stack.sampling.max.depth}")
+    private int stackSamplingMaxDepth = 64;
+    @Value("${profiler.stack.sampling.cpu.budget}")
+    private long stackSamplingCpuBudget = 10;
 
     @Value("${profiler.jvm.stat.collect.interval}")
     private int profileJvmStatCollectIntervalMs = DEFAULT_AGENT_STAT_COLLECTION_INTERVAL_MS;
@@ -75,6 +88,36 @@ public class DefaultMonitorConfig implements MonitorConfig {
         return completedUriStatDataLimitSize;
     }
 
+    @Override
+    public boolean isUriStatConcurrentEnable() {
+        return uriStatConcurrentEnable;
+    }
+
+    @Override
+    public boolean isStackSamplingEnable() {
+        return stackSamplingEnable;
+    }
+
+    @Override
+    public long getStackSamplingThreshold() {
+        return stackSamplingThreshold;
+    }
+
+    @Override
+    public long getStackSamplingInterval() {
+        return stackSamplingInterval;
+    }
+
+    @Override
+    public int getStackSamplingMaxDepth() {
+        return stackSamplingMaxDepth;
+    }
+
+    @Override
+    public long getStackSamplingCpuBudget() {
+        return stackSamplingCpuBudget;
+    }
+
     @Override
     public String toString() {
         return "DefaultMonitorConfig{" +
@@ -82,6 +125,12 @@ public class DefaultMonitorConfig implements MonitorConfig {
                 ", customMetricLimitSize=" + customMetricLimitSize +
                 ", uriStatEnable=" + uriStatEnable +
                 ", completedUriStatDataLimitSize=" + completedUriStatDataLimitSize +
+                ", uriStatConcurrentEnable=" + uriStatConcurrentEnable +
+                ", stackSamplingEnable=" + stackSamplingEnable +
+                ", stackSamplingThreshold=" + stackSamplingThreshold +
+                ", stackSamplingInterval=" + stackSamplingInterval +
+                ", stackSamplingMaxDepth=" + stackSamplingMaxDepth +
+                ", stackSamplingCpuBudget=" + stackSamplingCpuBudget +
                 ", profileJvmStatCollectIntervalMs=" + profileJvmStatCollectIntervalMs +
                 ", profileJvmStatBatchSendCount=" + profileJvmStatBatchSendCount +
                 ", profilerJvmStatCollectDetailedMetrics=" + profilerJvmStatCollectDetailedMetrics +
@@ -31,4 +31,16 @@ public interface MonitorConfig {
 
     int getCompletedUriStatDataLimitSize();
 
+    boolean isUriStatConcurrentEnable();
+
+    boolean isStackSamplingEnable();
+
+    long getStackSamplingThreshold();
+
+    long getStackSamplingInterval();
+
+    int getStackSamplingMaxDepth();
+
+    long getStackSamplingCpuBudget();
+
 }
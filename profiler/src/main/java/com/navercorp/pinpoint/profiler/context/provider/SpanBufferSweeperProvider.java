@@ -0,0 +1,51 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.context.provider;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.navercorp.pinpoint.profiler.context.config.ContextConfig;
+import com.navercorp.pinpoint.profiler.context.storage.AdaptiveFlushPolicy;
+import com.navercorp.pinpoint.profiler.context.storage.DefaultSpanBufferSweeper;
+import com.navercorp.pinpoint.profiler.context.storage.DisabledSpanBufferSweeper;
+import com.navercorp.pinpoint.profiler.context.storage.SpanBufferSweeper;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+public class SpanBufferSweeperProvider implements Provider<SpanBufferSweeper> {
+
+    private static final long METRICS_LOG_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final ContextConfig contextConfig;
+    private final AdaptiveFlushPolicy flushPolicy;
+
+    @Inject
+    public SpanBufferSweeperProvider(ContextConfig contextConfig, AdaptiveFlushPolicy flushPolicy) {
+        this.contextConfig = Objects.requireNonNull(contextConfig, "contextConfig");
+        this.flushPolicy = Objects.requireNonNull(flushPolicy, "flushPolicy");
+    }
+
+    @Override
+    public SpanBufferSweeper get() {
+        if (!StorageFactoryProvider.isAdaptivePolicy(contextConfig)) {
+            return new DisabledSpanBufferSweeper();
+        }
+        return new DefaultSpanBufferSweeper(flushPolicy, METRICS_LOG_INTERVAL_MILLIS);
+    }
+
+}
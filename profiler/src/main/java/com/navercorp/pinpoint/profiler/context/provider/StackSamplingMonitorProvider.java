@@ -0,0 +1,68 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.context.provider;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.navercorp.pinpoint.profiler.context.active.ActiveTraceRepository;
+import com.navercorp.pinpoint.profiler.context.module.config.TraceAgentActiveThread;
+import com.navercorp.pinpoint.profiler.context.monitor.config.MonitorConfig;
+import com.navercorp.pinpoint.profiler.monitor.stack.DefaultStackSamplingMonitor;
+import com.navercorp.pinpoint.profiler.monitor.stack.DisabledStackSamplingMonitor;
+import com.navercorp.pinpoint.profiler.monitor.stack.StackSamplingMonitor;
+import com.navercorp.pinpoint.profiler.monitor.stack.StackSamplingTask;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.lang.management.ManagementFactory;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+public class StackSamplingMonitorProvider implements Provider<StackSamplingMonitor> {
+
+    private final Logger logger = LogManager.getLogger(this.getClass());
+
+    private final MonitorConfig monitorConfig;
+    private final boolean isTraceAgentActiveThread;
+    private final ActiveTraceRepository activeTraceRepository;
+
+    @Inject
+    public StackSamplingMonitorProvider(MonitorConfig monitorConfig,
+                                        @TraceAgentActiveThread boolean isTraceAgentActiveThread,
+                                        ActiveTraceRepository activeTraceRepository) {
+        this.monitorConfig = Objects.requireNonNull(monitorConfig, "monitorConfig");
+        this.isTraceAgentActiveThread = isTraceAgentActiveThread;
+        this.activeTraceRepository = Objects.requireNonNull(activeTraceRepository, "activeTraceRepository");
+    }
+
+    @Override
+    public StackSamplingMonitor get() {
+        if (!monitorConfig.isStackSamplingEnable()) {
+            return new DisabledStackSamplingMonitor();
+        }
+        if (!isTraceAgentActiveThread) {
+            logger.info("StackSamplingMonitor requires profiler.pinpoint.activethread=true");
+            return new DisabledStackSamplingMonitor();
+        }
+        final long budgetNanos = TimeUnit.MILLISECONDS.toNanos(monitorConfig.getStackSamplingCpuBudget());
+        final StackSamplingTask task = new StackSamplingTask(activeTraceRepository, ManagementFactory.getThreadMXBean(),
+                monitorConfig.getStackSamplingThreshold(), monitorConfig.getStackSamplingMaxDepth(), budgetNanos);
+        return new DefaultStackSamplingMonitor(task, monitorConfig.getStackSamplingInterval());
+    }
+
+}
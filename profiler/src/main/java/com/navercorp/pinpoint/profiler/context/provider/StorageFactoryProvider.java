@@ -22,6 +22,8 @@ import com.navercorp.pinpoint.common.profiler.message.DataSender;
 import com.navercorp.pinpoint.profiler.context.SpanType;
 import com.navercorp.pinpoint.profiler.context.config.ContextConfig;
 import com.navercorp.pinpoint.profiler.context.module.SpanDataSender;
+import com.navercorp.pinpoint.profiler.context.storage.AdaptiveBufferedStorageFactory;
+import com.navercorp.pinpoint.profiler.context.storage.AdaptiveFlushPolicy;
 import com.navercorp.pinpoint.profiler.context.storage.BufferedStorageFactory;
 import com.navercorp.pinpoint.profiler.context.storage.StorageFactory;
 import com.navercorp.pinpoint.profiler.context.storage.TraceLogDelegateStorage;
@@ -36,13 +38,22 @@ import java.util.Objects;
  */
 public class StorageFactoryProvider implements Provider<StorageFactory> {
 
+    private static final String ADAPTIVE_POLICY = "adaptive";
+
     private final ContextConfig contextConfig;
     private final DataSender<SpanType> spanDataSender;
+    private final AdaptiveFlushPolicy flushPolicy;
 
     @Inject
-    public StorageFactoryProvider(ContextConfig contextConfig, @SpanDataSender DataSender<SpanType> spanDataSender) {
+    public StorageFactoryProvider(ContextConfig contextConfig, @SpanDataSender DataSender<SpanType> spanDataSender,
+                                  AdaptiveFlushPolicy flushPolicy) {
         this.contextConfig = Objects.requireNonNull(contextConfig, "profilerConfig");
         this.spanDataSender = Objects.requireNonNull(spanDataSender, "spanDataSender");
+        this.flushPolicy = Objects.requireNonNull(flushPolicy, "flushPolicy");
+    }
+
+    static boolean isAdaptivePolicy(ContextConfig contextConfig) {
+        return contextConfig.isIoBufferingEnable() && ADAPTIVE_POLICY.equalsIgnoreCase(contextConfig.getIoBufferingPolicy());
     }
 
     @Override
@@ -56,6 +67,9 @@ public class StorageFactoryProvider implements Provider<StorageFactory> {
 
     private StorageFactory newStorageFactory() {
         if (contextConfig.isIoBufferingEnable()) {
+            if (isAdaptivePolicy(contextConfig)) {
+                return new AdaptiveBufferedStorageFactory(this.flushPolicy, this.spanDataSender);
+            }
             int ioBufferingBufferSize = this.contextConfig.getIoBufferingBufferSize();
             return new BufferedStorageFactory(ioBufferingBufferSize, this.spanDataSender);
         } else {
@@ -63,6 +77,7 @@ public class StorageFactoryProvider implements Provider<StorageFactory> {
         }
     }
 
+
     @Override
     public String toString() {
         return "StorageFactoryProvider{" +
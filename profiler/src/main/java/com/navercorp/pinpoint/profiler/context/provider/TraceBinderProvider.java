@@ -0,0 +1,57 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.context.provider;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.navercorp.pinpoint.bootstrap.context.Trace;
+import com.navercorp.pinpoint.common.util.JvmUtils;
+import com.navercorp.pinpoint.common.util.JvmVersion;
+import com.navercorp.pinpoint.profiler.context.Binder;
+import com.navercorp.pinpoint.profiler.context.LazyThreadLocalBinder;
+import com.navercorp.pinpoint.profiler.context.ThreadLocalBinder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Virtual threads exist from JDK 19, so the binder must not allocate for threads that are never traced.
+ */
+public class TraceBinderProvider implements Provider<Binder<Trace>> {
+
+    private final Logger logger = LogManager.getLogger(this.getClass());
+
+    private final JvmVersion jvmVersion;
+
+    @Inject
+    public TraceBinderProvider() {
+        this(JvmUtils.getVersion());
+    }
+
+    TraceBinderProvider(JvmVersion jvmVersion) {
+        this.jvmVersion = jvmVersion;
+    }
+
+    @Override
+    public Binder<Trace> get() {
+        if (jvmVersion.onOrAfter(JvmVersion.JAVA_19)) {
+            logger.info("jvmVersion:{}, use LazyThreadLocalBinder", jvmVersion);
+            return new LazyThreadLocalBinder<>();
+        }
+        return new ThreadLocalBinder<>();
+    }
+}
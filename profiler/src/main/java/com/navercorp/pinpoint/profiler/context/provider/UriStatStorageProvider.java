@@ -20,6 +20,7 @@ import com.google.inject.Inject;
 import com.google.inject.Provider;
 import com.navercorp.pinpoint.profiler.context.monitor.config.MonitorConfig;
 import com.navercorp.pinpoint.profiler.context.storage.AsyncQueueingUriStatStorage;
+import com.navercorp.pinpoint.profiler.context.storage.ConcurrentUriStatStorage;
 import com.navercorp.pinpoint.profiler.context.storage.DisabledUriStatStorage;
 import com.navercorp.pinpoint.profiler.context.storage.UriStatStorage;
 
@@ -42,6 +43,9 @@ public class UriStatStorageProvider implements Provider<UriStatStorage> {
     @Override
     public UriStatStorage get() {
         if (monitorConfig.isUriStatEnable()) {
+            if (monitorConfig.isUriStatConcurrentEnable()) {
+                return new ConcurrentUriStatStorage(monitorConfig.getCompletedUriStatDataLimitSize());
+            }
             return new AsyncQueueingUriStatStorage(5192, monitorConfig.getCompletedUriStatDataLimitSize(), URI_STAT_STORAGE_EXECUTOR_NAME);
         } else {
             return DisabledUriStatStorage.INSTANCE;
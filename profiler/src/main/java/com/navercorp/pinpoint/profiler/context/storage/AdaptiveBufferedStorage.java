@@ -0,0 +1,186 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.context.storage;
+
+import com.navercorp.pinpoint.common.profiler.message.DataSender;
+import com.navercorp.pinpoint.common.util.CollectionUtils;
+import com.navercorp.pinpoint.profiler.context.Span;
+import com.navercorp.pinpoint.profiler.context.SpanChunk;
+import com.navercorp.pinpoint.profiler.context.SpanChunkFactory;
+import com.navercorp.pinpoint.profiler.context.SpanEvent;
+import com.navercorp.pinpoint.profiler.context.SpanType;
+import com.navercorp.pinpoint.profiler.context.storage.SpanChunkMetrics.FlushReason;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+
+/**
+ * {@link BufferedStorage} variant that decides when to send a span chunk with an {@link AdaptiveFlushPolicy}.
+ * <p>
+ * The limits are checked when a span event is stored. A buffer that stops receiving span events is registered
+ * with the policy and flushed by the {@link SpanBufferSweeper} once it is too old or the agent holds too many bytes,
+ * so the buffer is guarded by this storage instead of being confined to the trace thread.
+ */
+public class AdaptiveBufferedStorage implements Storage {
+    private static final Logger logger = LogManager.getLogger(AdaptiveBufferedStorage.class);
+    private static final boolean isDebug = logger.isDebugEnabled();
+
+    private final SpanChunkFactory spanChunkFactory;
+    private final DataSender<SpanType> dataSender;
+    private final AdaptiveFlushPolicy flushPolicy;
+    private final LongSupplier clock;
+
+    private List<SpanEvent> storage;
+    private long bufferedBytes;
+    private long oldestEventTime;
+
+    public AdaptiveBufferedStorage(SpanChunkFactory spanChunkFactory, DataSender<SpanType> dataSender, AdaptiveFlushPolicy flushPolicy) {
+        this(spanChunkFactory, dataSender, flushPolicy, System::currentTimeMillis);
+    }
+
+    AdaptiveBufferedStorage(SpanChunkFactory spanChunkFactory, DataSender<SpanType> dataSender, AdaptiveFlushPolicy flushPolicy, LongSupplier clock) {
+        this.spanChunkFactory = Objects.requireNonNull(spanChunkFactory, "spanChunkFactory");
+        this.dataSender = Objects.requireNonNull(dataSender, "dataSender");
+        this.flushPolicy = Objects.requireNonNull(flushPolicy, "flushPolicy");
+        this.clock = Objects.requireNonNull(clock, "clock");
+    }
+
+    @Override
+    public void store(SpanEvent spanEvent) {
+        final int size = SpanEventSizeEstimator.estimate(spanEvent);
+        final long now = clock.getAsLong();
+        final List<SpanEvent> flushData;
+        final long bytes;
+        final FlushReason reason;
+        synchronized (this) {
+            List<SpanEvent> storage = this.storage;
+            if (storage == null) {
+                storage = new ArrayList<>();
+                this.storage = storage;
+                this.oldestEventTime = now;
+                this.flushPolicy.register(this);
+            }
+            storage.add(spanEvent);
+
+            this.bufferedBytes += size;
+            this.flushPolicy.addBufferedBytes(size);
+
+            reason = flushPolicy.getFlushReason(storage.size(), bufferedBytes, oldestEventTime, now);
+            if (reason == null) {
+                return;
+            }
+            bytes = this.bufferedBytes;
+            flushData = clearBuffer();
+        }
+        sendSpanChunk(flushData, bytes, reason);
+    }
+
+    /**
+     * Flushes the buffer if it is too old or the agent holds too many bytes, called by the {@link SpanBufferSweeper}.
+     */
+    void sweep(long now) {
+        final List<SpanEvent> flushData;
+        final long bytes;
+        final FlushReason reason;
+        synchronized (this) {
+            if (this.storage == null) {
+                return;
+            }
+            reason = flushPolicy.getSweepReason(oldestEventTime, now);
+            if (reason == null) {
+                return;
+            }
+            bytes = this.bufferedBytes;
+            flushData = clearBuffer();
+        }
+        sendSpanChunk(flushData, bytes, reason);
+    }
+
+    // guarded by this
+    private List<SpanEvent> clearBuffer() {
+        final List<SpanEvent> copy = this.storage;
+        if (copy != null) {
+            this.flushPolicy.unregister(this);
+        }
+        this.storage = null;
+        this.flushPolicy.releaseBufferedBytes(this.bufferedBytes);
+        this.bufferedBytes = 0;
+        return copy;
+    }
+
+    @Override
+    public void store(Span span) {
+        final List<SpanEvent> spanEventList;
+        synchronized (this) {
+            spanEventList = clearBuffer();
+        }
+        span.setSpanEventList(spanEventList);
+        span.finish();
+
+        if (isDebug) {
+            logger.debug("Flush {}", span);
+        }
+        final boolean success = this.dataSender.send(span);
+        if (!success) {
+            // WARN : Do not call span.toString ()
+            // concurrentmodificationexceptionr may occur in spanProcessV2
+            logger.debug("send fail");
+        }
+    }
+
+    @Override
+    public void flush() {
+        final long bytes;
+        final List<SpanEvent> spanEventList;
+        synchronized (this) {
+            bytes = this.bufferedBytes;
+            spanEventList = clearBuffer();
+        }
+        if (CollectionUtils.hasLength(spanEventList)) {
+            sendSpanChunk(spanEventList, bytes, FlushReason.FLUSH);
+        }
+    }
+
+    private void sendSpanChunk(List<SpanEvent> spanEventList, long bytes, FlushReason reason) {
+        this.flushPolicy.getMetrics().add(spanEventList.size(), bytes, reason);
+        final SpanChunk spanChunk = this.spanChunkFactory.newSpanChunk(spanEventList);
+
+        if (isDebug) {
+            logger.debug("Flush {} reason:{}", spanChunk, reason);
+        }
+        final boolean success = this.dataSender.send(spanChunk);
+        if (!success) {
+            // WARN : Do not call span.toString ()
+            // concurrentmodificationexceptionr may occur in spanProcessV2
+            logger.debug("send fail");
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        clearBuffer();
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveBufferedStorage{" + "flushPolicy=" + flushPolicy + ", dataSender=" + dataSender + '}';
+    }
+}
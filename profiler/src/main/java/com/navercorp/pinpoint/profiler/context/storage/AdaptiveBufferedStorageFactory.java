@@ -0,0 +1,47 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.context.storage;
+
+import com.navercorp.pinpoint.common.profiler.message.DataSender;
+import com.navercorp.pinpoint.profiler.context.SpanChunkFactory;
+import com.navercorp.pinpoint.profiler.context.SpanType;
+
+import java.util.Objects;
+
+public class AdaptiveBufferedStorageFactory implements StorageFactory {
+
+    private final DataSender<SpanType> dataSender;
+    private final AdaptiveFlushPolicy flushPolicy;
+
+    public AdaptiveBufferedStorageFactory(AdaptiveFlushPolicy flushPolicy, DataSender<SpanType> dataSender) {
+        this.flushPolicy = Objects.requireNonNull(flushPolicy, "flushPolicy");
+        this.dataSender = Objects.requireNonNull(dataSender, "dataSender");
+    }
+
+    @Override
+    public Storage createStorage(SpanChunkFactory spanChunkFactory) {
+        return new AdaptiveBufferedStorage(spanChunkFactory, this.dataSender, this.flushPolicy);
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveBufferedStorageFactory{" +
+                "dataSender=" + dataSender +
+                ", flushPolicy=" + flushPolicy +
+                '}';
+    }
+}
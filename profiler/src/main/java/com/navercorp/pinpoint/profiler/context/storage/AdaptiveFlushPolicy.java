@@ -0,0 +1,144 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.context.storage;
+
+import com.navercorp.pinpoint.profiler.context.storage.SpanChunkMetrics.FlushReason;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Flush rules shared by every {@link AdaptiveBufferedStorage} of the agent.
+ * <p>
+ * A buffer is flushed when it holds {@code maxEvents} span events or {@code maxBytes} estimated bytes,
+ * when its oldest span event is {@code maxAgeMillis} old,
+ * or when all buffers of the agent hold more than {@code totalMaxBytes}.
+ * The buffers holding span events are registered here, so that the {@link SpanBufferSweeper}
+ * can apply the age and memory limits to the buffers that are no longer written to.
+ */
+public class AdaptiveFlushPolicy {
+
+    private final int maxEvents;
+    private final long maxBytes;
+    private final long maxAgeMillis;
+    private final long totalMaxBytes;
+
+    private final AtomicLong totalBufferedBytes = new AtomicLong();
+    private final SpanChunkMetrics metrics = new SpanChunkMetrics();
+    private final Set<AdaptiveBufferedStorage> buffers = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+    public AdaptiveFlushPolicy(int maxEvents, long maxBytes, long maxAgeMillis, long totalMaxBytes) {
+        if (maxEvents <= 0) {
+            throw new IllegalArgumentException("maxEvents must be positive");
+        }
+        this.maxEvents = maxEvents;
+        this.maxBytes = maxBytes;
+        this.maxAgeMillis = maxAgeMillis;
+        this.totalMaxBytes = totalMaxBytes;
+    }
+
+    /**
+     * @return the reason to flush the buffer, or {@code null} to keep buffering
+     */
+    FlushReason getFlushReason(int events, long bytes, long oldestEventTime, long now) {
+        if (events >= maxEvents) {
+            return FlushReason.EVENTS;
+        }
+        if (maxBytes > 0 && bytes >= maxBytes) {
+            return FlushReason.BYTES;
+        }
+        if (maxAgeMillis > 0 && now - oldestEventTime >= maxAgeMillis) {
+            return FlushReason.AGE;
+        }
+        if (totalMaxBytes > 0 && totalBufferedBytes.get() > totalMaxBytes) {
+            return FlushReason.MEMORY_PRESSURE;
+        }
+        return null;
+    }
+
+    /**
+     * @return the reason to flush a buffer that is not written to, or {@code null} to keep buffering
+     */
+    FlushReason getSweepReason(long oldestEventTime, long now) {
+        if (maxAgeMillis > 0 && now - oldestEventTime >= maxAgeMillis) {
+            return FlushReason.AGE;
+        }
+        if (totalMaxBytes > 0 && totalBufferedBytes.get() > totalMaxBytes) {
+            return FlushReason.MEMORY_PRESSURE;
+        }
+        return null;
+    }
+
+    void register(AdaptiveBufferedStorage storage) {
+        buffers.add(storage);
+    }
+
+    void unregister(AdaptiveBufferedStorage storage) {
+        buffers.remove(storage);
+    }
+
+    /**
+     * Flushes the registered buffers that are too old, and the others while the agent holds too many bytes.
+     */
+    void sweep(long now) {
+        for (AdaptiveBufferedStorage storage : buffers) {
+            storage.sweep(now);
+        }
+    }
+
+    int getBufferCount() {
+        return buffers.size();
+    }
+
+    void addBufferedBytes(long bytes) {
+        totalBufferedBytes.addAndGet(bytes);
+    }
+
+    void releaseBufferedBytes(long bytes) {
+        totalBufferedBytes.addAndGet(-bytes);
+    }
+
+    long getTotalBufferedBytes() {
+        return totalBufferedBytes.get();
+    }
+
+    public SpanChunkMetrics getMetrics() {
+        return metrics;
+    }
+
+    public int getMaxEvents() {
+        return maxEvents;
+    }
+
+    public long getMaxAgeMillis() {
+        return maxAgeMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveFlushPolicy{" +
+                "maxEvents=" + maxEvents +
+                ", maxBytes=" + maxBytes +
+                ", maxAgeMillis=" + maxAgeMillis +
+                ", totalMaxBytes=" + totalMaxBytes +
+                ", totalBufferedBytes=" + totalBufferedBytes +
+                ", metrics=" + metrics +
+                '}';
+    }
+}
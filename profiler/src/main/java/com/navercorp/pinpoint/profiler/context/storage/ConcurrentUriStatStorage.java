@@ -0,0 +1,149 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.context.storage;
+
+import com.navercorp.pinpoint.bootstrap.plugin.http.URITemplate;
+import com.navercorp.pinpoint.common.profiler.clock.Clock;
+import com.navercorp.pinpoint.common.profiler.clock.TickClock;
+import com.navercorp.pinpoint.common.profiler.logging.ThrottledLogger;
+import com.navercorp.pinpoint.common.util.Assert;
+import com.navercorp.pinpoint.profiler.monitor.metric.uri.AgentUriStatData;
+import com.navercorp.pinpoint.profiler.monitor.metric.uri.ConcurrentAgentUriStatData;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Aggregates uri stats on the request thread instead of handing them to a consumer thread
+ * like {@link AsyncQueueingUriStatStorage}, so there is no queue to overflow at high throughput.
+ * <p>
+ * The current interval is swapped out on the {@link TickClock} boundary, either by the first request
+ * of the next interval or by {@link #poll()}.
+ */
+public class ConcurrentUriStatStorage implements UriStatStorage {
+
+    private static final Logger LOGGER = LogManager.getLogger(ConcurrentUriStatStorage.class);
+    private static final ThrottledLogger TLogger = ThrottledLogger.getLogger(LOGGER, 100);
+
+    private static final int DEFAULT_COLLECT_INTERVAL = 30000; // 30s
+
+    private static final int SNAPSHOT_LIMIT = 4;
+
+    private final int uriStatDataLimitSize;
+    private final TickClock clock;
+
+    private final AtomicReference<ConcurrentAgentUriStatData> current = new AtomicReference<>();
+    private final Queue<ConcurrentAgentUriStatData> snapshotQueue = new ConcurrentLinkedQueue<>();
+
+    public ConcurrentUriStatStorage(int uriStatDataLimitSize) {
+        this(uriStatDataLimitSize, DEFAULT_COLLECT_INTERVAL);
+    }
+
+    public ConcurrentUriStatStorage(int uriStatDataLimitSize, int collectInterval) {
+        this(uriStatDataLimitSize, newTickClock(Clock.systemUTC(), collectInterval));
+    }
+
+    ConcurrentUriStatStorage(int uriStatDataLimitSize, TickClock clock) {
+        Assert.isTrue(uriStatDataLimitSize > 0, "uriStatDataLimitSize must be ' > 0'");
+        this.uriStatDataLimitSize = uriStatDataLimitSize;
+        this.clock = Objects.requireNonNull(clock, "clock");
+    }
+
+    static TickClock newTickClock(Clock clock, int collectInterval) {
+        Assert.isTrue(collectInterval > 0, "collectInterval must be ' > 0'");
+        return (TickClock) Clock.tick(clock, collectInterval);
+    }
+
+    @Override
+    public void store(String uri, boolean status, long startTime, long endTime) {
+        if (uri == null) {
+            uri = URITemplate.NULL_URI;
+        }
+        if (endTime == 0L) {
+            LOGGER.info("Cannot add collected uri stat info: endTime is 0 for {}", uri);
+            return;
+        }
+
+        final ConcurrentAgentUriStatData uriStatData = getCurrent(clock.tick(endTime));
+        if (!uriStatData.add(uri, status, endTime - startTime)) {
+            TLogger.info("Too many URI pattern. sample-uri:{}, capacity:{}, counter:{} ", uri, uriStatData.getCapacity(), TLogger.getCounter());
+        }
+    }
+
+    private ConcurrentAgentUriStatData getCurrent(long baseTimestamp) {
+        while (true) {
+            final ConcurrentAgentUriStatData uriStatData = current.get();
+            // a request ending in an interval that is already swapped out is counted in the current one
+            if (uriStatData != null && baseTimestamp <= uriStatData.getBaseTimestamp()) {
+                return uriStatData;
+            }
+            final ConcurrentAgentUriStatData next = new ConcurrentAgentUriStatData(baseTimestamp, uriStatDataLimitSize, clock);
+            if (current.compareAndSet(uriStatData, next)) {
+                addCompletedData(uriStatData);
+                return next;
+            }
+        }
+    }
+
+    private void checkAndFlushOldData(long currentBaseTimestamp) {
+        final ConcurrentAgentUriStatData uriStatData = current.get();
+        if (uriStatData == null) {
+            return;
+        }
+        if (currentBaseTimestamp > uriStatData.getBaseTimestamp()) {
+            if (current.compareAndSet(uriStatData, null)) {
+                addCompletedData(uriStatData);
+            }
+        }
+    }
+
+    private void addCompletedData(ConcurrentAgentUriStatData uriStatData) {
+        if (uriStatData == null) {
+            return;
+        }
+        final int size = snapshotQueue.size();
+        if (size > SNAPSHOT_LIMIT) {
+            // Prevent OOM. Discard old history
+            for (int i = 0; i < size - SNAPSHOT_LIMIT; i++) {
+                snapshotQueue.poll();
+            }
+        }
+        snapshotQueue.offer(uriStatData);
+    }
+
+    @Override
+    public AgentUriStatData poll() {
+        checkAndFlushOldData(clock.millis());
+
+        final ConcurrentAgentUriStatData uriStatData = snapshotQueue.poll();
+        if (uriStatData == null) {
+            return null;
+        }
+        return uriStatData.toAgentUriStatData();
+    }
+
+    @Override
+    public void close() {
+        current.set(null);
+        snapshotQueue.clear();
+    }
+}
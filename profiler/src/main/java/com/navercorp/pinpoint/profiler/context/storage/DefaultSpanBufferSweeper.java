@@ -0,0 +1,91 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.context.storage;
+
+import com.navercorp.pinpoint.common.profiler.concurrent.PinpointThreadFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Objects;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sweeps the buffers registered with the {@link AdaptiveFlushPolicy}, and logs its {@link SpanChunkMetrics}.
+ */
+public class DefaultSpanBufferSweeper implements SpanBufferSweeper {
+
+    private static final long MIN_SWEEP_INTERVAL_MILLIS = 100;
+    private static final long MAX_SWEEP_INTERVAL_MILLIS = 1000;
+
+    private final Logger logger = LogManager.getLogger(this.getClass());
+
+    private final ScheduledExecutorService executor = new ScheduledThreadPoolExecutor(1, new PinpointThreadFactory("Pinpoint-span-buffer-sweeper", true));
+
+    private final AdaptiveFlushPolicy flushPolicy;
+    private final long sweepIntervalMillis;
+    private final long metricsLogIntervalMillis;
+
+    public DefaultSpanBufferSweeper(AdaptiveFlushPolicy flushPolicy, long metricsLogIntervalMillis) {
+        this.flushPolicy = Objects.requireNonNull(flushPolicy, "flushPolicy");
+        this.sweepIntervalMillis = sweepInterval(flushPolicy.getMaxAgeMillis());
+        this.metricsLogIntervalMillis = metricsLogIntervalMillis;
+    }
+
+    // an idle buffer is flushed at most half of maxAge late
+    static long sweepInterval(long maxAgeMillis) {
+        if (maxAgeMillis <= 0) {
+            return MAX_SWEEP_INTERVAL_MILLIS;
+        }
+        return Math.min(Math.max(maxAgeMillis / 2, MIN_SWEEP_INTERVAL_MILLIS), MAX_SWEEP_INTERVAL_MILLIS);
+    }
+
+    @Override
+    public void start() {
+        executor.scheduleWithFixedDelay(this::sweep, sweepIntervalMillis, sweepIntervalMillis, TimeUnit.MILLISECONDS);
+        if (metricsLogIntervalMillis > 0) {
+            executor.scheduleWithFixedDelay(this::logMetrics, metricsLogIntervalMillis, metricsLogIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+        logger.info("SpanBufferSweeper started. sweepInterval:{}ms metricsLogInterval:{}ms", sweepIntervalMillis, metricsLogIntervalMillis);
+    }
+
+    private void sweep() {
+        try {
+            flushPolicy.sweep(System.currentTimeMillis());
+        } catch (Throwable th) {
+            logger.warn("SpanBuffer sweep failed", th);
+        }
+    }
+
+    private void logMetrics() {
+        logger.info("{} buffers:{} bufferedBytes:{}", flushPolicy.getMetrics(), flushPolicy.getBufferCount(), flushPolicy.getTotalBufferedBytes());
+    }
+
+    @Override
+    public void stop() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(3000, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        logMetrics();
+        logger.info("SpanBufferSweeper stopped");
+    }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.context.storage;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Size distribution of the span chunks sent by {@link AdaptiveBufferedStorage}, and why they were flushed.
+ */
+public class SpanChunkMetrics {
+
+    public enum FlushReason {
+        EVENTS,
+        BYTES,
+        AGE,
+        MEMORY_PRESSURE,
+        FLUSH
+    }
+
+    private static final int[] EVENT_BUCKETS = {1, 5, 20, 100, 500};
+    private static final int[] BYTE_BUCKETS = {1024, 4 * 1024, 16 * 1024, 64 * 1024};
+
+    private final LongAdder[] eventHistogram = newAdders(EVENT_BUCKETS.length + 1);
+    private final LongAdder[] byteHistogram = newAdders(BYTE_BUCKETS.length + 1);
+    private final LongAdder[] flushReasons = newAdders(FlushReason.values().length);
+
+    private static LongAdder[] newAdders(int size) {
+        final LongAdder[] adders = new LongAdder[size];
+        for (int i = 0; i < size; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    void add(int events, long bytes, FlushReason reason) {
+        eventHistogram[bucketIndex(EVENT_BUCKETS, events)].increment();
+        byteHistogram[bucketIndex(BYTE_BUCKETS, bytes)].increment();
+        flushReasons[reason.ordinal()].increment();
+    }
+
+    private static int bucketIndex(int[] buckets, long value) {
+        for (int i = 0; i < buckets.length; i++) {
+            if (value <= buckets[i]) {
+                return i;
+            }
+        }
+        return buckets.length;
+    }
+
+    /**
+     * @return chunk count per event count bucket : ~1, ~5, ~20, ~100, ~500, 500~
+     */
+    public long[] getEventHistogram() {
+        return sum(eventHistogram);
+    }
+
+    /**
+     * @return chunk count per estimated size bucket : ~1K, ~4K, ~16K, ~64K, 64K~
+     */
+    public long[] getByteHistogram() {
+        return sum(byteHistogram);
+    }
+
+    public long getFlushCount(FlushReason reason) {
+        return flushReasons[reason.ordinal()].sum();
+    }
+
+    private static long[] sum(LongAdder[] adders) {
+        final long[] result = new long[adders.length];
+        for (int i = 0; i < adders.length; i++) {
+            result[i] = adders[i].sum();
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("SpanChunkMetrics{");
+        sb.append("eventHistogram=").append(Arrays.toString(getEventHistogram()));
+        sb.append(", byteHistogram=").append(Arrays.toString(getByteHistogram()));
+        for (FlushReason reason : FlushReason.values()) {
+            sb.append(", ").append(reason).append('=').append(getFlushCount(reason));
+        }
+        sb.append('}');
+        return sb.toString();
+    }
+}
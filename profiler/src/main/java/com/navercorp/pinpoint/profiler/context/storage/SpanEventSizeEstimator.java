@@ -0,0 +1,95 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.context.storage;
+
+import com.navercorp.pinpoint.common.util.IntStringStringValue;
+import com.navercorp.pinpoint.common.util.IntStringValue;
+import com.navercorp.pinpoint.common.util.LongIntIntByteByteStringValue;
+import com.navercorp.pinpoint.common.util.StringStringValue;
+import com.navercorp.pinpoint.profiler.context.Annotation;
+import com.navercorp.pinpoint.profiler.context.SpanEvent;
+
+import java.util.List;
+
+/**
+ * Rough serialized size of a {@link SpanEvent}, without encoding it.
+ * Strings count one byte per char.
+ */
+final class SpanEventSizeEstimator {
+
+    // sequence, depth, elapsed, serviceType, apiId
+    static final int SPAN_EVENT_HEADER_SIZE = 16;
+    static final int ANNOTATION_HEADER_SIZE = 4;
+    static final int DEFAULT_VALUE_SIZE = 8;
+
+    private SpanEventSizeEstimator() {
+    }
+
+    static int estimate(SpanEvent spanEvent) {
+        int size = SPAN_EVENT_HEADER_SIZE;
+        size += length(spanEvent.getEndPoint());
+        size += length(spanEvent.getDestinationId());
+        if (spanEvent.getNextSpanId() != -1) {
+            size += 8;
+        }
+        final IntStringValue exceptionInfo = spanEvent.getExceptionInfo();
+        if (exceptionInfo != null) {
+            size += 4 + length(exceptionInfo.getStringValue());
+        }
+        final List<Annotation<?>> annotations = spanEvent.getAnnotations();
+        if (annotations != null) {
+            for (Annotation<?> annotation : annotations) {
+                size += ANNOTATION_HEADER_SIZE + valueSize(annotation.getValue());
+            }
+        }
+        return size;
+    }
+
+    static int valueSize(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof String) {
+            return length((String) value);
+        }
+        if (value instanceof byte[]) {
+            return ((byte[]) value).length;
+        }
+        if (value instanceof StringStringValue) {
+            final StringStringValue v = (StringStringValue) value;
+            return length(v.getStringValue1()) + length(v.getStringValue2());
+        }
+        if (value instanceof IntStringStringValue) {
+            final IntStringStringValue v = (IntStringStringValue) value;
+            return 4 + length(v.getStringValue1()) + length(v.getStringValue2());
+        }
+        if (value instanceof IntStringValue) {
+            return 4 + length(((IntStringValue) value).getStringValue());
+        }
+        if (value instanceof LongIntIntByteByteStringValue) {
+            return 18 + length(((LongIntIntByteByteStringValue) value).getStringValue());
+        }
+        return DEFAULT_VALUE_SIZE;
+    }
+
+    private static int length(String value) {
+        if (value == null) {
+            return 0;
+        }
+        return value.length();
+    }
+}
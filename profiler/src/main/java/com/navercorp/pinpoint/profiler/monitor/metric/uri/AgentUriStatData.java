@@ -75,6 +75,10 @@ public class AgentUriStatData implements MetricType {
         return true;
     }
 
+    void put(URIKey key, EachUriStatData eachUriStatData) {
+        eachUriStatDataMap.put(key, eachUriStatData);
+    }
+
     private URIKey newURIKey(UriStatInfo uriStatInfo) {
         String uri = uriStatInfo.getUri();
         long tickTime = clock.tick(uriStatInfo.getEndTime());
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.monitor.metric.uri;
+
+import com.navercorp.pinpoint.common.profiler.clock.TickClock;
+import com.navercorp.pinpoint.common.util.Assert;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Uri stats of one collect interval, written concurrently by the request threads.
+ * <p>
+ * Stats are keyed by uri only, every uri of the interval shares the {@code baseTimestamp},
+ * so a request that was already seen in the interval is recorded without allocation.
+ */
+public class ConcurrentAgentUriStatData {
+
+    private final int capacity;
+    private final long baseTimestamp;
+    private final TickClock clock;
+    private final ConcurrentMap<String, Slot> slotMap;
+
+    public ConcurrentAgentUriStatData(long baseTimestamp, int capacity, TickClock clock) {
+        this.clock = Objects.requireNonNull(clock, "clock");
+        Assert.isTrue(capacity > 0, "capacity must be  ` > 0`");
+        this.capacity = capacity;
+        Assert.isTrue(baseTimestamp > 0, "baseTimestamp must be  ` > 0`");
+        this.baseTimestamp = baseTimestamp;
+        this.slotMap = new ConcurrentHashMap<>(Math.min(capacity, 256));
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getBaseTimestamp() {
+        return baseTimestamp;
+    }
+
+    /**
+     * @return {@code false} if the uri is new and the capacity is exhausted
+     */
+    public boolean add(String uri, boolean status, long elapsed) {
+        Slot slot = slotMap.get(uri);
+        if (slot == null) {
+            // the capacity check is racy, it may be exceeded by the number of concurrent writers
+            if (slotMap.size() >= capacity) {
+                return false;
+            }
+            slot = slotMap.computeIfAbsent(uri, key -> new Slot());
+        }
+        slot.add(status, elapsed);
+        return true;
+    }
+
+    public AgentUriStatData toAgentUriStatData() {
+        final AgentUriStatData agentUriStatData = new AgentUriStatData(baseTimestamp, capacity, clock);
+        for (Map.Entry<String, Slot> entry : slotMap.entrySet()) {
+            final String uri = entry.getKey();
+            final Slot slot = entry.getValue();
+            final EachUriStatData eachUriStatData = new EachUriStatData(uri, slot.total.snapshot(), slot.failed.snapshot());
+            agentUriStatData.put(new URIKey(uri, baseTimestamp), eachUriStatData);
+        }
+        return agentUriStatData;
+    }
+
+    @Override
+    public String toString() {
+        return "ConcurrentAgentUriStatData{" +
+                "baseTimestamp=" + baseTimestamp +
+                ", size=" + slotMap.size() +
+                '}';
+    }
+
+    private static class Slot {
+        private final ConcurrentUriStatHistogram total = new ConcurrentUriStatHistogram();
+        private final ConcurrentUriStatHistogram failed = new ConcurrentUriStatHistogram();
+
+        private void add(boolean status, long elapsed) {
+            total.add(elapsed);
+            if (!status) {
+                failed.add(elapsed);
+            }
+        }
+    }
+}
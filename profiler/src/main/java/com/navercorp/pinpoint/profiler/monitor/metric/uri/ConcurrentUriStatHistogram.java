@@ -0,0 +1,78 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.monitor.metric.uri;
+
+import com.navercorp.pinpoint.common.trace.UriStatHistogramBucket;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe counterpart of {@link UriStatHistogram}.
+ * Every bucket is a {@link LongAdder}, which stripes its cells per thread under contention,
+ * so {@link #add(long)} neither locks nor allocates once the cells exist.
+ */
+public class ConcurrentUriStatHistogram {
+
+    private final UriStatHistogramBucket.Layout layout;
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+    private final LongAdder[] timestampHistogram;
+
+    public ConcurrentUriStatHistogram() {
+        this(UriStatHistogramBucket.getLayout());
+    }
+
+    ConcurrentUriStatHistogram(UriStatHistogramBucket.Layout layout) {
+        this.layout = Objects.requireNonNull(layout, "layout");
+        this.timestampHistogram = new LongAdder[layout.getBucketSize()];
+        for (int i = 0; i < timestampHistogram.length; i++) {
+            timestampHistogram[i] = new LongAdder();
+        }
+    }
+
+    public void add(long elapsed) {
+        count.increment();
+        total.add(elapsed);
+        max.accumulate(elapsed);
+
+        UriStatHistogramBucket bucket = layout.getBucket(elapsed);
+        timestampHistogram[bucket.getIndex()].increment();
+    }
+
+    public UriStatHistogram snapshot() {
+        final int[] histogram = new int[timestampHistogram.length];
+        for (int i = 0; i < histogram.length; i++) {
+            histogram[i] = timestampHistogram[i].intValue();
+        }
+        return new UriStatHistogram(layout, count.intValue(), total.sum(), max.get(), histogram);
+    }
+
+    @Override
+    public String toString() {
+        return "ConcurrentUriStatHistogram{" +
+                "count=" + count +
+                ", total=" + total +
+                ", max=" + max +
+                '}';
+    }
+}
@@ -22,11 +22,17 @@ package com.navercorp.pinpoint.profiler.monitor.metric.uri;
 public class EachUriStatData {
 
     private final String uri;
-    private final UriStatHistogram totalHistogram = new UriStatHistogram();
-    private final UriStatHistogram failedHistogram = new UriStatHistogram();
+    private final UriStatHistogram totalHistogram;
+    private final UriStatHistogram failedHistogram;
 
     public EachUriStatData(String uri) {
+        this(uri, new UriStatHistogram(), new UriStatHistogram());
+    }
+
+    EachUriStatData(String uri, UriStatHistogram totalHistogram, UriStatHistogram failedHistogram) {
         this.uri = uri;
+        this.totalHistogram = totalHistogram;
+        this.failedHistogram = failedHistogram;
     }
 
     public void add(UriStatInfo uriStatInfo) {
@@ -44,6 +44,14 @@ public class UriStatHistogram {
         this.timestampHistogram = new int[layout.getBucketSize()];
     }
 
+    UriStatHistogram(UriStatHistogramBucket.Layout layout, int count, long total, long max, int[] timestampHistogram) {
+        this.layout = Objects.requireNonNull(layout, "layout");
+        this.timestampHistogram = Objects.requireNonNull(timestampHistogram, "timestampHistogram");
+        this.count = count;
+        this.total = total;
+        this.max = max;
+    }
+
     public void add(long elapsed) {
         count++;
         total += elapsed;
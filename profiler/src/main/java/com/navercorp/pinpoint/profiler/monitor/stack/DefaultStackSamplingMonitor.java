@@ -0,0 +1,60 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.monitor.stack;
+
+import com.navercorp.pinpoint.common.profiler.concurrent.PinpointThreadFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Objects;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+public class DefaultStackSamplingMonitor implements StackSamplingMonitor {
+
+    private final Logger logger = LogManager.getLogger(this.getClass());
+
+    private final ScheduledExecutorService executor = new ScheduledThreadPoolExecutor(1, new PinpointThreadFactory("Pinpoint-stack-sampler", true));
+
+    private final StackSamplingTask stackSamplingTask;
+    private final long intervalMillis;
+
+    public DefaultStackSamplingMonitor(StackSamplingTask stackSamplingTask, long intervalMillis) {
+        this.stackSamplingTask = Objects.requireNonNull(stackSamplingTask, "stackSamplingTask");
+        this.intervalMillis = intervalMillis;
+    }
+
+    @Override
+    public void start() {
+        executor.scheduleWithFixedDelay(stackSamplingTask, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        logger.info("StackSamplingMonitor started. interval:{}ms", intervalMillis);
+    }
+
+    @Override
+    public void stop() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(3000, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        logger.info("StackSamplingMonitor stopped");
+    }
+
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.monitor.stack;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stack samples of a trace folded into the collapsed stack format.
+ * One "frame;frame;...;frame count" line per distinct stack, root frame first.
+ */
+public class StackSamples {
+
+    static final String DROPPED_STACK = "[dropped]";
+
+    private final int maxStacks;
+    private final int maxLength;
+
+    private final Map<String, Count> stacks = new HashMap<>();
+    private int sampleCount;
+
+    public StackSamples(int maxStacks, int maxLength) {
+        if (maxStacks <= 0) {
+            throw new IllegalArgumentException("maxStacks must be positive");
+        }
+        if (maxLength <= 0) {
+            throw new IllegalArgumentException("maxLength must be positive");
+        }
+        this.maxStacks = maxStacks;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * @param stackTrace stack trace of the sampled thread, top frame first
+     */
+    public void add(StackTraceElement[] stackTrace) {
+        if (stackTrace == null || stackTrace.length == 0) {
+            return;
+        }
+        final String stack = collapse(stackTrace);
+        synchronized (this) {
+            sampleCount++;
+            Count count = stacks.get(stack);
+            if (count == null) {
+                if (stacks.size() >= maxStacks) {
+                    count = stacks.computeIfAbsent(DROPPED_STACK, key -> new Count());
+                } else {
+                    count = new Count();
+                    stacks.put(stack, count);
+                }
+            }
+            count.value++;
+        }
+    }
+
+    static String collapse(StackTraceElement[] stackTrace) {
+        final StringBuilder sb = new StringBuilder(stackTrace.length * 48);
+        for (int i = stackTrace.length - 1; i >= 0; i--) {
+            final StackTraceElement frame = stackTrace[i];
+            sb.append(frame.getClassName()).append('.').append(frame.getMethodName());
+            if (i > 0) {
+                sb.append(';');
+            }
+        }
+        return sb.toString();
+    }
+
+    public synchronized int getSampleCount() {
+        return sampleCount;
+    }
+
+    /**
+     * The most frequent stacks first, cut at maxLength characters.
+     */
+    public String toCollapsedString() {
+        final List<StackCount> stackCounts;
+        synchronized (this) {
+            stackCounts = new ArrayList<>(stacks.size());
+            for (Map.Entry<String, Count> entry : stacks.entrySet()) {
+                stackCounts.add(new StackCount(entry.getKey(), entry.getValue().value));
+            }
+        }
+        stackCounts.sort((s1, s2) -> Integer.compare(s2.count, s1.count));
+
+        final StringBuilder sb = new StringBuilder();
+        for (StackCount stackCount : stackCounts) {
+            final String line = stackCount.stack + ' ' + stackCount.count;
+            if (sb.length() + line.length() + 1 > maxLength) {
+                break;
+            }
+            if (sb.length() > 0) {
+                sb.append('\n');
+            }
+            sb.append(line);
+        }
+        return sb.toString();
+    }
+
+    private static class Count {
+        private int value;
+    }
+
+    private static class StackCount {
+        private final String stack;
+        private final int count;
+
+        StackCount(String stack, int count) {
+            this.stack = stack;
+            this.count = count;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "StackSamples{" +
+                "sampleCount=" + getSampleCount() +
+                '}';
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.monitor.stack;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the time spent on stack sampling to budgetNanos in every second.
+ * Not thread safe, used by the single sampling thread.
+ */
+class StackSamplingBudget {
+
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final long budgetNanos;
+
+    private long windowStart;
+    private long used;
+
+    StackSamplingBudget(long budgetNanos) {
+        if (budgetNanos <= 0) {
+            throw new IllegalArgumentException("budgetNanos must be positive");
+        }
+        this.budgetNanos = budgetNanos;
+    }
+
+    boolean isAvailable(long nanoTime) {
+        if (nanoTime - windowStart >= WINDOW_NANOS) {
+            this.windowStart = nanoTime;
+            this.used = 0;
+        }
+        return used < budgetNanos;
+    }
+
+    void use(long nanos) {
+        this.used += nanos;
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.monitor.stack;
+
+import com.navercorp.pinpoint.profiler.context.active.ActiveTraceRepository;
+import com.navercorp.pinpoint.profiler.context.active.ActiveTraceSnapshot;
+import com.navercorp.pinpoint.profiler.context.id.Shared;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Samples the stack of the threads running sampled traces older than the threshold.
+ */
+public class StackSamplingTask implements Runnable {
+
+    static final int MAX_THREADS_PER_SAMPLE = 64;
+    static final int MAX_STACKS_PER_TRACE = 128;
+    static final int MAX_COLLAPSED_LENGTH = 32 * 1024;
+
+    private final Logger logger = LogManager.getLogger(this.getClass());
+
+    private final ActiveTraceRepository activeTraceRepository;
+    private final ThreadMXBean threadMXBean;
+    private final long thresholdMillis;
+    private final int maxDepth;
+    private final StackSamplingBudget budget;
+
+    public StackSamplingTask(ActiveTraceRepository activeTraceRepository, ThreadMXBean threadMXBean,
+                             long thresholdMillis, int maxDepth, long budgetNanosPerSecond) {
+        this.activeTraceRepository = Objects.requireNonNull(activeTraceRepository, "activeTraceRepository");
+        this.threadMXBean = Objects.requireNonNull(threadMXBean, "threadMXBean");
+        this.thresholdMillis = thresholdMillis;
+        this.maxDepth = maxDepth;
+        this.budget = new StackSamplingBudget(budgetNanosPerSecond);
+    }
+
+    @Override
+    public void run() {
+        try {
+            sample(System.currentTimeMillis());
+        } catch (Throwable th) {
+            logger.warn("stack sampling failed", th);
+        }
+    }
+
+    void sample(long currentTime) {
+        final long startNanos = System.nanoTime();
+        if (!budget.isAvailable(startNanos)) {
+            return;
+        }
+        final List<ActiveTraceSnapshot> slowTraces = getSlowTraces(currentTime);
+        if (slowTraces.isEmpty()) {
+            return;
+        }
+
+        final long[] threadIds = new long[slowTraces.size()];
+        for (int i = 0; i < threadIds.length; i++) {
+            threadIds[i] = slowTraces.get(i).getThreadId();
+        }
+        final ThreadInfo[] threadInfos = threadMXBean.getThreadInfo(threadIds, maxDepth);
+        for (int i = 0; i < threadInfos.length; i++) {
+            final ThreadInfo threadInfo = threadInfos[i];
+            // terminated thread
+            if (threadInfo == null) {
+                continue;
+            }
+            final StackSamples stackSamples = getStackSamples(slowTraces.get(i).getShared());
+            stackSamples.add(threadInfo.getStackTrace());
+        }
+        budget.use(System.nanoTime() - startNanos);
+    }
+
+    private List<ActiveTraceSnapshot> getSlowTraces(long currentTime) {
+        final List<ActiveTraceSnapshot> activeTraces = activeTraceRepository.snapshot();
+        final List<ActiveTraceSnapshot> slowTraces = new ArrayList<>();
+        for (ActiveTraceSnapshot activeTrace : activeTraces) {
+            // unsampled traces do not send a span to attach the samples to
+            if (!activeTrace.isSampled()) {
+                continue;
+            }
+            if (currentTime - activeTrace.getStartTime() < thresholdMillis) {
+                continue;
+            }
+            if (activeTrace.getThreadId() <= 0) {
+                continue;
+            }
+            slowTraces.add(activeTrace);
+            if (slowTraces.size() >= MAX_THREADS_PER_SAMPLE) {
+                break;
+            }
+        }
+        return slowTraces;
+    }
+
+    private StackSamples getStackSamples(Shared shared) {
+        StackSamples stackSamples = shared.getStackSamples();
+        if (stackSamples == null) {
+            stackSamples = new StackSamples(MAX_STACKS_PER_TRACE, MAX_COLLAPSED_LENGTH);
+            shared.setStackSamples(stackSamples);
+        }
+        return stackSamples;
+    }
+}
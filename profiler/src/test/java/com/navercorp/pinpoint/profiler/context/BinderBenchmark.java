@@ -0,0 +1,92 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.context;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Memory a {@link Binder} costs per thread, read gc.alloc.rate.norm of the gc profiler.
+ * <p>
+ * One invocation is the life of one short lived thread, as with a virtual thread per task:
+ * the trace is looked up by the interceptors, optionally bound, and the thread ends ({@link Binder#remove()}).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BinderBenchmark {
+
+    @Param({"ThreadLocalBinder", "LazyThreadLocalBinder"})
+    private String binderType;
+
+    private final Object trace = new Object();
+
+    private Binder<Object> binder;
+
+    @Setup
+    public void setup() {
+        if ("ThreadLocalBinder".equals(binderType)) {
+            this.binder = new ThreadLocalBinder<>();
+        } else {
+            this.binder = new LazyThreadLocalBinder<>();
+        }
+    }
+
+    @Benchmark
+    public Object untracedThread() {
+        final Object current = binder.get().get();
+        binder.remove();
+        return current;
+    }
+
+    @Benchmark
+    public Object tracedThread() {
+        final Reference<Object> reference = binder.get();
+        reference.set(trace);
+        final Object current = binder.get().get();
+        binder.get().clear();
+        binder.remove();
+        return current;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(BinderBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.context;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+public class LazyThreadLocalBinderTest {
+
+    @Test
+    public void get_unbound() {
+        Binder<String> binder = new LazyThreadLocalBinder<>();
+
+        Reference<String> reference = binder.get();
+        Assertions.assertNull(reference.get());
+        Assertions.assertNull(reference.clear());
+        Assertions.assertSame(reference, binder.get());
+    }
+
+    @Test
+    public void set_clear() {
+        Binder<String> binder = new LazyThreadLocalBinder<>();
+        Reference<String> unbound = binder.get();
+
+        unbound.set("trace");
+        Reference<String> bound = binder.get();
+        Assertions.assertNotSame(unbound, bound);
+        Assertions.assertEquals("trace", bound.get());
+
+        Assertions.assertEquals("trace", bound.clear());
+        Assertions.assertSame(unbound, binder.get());
+        Assertions.assertNull(binder.get().get());
+    }
+
+    @Test
+    public void set_null() {
+        Binder<String> binder = new LazyThreadLocalBinder<>();
+        Reference<String> unbound = binder.get();
+
+        unbound.set(null);
+        Assertions.assertSame(unbound, binder.get());
+    }
+
+    @Test
+    public void threadIsolation() throws InterruptedException {
+        Binder<String> binder = new LazyThreadLocalBinder<>();
+        binder.get().set("main");
+
+        AtomicReference<String> otherThreadValue = new AtomicReference<>("not read");
+        Thread thread = new Thread(() -> otherThreadValue.set(binder.get().get()));
+        thread.start();
+        thread.join();
+
+        Assertions.assertNull(otherThreadValue.get());
+        Assertions.assertEquals("main", binder.get().clear());
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.context.provider;
+
+import com.navercorp.pinpoint.common.util.JvmVersion;
+import com.navercorp.pinpoint.profiler.context.LazyThreadLocalBinder;
+import com.navercorp.pinpoint.profiler.context.ThreadLocalBinder;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class TraceBinderProviderTest {
+
+    @Test
+    public void get() {
+        Assertions.assertTrue(new TraceBinderProvider(JvmVersion.JAVA_8).get() instanceof ThreadLocalBinder);
+        Assertions.assertTrue(new TraceBinderProvider(JvmVersion.JAVA_19).get() instanceof LazyThreadLocalBinder);
+        Assertions.assertTrue(new TraceBinderProvider(JvmVersion.JAVA_RECENT).get() instanceof LazyThreadLocalBinder);
+    }
+}
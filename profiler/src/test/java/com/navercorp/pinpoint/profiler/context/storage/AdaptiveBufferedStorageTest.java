@@ -0,0 +1,221 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.context.storage;
+
+import com.navercorp.pinpoint.bootstrap.context.TraceId;
+import com.navercorp.pinpoint.profiler.context.DefaultSpanChunkFactory;
+import com.navercorp.pinpoint.profiler.context.Span;
+import com.navercorp.pinpoint.profiler.context.SpanChunkFactory;
+import com.navercorp.pinpoint.profiler.context.SpanEvent;
+import com.navercorp.pinpoint.profiler.context.id.DefaultTraceId;
+import com.navercorp.pinpoint.profiler.context.id.TraceRoot;
+import com.navercorp.pinpoint.profiler.context.storage.SpanChunkMetrics.FlushReason;
+import com.navercorp.pinpoint.profiler.sender.CountingDataSender;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class AdaptiveBufferedStorageTest {
+
+    private final String agentId = "agentId";
+    private final long agentStartTime = System.currentTimeMillis();
+
+    private final CountingDataSender countingDataSender = new CountingDataSender();
+    private final AtomicLong clock = new AtomicLong(1000);
+    private TraceRoot internalTraceId;
+
+    @BeforeEach
+    public void before() {
+        countingDataSender.stop();
+        internalTraceId = newInternalTraceId();
+    }
+
+    private TraceRoot newInternalTraceId() {
+        TraceId traceId = new DefaultTraceId(agentId, agentStartTime, 100);
+        return TraceRoot.remote(traceId, agentId, agentStartTime, 100);
+    }
+
+    @Test
+    public void testStore_noFlush() {
+        AdaptiveFlushPolicy policy = new AdaptiveFlushPolicy(10, 0, 0, 0);
+        AdaptiveBufferedStorage storage = newStorage(policy);
+
+        storage.store(new SpanEvent());
+        storage.store(new SpanEvent());
+
+        Assertions.assertEquals(0, countingDataSender.getTotalCount());
+        Assertions.assertTrue(policy.getTotalBufferedBytes() > 0);
+    }
+
+    @Test
+    public void testStore_eventsFlush() {
+        AdaptiveFlushPolicy policy = new AdaptiveFlushPolicy(2, 0, 0, 0);
+        AdaptiveBufferedStorage storage = newStorage(policy);
+
+        storage.store(new SpanEvent());
+        storage.store(new SpanEvent());
+        storage.store(new SpanEvent());
+
+        Assertions.assertEquals(1, countingDataSender.getSpanChunkCounter());
+        Assertions.assertEquals(1, policy.getMetrics().getFlushCount(FlushReason.EVENTS));
+    }
+
+    @Test
+    public void testStore_bytesFlush() {
+        AdaptiveFlushPolicy policy = new AdaptiveFlushPolicy(100, 100, 0, 0);
+        AdaptiveBufferedStorage storage = newStorage(policy);
+
+        storage.store(new SpanEvent());
+        Assertions.assertEquals(0, countingDataSender.getTotalCount());
+
+        storage.store(newSpanEvent(200));
+
+        Assertions.assertEquals(1, countingDataSender.getSpanChunkCounter());
+        Assertions.assertEquals(1, policy.getMetrics().getFlushCount(FlushReason.BYTES));
+        Assertions.assertEquals(0, policy.getTotalBufferedBytes());
+    }
+
+    @Test
+    public void testStore_ageFlush() {
+        AdaptiveFlushPolicy policy = new AdaptiveFlushPolicy(100, 0, 500, 0);
+        AdaptiveBufferedStorage storage = newStorage(policy);
+
+        storage.store(new SpanEvent());
+        clock.addAndGet(499);
+        storage.store(new SpanEvent());
+        Assertions.assertEquals(0, countingDataSender.getTotalCount());
+
+        clock.addAndGet(1);
+        storage.store(new SpanEvent());
+
+        Assertions.assertEquals(1, countingDataSender.getSpanChunkCounter());
+        Assertions.assertEquals(1, policy.getMetrics().getFlushCount(FlushReason.AGE));
+    }
+
+    @Test
+    public void testStore_memoryPressureFlush() {
+        AdaptiveFlushPolicy policy = new AdaptiveFlushPolicy(100, 0, 0, 300);
+        AdaptiveBufferedStorage idle = newStorage(policy);
+        idle.store(newSpanEvent(200));
+        Assertions.assertEquals(0, countingDataSender.getTotalCount());
+
+        AdaptiveBufferedStorage storage = newStorage(policy);
+        storage.store(newSpanEvent(200));
+
+        Assertions.assertEquals(1, countingDataSender.getSpanChunkCounter());
+        Assertions.assertEquals(1, policy.getMetrics().getFlushCount(FlushReason.MEMORY_PRESSURE));
+    }
+
+    @Test
+    public void testStore_spanReleasesBufferedBytes() {
+        AdaptiveFlushPolicy policy = new AdaptiveFlushPolicy(10, 0, 0, 0);
+        AdaptiveBufferedStorage storage = newStorage(policy);
+
+        storage.store(new SpanEvent());
+        storage.store(new SpanEvent());
+        storage.store(new Span(internalTraceId));
+
+        Assertions.assertEquals(1, countingDataSender.getSpanCounter());
+        Assertions.assertEquals(0, countingDataSender.getSpanChunkCounter());
+        Assertions.assertEquals(0, policy.getTotalBufferedBytes());
+    }
+
+    @Test
+    public void testStore_manualFlush() {
+        AdaptiveFlushPolicy policy = new AdaptiveFlushPolicy(10, 0, 0, 0);
+        AdaptiveBufferedStorage storage = newStorage(policy);
+
+        storage.store(new SpanEvent());
+        storage.store(new SpanEvent());
+        storage.flush();
+
+        Assertions.assertEquals(1, countingDataSender.getSpanChunkCounter());
+        Assertions.assertEquals(1, policy.getMetrics().getFlushCount(FlushReason.FLUSH));
+        Assertions.assertEquals(1, policy.getMetrics().getEventHistogram()[1]);
+        Assertions.assertEquals(1, policy.getMetrics().getByteHistogram()[0]);
+        Assertions.assertEquals(0, policy.getTotalBufferedBytes());
+    }
+
+    @Test
+    public void testSweep_idleBufferAge() {
+        AdaptiveFlushPolicy policy = new AdaptiveFlushPolicy(100, 0, 500, 0);
+        AdaptiveBufferedStorage storage = newStorage(policy);
+
+        storage.store(new SpanEvent());
+        Assertions.assertEquals(1, policy.getBufferCount());
+
+        policy.sweep(clock.get() + 499);
+        Assertions.assertEquals(0, countingDataSender.getTotalCount());
+
+        policy.sweep(clock.get() + 500);
+        Assertions.assertEquals(1, countingDataSender.getSpanChunkCounter());
+        Assertions.assertEquals(1, policy.getMetrics().getFlushCount(FlushReason.AGE));
+        Assertions.assertEquals(0, policy.getBufferCount());
+        Assertions.assertEquals(0, policy.getTotalBufferedBytes());
+    }
+
+    @Test
+    public void testSweep_memoryPressure() {
+        AdaptiveFlushPolicy policy = new AdaptiveFlushPolicy(100, 0, 0, 300);
+        AdaptiveBufferedStorage idle1 = newStorage(policy);
+        AdaptiveBufferedStorage idle2 = newStorage(policy);
+        idle1.store(newSpanEvent(50));
+        idle2.store(newSpanEvent(50));
+        Assertions.assertEquals(0, countingDataSender.getTotalCount());
+
+        policy.sweep(clock.get());
+        Assertions.assertEquals(0, countingDataSender.getTotalCount());
+
+        // held by the other buffers of the agent
+        policy.addBufferedBytes(1000);
+        policy.sweep(clock.get());
+
+        Assertions.assertEquals(2, countingDataSender.getSpanChunkCounter());
+        Assertions.assertEquals(2, policy.getMetrics().getFlushCount(FlushReason.MEMORY_PRESSURE));
+        Assertions.assertEquals(1000, policy.getTotalBufferedBytes());
+    }
+
+    @Test
+    public void testClose_unregister() {
+        AdaptiveFlushPolicy policy = new AdaptiveFlushPolicy(100, 0, 500, 0);
+        AdaptiveBufferedStorage storage = newStorage(policy);
+
+        storage.store(new SpanEvent());
+        storage.close();
+
+        Assertions.assertEquals(0, policy.getBufferCount());
+        policy.sweep(clock.get() + 1000);
+        Assertions.assertEquals(0, countingDataSender.getTotalCount());
+    }
+
+    private SpanEvent newSpanEvent(int endPointLength) {
+        SpanEvent spanEvent = new SpanEvent();
+        StringBuilder endPoint = new StringBuilder();
+        for (int i = 0; i < endPointLength; i++) {
+            endPoint.append('a');
+        }
+        spanEvent.setEndPoint(endPoint.toString());
+        return spanEvent;
+    }
+
+    private AdaptiveBufferedStorage newStorage(AdaptiveFlushPolicy policy) {
+        SpanChunkFactory spanChunkFactory = new DefaultSpanChunkFactory(internalTraceId);
+        return new AdaptiveBufferedStorage(spanChunkFactory, countingDataSender, policy, clock::get);
+    }
+}
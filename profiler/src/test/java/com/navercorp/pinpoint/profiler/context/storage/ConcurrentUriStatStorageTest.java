@@ -0,0 +1,145 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.context.storage;
+
+import com.navercorp.pinpoint.common.profiler.clock.TickClock;
+import com.navercorp.pinpoint.profiler.monitor.metric.uri.AgentUriStatData;
+import com.navercorp.pinpoint.profiler.monitor.metric.uri.EachUriStatData;
+import com.navercorp.pinpoint.profiler.monitor.metric.uri.URIKey;
+import com.navercorp.pinpoint.profiler.monitor.metric.uri.UriStatHistogram;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ConcurrentUriStatStorageTest {
+
+    private static final int COLLECT_INTERVAL = 100;
+
+    private final AtomicLong now = new AtomicLong(1000);
+    private final TickClock clock = ConcurrentUriStatStorage.newTickClock(now::get, COLLECT_INTERVAL);
+
+    @Test
+    public void rotateOnPoll() {
+        ConcurrentUriStatStorage storage = new ConcurrentUriStatStorage(1000, clock);
+        storage.store("/index.html", true, 1000, 1010);
+        storage.store("/index.html", false, 1000, 1050);
+        storage.store("/main", true, 1020, 1030);
+
+        Assertions.assertNull(storage.poll());
+
+        now.set(1100);
+        AgentUriStatData data = storage.poll();
+        Assertions.assertNotNull(data);
+        Assertions.assertEquals(1000, data.getBaseTimestamp());
+
+        EachUriStatData index = find(data, "/index.html");
+        Assertions.assertEquals(new URIKey("/index.html", 1000), findKey(data, "/index.html"));
+        Assertions.assertEquals(2, index.getTotalHistogram().getCount());
+        Assertions.assertEquals(60, index.getTotalHistogram().getTotal());
+        Assertions.assertEquals(50, index.getTotalHistogram().getMax());
+        Assertions.assertEquals(1, index.getFailedHistogram().getCount());
+        Assertions.assertEquals(1, find(data, "/main").getTotalHistogram().getCount());
+
+        Assertions.assertNull(storage.poll());
+    }
+
+    @Test
+    public void rotateOnStore() {
+        ConcurrentUriStatStorage storage = new ConcurrentUriStatStorage(1000, clock);
+        storage.store("/index.html", true, 1000, 1010);
+        storage.store("/index.html", true, 1100, 1110);
+        // late request of the previous interval
+        storage.store("/index.html", true, 1000, 1090);
+
+        AgentUriStatData data = storage.poll();
+        Assertions.assertEquals(1000, data.getBaseTimestamp());
+        Assertions.assertEquals(1, find(data, "/index.html").getTotalHistogram().getCount());
+
+        now.set(1200);
+        data = storage.poll();
+        Assertions.assertEquals(1100, data.getBaseTimestamp());
+        Assertions.assertEquals(2, find(data, "/index.html").getTotalHistogram().getCount());
+    }
+
+    @Test
+    public void capacity() {
+        ConcurrentUriStatStorage storage = new ConcurrentUriStatStorage(2, clock);
+        storage.store("/a", true, 1000, 1010);
+        storage.store("/b", true, 1000, 1010);
+        storage.store("/c", true, 1000, 1010);
+        storage.store("/a", true, 1000, 1010);
+
+        now.set(1100);
+        AgentUriStatData data = storage.poll();
+        Assertions.assertEquals(2, data.getAllUriStatData().size());
+        Assertions.assertEquals(2, find(data, "/a").getTotalHistogram().getCount());
+    }
+
+    @Test
+    public void concurrentStore() throws Exception {
+        ConcurrentUriStatStorage storage = new ConcurrentUriStatStorage(1000, clock);
+        final int threads = 4;
+        final int storeCount = 10000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < storeCount; j++) {
+                        storage.store("/index.html", j % 2 == 0, 1000, 1001);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        now.set(1100);
+        UriStatHistogram histogram = find(storage.poll(), "/index.html").getTotalHistogram();
+        Assertions.assertEquals(threads * storeCount, histogram.getCount());
+        Assertions.assertEquals(threads * storeCount, histogram.getTotal());
+    }
+
+    private URIKey findKey(AgentUriStatData data, String uri) {
+        for (Map.Entry<URIKey, EachUriStatData> entry : data.getAllUriStatData()) {
+            if (entry.getKey().getUri().equals(uri)) {
+                return entry.getKey();
+            }
+        }
+        return null;
+    }
+
+    private EachUriStatData find(AgentUriStatData data, String uri) {
+        for (Map.Entry<URIKey, EachUriStatData> entry : data.getAllUriStatData()) {
+            if (entry.getKey().getUri().equals(uri)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.monitor.stack;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class StackSamplesTest {
+
+    private static StackTraceElement[] stack(String... methods) {
+        StackTraceElement[] stackTrace = new StackTraceElement[methods.length];
+        for (int i = 0; i < methods.length; i++) {
+            stackTrace[i] = new StackTraceElement("Test", methods[i], "Test.java", i);
+        }
+        return stackTrace;
+    }
+
+    @Test
+    public void toCollapsedString() {
+        StackSamples stackSamples = new StackSamples(10, 1024);
+        // top frame first
+        stackSamples.add(stack("c", "b", "a"));
+        stackSamples.add(stack("d", "a"));
+        stackSamples.add(stack("c", "b", "a"));
+
+        Assertions.assertEquals(3, stackSamples.getSampleCount());
+        Assertions.assertEquals("Test.a;Test.b;Test.c 2\nTest.a;Test.d 1", stackSamples.toCollapsedString());
+    }
+
+    @Test
+    public void maxStacks() {
+        StackSamples stackSamples = new StackSamples(1, 1024);
+        stackSamples.add(stack("a"));
+        stackSamples.add(stack("b"));
+        stackSamples.add(stack("c"));
+
+        Assertions.assertEquals("[dropped] 2\nTest.a 1", stackSamples.toCollapsedString());
+    }
+
+    @Test
+    public void maxLength() {
+        StackSamples stackSamples = new StackSamples(10, 10);
+        stackSamples.add(stack("a"));
+        stackSamples.add(stack("a"));
+        stackSamples.add(stack("bbbbbbbbbb"));
+
+        Assertions.assertEquals("Test.a 2", stackSamples.toCollapsedString());
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.monitor.stack;
+
+import com.navercorp.pinpoint.profiler.context.active.ActiveTraceRepository;
+import com.navercorp.pinpoint.profiler.context.active.ActiveTraceSnapshot;
+import com.navercorp.pinpoint.profiler.context.id.DefaultShared;
+import com.navercorp.pinpoint.profiler.context.id.Shared;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class StackSamplingTaskTest {
+
+    private static final long NOW = 100_000;
+    private static final long THRESHOLD = 1000;
+
+    private ActiveTraceSnapshot newActiveTrace(long startTime, boolean sampled, Shared shared) {
+        ActiveTraceSnapshot activeTrace = mock(ActiveTraceSnapshot.class);
+        Mockito.lenient().when(activeTrace.getStartTime()).thenReturn(startTime);
+        Mockito.lenient().when(activeTrace.isSampled()).thenReturn(sampled);
+        Mockito.lenient().when(activeTrace.getThreadId()).thenReturn(Thread.currentThread().getId());
+        Mockito.lenient().when(activeTrace.getShared()).thenReturn(shared);
+        return activeTrace;
+    }
+
+    @Test
+    public void sample_slowTrace() {
+        Shared slow = new DefaultShared();
+        Shared fast = new DefaultShared();
+        Shared unsampled = new DefaultShared();
+
+        List<ActiveTraceSnapshot> activeTraces = Arrays.asList(
+                newActiveTrace(NOW - THRESHOLD, true, slow),
+                newActiveTrace(NOW - 10, true, fast),
+                newActiveTrace(NOW - THRESHOLD, false, unsampled));
+        ActiveTraceRepository repository = mock(ActiveTraceRepository.class);
+        when(repository.snapshot()).thenReturn(activeTraces);
+
+        StackSamplingTask task = new StackSamplingTask(repository, ManagementFactory.getThreadMXBean(),
+                THRESHOLD, 16, TimeUnit.SECONDS.toNanos(1));
+        task.sample(NOW);
+        task.sample(NOW);
+
+        Assertions.assertEquals(2, slow.getStackSamples().getSampleCount());
+        Assertions.assertNull(fast.getStackSamples());
+        Assertions.assertNull(unsampled.getStackSamples());
+    }
+
+    @Test
+    public void sample_noSlowTrace() {
+        List<ActiveTraceSnapshot> activeTraces = Arrays.asList(newActiveTrace(NOW - 10, true, new DefaultShared()));
+        ActiveTraceRepository repository = mock(ActiveTraceRepository.class);
+        when(repository.snapshot()).thenReturn(activeTraces);
+        ThreadMXBean threadMXBean = mock(ThreadMXBean.class);
+
+        StackSamplingTask task = new StackSamplingTask(repository, threadMXBean, THRESHOLD, 16, TimeUnit.SECONDS.toNanos(1));
+        task.sample(NOW);
+
+        verify(threadMXBean, never()).getThreadInfo(any(long[].class), anyInt());
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.thrift.io;
+
+/**
+ * Wire layout of a batch of flink messages sent in a single packet.
+ * <pre>
+ * signature(1) version(1) codec(1) count(4) length(4) body
+ * </pre>
+ * The body is {@code count} header+TBase messages back to back, {@code length} bytes once decompressed.
+ * The signature never collides with {@link com.navercorp.pinpoint.io.header.Header#SIGNATURE},
+ * so a receiver can accept batch frames and single messages on the same connection.
+ */
+public final class FlinkBatchFrame {
+
+    public static final byte SIGNATURE = (byte) 0xfb;
+    public static final byte VERSION = 0x01;
+
+    public static final byte CODEC_NONE = 0;
+    public static final byte CODEC_DEFLATE = 1;
+
+    public static final int HEADER_SIZE = 11;
+
+    static final int COUNT_OFFSET = 3;
+    static final int LENGTH_OFFSET = 7;
+
+    private FlinkBatchFrame() {
+    }
+
+    public static boolean isBatchFrame(byte[] payload) {
+        return payload != null && payload.length >= HEADER_SIZE && payload[0] == SIGNATURE;
+    }
+}
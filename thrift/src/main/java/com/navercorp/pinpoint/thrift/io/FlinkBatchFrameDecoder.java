@@ -0,0 +1,106 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.thrift.io;
+
+import com.navercorp.pinpoint.common.util.BytesUtils;
+import com.navercorp.pinpoint.io.request.Message;
+import org.apache.thrift.TBase;
+import org.apache.thrift.TException;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Decodes a {@link FlinkBatchFrame} into its messages.
+ * The deserializer and the inflater are reused across frames, so keep one decoder per thread.
+ */
+public class FlinkBatchFrameDecoder {
+
+    private static final int MAX_BODY_LENGTH = 1024 * 1024 * 64;
+
+    private final HeaderTBaseDeserializer deserializer;
+    private final Inflater inflater = new Inflater();
+
+    public FlinkBatchFrameDecoder(HeaderTBaseDeserializer deserializer) {
+        this.deserializer = Objects.requireNonNull(deserializer, "deserializer");
+    }
+
+    public List<Message<TBase<?, ?>>> decode(byte[] frame) throws TException {
+        if (!FlinkBatchFrame.isBatchFrame(frame)) {
+            throw new TException("invalid batch frame");
+        }
+        final byte version = frame[1];
+        if (version != FlinkBatchFrame.VERSION) {
+            throw new TException(String.format("unsupported batch frame version : 0x%02X", version));
+        }
+        final byte codec = frame[2];
+        final int count = BytesUtils.bytesToInt(frame, FlinkBatchFrame.COUNT_OFFSET);
+        final int length = BytesUtils.bytesToInt(frame, FlinkBatchFrame.LENGTH_OFFSET);
+        if (length < 0 || length > MAX_BODY_LENGTH) {
+            throw new TException("invalid batch frame length:" + length);
+        }
+
+        final List<Message<TBase<?, ?>>> messages = deserialize(codec, frame, length);
+        if (messages.size() != count) {
+            throw new TException("batch frame count mismatch. expected:" + count + " actual:" + messages.size());
+        }
+        return messages;
+    }
+
+    private List<Message<TBase<?, ?>>> deserialize(byte codec, byte[] frame, int length) throws TException {
+        if (codec == FlinkBatchFrame.CODEC_NONE) {
+            if (frame.length - FlinkBatchFrame.HEADER_SIZE != length) {
+                throw new TException("invalid batch frame length:" + length);
+            }
+            return deserializer.deserializeList(frame, FlinkBatchFrame.HEADER_SIZE, length);
+        }
+        if (codec == FlinkBatchFrame.CODEC_DEFLATE) {
+            // not reused: thrift binary fields may point into this buffer
+            final byte[] body = inflate(frame, length);
+            return deserializer.deserializeList(body, 0, length);
+        }
+        throw new TException("unsupported batch frame codec:" + codec);
+    }
+
+    private byte[] inflate(byte[] frame, int length) throws TException {
+        final byte[] body = new byte[length];
+        inflater.reset();
+        inflater.setInput(frame, FlinkBatchFrame.HEADER_SIZE, frame.length - FlinkBatchFrame.HEADER_SIZE);
+        try {
+            int inflated = 0;
+            while (inflated < length) {
+                final int read = inflater.inflate(body, inflated, length - inflated);
+                if (read == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                inflated += read;
+            }
+            if (inflated != length) {
+                throw new TException("truncated batch frame. expected:" + length + " actual:" + inflated);
+            }
+        } catch (DataFormatException e) {
+            throw new TException("invalid batch frame body", e);
+        }
+        return body;
+    }
+
+    public void close() {
+        inflater.end();
+    }
+}
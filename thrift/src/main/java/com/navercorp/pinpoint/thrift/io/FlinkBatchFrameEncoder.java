@@ -0,0 +1,135 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.thrift.io;
+
+import com.navercorp.pinpoint.common.util.BytesUtils;
+
+import java.util.zip.Deflater;
+
+/**
+ * Accumulates serialized messages and encodes them into a single {@link FlinkBatchFrame}.
+ * Not thread safe.
+ */
+public class FlinkBatchFrameEncoder {
+
+    private static final int MIN_COMPRESS_SIZE = 512;
+    private static final int INITIAL_BUFFER_SIZE = 1024 * 8;
+
+    private final boolean compress;
+    private final Deflater deflater;
+
+    private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+    private int length;
+    private int count;
+
+    private byte[] compressBuffer = new byte[0];
+
+    public FlinkBatchFrameEncoder(boolean compress) {
+        this.compress = compress;
+        this.deflater = compress ? new Deflater(Deflater.BEST_SPEED) : null;
+    }
+
+    public void append(byte[] message) {
+        ensureCapacity(length + message.length);
+        System.arraycopy(message, 0, buffer, length, message.length);
+        length += message.length;
+        count++;
+    }
+
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity <= buffer.length) {
+            return;
+        }
+        final int newCapacity = Math.max(buffer.length << 1, minCapacity);
+        final byte[] newBuffer = new byte[newCapacity];
+        System.arraycopy(buffer, 0, newBuffer, 0, length);
+        this.buffer = newBuffer;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int byteSize() {
+        return length;
+    }
+
+    /**
+     * Encodes the accumulated messages and resets the encoder.
+     * The body is sent uncompressed when it is small or does not shrink.
+     */
+    public byte[] encode() {
+        if (count == 0) {
+            throw new IllegalStateException("empty batch");
+        }
+        try {
+            if (compress && length >= MIN_COMPRESS_SIZE) {
+                final int compressedLength = deflate();
+                if (compressedLength < length) {
+                    return newFrame(FlinkBatchFrame.CODEC_DEFLATE, compressBuffer, compressedLength);
+                }
+            }
+            return newFrame(FlinkBatchFrame.CODEC_NONE, buffer, length);
+        } finally {
+            reset();
+        }
+    }
+
+    private int deflate() {
+        if (compressBuffer.length < length) {
+            compressBuffer = new byte[length];
+        }
+        deflater.reset();
+        deflater.setInput(buffer, 0, length);
+        deflater.finish();
+        int compressedLength = 0;
+        while (!deflater.finished() && compressedLength < compressBuffer.length) {
+            compressedLength += deflater.deflate(compressBuffer, compressedLength, compressBuffer.length - compressedLength);
+        }
+        if (!deflater.finished()) {
+            // incompressible
+            return length;
+        }
+        return compressedLength;
+    }
+
+    private byte[] newFrame(byte codec, byte[] body, int bodyLength) {
+        final byte[] frame = new byte[FlinkBatchFrame.HEADER_SIZE + bodyLength];
+        frame[0] = FlinkBatchFrame.SIGNATURE;
+        frame[1] = FlinkBatchFrame.VERSION;
+        frame[2] = codec;
+        BytesUtils.writeInt(count, frame, FlinkBatchFrame.COUNT_OFFSET);
+        BytesUtils.writeInt(length, frame, FlinkBatchFrame.LENGTH_OFFSET);
+        System.arraycopy(body, 0, frame, FlinkBatchFrame.HEADER_SIZE, bodyLength);
+        return frame;
+    }
+
+    public void reset() {
+        this.length = 0;
+        this.count = 0;
+    }
+
+    public void close() {
+        if (deflater != null) {
+            deflater.end();
+        }
+    }
+}
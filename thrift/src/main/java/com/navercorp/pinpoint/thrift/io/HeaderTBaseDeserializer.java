@@ -116,10 +116,14 @@ public class HeaderTBaseDeserializer {
     }
 
     public List<Message<TBase<?, ?>>> deserializeList(byte[] buffer) throws TException {
+        return deserializeList(buffer, 0, buffer.length);
+    }
+
+    public List<Message<TBase<?, ?>>> deserializeList(byte[] buffer, int offset, int length) throws TException {
         final List<Message<TBase<?, ?>>> tBaseList = new ArrayList<>();
 
         try {
-            trans.reset(buffer, 0, buffer.length);
+            trans.reset(buffer, offset, length);
             while (trans.getBytesRemainingInBuffer() > 0) {
                 final Message<TBase<?, ?>> tBase = readInternal();
                 tBaseList.add(tBase);
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.thrift.io;
+
+import com.navercorp.pinpoint.io.header.v2.HeaderV2;
+import com.navercorp.pinpoint.io.request.Message;
+import com.navercorp.pinpoint.thrift.dto.flink.TFAgentStat;
+import com.navercorp.pinpoint.thrift.dto.flink.TFAgentStatBatch;
+import org.apache.thrift.TBase;
+import org.apache.thrift.TException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class FlinkBatchFrameTest {
+
+    private final FlinkTBaseLocator locator = new FlinkTBaseLocator(HeaderV2.VERSION);
+    private final HeaderTBaseSerializer serializer = new HeaderTBaseSerializerFactory(locator.getTypeLocator()).createSerializer();
+    private final HeaderTBaseDeserializer deserializer = new FlinkHeaderTBaseDeserializerFactory(locator.getTypeLocator()).createDeserializer();
+
+    private TFAgentStatBatch newAgentStatBatch(int index) {
+        List<TFAgentStat> agentStats = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            TFAgentStat agentStat = new TFAgentStat();
+            agentStat.setAgentId("agent-" + index);
+            agentStat.setTimestamp(1000L * i);
+            agentStat.setCollectInterval(5000);
+            agentStats.add(agentStat);
+        }
+        return new TFAgentStatBatch("agent-" + index, 100, agentStats);
+    }
+
+    private List<Message<TBase<?, ?>>> encodeAndDecode(boolean compress, int count) throws TException {
+        FlinkBatchFrameEncoder encoder = new FlinkBatchFrameEncoder(compress);
+        for (int i = 0; i < count; i++) {
+            encoder.append(serializer.serialize(newAgentStatBatch(i)));
+        }
+        Assertions.assertEquals(count, encoder.size());
+
+        byte[] frame = encoder.encode();
+        Assertions.assertTrue(FlinkBatchFrame.isBatchFrame(frame));
+        Assertions.assertTrue(encoder.isEmpty());
+
+        return new FlinkBatchFrameDecoder(deserializer).decode(frame);
+    }
+
+    @Test
+    public void encodeDecode() throws TException {
+        List<Message<TBase<?, ?>>> messages = encodeAndDecode(false, 3);
+
+        Assertions.assertEquals(3, messages.size());
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertEquals(newAgentStatBatch(i), messages.get(i).getData());
+        }
+    }
+
+    @Test
+    public void encodeDecode_compress() throws TException {
+        List<Message<TBase<?, ?>>> messages = encodeAndDecode(true, 50);
+
+        Assertions.assertEquals(50, messages.size());
+        Assertions.assertEquals(newAgentStatBatch(49), messages.get(49).getData());
+    }
+
+    @Test
+    public void compress_smallerFrame() throws TException {
+        FlinkBatchFrameEncoder plain = new FlinkBatchFrameEncoder(false);
+        FlinkBatchFrameEncoder compressed = new FlinkBatchFrameEncoder(true);
+        for (int i = 0; i < 50; i++) {
+            byte[] message = serializer.serialize(newAgentStatBatch(i));
+            plain.append(message);
+            compressed.append(message);
+        }
+        byte[] plainFrame = plain.encode();
+        byte[] compressedFrame = compressed.encode();
+
+        Assertions.assertEquals(FlinkBatchFrame.CODEC_NONE, plainFrame[2]);
+        Assertions.assertEquals(FlinkBatchFrame.CODEC_DEFLATE, compressedFrame[2]);
+        Assertions.assertTrue(compressedFrame.length < plainFrame.length);
+    }
+
+    @Test
+    public void isBatchFrame_singleMessage() throws TException {
+        Assertions.assertFalse(FlinkBatchFrame.isBatchFrame(serializer.serialize(newAgentStatBatch(0))));
+    }
+
+    @Test
+    public void decode_countMismatch() throws TException {
+        FlinkBatchFrameEncoder encoder = new FlinkBatchFrameEncoder(false);
+        encoder.append(serializer.serialize(newAgentStatBatch(0)));
+        byte[] frame = encoder.encode();
+        frame[FlinkBatchFrame.COUNT_OFFSET + 3] = 2;
+
+        FlinkBatchFrameDecoder decoder = new FlinkBatchFrameDecoder(deserializer);
+        Assertions.assertThrows(TException.class, () -> decoder.decode(frame));
+    }
+}
@@ -26,11 +26,13 @@ public class UriStatAlarmProcessor implements ItemProcessor<PinotAlarmKey, Pinot
     private final PinotAlarmService alarmService;
     private final UriStatDataCollectorFactory uriStatDataCollectorFactory;
     private final AlarmConditionFactory alarmConditionFactory;
+    private final AlarmCheckExecutor alarmCheckExecutor;
 
-    public UriStatAlarmProcessor(PinotAlarmService alarmService, UriStatDataCollectorFactory uriStatDataCollectorFactory, AlarmConditionFactory alarmConditionFactory) {
+    public UriStatAlarmProcessor(PinotAlarmService alarmService, UriStatDataCollectorFactory uriStatDataCollectorFactory, AlarmConditionFactory alarmConditionFactory, AlarmCheckExecutor alarmCheckExecutor) {
         this.alarmService = Objects.requireNonNull(alarmService, "pinotAlarmService");
         this.uriStatDataCollectorFactory = Objects.requireNonNull(uriStatDataCollectorFactory, "dataCollectorFactory");
         this.alarmConditionFactory = Objects.requireNonNull(alarmConditionFactory, "alarmConditionFactory");
+        this.alarmCheckExecutor = Objects.requireNonNull(alarmCheckExecutor, "alarmCheckExecutor");
     }
 
     @Override
@@ -41,7 +43,7 @@ public class UriStatAlarmProcessor implements ItemProcessor<PinotAlarmKey, Pinot
         }
         long now = System.currentTimeMillis();
         PinotAlarmCheckers appChecker = new PinotAlarmCheckers(checkers);
-        appChecker.check(now);
+        appChecker.check(now, alarmCheckExecutor);
 
         return appChecker;
     }
@@ -5,11 +5,15 @@ import com.navercorp.pinpoint.common.server.cluster.zookeeper.config.ClusterConf
 import com.navercorp.pinpoint.common.server.config.TypeLoaderConfiguration;
 import com.navercorp.pinpoint.common.server.profile.StandardEnvironmentLogger;
 import com.navercorp.pinpoint.web.cache.CacheConfiguration;
+import com.navercorp.pinpoint.web.config.AgentDirectoryProperties;
 import com.navercorp.pinpoint.web.config.ConfigProperties;
 import com.navercorp.pinpoint.web.config.LogProperties;
 import com.navercorp.pinpoint.web.config.ScatterChartProperties;
+import com.navercorp.pinpoint.web.config.TraceCacheProperties;
 import com.navercorp.pinpoint.web.config.WebClusterProperties;
+import com.navercorp.pinpoint.web.config.WebMetricConfiguration;
 import com.navercorp.pinpoint.web.config.WebMysqlDataSourceConfiguration;
+import com.navercorp.pinpoint.web.dao.local.WebLocalStorageModule;
 import com.navercorp.pinpoint.web.frontend.FrontendConfigExportConfiguration;
 import com.navercorp.pinpoint.web.install.InstallModule;
 import com.navercorp.pinpoint.web.query.QueryServiceConfiguration;
@@ -39,8 +43,10 @@ import org.springframework.core.env.StandardEnvironment;
         WebMysqlDataSourceConfiguration.class,
         ClusterConfigurationFactory.class,
         CacheConfiguration.class,
+        WebMetricConfiguration.class,
 
         WebHbaseModule.class,
+        WebLocalStorageModule.class,
 
         InstallModule.class,
         WebhookFacadeModule.class,
@@ -78,6 +84,16 @@ public class PinpointWebModule {
         return new ScatterChartProperties();
     }
 
+    @Bean
+    public TraceCacheProperties traceCacheProperties() {
+        return new TraceCacheProperties();
+    }
+
+    @Bean
+    public AgentDirectoryProperties agentDirectoryProperties() {
+        return new AgentDirectoryProperties();
+    }
+
     @Bean
     public StandardEnvironmentLogger standardEnvironmentLogger(StandardEnvironment env) {
         return new StandardEnvironmentLogger(env);
@@ -17,6 +17,7 @@
 package com.navercorp.pinpoint.web.cache;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CachingConfigurerSupport;
 import org.springframework.cache.annotation.EnableCaching;
@@ -31,7 +32,10 @@ import java.util.concurrent.TimeUnit;
 @EnableCaching
 public class CacheConfiguration extends CachingConfigurerSupport {
 
+    public static final String METADATA_CACHE_MANAGER = "metaData";
     public static final String API_METADATA_CACHE_NAME = "apiMetaData";
+    public static final String SQL_METADATA_CACHE_NAME = "sqlMetaData";
+    public static final String STRING_METADATA_CACHE_NAME = "stringMetaData";
     public static final String APPLICATION_LIST_CACHE_NAME = "applicationNameList";
 
     @Bean
@@ -45,13 +49,19 @@ public class CacheConfiguration extends CachingConfigurerSupport {
         return cacheManager;
     }
 
-    @Bean
-    public CacheManager apiMetaData() {
-        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager(API_METADATA_CACHE_NAME);
+    /**
+     * api, sql and string metadata of agents, shared by all call-tree requests.
+     * maximumWeight is the approximate heap bytes of each metadata cache.
+     */
+    @Bean(METADATA_CACHE_MANAGER)
+    public CacheManager metaData(@Value("${web.metadata.cache.maximumWeight:67108864}") long maximumWeight,
+                                 @Value("${web.metadata.cache.expireAfterWriteSeconds:600}") long expireAfterWriteSeconds) {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager(API_METADATA_CACHE_NAME, SQL_METADATA_CACHE_NAME, STRING_METADATA_CACHE_NAME);
         caffeineCacheManager.setCaffeine(Caffeine.newBuilder()
-                .expireAfterWrite(600, TimeUnit.SECONDS)
+                .expireAfterWrite(expireAfterWriteSeconds, TimeUnit.SECONDS)
                 .initialCapacity(500)
-                .maximumSize(10000));
+                .maximumWeight(maximumWeight)
+                .weigher(new MetaDataWeigher()));
         return caffeineCacheManager;
     }
 
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.cache;
+
+import com.navercorp.pinpoint.common.server.bo.serializer.metadata.MetaDataRowKey;
+
+/**
+ * Key of the metadata caches for the batch lookups, the same as the SPEL_KEY of the {@code @Cacheable} metadata daos.
+ */
+public final class MetaDataCacheKey {
+
+    private MetaDataCacheKey() {
+    }
+
+    public static String of(String agentId, long agentStartTime, int id) {
+        return agentId + '.' + agentStartTime + '.' + id;
+    }
+
+    public static String of(MetaDataRowKey metaDataRowKey) {
+        return of(metaDataRowKey.getAgentId(), metaDataRowKey.getAgentStartTime(), metaDataRowKey.getId());
+    }
+}
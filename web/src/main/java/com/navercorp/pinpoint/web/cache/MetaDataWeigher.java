@@ -0,0 +1,65 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.cache;
+
+import com.github.benmanes.caffeine.cache.Weigher;
+import com.navercorp.pinpoint.common.server.bo.ApiMetaDataBo;
+import com.navercorp.pinpoint.common.server.bo.SqlMetaDataBo;
+import com.navercorp.pinpoint.common.server.bo.StringMetaDataBo;
+
+import java.util.Collection;
+
+/**
+ * Approximate heap bytes of a cached metadata list, so that long sql texts take more of the cache than api ids.
+ */
+public class MetaDataWeigher implements Weigher<Object, Object> {
+
+    static final int ENTRY_OVERHEAD = 64;
+    static final int ELEMENT_OVERHEAD = 48;
+
+    @Override
+    public int weigh(Object key, Object value) {
+        long weight = ENTRY_OVERHEAD + stringWeight(key);
+        if (value instanceof Collection) {
+            for (Object element : (Collection<?>) value) {
+                weight += ELEMENT_OVERHEAD + elementWeight(element);
+            }
+        }
+        return (int) Math.min(weight, Integer.MAX_VALUE);
+    }
+
+    private long elementWeight(Object element) {
+        if (element instanceof ApiMetaDataBo) {
+            return stringWeight(((ApiMetaDataBo) element).getApiInfo());
+        }
+        if (element instanceof SqlMetaDataBo) {
+            return stringWeight(((SqlMetaDataBo) element).getSql());
+        }
+        if (element instanceof StringMetaDataBo) {
+            return stringWeight(((StringMetaDataBo) element).getStringValue());
+        }
+        return 0;
+    }
+
+    private long stringWeight(Object value) {
+        if (value instanceof String) {
+            return ((String) value).length() * 2L;
+        }
+        return 0;
+    }
+}
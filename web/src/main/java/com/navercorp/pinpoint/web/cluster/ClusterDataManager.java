@@ -17,4 +17,8 @@ public interface ClusterDataManager {
 
     List<ClusterId> getRegisteredAgentList(ClusterKey key);
 
+    void addAgentListener(ClusterAgentListener listener);
+
+    boolean isConnected();
+
 }
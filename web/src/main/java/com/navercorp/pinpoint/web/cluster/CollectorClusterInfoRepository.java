@@ -20,10 +20,12 @@ import com.navercorp.pinpoint.common.server.cluster.ClusterKey;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * @author koo.taejin
@@ -32,47 +34,99 @@ import java.util.Set;
 public class CollectorClusterInfoRepository {
 
     private final Map<ClusterId, Set<ClusterKey>> repository = new HashMap<>();
+    // agent -> collectors, updated with the difference of each put
+    private final Map<ClusterKey, Set<ClusterId>> agentIndex = new HashMap<>();
 
     private final Object lock = new Object();
 
+    private final List<ClusterAgentListener> listeners = new CopyOnWriteArrayList<>();
+
+    public void addListener(ClusterAgentListener listener) {
+        Objects.requireNonNull(listener, "listener");
+        listeners.add(listener);
+    }
+
     public void put(ClusterId clusterId, Set<ClusterKey> profilerInfoSet) {
         Objects.requireNonNull(clusterId, "clusterId");
         Objects.requireNonNull(profilerInfoSet, "profilerInfoSet");
 
+        final List<ClusterKey> changed = new ArrayList<>();
         synchronized (lock) {
-            repository.put(clusterId, profilerInfoSet);
+            final Set<ClusterKey> previous = repository.put(clusterId, profilerInfoSet);
+            if (previous != null) {
+                for (ClusterKey agentKey : previous) {
+                    if (!profilerInfoSet.contains(agentKey)) {
+                        unindex(agentKey, clusterId, changed);
+                    }
+                }
+            }
+            for (ClusterKey agentKey : profilerInfoSet) {
+                if (previous == null || !previous.contains(agentKey)) {
+                    final Set<ClusterId> clusterIds = agentIndex.computeIfAbsent(agentKey, key -> new HashSet<>(2));
+                    if (clusterIds.isEmpty()) {
+                        changed.add(agentKey);
+                    }
+                    clusterIds.add(clusterId);
+                }
+            }
         }
+        notifyChanged(changed);
     }
 
     public void remove(ClusterId clusterId) {
         Objects.requireNonNull(clusterId, "clusterId");
 
+        final List<ClusterKey> changed = new ArrayList<>();
         synchronized (lock) {
-            repository.remove(clusterId);
+            final Set<ClusterKey> previous = repository.remove(clusterId);
+            if (previous != null) {
+                for (ClusterKey agentKey : previous) {
+                    unindex(agentKey, clusterId, changed);
+                }
+            }
+        }
+        notifyChanged(changed);
+    }
+
+    private void unindex(ClusterKey agentKey, ClusterId clusterId, List<ClusterKey> changed) {
+        final Set<ClusterId> clusterIds = agentIndex.get(agentKey);
+        if (clusterIds == null) {
+            return;
+        }
+        clusterIds.remove(clusterId);
+        if (clusterIds.isEmpty()) {
+            agentIndex.remove(agentKey);
+            changed.add(agentKey);
+        }
+    }
+
+    private void notifyChanged(List<ClusterKey> changed) {
+        if (changed.isEmpty()) {
+            return;
+        }
+        for (ClusterAgentListener listener : listeners) {
+            for (ClusterKey agentKey : changed) {
+                listener.onAgentChanged(agentKey);
+            }
         }
     }
 
     public List<ClusterId> get(ClusterKey agentKey) {
         Objects.requireNonNull(agentKey, "agentKey");
 
-        final List<ClusterId> result = new ArrayList<>();
         synchronized (lock) {
-            for (Map.Entry<ClusterId, Set<ClusterKey>> entry : repository.entrySet()) {
-                final Set<ClusterKey> valueSet = entry.getValue();
-                final boolean exist = valueSet.contains(agentKey);
-                if (exist) {
-                    final ClusterId clusterId = entry.getKey();
-                    result.add(clusterId);
-                }
+            final Set<ClusterId> clusterIds = agentIndex.get(agentKey);
+            if (clusterIds == null) {
+                return new ArrayList<>();
             }
+            return new ArrayList<>(clusterIds);
         }
-
-        return result;
     }
 
     public void clear() {
         synchronized (lock) {
             repository.clear();
+            agentIndex.clear();
         }
     }
 
@@ -26,6 +26,7 @@ import com.navercorp.pinpoint.common.server.cluster.zookeeper.exception.NoNodeEx
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Objects;
 
 import com.navercorp.pinpoint.common.server.cluster.zookeeper.exception.PinpointZookeeperException;
@@ -33,6 +34,7 @@ import com.navercorp.pinpoint.common.util.Assert;
 import com.navercorp.pinpoint.common.util.MapUtils;
 import com.navercorp.pinpoint.rpc.util.ClassUtils;
 import com.navercorp.pinpoint.rpc.util.TimerFactory;
+import com.navercorp.pinpoint.web.cluster.ClusterAgentListener;
 import com.navercorp.pinpoint.web.cluster.ClusterDataManager;
 import com.navercorp.pinpoint.web.cluster.ClusterId;
 import com.navercorp.pinpoint.web.cluster.CollectorClusterInfoRepository;
@@ -84,6 +86,8 @@ public class ZookeeperClusterDataManager implements ClusterDataManager, Zookeepe
     private final AtomicReference<PushWebClusterJob> job = new AtomicReference<>();
 
     private final CollectorClusterInfoRepository collectorClusterInfo = new CollectorClusterInfoRepository();
+    // last znode data of each collector, unchanged data is not parsed again
+    private final Map<ClusterId, byte[]> collectorClusterData = new HashMap<>();
 
     private final PeriodicSyncTask periodicSyncTask;
 
@@ -209,6 +213,9 @@ public class ZookeeperClusterDataManager implements ClusterDataManager, Zookeepe
 
     @Override
     public boolean handleDisconnected() {
+        synchronized (this) {
+            collectorClusterData.clear();
+        }
         collectorClusterInfo.clear();
         return true;
     }
@@ -231,7 +238,7 @@ public class ZookeeperClusterDataManager implements ClusterDataManager, Zookeepe
             ClusterId id = ClusterId.newClusterId(path);
             logger.debug("handleNodeDeleted path:{} clusterId:{} ", path, id);
 
-            collectorClusterInfo.remove(id);
+            removeCollectorClusterData(id);
             return true;
         }
         return false;
@@ -259,14 +266,21 @@ public class ZookeeperClusterDataManager implements ClusterDataManager, Zookeepe
         return collectorClusterInfo.get(key);
     }
 
+    @Override
+    public void addAgentListener(ClusterAgentListener listener) {
+        collectorClusterInfo.addListener(listener);
+    }
+
     private Timer createTimer() {
         HashedWheelTimer timer = TimerFactory.createHashedWheelTimer("Pinpoint-Web-Cluster-Timer", 100, TimeUnit.MILLISECONDS, 512);
         timer.start();
         return timer;
     }
 
+    @Override
     public boolean isConnected() {
-        return client.isConnected();
+        final ZookeeperClient client = this.client;
+        return client != null && client.isConnected();
     }
 
     private boolean syncPullCollectorCluster() {
@@ -279,8 +293,7 @@ public class ZookeeperClusterDataManager implements ClusterDataManager, Zookeepe
 
             logger.info("Get collector({}) info.", map.keySet());
             for (Map.Entry<ClusterId, byte[]> entry : map.entrySet()) {
-                Set<ClusterKey> profilerInfo = newProfilerInfo(entry.getValue());
-                collectorClusterInfo.put(entry.getKey(), profilerInfo);
+                putCollectorClusterData(entry.getKey(), entry.getValue());
             }
 
             logger.info("syncPullCollectorCluster() completed.");
@@ -294,13 +307,12 @@ public class ZookeeperClusterDataManager implements ClusterDataManager, Zookeepe
         synchronized (this) {
             try {
                 byte[] data = client.getData(path, true);
-                Set<ClusterKey> profilerInfo = newProfilerInfo(data);
-                collectorClusterInfo.put(id, profilerInfo);
+                putCollectorClusterData(id, data);
                 logger.info("pushCollectorClusterData() completed. {}", path);
                 return true;
             } catch (NoNodeException e) {
                 logger.warn("No node path({}).", path);
-                collectorClusterInfo.remove(id);
+                removeCollectorClusterData(id);
             } catch (Exception e) {
                 logger.warn(e.getMessage(), e);
             }
@@ -308,6 +320,23 @@ public class ZookeeperClusterDataManager implements ClusterDataManager, Zookeepe
             return false;
         }
     }
+    private void putCollectorClusterData(ClusterId id, byte[] data) {
+        synchronized (this) {
+            final byte[] previous = collectorClusterData.put(id, data);
+            if (previous != null && Arrays.equals(previous, data)) {
+                return;
+            }
+            collectorClusterInfo.put(id, newProfilerInfo(data));
+        }
+    }
+
+    private void removeCollectorClusterData(ClusterId id) {
+        synchronized (this) {
+            collectorClusterData.remove(id);
+            collectorClusterInfo.remove(id);
+        }
+    }
+
     private Set<ClusterKey> newProfilerInfo(byte[] bytes) {
         if (bytes == null) {
             return Collections.emptySet();
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.config;
+
+import org.springframework.beans.factory.annotation.Value;
+
+/**
+ * Settings of the in-memory agent directory serving the agent list views.
+ */
+public class AgentDirectoryProperties {
+
+    @Value("${web.agent.directory.enable:false}")
+    private boolean enable;
+
+    @Value("${web.agent.directory.refreshIntervalSeconds:600}")
+    private long refreshIntervalSeconds;
+
+    @Value("${web.agent.directory.updateIntervalMillis:1000}")
+    private long updateIntervalMillis;
+
+    @Value("${web.agent.directory.maxStalenessSeconds:1200}")
+    private long maxStalenessSeconds;
+
+    public boolean isEnable() {
+        return enable;
+    }
+
+    public long getRefreshIntervalSeconds() {
+        return refreshIntervalSeconds;
+    }
+
+    public long getUpdateIntervalMillis() {
+        return updateIntervalMillis;
+    }
+
+    public long getMaxStalenessSeconds() {
+        return maxStalenessSeconds;
+    }
+
+    @Override
+    public String toString() {
+        return "AgentDirectoryProperties{" +
+                "enable=" + enable +
+                ", refreshIntervalSeconds=" + refreshIntervalSeconds +
+                ", updateIntervalMillis=" + updateIntervalMillis +
+                ", maxStalenessSeconds=" + maxStalenessSeconds +
+                '}';
+    }
+}
@@ -7,7 +7,15 @@ public class ScatterChartProperties {
     @Value("${web.scatter.serverside-scan.use-fuzzyrowfilter:false}")
     private boolean enableFuzzyRowFilter;
 
+    // read ApplicationTraceIndex rows written with collector.scatter.index-format=block
+    @Value("${web.scatter.index.block.enable:false}")
+    private boolean enableIndexBlock;
+
     public boolean isEnableFuzzyRowFilter() {
         return enableFuzzyRowFilter;
     }
+
+    public boolean isEnableIndexBlock() {
+        return enableIndexBlock;
+    }
 }
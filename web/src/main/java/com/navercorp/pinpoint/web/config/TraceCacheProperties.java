@@ -0,0 +1,73 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.config;
+
+import org.springframework.beans.factory.annotation.Value;
+
+/**
+ * Settings of the trace row cache used by the transaction detail / call-tree views.
+ */
+public class TraceCacheProperties {
+
+    @Value("${web.trace.cache.enable:false}")
+    private boolean enable;
+
+    // weight is the number of span/spanChunk cells of the cached rows
+    @Value("${web.trace.cache.maximumWeight:200000}")
+    private long maximumWeight;
+
+    @Value("${web.trace.cache.expireAfterWriteSeconds:600}")
+    private long expireAfterWriteSeconds;
+
+    // a trace whose latest cell is younger than this may still receive spans
+    @Value("${web.trace.cache.recent.thresholdSeconds:120}")
+    private long recentThresholdSeconds;
+
+    @Value("${web.trace.cache.recent.expireAfterWriteSeconds:10}")
+    private long recentExpireAfterWriteSeconds;
+
+    public boolean isEnable() {
+        return enable;
+    }
+
+    public long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    public long getExpireAfterWriteSeconds() {
+        return expireAfterWriteSeconds;
+    }
+
+    public long getRecentThresholdSeconds() {
+        return recentThresholdSeconds;
+    }
+
+    public long getRecentExpireAfterWriteSeconds() {
+        return recentExpireAfterWriteSeconds;
+    }
+
+    @Override
+    public String toString() {
+        return "TraceCacheProperties{" +
+                "enable=" + enable +
+                ", maximumWeight=" + maximumWeight +
+                ", expireAfterWriteSeconds=" + expireAfterWriteSeconds +
+                ", recentThresholdSeconds=" + recentThresholdSeconds +
+                ", recentExpireAfterWriteSeconds=" + recentExpireAfterWriteSeconds +
+                '}';
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.config;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Slf4jReporter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serving metrics of the web. The registry is printed to {@link #REPORTER_LOGGER_NAME} at debug level.
+ */
+@Configuration
+public class WebMetricConfiguration {
+    public static final String REPORTER_LOGGER_NAME = "com.navercorp.pinpoint.web.StateReport";
+
+    private final Logger logger = LogManager.getLogger(WebMetricConfiguration.class);
+
+    public WebMetricConfiguration() {
+        logger.info("Install {}", WebMetricConfiguration.class.getSimpleName());
+    }
+
+    @Bean
+    public MetricRegistry metricRegistry() {
+        return new MetricRegistry();
+    }
+
+    @Bean(destroyMethod = "stop")
+    public Slf4jReporter metricReporter(MetricRegistry metricRegistry,
+                                        @Value("${web.metric.report.interval:60}") long reportIntervalSeconds) {
+        Slf4jReporter reporter = Slf4jReporter.forRegistry(metricRegistry)
+                .convertRatesTo(TimeUnit.SECONDS)
+                .convertDurationsTo(TimeUnit.MILLISECONDS)
+                .outputTo(LoggerFactory.getLogger(REPORTER_LOGGER_NAME))
+                .withLoggingLevel(Slf4jReporter.LoggingLevel.DEBUG)
+                .build();
+        if (reportIntervalSeconds > 0) {
+            reporter.start(reportIntervalSeconds, TimeUnit.SECONDS);
+        }
+        return reporter;
+    }
+}
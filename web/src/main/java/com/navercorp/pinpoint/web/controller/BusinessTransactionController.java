@@ -26,6 +26,7 @@ import com.navercorp.pinpoint.web.calltree.span.CallTreeIterator;
 import com.navercorp.pinpoint.web.calltree.span.SpanFilters;
 import com.navercorp.pinpoint.web.service.FilteredMapService;
 import com.navercorp.pinpoint.web.service.FilteredMapServiceOption;
+import com.navercorp.pinpoint.web.service.FlameGraphService;
 import com.navercorp.pinpoint.web.service.SpanResult;
 import com.navercorp.pinpoint.web.service.SpanService;
 import com.navercorp.pinpoint.web.service.TransactionInfoService;
@@ -36,6 +37,7 @@ import com.navercorp.pinpoint.web.view.TraceViewerDataViewModel;
 import com.navercorp.pinpoint.web.view.TransactionInfoViewModel;
 import com.navercorp.pinpoint.web.view.TransactionTimelineInfoViewModel;
 import com.navercorp.pinpoint.web.vo.callstacks.RecordSet;
+import com.navercorp.pinpoint.web.vo.flamegraph.FlameGraphNode;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Value;
@@ -69,6 +71,7 @@ public class BusinessTransactionController {
     private final TransactionInfoService transactionInfoService;
     private final FilteredMapService filteredMapService;
     private final LogLinkBuilder logLinkBuilder;
+    private final FlameGraphService flameGraphService;
 
     @Value("${web.callstack.selectSpans.limit:-1}")
     private int callstackSelectSpansLimit;
@@ -77,11 +80,13 @@ public class BusinessTransactionController {
     public BusinessTransactionController(SpanService spanService,
                                          TransactionInfoService transactionInfoService,
                                          FilteredMapService filteredMapService,
-                                         LogLinkBuilder logLinkBuilder) {
+                                         LogLinkBuilder logLinkBuilder,
+                                         FlameGraphService flameGraphService) {
         this.spanService = Objects.requireNonNull(spanService, "spanService");
         this.transactionInfoService = Objects.requireNonNull(transactionInfoService, "transactionInfoService");
         this.filteredMapService = Objects.requireNonNull(filteredMapService, "filteredMapService");
         this.logLinkBuilder = Objects.requireNonNull(logLinkBuilder, "logLinkBuilder");
+        this.flameGraphService = Objects.requireNonNull(flameGraphService, "flameGraphService");
     }
 
     /**
@@ -218,5 +223,23 @@ public class BusinessTransactionController {
         return new TraceViewerDataViewModel(recordSet);
     }
 
+    /**
+     * flame graph of the stack samples the agents attached to the slow spans of a transaction
+     */
+    @GetMapping(value = "/flameGraph")
+    public FlameGraphNode flameGraph(
+            @RequestParam("traceId") @NotBlank String traceIdParam,
+            @RequestParam(value = "focusTimestamp", required = false, defaultValue = DEFAULT_FOCUS_TIMESTAMP) @PositiveOrZero
+            long focusTimestamp,
+            @RequestParam(value = "agentId", required = false) @NullOrNotBlank String agentId,
+            @RequestParam(value = "spanId", required = false, defaultValue = DEFAULT_SPAN_ID) long spanId
+    ) {
+        logger.debug("GET /flameGraph params {traceId={}, focusTimestamp={}, agentId={}, spanId={}}",
+                traceIdParam, focusTimestamp, agentId, spanId);
+
+        final TransactionId transactionId = TransactionIdUtils.parseTransactionId(traceIdParam);
+        final Predicate<SpanBo> spanMatchFilter = SpanFilters.spanFilter(spanId, agentId, focusTimestamp);
+        return flameGraphService.selectFlameGraph(transactionId, spanMatchFilter);
+    }
 
-}
\ No newline at end of file
+}
@@ -32,4 +32,9 @@ public interface AgentEventDao {
 
     List<AgentEventBo> getAgentEvents(String agentId, Range range, Set<AgentEventType> excludeEventTypes);
 
+    /**
+     * @return existence of the eventType for each agentId, in the order of agentIds
+     */
+    List<Boolean> agentEventExists(List<String> agentIds, Range range, AgentEventType eventType);
+
 }
@@ -19,10 +19,16 @@ package com.navercorp.pinpoint.web.dao;
 import java.util.List;
 
 import com.navercorp.pinpoint.common.server.bo.ApiMetaDataBo;
+import com.navercorp.pinpoint.common.server.bo.serializer.metadata.MetaDataRowKey;
 
 /**
  * @author emeroad
  */
 public interface ApiMetaDataDao {
     List<ApiMetaDataBo> getApiMetaData(String agentId, long time, int apiId);
+
+    /**
+     * @return metadata of each key, in the order of the keys
+     */
+    List<List<ApiMetaDataBo>> getApiMetaData(List<MetaDataRowKey> metaDataRowKeyList);
 }
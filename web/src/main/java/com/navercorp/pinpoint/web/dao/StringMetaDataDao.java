@@ -17,6 +17,7 @@
 package com.navercorp.pinpoint.web.dao;
 
 import com.navercorp.pinpoint.common.server.bo.StringMetaDataBo;
+import com.navercorp.pinpoint.common.server.bo.serializer.metadata.MetaDataRowKey;
 
 import java.util.List;
 
@@ -25,4 +26,9 @@ import java.util.List;
  */
 public interface StringMetaDataDao {
     List<StringMetaDataBo> getStringMetaData(String agentId, long time, int stringId);
+
+    /**
+     * @return metadata of each key, in the order of the keys
+     */
+    List<List<StringMetaDataBo>> getStringMetaData(List<MetaDataRowKey> metaDataRowKeyList);
 }
@@ -20,6 +20,7 @@ package com.navercorp.pinpoint.web.dao;
 import com.navercorp.pinpoint.common.hbase.bo.ColumnGetCount;
 import com.navercorp.pinpoint.common.profiler.util.TransactionId;
 import com.navercorp.pinpoint.common.server.bo.SpanBo;
+import com.navercorp.pinpoint.common.server.bo.serializer.trace.v2.SpanProjection;
 import com.navercorp.pinpoint.web.service.FetchResult;
 import com.navercorp.pinpoint.web.vo.GetTraceInfo;
 
@@ -35,10 +36,20 @@ public interface TraceDao {
     FetchResult<List<SpanBo>> selectSpan(TransactionId transactionId, ColumnGetCount columnGetCount);
 
     List<List<SpanBo>> selectSpans(List<GetTraceInfo> getTraceInfoList);
+
+    /**
+     * @param projection span fields to decode
+     */
+    List<List<SpanBo>> selectSpans(List<GetTraceInfo> getTraceInfoList, SpanProjection projection);
     
     List<List<SpanBo>> selectAllSpans(List<TransactionId> transactionIdList);
 
     List<List<SpanBo>> selectAllSpans(List<TransactionId> transactionIdList, ColumnGetCount columnGetCount);
 
+    /**
+     * @param projection span fields to decode
+     */
+    List<List<SpanBo>> selectAllSpans(List<TransactionId> transactionIdList, ColumnGetCount columnGetCount, SpanProjection projection);
+
 
 }
@@ -33,6 +33,7 @@ import org.apache.hadoop.hbase.client.Scan;
 import org.apache.hadoop.hbase.filter.BinaryComparator;
 import org.apache.hadoop.hbase.filter.CompareFilter;
 import org.apache.hadoop.hbase.filter.FilterList;
+import org.apache.hadoop.hbase.filter.KeyOnlyFilter;
 import org.apache.hadoop.hbase.filter.QualifierFilter;
 import org.apache.hadoop.hbase.util.Bytes;
 import org.apache.logging.log4j.Logger;
@@ -40,6 +41,8 @@ import org.apache.logging.log4j.LogManager;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
@@ -66,6 +69,8 @@ public class HbaseAgentEventDao implements AgentEventDao {
 
     private final AgentIdRowKeyEncoder rowKeyEncoder = new AgentIdRowKeyEncoder();
 
+    private static final ResultsExtractor<Boolean> EXISTS_EXTRACTOR = results -> results.next() != null;
+
     public HbaseAgentEventDao(HbaseOperations2 hbaseOperations2,
                               TableNameProvider tableNameProvider,
                               @Qualifier("agentEventMapper") RowMapper<List<AgentEventBo>> agentEventMapper,
@@ -104,6 +109,42 @@ public class HbaseAgentEventDao implements AgentEventDao {
         return agentEvents;
     }
 
+    @Override
+    public List<Boolean> agentEventExists(List<String> agentIds, Range range, AgentEventType eventType) {
+        Objects.requireNonNull(agentIds, "agentIds");
+        Objects.requireNonNull(range, "range");
+        Objects.requireNonNull(eventType, "eventType");
+        if (agentIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        final byte[] qualifier = Bytes.toBytes(eventType.getCode());
+        List<Scan> scans = new ArrayList<>(agentIds.size());
+        for (String agentId : agentIds) {
+            Scan scan = new Scan();
+            scan.setMaxVersions(1);
+            scan.setCaching(1);
+            scan.setLimit(1);
+
+            scan.withStartRow(createRowKey(agentId, range.getTo()));
+            scan.withStopRow(createRowKey(agentId, range.getFrom()));
+            scan.addFamily(DESCRIPTOR.getName());
+
+            FilterList filterList = new FilterList(FilterList.Operator.MUST_PASS_ALL);
+            filterList.addFilter(new QualifierFilter(CompareFilter.CompareOp.EQUAL, new BinaryComparator(qualifier)));
+            filterList.addFilter(new KeyOnlyFilter());
+            scan.setFilter(filterList);
+            scans.add(scan);
+        }
+
+        TableName agentEventTableName = tableNameProvider.getTableName(DESCRIPTOR.getTable());
+        List<Boolean> result = this.hbaseOperations2.findParallel(agentEventTableName, scans, EXISTS_EXTRACTOR);
+        if (result.size() != scans.size()) {
+            throw new IllegalStateException("agentEvent scan failed. expected:" + scans.size() + " actual:" + result.size());
+        }
+        return result;
+    }
+
     @Override
     public AgentEventBo getAgentEvent(String agentId, long eventTimestamp, AgentEventType eventType) {
         Objects.requireNonNull(agentId, "agentId");
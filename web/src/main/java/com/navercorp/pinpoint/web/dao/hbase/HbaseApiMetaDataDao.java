@@ -35,6 +35,8 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
@@ -68,7 +70,7 @@ public class HbaseApiMetaDataDao implements ApiMetaDataDao {
     }
 
     @Override
-    @Cacheable(cacheNames="apiMetaData", key=SPEL_KEY, cacheManager = CacheConfiguration.API_METADATA_CACHE_NAME)
+    @Cacheable(cacheNames = CacheConfiguration.API_METADATA_CACHE_NAME, key = SPEL_KEY, cacheManager = CacheConfiguration.METADATA_CACHE_MANAGER, unless = "#result.isEmpty()")
     public List<ApiMetaDataBo> getApiMetaData(String agentId, long time, int apiId) {
         Objects.requireNonNull(agentId, "agentId");
 
@@ -82,6 +84,25 @@ public class HbaseApiMetaDataDao implements ApiMetaDataDao {
         return hbaseOperations2.get(apiMetaDataTableName, get, apiMetaDataMapper);
     }
 
+    @Override
+    public List<List<ApiMetaDataBo>> getApiMetaData(List<MetaDataRowKey> metaDataRowKeyList) {
+        Objects.requireNonNull(metaDataRowKeyList, "metaDataRowKeyList");
+        if (metaDataRowKeyList.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Get> getList = new ArrayList<>(metaDataRowKeyList.size());
+        for (MetaDataRowKey metaDataRowKey : metaDataRowKeyList) {
+            byte[] rowKey = getDistributedKey(rowKeyEncoder.encodeRowKey(metaDataRowKey));
+            Get get = new Get(rowKey);
+            get.addFamily(DESCRIPTOR.getName());
+            getList.add(get);
+        }
+
+        TableName apiMetaDataTableName = tableNameProvider.getTableName(DESCRIPTOR.getTable());
+        return hbaseOperations2.get(apiMetaDataTableName, getList, apiMetaDataMapper);
+    }
+
     private byte[] getDistributedKey(byte[] rowKey) {
         return rowKeyDistributorByHashPrefix.getDistributedKey(rowKey);
     }
@@ -26,6 +26,7 @@ import com.navercorp.pinpoint.common.hbase.util.CellUtils;
 import com.navercorp.pinpoint.common.profiler.util.TransactionId;
 import com.navercorp.pinpoint.common.server.bo.serializer.agent.ApplicationNameRowKeyEncoder;
 import com.navercorp.pinpoint.common.server.scatter.FuzzyRowKeyBuilder;
+import com.navercorp.pinpoint.common.server.scatter.ScatterBlockCodec;
 import com.navercorp.pinpoint.common.server.util.DateTimeFormatUtils;
 import com.navercorp.pinpoint.common.util.BytesUtils;
 import com.navercorp.pinpoint.common.util.TimeUtils;
@@ -115,12 +116,12 @@ public class HbaseApplicationTraceIndexDao implements ApplicationTraceIndexDao {
             throw new IllegalArgumentException("negative limit:" + limit);
         }
         logger.debug("scanTraceIndex {}", range);
-        Scan scan = createScan(applicationName, range, scanBackward);
+        Scan scan = createScan(applicationName, getScanRange(range), scanBackward);
 
         LastRowAccessor lastRowAccessor = new LastRowAccessor();
         TableName applicationTraceIndexTableName = tableNameProvider.getTableName(INDEX.getTable());
         List<List<TransactionId>> traceIndexList = hbaseOperations2.findParallel(applicationTraceIndexTableName,
-                scan, traceIdRowKeyDistributor, limit, traceIndexMapper, lastRowAccessor, APPLICATION_TRACE_INDEX_NUM_PARTITIONS);
+                scan, traceIdRowKeyDistributor, limit, getTraceIndexMapper(range), lastRowAccessor, APPLICATION_TRACE_INDEX_NUM_PARTITIONS);
 
         List<TransactionId> transactionIdSum = ListListUtils.toList(traceIndexList);
         final long lastTime = getLastTime(range, limit, lastRowAccessor, transactionIdSum);
@@ -128,6 +129,37 @@ public class HbaseApplicationTraceIndexDao implements ApplicationTraceIndexDao {
         return new LimitedScanResult<>(lastTime, transactionIdSum);
     }
 
+    /**
+     * A block row is keyed by the start of its second and holds the dots accepted until the end of that second,
+     * so the rows of the second before {@code from} are scanned too and filtered by accepted time.
+     */
+    private Range getScanRange(Range range) {
+        if (!scatterChartProperties.isEnableIndexBlock()) {
+            return range;
+        }
+        return Range.newUncheckedRange(range.getFrom() - ScatterBlockCodec.BLOCK_TIME_SPAN_MILLIS, range.getTo());
+    }
+
+    private RowMapper<List<TransactionId>> getTraceIndexMapper(Range range) {
+        if (!scatterChartProperties.isEnableIndexBlock()) {
+            return traceIndexMapper;
+        }
+        return new TransactionIdMapper(range);
+    }
+
+    private Predicate<Dot> withAcceptedTimeFilter(Predicate<Dot> filter, Range range) {
+        if (!scatterChartProperties.isEnableIndexBlock()) {
+            return filter;
+        }
+        final long from = range.getFrom();
+        final long to = range.getTo();
+        Predicate<Dot> acceptedTimeFilter = dot -> from <= dot.getAcceptedTime() && dot.getAcceptedTime() <= to;
+        if (filter == null) {
+            return acceptedTimeFilter;
+        }
+        return filter.and(acceptedTimeFilter);
+    }
+
     private <T> long getLastTime(Range range, int limit, LastRowAccessor lastRowAccessor, List<T> list) {
         if (list.size() >= limit) {
             Long lastRowTimestamp = lastRowAccessor.getLastRowTimestamp();
@@ -163,6 +195,12 @@ public class HbaseApplicationTraceIndexDao implements ApplicationTraceIndexDao {
             this.lastRowTimestamp = TimeUtils.recoveryTimeMillis(reverseStartTime);
 
             byte[] qualifier = CellUtil.cloneQualifier(last);
+            if (ScatterBlockCodec.isBlockQualifier(qualifier)) {
+                this.lastTransactionId = null;
+                this.lastTransactionElapsed = -1;
+                logger.debug("lastRowTimestamp={} (block)", lastRowTimestamp);
+                return;
+            }
             this.lastTransactionId = TransactionIdMapper.parseVarTransactionId(qualifier, 0, qualifier.length);
             this.lastTransactionElapsed = BytesUtils.bytesToInt(qualifier, 0);
 
@@ -220,11 +258,16 @@ public class HbaseApplicationTraceIndexDao implements ApplicationTraceIndexDao {
         logger.debug("scanTraceScatterDataMadeOfDotGroup");
         LastRowAccessor lastRowAccessor = new LastRowAccessor();
 
-        Scan scan = createScan(applicationName, range, scanBackward);
+        Scan scan = createScan(applicationName, getScanRange(range), scanBackward);
+
+        RowMapper<List<Dot>> mapper = this.traceIndexScatterMapper;
+        if (scatterChartProperties.isEnableIndexBlock()) {
+            mapper = new TraceIndexScatterMapper(withAcceptedTimeFilter(null, range));
+        }
 
         TableName applicationTraceIndexTableName = tableNameProvider.getTableName(INDEX.getTable());
         List<List<Dot>> listList = hbaseOperations2.findParallel(applicationTraceIndexTableName, scan,
-                traceIdRowKeyDistributor, limit, this.traceIndexScatterMapper, APPLICATION_TRACE_INDEX_NUM_PARTITIONS);
+                traceIdRowKeyDistributor, limit, mapper, APPLICATION_TRACE_INDEX_NUM_PARTITIONS);
         List<Dot> dots = ListListUtils.toList(listList);
 
         final long lastTime = getLastTime(range, limit, lastRowAccessor, dots);
@@ -248,7 +291,7 @@ public class HbaseApplicationTraceIndexDao implements ApplicationTraceIndexDao {
 
         final TableName applicationTraceIndexTableName = tableNameProvider.getTableName(INDEX.getTable());
         List<List<TransactionId>> listList = this.hbaseOperations2.findParallel(applicationTraceIndexTableName,
-                scan, traceIdRowKeyDistributor, limit, traceIndexMapper, lastRowAccessor, APPLICATION_TRACE_INDEX_NUM_PARTITIONS);
+                scan, traceIdRowKeyDistributor, limit, getTraceIndexMapper(range), lastRowAccessor, APPLICATION_TRACE_INDEX_NUM_PARTITIONS);
 
         List<TransactionId> transactionIdSum = ListListUtils.toList(listList);
 
@@ -277,7 +320,7 @@ public class HbaseApplicationTraceIndexDao implements ApplicationTraceIndexDao {
         if (dotStatusPredicate != null) {
             filter = filter.and(dotStatusPredicate);
         }
-        return filter;
+        return withAcceptedTimeFilter(filter, Range.newUncheckedRange(dragArea.getXLow(), dragArea.getXHigh()));
     }
 
     @Override
@@ -325,7 +368,7 @@ public class HbaseApplicationTraceIndexDao implements ApplicationTraceIndexDao {
         return null;
     }
 
-    static class DotStatusFilter implements Predicate<Dot> {
+    public static class DotStatusFilter implements Predicate<Dot> {
         // @Nullable
         private final String agentId;
         // @Nullable
@@ -353,7 +396,7 @@ public class HbaseApplicationTraceIndexDao implements ApplicationTraceIndexDao {
     }
 
     private Scan newFuzzyScanner(String applicationName, DragArea dragArea, Range range) {
-        final Scan scan = createScan(applicationName, range, true);
+        final Scan scan = createScan(applicationName, getScanRange(range), true);
         if (scatterChartProperties.isEnableFuzzyRowFilter()) {
             Filter filter = newFuzzyFilter(dragArea);
             scan.setFilter(filter);
@@ -25,13 +25,17 @@ import com.navercorp.pinpoint.common.server.bo.serializer.RowKeyEncoder;
 import com.navercorp.pinpoint.common.server.bo.serializer.metadata.DefaultMetaDataRowKey;
 import com.navercorp.pinpoint.common.server.bo.serializer.metadata.MetaDataRowKey;
 import com.navercorp.pinpoint.common.server.bo.serializer.metadata.MetadataEncoder;
+import com.navercorp.pinpoint.web.cache.CacheConfiguration;
 import com.navercorp.pinpoint.web.dao.SqlMetaDataDao;
 
 import com.sematext.hbase.wd.RowKeyDistributorByHashPrefix;
 import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.client.Get;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.annotation.Cacheable;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
@@ -41,6 +45,8 @@ import java.util.Objects;
  */
 //@Repository
 public class HbaseSqlMetaDataDao implements SqlMetaDataDao {
+    static final String SPEL_KEY = "#agentId.toString() + '.' + #time.toString() + '.' + #sqlId.toString()";
+
 
     private final HbaseColumnFamily.SqlMetadataV2 DESCRIPTOR = HbaseColumnFamily.SQL_METADATA_VER2_SQL;
 
@@ -64,6 +70,7 @@ public class HbaseSqlMetaDataDao implements SqlMetaDataDao {
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfiguration.SQL_METADATA_CACHE_NAME, key = SPEL_KEY, cacheManager = CacheConfiguration.METADATA_CACHE_MANAGER, unless = "#result.isEmpty()")
     public List<SqlMetaDataBo> getSqlMetaData(String agentId, long time, int sqlId) {
         Objects.requireNonNull(agentId, "agentId");
 
@@ -77,6 +84,25 @@ public class HbaseSqlMetaDataDao implements SqlMetaDataDao {
         return hbaseOperations2.get(sqlMetaDataTableName, get, sqlMetaDataMapper);
     }
 
+    @Override
+    public List<List<SqlMetaDataBo>> getSqlMetaData(List<MetaDataRowKey> metaDataRowKeyList) {
+        Objects.requireNonNull(metaDataRowKeyList, "metaDataRowKeyList");
+        if (metaDataRowKeyList.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Get> getList = new ArrayList<>(metaDataRowKeyList.size());
+        for (MetaDataRowKey metaDataRowKey : metaDataRowKeyList) {
+            byte[] rowKey = getDistributedKey(rowKeyEncoder.encodeRowKey(metaDataRowKey));
+            Get get = new Get(rowKey);
+            get.addFamily(DESCRIPTOR.getName());
+            getList.add(get);
+        }
+
+        TableName sqlMetaDataTableName = tableNameProvider.getTableName(DESCRIPTOR.getTable());
+        return hbaseOperations2.get(sqlMetaDataTableName, getList, sqlMetaDataMapper);
+    }
+
     private byte[] getDistributedKey(byte[] rowKey) {
         return rowKeyDistributorByHashPrefix.getDistributedKey(rowKey);
     }
@@ -25,14 +25,18 @@ import com.navercorp.pinpoint.common.server.bo.serializer.RowKeyEncoder;
 import com.navercorp.pinpoint.common.server.bo.serializer.metadata.DefaultMetaDataRowKey;
 import com.navercorp.pinpoint.common.server.bo.serializer.metadata.MetadataEncoder;
 import com.navercorp.pinpoint.common.server.bo.serializer.metadata.MetaDataRowKey;
+import com.navercorp.pinpoint.web.cache.CacheConfiguration;
 import com.navercorp.pinpoint.web.dao.StringMetaDataDao;
 
 import com.sematext.hbase.wd.RowKeyDistributorByHashPrefix;
 import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.client.Get;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
@@ -41,6 +45,8 @@ import java.util.Objects;
  */
 @Repository
 public class HbaseStringMetaDataDao implements StringMetaDataDao {
+    static final String SPEL_KEY = "#agentId.toString() + '.' + #time.toString() + '.' + #stringId.toString()";
+
 
     private final HbaseOperations2 hbaseOperations2;
     private final TableNameProvider tableNameProvider;
@@ -64,6 +70,7 @@ public class HbaseStringMetaDataDao implements StringMetaDataDao {
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfiguration.STRING_METADATA_CACHE_NAME, key = SPEL_KEY, cacheManager = CacheConfiguration.METADATA_CACHE_MANAGER, unless = "#result.isEmpty()")
     public List<StringMetaDataBo> getStringMetaData(String agentId, long time, int stringId) {
         Objects.requireNonNull(agentId, "agentId");
 
@@ -77,6 +84,25 @@ public class HbaseStringMetaDataDao implements StringMetaDataDao {
         return hbaseOperations2.get(stringMetaDataTableName, get, stringMetaDataMapper);
     }
 
+    @Override
+    public List<List<StringMetaDataBo>> getStringMetaData(List<MetaDataRowKey> metaDataRowKeyList) {
+        Objects.requireNonNull(metaDataRowKeyList, "metaDataRowKeyList");
+        if (metaDataRowKeyList.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Get> getList = new ArrayList<>(metaDataRowKeyList.size());
+        for (MetaDataRowKey metaDataRowKey : metaDataRowKeyList) {
+            byte[] rowKey = getDistributedKey(rowKeyEncoder.encodeRowKey(metaDataRowKey));
+            Get get = new Get(rowKey);
+            get.addFamily(DESCRIPTOR.getName());
+            getList.add(get);
+        }
+
+        TableName stringMetaDataTableName = tableNameProvider.getTableName(DESCRIPTOR.getTable());
+        return hbaseOperations2.get(stringMetaDataTableName, getList, stringMetaDataMapper);
+    }
+
     private byte[] getDistributedKey(byte[] rowKey) {
         return rowKeyDistributorByHashPrefix.getDistributedKey(rowKey);
     }
@@ -16,8 +16,12 @@
 
 package com.navercorp.pinpoint.web.dao.hbase;
 
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 import com.navercorp.pinpoint.common.hbase.HbaseColumnFamily;
 import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
+import com.navercorp.pinpoint.common.hbase.HbaseSystemException;
 import com.navercorp.pinpoint.common.hbase.RowMapper;
 import com.navercorp.pinpoint.common.hbase.TableNameProvider;
 import com.navercorp.pinpoint.common.hbase.bo.ColumnGetCount;
@@ -30,14 +34,16 @@ import com.navercorp.pinpoint.common.profiler.util.TransactionId;
 import com.navercorp.pinpoint.common.server.bo.SpanBo;
 import com.navercorp.pinpoint.common.server.bo.serializer.RowKeyEncoder;
 import com.navercorp.pinpoint.common.server.bo.serializer.trace.v2.SpanEncoder;
+import com.navercorp.pinpoint.common.server.bo.serializer.trace.v2.SpanProjection;
+import com.navercorp.pinpoint.web.config.TraceCacheProperties;
 import com.navercorp.pinpoint.web.dao.TraceDao;
 import com.navercorp.pinpoint.web.mapper.SpanMapperFactory;
 import com.navercorp.pinpoint.web.service.FetchResult;
 import com.navercorp.pinpoint.web.vo.GetTraceInfo;
 import org.apache.commons.collections4.CollectionUtils;
-import org.apache.commons.collections4.ListUtils;
 import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.Result;
 import org.apache.hadoop.hbase.filter.BinaryPrefixComparator;
 import org.apache.hadoop.hbase.filter.ByteArrayComparable;
 import org.apache.hadoop.hbase.filter.CompareFilter;
@@ -53,6 +59,10 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
@@ -73,6 +83,14 @@ public class HbaseTraceDaoV2 implements TraceDao {
 
     private final SpanMapperFactory spanMapperFactory;
 
+    private final TraceRowCache traceRowCache;
+
+    private final Executor selectExecutor;
+
+    private final Timer partitionSelectTimer;
+    private final Timer partitionTimer;
+    private final Histogram partitionSizeHistogram;
+
     @Value("${web.hbase.selectSpans.limit:500}")
     private int selectSpansLimit;
 
@@ -82,16 +100,29 @@ public class HbaseTraceDaoV2 implements TraceDao {
     @Value("${web.hbase.trace.max.results.limit:50000}")
     private int traceMaxResultsPerColumnFamily;
 
+    @Value("${web.hbase.selectSpans.slow.threshold:1000}")
+    private long slowPartitionThresholdMillis;
+
     private final Filter spanFilter = createSpanQualifierFilter();
 
     public HbaseTraceDaoV2(HbaseOperations2 template2,
                            TableNameProvider tableNameProvider,
                            @Qualifier("traceRowKeyEncoderV2") RowKeyEncoder<TransactionId> rowKeyEncoder,
-                           SpanMapperFactory spanMapperFactory) {
+                           SpanMapperFactory spanMapperFactory,
+                           TraceCacheProperties traceCacheProperties,
+                           @Qualifier("traceSelectExecutor") Executor selectExecutor,
+                           MetricRegistry metricRegistry) {
         this.template2 = Objects.requireNonNull(template2, "template2");
         this.tableNameProvider = Objects.requireNonNull(tableNameProvider, "tableNameProvider");
         this.rowKeyEncoder = Objects.requireNonNull(rowKeyEncoder, "rowKeyEncoder");
         this.spanMapperFactory = Objects.requireNonNull(spanMapperFactory, "spanMapperFactory");
+        Objects.requireNonNull(traceCacheProperties, "traceCacheProperties");
+        this.traceRowCache = traceCacheProperties.isEnable() ? new TraceRowCache(traceCacheProperties) : null;
+        this.selectExecutor = Objects.requireNonNull(selectExecutor, "selectExecutor");
+        Objects.requireNonNull(metricRegistry, "metricRegistry");
+        this.partitionSelectTimer = metricRegistry.timer("web.hbase.selectSpans.latency");
+        this.partitionTimer = metricRegistry.timer("web.hbase.selectSpans.partition.latency");
+        this.partitionSizeHistogram = metricRegistry.histogram("web.hbase.selectSpans.partition.size");
     }
 
     @Override
@@ -103,44 +134,64 @@ public class HbaseTraceDaoV2 implements TraceDao {
     public FetchResult<List<SpanBo>> selectSpan(TransactionId transactionId, ColumnGetCount columnGetCount) {
         Objects.requireNonNull(transactionId, "transactionId");
 
-        byte[] transactionIdRowKey = rowKeyEncoder.encodeRowKey(transactionId);
+        ResultSizeMapper<List<SpanBo>> resultSizeMapper = new ResultSizeMapper<>();
+        RowMapper<List<SpanBo>> rowMapper = new RowMapperResultAdaptor<>(spanMapperFactory.getSpanMapper(), resultSizeMapper);
 
-        final Get get = new Get(transactionIdRowKey);
-        get.setMaxResultsPerColumnFamily(traceMaxResultsPerColumnFamily);
-        get.addFamily(DESCRIPTOR.getName());
-        final Filter filter = ColumnGetCount.toFilter(columnGetCount);
-        if (filter != null) {
-            get.setFilter(filter);
+        if (traceRowCache == null) {
+            List<SpanBo> spanBos = template2.get(getTraceTableName(), createGet(transactionId, columnGetCount), rowMapper);
+            return new FetchResult<>(resultSizeMapper.getResultSize(), spanBos);
         }
 
-        TableName traceTableName = tableNameProvider.getTableName(DESCRIPTOR.getTable());
-        ResultSizeMapper<List<SpanBo>> resultSizeMapper = new ResultSizeMapper<>();
-        RowMapper<List<SpanBo>> rowMapper = new RowMapperResultAdaptor<>(spanMapperFactory.getSpanMapper(), resultSizeMapper);
+        final Result result = traceRowCache.get(transactionId, columnGetCount, this::selectRow);
+        if (result == null) {
+            return new FetchResult<>(0, Collections.emptyList());
+        }
+        try {
+            List<SpanBo> spanBos = rowMapper.mapRow(result, 0);
+            return new FetchResult<>(resultSizeMapper.getResultSize(), spanBos);
+        } catch (Exception e) {
+            throw new HbaseSystemException(e);
+        }
+    }
 
-        List<SpanBo> spanBos = template2.get(traceTableName, get, rowMapper);
+    private Result selectRow(TraceRowCache.Key key) {
+        final Get get = createGet(key.getTransactionId(), key.getColumnGetCount());
+        return template2.get(getTraceTableName(), get, (result, rowNum) -> result);
+    }
 
-        return new FetchResult<>(resultSizeMapper.getResultSize(), spanBos);
+    private Get createGet(TransactionId transactionId, ColumnGetCount columnGetCount) {
+        final Filter filter = ColumnGetCount.toFilter(columnGetCount);
+        return createGet(transactionId, DESCRIPTOR.getName(), filter);
+    }
+
+    private TableName getTraceTableName() {
+        return tableNameProvider.getTableName(DESCRIPTOR.getTable());
     }
 
     @Override
     public List<List<SpanBo>> selectSpans(List<GetTraceInfo> getTraceInfoList) {
-        return selectSpans(getTraceInfoList, selectSpansLimit);
+        return selectSpans(getTraceInfoList, selectSpansLimit, SpanProjection.ALL);
+    }
+
+    @Override
+    public List<List<SpanBo>> selectSpans(List<GetTraceInfo> getTraceInfoList, SpanProjection projection) {
+        return selectSpans(getTraceInfoList, selectSpansLimit, projection);
     }
 
     List<List<SpanBo>> selectSpans(List<GetTraceInfo> getTraceInfoList, int eachPartitionSize) {
+        return selectSpans(getTraceInfoList, eachPartitionSize, SpanProjection.ALL);
+    }
+
+    List<List<SpanBo>> selectSpans(List<GetTraceInfo> getTraceInfoList, int eachPartitionSize, SpanProjection projection) {
         if (CollectionUtils.isEmpty(getTraceInfoList)) {
             return Collections.emptyList();
         }
+        Objects.requireNonNull(projection, "projection");
+        SpanQueryBuilder builder = new SpanQueryBuilder();
         List<SpanQuery> spanQuery = getTraceInfoList.stream()
-                .map(this::toSpanQuery)
+                .map(getTraceInfo -> builder.build(getTraceInfo, projection))
                 .collect(Collectors.toList());
-        List<List<SpanQuery>> partitionGetTraceInfoList = partition(spanQuery, eachPartitionSize);
-        return partitionSelect(partitionGetTraceInfoList, DESCRIPTOR.getName(), spanFilter);
-    }
-
-    private SpanQuery toSpanQuery(GetTraceInfo getTraceInfo) {
-        SpanQueryBuilder builder = new SpanQueryBuilder();
-        return builder.build(getTraceInfo);
+        return partitionSelect(spanQuery, eachPartitionSize, DESCRIPTOR.getName(), spanFilter);
     }
 
     @Override
@@ -150,51 +201,93 @@ public class HbaseTraceDaoV2 implements TraceDao {
 
     @Override
     public List<List<SpanBo>> selectAllSpans(List<TransactionId> transactionIdList, ColumnGetCount columnGetCount) {
+        return selectAllSpans(transactionIdList, columnGetCount, SpanProjection.ALL);
+    }
+
+    @Override
+    public List<List<SpanBo>> selectAllSpans(List<TransactionId> transactionIdList, ColumnGetCount columnGetCount, SpanProjection projection) {
         Filter filter = ColumnGetCount.toFilter(columnGetCount);
-        return selectAllSpans(transactionIdList, selectAllSpansLimit, filter);
+        return selectAllSpans(transactionIdList, selectAllSpansLimit, filter, projection);
     }
 
     List<List<SpanBo>> selectAllSpans(List<TransactionId> transactionIdList, int eachPartitionSize, Filter filter) {
+        return selectAllSpans(transactionIdList, eachPartitionSize, filter, SpanProjection.ALL);
+    }
+
+    List<List<SpanBo>> selectAllSpans(List<TransactionId> transactionIdList, int eachPartitionSize, Filter filter, SpanProjection projection) {
         if (CollectionUtils.isEmpty(transactionIdList)) {
             return Collections.emptyList();
         }
+        Objects.requireNonNull(projection, "projection");
 
         List<SpanQuery> getTraceInfoList = transactionIdList.stream()
-                .map(SpanQuery::new)
+                .map(transactionId -> new SpanQuery(transactionId, projection))
                 .collect(Collectors.toList());
 
-        List<List<SpanQuery>> partitionGetTraceInfoList = partition(getTraceInfoList, eachPartitionSize);
-        return partitionSelect(partitionGetTraceInfoList, DESCRIPTOR.getName(), filter);
+        return partitionSelect(getTraceInfoList, eachPartitionSize, DESCRIPTOR.getName(), filter);
     }
 
-    private List<List<SpanQuery>> partition(List<SpanQuery> getTraceInfoList, int maxTransactionIdListSize) {
-        return ListUtils.partition(getTraceInfoList, maxTransactionIdListSize);
-    }
-
-    private List<List<SpanBo>> partitionSelect(List<List<SpanQuery>> partitionGetTraceInfoList, byte[] columnFamily, Filter filter) {
-        if (CollectionUtils.isEmpty(partitionGetTraceInfoList)) {
+    private List<List<SpanBo>> partitionSelect(List<SpanQuery> spanQueryList, int eachPartitionSize, byte[] columnFamily, Filter filter) {
+        if (CollectionUtils.isEmpty(spanQueryList)) {
             return Collections.emptyList();
         }
         Objects.requireNonNull(columnFamily, "columnFamily");
 
-        List<List<SpanBo>> spanBoList = new ArrayList<>();
-        for (List<SpanQuery> getTraceInfoList : partitionGetTraceInfoList) {
-            List<List<SpanBo>> result = bulkSelect(getTraceInfoList, columnFamily, filter);
-            spanBoList.addAll(result);
+        final List<Get> getList = createGetList(spanQueryList, columnFamily, filter);
+        if (getList.size() <= eachPartitionSize) {
+            return bulkSelect0(getList, newRowMapper(spanQueryList));
         }
+
+        final long startTime = System.currentTimeMillis();
+        final List<TraceGetPartition> partitions = TraceGetPartition.partition(spanQueryList, getList, eachPartitionSize);
+
+        final List<CompletableFuture<List<List<SpanBo>>>> futures = new ArrayList<>(partitions.size());
+        for (TraceGetPartition partition : partitions) {
+            futures.add(CompletableFuture.supplyAsync(() -> bulkSelect(partition), selectExecutor));
+        }
+
+        // restore the request order
+        final List<List<SpanBo>> spanBoList = new ArrayList<>(Collections.nCopies(spanQueryList.size(), null));
+        for (int i = 0; i < partitions.size(); i++) {
+            final TraceGetPartition partition = partitions.get(i);
+            final List<List<SpanBo>> result = join(futures.get(i));
+            for (int j = 0; j < result.size(); j++) {
+                spanBoList.set(partition.getIndex(j), result.get(j));
+            }
+        }
+        final long elapsed = System.currentTimeMillis() - startTime;
+        partitionSelectTimer.update(elapsed, TimeUnit.MILLISECONDS);
+        logger.debug("partitionSelect size:{} partitions:{} elapsed:{}ms", spanQueryList.size(), partitions.size(), elapsed);
         return spanBoList;
     }
 
-    private List<List<SpanBo>> bulkSelect(List<SpanQuery> getTraceInfoList, byte[] columnFamily, Filter filter) {
-        if (CollectionUtils.isEmpty(getTraceInfoList)) {
-            return Collections.emptyList();
-        }
-        Objects.requireNonNull(columnFamily, "columnFamily");
+    private List<List<SpanBo>> bulkSelect(TraceGetPartition partition) {
+        final long startTime = System.currentTimeMillis();
+
+        final RowMapper<List<SpanBo>> rowMapper = newRowMapper(partition.getSpanQueryList());
+        final List<List<SpanBo>> result = bulkSelect0(partition.getGetList(), rowMapper);
 
-        List<Get> getList = createGetList(getTraceInfoList, columnFamily, filter);
+        final long elapsed = System.currentTimeMillis() - startTime;
+        partitionTimer.update(elapsed, TimeUnit.MILLISECONDS);
+        partitionSizeHistogram.update(partition.size());
+        if (elapsed >= slowPartitionThresholdMillis) {
+            logger.info("slow partition {} elapsed:{}ms", partition, elapsed);
+        } else {
+            logger.debug("partition {} elapsed:{}ms", partition, elapsed);
+        }
+        return result;
+    }
 
-        RowMapper<List<SpanBo>> spanMapperAdaptor = newRowMapper(getTraceInfoList);
-        return bulkSelect0(getList, spanMapperAdaptor);
+    private <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw e;
+        }
     }
 
     private RowMapper<List<SpanBo>> newRowMapper(List<SpanQuery> spanQueryList) {
@@ -204,7 +297,7 @@ public class HbaseTraceDaoV2 implements TraceDao {
 
 
     private RowMapper<List<SpanBo>> getSpanMapper(SpanQuery spanQuery) {
-        return spanMapperFactory.getSpanMapper(spanQuery.getSpanFilter());
+        return spanMapperFactory.getSpanMapper(spanQuery.getSpanFilter(), spanQuery.getProjection());
     }
 
     private List<Get> createGetList(List<SpanQuery> spanQueryList, byte[] columnFamily, Filter defaultFilter) {
@@ -2,6 +2,7 @@ package com.navercorp.pinpoint.web.dao.hbase;
 
 import com.navercorp.pinpoint.common.profiler.util.TransactionId;
 import com.navercorp.pinpoint.common.server.bo.SpanBo;
+import com.navercorp.pinpoint.common.server.bo.serializer.trace.v2.SpanProjection;
 import org.apache.hadoop.hbase.filter.Filter;
 
 import java.util.Objects;
@@ -11,15 +12,25 @@ public class SpanQuery {
     private final TransactionId transactionId;
     private final Predicate<SpanBo> spanFilter;
     private final Filter filter;
+    private final SpanProjection projection;
 
     public SpanQuery(TransactionId transactionId, Predicate<SpanBo> spanFilter, Filter filter) {
+        this(transactionId, spanFilter, filter, SpanProjection.ALL);
+    }
+
+    public SpanQuery(TransactionId transactionId, Predicate<SpanBo> spanFilter, Filter filter, SpanProjection projection) {
         this.transactionId = Objects.requireNonNull(transactionId, "transactionId");
         this.spanFilter = spanFilter;
         this.filter = filter;
+        this.projection = Objects.requireNonNull(projection, "projection");
     }
 
     public SpanQuery(TransactionId transactionId) {
-        this(transactionId, null, null);
+        this(transactionId, SpanProjection.ALL);
+    }
+
+    public SpanQuery(TransactionId transactionId, SpanProjection projection) {
+        this(transactionId, null, null, projection);
     }
 
     public TransactionId getTransactionId() {
@@ -34,4 +45,8 @@ public class SpanQuery {
         return filter;
     }
 
+    public SpanProjection getProjection() {
+        return projection;
+    }
+
 }
@@ -3,6 +3,7 @@ package com.navercorp.pinpoint.web.dao.hbase;
 import com.navercorp.pinpoint.common.annotations.VisibleForTesting;
 import com.navercorp.pinpoint.common.profiler.util.TransactionId;
 import com.navercorp.pinpoint.common.server.bo.SpanBo;
+import com.navercorp.pinpoint.common.server.bo.serializer.trace.v2.SpanProjection;
 import com.navercorp.pinpoint.web.calltree.span.SpanFilters;
 import com.navercorp.pinpoint.web.vo.GetTraceInfo;
 import com.navercorp.pinpoint.web.vo.SpanHint;
@@ -17,14 +18,18 @@ public class SpanQueryBuilder {
     }
 
     public SpanQuery build(GetTraceInfo getTraceInfo) {
+        return build(getTraceInfo, SpanProjection.ALL);
+    }
+
+    public SpanQuery build(GetTraceInfo getTraceInfo, SpanProjection projection) {
         SpanHint hint = getTraceInfo.getHint();
         if (!hint.isSet()) {
-            return new SpanQuery(getTraceInfo.getTransactionId());
+            return new SpanQuery(getTraceInfo.getTransactionId(), projection);
         }
 
         Predicate<SpanBo> spanPredicate = newSpanFilter(getTraceInfo.getTransactionId(), hint);
         Filter hbaseFilter = getTimeStampFilter(getTraceInfo.getHint());
-        return new SpanQuery(getTraceInfo.getTransactionId(), spanPredicate, hbaseFilter);
+        return new SpanQuery(getTraceInfo.getTransactionId(), spanPredicate, hbaseFilter, projection);
     }
 
     @VisibleForTesting
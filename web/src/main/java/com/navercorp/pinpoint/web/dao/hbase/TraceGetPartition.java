@@ -0,0 +1,120 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.dao.hbase;
+
+import com.navercorp.pinpoint.common.server.bo.serializer.trace.v2.TraceRowKeyEncoderV2;
+import org.apache.hadoop.hbase.client.Get;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Multi-get partition of trace rows.
+ * <p>
+ * Rows are grouped by the distributed hash prefix of the trace row key,
+ * so a partition only touches the regions of neighboring buckets.
+ * {@link #getIndex(int)} keeps the position of each row in the original request.
+ */
+class TraceGetPartition {
+
+    private final int[] index;
+    private final List<SpanQuery> spanQueryList;
+    private final List<Get> getList;
+
+    TraceGetPartition(int[] index, List<SpanQuery> spanQueryList, List<Get> getList) {
+        this.index = Objects.requireNonNull(index, "index");
+        this.spanQueryList = Objects.requireNonNull(spanQueryList, "spanQueryList");
+        this.getList = Objects.requireNonNull(getList, "getList");
+    }
+
+    static List<TraceGetPartition> partition(List<SpanQuery> spanQueryList, List<Get> getList, int eachPartitionSize) {
+        Objects.requireNonNull(spanQueryList, "spanQueryList");
+        Objects.requireNonNull(getList, "getList");
+        if (spanQueryList.size() != getList.size()) {
+            throw new IllegalArgumentException("size mismatch spanQueryList:" + spanQueryList.size() + " getList:" + getList.size());
+        }
+        if (eachPartitionSize <= 0) {
+            throw new IllegalArgumentException("eachPartitionSize must be greater than 0");
+        }
+
+        // stable sort : request order is kept within the same bucket
+        final List<Integer> sorted = IntStream.range(0, getList.size())
+                .boxed()
+                .sorted(Comparator.comparingInt(i -> getDistributeBucket(getList.get(i))))
+                .collect(Collectors.toList());
+
+        final List<TraceGetPartition> partitions = new ArrayList<>();
+        for (int from = 0; from < sorted.size(); from += eachPartitionSize) {
+            final int to = Math.min(from + eachPartitionSize, sorted.size());
+            final int[] index = new int[to - from];
+            final List<SpanQuery> partitionQueryList = new ArrayList<>(index.length);
+            final List<Get> partitionGetList = new ArrayList<>(index.length);
+            for (int i = from; i < to; i++) {
+                final int originalIndex = sorted.get(i);
+                index[i - from] = originalIndex;
+                partitionQueryList.add(spanQueryList.get(originalIndex));
+                partitionGetList.add(getList.get(originalIndex));
+            }
+            partitions.add(new TraceGetPartition(index, partitionQueryList, partitionGetList));
+        }
+        return partitions;
+    }
+
+    static int getDistributeBucket(Get get) {
+        final byte[] row = get.getRow();
+        if (row.length < TraceRowKeyEncoderV2.DISTRIBUTE_HASH_SIZE) {
+            return 0;
+        }
+        return row[0] & 0xFF;
+    }
+
+    int size() {
+        return index.length;
+    }
+
+    int getIndex(int partitionIndex) {
+        return index[partitionIndex];
+    }
+
+    List<SpanQuery> getSpanQueryList() {
+        return spanQueryList;
+    }
+
+    List<Get> getGetList() {
+        return getList;
+    }
+
+    int getFirstBucket() {
+        return getDistributeBucket(getList.get(0));
+    }
+
+    int getLastBucket() {
+        return getDistributeBucket(getList.get(getList.size() - 1));
+    }
+
+    @Override
+    public String toString() {
+        return "TraceGetPartition{" +
+                "size=" + size() +
+                ", bucket=" + getFirstBucket() + "~" + getLastBucket() +
+                '}';
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.dao.hbase;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.navercorp.pinpoint.common.hbase.bo.ColumnGetCount;
+import com.navercorp.pinpoint.common.profiler.util.TransactionId;
+import com.navercorp.pinpoint.web.config.TraceCacheProperties;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Caches fetched trace rows keyed by {@link TransactionId} and {@link ColumnGetCount}.
+ * <p>
+ * The decoded {@code SpanBo} graph is modified by the call-tree services (agent name, annotation transition),
+ * so the immutable row is cached and every hit is decoded into a fresh graph.
+ * Rows that are still receiving spans expire after a short ttl.
+ */
+public class TraceRowCache {
+
+    private final Logger logger = LogManager.getLogger(this.getClass());
+
+    private final Cache<Key, Result> cache;
+    private final LongSupplier clock;
+
+    private final long recentThresholdMillis;
+    private final long expireAfterWriteNanos;
+    private final long recentExpireAfterWriteNanos;
+
+    public TraceRowCache(TraceCacheProperties properties) {
+        this(properties, System::currentTimeMillis);
+    }
+
+    TraceRowCache(TraceCacheProperties properties, LongSupplier clock) {
+        Objects.requireNonNull(properties, "properties");
+        this.clock = Objects.requireNonNull(clock, "clock");
+
+        this.recentThresholdMillis = TimeUnit.SECONDS.toMillis(properties.getRecentThresholdSeconds());
+        this.expireAfterWriteNanos = TimeUnit.SECONDS.toNanos(properties.getExpireAfterWriteSeconds());
+        this.recentExpireAfterWriteNanos = TimeUnit.SECONDS.toNanos(properties.getRecentExpireAfterWriteSeconds());
+
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaximumWeight())
+                .weigher((Key key, Result result) -> Math.max(1, result.size()))
+                .expireAfter(new RowExpiry())
+                .build();
+        logger.info("TraceRowCache {}", properties);
+    }
+
+    public Result get(TransactionId transactionId, ColumnGetCount columnGetCount, Function<Key, Result> fetchFunction) {
+        Objects.requireNonNull(transactionId, "transactionId");
+        Objects.requireNonNull(fetchFunction, "fetchFunction");
+
+        final Key key = new Key(transactionId, columnGetCount);
+        return cache.get(key, fetchFunction);
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    boolean isRecent(Result result) {
+        final long latestTimestamp = getLatestTimestamp(result);
+        return clock.getAsLong() - latestTimestamp < recentThresholdMillis;
+    }
+
+    private long getLatestTimestamp(Result result) {
+        final Cell[] cells = result.rawCells();
+        if (cells == null || cells.length == 0) {
+            // not collected yet
+            return Long.MAX_VALUE;
+        }
+        long latest = 0;
+        for (Cell cell : cells) {
+            latest = Math.max(latest, cell.getTimestamp());
+        }
+        return latest;
+    }
+
+    private class RowExpiry implements Expiry<Key, Result> {
+        @Override
+        public long expireAfterCreate(Key key, Result result, long currentTime) {
+            if (isRecent(result)) {
+                return recentExpireAfterWriteNanos;
+            }
+            return expireAfterWriteNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(Key key, Result result, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, result, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Key key, Result result, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    public static class Key {
+        private final TransactionId transactionId;
+        private final ColumnGetCount columnGetCount;
+
+        public Key(TransactionId transactionId, ColumnGetCount columnGetCount) {
+            this.transactionId = Objects.requireNonNull(transactionId, "transactionId");
+            // null means no column limit
+            this.columnGetCount = Objects.requireNonNullElse(columnGetCount, ColumnGetCount.UNLIMITED_COLUMN_GET_COUNT);
+        }
+
+        public TransactionId getTransactionId() {
+            return transactionId;
+        }
+
+        public ColumnGetCount getColumnGetCount() {
+            return columnGetCount;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            Key key = (Key) o;
+
+            if (!transactionId.equals(key.transactionId)) return false;
+            return columnGetCount.equals(key.columnGetCount);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = transactionId.hashCode();
+            result = 31 * result + columnGetCount.hashCode();
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return "Key{" +
+                    "transactionId=" + transactionId +
+                    ", columnGetCount=" + columnGetCount.getLimit() +
+                    '}';
+        }
+    }
+}
@@ -20,6 +20,7 @@ import com.navercorp.pinpoint.web.dao.SampledAgentStatDao;
 import com.navercorp.pinpoint.web.dao.hbase.stat.DefaultSampledAgentStatDao;
 import com.navercorp.pinpoint.web.dao.hbase.stat.HbaseAgentStatDaoOperations;
 import com.navercorp.pinpoint.web.dao.hbase.stat.HbaseSampledDataSourceDao;
+import com.navercorp.pinpoint.web.dao.hbase.stat.RollupSampledAgentStatDao;
 import com.navercorp.pinpoint.web.dao.hbase.stat.SampledAgentStatResultExtractorSupplier;
 import com.navercorp.pinpoint.web.dao.hbase.stat.SampledResultsExtractorSupplier;
 import com.navercorp.pinpoint.web.mapper.stat.sampling.sampler.AgentStatSampler;
@@ -37,6 +38,7 @@ import com.navercorp.pinpoint.web.vo.stat.SampledLoadedClassCount;
 import com.navercorp.pinpoint.web.vo.stat.SampledResponseTime;
 import com.navercorp.pinpoint.web.vo.stat.SampledTotalThreadCount;
 import com.navercorp.pinpoint.web.vo.stat.SampledTransaction;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -46,9 +48,16 @@ import java.util.Objects;
 public class SampledAgentStatDaoConfiguration {
 
     private final HbaseAgentStatDaoOperations operations;
+    private final boolean rollupEnable;
+    private final long rollupDelayMillis;
 
-    public SampledAgentStatDaoConfiguration(HbaseAgentStatDaoOperations operations) {
+    public SampledAgentStatDaoConfiguration(HbaseAgentStatDaoOperations operations,
+                                            @Value("${web.stat.rollup.enable:false}") boolean rollupEnable,
+                                            @Value("${web.stat.rollup.latenessMillis:60000}") long rollupLatenessMillis,
+                                            @Value("${web.stat.rollup.flush.intervalMillis:10000}") long rollupFlushIntervalMillis) {
         this.operations = Objects.requireNonNull(operations, "operations");
+        this.rollupEnable = rollupEnable;
+        this.rollupDelayMillis = rollupLatenessMillis + rollupFlushIntervalMillis;
     }
 
 
@@ -64,6 +73,17 @@ public class SampledAgentStatDaoConfiguration {
         return new DefaultSampledAgentStatDao<>(statType, operations, decoder, supplier);
     }
 
+    private <IN extends AgentStatDataPoint,
+            OUT extends SampledAgentStatDataPoint> SampledAgentStatDao<OUT> newRollupSampledDao(AgentStatType statType,
+                                                                                                AgentStatDecoder<IN> decoder,
+                                                                                                AgentStatSampler<IN, OUT> sampler) {
+        SampledAgentStatDao<OUT> rawDao = newSampledDao(statType, decoder, sampler);
+        if (!rollupEnable) {
+            return rawDao;
+        }
+        return new RollupSampledAgentStatDao<>(statType, operations, decoder, sampler, rawDao, rollupDelayMillis);
+    }
+
     @Bean
     public SampledAgentStatDao<SampledJvmGc> getSampledJvmGcDao(AgentStatDecoder<JvmGcBo> decoder,
                                                                 AgentStatSampler<JvmGcBo, SampledJvmGc> sampler) {
@@ -79,7 +99,7 @@ public class SampledAgentStatDaoConfiguration {
     @Bean
     public SampledAgentStatDao<SampledCpuLoad> getSampledCpuLoadDao(AgentStatDecoder<CpuLoadBo> decoder,
                                                                     AgentStatSampler<CpuLoadBo, SampledCpuLoad> sampler) {
-        return newSampledDao(AgentStatType.CPU_LOAD, decoder, sampler);
+        return newRollupSampledDao(AgentStatType.CPU_LOAD, decoder, sampler);
     }
 
     @Bean
@@ -116,27 +136,27 @@ public class SampledAgentStatDaoConfiguration {
     @Bean
     public SampledAgentStatDao<SampledFileDescriptor> getSampledFileDescriptorDao(AgentStatDecoder<FileDescriptorBo> decoder,
                                                                                   AgentStatSampler<FileDescriptorBo, SampledFileDescriptor> sampler) {
-        return newSampledDao(AgentStatType.FILE_DESCRIPTOR, decoder, sampler);
+        return newRollupSampledDao(AgentStatType.FILE_DESCRIPTOR, decoder, sampler);
     }
 
 
     @Bean
     public SampledAgentStatDao<SampledDirectBuffer> getSampledDirectBufferDao(AgentStatDecoder<DirectBufferBo> decoder,
                                                                               AgentStatSampler<DirectBufferBo, SampledDirectBuffer> sampler) {
-        return newSampledDao(AgentStatType.DIRECT_BUFFER, decoder, sampler);
+        return newRollupSampledDao(AgentStatType.DIRECT_BUFFER, decoder, sampler);
     }
 
     @Bean
     public SampledAgentStatDao<SampledTotalThreadCount> getSampledTotalThreadCountDao(AgentStatDecoder<TotalThreadCountBo> decoder,
                                                                                       AgentStatSampler<TotalThreadCountBo, SampledTotalThreadCount> sampler) {
-        return newSampledDao(AgentStatType.TOTAL_THREAD, decoder, sampler);
+        return newRollupSampledDao(AgentStatType.TOTAL_THREAD, decoder, sampler);
     }
 
 
     @Bean
     public SampledAgentStatDao<SampledLoadedClassCount> getSampledLoadedClassCountDao(AgentStatDecoder<LoadedClassBo> decoder,
                                                                                       AgentStatSampler<LoadedClassBo, SampledLoadedClassCount> sampler) {
-        return newSampledDao(AgentStatType.LOADED_CLASS, decoder, sampler);
+        return newRollupSampledDao(AgentStatType.LOADED_CLASS, decoder, sampler);
     }
 
 }
\ No newline at end of file
@@ -39,6 +39,15 @@ public class DefaultAgentStatDao<T extends AgentStatDataPoint> implements AgentS
         return operations.agentStatExists(statType, mapper, agentId, range);
     }
 
+    @Override
+    public List<Boolean> agentStatExists(List<String> agentIds, Range range) {
+        Objects.requireNonNull(agentIds, "agentIds");
+        Objects.requireNonNull(range, "range");
+
+        AgentStatMapperV2<T> mapper = operations.createRowMapper(decoder, range);
+        return operations.agentStatExists(statType, mapper, agentIds, range);
+    }
+
     @Override
     public String getChartType() {
         return statType.getChartType();
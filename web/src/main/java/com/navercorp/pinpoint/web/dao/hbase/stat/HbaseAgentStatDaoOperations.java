@@ -19,11 +19,13 @@ package com.navercorp.pinpoint.web.dao.hbase.stat;
 import com.navercorp.pinpoint.common.hbase.HbaseColumnFamily;
 import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
 import com.navercorp.pinpoint.common.hbase.ResultsExtractor;
+import com.navercorp.pinpoint.common.hbase.RowMapper;
 import com.navercorp.pinpoint.common.hbase.TableNameProvider;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatDecoder;
 import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatHbaseOperationFactory;
 import com.navercorp.pinpoint.common.server.bo.stat.AgentStatDataPoint;
 import com.navercorp.pinpoint.common.server.bo.stat.AgentStatType;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.AgentStatResolution;
 import com.navercorp.pinpoint.common.server.util.time.Range;
 import com.navercorp.pinpoint.web.dao.hbase.HBaseUtils;
 import com.navercorp.pinpoint.web.mapper.RangeTimestampFilter;
@@ -32,10 +34,12 @@ import com.navercorp.pinpoint.web.mapper.stat.AgentStatMapperV2;
 import com.navercorp.pinpoint.web.util.ListListUtils;
 import com.navercorp.pinpoint.web.vo.stat.SampledAgentStatDataPoint;
 import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Get;
 import org.apache.hadoop.hbase.client.Scan;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
@@ -46,6 +50,16 @@ public class HbaseAgentStatDaoOperations {
 
     private static final int AGENT_STAT_VER2_NUM_PARTITIONS = 32;
     private static final int MAX_SCAN_CACHE_SIZE = 256;
+    // ranges up to an hour are checked by a multi-get of the timeslot rows instead of scanning every bucket
+    private static final int MAX_EXISTS_GET_TIMESLOTS = 12;
+
+    private static final RowMapper<Boolean> EXISTS_MAPPER = (result, rowNum) -> {
+        final Boolean exists = result.getExists();
+        if (exists != null) {
+            return exists;
+        }
+        return !result.isEmpty();
+    };
 
     private final Logger logger = LogManager.getLogger(this.getClass());
     private final HbaseColumnFamily columnFamily;
@@ -101,6 +115,49 @@ public class HbaseAgentStatDaoOperations {
         }
     }
 
+    /**
+     * @return existence of stat data for each agentId, in the order of agentIds
+     */
+    <T extends AgentStatDataPoint> List<Boolean> agentStatExists(AgentStatType agentStatType, AgentStatMapperV2<T> mapper, List<String> agentIds, Range range) {
+        Objects.requireNonNull(agentIds, "agentIds");
+        Objects.requireNonNull(range, "range");
+
+        final int timeslots = AgentStatHbaseOperationFactory.getTimeslotCount(range.getFrom(), range.getTo());
+        if (timeslots > MAX_EXISTS_GET_TIMESLOTS) {
+            List<Boolean> result = new ArrayList<>(agentIds.size());
+            for (String agentId : agentIds) {
+                result.add(agentStatExists(agentStatType, mapper, agentId, range));
+            }
+            return result;
+        }
+
+        List<Get> gets = new ArrayList<>(agentIds.size() * timeslots);
+        for (String agentId : agentIds) {
+            for (Get get : this.operationFactory.createGets(agentId, agentStatType, range.getFrom(), range.getTo())) {
+                get.addFamily(columnFamily.getName());
+                get.setCheckExistenceOnly(true);
+                gets.add(get);
+            }
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("checking for stat data existence : agents={}, gets={}, {}", agentIds.size(), gets.size(), range);
+        }
+
+        TableName agentStatTableName = tableNameProvider.getTableName(columnFamily.getTable());
+        List<Boolean> rowExists = hbaseOperations2.get(agentStatTableName, gets, EXISTS_MAPPER);
+
+        List<Boolean> result = new ArrayList<>(agentIds.size());
+        int index = 0;
+        for (int i = 0; i < agentIds.size(); i++) {
+            boolean exists = false;
+            for (int j = 0; j < timeslots; j++) {
+                exists |= rowExists.get(index++);
+            }
+            result.add(exists);
+        }
+        return result;
+    }
+
     <S extends SampledAgentStatDataPoint> List<S> getSampledAgentStatList(AgentStatType agentStatType, ResultsExtractor<List<S>> resultExtractor, String agentId, Range range) {
         Objects.requireNonNull(agentId, "agentId");
         Objects.requireNonNull(range, "range");
@@ -112,6 +169,22 @@ public class HbaseAgentStatDaoOperations {
         return hbaseOperations2.findParallel(agentStatTableName, scan, this.operationFactory.getRowKeyDistributor(), resultExtractor, AGENT_STAT_VER2_NUM_PARTITIONS);
     }
 
+    <R> R getAgentStat(AgentStatType agentStatType, AgentStatResolution resolution, ResultsExtractor<R> resultExtractor, String agentId, Range range) {
+        Objects.requireNonNull(resolution, "resolution");
+        Objects.requireNonNull(agentId, "agentId");
+        Objects.requireNonNull(range, "range");
+        Objects.requireNonNull(resultExtractor, "resultExtractor");
+
+        int scanCacheSize = HBaseUtils.getScanCacheSize(range, timespan, MAX_SCAN_CACHE_SIZE);
+        Scan scan = this.operationFactory.createScan(agentId, agentStatType, resolution, range.getFrom(), range.getTo());
+        scan.setCaching(scanCacheSize);
+        scan.setId(agentStatType.getChartType());
+        scan.addFamily(columnFamily.getName());
+
+        TableName agentStatTableName = tableNameProvider.getTableName(columnFamily.getTable());
+        return hbaseOperations2.findParallel(agentStatTableName, scan, this.operationFactory.getRowKeyDistributor(), resultExtractor, AGENT_STAT_VER2_NUM_PARTITIONS);
+    }
+
     <T extends AgentStatDataPoint> AgentStatMapperV2<T> createRowMapper(AgentStatDecoder<T> decoder, Range range) {
         TimestampFilter filter = new RangeTimestampFilter(range);
         return new AgentStatMapperV2<>(this.operationFactory, decoder, filter, columnFamily);
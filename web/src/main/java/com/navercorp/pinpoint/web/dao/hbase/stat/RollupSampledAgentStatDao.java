@@ -0,0 +1,131 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.dao.hbase.stat;
+
+import com.navercorp.pinpoint.common.hbase.ResultsExtractor;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatDecoder;
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatDataPoint;
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatType;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.AgentStatResolution;
+import com.navercorp.pinpoint.common.server.util.time.Range;
+import com.navercorp.pinpoint.web.dao.SampledAgentStatDao;
+import com.navercorp.pinpoint.web.mapper.stat.AgentStatMapper;
+import com.navercorp.pinpoint.web.mapper.stat.AgentStatRollupMapper;
+import com.navercorp.pinpoint.web.mapper.stat.sampling.AgentStatSamplingHandler;
+import com.navercorp.pinpoint.web.mapper.stat.sampling.EagerSamplingHandler;
+import com.navercorp.pinpoint.web.mapper.stat.sampling.sampler.AgentStatSampler;
+import com.navercorp.pinpoint.web.util.TimeWindow;
+import com.navercorp.pinpoint.web.vo.stat.SampledAgentStatDataPoint;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Reads the coarsest rollup resolution that still fills every window of the {@link TimeWindow}.
+ * The collector writes a timeslot only after its lateness and the next flush have passed,
+ * so the timeslots in {@code rollupDelayMillis} before the end of the range are read from the raw data points.
+ */
+public class RollupSampledAgentStatDao<IN extends AgentStatDataPoint, OUT extends SampledAgentStatDataPoint> implements SampledAgentStatDao<OUT> {
+    private final Logger logger = LogManager.getLogger(this.getClass());
+
+    private final AgentStatType statType;
+    private final HbaseAgentStatDaoOperations operations;
+    private final AgentStatDecoder<IN> decoder;
+    private final AgentStatSampler<IN, OUT> sampler;
+    private final SampledAgentStatDao<OUT> rawDao;
+    private final long rollupDelayMillis;
+
+    public RollupSampledAgentStatDao(AgentStatType statType,
+                                     HbaseAgentStatDaoOperations operations,
+                                     AgentStatDecoder<IN> decoder,
+                                     AgentStatSampler<IN, OUT> sampler,
+                                     SampledAgentStatDao<OUT> rawDao,
+                                     long rollupDelayMillis) {
+        this.statType = Objects.requireNonNull(statType, "statType");
+        this.operations = Objects.requireNonNull(operations, "operations");
+        this.decoder = Objects.requireNonNull(decoder, "decoder");
+        this.sampler = Objects.requireNonNull(sampler, "sampler");
+        this.rawDao = Objects.requireNonNull(rawDao, "rawDao");
+        if (rollupDelayMillis < 0) {
+            throw new IllegalArgumentException("rollupDelayMillis must not be negative");
+        }
+        this.rollupDelayMillis = rollupDelayMillis;
+    }
+
+    @Override
+    public List<OUT> getSampledAgentStatList(String agentId, TimeWindow timeWindow) {
+        Objects.requireNonNull(agentId, "agentId");
+        Objects.requireNonNull(timeWindow, "timeWindow");
+
+        final AgentStatResolution resolution = AgentStatResolution.getCoarsest(timeWindow.getWindowSlotSize());
+        final Range range = timeWindow.getWindowSlotRange();
+        // the last timeslot that may not be flushed by the collector yet.
+        // the window slot range is rounded up, the requested range tells how recent the query is
+        final long to = timeWindow.getRange().getTo();
+        final long rollupTo = resolution.getTimeslot(to - resolution.getMillis() - rollupDelayMillis);
+        if (resolution == AgentStatResolution.RAW || rollupTo <= range.getFrom()) {
+            return rawDao.getSampledAgentStatList(agentId, timeWindow);
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("read {} {} rollup. agentId:{} {}", statType, resolution, agentId, range);
+        }
+
+        final AgentStatSamplingHandler<IN, OUT> samplingHandler = new EagerSamplingHandler<>(timeWindow, sampler);
+        // data points are sampled in descending order of their timestamp, the raw tail comes first
+        final Range rawRange = Range.between(rollupTo, range.getTo());
+        final AgentStatMapper<IN> rawMapper = operations.createRowMapper(decoder, rawRange);
+        operations.getAgentStat(statType, AgentStatResolution.RAW, new SamplingResultsExtractor<>(rawMapper, samplingHandler), agentId, rawRange);
+
+        final Range rollupRange = Range.between(range.getFrom(), rollupTo - 1);
+        final AgentStatMapper<IN> rollupMapper = new AgentStatRollupMapper<>(operations.createRowMapper(decoder, rollupRange));
+        operations.getAgentStat(statType, resolution, new SamplingResultsExtractor<>(rollupMapper, samplingHandler), agentId, rollupRange);
+
+        return samplingHandler.getSampledDataPoints();
+    }
+
+    @Override
+    public String getChartType() {
+        return statType.getChartType();
+    }
+
+    private static class SamplingResultsExtractor<T extends AgentStatDataPoint> implements ResultsExtractor<Integer> {
+
+        private final AgentStatMapper<T> rowMapper;
+        private final AgentStatSamplingHandler<T, ?> samplingHandler;
+
+        private SamplingResultsExtractor(AgentStatMapper<T> rowMapper, AgentStatSamplingHandler<T, ?> samplingHandler) {
+            this.rowMapper = Objects.requireNonNull(rowMapper, "rowMapper");
+            this.samplingHandler = Objects.requireNonNull(samplingHandler, "samplingHandler");
+        }
+
+        @Override
+        public Integer extractData(ResultScanner results) throws Exception {
+            int rowNum = 0;
+            for (Result result : results) {
+                for (T dataPoint : this.rowMapper.mapRow(result, rowNum++)) {
+                    samplingHandler.addDataPoint(dataPoint);
+                }
+            }
+            return rowNum;
+        }
+    }
+}
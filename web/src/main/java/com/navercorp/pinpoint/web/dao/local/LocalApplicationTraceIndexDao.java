@@ -0,0 +1,142 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.dao.local;
+
+import com.navercorp.pinpoint.common.hbase.HbaseSystemException;
+import com.navercorp.pinpoint.common.hbase.RowMapper;
+import com.navercorp.pinpoint.common.profiler.util.TransactionId;
+import com.navercorp.pinpoint.common.server.dao.local.CellRecordCodec;
+import com.navercorp.pinpoint.common.server.dao.local.SegmentRecord;
+import com.navercorp.pinpoint.common.server.dao.local.SegmentStore;
+import com.navercorp.pinpoint.common.server.util.time.Range;
+import com.navercorp.pinpoint.web.dao.ApplicationTraceIndexDao;
+import com.navercorp.pinpoint.web.dao.hbase.HbaseApplicationTraceIndexDao;
+import com.navercorp.pinpoint.web.mapper.TraceIndexMetaScatterMapper;
+import com.navercorp.pinpoint.web.mapper.TraceIndexScatterMapper;
+import com.navercorp.pinpoint.web.scatter.DragArea;
+import com.navercorp.pinpoint.web.scatter.DragAreaQuery;
+import com.navercorp.pinpoint.web.scatter.ElpasedTimeDotPredicate;
+import com.navercorp.pinpoint.web.vo.LimitedScanResult;
+import com.navercorp.pinpoint.web.vo.scatter.Dot;
+import com.navercorp.pinpoint.web.vo.scatter.DotMetaData;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Scans the application trace index written by the collector local storage.
+ * Each record holds one ApplicationTraceIndex row, so the HBase row mappers are reused as-is.
+ */
+public class LocalApplicationTraceIndexDao implements ApplicationTraceIndexDao {
+
+    private final SegmentStore store;
+
+    private final RowMapper<List<TransactionId>> traceIndexMapper;
+
+    private final RowMapper<List<Dot>> traceIndexScatterMapper;
+
+    public LocalApplicationTraceIndexDao(SegmentStore store,
+                                         RowMapper<List<TransactionId>> traceIndexMapper,
+                                         RowMapper<List<Dot>> traceIndexScatterMapper) {
+        this.store = Objects.requireNonNull(store, "store");
+        this.traceIndexMapper = Objects.requireNonNull(traceIndexMapper, "traceIndexMapper");
+        this.traceIndexScatterMapper = Objects.requireNonNull(traceIndexScatterMapper, "traceIndexScatterMapper");
+    }
+
+    @Override
+    public LimitedScanResult<List<TransactionId>> scanTraceIndex(String applicationName, Range range, int limit, boolean backwardDirection) {
+        Objects.requireNonNull(range, "range");
+        return scan(applicationName, range, limit, backwardDirection, traceIndexMapper);
+    }
+
+    @Override
+    public LimitedScanResult<List<Dot>> scanTraceScatterData(String applicationName, Range range, int limit, boolean scanBackward) {
+        Objects.requireNonNull(range, "range");
+        return scan(applicationName, range, limit, scanBackward, traceIndexScatterMapper);
+    }
+
+    @Override
+    public LimitedScanResult<List<TransactionId>> scanTraceIndex(String applicationName, DragArea dragArea, int limit) {
+        Objects.requireNonNull(dragArea, "dragArea");
+
+        final RowMapper<List<Dot>> mapper = new TraceIndexScatterMapper(ElpasedTimeDotPredicate.newDragAreaDotPredicate(dragArea));
+        final LimitedScanResult<List<Dot>> dots = scan(applicationName, toRange(dragArea), limit, true, mapper);
+
+        final List<TransactionId> transactionIds = dots.getScanData().stream()
+                .map(Dot::getTransactionId)
+                .collect(Collectors.toList());
+        return new LimitedScanResult<>(dots.getLimitedTime(), transactionIds);
+    }
+
+    @Deprecated
+    @Override
+    public LimitedScanResult<List<Dot>> scanScatterData(String applicationName, DragAreaQuery dragAreaQuery, int limit) {
+        Objects.requireNonNull(dragAreaQuery, "dragAreaQuery");
+
+        final RowMapper<List<Dot>> mapper = new TraceIndexScatterMapper(buildDotPredicate(dragAreaQuery));
+        return scan(applicationName, toRange(dragAreaQuery.getDragArea()), limit, true, mapper);
+    }
+
+    @Override
+    public LimitedScanResult<List<DotMetaData>> scanScatterDataV2(String applicationName, DragAreaQuery dragAreaQuery, int limit) {
+        Objects.requireNonNull(dragAreaQuery, "dragAreaQuery");
+
+        final RowMapper<List<DotMetaData>> mapper = new TraceIndexMetaScatterMapper(buildDotPredicate(dragAreaQuery));
+        return scan(applicationName, toRange(dragAreaQuery.getDragArea()), limit, true, mapper);
+    }
+
+    private Range toRange(DragArea dragArea) {
+        return Range.newUncheckedRange(dragArea.getXLow(), dragArea.getXHigh());
+    }
+
+    private Predicate<Dot> buildDotPredicate(DragAreaQuery dragAreaQuery) {
+        Predicate<Dot> filter = ElpasedTimeDotPredicate.newDragAreaDotPredicate(dragAreaQuery.getDragArea());
+        if (dragAreaQuery.getAgentId() != null || dragAreaQuery.getDotStatus() != null) {
+            filter = filter.and(new HbaseApplicationTraceIndexDao.DotStatusFilter(dragAreaQuery.getAgentId(), dragAreaQuery.getDotStatus()));
+        }
+        return filter;
+    }
+
+    private <T> LimitedScanResult<List<T>> scan(String applicationName, Range range, int limit, boolean scanBackward, RowMapper<List<T>> mapper) {
+        Objects.requireNonNull(applicationName, "applicationName");
+        if (limit < 0) {
+            throw new IllegalArgumentException("negative limit:" + limit);
+        }
+
+        final List<SegmentRecord> records = store.scan(Bytes.toBytes(applicationName), range.getFrom(), range.getTo(), limit, scanBackward);
+        final List<T> result = new ArrayList<>(records.size());
+        for (int i = 0; i < records.size(); i++) {
+            final List<SegmentRecord> row = Collections.singletonList(records.get(i));
+            try {
+                result.addAll(mapper.mapRow(CellRecordCodec.toResult(row), i));
+            } catch (Exception e) {
+                throw new HbaseSystemException(e);
+            }
+        }
+
+        // same contract as the HBase scan : the time of the last row when limited, otherwise the scan start
+        final long lastTime = records.size() >= limit && !records.isEmpty() ?
+                records.get(records.size() - 1).getTimestamp() : range.getFrom();
+        return new LimitedScanResult<>(lastTime, result);
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.dao.local;
+
+import com.navercorp.pinpoint.common.hbase.HbaseSystemException;
+import com.navercorp.pinpoint.common.hbase.RowMapper;
+import com.navercorp.pinpoint.common.hbase.bo.ColumnGetCount;
+import com.navercorp.pinpoint.common.profiler.util.TransactionId;
+import com.navercorp.pinpoint.common.server.bo.SpanBo;
+import com.navercorp.pinpoint.common.server.bo.serializer.RowKeyEncoder;
+import com.navercorp.pinpoint.common.server.bo.serializer.trace.v2.SpanProjection;
+import com.navercorp.pinpoint.common.server.dao.local.CellRecordCodec;
+import com.navercorp.pinpoint.common.server.dao.local.SegmentStore;
+import com.navercorp.pinpoint.web.dao.TraceDao;
+import com.navercorp.pinpoint.web.dao.hbase.SpanQuery;
+import com.navercorp.pinpoint.web.dao.hbase.SpanQueryBuilder;
+import com.navercorp.pinpoint.web.mapper.SpanMapperFactory;
+import com.navercorp.pinpoint.web.service.FetchResult;
+import com.navercorp.pinpoint.web.vo.GetTraceInfo;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.client.Result;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Reads the trace rows written by the collector local storage and maps them with the HBase span mappers.
+ */
+public class LocalTraceDao implements TraceDao {
+
+    private final SegmentStore store;
+
+    private final RowKeyEncoder<TransactionId> rowKeyEncoder;
+
+    private final SpanMapperFactory spanMapperFactory;
+
+    private final SpanQueryBuilder spanQueryBuilder = new SpanQueryBuilder();
+
+    public LocalTraceDao(SegmentStore store,
+                         RowKeyEncoder<TransactionId> rowKeyEncoder,
+                         SpanMapperFactory spanMapperFactory) {
+        this.store = Objects.requireNonNull(store, "store");
+        this.rowKeyEncoder = Objects.requireNonNull(rowKeyEncoder, "rowKeyEncoder");
+        this.spanMapperFactory = Objects.requireNonNull(spanMapperFactory, "spanMapperFactory");
+    }
+
+    @Override
+    public List<SpanBo> selectSpan(TransactionId transactionId) {
+        return selectSpan(transactionId, null).getData();
+    }
+
+    @Override
+    public FetchResult<List<SpanBo>> selectSpan(TransactionId transactionId, ColumnGetCount columnGetCount) {
+        Objects.requireNonNull(transactionId, "transactionId");
+
+        final Result result = selectRow(transactionId, columnGetCount);
+        final List<SpanBo> spanBos = mapRow(spanMapperFactory.getSpanMapper(), result, 0);
+        return new FetchResult<>(result.size(), spanBos);
+    }
+
+    @Override
+    public List<List<SpanBo>> selectSpans(List<GetTraceInfo> getTraceInfoList) {
+        return selectSpans(getTraceInfoList, SpanProjection.ALL);
+    }
+
+    @Override
+    public List<List<SpanBo>> selectSpans(List<GetTraceInfo> getTraceInfoList, SpanProjection projection) {
+        Objects.requireNonNull(getTraceInfoList, "getTraceInfoList");
+        Objects.requireNonNull(projection, "projection");
+
+        final List<List<SpanBo>> spanBoList = new ArrayList<>(getTraceInfoList.size());
+        for (int i = 0; i < getTraceInfoList.size(); i++) {
+            final SpanQuery spanQuery = spanQueryBuilder.build(getTraceInfoList.get(i), projection);
+            final RowMapper<List<SpanBo>> mapper = spanMapperFactory.getSpanMapper(spanQuery.getSpanFilter(), spanQuery.getProjection());
+            final Result result = selectRow(spanQuery.getTransactionId(), null);
+            spanBoList.add(mapRow(mapper, result, i));
+        }
+        return spanBoList;
+    }
+
+    @Override
+    public List<List<SpanBo>> selectAllSpans(List<TransactionId> transactionIdList) {
+        return selectAllSpans(transactionIdList, null);
+    }
+
+    @Override
+    public List<List<SpanBo>> selectAllSpans(List<TransactionId> transactionIdList, ColumnGetCount columnGetCount) {
+        return selectAllSpans(transactionIdList, columnGetCount, SpanProjection.ALL);
+    }
+
+    @Override
+    public List<List<SpanBo>> selectAllSpans(List<TransactionId> transactionIdList, ColumnGetCount columnGetCount, SpanProjection projection) {
+        Objects.requireNonNull(transactionIdList, "transactionIdList");
+
+        final RowMapper<List<SpanBo>> mapper = spanMapperFactory.getSpanMapper(null, projection);
+        final List<List<SpanBo>> spanBoList = new ArrayList<>(transactionIdList.size());
+        for (int i = 0; i < transactionIdList.size(); i++) {
+            final Result result = selectRow(transactionIdList.get(i), columnGetCount);
+            spanBoList.add(mapRow(mapper, result, i));
+        }
+        return spanBoList;
+    }
+
+    private Result selectRow(TransactionId transactionId, ColumnGetCount columnGetCount) {
+        final byte[] rowKey = rowKeyEncoder.encodeRowKey(transactionId);
+        final Result result = CellRecordCodec.toResult(store.get(rowKey));
+        if (columnGetCount == null || result.size() <= columnGetCount.getLimit()) {
+            return result;
+        }
+        // same as ColumnCountGetFilter
+        final Cell[] cells = Arrays.copyOf(result.rawCells(), columnGetCount.getLimit());
+        return Result.create(cells);
+    }
+
+    private <T> T mapRow(RowMapper<T> mapper, Result result, int rowNum) {
+        try {
+            return mapper.mapRow(result, rowNum);
+        } catch (Exception e) {
+            throw new HbaseSystemException(e);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.dao.local;
+
+import com.navercorp.pinpoint.common.hbase.RowMapper;
+import com.navercorp.pinpoint.common.profiler.util.TransactionId;
+import com.navercorp.pinpoint.common.server.bo.serializer.RowKeyEncoder;
+import com.navercorp.pinpoint.common.server.dao.local.SegmentStore;
+import com.navercorp.pinpoint.common.server.dao.local.SegmentStoreProperties;
+import com.navercorp.pinpoint.web.dao.ApplicationTraceIndexDao;
+import com.navercorp.pinpoint.web.dao.TraceDao;
+import com.navercorp.pinpoint.web.mapper.SpanMapperFactory;
+import com.navercorp.pinpoint.web.vo.scatter.Dot;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.util.List;
+
+/**
+ * Reads traces and the application trace index from the segment files written by the collector local storage.
+ */
+@Configuration
+@ConditionalOnProperty(value = "pinpoint.modules.web.storage.local.enabled", havingValue = "true")
+public class WebLocalStorageModule {
+
+    public static final String STORE = "web.storage.local";
+
+    private final Logger logger = LogManager.getLogger(this.getClass());
+
+    public WebLocalStorageModule() {
+        logger.info("Install {}", WebLocalStorageModule.class.getSimpleName());
+    }
+
+    @Bean(STORE)
+    @ConfigurationProperties(STORE)
+    public SegmentStoreProperties.Builder newSegmentStoreBuilder() {
+        SegmentStoreProperties.Builder builder = SegmentStoreProperties.newBuilder();
+        builder.setReadOnly(true);
+        return builder;
+    }
+
+    @Bean
+    public SegmentStoreProperties localSegmentStoreProperties(@Qualifier(STORE) SegmentStoreProperties.Builder builder) {
+        SegmentStoreProperties properties = builder.build();
+        logger.info("{}", properties);
+        return properties;
+    }
+
+    @Bean
+    public SegmentStore localTraceStore(SegmentStoreProperties localSegmentStoreProperties) {
+        return new SegmentStore("trace", localSegmentStoreProperties);
+    }
+
+    @Bean
+    public SegmentStore localApplicationTraceIndexStore(SegmentStoreProperties localSegmentStoreProperties) {
+        return new SegmentStore("applicationTraceIndex", localSegmentStoreProperties);
+    }
+
+    @Bean
+    @Primary
+    public TraceDao localTraceDao(@Qualifier("localTraceStore") SegmentStore store,
+                                  @Qualifier("traceRowKeyEncoderV2") RowKeyEncoder<TransactionId> rowKeyEncoder,
+                                  SpanMapperFactory spanMapperFactory) {
+        return new LocalTraceDao(store, rowKeyEncoder, spanMapperFactory);
+    }
+
+    @Bean
+    @Primary
+    public ApplicationTraceIndexDao localApplicationTraceIndexDao(@Qualifier("localApplicationTraceIndexStore") SegmentStore store,
+                                                                  @Qualifier("transactionIdMapper") RowMapper<List<TransactionId>> traceIndexMapper,
+                                                                  @Qualifier("traceIndexScatterMapper") RowMapper<List<Dot>> traceIndexScatterMapper) {
+        return new LocalApplicationTraceIndexDao(store, traceIndexMapper, traceIndexScatterMapper);
+    }
+}
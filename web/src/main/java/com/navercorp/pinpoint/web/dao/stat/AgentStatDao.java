@@ -16,6 +16,7 @@
 
 package com.navercorp.pinpoint.web.dao.stat;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import com.navercorp.pinpoint.common.server.bo.stat.AgentStatDataPoint;
@@ -32,4 +33,15 @@ public interface AgentStatDao<T extends AgentStatDataPoint> extends ChartTypeSup
     List<T> getAgentStatList(String agentId, Range range);
 
     boolean agentStatExists(String agentId, Range range);
+
+    /**
+     * @return existence of stat data for each agentId, in the order of agentIds
+     */
+    default List<Boolean> agentStatExists(List<String> agentIds, Range range) {
+        List<Boolean> result = new ArrayList<>(agentIds.size());
+        for (String agentId : agentIds) {
+            result.add(agentStatExists(agentId, range));
+        }
+        return result;
+    }
 }
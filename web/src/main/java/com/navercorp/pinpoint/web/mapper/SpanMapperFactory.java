@@ -6,6 +6,7 @@ import com.navercorp.pinpoint.common.server.bo.SpanBo;
 import com.navercorp.pinpoint.common.server.bo.serializer.RowKeyDecoder;
 import com.navercorp.pinpoint.common.server.bo.serializer.trace.v2.SpanDecoder;
 import com.navercorp.pinpoint.common.server.bo.serializer.trace.v2.SpanDecoderV0;
+import com.navercorp.pinpoint.common.server.bo.serializer.trace.v2.SpanProjection;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -50,11 +51,19 @@ public class SpanMapperFactory {
     }
 
     public RowMapper<List<SpanBo>> getSpanMapper(Predicate<SpanBo> spanFilter) {
+        return getSpanMapper(spanFilter, SpanProjection.ALL);
+    }
+
+    public RowMapper<List<SpanBo>> getSpanMapper(Predicate<SpanBo> spanFilter, SpanProjection projection) {
+        Objects.requireNonNull(projection, "projection");
         if (spanFilter == null) {
-            return getSpanMapper();
+            if (projection == SpanProjection.ALL) {
+                return getSpanMapper();
+            }
+            return new SpanMapperV2(rowKeyDecoder, spanDecoder, stringCacheSize, projection);
         }
 
         final SpanDecoder targetSpanDecoder = new FilteringSpanDecoder(spanDecoder, spanFilter);
-        return new SpanMapperV2(rowKeyDecoder, targetSpanDecoder, stringCacheSize);
+        return new SpanMapperV2(rowKeyDecoder, targetSpanDecoder, stringCacheSize, projection);
     }
 }
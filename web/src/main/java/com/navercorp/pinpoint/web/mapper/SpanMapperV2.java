@@ -33,6 +33,7 @@ import com.navercorp.pinpoint.common.server.bo.serializer.RowKeyDecoder;
 import com.navercorp.pinpoint.common.server.bo.serializer.trace.v2.SpanDecoder;
 import com.navercorp.pinpoint.common.server.bo.serializer.trace.v2.SpanDecoderV0;
 import com.navercorp.pinpoint.common.server.bo.serializer.trace.v2.SpanDecodingContext;
+import com.navercorp.pinpoint.common.server.bo.serializer.trace.v2.SpanProjection;
 import com.navercorp.pinpoint.common.trace.ServiceTypeCategory;
 import com.navercorp.pinpoint.common.util.CollectionUtils;
 import com.navercorp.pinpoint.common.util.LRUCache;
@@ -71,6 +72,8 @@ public class SpanMapperV2 implements RowMapper<List<SpanBo>> {
 
     private final int cacheSize;
 
+    private final SpanProjection projection;
+
     public SpanMapperV2(RowKeyDecoder<TransactionId> rowKeyDecoder) {
         this(rowKeyDecoder, new SpanDecoderV0(), DISABLED_CACHE);
     }
@@ -84,9 +87,14 @@ public class SpanMapperV2 implements RowMapper<List<SpanBo>> {
     }
 
     public SpanMapperV2(RowKeyDecoder<TransactionId> rowKeyDecoder, SpanDecoder spanDecoder, int cacheSize) {
+        this(rowKeyDecoder, spanDecoder, cacheSize, SpanProjection.ALL);
+    }
+
+    public SpanMapperV2(RowKeyDecoder<TransactionId> rowKeyDecoder, SpanDecoder spanDecoder, int cacheSize, SpanProjection projection) {
         this.rowKeyDecoder = Objects.requireNonNull(rowKeyDecoder, "rowKeyDecoder");
         this.spanDecoder = Objects.requireNonNull(spanDecoder, "spanDecoder");
         this.cacheSize = cacheSize;
+        this.projection = Objects.requireNonNull(projection, "projection");
     }
 
     @Override
@@ -106,6 +114,7 @@ public class SpanMapperV2 implements RowMapper<List<SpanBo>> {
 
         final SpanDecodingContext decodingContext = new SpanDecodingContext();
         decodingContext.setTransactionId(transactionId);
+        decodingContext.setProjection(projection);
 
         final BufferFactory bufferFactory = new BufferFactory(cacheSize);
 
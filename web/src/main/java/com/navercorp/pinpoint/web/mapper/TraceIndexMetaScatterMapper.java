@@ -19,6 +19,8 @@ package com.navercorp.pinpoint.web.mapper;
 import com.navercorp.pinpoint.common.hbase.HbaseColumnFamily;
 import com.navercorp.pinpoint.common.hbase.RowMapper;
 import com.navercorp.pinpoint.common.profiler.util.TransactionId;
+import com.navercorp.pinpoint.common.server.scatter.ScatterBlock;
+import com.navercorp.pinpoint.common.server.scatter.ScatterBlockCodec;
 import com.navercorp.pinpoint.web.vo.scatter.Dot;
 import com.navercorp.pinpoint.web.vo.scatter.DotMetaData;
 import org.apache.hadoop.hbase.Cell;
@@ -26,6 +28,8 @@ import org.apache.hadoop.hbase.CellUtil;
 import org.apache.hadoop.hbase.client.Result;
 import org.springframework.stereotype.Component;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -61,7 +65,15 @@ public class TraceIndexMetaScatterMapper implements RowMapper<List<DotMetaData>>
             return Collections.emptyList();
         }
         Map<TransactionId, DotMetaData.Builder> metaDataMap = new HashMap<>();
+        Map<ByteBuffer, Cell[]> blockCells = null;
         for (Cell cell : result.rawCells()) {
+            if (TraceIndexScatterMapper.isBlock(cell)) {
+                if (blockCells == null) {
+                    blockCells = new HashMap<>();
+                }
+                addBlockCell(blockCells, cell);
+                continue;
+            }
             if (CellUtil.matchingFamily(cell, INDEX.getName())) {
                 Dot dot = TraceIndexScatterMapper.createDot(cell);
                 DotMetaData.Builder builder = getMetaDataBuilder(metaDataMap, dot.getTransactionId());
@@ -73,11 +85,43 @@ public class TraceIndexMetaScatterMapper implements RowMapper<List<DotMetaData>>
                 builder.read(CellUtil.cloneValue(cell));
             }
         }
-        return metaDataMap.values()
+        List<DotMetaData> list = metaDataMap.values()
                 .stream()
                 .filter(builder -> TraceIndexScatterMapper.filter(builder.getDot(), this.filter))
                 .map(DotMetaData.Builder::build)
-                .collect(Collectors.toList());
+                .collect(Collectors.toCollection(ArrayList::new));
+        if (blockCells != null) {
+            for (Cell[] cells : blockCells.values()) {
+                addBlockMetaData(list, cells[0], cells[1]);
+            }
+        }
+        return list;
+    }
+
+    private void addBlockCell(Map<ByteBuffer, Cell[]> blockCells, Cell cell) {
+        ByteBuffer qualifier = ByteBuffer.wrap(CellUtil.cloneQualifier(cell));
+        Cell[] cells = blockCells.computeIfAbsent(qualifier, key -> new Cell[2]);
+        if (CellUtil.matchingFamily(cell, INDEX.getName())) {
+            cells[0] = cell;
+        } else if (CellUtil.matchingFamily(cell, META.getName())) {
+            cells[1] = cell;
+        }
+    }
+
+    private void addBlockMetaData(List<DotMetaData> list, Cell indexCell, Cell metaCell) {
+        if (indexCell == null || metaCell == null) {
+            return;
+        }
+        ScatterBlock block = TraceIndexScatterMapper.decodeBlock(indexCell);
+        ScatterBlockCodec.decodeMetaData(block, metaCell.getValueArray(), metaCell.getValueOffset(), metaCell.getValueLength());
+        for (int i = 0; i < block.size(); i++) {
+            Dot dot = TraceIndexScatterMapper.createDot(block, i);
+            if (!TraceIndexScatterMapper.filter(dot, this.filter)) {
+                continue;
+            }
+            list.add(new DotMetaData(dot, block.getAgentName(i), block.getRemoteAddr(i), block.getRpc(i), block.getEndPoint(i),
+                    block.getSpanId(i), block.getStartTime(i)));
+        }
     }
 
     private DotMetaData.Builder getMetaDataBuilder(Map<TransactionId, DotMetaData.Builder> metaDataMap, TransactionId transactionId) {
@@ -21,6 +21,8 @@ import com.navercorp.pinpoint.common.buffer.OffsetFixedBuffer;
 import com.navercorp.pinpoint.common.hbase.HbaseColumnFamily;
 import com.navercorp.pinpoint.common.hbase.HbaseTableConstants;
 import com.navercorp.pinpoint.common.hbase.RowMapper;
+import com.navercorp.pinpoint.common.server.scatter.ScatterBlock;
+import com.navercorp.pinpoint.common.server.scatter.ScatterBlockCodec;
 import com.navercorp.pinpoint.common.util.BytesUtils;
 import com.navercorp.pinpoint.common.util.TimeUtils;
 import com.navercorp.pinpoint.common.profiler.util.TransactionId;
@@ -67,6 +69,10 @@ public class TraceIndexScatterMapper implements RowMapper<List<Dot>> {
         List<Dot> list = new ArrayList<>(rawCells.length);
         for (Cell cell : rawCells) {
             if (CellUtil.matchingFamily(cell, INDEX.getName())) {
+                if (isBlock(cell)) {
+                    addDots(list, decodeBlock(cell), this.filter);
+                    continue;
+                }
                 Dot dot = createDot(cell);
                 if (filter(dot, this.filter)) {
                     list.add(dot);
@@ -76,6 +82,27 @@ public class TraceIndexScatterMapper implements RowMapper<List<Dot>> {
         return list;
     }
 
+    static boolean isBlock(Cell cell) {
+        return ScatterBlockCodec.isBlockQualifier(cell.getQualifierArray(), cell.getQualifierOffset(), cell.getQualifierLength());
+    }
+
+    static ScatterBlock decodeBlock(Cell cell) {
+        return ScatterBlockCodec.decodeIndex(cell.getValueArray(), cell.getValueOffset(), cell.getValueLength());
+    }
+
+    private static void addDots(List<Dot> list, ScatterBlock block, Predicate<Dot> filter) {
+        for (int i = 0; i < block.size(); i++) {
+            Dot dot = createDot(block, i);
+            if (filter(dot, filter)) {
+                list.add(dot);
+            }
+        }
+    }
+
+    static Dot createDot(ScatterBlock block, int index) {
+        return new Dot(block.getTransactionId(index), block.getAcceptedTime(index), block.getElapsed(index), block.getErrorCode(index), block.getAgentId(index));
+    }
+
     static boolean filter(Dot dot, Predicate<Dot> filter) {
         if (filter == null) {
             return true;
@@ -90,13 +117,17 @@ public class TraceIndexScatterMapper implements RowMapper<List<Dot>> {
         int exceptionCode = valueBuffer.readSVInt();
         String agentId = valueBuffer.readPrefixedString();
 
-        final int acceptTimeOffset = cell.getRowOffset() + HbaseTableConstants.APPLICATION_NAME_MAX_LEN + HbaseColumnFamily.APPLICATION_TRACE_INDEX_TRACE.ROW_DISTRIBUTE_SIZE;
-        long reverseAcceptedTime = BytesUtils.bytesToLong(cell.getRowArray(), acceptTimeOffset);
-        long acceptedTime = TimeUtils.recoveryTimeMillis(reverseAcceptedTime);
+        long acceptedTime = getRowAcceptedTime(cell);
 
         TransactionId transactionId = TransactionIdMapper.parseVarTransactionId(cell.getQualifierArray(), cell.getQualifierOffset(), cell.getQualifierLength());
 
         return new Dot(transactionId, acceptedTime, elapsed, exceptionCode, agentId);
     }
 
+    static long getRowAcceptedTime(Cell cell) {
+        final int acceptTimeOffset = cell.getRowOffset() + HbaseTableConstants.APPLICATION_NAME_MAX_LEN + HbaseColumnFamily.APPLICATION_TRACE_INDEX_TRACE.ROW_DISTRIBUTE_SIZE;
+        long reverseAcceptedTime = BytesUtils.bytesToLong(cell.getRowArray(), acceptTimeOffset);
+        return TimeUtils.recoveryTimeMillis(reverseAcceptedTime);
+    }
+
 }
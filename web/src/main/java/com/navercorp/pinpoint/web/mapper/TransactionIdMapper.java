@@ -27,6 +27,8 @@ import com.navercorp.pinpoint.common.hbase.HbaseColumnFamily;
 import com.navercorp.pinpoint.common.hbase.RowMapper;
 
 import com.navercorp.pinpoint.common.profiler.util.TransactionId;
+import com.navercorp.pinpoint.common.server.scatter.ScatterBlock;
+import com.navercorp.pinpoint.common.server.util.time.Range;
 import org.apache.hadoop.hbase.Cell;
 import org.apache.hadoop.hbase.CellUtil;
 import org.apache.hadoop.hbase.client.Result;
@@ -43,6 +45,20 @@ public class TransactionIdMapper implements RowMapper<List<TransactionId>> {
 
     private final Logger logger = LogManager.getLogger(this.getClass());
 
+    // @Nullable
+    private final Range acceptedTimeRange;
+
+    public TransactionIdMapper() {
+        this.acceptedTimeRange = null;
+    }
+
+    /**
+     * @param acceptedTimeRange drops the transactions accepted outside of the range
+     */
+    public TransactionIdMapper(Range acceptedTimeRange) {
+        this.acceptedTimeRange = Objects.requireNonNull(acceptedTimeRange, "acceptedTimeRange");
+    }
+
     @Override
     public List<TransactionId> mapRow(Result result, int rowNum) throws Exception {
         if (result.isEmpty()) {
@@ -52,6 +68,13 @@ public class TransactionIdMapper implements RowMapper<List<TransactionId>> {
         List<TransactionId> traceIdList = new ArrayList<>(rawCells.length);
         for (Cell cell : rawCells) {
             if (CellUtil.matchingFamily(cell, HbaseColumnFamily.APPLICATION_TRACE_INDEX_TRACE.getName())) {
+                if (TraceIndexScatterMapper.isBlock(cell)) {
+                    addBlock(traceIdList, TraceIndexScatterMapper.decodeBlock(cell));
+                    continue;
+                }
+                if (acceptedTimeRange != null && !inRange(TraceIndexScatterMapper.getRowAcceptedTime(cell))) {
+                    continue;
+                }
                 final byte[] qualifierArray = cell.getQualifierArray();
                 final int qualifierOffset = cell.getQualifierOffset();
                 final int qualifierLength = cell.getQualifierLength();
@@ -65,6 +88,19 @@ public class TransactionIdMapper implements RowMapper<List<TransactionId>> {
         return traceIdList;
     }
 
+    private void addBlock(List<TransactionId> traceIdList, ScatterBlock block) {
+        for (int i = 0; i < block.size(); i++) {
+            if (acceptedTimeRange != null && !inRange(block.getAcceptedTime(i))) {
+                continue;
+            }
+            traceIdList.add(block.getTransactionId(i));
+        }
+    }
+
+    private boolean inRange(long acceptedTime) {
+        return acceptedTimeRange.getFrom() <= acceptedTime && acceptedTime <= acceptedTimeRange.getTo();
+    }
+
     public static TransactionId parseVarTransactionId(byte[] bytes, int offset, int length) {
         Objects.requireNonNull(bytes, "bytes");
 
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.mapper.stat;
+
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatDataPoint;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.AgentStatAggregate;
+import org.apache.hadoop.hbase.client.Result;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Maps a rolled up row to the MIN, AVG and MAX data points of each timeslot,
+ * so that the samplers keep the extremes of the timeslot when reducing them into a window.
+ */
+public class AgentStatRollupMapper<T extends AgentStatDataPoint> implements AgentStatMapper<T> {
+
+    private final AgentStatMapper<T> delegate;
+
+    public AgentStatRollupMapper(AgentStatMapper<T> delegate) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+    }
+
+    @Override
+    public List<T> mapRow(Result result, int rowNum) throws Exception {
+        // aggregates of a timeslot share the timestamp and keep their order through the stable sort of the delegate
+        final List<T> aggregates = delegate.mapRow(result, rowNum);
+        if (aggregates.size() % AgentStatAggregate.SIZE != 0) {
+            throw new IllegalStateException("Invalid rollup row. size:" + aggregates.size());
+        }
+        final List<T> dataPoints = new ArrayList<>(aggregates.size() / AgentStatAggregate.SIZE * 3);
+        for (int i = 0; i < aggregates.size(); i += AgentStatAggregate.SIZE) {
+            dataPoints.add(aggregates.get(i + AgentStatAggregate.MIN.ordinal()));
+            dataPoints.add(aggregates.get(i + AgentStatAggregate.AVG.ordinal()));
+            dataPoints.add(aggregates.get(i + AgentStatAggregate.MAX.ordinal()));
+        }
+        return dataPoints;
+    }
+}
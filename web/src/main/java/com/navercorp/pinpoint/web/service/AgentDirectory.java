@@ -0,0 +1,314 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.service;
+
+import com.navercorp.pinpoint.common.profiler.concurrent.PinpointThreadFactory;
+import com.navercorp.pinpoint.common.server.cluster.ClusterKey;
+import com.navercorp.pinpoint.web.cluster.ClusterDataManager;
+import com.navercorp.pinpoint.web.cluster.ClusterManager;
+import com.navercorp.pinpoint.web.config.AgentDirectoryProperties;
+import com.navercorp.pinpoint.web.dao.AgentInfoDao;
+import com.navercorp.pinpoint.web.dao.AgentLifeCycleDao;
+import com.navercorp.pinpoint.web.dao.ApplicationIndexDao;
+import com.navercorp.pinpoint.web.vo.Application;
+import com.navercorp.pinpoint.web.vo.agent.AgentAndStatus;
+import com.navercorp.pinpoint.web.vo.agent.AgentStatus;
+import com.navercorp.pinpoint.web.vo.agent.AgentStatusQuery;
+import com.navercorp.pinpoint.web.vo.agent.DetailedAgentAndStatus;
+import com.navercorp.pinpoint.web.vo.agent.DetailedAgentInfo;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Agents of all applications, kept in memory so that the agent list views do not scan every application.
+ * <p>
+ * Each application is loaded on its own. An application is reloaded when one of its agents connects to
+ * or leaves the collector cluster, and every application is reloaded on the refresh interval to catch what
+ * the cluster does not report. A failed load keeps the previous agents of the application.
+ * Every change publishes a new {@link Snapshot} as a whole, so readers never see a partial refresh.
+ * The snapshot is kept up to date by the cluster events only while the cluster is enabled and connected,
+ * so it may be as old as the max staleness then, and as old as the refresh interval otherwise.
+ * An older snapshot, or a query for a time before the snapshot, is not served, and the caller reads the storage instead.
+ */
+@Service
+public class AgentDirectory {
+
+    private final Logger logger = LogManager.getLogger(this.getClass());
+
+    private final ApplicationIndexDao applicationIndexDao;
+    private final AgentInfoDao agentInfoDao;
+    private final AgentLifeCycleDao agentLifeCycleDao;
+    private final ClusterDataManager clusterDataManager;
+    private final ClusterManager clusterManager;
+    private final Executor executor;
+
+    private final boolean enable;
+    private final long refreshIntervalMillis;
+    private final long updateIntervalMillis;
+    private final long maxStalenessMillis;
+    private final LongSupplier clock;
+
+    // accessed by the scheduler thread only
+    private final Map<String, ApplicationAgents> applications = new HashMap<>();
+    private final Set<String> changedApplications = ConcurrentHashMap.newKeySet();
+
+    private volatile Snapshot snapshot;
+    private ScheduledExecutorService scheduler;
+
+    public AgentDirectory(ApplicationIndexDao applicationIndexDao,
+                          AgentInfoDao agentInfoDao,
+                          AgentLifeCycleDao agentLifeCycleDao,
+                          ClusterDataManager clusterDataManager,
+                          ClusterManager clusterManager,
+                          @Qualifier("agentDirectoryExecutor") Executor executor,
+                          AgentDirectoryProperties properties) {
+        this(applicationIndexDao, agentInfoDao, agentLifeCycleDao, clusterDataManager, clusterManager, executor, properties, System::currentTimeMillis);
+    }
+
+    AgentDirectory(ApplicationIndexDao applicationIndexDao,
+                   AgentInfoDao agentInfoDao,
+                   AgentLifeCycleDao agentLifeCycleDao,
+                   ClusterDataManager clusterDataManager,
+                   ClusterManager clusterManager,
+                   Executor executor,
+                   AgentDirectoryProperties properties,
+                   LongSupplier clock) {
+        this.applicationIndexDao = Objects.requireNonNull(applicationIndexDao, "applicationIndexDao");
+        this.agentInfoDao = Objects.requireNonNull(agentInfoDao, "agentInfoDao");
+        this.agentLifeCycleDao = Objects.requireNonNull(agentLifeCycleDao, "agentLifeCycleDao");
+        this.clusterDataManager = Objects.requireNonNull(clusterDataManager, "clusterDataManager");
+        this.clusterManager = Objects.requireNonNull(clusterManager, "clusterManager");
+        this.executor = Objects.requireNonNull(executor, "executor");
+        Objects.requireNonNull(properties, "properties");
+        this.enable = properties.isEnable();
+        this.refreshIntervalMillis = TimeUnit.SECONDS.toMillis(properties.getRefreshIntervalSeconds());
+        this.updateIntervalMillis = properties.getUpdateIntervalMillis();
+        this.maxStalenessMillis = TimeUnit.SECONDS.toMillis(properties.getMaxStalenessSeconds());
+        this.clock = Objects.requireNonNull(clock, "clock");
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enable) {
+            return;
+        }
+        logger.info("AgentDirectory start. refreshIntervalMillis:{}, updateIntervalMillis:{}, maxStalenessMillis:{}",
+                refreshIntervalMillis, updateIntervalMillis, maxStalenessMillis);
+        clusterDataManager.addAgentListener(this::onAgentChanged);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new PinpointThreadFactory("Pinpoint-Agent-Directory-Refresh", true));
+        this.scheduler.scheduleWithFixedDelay(this::refreshQuietly, 0, refreshIntervalMillis, TimeUnit.MILLISECONDS);
+        this.scheduler.scheduleWithFixedDelay(this::updateQuietly, updateIntervalMillis, updateIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    void onAgentChanged(ClusterKey agentKey) {
+        changedApplications.add(agentKey.getApplicationName());
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            logger.warn("AgentDirectory refresh failed, keep the previous snapshot. message:{}", e.getMessage(), e);
+        }
+    }
+
+    private void updateQuietly() {
+        try {
+            update();
+        } catch (Exception e) {
+            logger.warn("AgentDirectory update failed, keep the previous snapshot. message:{}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reloads every application.
+     */
+    void refresh() {
+        final long timestamp = clock.getAsLong();
+        final List<String> applicationNames = applicationIndexDao.selectAllApplicationNames().stream()
+                .map(Application::getName)
+                .distinct()
+                .collect(Collectors.toList());
+
+        final int failed = load(applicationNames, timestamp);
+        applications.keySet().retainAll(applicationNames);
+        publish(timestamp);
+        logger.info("AgentDirectory refreshed. applications:{}, failed:{}, agents:{}, elapsed:{}ms",
+                applicationNames.size(), failed, snapshot.getAgents().size(), clock.getAsLong() - timestamp);
+    }
+
+    /**
+     * Reloads the applications changed in the collector cluster since the last update.
+     */
+    void update() {
+        if (changedApplications.isEmpty()) {
+            return;
+        }
+        final List<String> applicationNames = new ArrayList<>(changedApplications);
+        changedApplications.removeAll(applicationNames);
+
+        final long timestamp = clock.getAsLong();
+        final int failed = load(applicationNames, timestamp);
+        publish(timestamp);
+        logger.debug("AgentDirectory updated. applications:{}, failed:{}", applicationNames, failed);
+    }
+
+    /**
+     * @return number of the applications that failed to load and kept their previous agents
+     */
+    private int load(List<String> applicationNames, long timestamp) {
+        final List<CompletableFuture<List<DetailedAgentAndStatus>>> futures = new ArrayList<>(applicationNames.size());
+        for (String applicationName : applicationNames) {
+            futures.add(CompletableFuture.supplyAsync(() -> load(applicationName, timestamp), executor));
+        }
+
+        int failed = 0;
+        for (int i = 0; i < futures.size(); i++) {
+            final String applicationName = applicationNames.get(i);
+            try {
+                applications.put(applicationName, new ApplicationAgents(timestamp, futures.get(i).join()));
+            } catch (CompletionException | CancellationException e) {
+                failed++;
+                logger.warn("AgentDirectory application load failed, keep the previous agents. application:{}, message:{}",
+                        applicationName, e.getMessage(), e);
+            }
+        }
+        return failed;
+    }
+
+    private void publish(long timestamp) {
+        long oldest = timestamp;
+        final List<DetailedAgentAndStatus> agents = new ArrayList<>();
+        for (ApplicationAgents applicationAgents : applications.values()) {
+            oldest = Math.min(oldest, applicationAgents.timestamp);
+            agents.addAll(applicationAgents.agents);
+        }
+        this.snapshot = new Snapshot(oldest, agents);
+    }
+
+    private List<DetailedAgentAndStatus> load(String applicationName, long timestamp) {
+        final List<String> agentIds = applicationIndexDao.selectAgentIds(applicationName);
+        final List<DetailedAgentInfo> agentInfos = agentInfoDao.getDetailedAgentInfos(agentIds, timestamp, false, true)
+                .stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
+        final AgentStatusQuery query = AgentStatusQuery.buildGenericQuery(agentInfos, DetailedAgentInfo::getAgentInfo, Instant.ofEpochMilli(timestamp));
+        final List<Optional<AgentStatus>> agentStatus = agentLifeCycleDao.getAgentStatus(query);
+
+        final List<DetailedAgentAndStatus> result = new ArrayList<>(agentStatus.size());
+        for (int i = 0; i < agentStatus.size(); i++) {
+            result.add(new DetailedAgentAndStatus(agentInfos.get(i), agentStatus.get(i).orElse(null)));
+        }
+        return result;
+    }
+
+    /**
+     * @return the current snapshot if it can answer a query at {@code timestamp}, otherwise {@code null}
+     */
+    public Snapshot getSnapshot(long timestamp) {
+        final Snapshot snapshot = this.snapshot;
+        if (snapshot == null) {
+            return null;
+        }
+        // not refreshed for too long, the storage is read instead
+        if (clock.getAsLong() - snapshot.getTimestamp() > getMaxStalenessMillis()) {
+            return null;
+        }
+        // the view of an older time is read from the storage
+        if (timestamp < snapshot.getTimestamp()) {
+            return null;
+        }
+        return snapshot;
+    }
+
+    // without the cluster events, the snapshot is only as fresh as the last refresh
+    private long getMaxStalenessMillis() {
+        if (clusterManager.isEnabled() && clusterDataManager.isConnected()) {
+            return maxStalenessMillis;
+        }
+        return refreshIntervalMillis;
+    }
+
+    private static class ApplicationAgents {
+        private final long timestamp;
+        private final List<DetailedAgentAndStatus> agents;
+
+        private ApplicationAgents(long timestamp, List<DetailedAgentAndStatus> agents) {
+            this.timestamp = timestamp;
+            this.agents = agents;
+        }
+    }
+
+    public static class Snapshot {
+        // load time of the least recently loaded application
+        private final long timestamp;
+        private final List<DetailedAgentAndStatus> detailedAgents;
+        private final List<AgentAndStatus> agents;
+
+        Snapshot(long timestamp, List<DetailedAgentAndStatus> detailedAgents) {
+            this.timestamp = timestamp;
+            this.detailedAgents = List.copyOf(detailedAgents);
+            this.agents = detailedAgents.stream()
+                    .map(agent -> new AgentAndStatus(agent.getDetailedAgentInfo().getAgentInfo(), agent.getStatus()))
+                    .collect(Collectors.toUnmodifiableList());
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public List<AgentAndStatus> getAgents() {
+            return agents;
+        }
+
+        public List<DetailedAgentAndStatus> getDetailedAgents() {
+            return detailedAgents;
+        }
+    }
+}
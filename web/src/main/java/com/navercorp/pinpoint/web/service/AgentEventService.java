@@ -34,4 +34,6 @@ public interface AgentEventService {
 
     List<AgentEvent> getAgentEvents(String agentId, Range range, Set<AgentEventType> excludeEventTypeCodes);
 
+    List<Boolean> agentEventExists(List<String> agentIds, Range range, AgentEventType eventType);
+
 }
@@ -76,6 +76,15 @@ public class AgentEventServiceImpl implements AgentEventService {
         return agentEvents;
     }
 
+    @Override
+    public List<Boolean> agentEventExists(List<String> agentIds, Range range, AgentEventType eventType) {
+        Objects.requireNonNull(agentIds, "agentIds");
+        Objects.requireNonNull(range, "range");
+        Objects.requireNonNull(eventType, "eventType");
+
+        return this.agentEventDao.agentEventExists(agentIds, range, eventType);
+    }
+
     @Override
     public AgentEvent getAgentEvent(String agentId, long eventTimestamp, AgentEventType eventType) {
         Objects.requireNonNull(agentId, "agentId");
@@ -70,6 +70,12 @@ public interface AgentInfoService {
 
     boolean isActiveAgent(String agentId, Range range);
 
+    /**
+     * Bulk version of {@link #isActiveAgent(String, Range)}
+     * @return active agentIds, in the order of agentIds
+     */
+    List<String> getActiveAgentIds(List<String> agentIds, Range range);
+
     InspectorTimeline getAgentStatusTimeline(String agentId, Range range, int... excludeAgentEventTypeCodes);
 
     boolean isExistAgentId(String agentId);
@@ -88,13 +88,15 @@ public class AgentInfoServiceImpl implements AgentInfoService {
 
     private final AgentStatDao<JvmGcBo> jvmGcDao;
     private final HyperLinkFactory hyperLinkFactory;
+    private final AgentDirectory agentDirectory;
 
     public AgentInfoServiceImpl(AgentEventService agentEventService,
                                 AgentWarningStatService agentWarningStatService, ApplicationIndexDao applicationIndexDao,
                                 AgentInfoDao agentInfoDao,
                                 AgentLifeCycleDao agentLifeCycleDao,
                                 AgentStatDao<JvmGcBo> jvmGcDao,
-                                HyperLinkFactory hyperLinkFactory) {
+                                HyperLinkFactory hyperLinkFactory,
+                                AgentDirectory agentDirectory) {
         this.agentEventService = Objects.requireNonNull(agentEventService, "agentEventService");
         this.agentWarningStatService = Objects.requireNonNull(agentWarningStatService, "agentWarningStatService");
         this.applicationIndexDao = Objects.requireNonNull(applicationIndexDao, "applicationIndexDao");
@@ -102,6 +104,7 @@ public class AgentInfoServiceImpl implements AgentInfoService {
         this.agentLifeCycleDao = Objects.requireNonNull(agentLifeCycleDao, "agentLifeCycleDao");
         this.jvmGcDao = Objects.requireNonNull(jvmGcDao, "jvmGcDao");
         this.hyperLinkFactory = Objects.requireNonNull(hyperLinkFactory, "hyperLinkFactory");
+        this.agentDirectory = Objects.requireNonNull(agentDirectory, "agentDirectory");
 
     }
 
@@ -109,6 +112,11 @@ public class AgentInfoServiceImpl implements AgentInfoService {
     public AgentsMapByApplication<AgentAndStatus> getAllAgentsList(AgentStatusFilter filter, Range range) {
         Objects.requireNonNull(filter, "filter");
 
+        final AgentDirectory.Snapshot snapshot = agentDirectory.getSnapshot(range.getTo());
+        if (snapshot != null) {
+            return AgentsMapByApplication.newAgentAndStatusMap(filter, snapshot.getAgents());
+        }
+
         List<Application> applications = applicationIndexDao.selectAllApplicationNames();
         List<AgentAndStatus> agents = new ArrayList<>();
         for (Application application : applications) {
@@ -125,6 +133,11 @@ public class AgentInfoServiceImpl implements AgentInfoService {
     public AgentsMapByApplication<DetailedAgentInfo> getAllAgentsStatisticsList(AgentStatusFilter filter, Range range) {
         Objects.requireNonNull(filter, "filter");
 
+        final AgentDirectory.Snapshot snapshot = agentDirectory.getSnapshot(range.getTo());
+        if (snapshot != null) {
+            return AgentsMapByApplication.newDetailedAgentInfoMap(filter, snapshot.getDetailedAgents());
+        }
+
         List<Application> applications = applicationIndexDao.selectAllApplicationNames();
         List<DetailedAgentAndStatus> agents = new ArrayList<>();
         for (Application application : applications) {
@@ -420,6 +433,43 @@ public class AgentInfoServiceImpl implements AgentInfoService {
         return agentEvents.stream().anyMatch(e -> e.getEventTypeCode() == AgentEventType.AGENT_PING.getCode());
     }
 
+    @Override
+    public List<String> getActiveAgentIds(List<String> agentIds, Range range) {
+        Objects.requireNonNull(agentIds, "agentIds");
+        Objects.requireNonNull(range, "range");
+        if (agentIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        final List<Boolean> dataExists = this.jvmGcDao.agentStatExists(agentIds, range);
+        final List<String> noDataAgentIds = new ArrayList<>();
+        for (int i = 0; i < agentIds.size(); i++) {
+            if (!dataExists.get(i)) {
+                noDataAgentIds.add(agentIds.get(i));
+            }
+        }
+
+        final Set<String> inactiveAgentIds = new HashSet<>();
+        if (!noDataAgentIds.isEmpty()) {
+            final List<Boolean> pingExists = this.agentEventService.agentEventExists(noDataAgentIds, range, AgentEventType.AGENT_PING);
+            for (int i = 0; i < noDataAgentIds.size(); i++) {
+                if (!pingExists.get(i)) {
+                    inactiveAgentIds.add(noDataAgentIds.get(i));
+                }
+            }
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("getActiveAgentIds agents:{} noData:{} inactive:{} {}", agentIds.size(), noDataAgentIds.size(), inactiveAgentIds.size(), range);
+        }
+
+        if (inactiveAgentIds.isEmpty()) {
+            return agentIds;
+        }
+        return agentIds.stream()
+                .filter(agentId -> !inactiveAgentIds.contains(agentId))
+                .collect(Collectors.toList());
+    }
+
     @Override
     public InspectorTimeline getAgentStatusTimeline(String agentId, Range range, int... excludeAgentEventTypeCodes) {
         Objects.requireNonNull(agentId, "agentId");
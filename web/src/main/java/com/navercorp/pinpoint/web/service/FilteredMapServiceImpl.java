@@ -19,6 +19,7 @@ package com.navercorp.pinpoint.web.service;
 import com.navercorp.pinpoint.common.hbase.bo.ColumnGetCount;
 import com.navercorp.pinpoint.common.profiler.util.TransactionId;
 import com.navercorp.pinpoint.common.server.bo.SpanBo;
+import com.navercorp.pinpoint.common.server.bo.serializer.trace.v2.SpanProjection;
 import com.navercorp.pinpoint.common.server.util.time.Range;
 import com.navercorp.pinpoint.loader.service.ServiceTypeRegistryService;
 import com.navercorp.pinpoint.web.applicationmap.ApplicationMap;
@@ -188,11 +189,20 @@ public class FilteredMapServiceImpl implements FilteredMapService {
         final List<TransactionId> recursiveFilterList = recursiveCallFilter(transactionIdList);
 
         // FIXME might be better to simply traverse the List<Span> and create a process chain for execution
-        final List<List<SpanBo>> originalList = this.traceDao.selectAllSpans(recursiveFilterList, columnGetCount);
+        final SpanProjection projection = getProjection(filter);
+        final List<List<SpanBo>> originalList = this.traceDao.selectAllSpans(recursiveFilterList, columnGetCount, projection);
 
         return filterList2(originalList, filter);
     }
 
+    private SpanProjection getProjection(Filter<List<SpanBo>> filter) {
+        // FilteredMapBuilder reads span events only, but a filter may match span event annotations (RpcURLPatternFilter)
+        if (filter == Filter.<List<SpanBo>>acceptAllFilter()) {
+            return SpanProjection.NO_ANNOTATION;
+        }
+        return SpanProjection.ALL;
+    }
+
     private ApplicationMap createMap(FilteredMapServiceOption option, FilteredMap filteredMap) {
         final ApplicationMapBuilder applicationMapBuilder = applicationMapBuilderFactory.createApplicationMapBuilder(option.getOriginalRange());
         applicationMapBuilder.linkType(LinkType.DETAILED);
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.service;
+
+import com.navercorp.pinpoint.common.profiler.util.TransactionId;
+import com.navercorp.pinpoint.common.server.bo.AnnotationBo;
+import com.navercorp.pinpoint.common.server.bo.SpanBo;
+import com.navercorp.pinpoint.common.trace.AnnotationKey;
+import com.navercorp.pinpoint.web.calltree.span.Align;
+import com.navercorp.pinpoint.web.calltree.span.CallTreeIterator;
+import com.navercorp.pinpoint.web.vo.flamegraph.FlameGraphNode;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+@Service
+public class FlameGraphServiceImpl implements FlameGraphService {
+
+    private final SpanService spanService;
+
+    public FlameGraphServiceImpl(SpanService spanService) {
+        this.spanService = Objects.requireNonNull(spanService, "spanService");
+    }
+
+    @Override
+    public FlameGraphNode selectFlameGraph(TransactionId transactionId, Predicate<SpanBo> filter) {
+        final SpanResult spanResult = spanService.selectSpan(transactionId, filter);
+        final CallTreeIterator callTree = spanResult.getCallTree();
+
+        final FlameGraphNode root = FlameGraphNode.root();
+        for (Align align : callTree.values()) {
+            if (!align.isSpan()) {
+                continue;
+            }
+            final List<AnnotationBo> annotationBoList = align.getAnnotationBoList();
+            if (annotationBoList == null) {
+                continue;
+            }
+            for (AnnotationBo annotationBo : annotationBoList) {
+                if (annotationBo.getKey() == AnnotationKey.STACK_SAMPLE.getCode() && annotationBo.isAuthorized()) {
+                    root.addCollapsedStacks((String) annotationBo.getValue());
+                }
+            }
+        }
+        return root;
+    }
+}
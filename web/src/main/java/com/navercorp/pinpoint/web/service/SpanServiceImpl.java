@@ -40,12 +40,12 @@ import com.navercorp.pinpoint.web.calltree.span.CallTree;
 import com.navercorp.pinpoint.web.calltree.span.CallTreeIterator;
 import com.navercorp.pinpoint.web.calltree.span.SpanAligner;
 import com.navercorp.pinpoint.web.calltree.span.TraceState;
-import com.navercorp.pinpoint.web.dao.ApiMetaDataDao;
-import com.navercorp.pinpoint.web.dao.SqlMetaDataDao;
-import com.navercorp.pinpoint.web.dao.StringMetaDataDao;
 import com.navercorp.pinpoint.web.dao.TraceDao;
 import com.navercorp.pinpoint.web.security.MetaDataFilter;
 import com.navercorp.pinpoint.web.security.MetaDataFilter.MetaData;
+import com.navercorp.pinpoint.web.service.metadata.MetaDataRequest;
+import com.navercorp.pinpoint.web.service.metadata.MetaDataResolver;
+import com.navercorp.pinpoint.web.service.metadata.ResolvedMetaData;
 import com.navercorp.pinpoint.web.vo.agent.AgentInfo;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -75,14 +75,10 @@ public class SpanServiceImpl implements SpanService {
 
     private final TraceDao traceDao;
 
-    private final SqlMetaDataDao sqlMetaDataDao;
+    private final MetaDataResolver metaDataResolver;
 
     private final MetaDataFilter metaDataFilter;
 
-    private final ApiMetaDataDao apiMetaDataDao;
-
-    private final StringMetaDataDao stringMetaDataDao;
-
     private final ServiceTypeRegistryService serviceTypeRegistryService;
 
     private final AgentInfoService agentInfoService;
@@ -91,17 +87,13 @@ public class SpanServiceImpl implements SpanService {
     private final OutputParameterParser outputParameterParser = new OutputParameterParser();
 
     public SpanServiceImpl(TraceDao traceDao,
-                           SqlMetaDataDao sqlMetaDataDao,
+                           MetaDataResolver metaDataResolver,
                            Optional<MetaDataFilter> metaDataFilter,
-                           ApiMetaDataDao apiMetaDataDao,
-                           StringMetaDataDao stringMetaDataDao,
                            ServiceTypeRegistryService serviceTypeRegistryService,
                            AgentInfoService agentInfoService) {
         this.traceDao = Objects.requireNonNull(traceDao, "traceDao");
-        this.sqlMetaDataDao = Objects.requireNonNull(sqlMetaDataDao, "sqlMetaDataDao");
+        this.metaDataResolver = Objects.requireNonNull(metaDataResolver, "metaDataResolver");
         this.metaDataFilter = Objects.requireNonNull(metaDataFilter, "metaDataFilter").orElse(null);
-        this.apiMetaDataDao = Objects.requireNonNull(apiMetaDataDao, "apiMetaDataDao");
-        this.stringMetaDataDao = Objects.requireNonNull(stringMetaDataDao, "stringMetaDataDao");
         this.serviceTypeRegistryService = Objects.requireNonNull(serviceTypeRegistryService, "serviceTypeRegistryService");
         this.agentInfoService = Objects.requireNonNull(agentInfoService, "agentInfoService");
     }
@@ -132,16 +124,51 @@ public class SpanServiceImpl implements SpanService {
         final CallTreeIterator callTreeIterator = result.getCallTree();
         final List<Align> values = callTreeIterator.values();
 
-        transitionDynamicApiId(values);
-        transitionSqlId(values);
+        // one multi-get per metadata table instead of one get per span event
+        final ResolvedMetaData metaData = metaDataResolver.resolve(newMetaDataRequest(values));
+
+        transitionDynamicApiId(values, metaData);
+        transitionSqlId(values, metaData);
         transitionMongoJson(values);
-        transitionCachedString(values);
-        transitionException(values);
+        transitionCachedString(values, metaData);
+        transitionException(values, metaData);
 
         // TODO need to at least show the row data when root span is not found.
         return result;
     }
 
+    private MetaDataRequest newMetaDataRequest(List<Align> alignList) {
+        final MetaDataRequest request = new MetaDataRequest();
+        for (Align align : alignList) {
+            final String agentId = align.getAgentId();
+            final long agentStartTime = align.getAgentStartTime();
+            final List<AnnotationBo> annotationBoList = align.getAnnotationBoList();
+
+            final int apiId = align.getApiId();
+            if (apiId != 0 || annotationBoList == null || AnnotationUtils.findApiAnnotation(annotationBoList) == null) {
+                request.addApiId(agentId, agentStartTime, apiId);
+            }
+            if (align.hasException()) {
+                request.addStringId(agentId, agentStartTime, align.getExceptionId());
+            }
+            if (annotationBoList == null) {
+                continue;
+            }
+
+            final AnnotationBo sqlIdAnnotation = findAnnotation(annotationBoList, AnnotationKey.SQL_ID.getCode());
+            if (sqlIdAnnotation != null) {
+                if (metaDataFilter == null || !metaDataFilter.filter(align, MetaData.SQL)) {
+                    final IntStringStringValue sqlValue = (IntStringStringValue) sqlIdAnnotation.getValue();
+                    request.addSqlId(agentId, agentStartTime, sqlValue.getIntValue());
+                }
+            }
+            for (AnnotationBo annotationBo : findCachedStringAnnotation(annotationBoList)) {
+                request.addStringId(agentId, agentStartTime, (Integer) annotationBo.getValue());
+            }
+        }
+        return request;
+    }
+
     @Override
     public void populateAgentName(List<SpanBo> spanBoList) {
         if (CollectionUtils.isEmpty(spanBoList)) {
@@ -195,7 +222,7 @@ public class SpanServiceImpl implements SpanService {
         }
     }
 
-    private void transitionSqlId(final List<Align> spans) {
+    private void transitionSqlId(final List<Align> spans, final ResolvedMetaData metaData) {
         this.transitionAnnotation(spans, new AnnotationReplacementCallback() {
             @Override
             public void replacement(Align align, List<AnnotationBo> annotationBoList) {
@@ -213,7 +240,7 @@ public class SpanServiceImpl implements SpanService {
                 final IntStringStringValue sqlValue = (IntStringStringValue) sqlIdAnnotation.getValue();
                 final int sqlId = sqlValue.getIntValue();
                 final String sqlParam = sqlValue.getStringValue1();
-                final List<SqlMetaDataBo> sqlMetaDataList = sqlMetaDataDao.getSqlMetaData(align.getAgentId(), align.getAgentStartTime(), sqlId);
+                final List<SqlMetaDataBo> sqlMetaDataList = metaData.getSqlMetaData(align.getAgentId(), align.getAgentStartTime(), sqlId);
                 final int size = sqlMetaDataList.size();
                 if (size == 0) {
                     String errorMessage = "SQL-ID not found sqlId:" + sqlId;
@@ -346,7 +373,7 @@ public class SpanServiceImpl implements SpanService {
     }
 
 
-    private void transitionDynamicApiId(List<Align> spans) {
+    private void transitionDynamicApiId(List<Align> spans, ResolvedMetaData metaData) {
         this.transitionAnnotation(spans, new AnnotationReplacementCallback() {
             @Override
             public void replacement(Align align, List<AnnotationBo> annotationBoList) {
@@ -366,7 +393,7 @@ public class SpanServiceImpl implements SpanService {
                 }
 
                 // may be able to get a more accurate data using agentIdentifier.
-                List<ApiMetaDataBo> apiMetaDataList = apiMetaDataDao.getApiMetaData(align.getAgentId(), align.getAgentStartTime(), apiId);
+                List<ApiMetaDataBo> apiMetaDataList = metaData.getApiMetaData(align.getAgentId(), align.getAgentStartTime(), apiId);
                 int size = apiMetaDataList.size();
                 if (size == 0) {
                     String errorMessage = "API-DynamicID not found. api:" + apiId;
@@ -397,7 +424,7 @@ public class SpanServiceImpl implements SpanService {
         });
     }
 
-    private void transitionCachedString(List<Align> spans) {
+    private void transitionCachedString(List<Align> spans, ResolvedMetaData metaData) {
         this.transitionAnnotation(spans, new AnnotationReplacementCallback() {
             @Override
             public void replacement(Align align, List<AnnotationBo> annotationBoList) {
@@ -409,7 +436,7 @@ public class SpanServiceImpl implements SpanService {
                 for (AnnotationBo annotationBo : cachedStringAnnotation) {
                     final int cachedArgsKey = annotationBo.getKey();
                     int stringMetaDataId = (Integer) annotationBo.getValue();
-                    List<StringMetaDataBo> stringMetaList = stringMetaDataDao.getStringMetaData(align.getAgentId(), align.getAgentStartTime(), stringMetaDataId);
+                    List<StringMetaDataBo> stringMetaList = metaData.getStringMetaData(align.getAgentId(), align.getAgentStartTime(), stringMetaDataId);
                     int size = stringMetaList.size();
                     if (size == 0) {
                         logger.warn("StringMetaData not Found {}/{}/{}", align.getAgentId(), stringMetaDataId, align.getAgentStartTime());
@@ -442,18 +469,18 @@ public class SpanServiceImpl implements SpanService {
         return findAnnotationBoList;
     }
 
-    private void transitionException(List<Align> alignList) {
+    private void transitionException(List<Align> alignList, ResolvedMetaData metaData) {
         for (Align align : alignList) {
             if (align.hasException()) {
-                StringMetaDataBo stringMetaData = selectStringMetaData(align.getAgentId(), align.getExceptionId(), align.getAgentStartTime());
+                StringMetaDataBo stringMetaData = selectStringMetaData(metaData, align.getAgentId(), align.getExceptionId(), align.getAgentStartTime());
                 align.setExceptionClass(stringMetaData.getStringValue());
             }
         }
 
     }
 
-    private StringMetaDataBo selectStringMetaData(String agentId, int cacheId, long agentStartTime) {
-        final List<StringMetaDataBo> metaDataList = stringMetaDataDao.getStringMetaData(agentId, agentStartTime, cacheId);
+    private StringMetaDataBo selectStringMetaData(ResolvedMetaData metaData, String agentId, int cacheId, long agentStartTime) {
+        final List<StringMetaDataBo> metaDataList = metaData.getStringMetaData(agentId, agentStartTime, cacheId);
         if (CollectionUtils.isEmpty(metaDataList)) {
             logger.warn("StringMetaData not Found agent:{}, cacheId{}, agentStartTime:{}", agentId, cacheId, agentStartTime);
             return new StringMetaDataBo(agentId, agentStartTime, cacheId, "STRING-META-DATA-NOT-FOUND");
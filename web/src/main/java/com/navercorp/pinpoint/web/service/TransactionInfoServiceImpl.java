@@ -20,6 +20,7 @@ import com.navercorp.pinpoint.common.profiler.util.TransactionId;
 import com.navercorp.pinpoint.common.server.bo.AnnotationBo;
 import com.navercorp.pinpoint.common.server.bo.Event;
 import com.navercorp.pinpoint.common.server.bo.SpanBo;
+import com.navercorp.pinpoint.common.server.bo.serializer.trace.v2.SpanProjection;
 import com.navercorp.pinpoint.common.server.util.time.Range;
 import com.navercorp.pinpoint.common.trace.AnnotationKeyMatcher;
 import com.navercorp.pinpoint.common.trace.LoggingInfo;
@@ -99,7 +100,8 @@ public class TransactionInfoServiceImpl implements TransactionInfoService {
                     .map(GetTraceInfo::new)
                     .collect(Collectors.toList());
 
-            traceList = this.traceDao.selectSpans(queryList);
+            // the transaction list reads the span header only
+            traceList = this.traceDao.selectSpans(queryList, SpanProjection.SPAN_ONLY);
         } else {
             traceList = this.traceDao.selectAllSpans(transactionIdList);
         }
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.service.metadata;
+
+import com.navercorp.pinpoint.common.server.bo.serializer.metadata.DefaultMetaDataRowKey;
+import com.navercorp.pinpoint.common.server.bo.serializer.metadata.MetaDataRowKey;
+import com.navercorp.pinpoint.web.cache.MetaDataCacheKey;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The metadata ids a trace needs, collected before any of them is looked up.
+ */
+public class MetaDataRequest {
+
+    private final Map<String, MetaDataRowKey> apiKeys = new LinkedHashMap<>();
+    private final Map<String, MetaDataRowKey> sqlKeys = new LinkedHashMap<>();
+    private final Map<String, MetaDataRowKey> stringKeys = new LinkedHashMap<>();
+
+    public void addApiId(String agentId, long agentStartTime, int apiId) {
+        add(apiKeys, agentId, agentStartTime, apiId);
+    }
+
+    public void addSqlId(String agentId, long agentStartTime, int sqlId) {
+        add(sqlKeys, agentId, agentStartTime, sqlId);
+    }
+
+    public void addStringId(String agentId, long agentStartTime, int stringId) {
+        add(stringKeys, agentId, agentStartTime, stringId);
+    }
+
+    private void add(Map<String, MetaDataRowKey> keys, String agentId, long agentStartTime, int id) {
+        final String cacheKey = MetaDataCacheKey.of(agentId, agentStartTime, id);
+        keys.computeIfAbsent(cacheKey, k -> new DefaultMetaDataRowKey(agentId, agentStartTime, id));
+    }
+
+    Map<String, MetaDataRowKey> getApiKeys() {
+        return apiKeys;
+    }
+
+    Map<String, MetaDataRowKey> getSqlKeys() {
+        return sqlKeys;
+    }
+
+    Map<String, MetaDataRowKey> getStringKeys() {
+        return stringKeys;
+    }
+
+    public int size() {
+        return apiKeys.size() + sqlKeys.size() + stringKeys.size();
+    }
+
+    @Override
+    public String toString() {
+        return "MetaDataRequest{" +
+                "api=" + apiKeys.size() +
+                ", sql=" + sqlKeys.size() +
+                ", string=" + stringKeys.size() +
+                '}';
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.service.metadata;
+
+import com.navercorp.pinpoint.common.server.bo.ApiMetaDataBo;
+import com.navercorp.pinpoint.common.server.bo.SqlMetaDataBo;
+import com.navercorp.pinpoint.common.server.bo.StringMetaDataBo;
+import com.navercorp.pinpoint.common.server.bo.serializer.metadata.MetaDataRowKey;
+import com.navercorp.pinpoint.web.cache.CacheConfiguration;
+import com.navercorp.pinpoint.web.dao.ApiMetaDataDao;
+import com.navercorp.pinpoint.web.dao.SqlMetaDataDao;
+import com.navercorp.pinpoint.web.dao.StringMetaDataDao;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Resolves all metadata of a trace with at most one multi-get per metadata table.
+ * <p>
+ * Ids found in the shared metadata caches are not fetched, and fetched metadata is put into the caches,
+ * which the single id lookups of the metadata daos use as well.
+ */
+@Service
+public class MetaDataResolver {
+
+    private final Logger logger = LogManager.getLogger(this.getClass());
+
+    private final ApiMetaDataDao apiMetaDataDao;
+    private final SqlMetaDataDao sqlMetaDataDao;
+    private final StringMetaDataDao stringMetaDataDao;
+
+    private final Cache apiMetaDataCache;
+    private final Cache sqlMetaDataCache;
+    private final Cache stringMetaDataCache;
+
+    public MetaDataResolver(ApiMetaDataDao apiMetaDataDao,
+                            SqlMetaDataDao sqlMetaDataDao,
+                            StringMetaDataDao stringMetaDataDao,
+                            @Qualifier(CacheConfiguration.METADATA_CACHE_MANAGER) CacheManager cacheManager) {
+        this.apiMetaDataDao = Objects.requireNonNull(apiMetaDataDao, "apiMetaDataDao");
+        this.sqlMetaDataDao = Objects.requireNonNull(sqlMetaDataDao, "sqlMetaDataDao");
+        this.stringMetaDataDao = Objects.requireNonNull(stringMetaDataDao, "stringMetaDataDao");
+        Objects.requireNonNull(cacheManager, "cacheManager");
+        this.apiMetaDataCache = getCache(cacheManager, CacheConfiguration.API_METADATA_CACHE_NAME);
+        this.sqlMetaDataCache = getCache(cacheManager, CacheConfiguration.SQL_METADATA_CACHE_NAME);
+        this.stringMetaDataCache = getCache(cacheManager, CacheConfiguration.STRING_METADATA_CACHE_NAME);
+    }
+
+    private static Cache getCache(CacheManager cacheManager, String name) {
+        return Objects.requireNonNull(cacheManager.getCache(name), name);
+    }
+
+    public ResolvedMetaData resolve(MetaDataRequest request) {
+        Objects.requireNonNull(request, "request");
+
+        final Map<String, List<ApiMetaDataBo>> apiMetaData = resolve(apiMetaDataCache, request.getApiKeys(), apiMetaDataDao::getApiMetaData);
+        final Map<String, List<SqlMetaDataBo>> sqlMetaData = resolve(sqlMetaDataCache, request.getSqlKeys(), sqlMetaDataDao::getSqlMetaData);
+        final Map<String, List<StringMetaDataBo>> stringMetaData = resolve(stringMetaDataCache, request.getStringKeys(), stringMetaDataDao::getStringMetaData);
+        return new ResolvedMetaData(apiMetaData, sqlMetaData, stringMetaData);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Map<String, List<T>> resolve(Cache cache, Map<String, MetaDataRowKey> keys,
+                                             Function<List<MetaDataRowKey>, List<List<T>>> multiGet) {
+        final Map<String, List<T>> result = new HashMap<>(keys.size());
+        final List<String> missCacheKeys = new ArrayList<>();
+        final List<MetaDataRowKey> missRowKeys = new ArrayList<>();
+        for (Map.Entry<String, MetaDataRowKey> entry : keys.entrySet()) {
+            final Cache.ValueWrapper cached = cache.get(entry.getKey());
+            if (cached != null && cached.get() != null) {
+                result.put(entry.getKey(), (List<T>) cached.get());
+            } else {
+                missCacheKeys.add(entry.getKey());
+                missRowKeys.add(entry.getValue());
+            }
+        }
+        if (missRowKeys.isEmpty()) {
+            return result;
+        }
+
+        final List<List<T>> fetched = multiGet.apply(missRowKeys);
+        if (fetched.size() != missRowKeys.size()) {
+            throw new IllegalStateException("metadata size mismatch. expected:" + missRowKeys.size() + " actual:" + fetched.size());
+        }
+        for (int i = 0; i < missCacheKeys.size(); i++) {
+            final String cacheKey = missCacheKeys.get(i);
+            final List<T> metaData = fetched.get(i);
+            // metadata may be written after the trace, do not remember a miss
+            if (!metaData.isEmpty()) {
+                cache.put(cacheKey, metaData);
+            }
+            result.put(cacheKey, metaData);
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("{} resolved:{} fetched:{}", cache.getName(), keys.size(), missRowKeys.size());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.service.metadata;
+
+import com.navercorp.pinpoint.common.server.bo.ApiMetaDataBo;
+import com.navercorp.pinpoint.common.server.bo.SqlMetaDataBo;
+import com.navercorp.pinpoint.common.server.bo.StringMetaDataBo;
+import com.navercorp.pinpoint.web.cache.MetaDataCacheKey;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Metadata resolved for a {@link MetaDataRequest}. Ids that were not requested resolve to an empty list.
+ */
+public class ResolvedMetaData {
+
+    private final Map<String, List<ApiMetaDataBo>> apiMetaData;
+    private final Map<String, List<SqlMetaDataBo>> sqlMetaData;
+    private final Map<String, List<StringMetaDataBo>> stringMetaData;
+
+    public ResolvedMetaData(Map<String, List<ApiMetaDataBo>> apiMetaData,
+                            Map<String, List<SqlMetaDataBo>> sqlMetaData,
+                            Map<String, List<StringMetaDataBo>> stringMetaData) {
+        this.apiMetaData = Objects.requireNonNull(apiMetaData, "apiMetaData");
+        this.sqlMetaData = Objects.requireNonNull(sqlMetaData, "sqlMetaData");
+        this.stringMetaData = Objects.requireNonNull(stringMetaData, "stringMetaData");
+    }
+
+    public List<ApiMetaDataBo> getApiMetaData(String agentId, long agentStartTime, int apiId) {
+        return get(apiMetaData, MetaDataCacheKey.of(agentId, agentStartTime, apiId));
+    }
+
+    public List<SqlMetaDataBo> getSqlMetaData(String agentId, long agentStartTime, int sqlId) {
+        return get(sqlMetaData, MetaDataCacheKey.of(agentId, agentStartTime, sqlId));
+    }
+
+    public List<StringMetaDataBo> getStringMetaData(String agentId, long agentStartTime, int stringId) {
+        return get(stringMetaData, MetaDataCacheKey.of(agentId, agentStartTime, stringId));
+    }
+
+    private <T> List<T> get(Map<String, List<T>> metaData, String key) {
+        final List<T> list = metaData.get(key);
+        if (list == null) {
+            return Collections.emptyList();
+        }
+        return list;
+    }
+}
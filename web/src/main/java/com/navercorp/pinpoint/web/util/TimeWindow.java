@@ -62,6 +62,10 @@ public class TimeWindow implements Iterable<Long> {
         return time;
     }
 
+    public Range getRange() {
+        return range;
+    }
+
     public Range getWindowRange() {
         return windowRange;
     }
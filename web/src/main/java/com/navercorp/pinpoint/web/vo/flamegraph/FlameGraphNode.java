@@ -0,0 +1,101 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.vo.flamegraph;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Flame graph tree merged from collapsed stacks ("frame;frame;...;frame count" per line, root frame first).
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class FlameGraphNode {
+
+    public static final String ROOT_NAME = "all";
+
+    private final String name;
+    private long value;
+    private final Map<String, FlameGraphNode> children = new LinkedHashMap<>();
+
+    public FlameGraphNode(String name) {
+        this.name = Objects.requireNonNull(name, "name");
+    }
+
+    public static FlameGraphNode root() {
+        return new FlameGraphNode(ROOT_NAME);
+    }
+
+    public void addCollapsedStacks(String collapsedStacks) {
+        if (collapsedStacks == null) {
+            return;
+        }
+        for (String line : collapsedStacks.split("\n")) {
+            addCollapsedStack(line);
+        }
+    }
+
+    void addCollapsedStack(String line) {
+        final int countIndex = line.lastIndexOf(' ');
+        if (countIndex <= 0) {
+            return;
+        }
+        final long count;
+        try {
+            count = Long.parseLong(line.substring(countIndex + 1));
+        } catch (NumberFormatException e) {
+            return;
+        }
+        final String[] frames = line.substring(0, countIndex).split(";");
+        add(frames, count);
+    }
+
+    public void add(String[] frames, long count) {
+        this.value += count;
+        FlameGraphNode node = this;
+        for (String frame : frames) {
+            node = node.children.computeIfAbsent(frame, FlameGraphNode::new);
+            node.value += count;
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getValue() {
+        return value;
+    }
+
+    public List<FlameGraphNode> getChildren() {
+        return new ArrayList<>(children.values());
+    }
+
+    @Override
+    public String toString() {
+        return "FlameGraphNode{" +
+                "name='" + name + '\'' +
+                ", value=" + value +
+                ", children=" + children.size() +
+                '}';
+    }
+}
@@ -22,6 +22,7 @@ import org.apache.logging.log4j.Logger;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
@@ -55,5 +56,50 @@ public class CollectorClusterInfoRepositoryTest {
         assertThat(info.get(clusterKey1)).isEmpty();
     }
 
+    @Test
+    public void put_replace() {
+        CollectorClusterInfoRepository info = new CollectorClusterInfoRepository();
+
+        final ClusterKey clusterKey1 = new ClusterKey("app", "agent1", 0);
+        final ClusterKey clusterKey2 = new ClusterKey("app", "agent2", 1);
+        final ClusterId collectorA = new ClusterId("/path", "/collectorA", "appName");
+        final ClusterId collectorB = new ClusterId("/path", "/collectorB", "appName");
+
+        info.put(collectorA, Set.of(clusterKey1, clusterKey2));
+        info.put(collectorB, Set.of(clusterKey1));
+        assertThat(info.get(clusterKey1)).containsExactlyInAnyOrder(collectorA, collectorB);
+
+        info.put(collectorA, Set.of(clusterKey2));
+        assertThat(info.get(clusterKey1)).containsExactly(collectorB);
+        assertThat(info.get(clusterKey2)).containsExactly(collectorA);
+
+        info.clear();
+        assertThat(info.get(clusterKey2)).isEmpty();
+    }
+
+    @Test
+    public void listener() {
+        CollectorClusterInfoRepository info = new CollectorClusterInfoRepository();
+        List<ClusterKey> changed = new ArrayList<>();
+        info.addListener(changed::add);
+
+        final ClusterKey clusterKey1 = new ClusterKey("app", "agent1", 0);
+        final ClusterKey clusterKey2 = new ClusterKey("app", "agent2", 1);
+        final ClusterId collectorA = new ClusterId("/path", "/collectorA", "appName");
+        final ClusterId collectorB = new ClusterId("/path", "/collectorB", "appName");
+
+        info.put(collectorA, Set.of(clusterKey1));
+        assertThat(changed).containsExactly(clusterKey1);
+
+        // still connected to collectorA
+        changed.clear();
+        info.put(collectorB, Set.of(clusterKey1, clusterKey2));
+        info.put(collectorA, Set.of());
+        assertThat(changed).containsExactly(clusterKey2);
+
+        changed.clear();
+        info.remove(collectorB);
+        assertThat(changed).containsExactlyInAnyOrder(clusterKey1, clusterKey2);
+    }
 
-}
\ No newline at end of file
+}
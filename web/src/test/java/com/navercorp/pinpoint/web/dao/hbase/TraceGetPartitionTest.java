@@ -0,0 +1,85 @@
+package com.navercorp.pinpoint.web.dao.hbase;
+
+import com.navercorp.pinpoint.common.profiler.util.TransactionId;
+import org.apache.hadoop.hbase.client.Get;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class TraceGetPartitionTest {
+
+    private static final int[] BUCKETS = {5, 1, 5, 3, 1, 0, 200, 3};
+
+    private List<SpanQuery> newSpanQueryList() {
+        List<SpanQuery> list = new ArrayList<>();
+        for (int i = 0; i < BUCKETS.length; i++) {
+            list.add(new SpanQuery(new TransactionId("agent", 1, i)));
+        }
+        return list;
+    }
+
+    private List<Get> newGetList() {
+        List<Get> list = new ArrayList<>();
+        for (int i = 0; i < BUCKETS.length; i++) {
+            list.add(new Get(new byte[]{(byte) BUCKETS[i], (byte) i}));
+        }
+        return list;
+    }
+
+    @Test
+    public void partition_groupByBucket() {
+        List<TraceGetPartition> partitions = TraceGetPartition.partition(newSpanQueryList(), newGetList(), 3);
+
+        Assertions.assertEquals(3, partitions.size());
+        Assertions.assertEquals(3, partitions.get(0).size());
+        Assertions.assertEquals(2, partitions.get(2).size());
+
+        int previousBucket = -1;
+        for (TraceGetPartition partition : partitions) {
+            for (Get get : partition.getGetList()) {
+                int bucket = TraceGetPartition.getDistributeBucket(get);
+                Assertions.assertTrue(previousBucket <= bucket);
+                previousBucket = bucket;
+            }
+        }
+        Assertions.assertEquals(200, previousBucket);
+    }
+
+    @Test
+    public void partition_index() {
+        List<SpanQuery> spanQueryList = newSpanQueryList();
+        List<Get> getList = newGetList();
+        List<TraceGetPartition> partitions = TraceGetPartition.partition(spanQueryList, getList, 3);
+
+        Set<Integer> indexSet = new HashSet<>();
+        for (TraceGetPartition partition : partitions) {
+            for (int i = 0; i < partition.size(); i++) {
+                int index = partition.getIndex(i);
+                Assertions.assertSame(getList.get(index), partition.getGetList().get(i));
+                Assertions.assertSame(spanQueryList.get(index), partition.getSpanQueryList().get(i));
+                indexSet.add(index);
+            }
+        }
+        Assertions.assertEquals(BUCKETS.length, indexSet.size());
+    }
+
+    @Test
+    public void partition_stable() {
+        List<TraceGetPartition> partitions = TraceGetPartition.partition(newSpanQueryList(), newGetList(), BUCKETS.length);
+
+        TraceGetPartition partition = partitions.get(0);
+        // bucket 1 : request index 1, 4
+        Assertions.assertEquals(1, partition.getIndex(1));
+        Assertions.assertEquals(4, partition.getIndex(2));
+    }
+
+    @Test
+    public void partition_sizeMismatch() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> TraceGetPartition.partition(newSpanQueryList(), newGetList().subList(0, 2), 3));
+    }
+}
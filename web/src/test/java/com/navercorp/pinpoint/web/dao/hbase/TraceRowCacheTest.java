@@ -0,0 +1,88 @@
+package com.navercorp.pinpoint.web.dao.hbase;
+
+import com.navercorp.pinpoint.common.hbase.bo.ColumnGetCount;
+import com.navercorp.pinpoint.common.profiler.util.TransactionId;
+import com.navercorp.pinpoint.web.config.TraceCacheProperties;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TraceRowCacheTest {
+
+    private static final TransactionId txId = new TransactionId("agent", 1, 2);
+
+    private TraceCacheProperties newProperties() {
+        TraceCacheProperties properties = Mockito.mock(TraceCacheProperties.class);
+        Mockito.when(properties.isEnable()).thenReturn(true);
+        Mockito.when(properties.getMaximumWeight()).thenReturn(100L);
+        Mockito.when(properties.getExpireAfterWriteSeconds()).thenReturn(600L);
+        Mockito.when(properties.getRecentThresholdSeconds()).thenReturn(60L);
+        Mockito.when(properties.getRecentExpireAfterWriteSeconds()).thenReturn(10L);
+        return properties;
+    }
+
+    private Result newResult(long timestamp) {
+        byte[] row = Bytes.toBytes("row");
+        Cell cell = new KeyValue(row, Bytes.toBytes("S"), Bytes.toBytes("q"), timestamp, Bytes.toBytes("value"));
+        return Result.create(new Cell[]{cell});
+    }
+
+    @Test
+    public void get_cached() {
+        TraceRowCache cache = new TraceRowCache(newProperties(), () -> 1000_000);
+        AtomicInteger fetchCount = new AtomicInteger();
+        Result result = newResult(1000);
+
+        Result first = cache.get(txId, ColumnGetCount.of(10), key -> {
+            fetchCount.incrementAndGet();
+            return result;
+        });
+        Result second = cache.get(txId, ColumnGetCount.of(10), key -> {
+            fetchCount.incrementAndGet();
+            return result;
+        });
+
+        Assertions.assertSame(first, second);
+        Assertions.assertEquals(1, fetchCount.get());
+    }
+
+    @Test
+    public void get_columnGetCount() {
+        TraceRowCache cache = new TraceRowCache(newProperties(), () -> 1000_000);
+        AtomicInteger fetchCount = new AtomicInteger();
+
+        cache.get(txId, ColumnGetCount.of(10), key -> {
+            fetchCount.incrementAndGet();
+            return newResult(1000);
+        });
+        cache.get(txId, ColumnGetCount.of(20), key -> {
+            fetchCount.incrementAndGet();
+            return newResult(1000);
+        });
+        cache.get(txId, null, key -> {
+            fetchCount.incrementAndGet();
+            return newResult(1000);
+        });
+        cache.get(txId, ColumnGetCount.UNLIMITED_COLUMN_GET_COUNT, key -> {
+            fetchCount.incrementAndGet();
+            return newResult(1000);
+        });
+
+        Assertions.assertEquals(3, fetchCount.get());
+    }
+
+    @Test
+    public void isRecent() {
+        TraceRowCache cache = new TraceRowCache(newProperties(), () -> 100_000);
+
+        Assertions.assertTrue(cache.isRecent(newResult(90_000)));
+        Assertions.assertFalse(cache.isRecent(newResult(10_000)));
+        Assertions.assertTrue(cache.isRecent(Result.EMPTY_RESULT));
+    }
+}
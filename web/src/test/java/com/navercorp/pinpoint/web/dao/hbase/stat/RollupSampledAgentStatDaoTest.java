@@ -0,0 +1,132 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.dao.hbase.stat;
+
+import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatDecoder;
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatType;
+import com.navercorp.pinpoint.common.server.bo.stat.CpuLoadBo;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.AgentStatResolution;
+import com.navercorp.pinpoint.common.server.util.time.Range;
+import com.navercorp.pinpoint.web.dao.SampledAgentStatDao;
+import com.navercorp.pinpoint.web.mapper.stat.AgentStatMapperV2;
+import com.navercorp.pinpoint.web.mapper.stat.sampling.sampler.AgentStatSampler;
+import com.navercorp.pinpoint.web.util.TimeWindow;
+import com.navercorp.pinpoint.web.vo.stat.SampledCpuLoad;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class RollupSampledAgentStatDaoTest {
+
+    private static final String AGENT_ID = "agentId";
+    private static final long ROLLUP_DELAY_MILLIS = TimeUnit.SECONDS.toMillis(70);
+
+    @Mock
+    HbaseAgentStatDaoOperations operations;
+    @Mock
+    AgentStatDecoder<CpuLoadBo> decoder;
+    @Mock
+    AgentStatSampler<CpuLoadBo, SampledCpuLoad> sampler;
+    @Mock
+    SampledAgentStatDao<SampledCpuLoad> rawDao;
+    @Mock
+    AgentStatMapperV2<CpuLoadBo> mapper;
+
+    RollupSampledAgentStatDao<CpuLoadBo, SampledCpuLoad> dao;
+
+    @BeforeEach
+    public void setUp() {
+        dao = new RollupSampledAgentStatDao<>(AgentStatType.CPU_LOAD, operations, decoder, sampler, rawDao, ROLLUP_DELAY_MILLIS);
+    }
+
+    @Test
+    public void shortRange_raw() {
+        TimeWindow timeWindow = newTimeWindow(TimeUnit.MINUTES.toMillis(20), TimeUnit.SECONDS.toMillis(5));
+
+        dao.getSampledAgentStatList(AGENT_ID, timeWindow);
+
+        verify(rawDao).getSampledAgentStatList(AGENT_ID, timeWindow);
+        verify(operations, never()).getAgentStat(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    public void longRange_rollup() {
+        TimeWindow timeWindow = newTimeWindow(TimeUnit.DAYS.toMillis(14), TimeUnit.HOURS.toMillis(2));
+        when(operations.createRowMapper(eq(decoder), any())).thenReturn(mapper);
+
+        dao.getSampledAgentStatList(AGENT_ID, timeWindow);
+
+        verify(rawDao, never()).getSampledAgentStatList(any(), any());
+
+        ArgumentCaptor<Range> rawRange = ArgumentCaptor.forClass(Range.class);
+        verify(operations).getAgentStat(eq(AgentStatType.CPU_LOAD), eq(AgentStatResolution.RAW), any(), eq(AGENT_ID), rawRange.capture());
+        ArgumentCaptor<Range> rollupRange = ArgumentCaptor.forClass(Range.class);
+        verify(operations).getAgentStat(eq(AgentStatType.CPU_LOAD), eq(AgentStatResolution.ONE_HOUR), any(), eq(AGENT_ID), rollupRange.capture());
+
+        // the timeslots not flushed by the collector yet are read from the raw data points
+        Range range = timeWindow.getWindowSlotRange();
+        long lastFlushed = timeWindow.getRange().getTo() - TimeUnit.HOURS.toMillis(1) - ROLLUP_DELAY_MILLIS;
+        assertThat(rawRange.getValue().getTo()).isEqualTo(range.getTo());
+        assertThat(rawRange.getValue().getFrom()).isEqualTo(AgentStatResolution.ONE_HOUR.getTimeslot(lastFlushed));
+        assertThat(rollupRange.getValue().getFrom()).isEqualTo(range.getFrom());
+        assertThat(rollupRange.getValue().getTo()).isEqualTo(rawRange.getValue().getFrom() - 1);
+    }
+
+    @Test
+    public void longRange_justPastTimeslot() {
+        // the timeslot closed 5 seconds ago is still waiting for its lateness
+        long timeslot = TimeUnit.DAYS.toMillis(20000) + TimeUnit.HOURS.toMillis(6);
+        long to = timeslot + TimeUnit.SECONDS.toMillis(5);
+        TimeWindow timeWindow = newTimeWindow(to, TimeUnit.DAYS.toMillis(14), TimeUnit.HOURS.toMillis(2));
+        when(operations.createRowMapper(eq(decoder), any())).thenReturn(mapper);
+
+        dao.getSampledAgentStatList(AGENT_ID, timeWindow);
+
+        ArgumentCaptor<Range> rawRange = ArgumentCaptor.forClass(Range.class);
+        verify(operations).getAgentStat(eq(AgentStatType.CPU_LOAD), eq(AgentStatResolution.RAW), any(), eq(AGENT_ID), rawRange.capture());
+        ArgumentCaptor<Range> rollupRange = ArgumentCaptor.forClass(Range.class);
+        verify(operations).getAgentStat(eq(AgentStatType.CPU_LOAD), eq(AgentStatResolution.ONE_HOUR), any(), eq(AGENT_ID), rollupRange.capture());
+
+        long slotMillis = TimeUnit.HOURS.toMillis(1);
+        assertThat(rawRange.getValue().getFrom()).isLessThanOrEqualTo(timeslot - slotMillis);
+        assertThat(rollupRange.getValue().getTo()).isLessThan(timeslot - slotMillis);
+        assertThat(rollupRange.getValue().getTo()).isEqualTo(rawRange.getValue().getFrom() - 1);
+    }
+
+    private TimeWindow newTimeWindow(long duration, long windowSize) {
+        long to = TimeUnit.DAYS.toMillis(20000) + TimeUnit.MINUTES.toMillis(17);
+        return newTimeWindow(to, duration, windowSize);
+    }
+
+    private TimeWindow newTimeWindow(long to, long duration, long windowSize) {
+        return new TimeWindow(Range.between(to - duration, to), range -> windowSize);
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.dao.local;
+
+import com.navercorp.pinpoint.common.buffer.AutomaticBuffer;
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.hbase.HbaseColumnFamily;
+import com.navercorp.pinpoint.common.profiler.util.TransactionId;
+import com.navercorp.pinpoint.common.server.bo.serializer.agent.ApplicationNameRowKeyEncoder;
+import com.navercorp.pinpoint.common.server.dao.local.CellRecordCodec;
+import com.navercorp.pinpoint.common.server.dao.local.SegmentStore;
+import com.navercorp.pinpoint.common.server.dao.local.SegmentStoreProperties;
+import com.navercorp.pinpoint.common.server.util.time.Range;
+import com.navercorp.pinpoint.web.mapper.TraceIndexScatterMapper;
+import com.navercorp.pinpoint.web.mapper.TransactionIdMapper;
+import com.navercorp.pinpoint.web.scatter.DragArea;
+import com.navercorp.pinpoint.web.scatter.DragAreaQuery;
+import com.navercorp.pinpoint.web.vo.LimitedScanResult;
+import com.navercorp.pinpoint.web.vo.scatter.Dot;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+public class LocalApplicationTraceIndexDaoTest {
+
+    private static final String APPLICATION_NAME = "application";
+
+    @TempDir
+    Path directory;
+
+    private SegmentStore store;
+    private LocalApplicationTraceIndexDao applicationTraceIndexDao;
+
+    private final ApplicationNameRowKeyEncoder rowKeyEncoder = new ApplicationNameRowKeyEncoder();
+
+    @BeforeEach
+    public void setUp() {
+        SegmentStoreProperties.Builder builder = SegmentStoreProperties.newBuilder();
+        builder.setDirectory(directory.toString());
+        this.store = new SegmentStore("applicationTraceIndex", builder.build());
+        this.applicationTraceIndexDao = new LocalApplicationTraceIndexDao(store, new TransactionIdMapper(), new TraceIndexScatterMapper());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        store.close();
+    }
+
+    private void insert(long sequence, long acceptedTime, int elapsed) {
+        // same layout as the collector ApplicationTraceIndex row with a one byte distribute prefix
+        byte[] rowKey = Bytes.add(new byte[]{1}, rowKeyEncoder.encodeRowKey(APPLICATION_NAME, acceptedTime));
+
+        Buffer qualifier = new AutomaticBuffer(32);
+        qualifier.putPrefixedString("agent");
+        qualifier.putSVLong(100);
+        qualifier.putVLong(sequence);
+
+        Buffer value = new AutomaticBuffer(32);
+        value.putVInt(elapsed);
+        value.putSVInt(0);
+        value.putPrefixedString("agent");
+
+        Put put = new Put(rowKey);
+        put.addColumn(HbaseColumnFamily.APPLICATION_TRACE_INDEX_TRACE.getName(), qualifier.copyBuffer(), acceptedTime, value.copyBuffer());
+        store.append(Bytes.toBytes(APPLICATION_NAME), acceptedTime, CellRecordCodec.encode(put));
+    }
+
+    @Test
+    public void scanTraceScatterData() {
+        long now = System.currentTimeMillis();
+        insert(1, now - 2000, 100);
+        insert(2, now - 1000, 200);
+        insert(3, now, 300);
+
+        Range range = Range.between(now - 2000, now);
+        LimitedScanResult<List<Dot>> all = applicationTraceIndexDao.scanTraceScatterData(APPLICATION_NAME, range, 10, true);
+        Assertions.assertEquals(3, all.getScanData().size());
+        Assertions.assertEquals(now, all.getScanData().get(0).getAcceptedTime());
+        Assertions.assertEquals(range.getFrom(), all.getLimitedTime());
+
+        LimitedScanResult<List<TransactionId>> limited = applicationTraceIndexDao.scanTraceIndex(APPLICATION_NAME, range, 2, true);
+        Assertions.assertEquals(2, limited.getScanData().size());
+        Assertions.assertEquals(3, limited.getScanData().get(0).getTransactionSequence());
+        Assertions.assertEquals(now - 1000, limited.getLimitedTime());
+    }
+
+    @Test
+    public void scanScatterData_dragArea() {
+        long now = System.currentTimeMillis();
+        insert(1, now - 2000, 100);
+        insert(2, now - 1000, 2000);
+        insert(3, now, 300);
+
+        DragArea dragArea = DragArea.normalize(now - 2000, now, 1000, 5000);
+        LimitedScanResult<List<Dot>> dots = applicationTraceIndexDao.scanScatterData(APPLICATION_NAME, new DragAreaQuery(dragArea), 10);
+        Assertions.assertEquals(1, dots.getScanData().size());
+        Assertions.assertEquals(2, dots.getScanData().get(0).getTransactionId().getTransactionSequence());
+
+        LimitedScanResult<List<TransactionId>> transactionIds = applicationTraceIndexDao.scanTraceIndex(APPLICATION_NAME, dragArea, 10);
+        Assertions.assertEquals(1, transactionIds.getScanData().size());
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.dao.local;
+
+import com.navercorp.pinpoint.common.hbase.bo.ColumnGetCount;
+import com.navercorp.pinpoint.common.hbase.distributor.RangeOneByteSimpleHash;
+import com.navercorp.pinpoint.common.profiler.util.TransactionId;
+import com.navercorp.pinpoint.common.server.bo.SpanBo;
+import com.navercorp.pinpoint.common.server.bo.serializer.RowKeyEncoder;
+import com.navercorp.pinpoint.common.server.bo.serializer.trace.v2.SpanEncoderV0;
+import com.navercorp.pinpoint.common.server.bo.serializer.trace.v2.SpanSerializerV2;
+import com.navercorp.pinpoint.common.server.bo.serializer.trace.v2.TraceRowKeyDecoderV2;
+import com.navercorp.pinpoint.common.server.bo.serializer.trace.v2.TraceRowKeyEncoderV2;
+import com.navercorp.pinpoint.common.server.dao.local.CellRecordCodec;
+import com.navercorp.pinpoint.common.server.dao.local.SegmentStore;
+import com.navercorp.pinpoint.common.server.dao.local.SegmentStoreProperties;
+import com.navercorp.pinpoint.web.mapper.SpanMapperFactory;
+import com.navercorp.pinpoint.web.service.FetchResult;
+import com.sematext.hbase.wd.RowKeyDistributorByHashPrefix;
+import org.apache.hadoop.hbase.client.Put;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+public class LocalTraceDaoTest {
+
+    @TempDir
+    Path directory;
+
+    private SegmentStore store;
+    private LocalTraceDao traceDao;
+
+    private final RowKeyEncoder<TransactionId> rowKeyEncoder = new TraceRowKeyEncoderV2(
+            new RowKeyDistributorByHashPrefix(new RangeOneByteSimpleHash(32, 40, 256)));
+    private final SpanSerializerV2 spanSerializer = new SpanSerializerV2(new SpanEncoderV0());
+
+    @BeforeEach
+    public void setUp() {
+        SegmentStoreProperties.Builder builder = SegmentStoreProperties.newBuilder();
+        builder.setDirectory(directory.toString());
+        this.store = new SegmentStore("trace", builder.build());
+        this.traceDao = new LocalTraceDao(store, rowKeyEncoder, new SpanMapperFactory(new TraceRowKeyDecoderV2(), -1));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        store.close();
+    }
+
+    private SpanBo newSpanBo(TransactionId transactionId, long spanId, long acceptedTime) {
+        SpanBo spanBo = new SpanBo();
+        spanBo.setTransactionId(transactionId);
+        spanBo.setVersion(1);
+        spanBo.setAgentId("agent");
+        spanBo.setApplicationId("application");
+        spanBo.setAgentStartTime(transactionId.getAgentStartTime());
+        spanBo.setSpanId(spanId);
+        spanBo.setParentSpanId(-1);
+        spanBo.setCollectorAcceptTime(acceptedTime);
+        spanBo.setStartTime(acceptedTime - 10);
+        spanBo.setElapsed(10);
+        spanBo.setServiceType((short) 1000);
+        spanBo.setApplicationServiceType((short) 1000);
+        return spanBo;
+    }
+
+    private void insert(SpanBo spanBo) {
+        Put put = new Put(rowKeyEncoder.encodeRowKey(spanBo.getTransactionId()), spanBo.getCollectorAcceptTime());
+        spanSerializer.serialize(spanBo, put, null);
+        store.append(put.getRow(), put.getTimestamp(), CellRecordCodec.encode(put));
+    }
+
+    @Test
+    public void selectSpan() {
+        long now = System.currentTimeMillis();
+        TransactionId transactionId = new TransactionId("agent", now - 1000, 1);
+        insert(newSpanBo(transactionId, 10, now));
+        insert(newSpanBo(transactionId, 20, now + 1));
+
+        List<SpanBo> spanBos = traceDao.selectSpan(transactionId);
+        Assertions.assertEquals(2, spanBos.size());
+        Assertions.assertEquals(transactionId, spanBos.get(0).getTransactionId());
+
+        FetchResult<List<SpanBo>> limited = traceDao.selectSpan(transactionId, ColumnGetCount.of(1));
+        Assertions.assertEquals(1, limited.getFetchCount());
+        Assertions.assertEquals(1, limited.getData().size());
+    }
+
+    @Test
+    public void selectAllSpans() {
+        long now = System.currentTimeMillis();
+        TransactionId transactionId = new TransactionId("agent", now - 1000, 1);
+        TransactionId unknown = new TransactionId("agent", now - 1000, 2);
+        insert(newSpanBo(transactionId, 10, now));
+
+        List<List<SpanBo>> spanBos = traceDao.selectAllSpans(List.of(unknown, transactionId));
+        Assertions.assertEquals(2, spanBos.size());
+        Assertions.assertTrue(spanBos.get(0).isEmpty());
+        Assertions.assertEquals(10, spanBos.get(1).get(0).getSpanId());
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.mapper;
+
+import com.navercorp.pinpoint.common.buffer.AutomaticBuffer;
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.hbase.HbaseColumnFamily;
+import com.navercorp.pinpoint.common.profiler.util.TransactionId;
+import com.navercorp.pinpoint.common.server.bo.SpanBo;
+import com.navercorp.pinpoint.common.server.bo.serializer.agent.ApplicationNameRowKeyEncoder;
+import com.navercorp.pinpoint.common.server.scatter.ScatterBlock;
+import com.navercorp.pinpoint.common.server.scatter.ScatterBlockCodec;
+import com.navercorp.pinpoint.common.server.util.SpanUtils;
+import com.navercorp.pinpoint.common.server.util.time.Range;
+import com.navercorp.pinpoint.web.vo.scatter.Dot;
+import com.navercorp.pinpoint.web.vo.scatter.DotMetaData;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.client.Result;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TraceIndexScatterMapperTest {
+
+    private static final HbaseColumnFamily.ApplicationTraceIndexTrace INDEX = HbaseColumnFamily.APPLICATION_TRACE_INDEX_TRACE;
+    private static final HbaseColumnFamily.ApplicationTraceIndexTrace META = HbaseColumnFamily.APPLICATION_TRACE_INDEX_META;
+
+    private static final long BLOCK_TIME = 1_700_000_000_000L;
+
+    private Result result;
+
+    @BeforeEach
+    public void setUp() {
+        final byte[] rowKey = rowKey(BLOCK_TIME);
+
+        ScatterBlock block = new ScatterBlock();
+        block.add(newSpan(1, "/a"), BLOCK_TIME + 10);
+        block.add(newSpan(2, "/b"), BLOCK_TIME + 500);
+        block.add(newSpan(3, "/a"), BLOCK_TIME + 900);
+        final byte[] qualifier = ScatterBlockCodec.encodeQualifier(7, 1);
+
+        SpanBo rowSpan = newSpan(4, "/c");
+        Buffer rowValue = new AutomaticBuffer();
+        rowValue.putVInt(rowSpan.getElapsed());
+        rowValue.putSVInt(rowSpan.getErrCode());
+        rowValue.putPrefixedString(rowSpan.getAgentId());
+
+        Cell[] cells = {
+                new KeyValue(rowKey, INDEX.getName(), qualifier, block.getMaxAcceptedTime(), ScatterBlockCodec.encodeIndex(block)),
+                new KeyValue(rowKey, INDEX.getName(), SpanUtils.getVarTransactionId(rowSpan), BLOCK_TIME, rowValue.getBuffer()),
+                new KeyValue(rowKey, META.getName(), qualifier, ScatterBlockCodec.encodeMetaData(block)),
+        };
+        result = Result.create(cells);
+    }
+
+    @Test
+    public void mapRowAndBlock() throws Exception {
+        List<Dot> dots = new TraceIndexScatterMapper().mapRow(result, 0);
+
+        assertThat(dots).extracting(Dot::getAcceptedTime)
+                .containsExactly(BLOCK_TIME + 10, BLOCK_TIME + 500, BLOCK_TIME + 900, BLOCK_TIME);
+        assertThat(dots).extracting(Dot::getElapsedTime)
+                .containsExactly(10, 20, 30, 40);
+        assertThat(dots.get(1).getTransactionId()).isEqualTo(new TransactionId("agent", 1, 2));
+    }
+
+    @Test
+    public void filter() throws Exception {
+        List<Dot> dots = new TraceIndexScatterMapper(dot -> dot.getElapsedTime() > 15).mapRow(result, 0);
+
+        assertThat(dots).hasSize(3);
+    }
+
+    @Test
+    public void transactionIdRange() throws Exception {
+        List<TransactionId> all = new TransactionIdMapper().mapRow(result, 0);
+        assertThat(all).hasSize(4);
+
+        Range range = Range.newRange(BLOCK_TIME + 100, BLOCK_TIME + 900);
+        List<TransactionId> ranged = new TransactionIdMapper(range).mapRow(result, 0);
+        assertThat(ranged).containsExactly(new TransactionId("agent", 1, 2), new TransactionId("agent", 1, 3));
+    }
+
+    @Test
+    public void metaData() throws Exception {
+        List<DotMetaData> metaData = new TraceIndexMetaScatterMapper().mapRow(result, 0);
+
+        // the row format cell has no meta data cell in this row
+        List<DotMetaData> blockMetaData = metaData.stream()
+                .filter(dotMetaData -> dotMetaData.getRpc() != null)
+                .collect(Collectors.toList());
+        assertThat(blockMetaData).extracting(DotMetaData::getRpc).containsExactly("/a", "/b", "/a");
+        assertThat(blockMetaData).extracting(DotMetaData::getSpanId).containsExactly(100L, 200L, 300L);
+        assertThat(blockMetaData.get(2).getDot().getAcceptedTime()).isEqualTo(BLOCK_TIME + 900);
+    }
+
+    private byte[] rowKey(long time) {
+        byte[] rowKey = new ApplicationNameRowKeyEncoder().encodeRowKey("app", time);
+        byte[] distributed = new byte[rowKey.length + INDEX.ROW_DISTRIBUTE_SIZE];
+        System.arraycopy(rowKey, 0, distributed, INDEX.ROW_DISTRIBUTE_SIZE, rowKey.length);
+        return distributed;
+    }
+
+    private SpanBo newSpan(int sequence, String rpc) {
+        SpanBo span = new SpanBo();
+        span.setAgentId("agent");
+        span.setTransactionId(new TransactionId("agent", 1, sequence));
+        span.setElapsed(sequence * 10);
+        span.setSpanId(sequence * 100L);
+        span.setRpc(rpc);
+        return span;
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.service;
+
+import com.navercorp.pinpoint.common.server.cluster.ClusterKey;
+import com.navercorp.pinpoint.common.server.util.AgentLifeCycleState;
+import com.navercorp.pinpoint.common.trace.ServiceType;
+import com.navercorp.pinpoint.web.cluster.ClusterDataManager;
+import com.navercorp.pinpoint.web.cluster.ClusterManager;
+import com.navercorp.pinpoint.web.config.AgentDirectoryProperties;
+import com.navercorp.pinpoint.web.dao.AgentInfoDao;
+import com.navercorp.pinpoint.web.dao.AgentLifeCycleDao;
+import com.navercorp.pinpoint.web.dao.ApplicationIndexDao;
+import com.navercorp.pinpoint.web.vo.Application;
+import com.navercorp.pinpoint.web.vo.agent.AgentInfo;
+import com.navercorp.pinpoint.web.vo.agent.AgentStatus;
+import com.navercorp.pinpoint.web.vo.agent.AgentStatusQuery;
+import com.navercorp.pinpoint.web.vo.agent.DetailedAgentInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class AgentDirectoryTest {
+
+    private static final long REFRESH_INTERVAL_SECONDS = 60;
+    private static final long MAX_STALENESS_SECONDS = 120;
+
+    @Mock
+    ApplicationIndexDao applicationIndexDao;
+    @Mock
+    AgentInfoDao agentInfoDao;
+    @Mock
+    AgentLifeCycleDao agentLifeCycleDao;
+    @Mock
+    ClusterDataManager clusterDataManager;
+    @Mock
+    ClusterManager clusterManager;
+    @Mock
+    AgentDirectoryProperties properties;
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+
+    AgentDirectory agentDirectory;
+
+    @BeforeEach
+    public void setUp() {
+        when(properties.getRefreshIntervalSeconds()).thenReturn(REFRESH_INTERVAL_SECONDS);
+        when(properties.getMaxStalenessSeconds()).thenReturn(MAX_STALENESS_SECONDS);
+        agentDirectory = new AgentDirectory(applicationIndexDao, agentInfoDao, agentLifeCycleDao, clusterDataManager, clusterManager,
+                Runnable::run, properties, now::get);
+    }
+
+    @Test
+    public void refresh() {
+        List<Application> applications = List.of(new Application("app1", ServiceType.TEST), new Application("app2", ServiceType.TEST));
+        when(applicationIndexDao.selectAllApplicationNames()).thenReturn(applications);
+        List<Optional<AgentStatus>> agentStatus1 = mockApplication("app1", "agent1");
+        List<Optional<AgentStatus>> agentStatus2 = mockApplication("app2", "agent2");
+        when(agentLifeCycleDao.getAgentStatus(any(AgentStatusQuery.class))).thenReturn(agentStatus1, agentStatus2);
+
+        assertThat(agentDirectory.getSnapshot(now.get())).isNull();
+
+        agentDirectory.refresh();
+
+        AgentDirectory.Snapshot snapshot = agentDirectory.getSnapshot(now.get());
+        assertThat(snapshot).isNotNull();
+        assertThat(snapshot.getAgents())
+                .extracting(agent -> agent.getAgentInfo().getAgentId())
+                .containsExactlyInAnyOrder("agent1", "agent2");
+        assertThat(snapshot.getDetailedAgents()).hasSize(2);
+    }
+
+    @Test
+    public void getSnapshot_old() {
+        when(applicationIndexDao.selectAllApplicationNames()).thenReturn(List.of());
+        agentDirectory.refresh();
+
+        assertThat(agentDirectory.getSnapshot(now.get())).isNotNull();
+        assertThat(agentDirectory.getSnapshot(now.get() - 1)).isNull();
+    }
+
+    @Test
+    public void refresh_applicationFailed() {
+        List<Application> applications = List.of(new Application("app1", ServiceType.TEST), new Application("app2", ServiceType.TEST));
+        when(applicationIndexDao.selectAllApplicationNames()).thenReturn(applications);
+        List<Optional<AgentStatus>> agentStatus1 = mockApplication("app1", "agent1");
+        when(applicationIndexDao.selectAgentIds("app2")).thenThrow(new IllegalStateException("app2 failed"));
+        when(agentLifeCycleDao.getAgentStatus(any(AgentStatusQuery.class))).thenReturn(agentStatus1);
+
+        agentDirectory.refresh();
+
+        AgentDirectory.Snapshot snapshot = agentDirectory.getSnapshot(now.get());
+        assertThat(snapshot).isNotNull();
+        assertThat(snapshot.getAgents())
+                .extracting(agent -> agent.getAgentInfo().getAgentId())
+                .containsExactly("agent1");
+    }
+
+    @Test
+    public void update() {
+        when(applicationIndexDao.selectAllApplicationNames()).thenReturn(List.of());
+        agentDirectory.refresh();
+        assertThat(agentDirectory.getSnapshot(now.get()).getAgents()).isEmpty();
+
+        List<Optional<AgentStatus>> agentStatus = mockApplication("app1", "agent1");
+        when(agentLifeCycleDao.getAgentStatus(any(AgentStatusQuery.class))).thenReturn(agentStatus);
+        agentDirectory.onAgentChanged(new ClusterKey("app1", "agent1", 0));
+        agentDirectory.update();
+
+        assertThat(agentDirectory.getSnapshot(now.get()).getAgents())
+                .extracting(agent -> agent.getAgentInfo().getAgentId())
+                .containsExactly("agent1");
+
+        // nothing changed since the last update
+        agentDirectory.update();
+        verify(applicationIndexDao, times(1)).selectAgentIds("app1");
+    }
+
+    @Test
+    public void getSnapshot_stale() {
+        when(clusterManager.isEnabled()).thenReturn(true);
+        when(clusterDataManager.isConnected()).thenReturn(true);
+        when(applicationIndexDao.selectAllApplicationNames()).thenReturn(List.of());
+        agentDirectory.refresh();
+
+        now.addAndGet(MAX_STALENESS_SECONDS * 1000);
+        assertThat(agentDirectory.getSnapshot(now.get())).isNotNull();
+
+        now.incrementAndGet();
+        assertThat(agentDirectory.getSnapshot(now.get())).isNull();
+    }
+
+    @Test
+    public void getSnapshot_stale_clusterDisabled() {
+        when(clusterManager.isEnabled()).thenReturn(false);
+        when(applicationIndexDao.selectAllApplicationNames()).thenReturn(List.of());
+        agentDirectory.refresh();
+
+        now.addAndGet(REFRESH_INTERVAL_SECONDS * 1000);
+        assertThat(agentDirectory.getSnapshot(now.get())).isNotNull();
+
+        now.incrementAndGet();
+        assertThat(agentDirectory.getSnapshot(now.get())).isNull();
+    }
+
+    @Test
+    public void getSnapshot_stale_clusterDisconnected() {
+        when(clusterManager.isEnabled()).thenReturn(true);
+        when(clusterDataManager.isConnected()).thenReturn(false);
+        when(applicationIndexDao.selectAllApplicationNames()).thenReturn(List.of());
+        agentDirectory.refresh();
+
+        now.addAndGet(REFRESH_INTERVAL_SECONDS * 1000);
+        assertThat(agentDirectory.getSnapshot(now.get())).isNotNull();
+
+        now.incrementAndGet();
+        assertThat(agentDirectory.getSnapshot(now.get())).isNull();
+    }
+
+    private List<Optional<AgentStatus>> mockApplication(String applicationName, String agentId) {
+        AgentInfo agentInfo = new AgentInfo();
+        agentInfo.setApplicationName(applicationName);
+        agentInfo.setAgentId(agentId);
+        List<DetailedAgentInfo> agentInfos = List.of(new DetailedAgentInfo(agentInfo, null, null));
+
+        when(applicationIndexDao.selectAgentIds(applicationName)).thenReturn(List.of(agentId));
+        when(agentInfoDao.getDetailedAgentInfos(List.of(agentId), now.get(), false, true)).thenReturn(agentInfos);
+        return List.of(Optional.of(new AgentStatus(agentId, AgentLifeCycleState.RUNNING, now.get())));
+    }
+}
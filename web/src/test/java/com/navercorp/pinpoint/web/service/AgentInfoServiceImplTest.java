@@ -0,0 +1,85 @@
+package com.navercorp.pinpoint.web.service;
+
+import com.navercorp.pinpoint.common.server.bo.stat.JvmGcBo;
+import com.navercorp.pinpoint.common.server.util.AgentEventType;
+import com.navercorp.pinpoint.common.server.util.time.Range;
+import com.navercorp.pinpoint.web.dao.AgentInfoDao;
+import com.navercorp.pinpoint.web.dao.AgentLifeCycleDao;
+import com.navercorp.pinpoint.web.dao.ApplicationIndexDao;
+import com.navercorp.pinpoint.web.dao.stat.AgentStatDao;
+import com.navercorp.pinpoint.web.hyperlink.HyperLinkFactory;
+import com.navercorp.pinpoint.web.service.stat.AgentWarningStatService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class AgentInfoServiceImplTest {
+
+    private static final Range RANGE = Range.between(1000, 2000);
+
+    @Mock
+    AgentEventService agentEventService;
+    @Mock
+    AgentWarningStatService agentWarningStatService;
+    @Mock
+    ApplicationIndexDao applicationIndexDao;
+    @Mock
+    AgentInfoDao agentInfoDao;
+    @Mock
+    AgentLifeCycleDao agentLifeCycleDao;
+    @Mock
+    AgentStatDao<JvmGcBo> jvmGcDao;
+    @Mock
+    HyperLinkFactory hyperLinkFactory;
+    @Mock
+    AgentDirectory agentDirectory;
+
+    AgentInfoService agentInfoService;
+
+    @BeforeEach
+    public void setUp() {
+        agentInfoService = new AgentInfoServiceImpl(agentEventService, agentWarningStatService, applicationIndexDao,
+                agentInfoDao, agentLifeCycleDao, jvmGcDao, hyperLinkFactory, agentDirectory);
+    }
+
+    @Test
+    public void getActiveAgentIds() {
+        List<String> agentIds = List.of("agent0", "agent1", "agent2", "agent3");
+        when(jvmGcDao.agentStatExists(agentIds, RANGE)).thenReturn(List.of(true, false, false, true));
+        when(agentEventService.agentEventExists(List.of("agent1", "agent2"), RANGE, AgentEventType.AGENT_PING))
+                .thenReturn(List.of(false, true));
+
+        List<String> activeAgentIds = agentInfoService.getActiveAgentIds(agentIds, RANGE);
+
+        assertThat(activeAgentIds).containsExactly("agent0", "agent2", "agent3");
+    }
+
+    @Test
+    public void getActiveAgentIds_allStatExists() {
+        List<String> agentIds = List.of("agent0", "agent1");
+        when(jvmGcDao.agentStatExists(agentIds, RANGE)).thenReturn(List.of(true, true));
+
+        List<String> activeAgentIds = agentInfoService.getActiveAgentIds(agentIds, RANGE);
+
+        assertThat(activeAgentIds).containsExactly("agent0", "agent1");
+        verify(agentEventService, never()).agentEventExists(anyList(), any(), any());
+    }
+
+    @Test
+    public void getActiveAgentIds_empty() {
+        assertThat(agentInfoService.getActiveAgentIds(List.of(), RANGE)).isEmpty();
+        verify(jvmGcDao, never()).agentStatExists(anyList(), any());
+    }
+}
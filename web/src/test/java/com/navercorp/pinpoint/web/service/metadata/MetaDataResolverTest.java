@@ -0,0 +1,154 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.service.metadata;
+
+import com.navercorp.pinpoint.common.server.bo.ApiMetaDataBo;
+import com.navercorp.pinpoint.common.server.bo.MethodTypeEnum;
+import com.navercorp.pinpoint.common.server.bo.SqlMetaDataBo;
+import com.navercorp.pinpoint.common.server.bo.serializer.metadata.MetaDataRowKey;
+import com.navercorp.pinpoint.web.cache.CacheConfiguration;
+import com.navercorp.pinpoint.web.dao.ApiMetaDataDao;
+import com.navercorp.pinpoint.web.dao.SqlMetaDataDao;
+import com.navercorp.pinpoint.web.dao.StringMetaDataDao;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class MetaDataResolverTest {
+
+    @Mock
+    ApiMetaDataDao apiMetaDataDao;
+    @Mock
+    SqlMetaDataDao sqlMetaDataDao;
+    @Mock
+    StringMetaDataDao stringMetaDataDao;
+
+    MetaDataResolver resolver;
+
+    @BeforeEach
+    public void setUp() {
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(
+                CacheConfiguration.API_METADATA_CACHE_NAME,
+                CacheConfiguration.SQL_METADATA_CACHE_NAME,
+                CacheConfiguration.STRING_METADATA_CACHE_NAME);
+        resolver = new MetaDataResolver(apiMetaDataDao, sqlMetaDataDao, stringMetaDataDao, cacheManager);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void resolve_oneMultiGetPerTable() {
+        SqlMetaDataBo sql1 = new SqlMetaDataBo("agent", 1, 10, "select 1");
+        List<List<SqlMetaDataBo>> fetched = List.of(List.of(sql1), Collections.emptyList());
+        when(sqlMetaDataDao.getSqlMetaData(anyList())).thenReturn(fetched);
+
+        MetaDataRequest request = new MetaDataRequest();
+        request.addSqlId("agent", 1, 10);
+        request.addSqlId("agent", 1, 10);
+        request.addSqlId("agent", 1, 11);
+
+        ResolvedMetaData metaData = resolver.resolve(request);
+
+        Assertions.assertEquals(List.of(sql1), metaData.getSqlMetaData("agent", 1, 10));
+        Assertions.assertTrue(metaData.getSqlMetaData("agent", 1, 11).isEmpty());
+        Assertions.assertTrue(metaData.getSqlMetaData("agent", 1, 12).isEmpty());
+
+        ArgumentCaptor<List<MetaDataRowKey>> captor = ArgumentCaptor.forClass(List.class);
+        verify(sqlMetaDataDao, times(1)).getSqlMetaData(captor.capture());
+        Assertions.assertEquals(2, captor.getValue().size());
+        verify(apiMetaDataDao, never()).getApiMetaData(anyList());
+        verify(stringMetaDataDao, never()).getStringMetaData(anyList());
+    }
+
+    @Test
+    public void resolve_cached() {
+        SqlMetaDataBo sql1 = new SqlMetaDataBo("agent", 1, 10, "select 1");
+        List<List<SqlMetaDataBo>> fetched = List.of(List.of(sql1));
+        when(sqlMetaDataDao.getSqlMetaData(anyList())).thenReturn(fetched);
+
+        MetaDataRequest request = new MetaDataRequest();
+        request.addSqlId("agent", 1, 10);
+
+        resolver.resolve(request);
+        ResolvedMetaData metaData = resolver.resolve(request);
+
+        Assertions.assertEquals(List.of(sql1), metaData.getSqlMetaData("agent", 1, 10));
+        verify(sqlMetaDataDao, times(1)).getSqlMetaData(anyList());
+    }
+
+    @Test
+    public void resolve_emptyNotCached() {
+        SqlMetaDataBo sql1 = new SqlMetaDataBo("agent", 1, 10, "select 1");
+        when(sqlMetaDataDao.getSqlMetaData(anyList()))
+                .thenReturn(List.of(Collections.emptyList()))
+                .thenReturn(List.of(List.of(sql1)));
+
+        MetaDataRequest request = new MetaDataRequest();
+        request.addSqlId("agent", 1, 10);
+
+        Assertions.assertTrue(resolver.resolve(request).getSqlMetaData("agent", 1, 10).isEmpty());
+        ResolvedMetaData metaData = resolver.resolve(request);
+
+        Assertions.assertEquals(List.of(sql1), metaData.getSqlMetaData("agent", 1, 10));
+        verify(sqlMetaDataDao, times(2)).getSqlMetaData(anyList());
+    }
+
+    @Test
+    public void resolve_api_emptyNotCached() {
+        ApiMetaDataBo api1 = new ApiMetaDataBo("agent", 1, 20, 10, MethodTypeEnum.DEFAULT, "Foo.bar()");
+        when(apiMetaDataDao.getApiMetaData(anyList()))
+                .thenReturn(List.of(Collections.emptyList()))
+                .thenReturn(List.of(List.of(api1)));
+
+        MetaDataRequest request = new MetaDataRequest();
+        request.addApiId("agent", 1, 20);
+
+        Assertions.assertTrue(resolver.resolve(request).getApiMetaData("agent", 1, 20).isEmpty());
+        Assertions.assertEquals(List.of(api1), resolver.resolve(request).getApiMetaData("agent", 1, 20));
+
+        // found once, then served from the cache
+        ResolvedMetaData metaData = resolver.resolve(request);
+        Assertions.assertEquals(List.of(api1), metaData.getApiMetaData("agent", 1, 20));
+        verify(apiMetaDataDao, times(2)).getApiMetaData(anyList());
+        verify(sqlMetaDataDao, never()).getSqlMetaData(anyList());
+    }
+
+    @Test
+    public void resolve_sizeMismatch() {
+        when(sqlMetaDataDao.getSqlMetaData(anyList())).thenReturn(Collections.emptyList());
+
+        MetaDataRequest request = new MetaDataRequest();
+        request.addSqlId("agent", 1, 10);
+
+        Assertions.assertThrows(IllegalStateException.class, () -> resolver.resolve(request));
+    }
+}
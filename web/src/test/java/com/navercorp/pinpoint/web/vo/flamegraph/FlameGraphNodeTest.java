@@ -0,0 +1,57 @@
+/*
+ * Copyright 2023 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.vo.flamegraph;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class FlameGraphNodeTest {
+
+    @Test
+    public void addCollapsedStacks() {
+        FlameGraphNode root = FlameGraphNode.root();
+        root.addCollapsedStacks("a.run;b.call;c.read 3\na.run;b.call 2\na.run;d.write 1");
+        root.addCollapsedStacks("a.run;b.call;c.read 4");
+
+        Assertions.assertEquals(10, root.getValue());
+        List<FlameGraphNode> children = root.getChildren();
+        Assertions.assertEquals(1, children.size());
+
+        FlameGraphNode run = children.get(0);
+        Assertions.assertEquals("a.run", run.getName());
+        Assertions.assertEquals(10, run.getValue());
+        Assertions.assertEquals(2, run.getChildren().size());
+
+        FlameGraphNode call = run.getChildren().get(0);
+        Assertions.assertEquals("b.call", call.getName());
+        Assertions.assertEquals(9, call.getValue());
+        Assertions.assertEquals(7, call.getChildren().get(0).getValue());
+    }
+
+    @Test
+    public void addCollapsedStacks_malformed() {
+        FlameGraphNode root = FlameGraphNode.root();
+        root.addCollapsedStacks("a.run;b.call\n 3\na.run x\n");
+        root.addCollapsedStacks(null);
+
+        Assertions.assertEquals(0, root.getValue());
+        Assertions.assertTrue(root.getChildren().isEmpty());
+    }
+}